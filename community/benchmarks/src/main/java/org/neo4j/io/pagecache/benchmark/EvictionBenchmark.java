@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.neo4j.io.pagecache.PageCursor;
+
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+
+/**
+ * Random page accesses to a file that is several times larger than the page cache, so that most accesses fault in a page, and pages have to be
+ * evicted to make room for them. The write variant also has to flush the dirty pages it evicts.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Fork( 1 )
+@Threads( 4 )
+@Warmup( iterations = 5, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+public class EvictionBenchmark
+{
+    private static final int CACHE_PAGES = 1024;
+
+    /**
+     * How many times larger the file is than the page cache.
+     */
+    @Param( {"2", "8"} )
+    public int oversubscription;
+
+    private PageCacheFixture fixture;
+
+    @Setup( Level.Trial )
+    public void setUp() throws IOException
+    {
+        fixture = new PageCacheFixture( CACHE_PAGES, CACHE_PAGES * oversubscription );
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown() throws Exception
+    {
+        fixture.close();
+    }
+
+    @Benchmark
+    public long readUnderPressure() throws IOException
+    {
+        long pageId = ThreadLocalRandom.current().nextInt( fixture.filePages() );
+        try ( PageCursor cursor = fixture.pagedFile().io( pageId, PF_SHARED_READ_LOCK, NULL ) )
+        {
+            long value = 0;
+            if ( cursor.next() )
+            {
+                do
+                {
+                    value = cursor.getLong( 0 );
+                }
+                while ( cursor.shouldRetry() );
+            }
+            return value;
+        }
+    }
+
+    @Benchmark
+    public void writeUnderPressure() throws IOException
+    {
+        long pageId = ThreadLocalRandom.current().nextInt( fixture.filePages() );
+        try ( PageCursor cursor = fixture.pagedFile().io( pageId, PF_SHARED_WRITE_LOCK, NULL ) )
+        {
+            if ( cursor.next() )
+            {
+                cursor.putLong( 0, pageId );
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.neo4j.io.pagecache.PageCursor;
+
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+
+/**
+ * Optimistic reads racing with writers to the same, small, set of pages. The number of times the readers have to
+ * {@link PageCursor#shouldRetry() retry} their reads is reported next to their throughput, as the {@code retries} counter, so the retry rate is
+ * {@code retries / reads}.
+ */
+@State( Scope.Group )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Fork( 1 )
+@Warmup( iterations = 5, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+public class OptimisticReadBenchmark
+{
+    /**
+     * The number of pages the readers and writers contend on. Fewer pages means more contention, and more retries.
+     */
+    @Param( {"1", "16", "256"} )
+    public int hotPages;
+
+    private PageCacheFixture fixture;
+
+    @Setup( Level.Trial )
+    public void setUp() throws IOException
+    {
+        fixture = new PageCacheFixture( hotPages * 2, hotPages );
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown() throws Exception
+    {
+        fixture.close();
+    }
+
+    @State( Scope.Thread )
+    @AuxCounters( AuxCounters.Type.EVENTS )
+    public static class ReadCounters
+    {
+        public long reads;
+        public long retries;
+
+        @Setup( Level.Iteration )
+        public void reset()
+        {
+            reads = 0;
+            retries = 0;
+        }
+    }
+
+    @Benchmark
+    @Group( "contended" )
+    @GroupThreads( 3 )
+    public long read( ReadCounters counters ) throws IOException
+    {
+        long pageId = ThreadLocalRandom.current().nextInt( hotPages );
+        try ( PageCursor cursor = fixture.pagedFile().io( pageId, PF_SHARED_READ_LOCK, NULL ) )
+        {
+            long first = 0;
+            long last = 0;
+            if ( cursor.next() )
+            {
+                boolean retry;
+                do
+                {
+                    first = cursor.getLong( 0 );
+                    last = cursor.getLong( 128 );
+                    retry = cursor.shouldRetry();
+                    if ( retry )
+                    {
+                        counters.retries++;
+                    }
+                }
+                while ( retry );
+            }
+            counters.reads++;
+            return first ^ last;
+        }
+    }
+
+    @Benchmark
+    @Group( "contended" )
+    @GroupThreads( 1 )
+    public void write() throws IOException
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long pageId = random.nextInt( hotPages );
+        try ( PageCursor cursor = fixture.pagedFile().io( pageId, PF_SHARED_WRITE_LOCK, NULL ) )
+        {
+            if ( cursor.next() )
+            {
+                long value = random.nextLong();
+                cursor.putLong( 0, value );
+                cursor.putLong( 128, value );
+            }
+        }
+    }
+}
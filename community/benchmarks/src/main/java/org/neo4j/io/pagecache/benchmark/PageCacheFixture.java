@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.benchmark;
+
+import org.eclipse.collections.api.factory.Sets;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.FileUtils;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
+import org.neo4j.scheduler.JobScheduler;
+
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+
+/**
+ * A page cache on the real file system, in a temporary directory, with a single mapped file, for the page cache benchmarks to work on.
+ */
+final class PageCacheFixture implements AutoCloseable
+{
+    static final String DATABASE_NAME = "benchmark";
+
+    private final FileSystemAbstraction fs;
+    private final JobScheduler scheduler;
+    private final Path directory;
+    private final PageCache pageCache;
+    private final PagedFile pagedFile;
+    private final int filePages;
+
+    /**
+     * @param cachePages the number of pages the page cache can hold.
+     * @param filePages the number of pages to create the mapped file with. Every page is filled with its page id.
+     */
+    PageCacheFixture( int cachePages, int filePages ) throws IOException
+    {
+        this.fs = new DefaultFileSystemAbstraction();
+        this.scheduler = JobSchedulerFactory.createInitialisedScheduler();
+        this.directory = Files.createTempDirectory( "neo4j-pagecache-benchmark" );
+        this.pageCache = new MuninnPageCache( new SingleFilePageSwapperFactory( fs, PageCacheTracer.NULL ), scheduler, MuninnPageCache.config( cachePages ) );
+        this.pagedFile = pageCache.map( directory.resolve( "data" ), PageCache.PAGE_SIZE, DATABASE_NAME, Sets.immutable.of( StandardOpenOption.CREATE ) );
+        this.filePages = filePages;
+        fill();
+    }
+
+    private void fill() throws IOException
+    {
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+        {
+            for ( long pageId = 0; pageId < filePages; pageId++ )
+            {
+                if ( !cursor.next( pageId ) )
+                {
+                    throw new IOException( "Could not grow the file to page " + pageId );
+                }
+                for ( int offset = 0; offset < PageCache.PAGE_SIZE; offset += Long.BYTES )
+                {
+                    cursor.putLong( offset, pageId );
+                }
+            }
+        }
+        pagedFile.flushAndForce();
+    }
+
+    PagedFile pagedFile()
+    {
+        return pagedFile;
+    }
+
+    int filePages()
+    {
+        return filePages;
+    }
+
+    @Override
+    public void close() throws Exception
+    {
+        try
+        {
+            pagedFile.close();
+            pageCache.close();
+            scheduler.close();
+            fs.close();
+        }
+        finally
+        {
+            FileUtils.deleteDirectory( directory );
+        }
+    }
+}
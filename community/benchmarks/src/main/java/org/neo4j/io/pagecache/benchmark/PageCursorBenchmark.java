@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+
+/**
+ * Sequential and random page cursor reads and writes, with the whole file fitting in the page cache. This measures the cost of pinning and
+ * unpinning pages, and of accessing their contents, without any page faults after warmup.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Fork( 1 )
+@Warmup( iterations = 5, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+public class PageCursorBenchmark
+{
+    private static final int LONGS_PER_PAGE = PageCache.PAGE_SIZE / Long.BYTES;
+
+    @Param( {"1024", "16384"} )
+    public int filePages;
+
+    private PageCacheFixture fixture;
+
+    @Setup( Level.Trial )
+    public void setUp() throws IOException
+    {
+        // Twice the file size, so that nothing is ever evicted.
+        fixture = new PageCacheFixture( filePages * 2, filePages );
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown() throws Exception
+    {
+        fixture.close();
+    }
+
+    @Benchmark
+    public long sequentialRead() throws IOException
+    {
+        long sum = 0;
+        try ( PageCursor cursor = fixture.pagedFile().io( 0, PF_SHARED_READ_LOCK, NULL ) )
+        {
+            while ( cursor.next() )
+            {
+                long value;
+                do
+                {
+                    value = cursor.getLong( 0 );
+                }
+                while ( cursor.shouldRetry() );
+                sum += value;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long randomRead() throws IOException
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long pageId = random.nextInt( fixture.filePages() );
+        int offset = random.nextInt( LONGS_PER_PAGE ) * Long.BYTES;
+        try ( PageCursor cursor = fixture.pagedFile().io( pageId, PF_SHARED_READ_LOCK, NULL ) )
+        {
+            long value = 0;
+            if ( cursor.next() )
+            {
+                do
+                {
+                    value = cursor.getLong( offset );
+                }
+                while ( cursor.shouldRetry() );
+            }
+            return value;
+        }
+    }
+
+    @Benchmark
+    public void sequentialWrite() throws IOException
+    {
+        try ( PageCursor cursor = fixture.pagedFile().io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+        {
+            for ( long pageId = 0; pageId < fixture.filePages() && cursor.next( pageId ); pageId++ )
+            {
+                cursor.putLong( 0, pageId );
+            }
+        }
+    }
+
+    @Benchmark
+    public void randomWrite() throws IOException
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long pageId = random.nextInt( fixture.filePages() );
+        int offset = random.nextInt( LONGS_PER_PAGE ) * Long.BYTES;
+        try ( PageCursor cursor = fixture.pagedFile().io( pageId, PF_SHARED_WRITE_LOCK, NULL ) )
+        {
+            if ( cursor.next() )
+            {
+                cursor.putLong( offset, pageId );
+            }
+        }
+    }
+}
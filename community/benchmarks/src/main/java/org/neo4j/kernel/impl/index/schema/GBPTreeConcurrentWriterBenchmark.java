@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.kernel.impl.index.schema.config.IndexSpecificSpaceFillingCurveSettings;
+import org.neo4j.values.storable.Values;
+
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+import static org.neo4j.kernel.impl.index.schema.NativeIndexKey.Inclusion.NEUTRAL;
+
+/**
+ * Inserts from multiple threads into a {@link GBPTree} with the {@link GenericLayout} of the range indexes, comparing the single writer,
+ * which the threads have to take turns using, with {@link GBPTree#concurrentWriter(org.neo4j.io.pagecache.context.CursorContext) concurrent writers}.
+ * The tree is populated with {@link #entries} keys up front, with values {@code 0 .. entries-1} and entity ids equal to the values.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Fork( 1 )
+@Threads( 4 )
+@Warmup( iterations = 5, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+public class GBPTreeConcurrentWriterBenchmark
+{
+    private static final int INSERT_BATCH = 100;
+    private static final int CACHE_PAGES = 65_536;
+
+    @Param( {"1000000"} )
+    public int entries;
+
+    @Param( {"SINGLE", "CONCURRENT"} )
+    public WriterType writerType;
+
+    private GenericLayout layout;
+    private GBPTreeFixture<BtreeKey,NullValue> fixture;
+    private final AtomicLong nextEntityId = new AtomicLong();
+
+    public enum WriterType
+    {
+        SINGLE
+                {
+                    @Override
+                    void insert( GBPTreeConcurrentWriterBenchmark benchmark, BtreeKey key ) throws IOException
+                    {
+                        // The single writer can only be held by one thread at a time
+                        synchronized ( benchmark.fixture )
+                        {
+                            try ( Writer<BtreeKey,NullValue> writer = benchmark.fixture.tree().writer( NULL ) )
+                            {
+                                benchmark.insertBatch( writer, key );
+                            }
+                        }
+                    }
+                },
+        CONCURRENT
+                {
+                    @Override
+                    void insert( GBPTreeConcurrentWriterBenchmark benchmark, BtreeKey key ) throws IOException
+                    {
+                        try ( Writer<BtreeKey,NullValue> writer = benchmark.fixture.tree().concurrentWriter( NULL ) )
+                        {
+                            benchmark.insertBatch( writer, key );
+                        }
+                    }
+                };
+
+        abstract void insert( GBPTreeConcurrentWriterBenchmark benchmark, BtreeKey key ) throws IOException;
+    }
+
+    @Setup( Level.Trial )
+    public void setUp() throws IOException
+    {
+        layout = new GenericLayout( 1, IndexSpecificSpaceFillingCurveSettings.fromConfig( Config.defaults() ) );
+        fixture = new GBPTreeFixture<>( layout, CACHE_PAGES );
+        BtreeKey key = layout.newKey();
+        try ( Writer<BtreeKey,NullValue> writer = fixture.tree().writer( NULL ) )
+        {
+            for ( long i = 0; i < entries; i++ )
+            {
+                initialize( key, i, i );
+                writer.put( key, NullValue.INSTANCE );
+            }
+        }
+        fixture.checkpoint();
+        nextEntityId.set( entries );
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown() throws Exception
+    {
+        fixture.close();
+    }
+
+    /**
+     * Inserts batches of keys with random values, spread out over the whole tree, and unique entity ids, one writer per batch,
+     * like applying the index updates of a transaction.
+     */
+    @Benchmark
+    @OperationsPerInvocation( INSERT_BATCH )
+    public void insert() throws IOException
+    {
+        writerType.insert( this, layout.newKey() );
+    }
+
+    private void insertBatch( Writer<BtreeKey,NullValue> writer, BtreeKey key )
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for ( int i = 0; i < INSERT_BATCH; i++ )
+        {
+            initialize( key, nextEntityId.getAndIncrement(), random.nextLong( entries ) );
+            writer.put( key, NullValue.INSTANCE );
+        }
+    }
+
+    private static void initialize( BtreeKey key, long entityId, long value )
+    {
+        key.initialize( entityId );
+        key.initFromValue( 0, Values.longValue( value ), NEUTRAL );
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.eclipse.collections.api.factory.Sets;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.FileUtils;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
+import org.neo4j.scheduler.JobScheduler;
+
+import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.writable;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+
+/**
+ * A {@link GBPTree} in a temporary directory on the real file system, with a page cache that is large enough to hold the whole tree.
+ */
+final class GBPTreeFixture<KEY,VALUE> implements AutoCloseable
+{
+    private static final String DATABASE_NAME = "benchmark";
+
+    private final FileSystemAbstraction fs;
+    private final JobScheduler scheduler;
+    private final Path directory;
+    private final Path indexFile;
+    private final PageCache pageCache;
+    private final GBPTree<KEY,VALUE> tree;
+
+    GBPTreeFixture( Layout<KEY,VALUE> layout, int cachePages ) throws IOException
+    {
+        this.fs = new DefaultFileSystemAbstraction();
+        this.scheduler = JobSchedulerFactory.createInitialisedScheduler();
+        this.directory = Files.createTempDirectory( "neo4j-gbptree-benchmark" );
+        this.indexFile = directory.resolve( "index" );
+        this.pageCache = new MuninnPageCache( new SingleFilePageSwapperFactory( fs, PageCacheTracer.NULL ), scheduler, MuninnPageCache.config( cachePages ) );
+        this.tree = new GBPTree<>( pageCache, indexFile, layout, GBPTree.NO_MONITOR, GBPTree.NO_HEADER_READER, GBPTree.NO_HEADER_WRITER,
+                RecoveryCleanupWorkCollector.immediate(), writable(), PageCacheTracer.NULL, Sets.immutable.empty(), DATABASE_NAME, "benchmark" );
+    }
+
+    GBPTree<KEY,VALUE> tree()
+    {
+        return tree;
+    }
+
+    void checkpoint()
+    {
+        tree.checkpoint( NULL );
+    }
+
+    long indexFileSize() throws IOException
+    {
+        return fs.getFileSize( indexFile );
+    }
+
+    @Override
+    public void close() throws Exception
+    {
+        try
+        {
+            tree.close();
+            pageCache.close();
+            scheduler.close();
+            fs.close();
+        }
+        finally
+        {
+            FileUtils.deleteDirectory( directory );
+        }
+    }
+}
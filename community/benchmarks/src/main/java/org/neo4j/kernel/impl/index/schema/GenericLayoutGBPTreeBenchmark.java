@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Seeker;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.kernel.impl.index.schema.config.IndexSpecificSpaceFillingCurveSettings;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+import static org.neo4j.kernel.impl.index.schema.NativeIndexKey.Inclusion.NEUTRAL;
+
+/**
+ * Inserts, exact seeks and range scans on a {@link GBPTree} with the {@link GenericLayout} of the range indexes, and keys holding either a number
+ * or a string value. The tree is populated with {@link #entries} keys up front, with values {@code 0 .. entries-1} and entity ids equal to the values.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Fork( 1 )
+@Warmup( iterations = 5, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+public class GenericLayoutGBPTreeBenchmark
+{
+    private static final int INSERT_BATCH = 100;
+    private static final int CACHE_PAGES = 65_536;
+
+    @Param( {"100000", "1000000"} )
+    public int entries;
+
+    @Param( {"LONG", "STRING"} )
+    public ValueType valueType;
+
+    @Param( {"100"} )
+    public int rangeSize;
+
+    private GenericLayout layout;
+    private GBPTreeFixture<BtreeKey,NullValue> fixture;
+    private long nextEntityId;
+
+    public enum ValueType
+    {
+        LONG
+                {
+                    @Override
+                    Value value( long number )
+                    {
+                        return Values.longValue( number );
+                    }
+                },
+        STRING
+                {
+                    @Override
+                    Value value( long number )
+                    {
+                        // Zero padded, so that the string order is the same as the number order, which makes range scans comparable.
+                        return Values.stringValue( String.format( "value-%016d", number ) );
+                    }
+                };
+
+        abstract Value value( long number );
+    }
+
+    @Setup( Level.Trial )
+    public void setUp() throws IOException
+    {
+        layout = new GenericLayout( 1, IndexSpecificSpaceFillingCurveSettings.fromConfig( Config.defaults() ) );
+        fixture = new GBPTreeFixture<>( layout, CACHE_PAGES );
+        BtreeKey key = layout.newKey();
+        try ( Writer<BtreeKey,NullValue> writer = fixture.tree().writer( NULL ) )
+        {
+            for ( long i = 0; i < entries; i++ )
+            {
+                initialize( key, i, i );
+                writer.put( key, NullValue.INSTANCE );
+            }
+        }
+        fixture.checkpoint();
+        nextEntityId = entries;
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown() throws Exception
+    {
+        fixture.close();
+    }
+
+    /**
+     * Inserts keys with random values, spread out over the whole tree, and unique entity ids. The tree only allows one writer at a time,
+     * so there is no point in running this with more than one thread.
+     */
+    @Benchmark
+    @OperationsPerInvocation( INSERT_BATCH )
+    public void insert() throws IOException
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        BtreeKey key = layout.newKey();
+        try ( Writer<BtreeKey,NullValue> writer = fixture.tree().writer( NULL ) )
+        {
+            for ( int i = 0; i < INSERT_BATCH; i++ )
+            {
+                initialize( key, nextEntityId++, random.nextLong( entries ) );
+                writer.put( key, NullValue.INSTANCE );
+            }
+        }
+    }
+
+    /**
+     * Seeks the single key with a random value, like a unique index lookup would.
+     */
+    @Benchmark
+    public boolean seek() throws IOException
+    {
+        long value = ThreadLocalRandom.current().nextLong( entries );
+        BtreeKey from = layout.newKey();
+        BtreeKey to = layout.newKey();
+        initialize( from, value, value );
+        initialize( to, value + 1, value );
+        try ( Seeker<BtreeKey,NullValue> seeker = fixture.tree().seek( from, to, NULL ) )
+        {
+            return seeker.next();
+        }
+    }
+
+    @Benchmark
+    public long rangeScan() throws IOException
+    {
+        long start = ThreadLocalRandom.current().nextLong( entries - rangeSize );
+        BtreeKey from = layout.newKey();
+        BtreeKey to = layout.newKey();
+        from.initialize( Long.MIN_VALUE );
+        from.initFromValue( 0, valueType.value( start ), NEUTRAL );
+        to.initialize( Long.MIN_VALUE );
+        to.initFromValue( 0, valueType.value( start + rangeSize ), NEUTRAL );
+        long sum = 0;
+        try ( Seeker<BtreeKey,NullValue> seeker = fixture.tree().seek( from, to, NULL ) )
+        {
+            while ( seeker.next() )
+            {
+                sum += seeker.key().getEntityId();
+            }
+        }
+        return sum;
+    }
+
+    private void initialize( BtreeKey key, long entityId, long value )
+    {
+        key.initialize( entityId );
+        key.initFromValue( 0, valueType.value( value ), NEUTRAL );
+    }
+}
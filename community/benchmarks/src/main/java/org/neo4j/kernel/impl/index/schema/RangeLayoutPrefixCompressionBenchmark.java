@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Seeker;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+import static org.neo4j.kernel.impl.index.schema.NativeIndexKey.Inclusion.NEUTRAL;
+
+/**
+ * Exact seeks and range scans on a {@link GBPTree} with the {@link RangeLayout}, with and without {@link RangeLayout#compressKeyPrefixes() prefix
+ * compressed} leaves. Keys are URL-like strings sharing a long prefix, which is where prefix compression is expected to pay off.
+ * The size of the index file is reported next to the throughput, as the {@code indexFileBytes} counter.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Fork( 1 )
+@Warmup( iterations = 5, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+public class RangeLayoutPrefixCompressionBenchmark
+{
+    private static final int CACHE_PAGES = 65_536;
+
+    @Param( {"100000", "1000000"} )
+    public int entries;
+
+    @Param( {"false", "true"} )
+    public boolean compressKeyPrefixes;
+
+    @Param( {"https://example.org/resources/people/"} )
+    public String prefix;
+
+    @Param( {"100"} )
+    public int rangeSize;
+
+    private RangeLayout layout;
+    private GBPTreeFixture<RangeKey,NullValue> fixture;
+
+    @Setup( Level.Trial )
+    public void setUp() throws IOException
+    {
+        layout = new RangeLayout( 1, compressKeyPrefixes );
+        fixture = new GBPTreeFixture<>( layout, CACHE_PAGES );
+        RangeKey key = layout.newKey();
+        try ( Writer<RangeKey,NullValue> writer = fixture.tree().writer( NULL ) )
+        {
+            for ( long i = 0; i < entries; i++ )
+            {
+                initialize( key, i, i );
+                writer.put( key, NullValue.INSTANCE );
+            }
+        }
+        fixture.checkpoint();
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown() throws Exception
+    {
+        fixture.close();
+    }
+
+    @State( Scope.Thread )
+    @AuxCounters( AuxCounters.Type.EVENTS )
+    public static class IndexSize
+    {
+        public long indexFileBytes;
+
+        @Setup( Level.Iteration )
+        public void measure( RangeLayoutPrefixCompressionBenchmark benchmark ) throws IOException
+        {
+            indexFileBytes = benchmark.fixture.indexFileSize();
+        }
+    }
+
+    @Benchmark
+    public boolean seek( IndexSize indexSize ) throws IOException
+    {
+        long value = ThreadLocalRandom.current().nextLong( entries );
+        RangeKey from = layout.newKey();
+        RangeKey to = layout.newKey();
+        initialize( from, value, value );
+        initialize( to, value + 1, value );
+        try ( Seeker<RangeKey,NullValue> seeker = fixture.tree().seek( from, to, NULL ) )
+        {
+            return seeker.next();
+        }
+    }
+
+    @Benchmark
+    public long rangeScan( IndexSize indexSize ) throws IOException
+    {
+        long start = ThreadLocalRandom.current().nextLong( entries - rangeSize );
+        RangeKey from = layout.newKey();
+        RangeKey to = layout.newKey();
+        from.initialize( Long.MIN_VALUE );
+        from.initFromValue( 0, value( start ), NEUTRAL );
+        to.initialize( Long.MIN_VALUE );
+        to.initFromValue( 0, value( start + rangeSize ), NEUTRAL );
+        long sum = 0;
+        try ( Seeker<RangeKey,NullValue> seeker = fixture.tree().seek( from, to, NULL ) )
+        {
+            while ( seeker.next() )
+            {
+                sum += seeker.key().getEntityId();
+            }
+        }
+        return sum;
+    }
+
+    private void initialize( RangeKey key, long entityId, long value )
+    {
+        key.initialize( entityId );
+        key.initFromValue( 0, value( value ), NEUTRAL );
+    }
+
+    private Value value( long number )
+    {
+        // Zero padded, so that the string order is the same as the number order
+        return Values.stringValue( prefix + String.format( "%016d", number ) );
+    }
+}
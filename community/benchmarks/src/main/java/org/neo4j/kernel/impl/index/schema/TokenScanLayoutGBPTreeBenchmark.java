@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Seeker;
+import org.neo4j.index.internal.gbptree.ValueMerger;
+import org.neo4j.index.internal.gbptree.Writer;
+
+import static java.lang.Long.bitCount;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+
+/**
+ * Inserts, exact seeks and range scans on a {@link GBPTree} with the {@link TokenScanLayout} of the token indexes. The tree is populated up front
+ * with {@link #entities} entities, each having one of {@link #tokens} tokens, in the format with {@link #wordsPerRange} words per value.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Fork( 1 )
+@Warmup( iterations = 5, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+public class TokenScanLayoutGBPTreeBenchmark
+{
+    private static final int INSERT_BATCH = 100;
+    private static final int CACHE_PAGES = 16_384;
+
+    @Param( {"1000000", "10000000"} )
+    public int entities;
+
+    @Param( {"1", "10"} )
+    public int tokens;
+
+    /**
+     * The number of 64 bit words in each value, i.e. {@code 1} for the original format and {@link TokenScanValue#WIDE_RANGE_WORDS} for
+     * the wide-range format.
+     */
+    @Param( {"1", "64"} )
+    public int wordsPerRange;
+
+    /**
+     * The number of 64 entity spans covered by each range scan, so that the scans cover the same entities regardless of {@link #wordsPerRange}.
+     */
+    @Param( {"100", "10000"} )
+    public int rangeScanWords;
+
+    private final ValueMerger<TokenScanKey,TokenScanValue> addMerger = new AddMerger( TokenIndex.EMPTY );
+    private TokenScanLayout layout;
+    private GBPTreeFixture<TokenScanKey,TokenScanValue> fixture;
+    private int rangeSize;
+    private long idRanges;
+    private long rangeScanIdRanges;
+    private long nextEntityId;
+
+    @Setup( Level.Trial )
+    public void setUp() throws IOException
+    {
+        layout = new TokenScanLayout( wordsPerRange );
+        rangeSize = layout.rangeSize();
+        fixture = new GBPTreeFixture<>( layout, CACHE_PAGES );
+        idRanges = (entities + rangeSize - 1) / rangeSize;
+        rangeScanIdRanges = ((long) rangeScanWords * Long.SIZE + rangeSize - 1) / rangeSize;
+        TokenScanKey key = layout.newKey();
+        TokenScanValue value = layout.newValue();
+        try ( Writer<TokenScanKey,TokenScanValue> writer = fixture.tree().writer( NULL ) )
+        {
+            // Entities are added in id order, one id range at a time per token, which is what a token index population produces.
+            for ( long idRange = 0; idRange < idRanges; idRange++ )
+            {
+                for ( int tokenId = 0; tokenId < tokens; tokenId++ )
+                {
+                    value.clear();
+                    for ( long entityId = idRange * rangeSize; entityId < Math.min( (idRange + 1) * rangeSize, entities ); entityId++ )
+                    {
+                        if ( entityId % tokens == tokenId )
+                        {
+                            value.set( (int) (entityId % rangeSize) );
+                        }
+                    }
+                    if ( !value.isEmpty() )
+                    {
+                        writer.put( key.set( tokenId, idRange ), value );
+                    }
+                }
+            }
+        }
+        fixture.checkpoint();
+        nextEntityId = entities;
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown() throws Exception
+    {
+        fixture.close();
+    }
+
+    /**
+     * Adds a random token to new entities, with increasing ids, like newly created nodes would get. The tree only allows one writer at a time,
+     * so there is no point in running this with more than one thread.
+     */
+    @Benchmark
+    @OperationsPerInvocation( INSERT_BATCH )
+    public void insert() throws IOException
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        TokenScanKey key = layout.newKey();
+        TokenScanValue value = layout.newValue();
+        try ( Writer<TokenScanKey,TokenScanValue> writer = fixture.tree().writer( NULL ) )
+        {
+            for ( int i = 0; i < INSERT_BATCH; i++ )
+            {
+                long entityId = nextEntityId++;
+                value.clear();
+                value.set( (int) (entityId % rangeSize) );
+                writer.merge( key.set( random.nextInt( tokens ), entityId / rangeSize ), value, addMerger );
+            }
+        }
+    }
+
+    /**
+     * Checks whether a random entity has a random token.
+     */
+    @Benchmark
+    public boolean seek() throws IOException
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int tokenId = random.nextInt( tokens );
+        long entityId = random.nextLong( entities );
+        long idRange = entityId / rangeSize;
+        try ( Seeker<TokenScanKey,TokenScanValue> seeker = fixture.tree().seek( new TokenScanKey( tokenId, idRange ), new TokenScanKey( tokenId, idRange + 1 ),
+                NULL ) )
+        {
+            int offset = (int) (entityId % rangeSize);
+            return seeker.next() && (seeker.value().word( offset / Long.SIZE ) & (1L << offset)) != 0;
+        }
+    }
+
+    /**
+     * Counts the entities with a random token, in a random span of id ranges.
+     */
+    @Benchmark
+    public long rangeScan() throws IOException
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int tokenId = random.nextInt( tokens );
+        long start = random.nextLong( Math.max( 1, idRanges - rangeScanIdRanges ) );
+        long count = 0;
+        try ( Seeker<TokenScanKey,TokenScanValue> seeker = fixture.tree().seek( new TokenScanKey( tokenId, start ),
+                new TokenScanKey( tokenId, start + rangeScanIdRanges ), NULL ) )
+        {
+            while ( seeker.next() )
+            {
+                TokenScanValue value = seeker.value();
+                long nonEmptyWords = value.nonEmptyWords;
+                while ( nonEmptyWords != 0 )
+                {
+                    count += bitCount( value.word( Long.numberOfTrailingZeros( nonEmptyWords ) ) );
+                    nonEmptyWords &= nonEmptyWords - 1;
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -66,6 +66,8 @@ public enum Group
     INDEX_SAMPLING( "IndexSampling" ),
     /** Background index update applier, for eventually consistent indexes. */
     INDEX_UPDATING( "IndexUpdating", ExecutorServiceFactory.singleThread() ), // Single-threaded to serialise updates with opening/closing/flushing of indexes.
+    /** Helps index updaters apply large batches of updates to native indexes using concurrent writers. */
+    INDEX_UPDATE_WORK( "IndexUpdateWork", ExecutorServiceFactory.cached() ),
     /** Thread pool for anyone who want some help doing file IO in parallel. */
     FILE_IO_HELPER( "FileIOHelper" ),
     LOG_WRITER( "LOG_WRITER" ),
@@ -83,6 +85,8 @@ public enum Group
     /** Thread pool for parallel Cypher query execution. */
     CYPHER_WORKER( "CypherWorker", ExecutorServiceFactory.workStealing() ),
     CYPHER_CACHE( "CypherCache", ExecutorServiceFactory.workStealing() ),
+    /** Parses LOAD CSV files ahead of the queries that consume their rows. The jobs block on their queries, so they get threads of their own. */
+    CYPHER_LOAD_CSV( "CypherLoadCsv" ),
 
     // DATA COLLECTOR
     DATA_COLLECTOR( "DataCollector" ),
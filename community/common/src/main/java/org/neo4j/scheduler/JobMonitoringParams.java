@@ -29,18 +29,29 @@ import static org.neo4j.common.Subject.SYSTEM;
 
 public class JobMonitoringParams
 {
-    public static final JobMonitoringParams NOT_MONITORED = new JobMonitoringParams( null, null, null, null );
+    public static final JobMonitoringParams NOT_MONITORED = new JobMonitoringParams( null, null, (String) null, null );
 
     private final Subject submitter;
     private final String targetDatabaseName;
-    private final String description;
+    private final Supplier<String> descriptionSupplier;
     private final Supplier<String> currentStateDescriptionSupplier;
 
     public JobMonitoringParams( Subject submitter, String targetDatabaseName, String description, Supplier<String> currentStateDescriptionSupplier )
+    {
+        this( submitter, targetDatabaseName, () -> description, currentStateDescriptionSupplier );
+    }
+
+    /**
+     * For jobs whose description can change after they have been scheduled, e.g. because more work is added to them while they wait for their turn.
+     *
+     * @param descriptionSupplier supplies the description of the job each time it is asked for.
+     */
+    public JobMonitoringParams( Subject submitter, String targetDatabaseName, Supplier<String> descriptionSupplier,
+            Supplier<String> currentStateDescriptionSupplier )
     {
         this.submitter = Objects.requireNonNullElse( submitter, AUTH_DISABLED );
         this.targetDatabaseName = targetDatabaseName;
-        this.description = description;
+        this.descriptionSupplier = descriptionSupplier;
         this.currentStateDescriptionSupplier = currentStateDescriptionSupplier;
     }
 
@@ -82,7 +93,7 @@ public class JobMonitoringParams
 
     public String getDescription()
     {
-        return description;
+        return descriptionSupplier.get();
     }
 
     public String getCurrentStateDescription()
@@ -101,7 +112,7 @@ public class JobMonitoringParams
         return "JobMonitoringParams{" +
                 "submitter=" + submitter +
                 ", targetDatabaseName='" + targetDatabaseName + '\'' +
-                ", description='" + description + '\'' +
+                ", description='" + getDescription() + '\'' +
                 '}';
     }
 }
@@ -39,12 +39,15 @@ import org.neo4j.kernel.impl.store.format.standard.Standard;
 import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.pagecache.PageCacheExtension;
+import org.neo4j.test.extension.pagecache.PageCacheSupportExtension;
 import org.neo4j.test.utils.TestDirectory;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.eclipse.collections.api.factory.Sets.immutable;
 import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
 import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.test.utils.PageCacheConfig.config;
 
 @PageCacheExtension
 class PageCachePrefetchingTest
@@ -112,6 +115,61 @@ class PageCachePrefetchingTest
         assertThat( faultsWithPreFetch ).as( "faults" ).isLessThan( faultsWithoutPreFetch );
     }
 
+    @Test
+    void scanningWithPreFetcherMustGiveStridedBackwardsScannerFewerPageFaults() throws Exception
+    {
+        scanner = cursor -> cursor.putBytes( PageCache.PAGE_SIZE, (byte) 0xA7 );
+        runScan( file, cursorContext, "Writer", 0 );
+
+        long faultsWithPreFetch = runStridedBackwardsScan( pageCache, PF_READ_AHEAD );
+        long faultsWithoutPreFetch = runStridedBackwardsScan( pageCache, 0 );
+
+        assertThat( faultsWithPreFetch ).as( "faults" ).isLessThan( faultsWithoutPreFetch );
+    }
+
+    @Test
+    void preFetcherMustReportPrefetchedPagesAndHits() throws Exception
+    {
+        scanner = cursor -> cursor.putBytes( PageCache.PAGE_SIZE, (byte) 0xA7 );
+        runScan( file, cursorContext, "Writer", 0 );
+
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( PageCache tracedPageCache = PageCacheSupportExtension.getPageCache( fs, config().withTracer( tracer ) ) )
+        {
+            runStridedBackwardsScan( tracedPageCache, PF_READ_AHEAD );
+        }
+
+        assertThat( tracer.prefetchedPages() ).as( "prefetched pages" ).isGreaterThan( 0 );
+        assertThat( tracer.prefetchHits() ).as( "prefetch hits" ).isGreaterThan( 0 );
+        assertThat( tracer.prefetchHits() + tracer.prefetchWaste() ).as( "prefetch hits and waste" ).isLessThanOrEqualTo( tracer.prefetchedPages() );
+    }
+
+    private long runStridedBackwardsScan( PageCache pageCache, int additionalPfFlags ) throws IOException
+    {
+        var scanContext = new CursorContext( new DefaultPageCursorTracer( new DefaultPageCacheTracer(), "strided scan" ) );
+        try ( PagedFile pagedFile = pageCache.map( file, PageCache.PAGE_SIZE, DEFAULT_DATABASE_NAME );
+              PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | additionalPfFlags, scanContext ) )
+        {
+            // The writer wrote 6000 pages, but the file may have been preallocated beyond that.
+            for ( long pageId = 5_999; pageId >= 0; pageId -= 4 )
+            {
+                assertThat( cursor.next( pageId ) ).isTrue();
+                long sum;
+                do
+                {
+                    sum = 0;
+                    for ( int offset = 0; offset < PageCache.PAGE_SIZE; offset += Long.BYTES )
+                    {
+                        sum += cursor.getLong( offset );
+                    }
+                }
+                while ( cursor.shouldRetry() );
+                assertThat( sum ).isNotZero();
+            }
+        }
+        return scanContext.getCursorTracer().faults();
+    }
+
     private long runScan( Path file, CursorContext cursorContext, String threadName, int additionalPfFlags ) throws InterruptedException
     {
         long faultsWith;
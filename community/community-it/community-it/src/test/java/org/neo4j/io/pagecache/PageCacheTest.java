@@ -6198,6 +6198,52 @@ public abstract class PageCacheTest<T extends PageCache> extends PageCacheTestSu
         }
     }
 
+    @Test
+    void touchMustLoadPagesIntoMemory() throws Exception
+    {
+        configureStandardPageCache();
+        Path file = file( "a" );
+        int filePages = maxPages / 2;
+        generateFileWithRecords( file, recordsPerFilePage * filePages, recordSize );
+        try ( PagedFile pf = map( file, filePageSize ) )
+        {
+            assertThat( pf.touch( 0, filePages, NULL ) ).isEqualTo( filePages );
+            try ( PageCursor nofault = pf.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT, NULL ) )
+            {
+                for ( int pageId = 0; pageId < filePages; pageId++ )
+                {
+                    assertTrue( nofault.next() );
+                    assertThat( nofault.getCurrentPageId() ).isEqualTo( pageId );
+                    verifyRecordsMatchExpected( nofault );
+                }
+            }
+        }
+    }
+
+    @Test
+    void touchMustSkipPagesInMemoryAndPagesBeyondEndOfFile() throws Exception
+    {
+        DefaultPageCacheTracer cacheTracer = new DefaultPageCacheTracer();
+        getPageCache( fs, maxPages, cacheTracer );
+        Path file = file( "a" );
+        int filePages = 4;
+        generateFileWithRecords( file, recordsPerFilePage * filePages, recordSize );
+        try ( PagedFile pf = map( file, filePageSize );
+              CursorContext cursorContext = new CursorContext( cacheTracer.createPageCursorTracer( "touchMustSkipPagesInMemory" ) ) )
+        {
+            try ( PageCursor cursor = pf.io( 1, PF_SHARED_READ_LOCK, cursorContext ) )
+            {
+                assertTrue( cursor.next() );
+            }
+            assertThat( cursorContext.getCursorTracer().faults() ).isEqualTo( 1 );
+
+            assertThat( pf.touch( 0, filePages * 10, cursorContext ) ).isEqualTo( filePages - 1 );
+            assertThat( cursorContext.getCursorTracer().faults() ).isEqualTo( filePages );
+            assertThat( pf.touch( 0, filePages, cursorContext ) ).isZero();
+            assertThat( pf.getLastPageId() ).isEqualTo( filePages - 1 );
+        }
+    }
+
     private static void verifyNoFaultAccessToInMemoryPages( PageCursor faulter, PageCursor nofault ) throws IOException
     {
         assertTrue( faulter.next() ); // Page 0 now exists.
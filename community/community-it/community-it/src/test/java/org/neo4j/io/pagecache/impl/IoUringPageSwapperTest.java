@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.neo4j.io.IOUtils;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.EphemeralFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.PageSwapperTest;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class IoUringPageSwapperTest extends PageSwapperTest
+{
+    private static final int PAGES = 200;
+
+    private DefaultFileSystemAbstraction fileSystem;
+
+    @BeforeEach
+    void setUp()
+    {
+        assumeTrue( IoUringPageSwapperFactory.isAvailable(), "io_uring is not available on this platform" );
+        fileSystem = new DefaultFileSystemAbstraction();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException
+    {
+        IOUtils.closeAll( fileSystem );
+    }
+
+    @Override
+    protected PageSwapperFactory swapperFactory( FileSystemAbstraction fileSystem )
+    {
+        return new IoUringPageSwapperFactory( fileSystem, new DefaultPageCacheTracer() );
+    }
+
+    @Override
+    protected void mkdirs( Path dir ) throws IOException
+    {
+        getFs().mkdirs( dir );
+    }
+
+    @Override
+    protected FileSystemAbstraction getFs()
+    {
+        return fileSystem;
+    }
+
+    @Test
+    void factoryMustCreateIoUringSwappers() throws IOException
+    {
+        Path file = testDir.file( "file" );
+        PageSwapper swapper = createSwapper( createSwapperFactory( getFs() ), file, 4, NO_CALLBACK, true, false, true );
+        assertThat( swapper ).isInstanceOf( IoUringPageSwapper.class );
+    }
+
+    @Test
+    void vectoredWriteAndReadMustHandleMoreBuffersThanRingEntries() throws IOException
+    {
+        Path file = testDir.file( "file" );
+        int pageSize = 32;
+        PageSwapper swapper = createSwapper( createSwapperFactory( getFs() ), file, pageSize, NO_CALLBACK, true, false, true );
+        long[] pages = new long[PAGES];
+        int[] pageSizes = new int[PAGES];
+        for ( int i = 0; i < PAGES; i++ )
+        {
+            pages[i] = createPage( pageSize );
+            pageSizes[i] = pageSize;
+            putLong( pages[i], 0, i );
+            putLong( pages[i], pageSize - Long.BYTES, -i );
+        }
+        assertThat( swapper.write( 1, pages, pageSizes, PAGES, PAGES ) ).isEqualTo( (long) PAGES * pageSize );
+        assertThat( swapper.getLastPageId() ).isEqualTo( PAGES );
+
+        for ( int i = 0; i < PAGES; i++ )
+        {
+            clear( pages[i] );
+        }
+        // Read one page more than we wrote, to see that the pages beyond the end of the file are zero-filled.
+        long[] readPages = new long[PAGES + 1];
+        int[] readPageSizes = new int[PAGES + 1];
+        System.arraycopy( pages, 0, readPages, 0, PAGES );
+        System.arraycopy( pageSizes, 0, readPageSizes, 0, PAGES );
+        readPages[PAGES] = createPage( pageSize );
+        readPageSizes[PAGES] = pageSize;
+        putLong( readPages[PAGES], 0, 42 );
+
+        assertThat( swapper.read( 1, readPages, readPageSizes, PAGES + 1 ) ).isEqualTo( (long) PAGES * pageSize );
+        for ( int i = 0; i < PAGES; i++ )
+        {
+            assertThat( getLong( readPages[i], 0 ) ).isEqualTo( i );
+            assertThat( getLong( readPages[i], pageSize - Long.BYTES ) ).isEqualTo( -i );
+        }
+        assertThat( getLong( readPages[PAGES], 0 ) ).isZero();
+    }
+
+    @Test
+    void mustFallBackToFileChannelIoOnFileSystemsWithoutFileDescriptors() throws IOException
+    {
+        try ( EphemeralFileSystemAbstraction ephemeralFileSystem = new EphemeralFileSystemAbstraction() )
+        {
+            Path file = testDir.file( "file" );
+            ephemeralFileSystem.mkdirs( file.getParent() );
+            int pageSize = 32;
+            PageSwapper swapper = createSwapper( createSwapperFactory( ephemeralFileSystem ), file, pageSize, NO_CALLBACK, true, false, true );
+            long page = createPage( pageSize );
+            putLong( page, 0, 42 );
+            assertThat( swapper.write( 0, new long[]{page, page}, new int[]{pageSize, pageSize}, 2, 2 ) ).isEqualTo( 2L * pageSize );
+            clear( page );
+            assertThat( swapper.read( 1, new long[]{page}, new int[]{pageSize}, 1 ) ).isEqualTo( pageSize );
+            assertThat( getLong( page, 0 ) ).isEqualTo( 42 );
+            swapper.close();
+        }
+    }
+}
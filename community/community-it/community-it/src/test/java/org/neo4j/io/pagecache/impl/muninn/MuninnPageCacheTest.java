@@ -34,6 +34,7 @@ import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_buffered_f
 import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_flush_buffer_size_in_pages;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_GROW;
+import static org.neo4j.io.pagecache.PagedFile.PF_SCAN;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
@@ -47,6 +48,7 @@ import java.nio.ByteBuffer;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -80,6 +82,7 @@ import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.context.VersionContext;
 import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.monitoring.FlushStatistics;
 import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.DelegatingPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.EvictionEvent;
@@ -360,6 +363,181 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
         }
     }
 
+    @Test
+    void smallPageCacheMustGetFewerEvictionShardsThanConfigured()
+    {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( MuninnPageCache pageCache = createShardedPageCache( 100, 8, tracer ) )
+        {
+            assertEquals( 1, pageCache.shards.length );
+            assertEquals( 1, tracer.evictionShards() );
+        }
+    }
+
+    @Test
+    void evictionShardsMustCoverAllPages()
+    {
+        int maxPages = 4 * 1024 + 3;
+        try ( MuninnPageCache pageCache = createShardedPageCache( maxPages, 4, PageCacheTracer.NULL ) )
+        {
+            assertEquals( 4, pageCache.shards.length );
+            int nextPageId = 0;
+            int keepFree = 0;
+            for ( EvictionShard shard : pageCache.shards )
+            {
+                assertEquals( nextPageId, shard.firstPageId );
+                nextPageId = shard.endPageId;
+                keepFree += shard.keepFree;
+            }
+            assertEquals( maxPages, nextPageId );
+            assertThat( keepFree ).isGreaterThanOrEqualTo( pageCache.getKeepFree() );
+        }
+    }
+
+    @Test
+    void mustGrabPagesFromAllEvictionShardsAndCountFaultsPerShard() throws IOException
+    {
+        int shards = 4;
+        int maxPages = shards * 1024;
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( MuninnPageCache pageCache = createShardedPageCache( maxPages, shards, tracer ) )
+        {
+            // We drain the shard of our own thread first, and then take the pages from the other shards.
+            Set<Long> pages = new HashSet<>();
+            for ( int i = 0; i < maxPages; i++ )
+            {
+                assertTrue( pages.add( pageCache.grabFreeAndExclusivelyLockedPage( PageFaultEvent.NULL ) ) );
+            }
+            for ( int shard = 0; shard < shards; shard++ )
+            {
+                assertEquals( maxPages / shards, tracer.shardFaults( shard ) );
+            }
+            assertEquals( shards, pageCache.tryGetNumberOfPagesToEvict( shards ) );
+
+            pages.forEach( page -> pageCache.addFreePageToFreelist( page, EvictionRunEvent.NULL ) );
+            assertEquals( -1, pageCache.tryGetNumberOfPagesToEvict( maxPages ) );
+            assertEquals( shards, pageCache.tryGetNumberOfPagesToEvict( maxPages + shards ) );
+        }
+    }
+
+    @Test
+    void shardedPageCacheMustEvictPagesAndCountEvictionsPerShard() throws IOException
+    {
+        int shards = 2;
+        int maxPages = shards * 1024;
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        writeInitialDataTo( file( "a" ) );
+        try ( MuninnPageCache pageCache = createShardedPageCache( maxPages, shards, tracer );
+              PagedFile pagedFile = map( pageCache, file( "a" ), 8 ) )
+        {
+            int filePages = maxPages * 3;
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+            {
+                for ( int i = 0; i < filePages; i++ )
+                {
+                    assertTrue( cursor.next() );
+                    cursor.putLong( 0, i );
+                }
+            }
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK, NULL ) )
+            {
+                for ( int i = 0; i < filePages; i++ )
+                {
+                    assertTrue( cursor.next() );
+                    long value;
+                    do
+                    {
+                        value = cursor.getLong( 0 );
+                    }
+                    while ( cursor.shouldRetry() );
+                    assertEquals( i, value );
+                }
+            }
+            long shardEvictions = 0;
+            for ( int shard = 0; shard < shards; shard++ )
+            {
+                shardEvictions += tracer.shardEvictions( shard );
+            }
+            assertThat( shardEvictions ).isGreaterThan( 0 );
+        }
+    }
+
+    private MuninnPageCache createShardedPageCache( int maxPages, int evictionShards, PageCacheTracer tracer )
+    {
+        MuninnPageCache.Configuration configuration = MuninnPageCache.config( maxPages ).evictionShards( evictionShards ).pageCacheTracer( tracer );
+        return new MuninnPageCache( new SingleFilePageSwapperFactory( fs, tracer ), jobScheduler, configuration );
+    }
+
+    @Test
+    void twoQueuePolicyMustKeepFrequentlyUsedPagesInMemoryDuringScan() throws IOException
+    {
+        assertThat( residentHotPagesAfterScan( PF_SCAN ) ).isEqualTo( 100 );
+    }
+
+    @Test
+    void twoQueuePolicyMustKeepFrequentlyUsedPagesInMemoryDuringScanWithoutScanFlag() throws IOException
+    {
+        assertThat( residentHotPagesAfterScan( 0 ) ).isEqualTo( 100 );
+    }
+
+    private int residentHotPagesAfterScan( int scanFlags ) throws IOException
+    {
+        int maxPages = 1024;
+        int hotPages = 100;
+        int filePages = maxPages * 4;
+        writeInitialDataTo( file( "a" ) );
+        MuninnPageCache.Configuration configuration = MuninnPageCache.config( maxPages ).replacementPolicy( PageReplacementPolicy.TWO_QUEUE );
+        try ( MuninnPageCache pageCache = new MuninnPageCache( new SingleFilePageSwapperFactory( fs, PageCacheTracer.NULL ), jobScheduler, configuration );
+              PagedFile pagedFile = map( pageCache, file( "a" ), 8 ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+            {
+                for ( int i = 0; i < filePages; i++ )
+                {
+                    assertTrue( cursor.next() );
+                    cursor.putLong( 0, i );
+                }
+            }
+            for ( int round = 0; round < 2; round++ )
+            {
+                try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK, NULL ) )
+                {
+                    for ( int i = 0; i < hotPages; i++ )
+                    {
+                        assertTrue( cursor.next() );
+                    }
+                }
+            }
+            try ( PageCursor cursor = pagedFile.io( hotPages, PF_SHARED_READ_LOCK | scanFlags, NULL ) )
+            {
+                for ( int i = hotPages; i < filePages; i++ )
+                {
+                    assertTrue( cursor.next() );
+                    long value;
+                    do
+                    {
+                        value = cursor.getLong( 0 );
+                    }
+                    while ( cursor.shouldRetry() );
+                    assertEquals( i, value );
+                }
+            }
+            int resident = 0;
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT, NULL ) )
+            {
+                for ( int i = 0; i < hotPages; i++ )
+                {
+                    assertTrue( cursor.next() );
+                    if ( cursor.getCurrentPageId() != PageCursor.UNBOUND_PAGE_ID )
+                    {
+                        resident++;
+                    }
+                }
+            }
+            return resident;
+        }
+    }
+
     @Test
     void countOpenedAndClosedCursors() throws IOException
     {
@@ -747,6 +925,88 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
         }
     }
 
+    @Test
+    void flushMustBridgeShortGapsOfCleanPagesBetweenDirtyPages() throws IOException
+    {
+        FlushStatistics flushed = flushDirtyPagesWithGaps( 2, 0, 2, 5, 9 );
+        // Pages 0 to 5 are written with one IO, by also writing the clean pages 1, 3 and 4. The gap before page 9 is too long to bridge.
+        assertThat( flushed.ioOperations() ).isEqualTo( 2 );
+        assertThat( flushed.pagesFlushed() ).isEqualTo( 7 );
+        assertThat( flushed.pagesBridged() ).isEqualTo( 3 );
+        assertThat( flushed.bytesWritten() ).isEqualTo( 7 * ByteUnit.kibiBytes( 8 ) );
+    }
+
+    @Test
+    void flushMustNotWriteCleanPagesAfterTheLastDirtyPage() throws IOException
+    {
+        FlushStatistics flushed = flushDirtyPagesWithGaps( 2, 0, 4 );
+        assertThat( flushed.ioOperations() ).isEqualTo( 2 );
+        assertThat( flushed.pagesFlushed() ).isEqualTo( 2 );
+        assertThat( flushed.pagesBridged() ).isZero();
+    }
+
+    @Test
+    void flushMustOnlyWriteDirtyPagesWhenGapBridgingIsDisabled() throws IOException
+    {
+        FlushStatistics flushed = flushDirtyPagesWithGaps( 0, 0, 2, 5, 9 );
+        assertThat( flushed.ioOperations() ).isEqualTo( 4 );
+        assertThat( flushed.pagesFlushed() ).isEqualTo( 4 );
+        assertThat( flushed.pagesBridged() ).isZero();
+    }
+
+    private FlushStatistics flushDirtyPagesWithGaps( int flushGapPages, int... dirtyPageIds ) throws IOException
+    {
+        int filePages = 10;
+        int pageSize = (int) ByteUnit.kibiBytes( 8 );
+        MuninnPageCache.Configuration configuration = MuninnPageCache.config( 20 ).flushGapPages( flushGapPages );
+        try ( MuninnPageCache pageCache = new MuninnPageCache( new SingleFilePageSwapperFactory( fs, PageCacheTracer.NULL ), jobScheduler, configuration );
+              PagedFile pagedFile = map( pageCache, file( "a" ), pageSize ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+            {
+                for ( int i = 0; i < filePages; i++ )
+                {
+                    assertTrue( cursor.next() );
+                    cursor.putLong( 0, i );
+                }
+            }
+            pagedFile.flushAndForce();
+            FlushStatistics before = pagedFile.flushStatistics();
+
+            for ( int pageId : dirtyPageIds )
+            {
+                try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_WRITE_LOCK, NULL ) )
+                {
+                    assertTrue( cursor.next() );
+                    cursor.putLong( 0, -pageId );
+                }
+            }
+            pagedFile.flushAndForce();
+            FlushStatistics flushed = pagedFile.flushStatistics().minus( before );
+
+            // Both the dirty pages, and the clean pages that bridged the gaps between them, must have the right contents in the file.
+            ByteBuffer buffer = ByteBuffers.allocate( pageSize, INSTANCE );
+            try ( StoreChannel channel = fs.read( file( "a" ) ) )
+            {
+                for ( int i = 0; i < filePages; i++ )
+                {
+                    buffer.clear();
+                    channel.readAll( buffer );
+                    long expected = i;
+                    for ( int pageId : dirtyPageIds )
+                    {
+                        if ( pageId == i )
+                        {
+                            expected = -i;
+                        }
+                    }
+                    assertEquals( expected, buffer.getLong( 0 ) );
+                }
+            }
+            return flushed;
+        }
+    }
+
     @Test
     void countNotModifiedPagesPerChunkWithBuffers() throws IOException
     {
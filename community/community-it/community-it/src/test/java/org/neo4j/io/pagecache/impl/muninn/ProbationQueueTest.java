@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProbationQueueTest
+{
+    @Test
+    void pollMustReturnEmptyFromEmptyQueue()
+    {
+        ProbationQueue queue = new ProbationQueue( 8 );
+        assertThat( queue.poll() ).isEqualTo( ProbationQueue.EMPTY );
+    }
+
+    @Test
+    void pollMustReturnPagesInTheOrderTheyWereOffered()
+    {
+        ProbationQueue queue = new ProbationQueue( 8 );
+        queue.offer( 0 );
+        queue.offer( 5 );
+        queue.offer( 3 );
+        assertThat( queue.poll() ).isEqualTo( 0 );
+        assertThat( queue.poll() ).isEqualTo( 5 );
+        assertThat( queue.poll() ).isEqualTo( 3 );
+        assertThat( queue.poll() ).isEqualTo( ProbationQueue.EMPTY );
+    }
+
+    @Test
+    void offerToFullQueueMustOverwriteOldestPages()
+    {
+        ProbationQueue queue = new ProbationQueue( 4 );
+        for ( int pageId = 0; pageId < 6; pageId++ )
+        {
+            queue.offer( pageId );
+        }
+        assertThat( queue.poll() ).isEqualTo( 2 );
+        assertThat( queue.poll() ).isEqualTo( 3 );
+        assertThat( queue.poll() ).isEqualTo( 4 );
+        assertThat( queue.poll() ).isEqualTo( 5 );
+        assertThat( queue.poll() ).isEqualTo( ProbationQueue.EMPTY );
+    }
+
+    @Test
+    void capacityMustBeRoundedUpToPowerOfTwo()
+    {
+        ProbationQueue queue = new ProbationQueue( 3 );
+        for ( int pageId = 0; pageId < 4; pageId++ )
+        {
+            queue.offer( pageId );
+        }
+        for ( int pageId = 0; pageId < 4; pageId++ )
+        {
+            assertThat( queue.poll() ).isEqualTo( pageId );
+        }
+        assertThat( queue.poll() ).isEqualTo( ProbationQueue.EMPTY );
+    }
+}
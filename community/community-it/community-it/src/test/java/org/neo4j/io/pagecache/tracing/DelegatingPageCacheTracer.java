@@ -241,6 +241,78 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         delegate.maxPages( maxPages, pageSize );
     }
 
+    @Override
+    public int evictionShards()
+    {
+        return delegate.evictionShards();
+    }
+
+    @Override
+    public long shardEvictions( int shard )
+    {
+        return delegate.shardEvictions( shard );
+    }
+
+    @Override
+    public long shardFaults( int shard )
+    {
+        return delegate.shardFaults( shard );
+    }
+
+    @Override
+    public void evictionShards( int shards )
+    {
+        delegate.evictionShards( shards );
+    }
+
+    @Override
+    public void shardEvictions( int shard, long evictions )
+    {
+        delegate.shardEvictions( shard, evictions );
+    }
+
+    @Override
+    public void shardFaults( int shard, long faults )
+    {
+        delegate.shardFaults( shard, faults );
+    }
+
+    @Override
+    public long prefetchedPages()
+    {
+        return delegate.prefetchedPages();
+    }
+
+    @Override
+    public long prefetchHits()
+    {
+        return delegate.prefetchHits();
+    }
+
+    @Override
+    public long prefetchWaste()
+    {
+        return delegate.prefetchWaste();
+    }
+
+    @Override
+    public void prefetchedPages( long pages )
+    {
+        delegate.prefetchedPages( pages );
+    }
+
+    @Override
+    public void prefetchHits( long hits )
+    {
+        delegate.prefetchHits( hits );
+    }
+
+    @Override
+    public void prefetchWaste( long pages )
+    {
+        delegate.prefetchWaste( pages );
+    }
+
     @Override
     public void iopq( long iopq )
     {
@@ -277,6 +277,72 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
     {
     }
 
+    @Override
+    public int evictionShards()
+    {
+        return 0;
+    }
+
+    @Override
+    public long shardEvictions( int shard )
+    {
+        return 0;
+    }
+
+    @Override
+    public long shardFaults( int shard )
+    {
+        return 0;
+    }
+
+    @Override
+    public void evictionShards( int shards )
+    {
+    }
+
+    @Override
+    public void shardEvictions( int shard, long evictions )
+    {
+    }
+
+    @Override
+    public void shardFaults( int shard, long faults )
+    {
+    }
+
+    @Override
+    public long prefetchedPages()
+    {
+        return 0;
+    }
+
+    @Override
+    public long prefetchHits()
+    {
+        return 0;
+    }
+
+    @Override
+    public long prefetchWaste()
+    {
+        return 0;
+    }
+
+    @Override
+    public void prefetchedPages( long pages )
+    {
+    }
+
+    @Override
+    public void prefetchHits( long hits )
+    {
+    }
+
+    @Override
+    public void prefetchWaste( long pages )
+    {
+    }
+
     @Override
     public void iopq( long iopq )
     {
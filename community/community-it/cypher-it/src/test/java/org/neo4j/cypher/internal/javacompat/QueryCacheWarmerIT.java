@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.javacompat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.cypher.internal.InputQuery;
+import org.neo4j.cypher.internal.QueryCache.CacheKey;
+import org.neo4j.cypher.internal.planning.CypherCacheHitMonitor;
+import org.neo4j.graphdb.Result;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.impl.query.QueryExecutionEngine;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.monitoring.Monitors;
+import org.neo4j.test.TestDatabaseManagementServiceBuilder;
+import org.neo4j.test.extension.DbmsController;
+import org.neo4j.test.extension.DbmsExtension;
+import org.neo4j.test.extension.ExtensionCallback;
+import org.neo4j.test.extension.Inject;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.cypher_query_cache_persistence;
+import static org.neo4j.test.assertion.Assert.assertEventually;
+
+@DbmsExtension( configurationCallback = "configure" )
+class QueryCacheWarmerIT
+{
+    private static final String QUERY = "MATCH (n:Person {name: $name}) RETURN n.age AS age";
+
+    @Inject
+    private GraphDatabaseAPI db;
+    @Inject
+    private DbmsController dbmsController;
+
+    @ExtensionCallback
+    void configure( TestDatabaseManagementServiceBuilder builder )
+    {
+        builder.setConfig( cypher_query_cache_persistence, true );
+    }
+
+    @Test
+    void shouldCompileCachedQueriesAgainAfterRestart()
+    {
+        execute( QUERY, Map.of( "name", "Ada" ) );
+        execute( "PROFILE " + QUERY, Map.of( "name", "Ada" ) );
+        execute( "MATCH (n) RETURN count(n)", Map.of() );
+        int cachedQueries = cypherEngine().persistableQueries().size();
+
+        dbmsController.restartDbms();
+
+        assertEventually( () -> cypherEngine().persistableQueries().size(), size -> size == cachedQueries, 1, MINUTES );
+        CacheMonitor monitor = new CacheMonitor();
+        db.getDependencyResolver().resolveDependency( Monitors.class ).addMonitorListener( monitor );
+        execute( QUERY, Map.of( "name", "Grace" ) );
+        execute( "PROFILE " + QUERY, Map.of( "name", "Grace" ) );
+        execute( "MATCH (n) RETURN count(n)", Map.of() );
+
+        assertEquals( 3, monitor.hits.get() );
+        assertEquals( 0, monitor.compilations.get() );
+    }
+
+    @Test
+    void shouldNotWarmUpQueriesExecutedWithOtherParameterTypes()
+    {
+        execute( QUERY, Map.of( "name", "Ada" ) );
+
+        dbmsController.restartDbms();
+
+        assertEventually( () -> cypherEngine().persistableQueries().size(), size -> size == 1, 1, MINUTES );
+        CacheMonitor monitor = new CacheMonitor();
+        db.getDependencyResolver().resolveDependency( Monitors.class ).addMonitorListener( monitor );
+        execute( QUERY, Map.of( "name", 42L ) );
+
+        assertEquals( 0, monitor.hits.get() );
+        assertEquals( 1, monitor.compilations.get() );
+    }
+
+    private org.neo4j.cypher.internal.ExecutionEngine cypherEngine()
+    {
+        ExecutionEngine engine = (ExecutionEngine) db.getDependencyResolver().resolveDependency( QueryExecutionEngine.class );
+        return engine.getCypherExecutionEngine();
+    }
+
+    private void execute( String query, Map<String,Object> parameters )
+    {
+        try ( Transaction tx = db.beginTx() )
+        {
+            try ( Result result = tx.execute( query, parameters ) )
+            {
+                result.accept( row -> true );
+            }
+            tx.commit();
+        }
+    }
+
+    /**
+     * Counts the events of the query cache of the execution engine, and ignores those of the caches of the planner.
+     */
+    private static class CacheMonitor implements CypherCacheHitMonitor<Object>
+    {
+        private final AtomicInteger hits = new AtomicInteger();
+        private final AtomicInteger compilations = new AtomicInteger();
+
+        @Override
+        public void cacheHit( Object key )
+        {
+            if ( isQueryCacheKey( key ) )
+            {
+                hits.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void cacheCompile( Object key )
+        {
+            if ( isQueryCacheKey( key ) )
+            {
+                compilations.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void cacheCompileWithExpressionCodeGen( Object key )
+        {
+            cacheCompile( key );
+        }
+
+        private static boolean isQueryCacheKey( Object key )
+        {
+            return key instanceof CacheKey && ((CacheKey<?>) key).queryRep() instanceof InputQuery.CacheKey;
+        }
+    }
+}
@@ -82,6 +82,9 @@ class IndexPopulationJobMonitoringTest
     @Test
     void testPopulationOfMultipleIndexes()
     {
+        var indexPopulation = mock( MultipleIndexPopulator.IndexPopulation.class );
+        when( indexPopulation.progress( any() ) ).thenAnswer( invocation -> invocation.getArgument( 0 ) );
+        when( populator.addPopulator( any(), any(), any(), any() ) ).thenReturn( indexPopulation );
         when( populator.createStoreScan( any() ) ).thenReturn( scan );
         when( populator.hasPopulators() ).thenReturn( true );
         when( scan.getProgress() ).thenReturn(
@@ -104,15 +107,15 @@ class IndexPopulationJobMonitoringTest
         assertThat( monitoringParams.getTargetDatabaseName() ).isEqualTo( "Another Test DB" );
         assertThat( monitoringParams.getDescription() ).isEqualTo( "Population of 3 'NODE' indexes" );
 
-        verifyCurrentState( monitoringParams, "Population of indexes 'index 1','index 2','index 3'; Total progress: 0.0%" );
+        verifyCurrentState( monitoringParams, "Population of indexes 'index 1' (0.0%),'index 2' (0.0%),'index 3' (0.0%); Total progress: 0.0%" );
 
         job.run();
 
-        verifyCurrentState( monitoringParams, "Population of indexes 'index 1','index 2','index 3'; Total progress: 0.0%" );
-        verifyCurrentState( monitoringParams, "Population of indexes 'index 1','index 2','index 3'; Total progress: 0.9%" );
-        verifyCurrentState( monitoringParams, "Population of indexes 'index 1','index 2','index 3'; Total progress: 9.9%" );
-        verifyCurrentState( monitoringParams, "Population of indexes 'index 1','index 2','index 3'; Total progress: 99.9%" );
-        verifyCurrentState( monitoringParams, "Population of indexes 'index 1','index 2','index 3'; Total progress: 100.0%" );
+        verifyCurrentState( monitoringParams, "Population of indexes 'index 1' (0.0%),'index 2' (0.0%),'index 3' (0.0%); Total progress: 0.0%" );
+        verifyCurrentState( monitoringParams, "Population of indexes 'index 1' (0.9%),'index 2' (0.9%),'index 3' (0.9%); Total progress: 0.9%" );
+        verifyCurrentState( monitoringParams, "Population of indexes 'index 1' (9.9%),'index 2' (9.9%),'index 3' (9.9%); Total progress: 9.9%" );
+        verifyCurrentState( monitoringParams, "Population of indexes 'index 1' (99.9%),'index 2' (99.9%),'index 3' (99.9%); Total progress: 99.9%" );
+        verifyCurrentState( monitoringParams, "Population of indexes 'index 1' (100.0%),'index 2' (100.0%),'index 3' (100.0%); Total progress: 100.0%" );
     }
 
     private static void addIndex( IndexPopulationJob job, String indexName )
@@ -207,6 +207,59 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     public static final Setting<Boolean> cypher_enable_runtime_monitors =
             newBuilder( "unsupported.cypher.enable_runtime_monitors", BOOL, false ).build();
 
+    @Internal
+    @Description( "The amount of heap memory that each sort, top and eager aggregation operator of the interpreted runtimes may hold on to, " +
+                  "before it starts spilling rows to temporary files. The memory is measured by the query allocation tracking, so spilling " +
+                  "only happens when dbms.track_query_allocation is enabled. A value of 0 disables spilling." )
+    public static final Setting<Long> cypher_operator_spill_threshold =
+            newBuilder( "unsupported.cypher.operator_spill_threshold", BYTES, 0L ).addConstraint( min( 0L ) ).build();
+
+    @Internal
+    @Description( "The directory that sort, top, hash join and eager aggregation operators spill rows to, with a sub-directory per database. " +
+                  "The sub-directory of a database is cleared whenever the database starts. A relative path is resolved against dbms.directories.data." )
+    public static final Setting<Path> cypher_spill_directory =
+            newBuilder( "unsupported.cypher.spill_directory", PATH, Path.of( "temp", "cypher-spill" ) )
+                    .setDependency( GraphDatabaseSettings.data_directory ).immutable().build();
+
+    @Internal
+    @Description( "Let the interpreted runtimes compute aggregations over all nodes or label scans of read-only queries with several threads, " +
+                  "unless the query chooses otherwise with the 'parallelAggregation' query option." )
+    public static final Setting<Boolean> cypher_parallel_aggregation =
+            newBuilder( "unsupported.cypher.parallel_aggregation", BOOL, false ).build();
+
+    @Internal
+    @Description( "The number of threads that scan and aggregate in parallel for a single aggregation of the interpreted runtimes. " +
+                  "A value of 0 uses as many threads as there are available processors." )
+    public static final Setting<Integer> cypher_parallel_aggregation_workers =
+            newBuilder( "unsupported.cypher.parallel_aggregation_workers", INT, 0 ).addConstraint( min( 0 ) ).build();
+
+    @Internal
+    @Description( "Let the interpreted runtime keep the variables of its rows in fixed slots of arrays, with nodes and relationships as " +
+                  "primitive ids, instead of in hash maps." )
+    public static final Setting<Boolean> cypher_interpreted_slotted_rows =
+            newBuilder( "unsupported.cypher.interpreted_slotted_rows", BOOL, false ).build();
+
+    @Internal
+    @Description( "Write the queries in the query cache of a database to disk when the database stops, and compile them again in the background " +
+                  "when it starts, so that the query cache does not have to be filled by the workload after a restart. " +
+                  "The queries are planned again against the current statistics and schema, and queries that no longer compile are discarded." )
+    public static final Setting<Boolean> cypher_query_cache_persistence =
+            newBuilder( "unsupported.cypher.query_cache_persistence", BOOL, false ).build();
+
+    @Internal
+    @Description( "Replan queries that the query cache finds stale on a background thread, and keep executing them with their stale plans " +
+                  "until the new plans are ready, instead of replanning them as part of the execution that finds them stale." )
+    public static final Setting<Boolean> cypher_background_replanning =
+            newBuilder( "unsupported.cypher.background_replanning", BOOL, false ).build();
+
+    @Internal
+    @Description( "Number of rows that LOAD CSV parses ahead of the query on a thread of its own. " +
+                  "Rows are handed over to the query in batches through a bounded queue, where they count towards the memory used by the query, " +
+                  "and the characters are read ahead of the parser on yet another thread. " +
+                  "If set to 0, LOAD CSV reads and parses its rows on the thread of the query." )
+    public static final Setting<Integer> load_csv_prefetch_rows =
+            newBuilder( "unsupported.cypher.load_csv_prefetch_rows", INT, 0 ).addConstraint( min( 0 ) ).build();
+
     @Internal
     @Description( "Enable tracing of pipelined runtime scheduler." )
     public static final Setting<Boolean> enable_pipelined_runtime_trace =
@@ -399,6 +452,19 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
             newBuilder( "unsupported.dbms.index_population.workers", INT, Integer.max( 1, Runtime.getRuntime().availableProcessors() / 4 ) )
                     .addConstraint( min( 0 ) ).build();
 
+    @Internal
+    @Description( "Let indexes created while another index population is waiting for its turn join that population, " +
+            "instead of each getting a population of its own. Indexes created one by one, e.g. after a bulk load, are then populated " +
+            "by fewer store scans. The number of populations running at the same time is limited by unsupported.dbms.index_population.parallelism." )
+    public static final Setting<Boolean> index_population_join_queued_jobs =
+            newBuilder( "unsupported.dbms.index_population.join_queued_jobs", BOOL, true ).build();
+
+    @Internal
+    @Description( "How long a new index population waits before it is handed to the scheduler, so that indexes created shortly after " +
+            "can join it, see unsupported.dbms.index_population.join_queued_jobs. Zero schedules populations right away." )
+    public static final Setting<Duration> index_population_join_delay =
+            newBuilder( "unsupported.dbms.index_population.join_delay", DURATION, Duration.ofMillis( 100 ) ).build();
+
     @Internal
     @Description( "The default index provider used for managing full-text indexes. Only 'fulltext-1.0' is supported." )
     public static final Setting<String> default_fulltext_provider =
@@ -694,6 +760,12 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     @Description( "Merge factory for index population" )
     public static final Setting<Integer> index_populator_merge_factor = newBuilder( "unsupported.dbms.index.populator_merge_factor", INT, 8 ).build();
 
+    @Internal
+    @Description( "Ratio of each tree node to fill when bulk loading sorted entries into an empty index during index population. " +
+            "Lower values leave room for updates to be inserted without splitting the freshly populated nodes." )
+    public static final Setting<Double> index_populator_bulk_load_fill_factor =
+            newBuilder( "unsupported.dbms.index.populator_bulk_load_fill_factor", DOUBLE, 1.0 ).addConstraint( range( 0.1, 1.0 ) ).build();
+
     @Internal
     @Description( "Enable/disable logging for the id generator" )
     public static final Setting<Boolean> id_generator_log_enabled = newBuilder( "unsupported.dbms.idgenerator.log.enabled", BOOL, false ).build();
@@ -708,6 +780,26 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     public static final Setting<Duration> id_generator_log_prune_threshold =
             newBuilder( "unsupported.dbms.idgenerator.log.prune_threshold", DURATION, ofDays( 2 ) ).build();
 
+    @Internal
+    @Description( "Write token lookup indexes in the wide-range format, where each entry covers 4096 entity ids with a compressed bit set, " +
+            "instead of 64 entity ids with a plain bit set. Token lookup indexes written in the other format are rebuilt when they are opened." )
+    public static final Setting<Boolean> token_index_wide_ranges = newBuilder( "unsupported.dbms.index.token_lookup.wide_ranges", BOOL, false ).build();
+
+    @Internal
+    @Description( "Create range indexes in a format where the keys in each leaf are stored prefix compressed, which makes indexes on values " +
+            "sharing long prefixes, like URLs or namespaced identifiers, smaller. Only affects indexes created or rebuilt after the change, " +
+            "existing indexes keep the format they were created with." )
+    public static final Setting<Boolean> range_index_key_prefix_compression =
+            newBuilder( "unsupported.dbms.index.range.key_prefix_compression", BOOL, false ).build();
+
+    @Internal
+    @Description( "Let native indexes hand out index updaters that write using concurrent tree writers, so that updates to different " +
+            "leaves of the same index can be applied in parallel. Online updates are written in place by each updater. Larger batches of " +
+            "updates applied during recovery are split by key range and applied by several threads. Changes that split or merge tree nodes " +
+            "are still applied one at a time." )
+    public static final Setting<Boolean> index_concurrent_writers =
+            newBuilder( "unsupported.dbms.index.concurrent_writers", BOOL, false ).build();
+
     @Internal
     @Description( "Enable/disable write log for token lookup indexes" )
     public static final Setting<Boolean> token_scan_write_log_enabled = newBuilder( "unsupported.dbms.tokenscan.log.enabled", BOOL, false ).build();
@@ -822,6 +914,19 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     public static final Setting<Boolean> dedicated_transaction_appender =
             newBuilder( "unsupported.dbms.tx.logs.dedicated.appender", BOOL, Boolean.FALSE ).build();
 
+    @Internal
+    @Description( "The longest time, in microseconds, that the dedicated transaction appender waits for more transactions to join a batch before " +
+            "forcing the transaction log. The actual wait adapts to the number of concurrently committing transactions and to the observed force " +
+            "latency, and is never longer than half of a force. Zero, the default, disables the waiting." )
+    public static final Setting<Long> dedicated_transaction_appender_max_group_commit_wait_micros =
+            newBuilder( "unsupported.dbms.tx.logs.group_commit.max_wait_micros", LONG, 0L ).addConstraint( min( 0L ) ).build();
+
+    @Internal
+    @Description( "The largest number of transactions that the dedicated transaction appender waits for to join a batch before forcing the " +
+            "transaction log." )
+    public static final Setting<Integer> dedicated_transaction_appender_max_group_commit_batch =
+            newBuilder( "unsupported.dbms.tx.logs.group_commit.max_batch", INT, 256 ).addConstraint( range( 1, 1024 ) ).build();
+
     @Internal
     @Description( "Enable per page file metrics collection in a default page cache and cursor tracer." )
     public static final Setting<Boolean> per_file_metrics_counters = newBuilder( "unsupported.dbms.page.file.tracer", BOOL, false ).build();
@@ -834,14 +939,88 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
             newBuilder( "unsupported.dbms.memory.pagecache.warmup.legacy_profile_loader", BOOL, false ).build();
 
     @Internal
-    @Description( "Enables blocking Page Cache warmup. Database start will be blocked until warmer is completed." )
+    @Description( "Enables blocking Page Cache warmup. Database start will be blocked until warmer is completed. A warmup that loads " +
+                  "profiled pages always blocks, so this only affects warmups without profiles, i.e. pre-fetching." )
     public static final Setting<Boolean> pagecache_warmup_blocking =
             newBuilder( "unsupported.dbms.memory.pagecache.warmup.blocking", BOOL, false ).build();
 
+    @Internal
+    @Description( "The number of shards the pages of the page cache are partitioned into. Every shard has its own freelist and eviction thread, " +
+            "and page faulting threads prefer to take free pages from their own shard. This reduces contention when many threads are page faulting " +
+            "at the same time. Small page caches may get fewer shards than configured." )
+    public static final Setting<Integer> pagecache_eviction_shards =
+            newBuilder( "unsupported.dbms.memory.pagecache.eviction_shards", INT, 1 ).addConstraint( min( 1 ) ).build();
+
+    public enum PageCacheReplacementPolicy
+    {
+        CLOCK, TWO_QUEUE
+    }
+
+    @Internal
+    @Description( "The policy the page cache uses to pick which pages to evict. 'CLOCK' evicts the pages that have been least recently used. " +
+            "'TWO_QUEUE' puts newly loaded pages on probation, and evicts pages that are still on probation first, which keeps large scans from " +
+            "pushing frequently used pages out of the page cache." )
+    public static final Setting<PageCacheReplacementPolicy> pagecache_replacement_policy =
+            newBuilder( "unsupported.dbms.memory.pagecache.replacement_policy", ofEnum( PageCacheReplacementPolicy.class ),
+                    PageCacheReplacementPolicy.CLOCK ).build();
+
+    public enum PageSwapperImplementation
+    {
+        SINGLE_FILE, IO_URING
+    }
+
+    @Internal
+    @Description( "The implementation the page cache uses to read pages from, and write pages to, the store files. 'SINGLE_FILE' uses blocking " +
+            "file channel calls. 'IO_URING' submits the batches of reads and writes that are made when runs of pages are pre-fetched or flushed " +
+            "through io_uring, so the kernel can perform them concurrently. It requires Linux 5.1 or newer, and falls back to 'SINGLE_FILE' " +
+            "when io_uring is not available." )
+    public static final Setting<PageSwapperImplementation> pagecache_swapper =
+            newBuilder( "unsupported.dbms.memory.pagecache.swapper", ofEnum( PageSwapperImplementation.class ),
+                    PageSwapperImplementation.SINGLE_FILE ).build();
+
+    public enum PageCacheHugePages
+    {
+        DISABLED, TRANSPARENT, HUGETLB
+    }
+
+    @Internal
+    @Description( "Map the memory of the page cache with huge pages, which reduces the TLB misses when accessing a large page cache. " +
+            "'TRANSPARENT' aligns the memory to the huge page size, and advises the kernel to back it with transparent huge pages. " +
+            "'HUGETLB' maps the memory from the pool of huge pages reserved with hugetlbfs, and uses transparent huge pages once the pool runs out. " +
+            "Only supported on Linux. How much of the page cache memory is backed by huge pages is logged when the page cache is created." )
+    public static final Setting<PageCacheHugePages> pagecache_huge_pages =
+            newBuilder( "unsupported.dbms.memory.pagecache.huge_pages", ofEnum( PageCacheHugePages.class ), PageCacheHugePages.DISABLED ).build();
+
+    @Internal
+    @Description( "The maximum number of consecutive clean pages that a checkpoint may write along with the dirty pages around them, " +
+            "in order to write two runs of dirty pages with a single vectored write. This trades some extra bytes written for fewer IOs, " +
+            "which helps when the dirty pages are scattered. Gaps are only bridged when flushing without intermediate buffers, " +
+            "i.e. when 'dbms.memory.pagecache.flush.buffer.enabled' is false. '0' only writes dirty pages." )
+    public static final Setting<Integer> pagecache_flush_gap_pages =
+            newBuilder( "unsupported.dbms.memory.pagecache.flush.max_gap_pages", INT, 8 ).addConstraint( range( 0, 64 ) ).build();
+
+    @Internal
+    @Description( "Limit the number of bytes per second the background checkpoint process writes when flushing the page cache. " +
+            "Unlike 'dbms.checkpoint.iops.limit', this limit does not depend on how many pages are written with each IO. " +
+            "Checkpoints that are explicitly requested, or that are made during shutdown, are not limited. '0' disables the limit." )
+    public static final Setting<Long> check_point_flush_throughput_limit =
+            newBuilder( "unsupported.dbms.checkpoint.flush.throughput_limit", BYTES, 0L ).addConstraint( min( 0L ) ).build();
+
     @Internal
     @Description( "Enables sketching of next transaction log file in the background during reverse recovery." )
     public static final Setting<Boolean> pre_sketch_transaction_logs = newBuilder( "unsupported.dbms.tx_log.presketch", BOOL, false ).build();
 
+    @Internal
+    @Description( "Prepare the file of the next transaction log version in the background, so that log rotation only has to rename it into place." )
+    public static final Setting<Boolean> transaction_log_prepare_next_file =
+            newBuilder( "unsupported.dbms.tx_log.prepare_next_file", BOOL, false ).build();
+
+    @Internal
+    @Description( "Reuse pruned transaction log files for the next prepared transaction log file, instead of deleting them. " +
+            "Only has an effect if preparing the next transaction log file is enabled." )
+    public static final Setting<Boolean> transaction_log_recycle_pruned_files =
+            newBuilder( "unsupported.dbms.tx_log.recycle_pruned_files", BOOL, false ).build();
+
     @Internal
     @Description( "Maximum size after which the planner will not attempt to plan the disjunction of predicates on a single variable as a distinct union." +
               "For example, given the following pattern: `()-[e:FOO|BAR|BAZ]->()`, the planner will attempt to plan a union of `e:Foo`, `e:Bar`, and `e:Baz`" +
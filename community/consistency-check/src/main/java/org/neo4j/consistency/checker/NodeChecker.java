@@ -334,7 +334,7 @@ class NodeChecker implements Checker
         {
             for ( long label : labels )
             {
-                reporter.forNodeLabelScan( new TokenScanDocument( new EntityTokenRangeImpl( nodeId / Long.SIZE, EntityTokenRangeImpl.NO_TOKENS, NODE ) ) )
+                reporter.forNodeLabelScan( new TokenScanDocument( EntityTokenRangeImpl.withoutTokens( nodeId, context.nodeLabelIndex.rangeSize(), NODE ) ) )
                         .nodeLabelNotInIndex( recordLoader.node( nodeId, storeCursors ), label );
             }
         }
@@ -56,7 +56,6 @@ import static org.neo4j.common.EntityType.RELATIONSHIP;
 import static org.neo4j.consistency.checker.NodeChecker.compareTwoSortedLongArrays;
 import static org.neo4j.consistency.checker.RecordLoading.checkValidToken;
 import static org.neo4j.consistency.checker.RecordLoading.lightReplace;
-import static org.neo4j.kernel.impl.index.schema.EntityTokenRangeImpl.NO_TOKENS;
 import static org.neo4j.kernel.impl.store.record.Record.NULL_REFERENCE;
 
 /**
@@ -273,7 +272,8 @@ class RelationshipChecker implements Checker
         }
         else
         {
-            TokenScanDocument document = new TokenScanDocument( new EntityTokenRangeImpl( relationshipId / Long.SIZE, NO_TOKENS, RELATIONSHIP ) );
+            TokenScanDocument document = new TokenScanDocument(
+                    EntityTokenRangeImpl.withoutTokens( relationshipId, context.relationshipTypeIndex.rangeSize(), RELATIONSHIP ) );
             reporter.forRelationshipTypeScan( document ).relationshipTypeNotInIndex( recordLoader.relationship( relationshipId, storeCursors ), type );
         }
     }
@@ -71,7 +71,7 @@ public class Readables
     }
 
     /**
-     * Wraps a {@link InputStream} in a {@link CharReadable}.
+     * Wraps a {@link InputStream} in a {@link CharReadable}. A GZIP compressed stream is decompressed on the fly, while reading.
      *
      * @param stream {@link Reader} to wrap.
      * @param sourceName name or description of the source of the stream.
@@ -91,6 +91,11 @@ public class Readables
         {
             bytes = read < bytes.length ? Arrays.copyOf( bytes, read ) : bytes;
             Magic magic = Magic.of( bytes );
+            if ( magic == Magic.GZIP )
+            {
+                pushbackStream.unread( bytes, 0, read );
+                return wrap( new GZIPInputStream( pushbackStream ), sourceName, charset, length );
+            }
             int excessiveBytes = read;
             if ( magic.impliesEncoding() )
             {
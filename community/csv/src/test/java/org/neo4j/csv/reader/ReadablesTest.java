@@ -197,6 +197,20 @@ class ReadablesTest
         assertReadTextAsInputStream( file, text, readMethod );
     }
 
+    @ParameterizedTest( name = "read method {index}" )
+    @MethodSource( "parameters" )
+    void shouldReadTextFromWrappedGZipInputStream( ReadMethod readMethod ) throws Exception
+    {
+        // GIVEN
+        String text = "abcdefghijklmnop";
+
+        // WHEN
+        Path compressed = compressWithGZip( text );
+
+        // THEN
+        assertReadTextAsInputStream( compressed, text, readMethod );
+    }
+
     @ParameterizedTest( name = "read method {index}" )
     @MethodSource( "parameters" )
     void shouldSkipBomWhenWrappingInputStream( ReadMethod readMethod ) throws Exception
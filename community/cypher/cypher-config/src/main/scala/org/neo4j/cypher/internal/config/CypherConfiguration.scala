@@ -26,6 +26,7 @@ import org.neo4j.cypher.internal.config.CypherConfiguration.statsDivergenceFromC
 import org.neo4j.cypher.internal.options.CypherExpressionEngineOption
 import org.neo4j.cypher.internal.options.CypherInterpretedPipesFallbackOption
 import org.neo4j.cypher.internal.options.CypherOperatorEngineOption
+import org.neo4j.cypher.internal.options.CypherParallelAggregationOption
 import org.neo4j.cypher.internal.options.CypherPlannerOption
 import org.neo4j.cypher.internal.options.CypherRuntimeOption
 import org.neo4j.cypher.internal.options.CypherVersion
@@ -63,6 +64,7 @@ class CypherConfiguration private (val config: Config) {
   val queryCacheSize: Int = config.get(GraphDatabaseSettings.query_cache_size).toInt
   val executionPlanCacheSize: Int = config.get(GraphDatabaseInternalSettings.query_execution_plan_cache_size).toInt
   val statsDivergenceCalculator: StatsDivergenceCalculatorConfig = statsDivergenceFromConfig(config)
+  val backgroundReplanning: Boolean = config.get(GraphDatabaseInternalSettings.cypher_background_replanning)
   val useErrorsOverWarnings: Boolean = config.get(GraphDatabaseSettings.cypher_hints_error)
   val idpMaxTableSize: Int = config.get(GraphDatabaseInternalSettings.cypher_idp_solver_table_threshold).toInt
   val idpIterationDuration: Long = config.get(GraphDatabaseInternalSettings.cypher_idp_solver_duration_threshold).toLong
@@ -82,6 +84,11 @@ class CypherConfiguration private (val config: Config) {
   val operatorFusionOverPipelineLimit: Int = config.get(GraphDatabaseInternalSettings.cypher_pipelined_operator_fusion_over_pipeline_limit).intValue()
   val memoryTrackingController: MemoryTrackingController = new ConfigMemoryTrackingController(config)
   val enableMonitors: Boolean = config.get(GraphDatabaseInternalSettings.cypher_enable_runtime_monitors)
+  val operatorSpillThreshold: Long = config.get(GraphDatabaseInternalSettings.cypher_operator_spill_threshold)
+  val parallelAggregation: CypherParallelAggregationOption =
+    if (config.get(GraphDatabaseInternalSettings.cypher_parallel_aggregation)) CypherParallelAggregationOption.enabled else CypherParallelAggregationOption.default
+  val parallelAggregationWorkers: Int = config.get(GraphDatabaseInternalSettings.cypher_parallel_aggregation_workers).intValue()
+  val interpretedSlottedRows: Boolean = config.get(GraphDatabaseInternalSettings.cypher_interpreted_slotted_rows)
   val useJavaCCParser: Boolean = config.get(GraphDatabaseInternalSettings.cypher_parser) != GraphDatabaseInternalSettings.CypherParser.PARBOILED
   val disallowSplittingTop: Boolean = config.get(GraphDatabaseInternalSettings.cypher_splitting_top_behavior) == GraphDatabaseInternalSettings.SplittingTopBehavior.DISALLOW
   val enableExtraSemanticFeatures: Set[String] = config.get(GraphDatabaseInternalSettings.cypher_enable_extra_semantic_features).asScala.toSet
@@ -41,6 +41,7 @@ case class CypherQueryOptions(
   interpretedPipesFallback: CypherInterpretedPipesFallbackOption,
   replan: CypherReplanOption,
   connectComponentsPlanner: CypherConnectComponentsPlannerOption,
+  parallelAggregation: CypherParallelAggregationOption,
   debugOptions: CypherDebugOptions
 ) {
   if (ILLEGAL_EXPRESSION_ENGINE_RUNTIME_COMBINATIONS((expressionEngine, runtime)))
@@ -412,6 +413,35 @@ case object CypherConnectComponentsPlannerOption extends CypherOptionCompanion[C
   implicit val reader: OptionReader[CypherConnectComponentsPlannerOption] = singleOptionReader()
 }
 
+sealed abstract class CypherParallelAggregationOption(mode: String) extends CypherKeyValueOption(mode) {
+  override def companion: CypherParallelAggregationOption.type = CypherParallelAggregationOption
+
+  /**
+   * Whether aggregations run in parallel does not affect logical planning, only physical planning.
+   */
+  override def relevantForLogicalPlanCacheKey: Boolean = false
+}
+
+case object CypherParallelAggregationOption extends CypherOptionCompanion[CypherParallelAggregationOption](
+  name = "parallelAggregation",
+  cypherConfigField = Some(_.parallelAggregation),
+) {
+
+  case object default extends CypherParallelAggregationOption(CypherOption.DEFAULT)
+  case object enabled extends CypherParallelAggregationOption("enabled")
+  case object disabled extends CypherParallelAggregationOption("disabled")
+
+  def values: Set[CypherParallelAggregationOption] = Set(enabled, disabled)
+
+  implicit val hasDefault: OptionDefault[CypherParallelAggregationOption] = OptionDefault.create(default)
+  implicit val renderer: OptionRenderer[CypherParallelAggregationOption] = OptionRenderer.create(_.render)
+  implicit val cacheKey: OptionCacheKey[CypherParallelAggregationOption] = OptionCacheKey.create(_.cacheKey)
+
+  implicit val logicalPlanCacheKey: OptionLogicalPlanCacheKey[CypherParallelAggregationOption] =
+    OptionLogicalPlanCacheKey.create(_.logicalPlanCacheKey)
+  implicit val reader: OptionReader[CypherParallelAggregationOption] = singleOptionReader()
+}
+
 sealed abstract class CypherDebugOption(flag: String) extends CypherKeyValueOption(flag) {
   override def companion: CypherDebugOption.type = CypherDebugOption
 
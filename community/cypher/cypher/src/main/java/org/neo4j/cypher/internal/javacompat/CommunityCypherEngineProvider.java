@@ -20,6 +20,7 @@
 package org.neo4j.cypher.internal.javacompat;
 
 import org.neo4j.collection.Dependencies;
+import org.neo4j.common.DependencyResolver;
 import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.cypher.internal.CommunityCompilerFactory;
 import org.neo4j.cypher.internal.CompilerFactory;
@@ -28,6 +29,12 @@ import org.neo4j.cypher.internal.cache.CaffeineCacheFactory;
 import org.neo4j.cypher.internal.cache.ExecutorBasedCaffeineCacheFactory;
 import org.neo4j.cypher.internal.compiler.CypherPlannerConfiguration;
 import org.neo4j.cypher.internal.config.CypherConfiguration;
+import org.neo4j.cypher.internal.runtime.spill.SpillDirectory;
+import org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.kernel.availability.DatabaseAvailabilityGuard;
+import org.neo4j.kernel.database.NamedDatabaseId;
 import org.neo4j.kernel.impl.query.QueryEngineProvider;
 import org.neo4j.kernel.impl.query.QueryExecutionEngine;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
@@ -70,16 +77,38 @@ public class CommunityCypherEngineProvider extends QueryEngineProvider
             CompilerFactory innerCompilerFactory = makeCompilerFactory( queryService, spi, innerPlannerConfig, runtimeConfig );
             return new SystemExecutionEngine( queryService, cacheFactory, spi.logProvider(), compilerFactory, innerCompilerFactory );
         }
-        else if ( spi.config().get( GraphDatabaseInternalSettings.snapshot_query ) )
+        deps.satisfyDependency( spi.lifeSupport().add( makeSpillDirectory( queryService, spi ) ) );
+        if ( spi.config().get( GraphDatabaseInternalSettings.snapshot_query ) )
         {
             return new SnapshotExecutionEngine( queryService, spi.config(), cacheFactory, spi.logProvider(), compilerFactory );
         }
         else
         {
-            return new ExecutionEngine( queryService, cacheFactory, spi.logProvider(), compilerFactory );
+            ExecutionEngine engine = new ExecutionEngine( queryService, cacheFactory, spi.logProvider(), compilerFactory );
+            if ( spi.config().get( GraphDatabaseInternalSettings.cypher_query_cache_persistence ) )
+            {
+                spi.lifeSupport().add( makeQueryCacheWarmer( engine, queryService, spi ) );
+            }
+            return engine;
         }
     }
 
+    private static QueryCacheWarmer makeQueryCacheWarmer( ExecutionEngine engine, GraphDatabaseCypherService queryService, SPI spi )
+    {
+        DependencyResolver resolver = queryService.getDependencyResolver();
+        return new QueryCacheWarmer( engine.getCypherExecutionEngine(), queryService, resolver.resolveDependency( FileSystemAbstraction.class ),
+                spi.jobScheduler(), resolver.resolveDependency( DatabaseLayout.class ).databaseDirectory(),
+                resolver.resolveDependency( NamedDatabaseId.class ).name(), resolver.resolveDependency( DatabaseAvailabilityGuard.class ),
+                resolver.resolveDependency( DatabaseReadOnlyChecker.class ), spi.logProvider().getLog( QueryCacheWarmer.class ) );
+    }
+
+    private static SpillDirectory makeSpillDirectory( GraphDatabaseCypherService queryService, SPI spi )
+    {
+        DependencyResolver resolver = queryService.getDependencyResolver();
+        return new SpillDirectory( resolver.resolveDependency( FileSystemAbstraction.class ),
+                spi.config().get( GraphDatabaseInternalSettings.cypher_spill_directory ).resolve( resolver.resolveDependency( NamedDatabaseId.class ).name() ) );
+    }
+
     private static CaffeineCacheFactory makeCacheFactory( SPI spi )
     {
         var monitoredExecutor = spi.jobScheduler().monitoredJobExecutor( Group.CYPHER_CACHE );
@@ -78,6 +78,12 @@ public class MonitoringCacheTracer implements CacheTracer<CacheKey<InputQuery.Ca
         monitor.cacheDiscard( queryKey, metaData, secondsSincePlan, maybeReason );
     }
 
+    @Override
+    public void queryCacheBackgroundReplan( CacheKey<InputQuery.CacheKey> queryKey, long durationNanos, String metaData )
+    {
+        monitor.cacheBackgroundReplan( queryKey, durationNanos );
+    }
+
     @Override
     public void queryCacheFlush( long sizeOfCacheBeforeFlush )
     {
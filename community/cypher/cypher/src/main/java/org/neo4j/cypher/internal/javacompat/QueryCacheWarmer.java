@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.javacompat;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.cypher.internal.ExecutionEngine;
+import org.neo4j.cypher.internal.PersistedQuery;
+import org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker;
+import org.neo4j.internal.kernel.api.security.LoginContext;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.kernel.GraphDatabaseQueryService;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.availability.AvailabilityGuard;
+import org.neo4j.kernel.impl.coreapi.InternalTransaction;
+import org.neo4j.kernel.impl.pagecache.PageCacheWarmer;
+import org.neo4j.kernel.impl.query.Neo4jTransactionalContextFactory;
+import org.neo4j.kernel.impl.query.TransactionalContext;
+import org.neo4j.kernel.impl.query.TransactionalContextFactory;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.neo4j.scheduler.JobMonitoringParams.systemJob;
+
+/**
+ * The query cache warmer writes the entries of the query cache of a database to disk when the database stops, and compiles them into the query cache
+ * again in the background when the database starts, so that a restarted database does not have to parse and plan its whole workload again while
+ * serving it.
+ * <p>
+ * The queries are kept next to the page cache profiles of the database, in the {@value PageCacheWarmer#PROFILES_DIRECTORY} directory.
+ * Only the query texts and parameter types are written, as {@link PersistedQuery persisted queries}, and never the plans. The queries are planned again
+ * against the statistics and schema of the database at the time of the warmup, so a plan that was stale at shutdown, or went stale while the database
+ * was down, is not brought back. Queries that no longer compile, or that no longer map to the cache entry they were written from, are discarded.
+ */
+public class QueryCacheWarmer extends LifecycleAdapter
+{
+    public static final String QUERY_CACHE_FILE = "queries.cacheprof";
+    private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+    private static final long AVAILABILITY_POLL_MILLIS = 100;
+
+    private final ExecutionEngine engine;
+    private final GraphDatabaseQueryService queryService;
+    private final TransactionalContextFactory contextFactory;
+    private final FileSystemAbstraction fs;
+    private final JobScheduler scheduler;
+    private final Path queryCacheFile;
+    private final String databaseName;
+    private final AvailabilityGuard availabilityGuard;
+    private final DatabaseReadOnlyChecker readOnlyChecker;
+    private final Log log;
+    private volatile boolean stopped;
+    private JobHandle<?> warmupJob;
+    // The persisted queries that have not been compiled yet. They are written back if the database stops before the warmup has completed.
+    private volatile List<PersistedQuery> pendingQueries = List.of();
+
+    public QueryCacheWarmer( ExecutionEngine engine, GraphDatabaseQueryService queryService, FileSystemAbstraction fs, JobScheduler scheduler,
+            Path databaseDirectory, String databaseName, AvailabilityGuard availabilityGuard, DatabaseReadOnlyChecker readOnlyChecker, Log log )
+    {
+        this.engine = engine;
+        this.queryService = queryService;
+        this.contextFactory = Neo4jTransactionalContextFactory.create( queryService );
+        this.fs = fs;
+        this.scheduler = scheduler;
+        this.queryCacheFile = databaseDirectory.resolve( PageCacheWarmer.PROFILES_DIRECTORY ).resolve( QUERY_CACHE_FILE );
+        this.databaseName = databaseName;
+        this.availabilityGuard = availabilityGuard;
+        this.readOnlyChecker = readOnlyChecker;
+        this.log = log;
+    }
+
+    @Override
+    public void start()
+    {
+        stopped = false;
+        warmupJob = scheduler.schedule( Group.CYPHER_CACHE, systemJob( databaseName, "Query cache warmup" ), this::warmUpSafely );
+    }
+
+    @Override
+    public void stop()
+    {
+        stopped = true;
+        if ( warmupJob != null )
+        {
+            try
+            {
+                warmupJob.waitTermination();
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+            catch ( Exception ignore )
+            {
+                // The job failed on its own, in which case it has already been logged.
+            }
+            warmupJob = null;
+        }
+        try
+        {
+            persist();
+        }
+        catch ( Exception e )
+        {
+            log.warn( "Failed to write the query cache to disk.", e );
+        }
+    }
+
+    private void warmUpSafely()
+    {
+        try
+        {
+            warmUp();
+        }
+        catch ( Exception e )
+        {
+            log.warn( "Query cache warmup failed.", e );
+        }
+    }
+
+    /**
+     * Compile the persisted queries into the query cache, once the database is available.
+     *
+     * @return the number of queries that were compiled.
+     */
+    long warmUp() throws IOException
+    {
+        if ( !fs.fileExists( queryCacheFile ) )
+        {
+            return 0;
+        }
+        List<PersistedQuery> queries;
+        try ( DataInputStream input = new DataInputStream( new BufferedInputStream( fs.openAsInputStream( queryCacheFile ) ) ) )
+        {
+            queries = PersistedQuery.read( input );
+        }
+        pendingQueries = queries;
+        while ( !availabilityGuard.isAvailable( AVAILABILITY_POLL_MILLIS ) )
+        {
+            if ( stopped || availabilityGuard.isShutdown() )
+            {
+                return 0;
+            }
+        }
+
+        long startTime = System.nanoTime();
+        long compiled = 0;
+        for ( int i = 0; i < queries.size() && !stopped; i++ )
+        {
+            if ( warmUp( queries.get( i ) ) )
+            {
+                compiled++;
+            }
+            pendingQueries = queries.subList( i + 1, queries.size() );
+        }
+        log.info( "Query cache warmup completed. %d of %d queries compiled. Duration: %d ms.", compiled, queries.size(),
+                TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - startTime ) );
+        return compiled;
+    }
+
+    private boolean warmUp( PersistedQuery query )
+    {
+        try ( InternalTransaction tx = queryService.beginTransaction( KernelTransaction.Type.IMPLICIT, LoginContext.AUTH_DISABLED ) )
+        {
+            TransactionalContext context = contextFactory.newContext( tx, query.queryText(), query.parameters() );
+            try
+            {
+                return engine.warmUp( query, context );
+            }
+            finally
+            {
+                context.close();
+            }
+        }
+        catch ( Exception e )
+        {
+            // The query no longer compiles, for example because a procedure it calls is gone. It will be compiled when it is executed, if ever.
+            log.debug( "Discarded a persisted query that failed to compile.", e );
+            return false;
+        }
+    }
+
+    /**
+     * Write the entries of the query cache, and any persisted queries that have not been compiled yet, to disk.
+     *
+     * @return the number of queries that were written.
+     */
+    synchronized long persist() throws IOException
+    {
+        if ( readOnlyChecker.isReadOnly() )
+        {
+            return 0;
+        }
+        Set<PersistedQuery> queries = new LinkedHashSet<>( engine.persistableQueries() );
+        queries.addAll( pendingQueries );
+        Path temporaryFile = queryCacheFile.resolveSibling( queryCacheFile.getFileName() + TEMPORARY_FILE_SUFFIX );
+        fs.mkdirs( queryCacheFile.getParent() );
+        try ( DataOutputStream output = new DataOutputStream( new BufferedOutputStream( fs.openAsOutputStream( temporaryFile, false ) ) ) )
+        {
+            PersistedQuery.write( new ArrayList<>( queries ), output );
+        }
+        fs.renameFile( temporaryFile, queryCacheFile, ATOMIC_MOVE, REPLACE_EXISTING );
+        return queries.size();
+    }
+
+    @Override
+    public String toString()
+    {
+        return format( "%s[%s]", getClass().getSimpleName(), databaseName );
+    }
+}
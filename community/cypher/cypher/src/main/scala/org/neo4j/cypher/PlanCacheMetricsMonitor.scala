@@ -28,13 +28,24 @@ import java.util.concurrent.atomic.AtomicLong
 class PlanCacheMetricsMonitor extends ExecutionEngineQueryCacheMonitor {
   private val counter = new AtomicLong()
   private val waitTime = new AtomicLong()
+  private val backgroundCounter = new AtomicLong()
+  private val backgroundTime = new AtomicLong()
 
   override def cacheDiscard(ignored1: CacheKey[InputQuery.CacheKey], ignored2: String, secondsSinceReplan: Int, maybeReason: Option[String]): Unit = {
     counter.incrementAndGet()
     waitTime.addAndGet(secondsSinceReplan)
   }
 
+  override def cacheBackgroundReplan(ignored: CacheKey[InputQuery.CacheKey], durationNanos: Long): Unit = {
+    backgroundCounter.incrementAndGet()
+    backgroundTime.addAndGet(durationNanos)
+  }
+
   def numberOfReplans: Long = counter.get()
 
   def replanWaitTime: Long = waitTime.get()
+
+  def numberOfBackgroundReplans: Long = backgroundCounter.get()
+
+  def backgroundReplanTime: Long = backgroundTime.get()
 }
@@ -27,12 +27,16 @@ import org.neo4j.cypher.internal.compiler.phases.Compatibility4_4
 import org.neo4j.cypher.internal.options.CypherPlannerOption
 import org.neo4j.cypher.internal.options.CypherRuntimeOption
 import org.neo4j.cypher.internal.planning.CypherPlanner
+import org.neo4j.cypher.internal.runtime.spill.SpillDirectory
 import org.neo4j.cypher.internal.options.CypherVersion
 import org.neo4j.exceptions.SyntaxException
 import org.neo4j.kernel.GraphDatabaseQueryService
+import org.neo4j.kernel.api.Kernel
 import org.neo4j.logging.Log
 import org.neo4j.logging.LogProvider
 import org.neo4j.monitoring
+import org.neo4j.scheduler.Group
+import org.neo4j.scheduler.JobScheduler
 
 /**
  * Factory which creates cypher compilers.
@@ -47,6 +51,14 @@ class CommunityCompilerFactory(graph: GraphDatabaseQueryService,
 
   private val log: Log = logProvider.getLog(getClass)
 
+  private lazy val parallelAggregationResources: ParallelAggregationResources = {
+    val resolver = graph.getDependencyResolver
+    ParallelAggregationResources(resolver.resolveDependency(classOf[JobScheduler]).executor(Group.CYPHER_WORKER),
+      resolver.resolveDependency(classOf[Kernel]).cursors())
+  }
+
+  private lazy val spillDirectory: SpillDirectory = graph.getDependencyResolver.resolveDependency(classOf[SpillDirectory])
+
   override def supportsAdministrativeCommands(): Boolean = plannerConfig.planSystemCommands
 
   override def createCompiler(cypherVersion: CypherVersion,
@@ -82,7 +94,8 @@ class CommunityCompilerFactory(graph: GraphDatabaseQueryService,
     CypherCurrentCompiler(
       planner,
       runtime,
-      CommunityRuntimeContextManager(log, runtimeConfig),
+      if (plannerConfig.planSystemCommands) CommunityRuntimeContextManager(log, runtimeConfig)
+      else CommunityRuntimeContextManager(log, runtimeConfig, Some(parallelAggregationResources), Some(spillDirectory)),
       kernelMonitors)
   }
 }
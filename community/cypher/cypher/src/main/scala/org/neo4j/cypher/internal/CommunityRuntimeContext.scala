@@ -20,40 +20,60 @@
 package org.neo4j.cypher.internal
 
 import java.time.Clock
+import java.util.concurrent.Executor
 
 import org.neo4j.cypher.internal.options.CypherDebugOptions
 import org.neo4j.cypher.internal.options.CypherInterpretedPipesFallbackOption
 import org.neo4j.cypher.internal.options.CypherOperatorEngineOption
 import org.neo4j.cypher.internal.planner.spi.ReadTokenContext
+import org.neo4j.cypher.internal.runtime.spill.SpillDirectory
 import org.neo4j.cypher.internal.util.AnonymousVariableNameGenerator
+import org.neo4j.internal.kernel.api.CursorFactory
 import org.neo4j.internal.kernel.api.SchemaRead
 import org.neo4j.logging.Log
 
 /**
  * The regular community runtime context.
+ *
+ * @param parallelAggregation the resources to compute aggregations with several threads, if the query may do so.
+ * @param spillDirectory      the directory that operators spill rows to, if they may do so.
  */
 case class CommunityRuntimeContext(tokenContext: ReadTokenContext,
                                    schemaRead: SchemaRead,
                                    log: Log,
                                    config: CypherRuntimeConfiguration,
                                    anonymousVariableNameGenerator: AnonymousVariableNameGenerator,
-                                  ) extends RuntimeContext {
+                                   compileExpressions: Boolean = false,
+                                   parallelAggregation: Option[ParallelAggregationResources] = None,
+                                   spillDirectory: Option[SpillDirectory] = None,
+                                  ) extends RuntimeContext
 
-  override def compileExpressions: Boolean = false
-}
+/**
+ * What the interpreted runtimes need to compute aggregations with several threads.
+ *
+ * @param executor runs the workers of an aggregation, besides the thread that executes the query.
+ * @param cursors  cursors that are not bound to the transaction, and therefore can be used from the workers.
+ */
+case class ParallelAggregationResources(executor: Executor, cursors: CursorFactory)
 
-case class CommunityRuntimeContextManager(log: Log, config: CypherRuntimeConfiguration) extends RuntimeContextManager[CommunityRuntimeContext] {
+case class CommunityRuntimeContextManager(log: Log,
+                                          config: CypherRuntimeConfiguration,
+                                          parallelAggregationResources: Option[ParallelAggregationResources] = None,
+                                          spillDirectory: Option[SpillDirectory] = None)
+  extends RuntimeContextManager[CommunityRuntimeContext] {
   override def create(tokenContext: ReadTokenContext,
                       schemaRead: SchemaRead,
                       clock: Clock,
                       debugOptions: CypherDebugOptions,
+                      compileExpressions: Boolean,
                       ignore: Boolean,
-                      ignore2: Boolean,
-                      ignore3: CypherOperatorEngineOption,
-                      ignore4: CypherInterpretedPipesFallbackOption,
+                      ignore2: CypherOperatorEngineOption,
+                      ignore3: CypherInterpretedPipesFallbackOption,
                       anonymousVariableNameGenerator: AnonymousVariableNameGenerator,
+                      parallelAggregation: Boolean,
                      ): CommunityRuntimeContext =
-    CommunityRuntimeContext(tokenContext, schemaRead, log, config, anonymousVariableNameGenerator)
+    CommunityRuntimeContext(tokenContext, schemaRead, log, config, anonymousVariableNameGenerator, compileExpressions,
+      parallelAggregationResources.filter(_ => parallelAggregation), spillDirectory)
 
   // As we rely completely on transaction bound resources in community,
   // there is no need for further assertions here.
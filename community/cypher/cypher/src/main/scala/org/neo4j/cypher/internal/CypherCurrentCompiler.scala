@@ -35,6 +35,7 @@ import org.neo4j.cypher.internal.logical.plans.SchemaLabelIndexUsage
 import org.neo4j.cypher.internal.logical.plans.SchemaRelationshipIndexUsage
 import org.neo4j.cypher.internal.macros.AssertMacros
 import org.neo4j.cypher.internal.options.CypherExecutionMode
+import org.neo4j.cypher.internal.options.CypherParallelAggregationOption
 import org.neo4j.cypher.internal.options.CypherVersion
 import org.neo4j.cypher.internal.plandescription.PlanDescriptionBuilder
 import org.neo4j.cypher.internal.planner.spi.PlanningAttributes
@@ -211,7 +212,8 @@ case class CypherCurrentCompiler[CONTEXT <: RuntimeContext](planner: CypherPlann
       query.options.materializedEntitiesMode,
       query.options.queryOptions.operatorEngine,
       query.options.queryOptions.interpretedPipesFallback,
-      planState.anonymousVariableNameGenerator)
+      planState.anonymousVariableNameGenerator,
+      query.options.queryOptions.parallelAggregation == CypherParallelAggregationOption.enabled)
 
     // Make copy, so per-runtime logical plan rewriting does not mutate cached attributes
     val planningAttributesCopy = planState.planningAttributes.createCopy()
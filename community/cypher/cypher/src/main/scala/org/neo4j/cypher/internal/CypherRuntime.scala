@@ -128,6 +128,7 @@ trait RuntimeContextManager[+CONTEXT <: RuntimeContext] {
              operatorEngine: CypherOperatorEngineOption,
              interpretedPipesFallback: CypherInterpretedPipesFallbackOption,
              anonymousVariableNameGenerator: AnonymousVariableNameGenerator,
+             parallelAggregation: Boolean,
             ): CONTEXT
 
   def config: CypherRuntimeConfiguration
@@ -235,7 +236,10 @@ object CypherRuntimeConfiguration {
       enableMonitors = config.enableMonitors,
       executionPlanCacheSize = config.executionPlanCacheSize,
       compiledExpressionMethodLimit = config.compiledExpressionMethodLimit,
-      operatorFusingMethodLimit = config.operatorFusingMethodLimit
+      operatorFusingMethodLimit = config.operatorFusingMethodLimit,
+      operatorSpillThreshold = config.operatorSpillThreshold,
+      parallelAggregationWorkers = config.parallelAggregationWorkers,
+      interpretedSlottedRows = config.interpretedSlottedRows
     )
   }
 
@@ -252,7 +256,10 @@ case class CypherRuntimeConfiguration(pipelinedBatchSizeSmall: Int,
                                       enableMonitors: Boolean,
                                       executionPlanCacheSize: Int,
                                       compiledExpressionMethodLimit: Int,
-                                      operatorFusingMethodLimit: Int) {
+                                      operatorFusingMethodLimit: Int,
+                                      operatorSpillThreshold: Long,
+                                      parallelAggregationWorkers: Int,
+                                      interpretedSlottedRows: Boolean) {
 
   Preconditions.checkArgument(pipelinedBatchSizeSmall <= pipelinedBatchSizeBig, s"pipelinedBatchSizeSmall (got $pipelinedBatchSizeSmall) must be <= pipelinedBatchSizeBig (got $pipelinedBatchSizeBig)")
 
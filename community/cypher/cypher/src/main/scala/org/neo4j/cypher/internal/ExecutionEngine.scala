@@ -33,18 +33,27 @@ import org.neo4j.cypher.internal.tracing.CompilationTracer
 import org.neo4j.cypher.internal.tracing.CompilationTracer.QueryCompilationEvent
 import org.neo4j.exceptions.ParameterNotFoundException
 import org.neo4j.internal.kernel.api.security.AccessMode
+import org.neo4j.internal.kernel.api.security.LoginContext
+import org.neo4j.internal.kernel.api.security.SecurityContext
 import org.neo4j.kernel.GraphDatabaseQueryService
+import org.neo4j.kernel.api.KernelTransaction
 import org.neo4j.kernel.impl.query.FunctionInformation
+import org.neo4j.kernel.impl.query.Neo4jTransactionalContextFactory
 import org.neo4j.kernel.impl.query.QueryExecution
 import org.neo4j.kernel.impl.query.QueryExecutionMonitor
 import org.neo4j.kernel.impl.query.QuerySubscriber
 import org.neo4j.kernel.impl.query.TransactionalContext
 import org.neo4j.logging.LogProvider
 import org.neo4j.monitoring.Monitors
+import org.neo4j.scheduler.Group
+import org.neo4j.scheduler.JobMonitoringParams.systemJob
+import org.neo4j.scheduler.JobScheduler
 import org.neo4j.values.virtual.MapValue
 
 import java.lang
 import java.time.Clock
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
 import scala.collection.JavaConverters.mapAsJavaMapConverter
 import scala.collection.JavaConverters.seqAsJavaListConverter
 
@@ -100,6 +109,13 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
 
   private val schemaHelper = new SchemaHelper(queryCache, masterCompiler)
 
+  // Stale plans are replanned by these when background replanning is enabled
+  private lazy val backgroundReplanExecutor: Executor = {
+    val monitoredExecutor = queryService.getDependencyResolver.resolveDependency(classOf[JobScheduler]).monitoredJobExecutor(Group.CYPHER_CACHE)
+    (job: Runnable) => monitoredExecutor.execute(systemJob("Background replanning of stale query plans"), job)
+  }
+  private lazy val backgroundReplanContextFactory = Neo4jTransactionalContextFactory.create(queryService)
+
   // ACTUAL FUNCTIONALITY
 
   /**
@@ -240,6 +256,18 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
 
       override def compileWithExpressionCodeGen(): ExecutableQuery = compiledExpressionCompiler()
 
+      override def compileInBackground(withExpressionCodeGen: Boolean): Option[CompletableFuture[ExecutableQuery]] = {
+        if (!config.backgroundReplanning) {
+          None
+        } else {
+          val codeGen = withExpressionCodeGen || (inputQuery.options.compileWhenHot && config.recompilationLimit == 0)
+          val query = if (codeGen) inputQuery.withRecompilationLimitReached else inputQuery
+          // The security context the query is compiled with in the foreground
+          val securityContext = transactionalContext.securityContext
+          Some(CompletableFuture.supplyAsync(() => compileInOwnTransaction(query, securityContext, params), backgroundReplanExecutor))
+        }
+      }
+
       override def maybeCompileWithExpressionCodeGen(hitCount: Int): Option[ExecutableQuery] = {
         //check if we need to do jit compiling of queries and if hot enough
         if (inputQuery.options.compileWhenHot && config.recompilationLimit > 0 && hitCount >= config.recompilationLimit) {
@@ -252,6 +280,27 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
     }
   }
 
+  private def compileInOwnTransaction(inputQuery: InputQuery, securityContext: SecurityContext, params: MapValue): ExecutableQuery = {
+    val tx = queryService.beginTransaction(KernelTransaction.Type.IMPLICIT, LoginContext.AUTH_DISABLED)
+    try {
+      val context = backgroundReplanContextFactory.newContext(tx, inputQuery.description, params)
+      try {
+        val compilerAuthorization = context.restrictCurrentTransaction(securityContext)
+        val queryTracer = tracer.compileQuery(inputQuery.description)
+        try {
+          masterCompiler.compile(inputQuery, queryTracer, context, params)
+        } finally {
+          queryTracer.close()
+          compilerAuthorization.close()
+        }
+      } finally {
+        context.close()
+      }
+    } finally {
+      tx.close()
+    }
+  }
+
   private def getOrCompile(context: TransactionalContext,
                            initialInputQuery: InputQuery,
                            tracer: QueryCompilationEvent,
@@ -303,6 +352,32 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
     throw new IllegalStateException("Could not compile query due to insanely frequent schema changes")
   }
 
+  /**
+   * @return the entries of the query cache that can be compiled again with [[warmUp]], the most frequently used first
+   */
+  def persistableQueries(): java.util.List[PersistedQuery] =
+    queryCache.hottestKeys().flatMap(PersistedQuery.from).asJava
+
+  /**
+   * Compiles a persisted query into the query cache, without executing it.
+   *
+   * @param query   the persisted query
+   * @param context the transactional context in which to compile the query
+   * @return `true` if the query was compiled, `false` if its text no longer pre-parses into the cache entry it was persisted from,
+   *         for example because the default query options have been reconfigured since
+   */
+  def warmUp(query: PersistedQuery, context: TransactionalContext): Boolean = {
+    val queryText = query.queryText
+    val queryTracer = tracer.compileQuery(queryText)
+    try {
+      val preParsedQuery = preParser.preParseQuery(queryText, query.profile)
+      preParsedQuery.cacheKey == query.cacheKey && {
+        getOrCompile(context, preParsedQuery, queryTracer, query.parameters)
+        true
+      }
+    } finally queryTracer.close()
+  }
+
   def clearQueryCaches(): Long =
     List(masterCompiler.clearCaches(), queryCache.clear(), preParser.clearCache()).max
 
@@ -23,12 +23,14 @@ import org.neo4j.cypher.internal.logical.plans.TransactionApply
 import org.neo4j.cypher.internal.logical.plans.TransactionForeach
 import org.neo4j.cypher.internal.options.CypherRuntimeOption
 import org.neo4j.cypher.internal.plandescription.Argument
+import org.neo4j.cypher.internal.runtime.CypherRowLayout
 import org.neo4j.cypher.internal.runtime.ExecutionMode
 import org.neo4j.cypher.internal.runtime.ExplainMode
 import org.neo4j.cypher.internal.runtime.InputDataStream
 import org.neo4j.cypher.internal.runtime.ProfileMode
 import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.QueryIndexRegistrator
+import org.neo4j.cypher.internal.runtime.ThreadSafeResourceManager
 import org.neo4j.cypher.internal.runtime.expressionVariableAllocation
 import org.neo4j.cypher.internal.runtime.expressionVariableAllocation.Result
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionResultBuilderFactory
@@ -38,29 +40,81 @@ import org.neo4j.cypher.internal.runtime.interpreted.TransactionsCountingQueryCo
 import org.neo4j.cypher.internal.runtime.interpreted.UpdateCountingQueryContext
 import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.CommunityExpressionConverter
 import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.ExpressionConverters
+import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.SlottedRowsExpressionConverter
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ArrayCypherRowFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.CompiledExpressionsPipeMapper
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.NestedPipeExpressions
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelAggregationPipe.Workers
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.PipeTreeBuilder
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.RowFactoryPipeMapper
 import org.neo4j.cypher.internal.runtime.interpreted.profiler.InterpretedProfileInformation
 import org.neo4j.cypher.internal.runtime.interpreted.profiler.Profiler
 import org.neo4j.cypher.internal.runtime.slottedParameters
+import org.neo4j.cypher.internal.runtime.spill.Spilling
 import org.neo4j.cypher.internal.util.InternalNotification
 import org.neo4j.cypher.result.RuntimeResult
 import org.neo4j.exceptions.PeriodicCommitInOpenTransactionException
+import org.neo4j.internal.kernel.api.CursorFactory
 import org.neo4j.kernel.impl.query.QuerySubscriber
 import org.neo4j.values.virtual.MapValue
 
+/**
+ * The interpreted runtime, always with slotted rows. Every variable of the query is assigned a fixed slot in array backed rows,
+ * where nodes and relationships are kept as primitive ids. The interpreted runtime uses slotted rows when
+ * [[CypherRuntimeConfiguration.interpretedSlottedRows]] is set, this runtime uses them regardless of configuration.
+ */
+object SlottedRowsInterpretedRuntime extends CypherRuntime[RuntimeContext] {
+  override def name: String = "interpreted"
+
+  override def correspondingRuntimeOption: Option[CypherRuntimeOption] = Some(CypherRuntimeOption.interpreted)
+
+  override def compileToExecutable(query: LogicalQuery, context: RuntimeContext): ExecutionPlan =
+    InterpretedRuntime.compileToExecutable(query, context, slottedRows = true)
+}
+
 object InterpretedRuntime extends CypherRuntime[RuntimeContext] {
   override def name: String = "interpreted"
 
   override def correspondingRuntimeOption: Option[CypherRuntimeOption] = Some(CypherRuntimeOption.interpreted)
 
-  override def compileToExecutable(query: LogicalQuery, context: RuntimeContext): ExecutionPlan = {
+  override def compileToExecutable(query: LogicalQuery, context: RuntimeContext): ExecutionPlan =
+    compileToExecutable(query, context, slottedRows = context.config.interpretedSlottedRows)
+
+  /**
+   * @param slottedRows if true, the pipes use [[org.neo4j.cypher.internal.runtime.ArrayCypherRow]]s, where every variable of the query has a fixed slot,
+   *                    instead of rows backed by hash maps.
+   */
+  def compileToExecutable(query: LogicalQuery, context: RuntimeContext, slottedRows: Boolean): ExecutionPlan = {
     val Result(logicalPlan, nExpressionSlots, availableExpressionVars) = expressionVariableAllocation.allocate(query.logicalPlan)
     val (withSlottedParameters, parameterMapping) = slottedParameters(logicalPlan)
 
-    val converters = new ExpressionConverters(CommunityExpressionConverter(context.tokenContext, context.anonymousVariableNameGenerator))
+    val communityConverter = CommunityExpressionConverter(context.tokenContext, context.anonymousVariableNameGenerator)
+    val layout =
+      if (slottedRows) {
+        val semanticTable = query.semanticTable
+        Some(CypherRowLayout.allocate(withSlottedParameters, semanticTable.isNodeNoFail, semanticTable.isRelationshipNoFail))
+      } else {
+        None
+      }
+    // With slotted rows, the slots of variables are resolved here, once, instead of whenever they are read
+    val converters = layout match {
+      case Some(rowLayout) => new ExpressionConverters(SlottedRowsExpressionConverter(rowLayout), communityConverter)
+      case None => new ExpressionConverters(communityConverter)
+    }
     val queryIndexRegistrator = new QueryIndexRegistrator(context.schemaRead)
-    val pipeMapper = InterpretedPipeMapper(query.readOnly, converters, context.tokenContext, queryIndexRegistrator, context.anonymousVariableNameGenerator)(query.semanticTable)
+    val (parallelAggregation, spillDirectory) = context match {
+      case communityContext: CommunityRuntimeContext => (communityContext.parallelAggregation, communityContext.spillDirectory)
+      case _ => (None, None)
+    }
+    val spilling = spillDirectory.map(Spilling(context.config.operatorSpillThreshold, _)).getOrElse(Spilling.DISABLED)
+    val interpretedPipeMapper =
+      InterpretedPipeMapper(query.readOnly, converters, context.tokenContext, queryIndexRegistrator, context.anonymousVariableNameGenerator,
+        spilling, parallelAggregation.map(resources => Workers(resources.executor, parallelAggregationWorkers(context.config))))(query.semanticTable)
+    val expressionPipeMapper = if (context.compileExpressions) CompiledExpressionsPipeMapper(interpretedPipeMapper) else interpretedPipeMapper
+    val pipeMapper = layout match {
+      case Some(rowLayout) => RowFactoryPipeMapper(expressionPipeMapper, ArrayCypherRowFactory(rowLayout))
+      case None => expressionPipeMapper
+    }
     val pipeTreeBuilder = PipeTreeBuilder(pipeMapper)
     val logicalPlanWithConvertedNestedPlans = NestedPipeExpressions.build(pipeTreeBuilder, withSlottedParameters, availableExpressionVars)
     val pipe = pipeTreeBuilder.build(logicalPlanWithConvertedNestedPlans)
@@ -84,9 +138,13 @@ object InterpretedRuntime extends CypherRuntime[RuntimeContext] {
       query.readOnly,
       startsTransactions,
       IndexedSeq.empty,
-      Set.empty)
+      Set.empty,
+      parallelAggregation.filter(_ => interpretedPipeMapper.usesParallelAggregation).map(_.cursors))
   }
 
+  private def parallelAggregationWorkers(config: CypherRuntimeConfiguration): Int =
+    if (config.parallelAggregationWorkers == 0) Runtime.getRuntime.availableProcessors() else config.parallelAggregationWorkers
+
   def doesStartTransactions(query: LogicalQuery): Boolean =
     query.logicalPlan.folder.treeExists {
       case _: TransactionForeach | _: TransactionApply => true // CALL { ... } IN TRANSACTIONS
@@ -95,6 +153,8 @@ object InterpretedRuntime extends CypherRuntime[RuntimeContext] {
   /**
    * Executable plan for a single cypher query. Warning, this class will get cached! Do not leak transaction objects
    * or other resources in here.
+   *
+   * @param threadSafeCursors cursors for the workers of the parallel aggregations of the plan, if it has any.
    */
   class InterpretedExecutionPlan(periodicCommit: Option[PeriodicCommitInfo],
                                  resultBuilderFactory: ExecutionResultBuilderFactory,
@@ -102,7 +162,8 @@ object InterpretedRuntime extends CypherRuntime[RuntimeContext] {
                                  readOnly: Boolean,
                                  startsTransactions: Boolean,
                                  override val metadata: Seq[Argument],
-                                 warnings: Set[InternalNotification]) extends ExecutionPlan {
+                                 warnings: Set[InternalNotification],
+                                 threadSafeCursors: Option[CursorFactory] = None) extends ExecutionPlan {
 
     override def run(queryContext: QueryContext,
                      executionMode: ExecutionMode,
@@ -129,6 +190,9 @@ object InterpretedRuntime extends CypherRuntime[RuntimeContext] {
       builder.build(params, profileInformation, prePopulateResults, input, subscriber, doProfile)
     }
 
+    override def threadSafeExecutionResources(): Option[(CursorFactory, ResourceManagerFactory)] =
+      threadSafeCursors.map(cursors => (cursors, monitor => new ThreadSafeResourceManager(monitor)))
+
     override def notifications: Set[InternalNotification] = warnings
   }
 }
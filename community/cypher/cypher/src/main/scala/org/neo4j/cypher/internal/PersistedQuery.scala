@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal
+
+import org.neo4j.cypher.internal.QueryCache.CacheKey
+import org.neo4j.cypher.internal.options.CypherExecutionMode
+import org.neo4j.cypher.internal.util.symbols.CTAny
+import org.neo4j.cypher.internal.util.symbols.CTBoolean
+import org.neo4j.cypher.internal.util.symbols.CTDate
+import org.neo4j.cypher.internal.util.symbols.CTDateTime
+import org.neo4j.cypher.internal.util.symbols.CTDuration
+import org.neo4j.cypher.internal.util.symbols.CTInteger
+import org.neo4j.cypher.internal.util.symbols.CTList
+import org.neo4j.cypher.internal.util.symbols.CTLocalDateTime
+import org.neo4j.cypher.internal.util.symbols.CTLocalTime
+import org.neo4j.cypher.internal.util.symbols.CTMap
+import org.neo4j.cypher.internal.util.symbols.CTPoint
+import org.neo4j.cypher.internal.util.symbols.CTString
+import org.neo4j.cypher.internal.util.symbols.CTTime
+import org.neo4j.cypher.internal.util.symbols.CypherType
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.CoordinateReferenceSystem
+import org.neo4j.values.storable.DateTimeValue
+import org.neo4j.values.storable.DateValue
+import org.neo4j.values.storable.DurationValue
+import org.neo4j.values.storable.LocalDateTimeValue
+import org.neo4j.values.storable.LocalTimeValue
+import org.neo4j.values.storable.TimeValue
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.MapValue
+import org.neo4j.values.virtual.MapValueBuilder
+import org.neo4j.values.virtual.VirtualValues
+
+import java.io.DataInput
+import java.io.DataOutput
+import java.io.IOException
+import java.nio.charset.StandardCharsets
+import java.time.ZoneOffset
+
+/**
+ * A query cache entry in a form that can be written to disk: the cache key of the query, and the names of the types of its parameters.
+ *
+ * Plans are not part of it. The query is compiled again from its text, against the statistics and schema that the database has at that time,
+ * so a persisted query can never bring back a stale plan.
+ */
+case class PersistedQuery(optionsCacheKey: String, statement: String, parameterTypes: Map[String, String]) {
+
+  private def optionTokens: Seq[String] = optionsCacheKey.split(' ').toSeq.filter(_.nonEmpty)
+
+  def cacheKey: InputQuery.CacheKey = InputQuery.CacheKey(optionsCacheKey, statement)
+
+  /**
+   * The execution mode is part of the options cache key, but has to be given to the pre-parser separately.
+   */
+  def profile: Boolean = optionTokens.contains(CypherExecutionMode.profile.cacheKey)
+
+  /**
+   * A query text that pre-parses into the [[cacheKey]] of this query.
+   */
+  def queryText: String = {
+    val options = optionTokens.filterNot(_ == CypherExecutionMode.profile.cacheKey)
+    if (options.size > 1) s"${options.mkString(" ")} $statement" else statement
+  }
+
+  /**
+   * Parameters that have the same types as the parameters the query was cached with.
+   */
+  def parameters: MapValue = {
+    val builder = new MapValueBuilder()
+    parameterTypes.foreach {
+      case (name, typeName) => builder.add(name, PersistedQuery.sampleValues(typeName))
+    }
+    builder.build()
+  }
+}
+
+object PersistedQuery {
+
+  val FORMAT_VERSION = 1
+
+  /*
+   * The parameter types that a query can be cached with, as derived by ParameterValueTypeHelper, with a name for writing them to disk
+   * and a value of that type for compiling the query again.
+   */
+  private val parameterTypes: Seq[(String, CypherType, AnyValue)] = Seq(
+    ("STRING", CTString, Values.EMPTY_STRING),
+    ("BOOLEAN", CTBoolean, Values.FALSE),
+    ("INTEGER", CTInteger, Values.longValue(0)),
+    ("ANY", CTAny, Values.NO_VALUE),
+    ("POINT", CTPoint, Values.pointValue(CoordinateReferenceSystem.Cartesian, 0, 0)),
+    ("DATETIME", CTDateTime, DateTimeValue.datetime(0, 0, ZoneOffset.UTC)),
+    ("LOCALDATETIME", CTLocalDateTime, LocalDateTimeValue.localDateTime(0, 0)),
+    ("TIME", CTTime, TimeValue.time(0, ZoneOffset.UTC)),
+    ("LOCALTIME", CTLocalTime, LocalTimeValue.localTime(0)),
+    ("DATE", CTDate, DateValue.epochDate(0)),
+    ("DURATION", CTDuration, DurationValue.duration(0, 0, 0, 0)),
+    ("MAP", CTMap, VirtualValues.EMPTY_MAP),
+    ("LIST OF STRING", CTList(CTString), VirtualValues.list(Values.EMPTY_STRING)),
+    ("LIST OF ANY", CTList(CTAny), VirtualValues.EMPTY_LIST)
+  )
+
+  private val typeNames: Map[CypherType, String] = parameterTypes.map { case (name, cypherType, _) => cypherType -> name }.toMap
+
+  private val sampleValues: Map[String, AnyValue] = parameterTypes.map { case (name, _, value) => name -> value }.toMap
+
+  /**
+   * @return the persisted form of a query cache entry, or `None` if the entry cannot be compiled again from its key alone.
+   */
+  def from(key: CacheKey[InputQuery.CacheKey]): Option[PersistedQuery] = {
+    // Plans compiled against transaction state are only usable by transactions in the same state.
+    if (key.txStateHasChanges) {
+      None
+    } else {
+      val types = key.parameterTypeMap.parameterTypes.map { case (name, cypherType) => name -> typeNames.get(cypherType) }
+      if (types.values.exists(_.isEmpty)) None
+      else Some(PersistedQuery(key.queryRep.optionsCacheKey, key.queryRep.statementCacheKey, types.mapValues(_.get).toMap))
+    }
+  }
+
+  @throws[IOException]
+  def write(queries: java.util.List[PersistedQuery], output: DataOutput): Unit = {
+    output.writeInt(FORMAT_VERSION)
+    output.writeInt(queries.size())
+    queries.forEach { query =>
+      writeString(query.optionsCacheKey, output)
+      writeString(query.statement, output)
+      output.writeInt(query.parameterTypes.size)
+      query.parameterTypes.foreach {
+        case (name, typeName) =>
+          writeString(name, output)
+          writeString(typeName, output)
+      }
+    }
+  }
+
+  /**
+   * @return the queries that were written with [[write]], except those with parameter types that are no longer known. Nothing if the
+   *         queries were written in another format.
+   */
+  @throws[IOException]
+  def read(input: DataInput): java.util.List[PersistedQuery] = {
+    val queries = new java.util.ArrayList[PersistedQuery]()
+    if (input.readInt() == FORMAT_VERSION) {
+      val count = input.readInt()
+      var i = 0
+      while (i < count) {
+        val optionsCacheKey = readString(input)
+        val statement = readString(input)
+        val types = Map.newBuilder[String, String]
+        var j = input.readInt()
+        while (j > 0) {
+          types += readString(input) -> readString(input)
+          j -= 1
+        }
+        val query = PersistedQuery(optionsCacheKey, statement, types.result())
+        if (query.parameterTypes.values.forall(sampleValues.contains)) {
+          queries.add(query)
+        }
+        i += 1
+      }
+    }
+    queries
+  }
+
+  // DataOutput.writeUTF cannot write strings of more than 64k bytes, which queries can easily be.
+  private def writeString(string: String, output: DataOutput): Unit = {
+    val bytes = string.getBytes(StandardCharsets.UTF_8)
+    output.writeInt(bytes.length)
+    output.write(bytes)
+  }
+
+  private def readString(input: DataInput): String = {
+    val bytes = new Array[Byte](input.readInt())
+    input.readFully(bytes)
+    new String(bytes, StandardCharsets.UTF_8)
+  }
+}
@@ -33,6 +33,11 @@ import org.neo4j.internal.kernel.api.TokenRead
 import org.neo4j.kernel.impl.query.TransactionalContext
 import org.neo4j.values.virtual.MapValue
 
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.atomic.AtomicBoolean
+import scala.collection.JavaConverters.asScalaSetConverter
+import scala.collection.JavaConverters.mapAsScalaMapConverter
+
 /**
  * Tracer for cache activity.
  */
@@ -68,6 +73,12 @@ trait CacheTracer[QUERY_KEY] {
    * The query cache was flushed.
    */
   def queryCacheFlush(sizeOfCacheBeforeFlush: Long): Unit
+
+  /**
+   * A stale item was replanned in the background, while it kept being served from the cache.
+   * @param durationNanos how long the replanning took
+   */
+  def queryCacheBackgroundReplan(queryKey: QUERY_KEY, durationNanos: Long, metaData: String): Unit = {}
 }
 
 /**
@@ -96,6 +107,13 @@ trait CompilerWithExpressionCodeGenOption[EXECUTABLE_QUERY] {
    *         `None` otherwise.
    */
   def maybeCompileWithExpressionCodeGen(hitCount: Int): Option[EXECUTABLE_QUERY]
+
+  /**
+   * Compile a query like [[compile]] or [[compileWithExpressionCodeGen]] do, but on another thread and in a transaction of its own.
+   * @param withExpressionCodeGen `true` to compile the query with expression code generation
+   * @return `Some(query-to-be-compiled)` if the query can be compiled in the background, `None` otherwise.
+   */
+  def compileInBackground(withExpressionCodeGen: Boolean): Option[CompletableFuture[EXECUTABLE_QUERY]] = None
 }
 
 
@@ -141,6 +159,7 @@ class QueryCache[QUERY_KEY <: AnyRef,
   private class CachedValue(val value: EXECUTABLE_QUERY, val recompiledWithExpressionCodeGen: Boolean) {
 
     @volatile private var _numberOfHits = 0
+    private val replanningInBackground = new AtomicBoolean()
 
     def markHit(): Unit = {
       if (!recompiledWithExpressionCodeGen) {
@@ -150,6 +169,12 @@ class QueryCache[QUERY_KEY <: AnyRef,
 
     def numberOfHits: Int = _numberOfHits
 
+    def isReplanningInBackground: Boolean = replanningInBackground.get()
+
+    def startReplanningInBackground(): Boolean = replanningInBackground.compareAndSet(false, true)
+
+    def stopReplanningInBackground(): Unit = replanningInBackground.set(false)
+
     def canEqual(other: Any): Boolean = other.isInstanceOf[CachedValue]
 
     override def equals(other: Any): Boolean = other match {
@@ -201,6 +226,9 @@ class QueryCache[QUERY_KEY <: AnyRef,
               compileWithExpressionCodeGenAndCache(queryKey, compiler, metaData)
             case CypherReplanOption.skip =>
               hit(queryKey, cachedValue, metaData)
+            case CypherReplanOption.default if cachedValue.isReplanningInBackground =>
+              // The entry is stale, but keeps serving until its replacement is compiled.
+              hit(queryKey, cachedValue, metaData)
             case CypherReplanOption.default =>
               stalenessCaller.staleness(tc, cachedValue.value) match {
                 case NotStale =>
@@ -211,14 +239,50 @@ class QueryCache[QUERY_KEY <: AnyRef,
                   }
                 case Stale(secondsSincePlan, maybeReason) =>
                   tracer.queryCacheStale(queryKey, secondsSincePlan, metaData, maybeReason)
-                  if (cachedValue.recompiledWithExpressionCodeGen) compileWithExpressionCodeGenAndCache(queryKey, compiler, metaData)
-                  else compileAndCache(queryKey, compiler, metaData)
+                  replanInBackground(queryKey, cachedValue, compiler, metaData).getOrElse {
+                    if (cachedValue.recompiledWithExpressionCodeGen) compileWithExpressionCodeGenAndCache(queryKey, compiler, metaData)
+                    else compileAndCache(queryKey, compiler, metaData)
+                  }
               }
           }
       }
     }
   }
 
+  /**
+   * Replan a stale query in the background, if the compiler can, and keep serving the stale entry until the new plan replaces it.
+   *
+   * @return the stale query if it is being replanned in the background, `None` if it has to be replanned by the caller.
+   */
+  private def replanInBackground(queryKey: QUERY_KEY,
+                                 cachedValue: CachedValue,
+                                 compiler: CompilerWithExpressionCodeGenOption[EXECUTABLE_QUERY],
+                                 metaData: String
+                                ): Option[EXECUTABLE_QUERY] = {
+    if (!cachedValue.startReplanningInBackground()) {
+      // Another thread found the entry stale just before we did, and replans it.
+      return Some(hit(queryKey, cachedValue, metaData))
+    }
+    val startTime = System.nanoTime()
+    compiler.compileInBackground(cachedValue.recompiledWithExpressionCodeGen) match {
+      case Some(replanned) =>
+        replanned.whenComplete { (newExecutableQuery, failure) =>
+          if (failure == null && newExecutableQuery.shouldBeCached) {
+            // Only replace the entry we replanned. It may have been replaced or evicted in the meantime.
+            inner.asMap().replace(queryKey, cachedValue, new CachedValue(newExecutableQuery, cachedValue.recompiledWithExpressionCodeGen))
+            tracer.queryCacheBackgroundReplan(queryKey, System.nanoTime() - startTime, metaData)
+          } else {
+            // Let the next execution compile the query itself, and fail if the query no longer compiles.
+            inner.asMap().remove(queryKey, cachedValue)
+          }
+        }
+        Some(hit(queryKey, cachedValue, metaData))
+      case None =>
+        cachedValue.stopReplanningInBackground()
+        None
+    }
+  }
+
   /**
    * Check if certain warnings are not valid anymore.
    */
@@ -342,6 +406,17 @@ class QueryCache[QUERY_KEY <: AnyRef,
     tracer.queryCacheFlush(priorSize)
     priorSize
   }
+
+  /**
+   * The keys currently in the cache, with the keys that the cache would be least willing to evict first.
+   */
+  def hottestKeys(): Seq[QUERY_KEY] = {
+    val eviction = inner.policy().eviction()
+    val keys =
+      if (eviction.isPresent) eviction.get().hottest(maximumSize).keySet()
+      else inner.asMap().keySet()
+    keys.asScala.toVector
+  }
 }
 
 object QueryCache {
@@ -379,6 +454,8 @@ object QueryCache {
       }
     }
 
+    def parameterTypes: Map[String, CypherType] = resultMap.asScala.toMap
+
     // Implemented to simplify testing
     override def toString: String =
       scala.collection.JavaConverters.mapAsScalaMap(resultMap).toString
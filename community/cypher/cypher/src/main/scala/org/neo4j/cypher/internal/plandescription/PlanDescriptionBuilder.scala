@@ -100,6 +100,10 @@ class PlanDescriptionBuilder(logicalPlan: LogicalPlan,
           .addArgument(Arguments.PageCacheMisses, data.pageCacheMisses)
           .addArgument(Time, data.time())
           .addArgument(Arguments.Memory, data.maxAllocatedMemory())
+          .addArgument(Arguments.SpilledBytes, data.spilledBytes())
+          .addArgument(Arguments.PropertyWalksSaved, data.propertyWalksSaved())
+          .addArgument(Arguments.CsvParseTime, data.csvParseTime())
+          .addArgument(Arguments.CsvWaitTime, data.csvWaitTime())
           .plan
       }
 
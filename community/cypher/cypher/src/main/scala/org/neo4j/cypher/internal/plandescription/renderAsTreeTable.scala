@@ -20,6 +20,8 @@
 package org.neo4j.cypher.internal.plandescription
 
 import org.neo4j.cypher.internal.plandescription.Arguments.ByteCode
+import org.neo4j.cypher.internal.plandescription.Arguments.CsvParseTime
+import org.neo4j.cypher.internal.plandescription.Arguments.CsvWaitTime
 import org.neo4j.cypher.internal.plandescription.Arguments.DbHits
 import org.neo4j.cypher.internal.plandescription.Arguments.Details
 import org.neo4j.cypher.internal.plandescription.Arguments.EstimatedRows
@@ -32,11 +34,13 @@ import org.neo4j.cypher.internal.plandescription.Arguments.PipelineInfo
 import org.neo4j.cypher.internal.plandescription.Arguments.Planner
 import org.neo4j.cypher.internal.plandescription.Arguments.PlannerImpl
 import org.neo4j.cypher.internal.plandescription.Arguments.PlannerVersion
+import org.neo4j.cypher.internal.plandescription.Arguments.PropertyWalksSaved
 import org.neo4j.cypher.internal.plandescription.Arguments.Rows
 import org.neo4j.cypher.internal.plandescription.Arguments.Runtime
 import org.neo4j.cypher.internal.plandescription.Arguments.RuntimeImpl
 import org.neo4j.cypher.internal.plandescription.Arguments.RuntimeVersion
 import org.neo4j.cypher.internal.plandescription.Arguments.SourceCode
+import org.neo4j.cypher.internal.plandescription.Arguments.SpilledBytes
 import org.neo4j.cypher.internal.plandescription.Arguments.Time
 import org.neo4j.cypher.internal.plandescription.Arguments.Version
 import org.neo4j.cypher.internal.util.helpers.NameDeduplicator.UNNAMED_PATTERN
@@ -53,12 +57,15 @@ object renderAsTreeTable {
   private val ROWS = "Rows"
   private val HITS = "DB Hits"
   private val MEMORY = "Memory (Bytes)"
+  private val SPILLED = "Spilled (Bytes)"
+  private val PROPERTY_WALKS_SAVED = "Property Walks Saved"
+  private val CSV_TIME = "CSV Parse/Wait (ms)"
   private val PAGE_CACHE = "Page Cache Hits/Misses"
   private val TIME = "Time (ms)"
   private val ORDER = "Ordered by"
   val MAX_DETAILS_COLUMN_WIDTH = 100
   private val OTHER = "Other"
-  private val HEADERS = Seq(OPERATOR, DETAILS, ESTIMATED_ROWS, ROWS, HITS, MEMORY, PAGE_CACHE, TIME,
+  private val HEADERS = Seq(OPERATOR, DETAILS, ESTIMATED_ROWS, ROWS, HITS, MEMORY, SPILLED, PROPERTY_WALKS_SAVED, CSV_TIME, PAGE_CACHE, TIME,
     ORDER, OTHER)
   private val newLine = System.lineSeparator()
   private val SEPARATOR = ","
@@ -237,6 +244,11 @@ object renderAsTreeTable {
       case Rows(count) => rightJustifiedMapping(ROWS, count.toString)
       case DbHits(count) => rightJustifiedMapping(HITS, count.toString)
       case Memory(count) => rightJustifiedMapping(MEMORY, count.toString)
+      case SpilledBytes(count) => rightJustifiedMapping(SPILLED, count.toString)
+      case PropertyWalksSaved(count) => rightJustifiedMapping(PROPERTY_WALKS_SAVED, count.toString)
+      case CsvParseTime(parseNanos) =>
+        val waitNanos = description.arguments.collectFirst { case CsvWaitTime(nanos) => nanos }
+        rightJustifiedMapping(CSV_TIME, "%.3f/%.3f".format(parseNanos/1000000.0, waitNanos.getOrElse(0L)/1000000.0))
       case PageCacheHits(hits) =>
         val misses = description.arguments.collectFirst { case PageCacheMisses(missCount) => missCount }
         rightJustifiedMapping(PAGE_CACHE, s"$hits/${misses.getOrElse(0)}")
@@ -307,6 +319,10 @@ object renderAsTreeTable {
         !x.isInstanceOf[DbHits] &&
         !x.isInstanceOf[Memory] &&
         !x.isInstanceOf[GlobalMemory] &&
+        !x.isInstanceOf[SpilledBytes] &&
+        !x.isInstanceOf[PropertyWalksSaved] &&
+        !x.isInstanceOf[CsvParseTime] &&
+        !x.isInstanceOf[CsvWaitTime] &&
         !x.isInstanceOf[PageCacheHits] &&
         !x.isInstanceOf[PageCacheMisses] &&
         !x.isInstanceOf[EstimatedRows] &&
@@ -499,6 +499,8 @@ trait CypherCacheHitMonitor[T] {
   def cacheCompile(key: T): Unit = {}
 
   def cacheCompileWithExpressionCodeGen(key: T): Unit = {}
+
+  def cacheBackgroundReplan(key: T, durationNanos: Long): Unit = {}
 }
 
 /**
@@ -70,6 +70,7 @@ import org.neo4j.internal.schema.IndexType
 import org.neo4j.kernel.impl.query.FunctionInformation
 import org.neo4j.logging.LogProvider
 import org.neo4j.memory.MemoryTracker
+import org.neo4j.scheduler.JobScheduler
 import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.TextValue
 import org.neo4j.values.storable.Value
@@ -358,6 +359,9 @@ class ExceptionTranslatingReadQueryContext(val inner: ReadQueryContext) extends
     override def getProperty(id: Long, propertyKeyId: Int, cursor: CURSOR, propertyCursor: PropertyCursor, throwOnDeleted: Boolean): Value =
       translateException(tokenNameLookup, inner.getProperty(id, propertyKeyId, cursor, propertyCursor, throwOnDeleted))
 
+    override def getProperties(id: Long, propertyKeyIds: Array[Int], cursor: CURSOR, propertyCursor: PropertyCursor, throwOnDeleted: Boolean): Array[Value] =
+      translateException(tokenNameLookup, inner.getProperties(id, propertyKeyIds, cursor, propertyCursor, throwOnDeleted))
+
     override def hasProperty(id: Long, propertyKeyId: Int, cursor: CURSOR, propertyCursor: PropertyCursor): Boolean =
       translateException(tokenNameLookup, inner.hasProperty(id, propertyKeyId, cursor, propertyCursor))
 
@@ -493,6 +497,8 @@ class ExceptionTranslatingQueryContext(override val inner: QueryContext) extends
 
   override def getConfig: Config = translateException(tokenNameLookup, inner.getConfig)
 
+  override def jobScheduler: JobScheduler = translateException(tokenNameLookup, inner.jobScheduler)
+
   override def nodeApplyChanges(id: Long,
                                 addedLabels: IntSet,
                                 removedLabels: IntSet,
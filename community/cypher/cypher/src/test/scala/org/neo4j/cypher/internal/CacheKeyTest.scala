@@ -26,6 +26,7 @@ import org.neo4j.cypher.internal.options.CypherExecutionMode
 import org.neo4j.cypher.internal.options.CypherExpressionEngineOption
 import org.neo4j.cypher.internal.options.CypherInterpretedPipesFallbackOption
 import org.neo4j.cypher.internal.options.CypherOperatorEngineOption
+import org.neo4j.cypher.internal.options.CypherParallelAggregationOption
 import org.neo4j.cypher.internal.options.CypherPlannerOption
 import org.neo4j.cypher.internal.options.CypherQueryOptions
 import org.neo4j.cypher.internal.options.CypherReplanOption
@@ -62,11 +63,12 @@ class CacheKeyTest extends CypherFunSuite {
       interpretedPipesFallback = CypherInterpretedPipesFallbackOption.allPossiblePlans,
       replan = CypherReplanOption.force,
       connectComponentsPlanner = CypherConnectComponentsPlannerOption.idp,
+      parallelAggregation = CypherParallelAggregationOption.enabled,
       debugOptions = CypherDebugOptions(Set(CypherDebugOption.queryGraph, CypherDebugOption.tostring))
     )
 
     options.cacheKey
-      .shouldEqual("3.5 PROFILE planner=dp runtime=pipelined updateStrategy=eager expressionEngine=interpreted operatorEngine=interpreted interpretedPipesFallback=all connectComponentsPlanner=idp debug=querygraph debug=tostring")
+      .shouldEqual("3.5 PROFILE planner=dp runtime=pipelined updateStrategy=eager expressionEngine=interpreted operatorEngine=interpreted interpretedPipesFallback=all connectComponentsPlanner=idp parallelAggregation=enabled debug=querygraph debug=tostring")
   }
 
   test("Only certain non-default options should be part of logical plan cache key") {
@@ -81,6 +83,7 @@ class CacheKeyTest extends CypherFunSuite {
       interpretedPipesFallback = CypherInterpretedPipesFallbackOption.allPossiblePlans,
       replan = CypherReplanOption.force,
       connectComponentsPlanner = CypherConnectComponentsPlannerOption.idp,
+      parallelAggregation = CypherParallelAggregationOption.enabled,
       debugOptions = CypherDebugOptions(Set(CypherDebugOption.queryGraph, CypherDebugOption.tostring))
     )
 
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal
+
+import org.neo4j.configuration.Config
+import org.neo4j.cypher.internal.QueryCache.CacheKey
+import org.neo4j.cypher.internal.cache.TestExecutorCaffeineCacheFactory
+import org.neo4j.cypher.internal.config.CypherConfiguration
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.values.storable.CoordinateReferenceSystem
+import org.neo4j.values.storable.DateValue
+import org.neo4j.values.storable.DurationValue
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.MapValue
+import org.neo4j.values.virtual.VirtualValues
+
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+
+import scala.collection.JavaConverters.asScalaBufferConverter
+import scala.collection.JavaConverters.seqAsJavaListConverter
+
+class PersistedQueryTest extends CypherFunSuite {
+
+  private val preParser = new PreParser(CypherConfiguration.fromConfig(Config.defaults()), 0, TestExecutorCaffeineCacheFactory)
+
+  private val parameters = VirtualValues.map(
+    Array("name", "age", "score", "born", "location", "since", "tags", "props", "nothing"),
+    Array(Values.stringValue("Ada"), Values.longValue(36), Values.doubleValue(0.5), DateValue.epochDate(12),
+      Values.pointValue(CoordinateReferenceSystem.WGS84, 12.0, 56.0), DurationValue.duration(1, 2, 3, 4),
+      VirtualValues.list(Values.stringValue("a"), Values.stringValue("b")), VirtualValues.map(Array("a"), Array(Values.TRUE)), VirtualValues.EMPTY_LIST))
+
+  private def cacheKey(query: String, params: MapValue = MapValue.EMPTY, profile: Boolean = false, txStateHasChanges: Boolean = false) =
+    CacheKey(preParser.preParseQuery(query, profile).cacheKey, QueryCache.extractParameterTypeMap(params), txStateHasChanges)
+
+  private def roundTrip(queries: Seq[PersistedQuery]): Seq[PersistedQuery] = {
+    val bytes = new ByteArrayOutputStream()
+    PersistedQuery.write(queries.asJava, new DataOutputStream(bytes))
+    PersistedQuery.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray))).asScala
+  }
+
+  test("should pre-parse the query text of a persisted query into the same cache key") {
+    val queries = Seq(
+      cacheKey("MATCH (n) RETURN n"),
+      cacheKey("CYPHER runtime=slotted planner=dp MATCH (n) RETURN n"),
+      cacheKey("PROFILE CYPHER 4.3 MATCH (n) RETURN n"),
+      cacheKey("MATCH (n) RETURN n", profile = true),
+      cacheKey("EXPLAIN   MATCH (n:Person {name: $name}) RETURN n", parameters),
+      cacheKey("CYPHER debug=tostring debug=querygraph\nMATCH (n) RETURN n")
+    )
+
+    for (key <- queries) {
+      val query = PersistedQuery.from(key).get
+      val preParsedQuery = preParser.preParseQuery(query.queryText, query.profile)
+      preParsedQuery.cacheKey should equal(key.queryRep)
+    }
+  }
+
+  test("should compile a persisted query with parameters of the same types") {
+    val key = cacheKey("MATCH (n:Person {name: $name}) RETURN n", parameters)
+    val query = PersistedQuery.from(key).get
+
+    QueryCache.extractParameterTypeMap(query.parameters) should equal(key.parameterTypeMap)
+  }
+
+  test("should compile a persisted query without parameters") {
+    val query = PersistedQuery.from(cacheKey("MATCH (n) RETURN count(n)")).get
+
+    query.parameters should equal(MapValue.EMPTY)
+  }
+
+  test("should not persist queries that were planned against transaction state") {
+    PersistedQuery.from(cacheKey("MATCH (n) RETURN n", txStateHasChanges = true)) should be(None)
+  }
+
+  test("should read the queries that were written") {
+    val queries = Seq(
+      PersistedQuery.from(cacheKey("MATCH (n) RETURN n")).get,
+      PersistedQuery.from(cacheKey("MATCH (n:Person {name: $name}) RETURN n", parameters)).get,
+      PersistedQuery.from(cacheKey("RETURN '" + "x" * 100000 + "'")).get
+    )
+
+    roundTrip(queries) should equal(queries)
+  }
+
+  test("should discard queries with parameter types that are not known") {
+    val known = PersistedQuery.from(cacheKey("MATCH (n:Person {name: $name}) RETURN n", parameters)).get
+    val unknown = known.copy(parameterTypes = Map("name" -> "BLOB"))
+
+    roundTrip(Seq(unknown, known)) should equal(Seq(known))
+  }
+
+  test("should discard queries written in another format") {
+    val bytes = new ByteArrayOutputStream()
+    val output = new DataOutputStream(bytes)
+    output.writeInt(PersistedQuery.FORMAT_VERSION + 1)
+    output.writeInt(1)
+
+    PersistedQuery.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray))) shouldBe empty
+  }
+}
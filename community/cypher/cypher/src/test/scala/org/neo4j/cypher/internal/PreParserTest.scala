@@ -28,6 +28,7 @@ import org.neo4j.cypher.internal.options.CypherConnectComponentsPlannerOption
 import org.neo4j.cypher.internal.options.CypherExpressionEngineOption
 import org.neo4j.cypher.internal.options.CypherInterpretedPipesFallbackOption
 import org.neo4j.cypher.internal.options.CypherOperatorEngineOption
+import org.neo4j.cypher.internal.options.CypherParallelAggregationOption
 import org.neo4j.cypher.internal.options.CypherPlannerOption
 import org.neo4j.cypher.internal.options.CypherReplanOption
 import org.neo4j.cypher.internal.options.CypherRuntimeOption
@@ -133,6 +134,12 @@ class PreParserTest extends CypherFunSuite {
     preParser.preParseQuery("CYPHER connectComponentsPlanner=idp RETURN 42").options.queryOptions.connectComponentsPlanner should equal(CypherConnectComponentsPlannerOption.idp)
   }
 
+  test("should accept just one parallel aggregation mode") {
+    preParser.preParseQuery("CYPHER parallelAggregation=enabled RETURN 42").options.queryOptions.parallelAggregation should equal(CypherParallelAggregationOption.enabled)
+    preParser.preParseQuery("CYPHER parallelAggregation=disabled RETURN 42").options.queryOptions.parallelAggregation should equal(CypherParallelAggregationOption.disabled)
+    intercept[InvalidArgumentException](preParser.preParseQuery("CYPHER parallelAggregation=enabled parallelAggregation=disabled RETURN 42"))
+  }
+
   test("should not allow multiple conflicting replan strategies") {
     intercept[InvalidArgumentException](preParser.preParseQuery("CYPHER replan=force replan=skip RETURN 42"))
   }
@@ -19,13 +19,16 @@
  */
 package org.neo4j.cypher.internal
 
+import org.mockito.ArgumentMatchers
 import org.mockito.Mockito
 import org.mockito.Mockito.times
 import org.mockito.Mockito.verifyNoMoreInteractions
 import org.neo4j.cypher.internal.QueryCache.CacheKey
 import org.neo4j.cypher.internal.QueryCache.ParameterTypeMap
+import org.neo4j.cypher.internal.QueryCacheTest.MyValue
 import org.neo4j.cypher.internal.QueryCacheTest.TC
 import org.neo4j.cypher.internal.QueryCacheTest.alwaysStale
+import org.neo4j.cypher.internal.QueryCacheTest.backgroundCompiler
 import org.neo4j.cypher.internal.QueryCacheTest.compiled
 import org.neo4j.cypher.internal.QueryCacheTest.compilerWithExpressionCodeGenOption
 import org.neo4j.cypher.internal.QueryCacheTest.newCache
@@ -41,6 +44,8 @@ import org.neo4j.values.storable.Values
 import org.neo4j.values.virtual.VirtualValues
 import org.scalatest.mockito.MockitoSugar
 
+import java.util.concurrent.CompletableFuture
+
 class QueryCacheTest extends CypherFunSuite {
 
   test("size 0 cache should never 'hit' or 'miss' and never compile with expression code generation") {
@@ -214,6 +219,62 @@ class QueryCacheTest extends CypherFunSuite {
     verifyNoMoreInteractions(tracer)
   }
 
+  test("if item is stale and can be replanned in the background we should hit the cache until the replanned item replaces it") {
+    // Given
+    val tracer = newTracer()
+    val secondsSinceReplan = 17
+    val cache = newCache(tracer, alwaysStale(secondsSinceReplan))
+    val key = newKey("foo")
+    val replanned = new CompletableFuture[MyValue]()
+    cache.computeIfAbsentOrStale(key, TC, compilerWithExpressionCodeGenOption(key), CypherReplanOption.default)
+
+    // When
+    val staleValue = cache.computeIfAbsentOrStale(key, TC, backgroundCompiler(key, replanned), CypherReplanOption.default)
+    val stillStaleValue = cache.computeIfAbsentOrStale(key, TC, backgroundCompiler(key, replanned), CypherReplanOption.default)
+    // Then
+    staleValue should equal(compiled(key))
+    stillStaleValue should equal(compiled(key))
+
+    val o = Mockito.inOrder(tracer)
+    o.verify(tracer).queryCacheMiss(key, "")
+    o.verify(tracer).queryCompile(key, "")
+    o.verify(tracer).queryCacheStale(key, secondsSinceReplan, "", None)
+    o.verify(tracer, times(2)).queryCacheHit(key, "")
+    verifyNoMoreInteractions(tracer)
+
+    // When
+    replanned.complete(MyValue("bar")(compiledWithExpressionCodeGen = false))
+    // Then
+    o.verify(tracer).queryCacheBackgroundReplan(ArgumentMatchers.eq(key), ArgumentMatchers.anyLong(), ArgumentMatchers.eq(""))
+    val replannedValue = cache.computeIfAbsentOrStale(key, TC, compilerWithExpressionCodeGenOption(key), CypherReplanOption.skip)
+    replannedValue should equal(MyValue("bar")(compiledWithExpressionCodeGen = false))
+  }
+
+  test("if item fails to be replanned in the background it should be evicted from the cache") {
+    // Given
+    val tracer = newTracer()
+    val secondsSinceReplan = 17
+    val cache = newCache(tracer, alwaysStale(secondsSinceReplan))
+    val key = newKey("foo")
+    val replanned = new CompletableFuture[MyValue]()
+    cache.computeIfAbsentOrStale(key, TC, compilerWithExpressionCodeGenOption(key), CypherReplanOption.default)
+    cache.computeIfAbsentOrStale(key, TC, backgroundCompiler(key, replanned), CypherReplanOption.default)
+
+    // When
+    replanned.completeExceptionally(new IllegalStateException("schema changed"))
+    cache.computeIfAbsentOrStale(key, TC, compilerWithExpressionCodeGenOption(key), CypherReplanOption.skip)
+
+    // Then
+    val o = Mockito.inOrder(tracer)
+    o.verify(tracer).queryCacheMiss(key, "")
+    o.verify(tracer).queryCompile(key, "")
+    o.verify(tracer).queryCacheStale(key, secondsSinceReplan, "", None)
+    o.verify(tracer).queryCacheHit(key, "")
+    o.verify(tracer).queryCacheMiss(key, "")
+    o.verify(tracer).queryCompile(key, "")
+    verifyNoMoreInteractions(tracer)
+  }
+
   test("should trigger recompile when hot") {
     // Given
     val tracer = newTracer()
@@ -388,6 +449,19 @@ object QueryCacheTest extends MockitoSugar {
       else None
   }
 
+  def backgroundCompiler(key: Key, replanned: CompletableFuture[MyValue]): CompilerWithExpressionCodeGenOption[MyValue] =
+    new CompilerWithExpressionCodeGenOption[MyValue] {
+      private val inner = compilerWithExpressionCodeGenOption(key)
+
+      override def compile(): MyValue = inner.compile()
+
+      override def compileWithExpressionCodeGen(): MyValue = inner.compileWithExpressionCodeGen()
+
+      override def maybeCompileWithExpressionCodeGen(hitCount: Int): Option[MyValue] = inner.maybeCompileWithExpressionCodeGen(hitCount)
+
+      override def compileInBackground(withExpressionCodeGen: Boolean): Option[CompletableFuture[MyValue]] = Some(replanned)
+    }
+
   def newKey(string: String): Key = CacheKey(string, ParameterTypeMap.empty, txStateHasChanges = false)
 
   def newCache(tracer: Tracer = newTracer(), stalenessCaller: PlanStalenessCaller[MyValue] = neverStale(), size: Int = 10): QueryCache[CacheKey[String], MyValue] = {
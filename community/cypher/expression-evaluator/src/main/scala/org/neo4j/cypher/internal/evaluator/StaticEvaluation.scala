@@ -75,6 +75,7 @@ import org.neo4j.kernel.impl.query.QuerySubscriber
 import org.neo4j.kernel.internal.GraphDatabaseAPI
 import org.neo4j.logging.LogProvider
 import org.neo4j.memory.MemoryTracker
+import org.neo4j.scheduler.JobScheduler
 import org.neo4j.values.AnyValue
 import org.neo4j.values.ValueMapper
 import org.neo4j.values.storable.TextValue
@@ -553,6 +554,8 @@ object StaticEvaluation {
 
     override def getConfig: Config = notAvailable()
 
+    override def jobScheduler: JobScheduler = notAvailable()
+
     override def entityTransformer: EntityTransformer = notAvailable()
   }
 
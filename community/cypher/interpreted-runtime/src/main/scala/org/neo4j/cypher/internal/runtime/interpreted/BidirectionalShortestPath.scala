@@ -0,0 +1,341 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted
+
+import org.eclipse.collections.api.set.primitive.LongSet
+import org.neo4j.collection.trackable.HeapTrackingCollections
+import org.neo4j.collection.trackable.HeapTrackingLongArrayList
+import org.neo4j.collection.trackable.HeapTrackingLongIntHashMap
+import org.neo4j.cypher.internal.runtime.KernelPredicate
+import org.neo4j.cypher.internal.runtime.interpreted.BidirectionalShortestPath.NO_LINK
+import org.neo4j.graphalgo.impl.util.PathImpl
+import org.neo4j.graphdb.Entity
+import org.neo4j.graphdb.Path
+import org.neo4j.graphdb.Relationship
+import org.neo4j.internal.kernel.api.CursorFactory
+import org.neo4j.internal.kernel.api.NodeCursor
+import org.neo4j.internal.kernel.api.Read
+import org.neo4j.internal.kernel.api.RelationshipTraversalCursor
+import org.neo4j.io.pagecache.context.CursorContext
+import org.neo4j.kernel.impl.core.TransactionalEntityFactory
+import org.neo4j.memory.MemoryTracker
+import org.neo4j.memory.ScopedMemoryTracker
+import org.neo4j.storageengine.api.RelationshipSelection
+
+import scala.collection.mutable.ArrayBuffer
+
+/**
+ * Finds the shortest paths between two nodes with a breadth-first search from both ends, directly on kernel cursors.
+ *
+ * Each step expands a whole level of the side with the smaller frontier. The nodes that each side has visited are kept in primitive maps, together
+ * with the relationships that lead to them, so that no entities are created while searching. Entities are only created to build the paths that
+ * are found, and to test the node and relationship filters, which are applied while expanding, so that filtered out parts of the graph are
+ * never visited.
+ *
+ * @param selection      the relationships to expand from the start node, which are expanded in reverse from the end node
+ * @param maxDepth       the maximum length of the paths to find
+ * @param nodeFilters    filters for the nodes that are expanded to
+ * @param relFilters     filters for the relationships that are expanded
+ * @param pathPredicate  a predicate that the paths that are found must pass
+ */
+class BidirectionalShortestPath(read: Read,
+                                cursors: CursorFactory,
+                                cursorContext: CursorContext,
+                                entityAccessor: TransactionalEntityFactory,
+                                selection: RelationshipSelection,
+                                maxDepth: Int,
+                                nodeFilters: Seq[KernelPredicate[Entity]],
+                                relFilters: Seq[KernelPredicate[Entity]],
+                                pathPredicate: KernelPredicate[Path],
+                                memoryTracker: MemoryTracker) {
+
+  /**
+   * @return the shortest path between the two nodes that passes the path predicate, if any. If the shortest paths do not pass the
+   *         predicate, longer paths are tried.
+   */
+  def single(start: Long, end: Long): Option[Path] = {
+    if (start == end) {
+      return Some(PathImpl.singular(entityAccessor.newNodeEntity(start))).filter(pathPredicate.test)
+    }
+    val search = new Search(start, end, allShortest = false)
+    try {
+      var tested = 0
+      while (search.expand()) {
+        val hits = search.hits.drop(tested).sortBy(search.length)
+        tested = search.hits.size
+        val found = hits.iterator.map(search.singlePath).find(pathPredicate.test)
+        if (found.isDefined) {
+          return found
+        }
+      }
+      None
+    } finally {
+      search.close()
+    }
+  }
+
+  /**
+   * @return all shortest paths between the two nodes that pass the path predicate. Longer paths are never tried.
+   */
+  def all(start: Long, end: Long): Seq[Path] = {
+    if (start == end) {
+      return Seq(PathImpl.singular(entityAccessor.newNodeEntity(start))).filter(pathPredicate.test)
+    }
+    val search = new Search(start, end, allShortest = true)
+    try {
+      while (search.hits.isEmpty && search.expand()) {}
+      search.allPaths().filter(pathPredicate.test)
+    } finally {
+      search.close()
+    }
+  }
+
+  private def passesFilters(relationships: RelationshipTraversalCursor): Boolean = {
+    (relFilters.isEmpty || {
+      val relationship = entityAccessor.newRelationshipEntity(relationships.relationshipReference(), relationships.sourceNodeReference(),
+        relationships.`type`(), relationships.targetNodeReference())
+      relFilters.forall(_.test(relationship))
+    }) && (nodeFilters.isEmpty || {
+      val node = entityAccessor.newNodeEntity(relationships.otherNodeReference())
+      nodeFilters.forall(_.test(node))
+    })
+  }
+
+  private class Search(start: Long, end: Long, allShortest: Boolean) extends AutoCloseable {
+    private[this] val scopedMemoryTracker = new ScopedMemoryTracker(memoryTracker)
+    private[this] val nodeCursor: NodeCursor = cursors.allocateNodeCursor(cursorContext)
+    private[this] val relationships: RelationshipTraversalCursor = cursors.allocateRelationshipTraversalCursor(cursorContext)
+    private[this] val forward = new Side(start, selection)
+    private[this] val backward = new Side(end, selection.reverse())
+
+    /**
+     * The nodes that have been visited from both sides, in the order they were found.
+     */
+    val hits = new ArrayBuffer[Long]()
+
+    /**
+     * Expand one level of the side with the smaller frontier.
+     *
+     * @return false if there is nothing left to expand
+     */
+    def expand(): Boolean = {
+      if (forward.frontier.isEmpty || backward.frontier.isEmpty || forward.depth + backward.depth >= maxDepth) {
+        false
+      } else {
+        if (forward.frontier.size() <= backward.frontier.size()) forward.expand(backward) else backward.expand(forward)
+        true
+      }
+    }
+
+    /**
+     * @return the length of the shortest paths through the given hit
+     */
+    def length(hit: Long): Int = forward.depthOf(hit) + backward.depthOf(hit)
+
+    /**
+     * @return one of the shortest paths through the given hit
+     */
+    def singlePath(hit: Long): Path = {
+      val fromStart = forward.singleChain(hit)
+      val fromEnd = backward.singleChain(hit)
+      buildPath(fromStart, fromEnd)
+    }
+
+    /**
+     * @return all shortest paths through the hits with the shortest paths
+     */
+    def allPaths(): Seq[Path] = {
+      if (hits.isEmpty) {
+        return Seq.empty
+      }
+      val shortest = hits.map(length).min
+      val shortestHits = HeapTrackingCollections.newLongSet(scopedMemoryTracker)
+      hits.foreach(hit => if (length(hit) == shortest) shortestHits.add(hit))
+      val paths = new ArrayBuffer[Path]()
+      val iterator = shortestHits.longIterator()
+      while (iterator.hasNext) {
+        val hit = iterator.next()
+        // A path may pass through several hits, so it is only built from the first one of them, as seen from the start node
+        for {
+          fromStart <- forward.allChains(hit, shortestHits)
+          fromEnd <- backward.allChains(hit, null)
+        } paths += buildPath(fromStart, fromEnd)
+      }
+      shortestHits.close()
+      paths
+    }
+
+    private def buildPath(fromStart: Seq[Relationship], fromEnd: Seq[Relationship]): Path = {
+      val startBuilder = fromStart.foldLeft(new PathImpl.Builder(entityAccessor.newNodeEntity(start)))(_.push(_))
+      val endBuilder = fromEnd.foldLeft(new PathImpl.Builder(entityAccessor.newNodeEntity(end)))(_.push(_))
+      startBuilder.build(endBuilder)
+    }
+
+    override def close(): Unit = {
+      nodeCursor.close()
+      relationships.close()
+      // Releases the memory of both sides
+      scopedMemoryTracker.close()
+    }
+
+    /**
+     * The search from one of the end nodes.
+     *
+     * Every visited node has a linked list of the relationships that it was reached by, which are all relationships from the previous level when
+     * searching for all shortest paths, and the first one otherwise. The links are kept in parallel lists, and the map of visited nodes points at
+     * the last link of each node.
+     */
+    private class Side(root: Long, selection: RelationshipSelection) {
+      private[this] val visited: HeapTrackingLongIntHashMap = HeapTrackingCollections.newLongIntMap(scopedMemoryTracker)
+      private[this] val linkRelationships = HeapTrackingLongArrayList.newLongArrayList(16, scopedMemoryTracker)
+      private[this] val linkSources = HeapTrackingLongArrayList.newLongArrayList(16, scopedMemoryTracker)
+      private[this] val linkTargets = HeapTrackingLongArrayList.newLongArrayList(16, scopedMemoryTracker)
+      // The type of the relationship in the high bits, and the previous link of the same node in the low bits
+      private[this] val linkTypesAndPrevious = HeapTrackingLongArrayList.newLongArrayList(16, scopedMemoryTracker)
+      // The first link of each level
+      private[this] val levels = HeapTrackingLongArrayList.newLongArrayList(scopedMemoryTracker)
+      var frontier: HeapTrackingLongArrayList = HeapTrackingLongArrayList.newLongArrayList(scopedMemoryTracker)
+      var depth = 0
+
+      addLink(-1L, -1L, -1L, -1, NO_LINK)
+      visited.put(root, 0)
+      levels.add(0)
+      frontier.add(root)
+
+      def expand(other: Side): Unit = {
+        val levelStart = linkRelationships.size()
+        levels.add(levelStart)
+        depth += 1
+        val next = HeapTrackingLongArrayList.newLongArrayList(scopedMemoryTracker)
+        var i = 0
+        while (i < frontier.size()) {
+          read.singleNode(frontier.get(i), nodeCursor)
+          if (nodeCursor.next()) {
+            nodeCursor.relationships(relationships, selection)
+            while (relationships.next()) {
+              val node = relationships.otherNodeReference()
+              val last = visited.getIfAbsent(node, NO_LINK)
+              if ((last == NO_LINK || (allShortest && last >= levelStart)) && passesFilters(relationships)) {
+                val link = addLink(relationships.relationshipReference(), relationships.sourceNodeReference(), relationships.targetNodeReference(),
+                  relationships.`type`(), last)
+                visited.put(node, link)
+                if (last == NO_LINK) {
+                  next.add(node)
+                  if (other.hasVisited(node)) {
+                    hits += node
+                  }
+                }
+              }
+            }
+          }
+          i += 1
+        }
+        frontier.close()
+        frontier = next
+      }
+
+      def hasVisited(node: Long): Boolean = visited.containsKey(node)
+
+      /**
+       * @return the level at which the given visited node was reached
+       */
+      def depthOf(node: Long): Int = {
+        val link = visited.get(node)
+        var level = depth
+        while (levels.get(level) > link) {
+          level -= 1
+        }
+        level
+      }
+
+      /**
+       * @return the first relationships that lead from the root to the given node
+       */
+      def singleChain(node: Long): List[Relationship] = {
+        var chain = List.empty[Relationship]
+        var current = node
+        var link = firstLink(visited.get(current))
+        while (link != 0) {
+          chain = relationship(link) :: chain
+          current = otherNode(link, current)
+          link = firstLink(visited.get(current))
+        }
+        chain
+      }
+
+      /**
+       * @param excluded visited nodes that must not be passed through on the way to the given node, or null
+       * @return all shortest chains of relationships from the root to the given node
+       */
+      def allChains(node: Long, excluded: LongSet): Seq[List[Relationship]] = {
+        val chains = new ArrayBuffer[List[Relationship]]()
+
+        def walk(current: Long, chain: List[Relationship]): Unit = {
+          var link = visited.get(current)
+          if (link == 0) {
+            chains += chain
+          }
+          while (link != NO_LINK && link != 0) {
+            val previous = otherNode(link, current)
+            if (excluded == null || !excluded.contains(previous)) {
+              walk(previous, relationship(link) :: chain)
+            }
+            link = previousLink(link)
+          }
+        }
+
+        walk(node, Nil)
+        chains
+      }
+
+      private def addLink(relationship: Long, source: Long, target: Long, relType: Int, previous: Int): Int = {
+        val link = linkRelationships.size()
+        linkRelationships.add(relationship)
+        linkSources.add(source)
+        linkTargets.add(target)
+        linkTypesAndPrevious.add((relType.toLong << 32) | (previous & 0xFFFFFFFFL))
+        link
+      }
+
+      private def previousLink(link: Int): Int = linkTypesAndPrevious.get(link).toInt
+
+      private def firstLink(last: Int): Int = {
+        var link = last
+        while (previousLink(link) != NO_LINK) {
+          link = previousLink(link)
+        }
+        link
+      }
+
+      private def otherNode(link: Int, node: Long): Long = {
+        val source = linkSources.get(link)
+        if (source == node) linkTargets.get(link) else source
+      }
+
+      private def relationship(link: Int): Relationship =
+        entityAccessor.newRelationshipEntity(linkRelationships.get(link), linkSources.get(link), (linkTypesAndPrevious.get(link) >>> 32).toInt,
+          linkTargets.get(link))
+    }
+  }
+}
+
+object BidirectionalShortestPath {
+  private val NO_LINK = -1
+}
@@ -27,16 +27,23 @@ import java.net.CookiePolicy
 import java.net.URL
 import java.nio.charset.StandardCharsets
 import java.nio.file.Paths
+import java.util.concurrent.ArrayBlockingQueue
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.TimeoutException
+import java.util.concurrent.atomic.AtomicLong
 import java.util.zip.GZIPInputStream
 import java.util.zip.InflaterInputStream
 import inet.ipaddr.IPAddressString
 import org.neo4j.csv.reader.BufferOverflowException
+import org.neo4j.configuration.GraphDatabaseInternalSettings
 import org.neo4j.csv.reader.CharReadable
+import org.neo4j.csv.reader.CharSeeker
 import org.neo4j.csv.reader.CharSeekers
 import org.neo4j.csv.reader.Configuration
 import org.neo4j.csv.reader.Extractors
 import org.neo4j.csv.reader.Mark
 import org.neo4j.csv.reader.Readables
+import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.ResourceManager
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.ExternalCSVResource
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.LoadCsvIterator
@@ -45,6 +52,12 @@ import org.neo4j.exceptions.LoadExternalResourceException
 import org.neo4j.internal.kernel.api.AutoCloseablePlus
 import org.neo4j.internal.kernel.api.DefaultCloseListenable
 import org.neo4j.kernel.impl.security.WebURLAccessRule
+import org.neo4j.memory.EmptyMemoryTracker
+import org.neo4j.memory.HeapEstimator
+import org.neo4j.memory.MemoryTracker
+import org.neo4j.scheduler.Group
+import org.neo4j.scheduler.JobHandle
+import org.neo4j.scheduler.JobScheduler
 import org.neo4j.values.storable.Value
 import org.neo4j.values.storable.Values
 
@@ -56,6 +69,11 @@ object CSVResources {
   val DEFAULT_BUFFER_SIZE: Int = 2 * 1024 * 1024
   val DEFAULT_QUOTE_CHAR: Char = '"'
 
+  def prefetching(queryContext: QueryContext): Option[CSVPrefetching] = {
+    val rows = queryContext.getConfig.get(GraphDatabaseInternalSettings.load_csv_prefetch_rows)
+    if (rows > 0) Some(CSVPrefetching(rows, queryContext.jobScheduler)) else None
+  }
+
   private def config(legacyCsvQuoteEscaping: Boolean, csvBufferSize: Int) = Configuration.newBuilder()
     .withQuotationCharacter(DEFAULT_QUOTE_CHAR)
     .withBufferSize(csvBufferSize)
@@ -75,63 +93,67 @@ case class CSVResource(url: URL, resource: AutoCloseable) extends DefaultCloseLi
   override def isClosed = false
 }
 
-class CSVResources(resourceManager: ResourceManager) extends ExternalCSVResource {
+/**
+ * Parse the rows of LOAD CSV files ahead of the queries, see [[PrefetchingLoadCsvIterator]].
+ *
+ * @param rows number of rows to parse ahead of the query
+ * @param jobScheduler runs the parsers
+ */
+case class CSVPrefetching(rows: Int, jobScheduler: JobScheduler)
+
+class CSVResources(resourceManager: ResourceManager, prefetching: Option[CSVPrefetching] = None) extends ExternalCSVResource {
 
   override def getCsvIterator(url: URL,
                      ipBlocklist: List[IPAddressString],
                      fieldTerminator: Option[String],
                      legacyCsvQuoteEscaping: Boolean,
                      bufferSize: Int,
-                     headers: Boolean = false): LoadCsvIterator = {
+                     headers: Boolean = false,
+                     memoryTracker: MemoryTracker = EmptyMemoryTracker.INSTANCE): LoadCsvIterator = {
 
     val reader: CharReadable = getReader(url, ipBlocklist)
     val delimiter: Char = fieldTerminator.map(_.charAt(0)).getOrElse(CSVResources.DEFAULT_FIELD_TERMINATOR)
-    val seeker = CharSeekers.charSeeker(reader, CSVResources.config(legacyCsvQuoteEscaping, bufferSize), false)
-    val extractor = new Extractors(delimiter).textValue()
-    val intDelimiter = delimiter.toInt
-    val mark = new Mark
-
-    val resource = CSVResource(url, seeker)
-    resourceManager.trace(resource)
+    val config = CSVResources.config(legacyCsvQuoteEscaping, bufferSize)
 
-    new LoadCsvIterator {
-      var lastProcessed = 0L
-      var readAll = false
+    if (prefetching.isDefined) {
+      val iterator = new PrefetchingLoadCsvIterator(url, reader, config, delimiter, prefetching.get, memoryTracker)
+      resourceManager.trace(CSVResource(url, () => iterator.close()))
+      iterator
+    } else {
+      val rows = new CsvRowReader(CharSeekers.charSeeker(reader, config, false), delimiter)
+      val resource = CSVResource(url, rows)
+      resourceManager.trace(resource)
 
-      override protected[this] def closeMore(): Unit = resource.close()
+      new LoadCsvIterator {
+        var lastProcessed = 0L
+        var readAll = false
+        private var parseNanos = 0L
 
-      private def readNextRow: Array[Value] = {
-        val buffer = new ArrayBuffer[Value]
+        override protected[this] def closeMore(): Unit = resource.close()
 
-        try {
-          while (seeker.seek(mark, intDelimiter)) {
-            val success = seeker.tryExtract(mark, extractor)
-            buffer += (if (success) extractor.value() else Values.NO_VALUE)
-            if (mark.isEndOfLine) return if (buffer.isEmpty) null else buffer.toArray
+        private def readNextRow: Array[Value] = {
+          val start = System.nanoTime()
+          try {
+            rows.readNextRow()
+          } finally {
+            parseNanos += System.nanoTime() - start
           }
-        } catch {
-          //TODO change to error message mentioning `dbms.import.csv.buffer_size` in 4.0
-          case e: BufferOverflowException => throw new CypherExecutionException(e.getMessage, e)
         }
 
-        if (buffer.isEmpty) {
-          null
-        } else {
-          buffer.toArray
-        }
-      }
+        var nextRow: Array[Value] = readNextRow
 
-      var nextRow: Array[Value] = readNextRow
+        override def innerHasNext: Boolean = nextRow != null
 
-      override def innerHasNext: Boolean = nextRow != null
+        override def parseTime: Long = parseNanos
 
-      override def next(): Array[Value] = {
-        if (!hasNext) Iterator.empty.next()
-        val row = nextRow
-        nextRow = readNextRow
-        lastProcessed += 1
-        readAll = !hasNext
-        row
+        override def next(): Array[Value] = {
+          if (!hasNext) Iterator.empty.next()
+          val row = nextRow
+          nextRow = readNextRow
+          lastProcessed += 1
+          readAll = !hasNext
+          row
+        }
       }
     }
   }
@@ -182,6 +204,199 @@ class CSVResources(resourceManager: ResourceManager) extends ExternalCSVResource
   }
 }
 
+/**
+ * Parses the rows of a CSV file, one at a time.
+ */
+private class CsvRowReader(seeker: CharSeeker, delimiter: Char) extends AutoCloseable {
+  private val extractor = new Extractors(delimiter).textValue()
+  private val intDelimiter = delimiter.toInt
+  private val mark = new Mark
+
+  /**
+   * @return the next row, or `null` if there are no more rows.
+   */
+  def readNextRow(): Array[Value] = {
+    val buffer = new ArrayBuffer[Value]
+
+    try {
+      while (seeker.seek(mark, intDelimiter)) {
+        val success = seeker.tryExtract(mark, extractor)
+        buffer += (if (success) extractor.value() else Values.NO_VALUE)
+        if (mark.isEndOfLine) return if (buffer.isEmpty) null else buffer.toArray
+      }
+    } catch {
+      //TODO change to error message mentioning `dbms.import.csv.buffer_size` in 4.0
+      case e: BufferOverflowException => throw new CypherExecutionException(e.getMessage, e)
+    }
+
+    if (buffer.isEmpty) {
+      null
+    } else {
+      buffer.toArray
+    }
+  }
+
+  override def close(): Unit = seeker.close()
+}
+
+/**
+ * Parses the rows of a CSV file on a thread of its own, ahead of the query that consumes them, and hands them over in batches through a bounded
+ * queue. The characters are in turn read ahead of the parsing thread by a [[org.neo4j.csv.reader.ThreadAheadReadable]].
+ *
+ * Quoted fields may span several lines, so the file cannot be split into chunks that are parsed independently. It is parsed by one job,
+ * from start to end, on the [[Group.CYPHER_LOAD_CSV]] group of the job scheduler.
+ *
+ * The rows that have been parsed, but not yet consumed, are charged to the memory tracker of the query. Memory trackers are not thread safe,
+ * so the parser only keeps count of the bytes it hands over, and the query brings the memory tracker up to date with that count as it consumes rows.
+ */
+private class PrefetchingLoadCsvIterator(url: URL, reader: CharReadable, config: Configuration, delimiter: Char, prefetching: CSVPrefetching,
+                                         memoryTracker: MemoryTracker)
+  extends LoadCsvIterator {
+
+  private val batchSize = math.min(prefetching.rows, PrefetchingLoadCsvIterator.MAX_BATCH_SIZE)
+  private val queue = new ArrayBlockingQueue[RowBatch](math.max(1, prefetching.rows / batchSize))
+  @volatile private var closed = false
+  @volatile private var failure: Throwable = _
+  @volatile private var parseNanos = 0L
+  // Estimated heap usage of the batches handed over by the parser, and not yet consumed by the query
+  private val bufferedBytes = new AtomicLong()
+  // The part of bufferedBytes that has been charged to the memory tracker, only accessed by the query
+  private var trackedBytes = 0L
+
+  private val parser: JobHandle[_] = prefetching.jobScheduler.schedule(Group.CYPHER_LOAD_CSV, () => parse())
+
+  private var batch: RowBatch = PrefetchingLoadCsvIterator.EMPTY_BATCH
+  private var positionInBatch = 0
+  private var endOfFile = false
+  var lastProcessed = 0L
+  var readAll = false
+  private var waitNanos = 0L
+
+  override def parseTime: Long = parseNanos
+
+  override def waitTime: Long = waitNanos
+
+  private def parse(): Unit = {
+    // The read-ahead thread wakes up the thread that created it, so this thread must be the one creating it
+    var rows: CsvRowReader = null
+    try {
+      rows = new CsvRowReader(CharSeekers.charSeeker(reader, config, true), delimiter)
+      var reachedEnd = false
+      while (!reachedEnd && !closed) {
+        val start = System.nanoTime()
+        val rowsInBatch = new ArrayBuffer[Array[Value]](batchSize)
+        var estimatedHeapUsage = 0L
+        var row = rows.readNextRow()
+        while (row != null && rowsInBatch.size < batchSize - 1) {
+          rowsInBatch += row
+          estimatedHeapUsage += PrefetchingLoadCsvIterator.estimatedHeapUsage(row)
+          row = rows.readNextRow()
+        }
+        if (row != null) {
+          rowsInBatch += row
+          estimatedHeapUsage += PrefetchingLoadCsvIterator.estimatedHeapUsage(row)
+        } else {
+          reachedEnd = true
+        }
+        parseNanos += System.nanoTime() - start
+        if (rowsInBatch.nonEmpty) {
+          estimatedHeapUsage += HeapEstimator.shallowSizeOfObjectArray(rowsInBatch.size)
+          bufferedBytes.addAndGet(estimatedHeapUsage)
+          handOver(new RowBatch(rowsInBatch.toArray, estimatedHeapUsage))
+        }
+      }
+    } catch {
+      case t: Throwable => failure = t
+    } finally {
+      handOver(PrefetchingLoadCsvIterator.END_OF_FILE)
+      if (rows != null) rows.close() else reader.close()
+    }
+  }
+
+  private def handOver(rows: RowBatch): Unit = {
+    while (!closed && !queue.offer(rows, PrefetchingLoadCsvIterator.OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+      // The query is busy with the rows it has already been given
+    }
+  }
+
+  private def trackMemory(): Unit = {
+    val bytes = bufferedBytes.get()
+    if (bytes > trackedBytes) {
+      memoryTracker.allocateHeap(bytes - trackedBytes)
+    } else if (bytes < trackedBytes) {
+      memoryTracker.releaseHeap(trackedBytes - bytes)
+    }
+    trackedBytes = bytes
+  }
+
+  override protected[this] def innerHasNext: Boolean = {
+    if (positionInBatch == batch.rows.length && !endOfFile) {
+      val start = System.nanoTime()
+      val nextBatch = queue.take()
+      waitNanos += System.nanoTime() - start
+      // The consumed batch is released, but the batch that is about to be consumed is charged until it is replaced in turn
+      bufferedBytes.addAndGet(-batch.estimatedHeapUsage)
+      batch = nextBatch
+      positionInBatch = 0
+      if (batch eq PrefetchingLoadCsvIterator.END_OF_FILE) {
+        endOfFile = true
+        if (failure != null) {
+          throw failure
+        }
+      }
+    }
+    trackMemory()
+    positionInBatch < batch.rows.length
+  }
+
+  override def next(): Array[Value] = {
+    if (!hasNext) Iterator.empty.next()
+    val row = batch.rows(positionInBatch)
+    positionInBatch += 1
+    lastProcessed += 1
+    readAll = !hasNext
+    row
+  }
+
+  override protected[this] def closeMore(): Unit = {
+    closed = true
+    queue.clear()
+    try {
+      // The parser notices that it is closed within the offer timeout, unless it is blocked reading the file. In that case the read timeout
+      // of the connection limits how long it can keep going, but the query does not wait for that.
+      parser.waitTermination(PrefetchingLoadCsvIterator.CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+    } catch {
+      case _: TimeoutException => // The parser closes the file when it is done
+    } finally {
+      memoryTracker.releaseHeap(trackedBytes)
+      trackedBytes = 0
+    }
+  }
+}
+
+/**
+ * Rows handed over from the parser to the query.
+ */
+private class RowBatch(val rows: Array[Array[Value]], val estimatedHeapUsage: Long)
+
+object PrefetchingLoadCsvIterator {
+  private val MAX_BATCH_SIZE = 1024
+  private val OFFER_TIMEOUT_MILLIS = 100L
+  private val CLOSE_TIMEOUT_SECONDS = 10L
+  private val EMPTY_BATCH = new RowBatch(new Array[Array[Value]](0), 0)
+  private val END_OF_FILE = new RowBatch(new Array[Array[Value]](0), 0)
+
+  private def estimatedHeapUsage(row: Array[Value]): Long = {
+    var bytes = HeapEstimator.shallowSizeOfObjectArray(row.length)
+    var i = 0
+    while (i < row.length) {
+      bytes += row(i).estimatedHeapUsage()
+      i += 1
+    }
+    bytes
+  }
+}
+
 object TheCookieManager {
   private lazy val theCookieManager = create
 
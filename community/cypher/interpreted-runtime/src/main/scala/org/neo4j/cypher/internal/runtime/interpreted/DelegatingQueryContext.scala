@@ -80,11 +80,13 @@ import org.neo4j.internal.schema.IndexProviderDescriptor
 import org.neo4j.internal.schema.IndexType
 import org.neo4j.io.pagecache.context.CursorContext
 import org.neo4j.kernel.api.KernelTransaction.ExecutionContext
+import org.neo4j.kernel.api.StatementConstants
 import org.neo4j.kernel.database.NamedDatabaseId
 import org.neo4j.kernel.impl.factory.DbmsInfo
 import org.neo4j.kernel.impl.query.FunctionInformation
 import org.neo4j.logging.LogProvider
 import org.neo4j.memory.MemoryTracker
+import org.neo4j.scheduler.JobScheduler
 import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.TextValue
 import org.neo4j.values.storable.Value
@@ -449,6 +451,8 @@ abstract class DelegatingQueryContext(val inner: QueryContext) extends QueryCont
 
   override def getConfig: Config = inner.getConfig
 
+  override def jobScheduler: JobScheduler = inner.jobScheduler
+
   override def entityTransformer: EntityTransformer = inner.entityTransformer
 }
 
@@ -459,11 +463,19 @@ class DelegatingReadOperations[T, CURSOR](protected val inner: ReadOperations[T,
 
   protected def manyDbHits[A](value: ClosingLongIterator): ClosingLongIterator = value
 
+  protected def manyDbHits(count: Int): Int = count
+
   override def getById(id: Long): T = inner.getById(id)
 
   override def getProperty(obj: Long, propertyKeyId: Int, cursor: CURSOR, propertyCursor: PropertyCursor, throwOnDeleted: Boolean): Value =
     singleDbHit(inner.getProperty(obj, propertyKeyId, cursor, propertyCursor, throwOnDeleted))
 
+  override def getProperties(obj: Long, propertyKeyIds: Array[Int], cursor: CURSOR, propertyCursor: PropertyCursor, throwOnDeleted: Boolean): Array[Value] = {
+    // one hit per property that could be found, like reading them one by one
+    manyDbHits(propertyKeyIds.count(_ != StatementConstants.NO_SUCH_PROPERTY_KEY))
+    inner.getProperties(obj, propertyKeyIds, cursor, propertyCursor, throwOnDeleted)
+  }
+
   override def getTxStateProperty(obj: Long, propertyKeyId: Int): Value = inner.getTxStateProperty(obj, propertyKeyId)
 
   override def hasProperty(obj: Long, propertyKeyId: Int, cursor: CURSOR, propertyCursor: PropertyCursor): Boolean =
@@ -166,14 +166,21 @@ import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.Expression
 import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.InterpretedCommandProjection
 import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.PatternConverters.ShortestPathsConverter
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.AggregationExpression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Avg
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Count
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.CountStar
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.CreateNode
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.CreateRelationship
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.DeleteOperation
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Literal
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Max
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Min
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.NestedPipeExpression
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.RemoveLabelsOperation
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.ShortestPathExpression
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.SideEffect
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Sum
 import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
 import org.neo4j.cypher.internal.runtime.interpreted.commands.showcommands.ShowConstraintsCommand
 import org.neo4j.cypher.internal.runtime.interpreted.commands.showcommands.ShowFunctionsCommand
@@ -242,6 +249,7 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.OptionalPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.OrderedAggregationPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.OrderedDistinctPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.OrderedUnionPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelAggregationPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.PartialSortPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.PartialTop1Pipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.PartialTopNPipe
@@ -298,6 +306,7 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.GroupingA
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.NonGroupingAggTable
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.OrderedGroupingAggTable
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.OrderedNonGroupingAggTable
+import org.neo4j.cypher.internal.runtime.spill.Spilling
 import org.neo4j.cypher.internal.util.AnonymousVariableNameGenerator
 import org.neo4j.cypher.internal.util.Eagerly
 import org.neo4j.cypher.internal.util.attribution.Id
@@ -314,9 +323,18 @@ case class InterpretedPipeMapper(readOnly: Boolean,
                                  expressionConverters: ExpressionConverters,
                                  tokenContext: ReadTokenContext,
                                  indexRegistrator: QueryIndexRegistrator,
-                                 anonymousVariableNameGenerator: AnonymousVariableNameGenerator)
+                                 anonymousVariableNameGenerator: AnonymousVariableNameGenerator,
+                                 spilling: Spilling = Spilling.DISABLED,
+                                 parallelAggregation: Option[ParallelAggregationPipe.Workers] = None)
                                 (implicit semanticTable: SemanticTable) extends PipeMapper {
 
+  private var plannedParallelAggregation = false
+
+  /**
+   * @return true if any of the pipes created by this mapper aggregates with several threads, and so needs thread safe execution resources.
+   */
+  def usesParallelAggregation: Boolean = plannedParallelAggregation
+
   private def getBuildExpression(id: Id): internal.expressions.Expression => Expression =
     ((e: internal.expressions.Expression) => expressionConverters.toCommandExpression(id, e)) andThen
       (expression => expression.rewrite(KeyTokenResolver.resolveExpressions(_, tokenContext)))
@@ -442,6 +460,40 @@ case class InterpretedPipeMapper(readOnly: Boolean,
 
 
 
+  /**
+   * Finds the node scan, and the filters and projections on top of it, that an aggregation can read with several threads.
+   */
+  private def parallelNodeScan(plan: LogicalPlan): Option[(ParallelAggregationPipe.NodeScan, Array[ParallelAggregationPipe.Step])] = {
+    def steps(plan: LogicalPlan, stepsAbove: List[ParallelAggregationPipe.Step]): Option[(ParallelAggregationPipe.NodeScan, Array[ParallelAggregationPipe.Step])] = {
+      val buildExpression = getBuildExpression(plan.id)
+      plan match {
+        case AllNodesScan(ident, argumentIds) if argumentIds.isEmpty =>
+          Some((ParallelAggregationPipe.AllNodes(ident), stepsAbove.toArray))
+        case NodeByLabelScan(ident, label, argumentIds, _) if argumentIds.isEmpty =>
+          Some((ParallelAggregationPipe.NodesByLabel(ident, LazyLabel(label)), stepsAbove.toArray))
+        case Selection(predicate, source) =>
+          val predicateExpression =
+            if (predicate.exprs.size == 1) buildExpression(predicate.exprs.head) else buildExpression(predicate)
+          if (containsNestedPipe(predicateExpression)) None
+          else steps(source, ParallelAggregationPipe.FilterStep(predicateExpression) :: stepsAbove)
+        case Projection(source, expressions) =>
+          val projections = Eagerly.immutableMapValues(expressions, buildExpression)
+          if (projections.values.exists(containsNestedPipe)) None
+          else steps(source, ParallelAggregationPipe.ProjectStep(InterpretedCommandProjection(projections)) :: stepsAbove)
+        case _ =>
+          None
+      }
+    }
+    steps(plan, Nil)
+  }
+
+  private def isMergeable(expression: AggregationExpression): Boolean = expression match {
+    case _: CountStar | _: Count | _: Sum | _: Min | _: Max | _: Avg => true
+    case _ => false
+  }
+
+  private def containsNestedPipe(expression: Expression): Boolean = expression.exists(_.isInstanceOf[NestedPipeExpression])
+
   override def onOneChildPlan(plan: LogicalPlan, source: Pipe): Pipe = {
     val id = plan.id
     val buildExpression = getBuildExpression(id)
@@ -608,7 +660,7 @@ case class InterpretedPipeMapper(readOnly: Boolean,
         PruningVarLengthExpandPipe(source, from, toName, RelationshipTypes(types.toArray), dir, minLength, maxLength, predicate)(id = id)
 
       case Sort(_, sortItems) =>
-        SortPipe(source, InterpretedExecutionContextOrdering.asComparator(sortItems.map(translateColumnOrder)))(id = id)
+        SortPipe(source, InterpretedExecutionContextOrdering.asComparator(sortItems.map(translateColumnOrder)), spilling)(id = id)
 
       case PartialSort(_, alreadySortedPrefix, stillToSortSuffix, skipSortingPrefixLength) =>
         PartialSortPipe(source,
@@ -630,7 +682,7 @@ case class InterpretedPipeMapper(readOnly: Boolean,
 
       case Top(_, sortItems, limit) =>
         TopNPipe(source, buildExpression(limit),
-          InterpretedExecutionContextOrdering.asComparator(sortItems.map(translateColumnOrder).toList))(id = id)
+          InterpretedExecutionContextOrdering.asComparator(sortItems.map(translateColumnOrder).toList), spilling)(id = id)
 
       case PartialTop(_, _, stillToSortSuffix, _, _) if stillToSortSuffix.isEmpty => source
 
@@ -692,9 +744,21 @@ case class InterpretedPipeMapper(readOnly: Boolean,
               case (key, value) => DistinctPipe.GroupingCol(key, buildExpression(value))
             }.toArray
             val groupingFunction: (CypherRow, QueryState) => AnyValue = AggregationPipe.computeGroupingFunction(groupingColumns)
-            GroupingAggTable.Factory(groupingColumns, groupingFunction, aggregationColumns)
+            GroupingAggTable.Factory(groupingColumns, groupingFunction, aggregationColumns, spilling)
           }
-        EagerAggregationPipe(source, tableFactory)(id = id)
+        val parallelPipe = for {
+          workers <- parallelAggregation if readOnly
+          (scan, steps) <- parallelNodeScan(plan.lhs.get)
+          groupingColumns = groupingExpressions.map {
+            case (key, value) => DistinctPipe.GroupingCol(key, buildExpression(value))
+          }.toArray
+          if aggregationColumns.forall(col => isMergeable(col.expression)) &&
+            !(groupingColumns.map(_.expression) ++ aggregationColumns.map(_.expression)).exists(containsNestedPipe)
+        } yield {
+          plannedParallelAggregation = true
+          ParallelAggregationPipe(source, scan, steps, groupingColumns, aggregationColumns, tableFactory, workers)(id = id)
+        }
+        parallelPipe.getOrElse(EagerAggregationPipe(source, tableFactory)(id = id))
 
       case OrderedAggregation(_, groupingExpressions, aggregatingExpressions, orderToLeverage) =>
         val aggregationColumns = aggregatingExpressions.map {
@@ -921,7 +985,7 @@ case class InterpretedPipeMapper(readOnly: Boolean,
         CartesianProductPipe(lhs, rhs)(id = id)
 
       case NodeHashJoin(nodes, _, _) =>
-        NodeHashJoinPipe(nodes, lhs, rhs)(id = id)
+        NodeHashJoinPipe(nodes, lhs, rhs, spilling)(id = id)
 
       case LeftOuterHashJoin(nodes, l, r) =>
         val nullableVariables = r.availableSymbols -- l.availableSymbols
@@ -976,7 +1040,7 @@ case class InterpretedPipeMapper(readOnly: Boolean,
         TriadicSelectionPipe(positivePredicate, lhs, sourceId, seenId, targetId, rhs)(id = id)
 
       case ValueHashJoin(_, _, internal.expressions.Equals(lhsExpression, rhsExpression)) =>
-        ValueHashJoinPipe(buildExpression(lhsExpression), buildExpression(rhsExpression), lhs, rhs)(id = id)
+        ValueHashJoinPipe(buildExpression(lhsExpression), buildExpression(rhsExpression), lhs, rhs, spilling)(id = id)
 
       case ForeachApply(_, _, variable, expression) =>
         ForeachApplyPipe(lhs, rhs, variable, buildExpression(expression))(id = id)
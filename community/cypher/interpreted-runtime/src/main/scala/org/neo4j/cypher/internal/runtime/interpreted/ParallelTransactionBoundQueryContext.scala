@@ -40,6 +40,7 @@ import org.neo4j.internal.kernel.api.RelationshipScanCursor
 import org.neo4j.internal.schema.IndexConfig
 import org.neo4j.internal.schema.IndexDescriptor
 import org.neo4j.internal.schema.IndexProviderDescriptor
+import org.neo4j.scheduler.JobScheduler
 import org.neo4j.values.storable.Value
 import org.neo4j.values.virtual.VirtualNodeValue
 import org.neo4j.values.virtual.VirtualRelationshipValue
@@ -93,6 +94,7 @@ object ParallelTransactionBoundQueryContext {
     override def assertSchemaWritesAllowed(): Unit = unsupported()
     override def getDatabaseManager: DatabaseManager[DatabaseContext] = unsupported()
     override def getConfig: Config = unsupported()
+    override def jobScheduler: JobScheduler = unsupported()
     override def nodeApplyChanges(node: Long,
                                   addedLabels: IntSet,
                                   removedLabels: IntSet,
@@ -103,6 +105,7 @@ object ParallelTransactionBoundQueryContext {
 
   private sealed class UnsupportedOperations[T, CURSOR] extends Operations[T, CURSOR] {
     override def getProperty(obj: Long, propertyKeyId: Int, cursor: CURSOR, propertyCursor: PropertyCursor, throwOnDeleted: Boolean): Value = unsupported()
+    override def getProperties(obj: Long, propertyKeyIds: Array[Int], cursor: CURSOR, propertyCursor: PropertyCursor, throwOnDeleted: Boolean): Array[Value] = unsupported()
     override def hasProperty(obj: Long, propertyKeyId: Int, cursor: CURSOR, propertyCursor: PropertyCursor): Boolean = unsupported()
     override def getTxStateProperty(obj: Long, propertyKeyId: Int): Value = unsupported()
     override def hasTxStatePropertyForCachedProperty(entityId: Long, propertyKeyId: Int): Option[Boolean] = unsupported()
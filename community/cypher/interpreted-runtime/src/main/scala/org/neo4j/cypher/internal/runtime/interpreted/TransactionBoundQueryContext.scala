@@ -125,6 +125,8 @@ import org.neo4j.kernel.impl.util.ValueUtils
 import org.neo4j.logging.LogProvider
 import org.neo4j.logging.internal.LogService
 import org.neo4j.memory.MemoryTracker
+import org.neo4j.scheduler.JobScheduler
+import org.neo4j.storageengine.api.RelationshipSelection
 import org.neo4j.storageengine.api.RelationshipVisitor
 import org.neo4j.values.AnyValue
 import org.neo4j.values.ValueMapper
@@ -363,6 +365,9 @@ sealed class TransactionBoundQueryContext(transactionalContext: TransactionalCon
   override def getConfig: Config =
     transactionalContext.graph.getDependencyResolver.resolveDependency(classOf[Config])
 
+  override def jobScheduler: JobScheduler =
+    transactionalContext.graph.getDependencyResolver.resolveDependency(classOf[JobScheduler])
+
   override def nodeApplyChanges(node: Long,
                                 addedLabels: IntSet,
                                 removedLabels: IntSet,
@@ -927,6 +932,11 @@ private[internal] class TransactionBoundReadQueryContext(val transactionalContex
       CursorUtils.nodeGetProperty(reads(), nodeCursor, id, propertyCursor, propertyKeyId, throwOnDeleted)
     }
 
+    override def getProperties(id: Long, propertyKeyIds: Array[Int], nodeCursor: NodeCursor, propertyCursor: PropertyCursor,
+                               throwOnDeleted: Boolean): Array[Value] = {
+      CursorUtils.nodeGetProperties(reads(), nodeCursor, id, propertyCursor, propertyKeyIds, throwOnDeleted)
+    }
+
     override def getTxStateProperty(nodeId: Long, propertyKeyId: Int): Value =
       getTxStateNodePropertyOrNull(nodeId, propertyKeyId)
 
@@ -994,6 +1004,12 @@ private[internal] class TransactionBoundReadQueryContext(val transactionalContex
         .relationshipGetProperty(reads(), relationshipCursor, id, propertyCursor, propertyKeyId, throwOnDeleted)
     }
 
+    override def getProperties(id: Long, propertyKeyIds: Array[Int], relationshipCursor: RelationshipScanCursor,
+                               propertyCursor: PropertyCursor, throwOnDeleted: Boolean): Array[Value] = {
+      CursorUtils
+        .relationshipGetProperties(reads(), relationshipCursor, id, propertyCursor, propertyKeyIds, throwOnDeleted)
+    }
+
     override def hasProperty(id: Long, propertyKey: Int, relationshipCursor: RelationshipScanCursor,
                              propertyCursor: PropertyCursor): Boolean = {
       CursorUtils.relationshipHasProperty(reads(), relationshipCursor, id, propertyCursor, propertyKey)
@@ -1131,18 +1147,23 @@ private[internal] class TransactionBoundReadQueryContext(val transactionalContex
                                   pathPredicate: KernelPredicate[Path],
                                   filters: Seq[KernelPredicate[Entity]],
                                   memoryTracker: MemoryTracker): Option[Path] = {
-    val pathFinder = buildPathFinder(depth, expander, pathPredicate, filters, memoryTracker)
-
-    //could probably do without node proxies here
-    Option(pathFinder.findSinglePath(entityAccessor.newNodeEntity(left), entityAccessor.newNodeEntity(right)))
+    kernelShortestPath(depth, expander, pathPredicate, filters, memoryTracker) match {
+      case Some(shortestPath) => shortestPath.single(left, right)
+      case None =>
+        val pathFinder = buildPathFinder(depth, expander, pathPredicate, filters, memoryTracker)
+        Option(pathFinder.findSinglePath(entityAccessor.newNodeEntity(left), entityAccessor.newNodeEntity(right)))
+    }
   }
 
   override def allShortestPath(left: Long, right: Long, depth: Int, expander: Expander,
                                pathPredicate: KernelPredicate[Path],
                                filters: Seq[KernelPredicate[Entity]], memoryTracker: MemoryTracker): ClosingIterator[Path] = {
-    val pathFinder = buildPathFinder(depth, expander, pathPredicate, filters, memoryTracker)
-
-    pathFinder.findAllPathsAutoCloseableIterator(entityAccessor.newNodeEntity(left), entityAccessor.newNodeEntity(right))
+    kernelShortestPath(depth, expander, pathPredicate, filters, memoryTracker) match {
+      case Some(shortestPath) => ClosingIterator(shortestPath.all(left, right).iterator)
+      case None =>
+        val pathFinder = buildPathFinder(depth, expander, pathPredicate, filters, memoryTracker)
+        pathFinder.findAllPathsAutoCloseableIterator(entityAccessor.newNodeEntity(left), entityAccessor.newNodeEntity(right))
+    }
   }
 
   override def callReadOnlyProcedure(id: Int, args: Array[AnyValue],
@@ -1173,6 +1194,24 @@ private[internal] class TransactionBoundReadQueryContext(val transactionalContex
   override def builtInAggregateFunction(id: Int): UserDefinedAggregator =
     CallSupport.builtInAggregateFunction(transactionalContext.procedures, id)
 
+  /**
+   * @return a shortest path search on kernel cursors, unless the expander expands relationship types in different directions
+   */
+  private def kernelShortestPath(depth: Int, expander: Expander, pathPredicate: KernelPredicate[Path],
+                                 filters: Seq[KernelPredicate[Entity]], memoryTracker: MemoryTracker): Option[BidirectionalShortestPath] = {
+    val selection = expander match {
+      case OnlyDirectionExpander(_, _, dir) =>
+        Some(RelationshipSelection.selection(toGraphDb(dir)))
+      case TypeAndDirectionExpander(_, _, typDirs) if typDirs.map(_._2).distinct.size == 1 =>
+        val types = typDirs.map { case (typ, _) => tokenRead.relationshipType(typ) }.filter(_ != TokenRead.NO_TOKEN).distinct.sorted.toArray
+        Some(RelationshipSelection.selection(types, toGraphDb(typDirs.head._2)))
+      case _ =>
+        None
+    }
+    selection.map(new BidirectionalShortestPath(reads(), transactionalContext.cursors, transactionalContext.cursorContext, entityAccessor, _, depth,
+      (expander.nodeFilters ++ filters).distinct, expander.relFilters, pathPredicate, memoryTracker))
+  }
+
   private def buildPathFinder(depth: Int, expander: Expander, pathPredicate: KernelPredicate[Path],
                               filters: Seq[KernelPredicate[Entity]], memoryTracker: MemoryTracker): ShortestPath = {
     val startExpander = expander match {
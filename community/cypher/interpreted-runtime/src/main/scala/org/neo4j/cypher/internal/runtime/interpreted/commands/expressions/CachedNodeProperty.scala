@@ -19,6 +19,7 @@
  */
 package org.neo4j.cypher.internal.runtime.interpreted.commands.expressions
 
+import org.neo4j.common.EntityType
 import org.neo4j.cypher.internal.expressions.ASTCachedProperty
 import org.neo4j.cypher.internal.planner.spi.ReadTokenContext
 import org.neo4j.cypher.internal.runtime.IsNoValue
@@ -46,6 +47,13 @@ abstract class AbstractCachedProperty extends Expression {
   def getTxStateProperty(state: QueryState, id: Long, propId: Int): Value
   def property(state: QueryState, id: Long, propId: Int): Value
 
+  def entityType: EntityType
+
+  /**
+   * Reads several properties of the entity with one walk over its properties, see [[org.neo4j.cypher.internal.runtime.ReadOperations.getProperties]].
+   */
+  def properties(state: QueryState, id: Long, propIds: Array[Int]): Array[Value]
+
   // encapsulated cached-property logic
 
   def apply(row: ReadableRow, state: QueryState): AnyValue = {
@@ -86,6 +94,13 @@ abstract class AbstractCachedNodeProperty extends AbstractCachedProperty {
   override def property(state: QueryState,
                         id: Long,
                         propId: Int): Value = state.query.nodeProperty(id, propId, state.cursors.nodeCursor, state.cursors.propertyCursor, throwOnDeleted = true)
+
+  override def entityType: EntityType = EntityType.NODE
+
+  override def properties(state: QueryState,
+                          id: Long,
+                          propIds: Array[Int]): Array[Value] =
+    state.query.nodeReadOps.getProperties(id, propIds, state.cursors.nodeCursor, state.cursors.propertyCursor, throwOnDeleted = true)
 }
 
 abstract class AbstractCachedRelationshipProperty extends AbstractCachedProperty {
@@ -94,6 +109,13 @@ abstract class AbstractCachedRelationshipProperty extends AbstractCachedProperty
   override def property(state: QueryState,
                         id: Long,
                         propId: Int): Value = state.query.relationshipProperty(id, propId, state.cursors.relationshipScanCursor, state.cursors.propertyCursor, throwOnDeleted = true)
+
+  override def entityType: EntityType = EntityType.RELATIONSHIP
+
+  override def properties(state: QueryState,
+                          id: Long,
+                          propIds: Array[Int]): Array[Value] =
+    state.query.relationshipReadOps.getProperties(id, propIds, state.cursors.relationshipScanCursor, state.cursors.propertyCursor, throwOnDeleted = true)
 }
 
 case class CachedNodeProperty(nodeName: String, propertyKey: KeyToken, key: ASTCachedProperty.RuntimeKey)
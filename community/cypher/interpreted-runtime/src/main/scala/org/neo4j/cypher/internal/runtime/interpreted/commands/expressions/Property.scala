@@ -41,7 +41,19 @@ import scala.util.Try
 case class Property(mapExpr: Expression, propertyKey: KeyToken)
   extends Expression with Product with Serializable
 {
-  def apply(row: ReadableRow, state: QueryState): AnyValue = mapExpr(row, state) match {
+  def apply(row: ReadableRow, state: QueryState): AnyValue = Property.getProperty(mapExpr(row, state), propertyKey, state)
+
+  override def rewrite(f: Expression => Expression): Expression = f(Property(mapExpr.rewrite(f), propertyKey.rewrite(f)))
+
+  override def children = Seq(mapExpr, propertyKey)
+
+  override def arguments: Seq[Expression] = Seq(mapExpr)
+
+  override def toString = s"$mapExpr.${propertyKey.name}"
+}
+
+object Property {
+  def getProperty(container: AnyValue, propertyKey: KeyToken, state: QueryState): AnyValue = container match {
     case IsNoValue() => Values.NO_VALUE
     case n: VirtualNodeValue =>
       propertyKey.getOptId(state.query) match {
@@ -63,12 +75,4 @@ case class Property(mapExpr: Expression, propertyKey: KeyToken)
     }
     case other => throw new CypherTypeException(s"Type mismatch: expected a map but was $other")
   }
-
-  override def rewrite(f: Expression => Expression): Expression = f(Property(mapExpr.rewrite(f), propertyKey.rewrite(f)))
-
-  override def children = Seq(mapExpr, propertyKey)
-
-  override def arguments: Seq[Expression] = Seq(mapExpr)
-
-  override def toString = s"$mapExpr.${propertyKey.name}"
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.compiled
+
+import org.neo4j.cypher.internal.runtime.IsList
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.interpreted.commands.AstNode
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Property
+import org.neo4j.cypher.internal.runtime.interpreted.commands.values.KeyToken
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.exceptions.CypherTypeException
+import org.neo4j.values.AnyValue
+import org.neo4j.values.Equality
+import org.neo4j.values.storable.BooleanValue
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.VirtualNodeValue
+import org.neo4j.values.virtual.VirtualRelationshipValue
+
+/**
+ * An expression that is evaluated by a class generated by the [[ExpressionCompiler]].
+ *
+ * Behaves exactly like the interpreted expression it was compiled from, which it also uses for everything but evaluation.
+ */
+case class CompiledExpression(evaluator: CompiledExpressionEvaluator, interpreted: Expression) extends Expression {
+
+  override def apply(row: ReadableRow, state: QueryState): AnyValue = evaluator.evaluate(row, state)
+
+  override def rewrite(f: Expression => Expression): Expression = interpreted.rewrite(f)
+
+  override def arguments: Seq[Expression] = interpreted.arguments
+
+  override def children: Seq[AstNode[_]] = interpreted.children
+
+  override def toString: String = interpreted.toString
+}
+
+/**
+ * Base class of the classes generated by the [[ExpressionCompiler]].
+ *
+ * Operations that involve more than a call or two are implemented in the companion object, rather than generated,
+ * and mirror the interpreted commands. They are static since the generated classes are anonymous, and cannot refer to themselves.
+ */
+abstract class CompiledExpressionEvaluator {
+
+  def evaluate(row: ReadableRow, state: QueryState): AnyValue
+}
+
+object CompiledExpressionEvaluator {
+
+  def property(container: AnyValue, propertyKeyId: Int, propertyKey: KeyToken, state: QueryState): AnyValue = container match {
+    case n: VirtualNodeValue =>
+      state.query.nodeReadOps.getProperty(n.id(), propertyKeyId, state.cursors.nodeCursor, state.cursors.propertyCursor, throwOnDeleted = true)
+    case r: VirtualRelationshipValue =>
+      state.query.relationshipReadOps.getProperty(r.id(), propertyKeyId, state.cursors.relationshipScanCursor, state.cursors.propertyCursor, throwOnDeleted = true)
+    case _ =>
+      Property.getProperty(container, propertyKey, state)
+  }
+
+  def equal(lhs: AnyValue, rhs: AnyValue): Value = lhs.ternaryEquals(rhs) match {
+    case Equality.TRUE => Values.TRUE
+    case Equality.FALSE => Values.FALSE
+    case Equality.UNDEFINED => Values.NO_VALUE
+  }
+
+  def not(value: AnyValue): Value =
+    if (value eq Values.TRUE) Values.FALSE
+    else if (value eq Values.FALSE) Values.TRUE
+    else Values.NO_VALUE
+
+  def coerceToPredicate(value: AnyValue): Value = value match {
+    case x: BooleanValue => Values.booleanValue(x.booleanValue())
+    case x if x eq Values.NO_VALUE => Values.NO_VALUE
+    case IsList(coll) => Values.booleanValue(coll.nonEmpty)
+    case x => throw new CypherTypeException(s"Don't know how to treat that as a predicate: $x")
+  }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.compiled
+
+import org.neo4j.codegen.CodeGenerationNotSupportedException
+import org.neo4j.codegen.api.ClassDeclaration
+import org.neo4j.codegen.api.CodeGeneration
+import org.neo4j.codegen.api.IntermediateRepresentation
+import org.neo4j.codegen.api.IntermediateRepresentation.arrayLoad
+import org.neo4j.codegen.api.IntermediateRepresentation.assign
+import org.neo4j.codegen.api.IntermediateRepresentation.block
+import org.neo4j.codegen.api.IntermediateRepresentation.condition
+import org.neo4j.codegen.api.IntermediateRepresentation.constant
+import org.neo4j.codegen.api.IntermediateRepresentation.equal
+import org.neo4j.codegen.api.IntermediateRepresentation.fail
+import org.neo4j.codegen.api.IntermediateRepresentation.falseValue
+import org.neo4j.codegen.api.IntermediateRepresentation.getStatic
+import org.neo4j.codegen.api.IntermediateRepresentation.ifElse
+import org.neo4j.codegen.api.IntermediateRepresentation.invoke
+import org.neo4j.codegen.api.IntermediateRepresentation.invokeStatic
+import org.neo4j.codegen.api.IntermediateRepresentation.isNotNull
+import org.neo4j.codegen.api.IntermediateRepresentation.isNull
+import org.neo4j.codegen.api.IntermediateRepresentation.load
+import org.neo4j.codegen.api.IntermediateRepresentation.method
+import org.neo4j.codegen.api.IntermediateRepresentation.noValue
+import org.neo4j.codegen.api.IntermediateRepresentation.or
+import org.neo4j.codegen.api.IntermediateRepresentation.param
+import org.neo4j.codegen.api.IntermediateRepresentation.staticConstant
+import org.neo4j.codegen.api.IntermediateRepresentation.ternary
+import org.neo4j.codegen.api.IntermediateRepresentation.trueValue
+import org.neo4j.codegen.api.IntermediateRepresentation.tryCatch
+import org.neo4j.codegen.api.IntermediateRepresentation.typeRefOf
+import org.neo4j.codegen.api.IntermediateRepresentation.variable
+import org.neo4j.codegen.api.LocalVariable
+import org.neo4j.codegen.api.MethodDeclaration
+import org.neo4j.codegen.api.StaticField
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Add
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Literal
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Multiply
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.ParameterFromSlot
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Property
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.SlottedRowVariable
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Subtract
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Variable
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Ands
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.CoercedPredicate
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Equals
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.GreaterThan
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.GreaterThanOrEqual
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.IsNull
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.LessThan
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.LessThanOrEqual
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Not
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Ors
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.True
+import org.neo4j.cypher.internal.runtime.interpreted.commands.values.KeyToken
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.operations.CypherBoolean
+import org.neo4j.cypher.operations.CypherMath
+import org.neo4j.exceptions.CantCompileQueryException
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Value
+
+import scala.collection.mutable.ArrayBuffer
+
+/**
+ * Compiles interpreted command expressions into generated classes, so that evaluating them does not have to walk the expression tree.
+ *
+ * Only the most common expressions are compiled. Any other expression is evaluated by calling the interpreted expression
+ * from the generated code, so an expression can be compiled as long as its root is supported.
+ */
+object ExpressionCompiler {
+  private val PACKAGE_NAME = "org.neo4j.codegen"
+  private val CLASS_NAME = "CompiledExpressionEvaluator"
+
+  /**
+   * @return the compiled expression, or `None` if the expression is not worth compiling, or could not be compiled.
+   */
+  def compile(expression: Expression): Option[Expression] = {
+    if (!isSupported(expression)) {
+      None
+    } else {
+      val generator = new Generator
+      val body = generator.evaluate(expression)
+      val declaration = ClassDeclaration[CompiledExpressionEvaluator](
+        PACKAGE_NAME,
+        CLASS_NAME,
+        extendsClass = Some(typeRefOf[CompiledExpressionEvaluator]),
+        implementsInterfaces = Seq.empty,
+        constructorParameters = Seq.empty,
+        initializationCode = block(),
+        genFields = () => generator.fields,
+        methods = Seq(MethodDeclaration("evaluate", typeRefOf[AnyValue], Seq(ROW, STATE), body, () => generator.locals)))
+      try {
+        val codeGeneration = CodeGeneration.codeGeneration()
+        val clazz = codeGeneration.compileAnonymousClass(declaration, codeGeneration.createGenerator())
+        Some(CompiledExpression(clazz.getDeclaredConstructor().newInstance(), expression))
+      } catch {
+        case _: CantCompileQueryException | _: CodeGenerationNotSupportedException => None
+      }
+    }
+  }
+
+  private def isSupported(expression: Expression): Boolean = expression match {
+    case _: Literal | _: Variable | _: ParameterFromSlot | Property(_, _: KeyToken.Resolved) => true
+    case _: Add | _: Subtract | _: Multiply => true
+    case _: Equals | _: LessThan | _: LessThanOrEqual | _: GreaterThan | _: GreaterThanOrEqual => true
+    case _: Not | _: IsNull | _: CoercedPredicate | _: True | _: Ands | _: Ors => true
+    case _ => false
+  }
+
+  private val ROW = param[ReadableRow]("row")
+  private val STATE = param[QueryState]("state")
+
+  private val GET_BY_NAME = method[ReadableRow, AnyValue, String]("getByName")
+  private val PARAMS = method[QueryState, Array[AnyValue]]("params")
+  private val EVALUATE_INTERPRETED = method[Expression, AnyValue, ReadableRow, QueryState]("apply")
+  private val PROPERTY = method[CompiledExpressionEvaluator, AnyValue, AnyValue, Int, KeyToken, QueryState]("property")
+  private val EQUAL = method[CompiledExpressionEvaluator, Value, AnyValue, AnyValue]("equal")
+  private val NOT = method[CompiledExpressionEvaluator, Value, AnyValue]("not")
+  private val COERCE_TO_PREDICATE = method[CompiledExpressionEvaluator, Value, AnyValue]("coerceToPredicate")
+
+  /**
+   * Generates the body of the evaluate method.
+   *
+   * Every sub-expression is evaluated into a local variable, in the same order as the interpreted expression would evaluate them.
+   */
+  private class Generator {
+    val fields = new ArrayBuffer[StaticField]
+    val locals = new ArrayBuffer[LocalVariable]
+    private var nextId = 0
+
+    def evaluate(expression: Expression): IntermediateRepresentation = {
+      val statements = new ArrayBuffer[IntermediateRepresentation]
+      val result = compile(expression, statements)
+      block(statements :+ result: _*)
+    }
+
+    private def compile(expression: Expression, out: ArrayBuffer[IntermediateRepresentation]): IntermediateRepresentation = expression match {
+      case Literal(value) =>
+        getStatic(constantField[AnyValue](value))
+
+      case Variable(name) =>
+        evaluateInto(out, invoke(load(ROW), GET_BY_NAME, constant(name)))
+
+      case SlottedRowVariable(name, _, _) =>
+        evaluateInto(out, invoke(load(ROW), GET_BY_NAME, constant(name)))
+
+      case ParameterFromSlot(offset, _) =>
+        evaluateInto(out, arrayLoad(invoke(load(STATE), PARAMS), offset))
+
+      case Property(map, key: KeyToken.Resolved) =>
+        val container = compile(map, out)
+        evaluateInto(out, invokeStatic(PROPERTY, container, constant(key.id), getStatic(constantField[KeyToken](key)), load(STATE)))
+
+      case Add(a, b) => nullInNullOut(a, b, out)(invokeStatic(method[CypherMath, AnyValue, AnyValue, AnyValue]("add"), _, _))
+      case Subtract(a, b) => nullInNullOut(a, b, out)(invokeStatic(method[CypherMath, AnyValue, AnyValue, AnyValue]("subtract"), _, _))
+      case Multiply(a, b) => nullInNullOut(a, b, out)(invokeStatic(method[CypherMath, AnyValue, AnyValue, AnyValue]("multiply"), _, _))
+
+      case Equals(a, b) => binary(a, b, out)(invokeStatic(EQUAL, _, _))
+      case LessThan(a, b) => binary(a, b, out)(invokeStatic(method[CypherBoolean, Value, AnyValue, AnyValue]("lessThan"), _, _))
+      case LessThanOrEqual(a, b) => binary(a, b, out)(invokeStatic(method[CypherBoolean, Value, AnyValue, AnyValue]("lessThanOrEqual"), _, _))
+      case GreaterThan(a, b) => binary(a, b, out)(invokeStatic(method[CypherBoolean, Value, AnyValue, AnyValue]("greaterThan"), _, _))
+      case GreaterThanOrEqual(a, b) => binary(a, b, out)(invokeStatic(method[CypherBoolean, Value, AnyValue, AnyValue]("greaterThanOrEqual"), _, _))
+
+      case Not(a) =>
+        evaluateInto(out, invokeStatic(NOT, compile(a, out)))
+
+      case IsNull(a) =>
+        evaluateInto(out, ternary(equal(compile(a, out), noValue), trueValue, falseValue))
+
+      case CoercedPredicate(inner) =>
+        evaluateInto(out, invokeStatic(COERCE_TO_PREDICATE, compile(inner, out)))
+
+      case True() =>
+        trueValue
+
+      case Ands(predicates) => shortCircuit(predicates.toIndexedSeq, exitValue = falseValue, otherValue = trueValue, out)
+      case Ors(predicates) => shortCircuit(predicates.toIndexedSeq, exitValue = trueValue, otherValue = falseValue, out)
+
+      case _ =>
+        evaluateInto(out, invoke(getStatic(constantField[Expression](expression)), EVALUATE_INTERPRETED, load(ROW), load(STATE)))
+    }
+
+    private def binary(a: Expression, b: Expression, out: ArrayBuffer[IntermediateRepresentation])
+                      (f: (IntermediateRepresentation, IntermediateRepresentation) => IntermediateRepresentation): IntermediateRepresentation = {
+      val lhs = compile(a, out)
+      val rhs = compile(b, out)
+      evaluateInto(out, f(lhs, rhs))
+    }
+
+    private def nullInNullOut(a: Expression, b: Expression, out: ArrayBuffer[IntermediateRepresentation])
+                             (f: (IntermediateRepresentation, IntermediateRepresentation) => IntermediateRepresentation): IntermediateRepresentation =
+      binary(a, b, out)((lhs, rhs) => ternary(or(equal(lhs, noValue), equal(rhs, noValue)), noValue, f(lhs, rhs)))
+
+    /**
+     * Mirrors the evaluation of composite boolean predicates: stop at the first predicate that evaluates to the exit value, and otherwise
+     * rethrow the first error, if any predicate failed, or return null if any predicate was null.
+     */
+    private def shortCircuit(predicates: Seq[Predicate],
+                             exitValue: IntermediateRepresentation,
+                             otherValue: IntermediateRepresentation,
+                             out: ArrayBuffer[IntermediateRepresentation]): IntermediateRepresentation = {
+      val result = newLocal[AnyValue](constant(null))
+      val error = newLocal[RuntimeException](constant(null))
+      val seenNull = newLocal[Boolean](constant(false))
+      predicates.foreach { predicate =>
+        val value = newLocal[AnyValue](constant(null))
+        val exception = newName()
+        val statements = new ArrayBuffer[IntermediateRepresentation]
+        val predicateValue = compile(predicate, statements)
+        out += condition(isNull(load(result)))(block(
+          assign(value, constant(null)),
+          tryCatch[RuntimeException](exception)(block(statements :+ assign(value, predicateValue): _*))(
+            condition(isNull(load(error)))(assign(error, load[RuntimeException](exception)))),
+          ifElse(equal(load(value), exitValue))(assign(result, exitValue))(
+            condition(equal(load(value), noValue))(assign(seenNull, constant(true))))
+        ))
+      }
+      out += condition(isNull(load(result)))(block(
+        condition(isNotNull(load(error)))(fail(load(error))),
+        assign(result, ternary(load(seenNull), noValue, otherValue))
+      ))
+      load(result)
+    }
+
+    private def evaluateInto(out: ArrayBuffer[IntermediateRepresentation], value: IntermediateRepresentation): IntermediateRepresentation = {
+      val local = newLocal[AnyValue](constant(null))
+      out += assign(local, value)
+      load(local)
+    }
+
+    private def newLocal[T](initialValue: IntermediateRepresentation)(implicit typ: Manifest[T]): LocalVariable = {
+      val local = variable[T](newName(), initialValue)
+      locals += local
+      local
+    }
+
+    private def constantField[T](value: AnyRef)(implicit typ: Manifest[T]): StaticField = {
+      val field = staticConstant[T](newName().toUpperCase, value)
+      fields += field
+      field
+    }
+
+    private def newName(): String = {
+      nextId += 1
+      s"v$nextId"
+    }
+  }
+}
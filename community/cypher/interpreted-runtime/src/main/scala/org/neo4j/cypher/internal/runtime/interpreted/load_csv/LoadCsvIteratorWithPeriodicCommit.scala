@@ -30,6 +30,10 @@ class LoadCsvIteratorWithPeriodicCommit(loadCsvIterator: LoadCsvIterator)(onNext
 
   def readAll: Boolean = loadCsvIterator.readAll
 
+  override def parseTime: Long = loadCsvIterator.parseTime
+
+  override def waitTime: Long = loadCsvIterator.waitTime
+
   def next(): Array[Value] = {
     val row = loadCsvIterator.next()
     onNext
@@ -27,6 +27,8 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.ExternalCSVResource
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.LoadCsvIterator
 import org.neo4j.internal.kernel.api.AutoCloseablePlus
 import org.neo4j.internal.kernel.api.Cursor
+import org.neo4j.memory.EmptyMemoryTracker
+import org.neo4j.memory.MemoryTracker
 
 import java.net.URL
 import scala.collection.mutable.ArrayBuffer
@@ -42,7 +44,8 @@ class LoadCsvPeriodicCommitObserver(batchRowCount: Long, resources: ExternalCSVR
                               fieldTerminator: Option[String],
                               legacyCsvQuoteEscaping: Boolean,
                               bufferSize: Int,
-                              headers: Boolean = false): LoadCsvIterator =
+                              headers: Boolean = false,
+                              memoryTracker: MemoryTracker = EmptyMemoryTracker.INSTANCE): LoadCsvIterator =
   {
     val innerIterator = resources.getCsvIterator(
       url,
@@ -50,7 +53,8 @@ class LoadCsvPeriodicCommitObserver(batchRowCount: Long, resources: ExternalCSVR
       fieldTerminator,
       legacyCsvQuoteEscaping,
       bufferSize,
-      headers
+      headers,
+      memoryTracker
     )
     if (outerLoadCSVIterator.isEmpty) {
       if (headers)
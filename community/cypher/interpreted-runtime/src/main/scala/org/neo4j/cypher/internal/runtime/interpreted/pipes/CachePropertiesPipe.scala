@@ -21,24 +21,82 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import org.neo4j.cypher.internal.runtime.ClosingIterator
 import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.AbstractCachedProperty
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
 import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.kernel.api.StatementConstants
 
 case class CachePropertiesPipe(source: Pipe, properties: Array[Expression])
                               (val id: Id = Id.INVALID_ID) extends PipeWithSource(source) {
 
+  private val cachedProperties: Array[AbstractCachedProperty] = properties.collect { case p: AbstractCachedProperty => p }
+  private val otherProperties: Array[Expression] = properties.filterNot(_.isInstanceOf[AbstractCachedProperty])
+
   protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
     input.map {
       ctx =>
-        var i = 0
-        while (i < properties.length) {
+        if (cachedProperties.length > 1) {
+          cacheBatched(ctx, state)
+        } else if (cachedProperties.length == 1) {
           // we evaluate the cached property, which has the side effect of caching it in the row
-          properties(i).apply(ctx, state)
+          cachedProperties(0).apply(ctx, state)
+        }
+        var i = 0
+        while (i < otherProperties.length) {
+          otherProperties(i).apply(ctx, state)
           i += 1
         }
         ctx
     }
   }
-}
 
+  /**
+   * Caches the same values as evaluating each cached property would, but reads all the missing properties of an entity
+   * with one walk over its properties, instead of one walk per property.
+   */
+  private def cacheBatched(ctx: CypherRow, state: QueryState): Unit = {
+    val n = cachedProperties.length
+    val ids = new Array[Long](n)
+    val propIds = new Array[Int](n)
+    var i = 0
+    while (i < n) {
+      ids(i) = StatementConstants.NO_SUCH_ENTITY
+      val property = cachedProperties(i)
+      val entityId = property.getId(ctx)
+      if (entityId != StatementConstants.NO_SUCH_ENTITY) {
+        val propId = property.getPropertyKey(state.query)
+        // values changed in the transaction are never cached, and values that are already cached need not be read again
+        if (propId != StatementConstants.NO_SUCH_PROPERTY_KEY &&
+            property.getTxStateProperty(state, entityId, propId) == null &&
+            property.getCachedProperty(ctx) == null) {
+          ids(i) = entityId
+          propIds(i) = propId
+        }
+      }
+      i += 1
+    }
 
+    var walksSaved = 0L
+    i = 0
+    while (i < n) {
+      val entityId = ids(i)
+      if (entityId != StatementConstants.NO_SUCH_ENTITY) {
+        val entityType = cachedProperties(i).entityType
+        val batch = (i until n).filter(j => ids(j) == entityId && cachedProperties(j).entityType == entityType).toArray
+        val values = cachedProperties(i).properties(state, entityId, batch.map(propIds(_)))
+        var k = 0
+        while (k < batch.length) {
+          val j = batch(k)
+          cachedProperties(j).setCachedProperty(ctx, values(k))
+          ids(j) = StatementConstants.NO_SUCH_ENTITY
+          k += 1
+        }
+        walksSaved += batch.length - 1
+      }
+      i += 1
+    }
+    if (walksSaved > 0) {
+      state.decorator.propertyWalksSaved(id, walksSaved)
+    }
+  }
+}
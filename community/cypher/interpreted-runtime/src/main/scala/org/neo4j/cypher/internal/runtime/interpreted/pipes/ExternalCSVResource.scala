@@ -23,6 +23,8 @@ import java.net.URL
 
 import inet.ipaddr.IPAddressString
 import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.memory.EmptyMemoryTracker
+import org.neo4j.memory.MemoryTracker
 import org.neo4j.values.storable.Value
 
 trait ExternalCSVResource {
@@ -30,7 +32,8 @@ trait ExternalCSVResource {
                      ipBlocklist: List[IPAddressString],fieldTerminator: Option[String],
                      legacyCsvQuoteEscaping: Boolean,
                      bufferSize: Int,
-                     headers: Boolean = false): LoadCsvIterator
+                     headers: Boolean = false,
+                     memoryTracker: MemoryTracker = EmptyMemoryTracker.INSTANCE): LoadCsvIterator
   def subscribeCommitted(onCommit: () => Unit): Unit = {}
 }
 
@@ -43,7 +46,8 @@ object ExternalCSVResource {
       fieldTerminator: Option[String],
       legacyCsvQuoteEscaping: Boolean,
       bufferSize: Int,
-      headers: Boolean
+      headers: Boolean,
+      memoryTracker: MemoryTracker
     ): LoadCsvIterator = LoadCsvIterator.empty
   }
 }
@@ -51,6 +55,16 @@ object ExternalCSVResource {
 trait LoadCsvIterator extends ClosingIterator[Array[Value]] {
   def lastProcessed: Long
   def readAll: Boolean
+
+  /**
+   * @return the time, in nanoseconds, spent parsing the rows read so far.
+   */
+  def parseTime: Long = 0L
+
+  /**
+   * @return the time, in nanoseconds, spent waiting for rows that were parsed ahead on another thread.
+   */
+  def waitTime: Long = 0L
 }
 
 object LoadCsvIterator {
@@ -0,0 +1,398 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import java.util.Comparator
+
+import org.neo4j.cypher.internal.collection.DefaultComparatorSortTable
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.GraceHashJoin.HashJoinTable
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.GraceHashJoin.MAX_SPILL_LEVEL
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.GraceHashJoin.PARTITION_BITS
+import org.neo4j.cypher.internal.runtime.spill.SpillFile
+import org.neo4j.cypher.internal.runtime.spill.SpillValueReader
+import org.neo4j.cypher.internal.runtime.spill.SpilledRows
+import org.neo4j.cypher.internal.runtime.spill.Spilling
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.internal.kernel.api.DefaultCloseListenable
+import org.neo4j.kernel.impl.util.collection.LongProbeTable
+import org.neo4j.kernel.impl.util.collection.ProbeTable
+import org.neo4j.memory.MemoryTracker
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.LongValue
+import org.neo4j.values.storable.Values
+
+import scala.collection.JavaConverters.asScalaIteratorConverter
+import scala.collection.mutable.ArrayBuffer
+
+/**
+ * A hash join, which puts the rows of the build side in a table, and probes the table with the rows of the probe side.
+ *
+ * When the operator holds onto more heap than the spill threshold while building the table, the rows that are already in the table
+ * stay there, while the remaining build rows are spilled to disk, partitioned by the hash of their join key. Each probe row is then probed
+ * against the table, and spilled to the partition of its join key, so that every partition can be joined on its own afterwards. Joining a
+ * partition may spill again, using different bits of the hash.
+ *
+ * A hash join returns rows in the order of the probe side. To keep that order when spilling, the joined rows of the table and of each partition
+ * are spilled, together with the position of their probe row, and merged in the end.
+ *
+ * @param spilling when and where to spill build rows
+ */
+abstract class GraceHashJoin(state: QueryState, operatorId: Id, spilling: Spilling) {
+
+  private[this] val memoryTracker = state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(operatorId.x)
+  private[this] var newBuildRow: () => CypherRow = _
+  private[this] var newProbeRow: () => CypherRow = _
+  private[this] var newOutputRow: () => CypherRow = _
+  private[this] var spilledBytes = 0L
+
+  /**
+   * @return the join key of a build row, or NO_VALUE if the row cannot match any probe row
+   */
+  protected def buildKey(row: CypherRow): AnyValue
+
+  /**
+   * @return the join key of a probe row, or NO_VALUE if the row cannot match any build row
+   */
+  protected def probeKey(row: CypherRow): AnyValue
+
+  protected def newTable(memoryTracker: MemoryTracker): HashJoinTable
+
+  def join(build: Iterator[CypherRow], probe: ClosingIterator[CypherRow]): ClosingIterator[CypherRow] = {
+    val table = newTrackedTable()
+    var partitions: Partitions = null
+    while (build.hasNext) {
+      val row = build.next()
+      val key = buildKey(row)
+      if (!(key eq Values.NO_VALUE)) {
+        if (partitions == null) {
+          table.put(key, row)
+          if (shouldSpill(0) && SpilledRows.canSpill(row)) {
+            partitions = new Partitions(0)
+            newBuildRow = SpilledRows.rowFactory(row)
+          }
+        } else {
+          partitions.addBuild(key, row)
+        }
+      }
+    }
+
+    if (partitions != null) {
+      spilledJoin(table, partitions, probe)
+    } else if (table.isEmpty) {
+      table.close()
+      ClosingIterator.empty
+    } else {
+      val result =
+        for {
+          probeRow <- probe
+          joinKey = probeKey(probeRow) if !(joinKey eq Values.NO_VALUE)
+          buildRow <- table.get(joinKey).asScala
+        } yield joinRows(buildRow, probeRow)
+
+      result.closing(table)
+    }
+  }
+
+  private def spilledJoin(table: HashJoinTable, partitions: Partitions, probe: ClosingIterator[CypherRow]): ClosingIterator[CypherRow] = {
+    val runs = new ArrayBuffer[Run]()
+    val run = new Run()
+    var position = 0L
+    while (probe.hasNext) {
+      val row = probe.next()
+      val key = probeKey(row)
+      if (!(key eq Values.NO_VALUE)) {
+        run.writeMatches(table, key, position, row)
+        partitions.addProbe(key, position, row)
+      }
+      position += 1
+    }
+    table.close()
+    runs += run
+    partitions.joinInto(runs)
+    merge(runs)
+  }
+
+  private def merge(runs: ArrayBuffer[Run]): ClosingIterator[CypherRow] = {
+    val cursors = new DefaultComparatorSortTable[RunCursor](cursorComparator, runs.size)
+    runs.foreach { run =>
+      val cursor = new RunCursor(run)
+      if (cursor.advance()) {
+        cursors.add(cursor)
+      }
+    }
+    state.decorator.spilled(operatorId, spilledBytes)
+
+    new ClosingIterator[CypherRow] {
+      override protected[this] def innerHasNext: Boolean = !cursors.isEmpty
+
+      override def next(): CypherRow = {
+        val cursor = cursors.peek()
+        val row = cursor.row
+        if (cursor.advance()) {
+          cursors.siftDown(cursor)
+        } else {
+          cursors.poll()
+        }
+        row
+      }
+
+      override protected[this] def closeMore(): Unit = runs.foreach(_.file.close())
+    }
+  }
+
+  private def joinRows(buildRow: CypherRow, probeRow: CypherRow): CypherRow = {
+    val output = buildRow.createClone()
+    output.mergeWith(probeRow, state.query)
+    output
+  }
+
+  private def shouldSpill(level: Int): Boolean =
+    level < MAX_SPILL_LEVEL && spilling.exceeded(memoryTracker.estimatedHeapMemory())
+
+  private def newTrackedTable(): HashJoinTable = {
+    val table = newTable(memoryTracker)
+    state.query.resources.trace(table)
+    table
+  }
+
+  private def newFile(): SpillFile = {
+    val file = spilling.newFile(memoryTracker)
+    state.query.resources.trace(file)
+    file
+  }
+
+  private def startReading(file: SpillFile): SpillValueReader = {
+    val reader = file.reader()
+    spilledBytes += file.bytesWritten()
+    reader
+  }
+
+  private val cursorComparator: Comparator[RunCursor] = (a: RunCursor, b: RunCursor) => java.lang.Long.compare(a.position, b.position)
+
+  /**
+   * Joined rows, in the order of the positions of their probe rows.
+   */
+  private class Run {
+    val file: SpillFile = newFile()
+    var rows = 0L
+
+    def writeMatches(table: HashJoinTable, key: AnyValue, position: Long, probeRow: CypherRow): Unit = {
+      val matches = table.get(key)
+      while (matches.hasNext) {
+        val output = joinRows(matches.next(), probeRow)
+        if (newOutputRow == null) {
+          newOutputRow = SpilledRows.rowFactory(output)
+        }
+        val writer = file.writer()
+        writer.channel().putLong(position)
+        SpilledRows.write(output, writer)
+        rows += 1
+      }
+    }
+  }
+
+  private class RunCursor(run: Run) {
+    private[this] var reader: SpillValueReader = _
+    private[this] var remaining = run.rows
+    var position: Long = _
+    var row: CypherRow = _
+
+    def advance(): Boolean = {
+      if (remaining == 0) {
+        run.file.close()
+        false
+      } else {
+        if (reader == null) {
+          reader = startReading(run.file)
+        }
+        position = reader.channel().getLong
+        row = SpilledRows.read(reader, newOutputRow())
+        remaining -= 1
+        true
+      }
+    }
+  }
+
+  /**
+   * The build and probe rows that have been spilled at the given level, partitioned by the hash of their join key.
+   */
+  private class Partitions(level: Int) {
+    private[this] val build = new Array[SpillFile](1 << PARTITION_BITS)
+    private[this] val buildRows = new Array[Long](1 << PARTITION_BITS)
+    private[this] val probe = new Array[SpillFile](1 << PARTITION_BITS)
+    private[this] val probeRows = new Array[Long](1 << PARTITION_BITS)
+
+    def addBuild(key: AnyValue, row: CypherRow): Unit = {
+      val partition = partitionOf(key)
+      if (build(partition) == null) {
+        build(partition) = newFile()
+      }
+      val writer = build(partition).writer()
+      writer.write(key)
+      SpilledRows.write(row, writer)
+      buildRows(partition) += 1
+    }
+
+    /**
+     * Spill the probe row, unless no build row with the same hash has been spilled.
+     */
+    def addProbe(key: AnyValue, position: Long, row: CypherRow): Unit = {
+      val partition = partitionOf(key)
+      if (build(partition) != null) {
+        if (probe(partition) == null) {
+          probe(partition) = newFile()
+        }
+        if (newProbeRow == null) {
+          newProbeRow = SpilledRows.rowFactory(row)
+        }
+        val writer = probe(partition).writer()
+        writer.channel().putLong(position)
+        writer.write(key)
+        SpilledRows.write(row, writer)
+        probeRows(partition) += 1
+      }
+    }
+
+    /**
+     * Join each partition on its own, and add the runs of joined rows to the given runs.
+     */
+    def joinInto(runs: ArrayBuffer[Run]): Unit = {
+      var partition = 0
+      while (partition < build.length) {
+        if (probe(partition) != null) {
+          joinPartition(partition, runs)
+        } else if (build(partition) != null) {
+          spilledBytes += build(partition).bytesWritten()
+          build(partition).close()
+        }
+        build(partition) = null
+        probe(partition) = null
+        partition += 1
+      }
+    }
+
+    private def joinPartition(partition: Int, runs: ArrayBuffer[Run]): Unit = {
+      val table = newTrackedTable()
+      var partitions: Partitions = null
+      val buildReader = startReading(build(partition))
+      var remaining = buildRows(partition)
+      while (remaining > 0) {
+        val key = buildReader.read()
+        val row = SpilledRows.read(buildReader, newBuildRow())
+        if (partitions == null) {
+          table.put(key, row)
+          if (shouldSpill(level + 1)) {
+            partitions = new Partitions(level + 1)
+          }
+        } else {
+          partitions.addBuild(key, row)
+        }
+        remaining -= 1
+      }
+      build(partition).close()
+
+      val run = new Run()
+      val probeReader = startReading(probe(partition))
+      remaining = probeRows(partition)
+      while (remaining > 0) {
+        val position = probeReader.channel().getLong
+        val key = probeReader.read()
+        val row = SpilledRows.read(probeReader, newProbeRow())
+        run.writeMatches(table, key, position, row)
+        if (partitions != null) {
+          partitions.addProbe(key, position, row)
+        }
+        remaining -= 1
+      }
+      probe(partition).close()
+      table.close()
+      runs += run
+      if (partitions != null) {
+        partitions.joinInto(runs)
+      }
+    }
+
+    private def partitionOf(key: AnyValue): Int = {
+      // Fibonacci hashing, with the bits used for partitioning rotated by the level, so that a spilled partition is split up when it spills again
+      val hash = Integer.rotateLeft(key.hashCode() * 0x9E3779B9, level * PARTITION_BITS)
+      hash >>> (Integer.SIZE - PARTITION_BITS)
+    }
+  }
+}
+
+object GraceHashJoin {
+
+  /**
+   * Spilled rows are partitioned into 2^PARTITION_BITS partitions.
+   */
+  private val PARTITION_BITS = 4
+
+  /**
+   * Partitions that have been spilled this many times are joined in memory, no matter how large they are.
+   */
+  private val MAX_SPILL_LEVEL = 4
+
+  /**
+   * The rows of the build side of a hash join, by join key.
+   */
+  abstract class HashJoinTable extends DefaultCloseListenable {
+    def put(key: AnyValue, row: CypherRow): Unit
+
+    def get(key: AnyValue): java.util.Iterator[CypherRow]
+
+    def isEmpty: Boolean
+  }
+
+  /**
+   * A table for join keys of any type.
+   */
+  class ValueHashJoinTable(memoryTracker: MemoryTracker) extends HashJoinTable {
+    private[this] val table = ProbeTable.createProbeTable[AnyValue, CypherRow](memoryTracker)
+
+    override def put(key: AnyValue, row: CypherRow): Unit = table.put(key, row)
+
+    override def get(key: AnyValue): java.util.Iterator[CypherRow] = table.get(key)
+
+    override def isEmpty: Boolean = table.isEmpty
+
+    override def closeInternal(): Unit = table.close()
+
+    override def isClosed: Boolean = table.isClosed
+  }
+
+  /**
+   * A table for join keys that are [[LongValue]]s, which are kept as primitive longs.
+   */
+  class LongHashJoinTable(memoryTracker: MemoryTracker) extends HashJoinTable {
+    private[this] val table = LongProbeTable.createLongProbeTable[CypherRow](memoryTracker)
+
+    override def put(key: AnyValue, row: CypherRow): Unit = table.put(key.asInstanceOf[LongValue].longValue(), row)
+
+    override def get(key: AnyValue): java.util.Iterator[CypherRow] = table.get(key.asInstanceOf[LongValue].longValue())
+
+    override def isEmpty: Boolean = table.isEmpty
+
+    override def closeInternal(): Unit = table.close()
+
+    override def isClosed: Boolean = table.isClosed
+  }
+}
@@ -62,6 +62,12 @@ class LinenumberPipeDecorator(private var inner: PipeDecorator = NullPipeDecorat
     inner.afterCreateResults(planId, state)
   }
 
+  override def spilled(planId: Id, bytes: Long): Unit = inner.spilled(planId, bytes)
+
+  override def propertyWalksSaved(planId: Id, walks: Long): Unit = inner.propertyWalksSaved(planId, walks)
+
+  override def csvRead(planId: Id, parseNanos: Long, waitNanos: Long): Unit = inner.csvRead(planId, parseNanos, waitNanos)
+
   private class LinenumberIterator(inner: ClosingIterator[CypherRow],
                                    previousContextSupplier: () => Option[CypherRow])
     extends ClosingIterator[CypherRow] {
@@ -89,14 +89,18 @@ abstract class AbstractLoadCSVPipe(source: Pipe,
   }
 
   //Uses an ArrayBackedMap to store header-to-values mapping
-  private class IteratorWithHeaders(headers: Seq[Value], argumentRow: CypherRow, filename: String, inner: LoadCsvIterator) extends ClosingIterator[CypherRow] {
+  private class IteratorWithHeaders(headers: Seq[Value], argumentRow: CypherRow, filename: String, inner: LoadCsvIterator, state: QueryState)
+    extends ClosingIterator[CypherRow] {
     private val internalMap = new ArrayBackedMap[String, AnyValue](headers.map(a => if (a eq Values.NO_VALUE) null else a.asInstanceOf[TextValue].stringValue()).zipWithIndex.toMap,
                                                                    nullValue = Values.NO_VALUE)
     private val internalMapSize = ArrayBackedMap.SHALLOW_SIZE + HeapEstimator.shallowSizeOfObjectArray(headers.size)
     private var newRow: CypherRow = _
     private var needsUpdate = true
 
-    override protected[this] def closeMore(): Unit = inner.close()
+    override protected[this] def closeMore(): Unit = {
+      inner.close()
+      state.decorator.csvRead(id, inner.parseTime, inner.waitTime)
+    }
 
     override def innerHasNext: Boolean = {
       if (needsUpdate) {
@@ -133,9 +137,13 @@ abstract class AbstractLoadCSVPipe(source: Pipe,
     }
   }
 
-  private class IteratorWithoutHeaders(argumentRow: CypherRow, filename: String, inner: LoadCsvIterator) extends ClosingIterator[CypherRow] {
+  private class IteratorWithoutHeaders(argumentRow: CypherRow, filename: String, inner: LoadCsvIterator, state: QueryState)
+    extends ClosingIterator[CypherRow] {
 
-    override protected[this] def closeMore(): Unit = inner.close()
+    override protected[this] def closeMore(): Unit = {
+      inner.close()
+      state.decorator.csvRead(id, inner.parseTime, inner.waitTime)
+    }
 
     override def innerHasNext: Boolean = inner.hasNext
 
@@ -150,7 +158,8 @@ abstract class AbstractLoadCSVPipe(source: Pipe,
     val ipBlocklist = state.query.getConfig.get(GraphDatabaseInternalSettings.cypher_ip_blocklist)
     val ipBlocklistAsScala = if (ipBlocklist != null) ipBlocklist.asScala.toList else List.empty
     state.resources.getCsvIterator(
-      url,ipBlocklistAsScala, fieldTerminator, legacyCsvQuoteEscaping, bufferSize, useHeaders
+      url,ipBlocklistAsScala, fieldTerminator, legacyCsvQuoteEscaping, bufferSize, useHeaders,
+      state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x)
     )
   }
 
@@ -163,9 +172,9 @@ abstract class AbstractLoadCSVPipe(source: Pipe,
         case HasHeaders =>
           val iterator = getLoadCSVIterator(state, url, useHeaders = true)
           val headers = if (iterator.nonEmpty) iterator.next().toIndexedSeq else IndexedSeq.empty // First row is headers
-          new IteratorWithHeaders(headers, row, url.getFile, iterator)
+          new IteratorWithHeaders(headers, row, url.getFile, iterator, state)
         case NoHeaders =>
-          new IteratorWithoutHeaders(row, url.getFile, getLoadCSVIterator(state, url, useHeaders = false))
+          new IteratorWithoutHeaders(row, url.getFile, getLoadCSVIterator(state, url, useHeaders = false), state)
       }
     })
   }
@@ -22,16 +22,22 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 import org.neo4j.cypher.internal.runtime.ClosingIterator
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.IsNoValue
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.GraceHashJoin.HashJoinTable
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.GraceHashJoin.LongHashJoinTable
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.GraceHashJoin.ValueHashJoinTable
 import org.neo4j.cypher.internal.util.attribution.Id
 import org.neo4j.exceptions.CypherTypeException
-import org.neo4j.kernel.impl.util.collection
-import org.neo4j.values.storable.LongArray
+import org.neo4j.memory.MemoryTracker
+import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.Values
 import org.neo4j.values.virtual.VirtualNodeValue
 
-import scala.collection.JavaConverters.asScalaIteratorConverter
-
-case class NodeHashJoinPipe(nodeVariables: Set[String], left: Pipe, right: Pipe)
+/**
+ * Joins the rows of both sides on the ids of the given nodes. A join on a single node keeps the node ids as primitive longs.
+ *
+ * @param spilling when and where to spill build rows
+ */
+case class NodeHashJoinPipe(nodeVariables: Set[String], left: Pipe, right: Pipe, spilling: Spilling = Spilling.DISABLED)
                            (val id: Id = Id.INVALID_ID)
   extends PipeWithSource(left) {
 
@@ -44,51 +50,38 @@ case class NodeHashJoinPipe(nodeVariables: Set[String], left: Pipe, right: Pipe)
     if (rhsIterator.isEmpty)
       return ClosingIterator.empty
 
-    val table = buildProbeTable(input, state)
-    state.query.resources.trace(table)
-
-    if (table.isEmpty) {
-      table.close()
-      return ClosingIterator.empty
-    }
-
-    val result =
-      for {
-        rhsRow <- rhsIterator
-        joinKey <- computeKey(rhsRow).toIterator
-        lhsRow <- table.get(joinKey).asScala
-      } yield {
-        val output = lhsRow.createClone()
-        output.mergeWith(rhsRow, state.query)
-        output
-      }
-
-    result.closing(table)
+    new NodeHashJoin(state).join(input, rhsIterator)
   }
 
-  private def buildProbeTable(input: Iterator[CypherRow], queryState: QueryState): collection.ProbeTable[LongArray, CypherRow] = {
-    val table = collection.ProbeTable.createProbeTable[LongArray, CypherRow](queryState.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x))
+  private val cachedVariables = nodeVariables.toIndexedSeq
 
-    for {context <- input
-         joinKey <- computeKey(context)} {
-      table.put(joinKey, context)
-    }
+  private class NodeHashJoin(state: QueryState) extends GraceHashJoin(state, id, spilling) {
+    override protected def buildKey(row: CypherRow): AnyValue = computeKey(row)
 
-    table
-  }
+    override protected def probeKey(row: CypherRow): AnyValue = computeKey(row)
 
-  private val cachedVariables = nodeVariables.toIndexedSeq
+    override protected def newTable(memoryTracker: MemoryTracker): HashJoinTable =
+      if (cachedVariables.length == 1) new LongHashJoinTable(memoryTracker) else new ValueHashJoinTable(memoryTracker)
+  }
 
-  private def computeKey(context: CypherRow): Option[LongArray] = {
+  private def computeKey(context: CypherRow): AnyValue = {
+    if (cachedVariables.length == 1) {
+      val id = nodeId(context, cachedVariables.head)
+      return if (id == -1L) Values.NO_VALUE else Values.longValue(id)
+    }
     val key = new Array[Long](cachedVariables.length)
 
     for (idx <- cachedVariables.indices) {
-      key(idx) = context.getByName(cachedVariables(idx)) match {
-        case n: VirtualNodeValue => n.id()
-        case IsNoValue() => return None
-        case _ => throw new CypherTypeException("Created a plan that uses non-nodes when expecting a node")
-      }
+      key(idx) = nodeId(context, cachedVariables(idx))
+      if (key(idx) == -1L)
+        return Values.NO_VALUE
     }
-    Some(Values.longArray(key))
+    Values.longArray(key)
+  }
+
+  private def nodeId(context: CypherRow, variable: String): Long = context.getByName(variable) match {
+    case n: VirtualNodeValue => n.id()
+    case IsNoValue() => -1L
+    case _ => throw new CypherTypeException("Created a plan that uses non-nodes when expecting a node")
   }
 }
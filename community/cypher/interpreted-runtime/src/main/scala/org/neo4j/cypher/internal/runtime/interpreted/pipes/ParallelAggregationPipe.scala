@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.Executor
+import java.util.concurrent.atomic.AtomicBoolean
+
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.CommandProjection
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregatingCol
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTableFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe.GroupingCol
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelAggregationPipe.BATCH_SIZE
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelAggregationPipe.NodeBatches
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelAggregationPipe.NodeScan
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelAggregationPipe.Step
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelAggregationPipe.Workers
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.AggregationFunction
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.MergeableAggregationFunction
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.internal.kernel.api.Cursor
+import org.neo4j.internal.kernel.api.NodeCursor
+import org.neo4j.internal.kernel.api.NodeLabelIndexCursor
+import org.neo4j.internal.kernel.api.Scan
+import org.neo4j.kernel.impl.util.collection.HeapTrackingOrderedAppendMap
+import org.neo4j.memory.EmptyMemoryTracker
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.VirtualValues
+
+import scala.util.control.NonFatal
+
+/**
+ * Eager aggregation over the nodes of a node scan, which scans and aggregates the nodes with several workers at once.
+ *
+ * Each worker reserves batches of nodes from a scan shared between all workers, applies the filters and projections that the
+ * aggregation was planned on top of to each node, and aggregates the rows into a table of its own. Once the scan is exhausted,
+ * the tables of all workers are merged into the result. This is only possible because all aggregation functions are
+ * [[MergeableAggregationFunction]]s.
+ *
+ * When the transaction has changes of its own, or when the query is profiled, the aggregation is done by the source pipe
+ * and a single thread instead, like [[EagerAggregationPipe]] does.
+ *
+ * @param source           the pipes of the scan, filters and projections, used when the aggregation is not done in parallel
+ * @param scan             the node scan the workers share
+ * @param steps            the filters and projections to apply to each node, in the order they are applied
+ * @param groupingColumns  all grouping columns
+ * @param aggregations     all aggregation columns
+ * @param tableFactory     the table used when the aggregation is not done in parallel
+ * @param workers          where and with how many workers to aggregate
+ */
+case class ParallelAggregationPipe(source: Pipe,
+                                   scan: NodeScan,
+                                   steps: Array[Step],
+                                   groupingColumns: Array[GroupingCol],
+                                   aggregations: Array[AggregatingCol],
+                                   tableFactory: AggregationTableFactory,
+                                   workers: Workers)
+                                  (val id: Id = Id.INVALID_ID)
+  extends AggregationPipe(source) {
+
+  private[this] val groupingFunction = AggregationPipe.computeGroupingFunction(groupingColumns)
+  private[this] val addKeys = AggregationPipe.computeAddKeysToResultRowFunction(groupingColumns)
+  private[this] val newAggregators = AggregationPipe.computeNewAggregatorsFunction[AnyValue](aggregations.map(_.expression))
+
+  override protected def computeDecoratedResult(state: QueryState, decoratedState: QueryState): ClosingIterator[CypherRow] = {
+    if ((state.decorator eq NullPipeDecorator) && !state.query.transactionalContext.dataRead.transactionStateHasChanges) {
+      scan.start(state.query) match {
+        case Some(nodes) =>
+          decorateResult(ClosingIterator.empty, decoratedState, parallelResult(nodes, decoratedState))
+        case None =>
+          super.computeDecoratedResult(state, decoratedState)
+      }
+    } else {
+      super.computeDecoratedResult(state, decoratedState)
+    }
+  }
+
+  protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
+    val table = tableFactory.table(state, rowFactory, id)
+    table.clear()
+    while (input.hasNext) {
+      table.processRow(input.next())
+    }
+    table.result()
+  }
+
+  private def parallelResult(nodes: NodeBatches, state: QueryState): ClosingIterator[CypherRow] = {
+    val failed = new AtomicBoolean(false)
+    val tasks = (1 until workers.count).map(_ => CompletableFuture.supplyAsync(() => aggregateNodes(nodes, state, failed), workers.executor))
+    var error: Throwable = null
+    val partials = new java.util.ArrayList[java.util.HashMap[AnyValue, Array[AggregationFunction]]](workers.count)
+    try {
+      partials.add(aggregateNodes(nodes, state, failed))
+    } catch {
+      case NonFatal(e) => error = e
+    }
+    tasks.foreach { task =>
+      try {
+        partials.add(task.join())
+      } catch {
+        case e: CompletionException if error == null => error = e.getCause
+        case _: CompletionException =>
+      }
+    }
+    if (error != null) {
+      throw error
+    }
+    merge(partials, state)
+  }
+
+  private def aggregateNodes(nodes: NodeBatches,
+                             state: QueryState,
+                             failed: AtomicBoolean): java.util.HashMap[AnyValue, Array[AggregationFunction]] = {
+    val query = state.query.createParallelQueryContext()
+    val cursors = query.createExpressionCursors()
+    val reader = nodes.reader(query)
+    try {
+      val workerState = state.forWorker(query, cursors)
+      val baseRow = workerState.newRowWithArgument(rowFactory)
+      val table = new java.util.HashMap[AnyValue, Array[AggregationFunction]]()
+      while (!failed.get() && reader.nextBatch()) {
+        query.transactionalContext.assertTransactionOpen()
+        while (reader.next()) {
+          val row = rowFactory.copyWith(baseRow, nodes.variable, VirtualValues.node(reader.node))
+          if (applySteps(row, workerState)) {
+            val groupingValue = if (groupingColumns.isEmpty) Values.NO_VALUE else groupingFunction(row, workerState)
+            var functions = table.get(groupingValue)
+            if (functions == null) {
+              functions = newAggregators.value(groupingValue, EmptyMemoryTracker.INSTANCE)
+              table.put(groupingValue, functions)
+            }
+            var i = 0
+            while (i < functions.length) {
+              functions(i)(row, workerState)
+              i += 1
+            }
+          }
+        }
+      }
+      table
+    } catch {
+      case NonFatal(e) =>
+        failed.set(true)
+        throw e
+    } finally {
+      reader.close()
+      cursors.close()
+      query.transactionalContext.close()
+    }
+  }
+
+  private def applySteps(row: CypherRow, state: QueryState): Boolean = {
+    var i = 0
+    while (i < steps.length) {
+      if (!steps(i).apply(row, state)) {
+        return false
+      }
+      i += 1
+    }
+    true
+  }
+
+  private def merge(partials: java.util.List[java.util.HashMap[AnyValue, Array[AggregationFunction]]], state: QueryState): ClosingIterator[CypherRow] = {
+    val memoryTracker = state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x)
+    val resultMap = HeapTrackingOrderedAppendMap.createOrderedMap[AnyValue, Array[AggregationFunction]](memoryTracker)
+    state.query.resources.trace(resultMap)
+    if (groupingColumns.isEmpty) {
+      // Aggregating without grouping returns one row, even when there are no rows to aggregate
+      resultMap.getIfAbsentPutWithMemoryTracker2(Values.NO_VALUE, newAggregators)
+    }
+    partials.forEach(partial => partial.forEach((groupingValue, partialFunctions) => {
+      val functions = resultMap.getIfAbsentPutWithMemoryTracker2(groupingValue, newAggregators)
+      var i = 0
+      while (i < functions.length) {
+        functions(i).asInstanceOf[MergeableAggregationFunction].merge(partialFunctions(i), state)
+        i += 1
+      }
+    }))
+
+    val innerIterator = resultMap.autoClosingEntryIterator()
+    new ClosingIterator[CypherRow] {
+
+      override protected[this] def closeMore(): Unit = resultMap.close()
+
+      override def innerHasNext: Boolean = innerIterator.hasNext
+
+      override def next(): CypherRow = {
+        val entry = innerIterator.next() // NOTE: This entry is transient and only valid until we call next() again
+        val functions = entry.getValue
+        val row = state.newRow(rowFactory)
+        addKeys(row, entry.getKey)
+        var i = 0
+        while (i < functions.length) {
+          row.set(aggregations(i).key, functions(i).result(state))
+          i += 1
+        }
+        row
+      }
+    }
+  }
+}
+
+object ParallelAggregationPipe {
+
+  /**
+   * The number of nodes a worker reserves from the scan at a time.
+   */
+  private val BATCH_SIZE = 1024
+
+  /**
+   * @param executor runs the workers, besides the thread of the query which is always one of them
+   * @param count    the number of workers, including the thread of the query
+   */
+  case class Workers(executor: Executor, count: Int)
+
+  /**
+   * A filter or projection applied to the rows of the scan before they are aggregated.
+   */
+  sealed trait Step {
+    /**
+     * @return false if the row is filtered out
+     */
+    def apply(row: CypherRow, state: QueryState): Boolean
+  }
+
+  case class FilterStep(predicate: Expression) extends Step {
+    override def apply(row: CypherRow, state: QueryState): Boolean = predicate(row, state) eq Values.TRUE
+  }
+
+  case class ProjectStep(projection: CommandProjection) extends Step {
+    override def apply(row: CypherRow, state: QueryState): Boolean = {
+      projection.project(row, state)
+      true
+    }
+  }
+
+  sealed trait NodeScan {
+    def variable: String
+
+    /**
+     * @return the batches of nodes to share between the workers, or None if the scan is known to be empty
+     */
+    def start(query: QueryContext): Option[NodeBatches]
+  }
+
+  case class AllNodes(variable: String) extends NodeScan {
+    override def start(query: QueryContext): Option[NodeBatches] = {
+      val scan = query.transactionalContext.dataRead.allNodesScan()
+      Some(new NodeBatches(variable) {
+        override def reader(query: QueryContext): NodeBatchReader[_] = {
+          val cursor = query.transactionalContext.cursors.allocateNodeCursor(query.transactionalContext.cursorContext)
+          new NodeBatchReader[NodeCursor](scan, cursor, query) {
+            override def node: Long = cursor.nodeReference()
+          }
+        }
+      })
+    }
+  }
+
+  case class NodesByLabel(variable: String, label: LazyLabel) extends NodeScan {
+    override def start(query: QueryContext): Option[NodeBatches] = {
+      val labelId = label.getId(query)
+      if (labelId == LazyLabel.UNKNOWN) {
+        None
+      } else {
+        val scan = query.transactionalContext.dataRead.nodeLabelScan(labelId)
+        Some(new NodeBatches(variable) {
+          override def reader(query: QueryContext): NodeBatchReader[_] = {
+            val cursor = query.transactionalContext.cursors.allocateNodeLabelIndexCursor(query.transactionalContext.cursorContext)
+            new NodeBatchReader[NodeLabelIndexCursor](scan, cursor, query) {
+              override def node: Long = cursor.nodeReference()
+            }
+          }
+        })
+      }
+    }
+  }
+
+  /**
+   * A scan shared between the workers, which each of them reads with a [[NodeBatchReader]] of its own.
+   */
+  abstract class NodeBatches(val variable: String) {
+    def reader(query: QueryContext): NodeBatchReader[_]
+  }
+
+  abstract class NodeBatchReader[CURSOR <: Cursor](scan: Scan[CURSOR], cursor: CURSOR, query: QueryContext) extends AutoCloseable {
+    private[this] val accessMode = query.transactionalContext.securityContext.mode()
+
+    def nextBatch(): Boolean = scan.reserveBatch(cursor, BATCH_SIZE, query.transactionalContext.cursorContext, accessMode)
+
+    def next(): Boolean = cursor.next()
+
+    def node: Long
+
+    override def close(): Unit = cursor.close()
+  }
+}
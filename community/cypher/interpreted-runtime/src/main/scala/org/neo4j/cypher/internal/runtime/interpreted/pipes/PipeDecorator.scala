@@ -81,6 +81,28 @@ trait PipeDecorator {
    * where the `decorate` should refer to the parent pipe instead of the calling pipe.
    */
   def innerDecorator(planId: Id): PipeDecorator
+
+  /**
+   * Called when the pipe with the given plan id has spilled rows to disk, because it held onto more memory than it was allowed to.
+   *
+   * @param bytes the number of bytes that were spilled
+   */
+  def spilled(planId: Id, bytes: Long): Unit = {}
+
+  /**
+   * Called when the pipe with the given plan id has read several properties of an entity in one walk over its properties.
+   *
+   * @param walks the number of walks over property chains that reading the properties one by one would have taken in addition
+   */
+  def propertyWalksSaved(planId: Id, walks: Long): Unit = {}
+
+  /**
+   * Called when the pipe with the given plan id has finished reading a CSV file.
+   *
+   * @param parseNanos the time spent parsing the file
+   * @param waitNanos  the time the pipe spent waiting for rows that were parsed ahead of it
+   */
+  def csvRead(planId: Id, parseNanos: Long, waitNanos: Long): Unit = {}
 }
 
 object NullPipeDecorator extends PipeDecorator {
@@ -21,6 +21,10 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import org.neo4j.cypher.internal.logical.plans.LogicalPlan
 import org.neo4j.cypher.internal.logical.plans.LogicalPlans
+import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.InterpretedCommandProjection
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.compiled.ExpressionCompiler
+import org.neo4j.cypher.internal.util.Eagerly
 
 /**
  * Maps single logical plan operators to their respective pipes. Does not recurse.
@@ -36,3 +40,40 @@ case class PipeTreeBuilder(pipeMapper: PipeMapper) {
     LogicalPlans.map(logicalPlan, pipeMapper)
   }
 }
+
+/**
+ * Lets all pipes created by the given mapper use the given row factory, instead of their default one.
+ */
+case class RowFactoryPipeMapper(inner: PipeMapper, rowFactory: CypherRowFactory) extends PipeMapper {
+  override def onLeaf(plan: LogicalPlan): Pipe = withRowFactory(inner.onLeaf(plan))
+
+  override def onOneChildPlan(plan: LogicalPlan, source: Pipe): Pipe = withRowFactory(inner.onOneChildPlan(plan, source))
+
+  override def onTwoChildPlan(plan: LogicalPlan, lhs: Pipe, rhs: Pipe): Pipe = withRowFactory(inner.onTwoChildPlan(plan, lhs, rhs))
+
+  private def withRowFactory(pipe: Pipe): Pipe = {
+    pipe.rowFactory = rowFactory
+    pipe
+  }
+}
+
+/**
+ * Compiles the predicates of the filter pipes, and the projected expressions of the projection pipes, that are created by the given mapper.
+ * Expressions that cannot be compiled are left interpreted.
+ */
+case class CompiledExpressionsPipeMapper(inner: PipeMapper) extends PipeMapper {
+  override def onLeaf(plan: LogicalPlan): Pipe = inner.onLeaf(plan)
+
+  override def onOneChildPlan(plan: LogicalPlan, source: Pipe): Pipe = inner.onOneChildPlan(plan, source) match {
+    case pipe @ FilterPipe(filterSource, predicate) =>
+      ExpressionCompiler.compile(predicate).map(FilterPipe(filterSource, _)(pipe.id)).getOrElse(pipe)
+
+    case pipe @ ProjectionPipe(projectionSource, InterpretedCommandProjection(expressions)) =>
+      val compiled = Eagerly.immutableMapValues(expressions, (e: Expression) => ExpressionCompiler.compile(e).getOrElse(e))
+      ProjectionPipe(projectionSource, InterpretedCommandProjection(compiled))(pipe.id)
+
+    case pipe => pipe
+  }
+
+  override def onTwoChildPlan(plan: LogicalPlan, lhs: Pipe, rhs: Pipe): Pipe = inner.onTwoChildPlan(plan, lhs, rhs)
+}
@@ -24,20 +24,45 @@ import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.interpreted.CommandProjection
 import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.InterpretedCommandProjection
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Property
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Variable
+import org.neo4j.cypher.internal.runtime.interpreted.commands.values.KeyToken
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ProjectionPipe.PropertyBatch
 import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.kernel.api.StatementConstants
+import org.neo4j.values.storable.Value
+import org.neo4j.values.virtual.VirtualNodeValue
+import org.neo4j.values.virtual.VirtualRelationshipValue
 
 case class ProjectionPipe(source: Pipe, projection: CommandProjection)
                          (val id: Id = Id.INVALID_ID) extends PipeWithSource(source) {
 
+  private val (propertyBatches, remainingProjection) = ProjectionPipe.batchProperties(projection)
+
   protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
     if (projection.isEmpty)
       input
-    else {
+    else if (propertyBatches.isEmpty) {
       input.map {
         ctx =>
           projection.project(ctx, state)
           ctx
       }
+    } else {
+      input.map {
+        ctx =>
+          var walksSaved = 0L
+          var i = 0
+          while (i < propertyBatches.length) {
+            walksSaved += propertyBatches(i).project(ctx, state)
+            i += 1
+          }
+          if (walksSaved > 0) {
+            state.decorator.propertyWalksSaved(id, walksSaved)
+          }
+          remainingProjection.project(ctx, state)
+          ctx
+      }
     }
   }
 }
@@ -45,4 +70,81 @@ case class ProjectionPipe(source: Pipe, projection: CommandProjection)
 object ProjectionPipe {
   def apply(source: Pipe, projections: Map[String, Expression]): ProjectionPipe =
     ProjectionPipe(source, InterpretedCommandProjection(projections))()
+
+  /**
+   * Groups the projected properties of the same variable, so that all of them can be read with one walk over the properties of the entity.
+   *
+   * @return the batches of properties, and the projection of everything else
+   */
+  private def batchProperties(projection: CommandProjection): (Array[PropertyBatch], CommandProjection) = projection match {
+    case InterpretedCommandProjection(expressions) =>
+      val byVariable = expressions.toSeq.collect {
+        case (name, Property(variable: Variable, propertyKey)) => (variable, name, propertyKey)
+      }.groupBy(_._1).filter(_._2.size > 1)
+
+      if (byVariable.isEmpty) {
+        (Array.empty, projection)
+      } else {
+        val batches = byVariable.map {
+          case (variable, properties) => PropertyBatch(variable, properties.map(_._2).toArray, properties.map(_._3).toArray)
+        }.toArray
+        val batchedNames = batches.flatMap(_.names).toSet
+        (batches, InterpretedCommandProjection(expressions.filter { case (name, _) => !batchedNames.contains(name) }))
+      }
+
+    case _ => (Array.empty, projection)
+  }
+
+  case class PropertyBatch(entity: Expression, names: Array[String], propertyKeys: Array[KeyToken]) {
+
+    /**
+     * Projects all the properties of the batch.
+     *
+     * @return the number of walks over property chains saved by reading the properties together
+     */
+    def project(ctx: CypherRow, state: QueryState): Long = entity(ctx, state) match {
+      case n: VirtualNodeValue =>
+        val propIds = propertyKeyIds(state)
+        val values = state.query.nodeReadOps.getProperties(n.id(), propIds, state.cursors.nodeCursor, state.cursors.propertyCursor, throwOnDeleted = true)
+        setAll(ctx, values)
+        walksSaved(propIds)
+
+      case r: VirtualRelationshipValue =>
+        val propIds = propertyKeyIds(state)
+        val values = state.query.relationshipReadOps.getProperties(r.id(), propIds, state.cursors.relationshipScanCursor, state.cursors.propertyCursor, throwOnDeleted = true)
+        setAll(ctx, values)
+        walksSaved(propIds)
+
+      case container =>
+        var i = 0
+        while (i < names.length) {
+          ctx.set(names(i), Property.getProperty(container, propertyKeys(i), state))
+          i += 1
+        }
+        0L
+    }
+
+    private def propertyKeyIds(state: QueryState): Array[Int] = {
+      val propIds = new Array[Int](propertyKeys.length)
+      var i = 0
+      while (i < propertyKeys.length) {
+        propIds(i) = propertyKeys(i).getOptId(state.query).getOrElse(StatementConstants.NO_SUCH_PROPERTY_KEY)
+        i += 1
+      }
+      propIds
+    }
+
+    private def setAll(ctx: CypherRow, values: Array[Value]): Unit = {
+      var i = 0
+      while (i < names.length) {
+        ctx.set(names(i), values(i))
+        i += 1
+      }
+    }
+
+    private def walksSaved(propIds: Array[Int]): Long = {
+      val walks = propIds.count(_ != StatementConstants.NO_SUCH_PROPERTY_KEY)
+      if (walks > 1) walks - 1 else 0L
+    }
+  }
 }
@@ -21,7 +21,9 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import org.neo4j.cypher.internal.config.MemoryTrackingController
 import org.neo4j.cypher.internal.macros.AssertMacros
+import org.neo4j.cypher.internal.runtime.ArrayCypherRow
 import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.CypherRowLayout
 import org.neo4j.cypher.internal.runtime.ExpressionCursors
 import org.neo4j.cypher.internal.runtime.InputDataStream
 import org.neo4j.cypher.internal.runtime.MapCypherRow
@@ -111,6 +113,14 @@ class QueryState(
     new QueryState(query, resources, params, cursors, queryIndexes, nodeLabelTokenReadSession, relTypeTokenReadSession,
       expressionVariables, subscriber, queryMemoryTracker, memoryTrackerForOperatorProvider, decorator, initialContext, cachedIn, lenientCreateRelationship, prePopulateResults, input)
 
+  /**
+   * A state for evaluating expressions in another thread than the one of this state, which reads through the given query context and cursors.
+   */
+  def forWorker(query: QueryContext, cursors: ExpressionCursors): QueryState =
+    new QueryState(query, resources, params, cursors, queryIndexes, nodeLabelTokenReadSession, relTypeTokenReadSession,
+      expressionVariables.clone(), subscriber, queryMemoryTracker, memoryTrackerForOperatorProvider, decorator, initialContext, createDefaultInCache(),
+      lenientCreateRelationship, prePopulateResults, input)
+
   def withNewTransaction(): QueryState  = {
     val newQuery = query.contextWithNewTransaction()
 
@@ -118,7 +128,7 @@ class QueryState(
 
     // This method is not supported when we run with PERIODIC COMMIT, so we assert that we do not have such resources.
     AssertMacros.checkOnlyWhenAssertionsAreEnabled(resources.isInstanceOf[CSVResources])
-    val newResources = new CSVResources(newQuery.resources)
+    val newResources = new CSVResources(newQuery.resources, CSVResources.prefetching(newQuery))
 
     // IndexReadSession and TokenReadSession are bound to the outer transaction.
     // They use a ValueIndexReader / TokenIndexReader that is cached and closed together with the transaction.
@@ -297,29 +307,84 @@ case class CommunityCypherRowFactory() extends CypherRowFactory {
   override def copyWith(row: ReadableRow): CypherRow = row match {
     case context: MapCypherRow =>
       context.createClone()
+    case context: CypherRow =>
+      context.createClone()
   }
 
   // Not using polymorphism here, instead cast since the cost of being megamorhpic is too high
   override def copyWith(row: ReadableRow, newEntries: Seq[(String, AnyValue)]): CypherRow = row match {
     case context: MapCypherRow =>
       context.copyWith(newEntries)
+    case context: CypherRow =>
+      context.copyWith(newEntries)
   }
 
   // Not using polymorphism here, instead cast since the cost of being megamorhpic is too high
   override def copyWith(row: ReadableRow, key: String, value: AnyValue): CypherRow = row match {
     case context: MapCypherRow =>
       context.copyWith(key, value)
+    case context: CypherRow =>
+      context.copyWith(key, value)
   }
 
   // Not using polymorphism here, instead cast since the cost of being megamorhpic is too high
   override def copyWith(row: ReadableRow, key1: String, value1: AnyValue, key2: String, value2: AnyValue): CypherRow = row match {
     case context: MapCypherRow =>
       context.copyWith(key1, value1, key2, value2)
+    case context: CypherRow =>
+      context.copyWith(key1, value1, key2, value2)
     }
 
   // Not using polymorphism here, instead cast since the cost of being megamorhpic is too high
   override def copyWith(row: ReadableRow, key1: String, value1: AnyValue, key2: String, value2: AnyValue, key3: String, value3: AnyValue): CypherRow = row match {
     case context: MapCypherRow =>
       context.copyWith(key1, value1, key2, value2, key3, value3)
+    case context: CypherRow =>
+      context.copyWith(key1, value1, key2, value2, key3, value3)
+  }
+}
+
+/**
+ * Creates [[ArrayCypherRow]]s with the given layout, which must cover the variables of all pipes that use this factory.
+ */
+case class ArrayCypherRowFactory(layout: CypherRowLayout) extends CypherRowFactory {
+
+  override def newRow(): CypherRow = ArrayCypherRow.empty(layout)
+
+  override def copyArgumentOf(row: ReadableRow): CypherRow = copyWith(row)
+
+  override def copyWith(row: ReadableRow): CypherRow = row match {
+    case context: ArrayCypherRow =>
+      context.createClone()
+    case context: MapCypherRow =>
+      // Rows can be handed to the query from the outside, e.g. as the initial context.
+      val copy = ArrayCypherRow.empty(layout)
+      copy.set(context.toMap.toSeq)
+      copy.setLinenumber(context.getLinenumber)
+      copy
+  }
+
+  override def copyWith(row: ReadableRow, newEntries: Seq[(String, AnyValue)]): CypherRow = {
+    val copy = copyWith(row)
+    copy.set(newEntries)
+    copy
+  }
+
+  override def copyWith(row: ReadableRow, key: String, value: AnyValue): CypherRow = {
+    val copy = copyWith(row)
+    copy.set(key, value)
+    copy
+  }
+
+  override def copyWith(row: ReadableRow, key1: String, value1: AnyValue, key2: String, value2: AnyValue): CypherRow = {
+    val copy = copyWith(row)
+    copy.set(key1, value1, key2, value2)
+    copy
+  }
+
+  override def copyWith(row: ReadableRow, key1: String, value1: AnyValue, key2: String, value2: AnyValue, key3: String, value3: AnyValue): CypherRow = {
+    val copy = copyWith(row)
+    copy.set(key1, value1, key2, value2, key3, value3)
+    copy
   }
 }
@@ -26,25 +26,53 @@ import org.neo4j.cypher.internal.runtime.ClosingIterator
 import org.neo4j.cypher.internal.runtime.ClosingIterator.DelegatingClosingIterator
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.spill.SortedRuns
+import org.neo4j.cypher.internal.runtime.spill.SpilledRows
+import org.neo4j.cypher.internal.runtime.spill.Spilling
 import org.neo4j.cypher.internal.util.attribution.Id
 
 import scala.collection.JavaConverters.asScalaIteratorConverter
 
-case class SortPipe(source: Pipe, comparator: Comparator[ReadableRow])
+/**
+ * Sorts all rows in memory, unless they use more heap than the spill threshold, in which case sorted runs of rows are spilled to
+ * disk, and merged with the rows in memory when the result is read.
+ */
+case class SortPipe(source: Pipe, comparator: Comparator[ReadableRow], spilling: Spilling = Spilling.DISABLED)
                    (val id: Id = Id.INVALID_ID)
   extends PipeWithSource(source) {
 
   protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
-    val scopedMemoryTracker = state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x).getScopedMemoryTracker
+    val memoryTracker = state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x)
+    val scopedMemoryTracker = memoryTracker.getScopedMemoryTracker
+    val runs = new SortedRuns(comparator, spilling, memoryTracker, state.query.resources)
     var arrayList: HeapTrackingArrayList[CypherRow] = HeapTrackingArrayList.newArrayList(256, scopedMemoryTracker)
+    var rowsHeapUsage = 0L
     while (input.hasNext) {
       val row = input.next()
-      scopedMemoryTracker.allocateHeap(row.estimatedHeapUsage())
+      val rowHeapUsage = row.estimatedHeapUsage()
+      scopedMemoryTracker.allocateHeap(rowHeapUsage)
+      rowsHeapUsage += rowHeapUsage
       arrayList.add(row)
+      if (spilling.exceeded(scopedMemoryTracker.estimatedHeapMemory()) && SpilledRows.canSpill(row)) {
+        arrayList.sort(comparator)
+        runs.spill(arrayList.iterator())
+        arrayList.close()
+        scopedMemoryTracker.releaseHeap(rowsHeapUsage)
+        rowsHeapUsage = 0L
+        arrayList = HeapTrackingArrayList.newArrayList(256, scopedMemoryTracker)
+      }
     }
     arrayList.sort(comparator)
-    new DelegatingClosingIterator[CypherRow](arrayList.iterator().asScala) {
+    val sorted =
+      if (runs.isEmpty) {
+        arrayList.iterator().asScala
+      } else {
+        state.decorator.spilled(id, runs.spilledBytes)
+        runs.merge(arrayList.iterator())
+      }
+    new DelegatingClosingIterator[CypherRow](sorted) {
       override def closeMore(): Unit = {
+        runs.close()
         arrayList = null
         scopedMemoryTracker.close()
         input.close()
@@ -27,6 +27,9 @@ import org.neo4j.cypher.internal.runtime.ClosingIterator
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.ReadableRow
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.spill.SortedRuns
+import org.neo4j.cypher.internal.runtime.spill.SpilledRows
+import org.neo4j.cypher.internal.runtime.spill.Spilling
 import org.neo4j.cypher.internal.util.attribution.Id
 import org.neo4j.memory.MemoryTracker
 
@@ -34,34 +37,56 @@ import scala.collection.JavaConverters.asScalaIteratorConverter
 
 /*
  * TopPipe is used when a query does a ORDER BY ... LIMIT query. Instead of ordering the whole result set and then
- * returning the matching top results, we only keep the top results in heap, which allows us to release memory earlier
+ * returning the matching top results, we only keep the top results in heap, which allows us to release memory earlier.
+ * If even the top results use more than the spill threshold of heap, they are spilled to disk as a sorted run, and the runs are merged
+ * when the result is read.
  */
-case class TopNPipe(source: Pipe, countExpression: Expression, comparator: Comparator[ReadableRow])
+case class TopNPipe(source: Pipe, countExpression: Expression, comparator: Comparator[ReadableRow], spilling: Spilling = Spilling.DISABLED)
                    (val id: Id = Id.INVALID_ID) extends PipeWithSource(source) {
 
   protected override def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
     val limit = SkipPipe.evaluateStaticSkipOrLimitNumberOrThrow(countExpression, state, "LIMIT")
     if (limit == 0 || input.isEmpty) return ClosingIterator.empty
 
-    val scopedMemoryTracker = state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x).getScopedMemoryTracker
+    val memoryTracker = state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x)
+    val scopedMemoryTracker = memoryTracker.getScopedMemoryTracker
     val topTable = new DefaultComparatorTopTable[CypherRow](comparator, limit, scopedMemoryTracker)
     state.query.resources.trace(topTable)
+    val runs = new SortedRuns(comparator, spilling, memoryTracker, state.query.resources)
+    var rowsHeapUsage = 0L
 
     var i = 1L
     while (input.hasNext) {
       val row = input.next()
       val evictedRow = topTable.addAndGetEvicted(row)
       if (row ne evictedRow) {
-        scopedMemoryTracker.allocateHeap(row.estimatedHeapUsage())
-        if (evictedRow != null)
-          scopedMemoryTracker.releaseHeap(evictedRow.estimatedHeapUsage())
+        val rowHeapUsage = row.estimatedHeapUsage()
+        scopedMemoryTracker.allocateHeap(rowHeapUsage)
+        rowsHeapUsage += rowHeapUsage
+        if (evictedRow != null) {
+          val evictedHeapUsage = evictedRow.estimatedHeapUsage()
+          scopedMemoryTracker.releaseHeap(evictedHeapUsage)
+          rowsHeapUsage -= evictedHeapUsage
+        }
+        if (spilling.exceeded(scopedMemoryTracker.estimatedHeapMemory()) && SpilledRows.canSpill(row)) {
+          topTable.sort()
+          runs.spill(topTable.iterator())
+          topTable.reset(limit)
+          scopedMemoryTracker.releaseHeap(rowsHeapUsage)
+          rowsHeapUsage = 0L
+        }
       }
       i += 1
     }
 
     topTable.sort()
 
-    ClosingIterator(topTable.autoClosingIterator(scopedMemoryTracker).asScala).closing(topTable)
+    if (runs.isEmpty) {
+      ClosingIterator(topTable.autoClosingIterator(scopedMemoryTracker).asScala).closing(topTable)
+    } else {
+      state.decorator.spilled(id, runs.spilledBytes)
+      runs.merge(topTable.iterator(), limit).closing(topTable).closing(scopedMemoryTracker)
+    }
   }
 }
 
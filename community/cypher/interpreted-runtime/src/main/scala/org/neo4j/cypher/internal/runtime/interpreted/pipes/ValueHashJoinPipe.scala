@@ -22,14 +22,19 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 import org.neo4j.cypher.internal.runtime.ClosingIterator
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.GraceHashJoin.HashJoinTable
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.GraceHashJoin.ValueHashJoinTable
 import org.neo4j.cypher.internal.util.attribution.Id
-import org.neo4j.kernel.impl.util.collection
+import org.neo4j.memory.MemoryTracker
 import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.Values
 
-import scala.collection.JavaConverters.asScalaIteratorConverter
-
-case class ValueHashJoinPipe(lhsExpression: Expression, rhsExpression: Expression, left: Pipe, right: Pipe)
+/**
+ * Joins the rows of both sides on the values of the given expressions.
+ *
+ * @param spilling when and where to spill build rows
+ */
+case class ValueHashJoinPipe(lhsExpression: Expression, rhsExpression: Expression, left: Pipe, right: Pipe, spilling: Spilling = Spilling.DISABLED)
                             (val id: Id = Id.INVALID_ID)
   extends PipeWithSource(left) {
 
@@ -43,35 +48,17 @@ case class ValueHashJoinPipe(lhsExpression: Expression, rhsExpression: Expressio
     if (rhsIterator.isEmpty)
       return ClosingIterator.empty
 
-    val table = buildProbeTable(input, state)
-    state.query.resources.trace(table)
-
-    if (table.isEmpty) {
-      table.close()
-      return ClosingIterator.empty
-    }
-
-    val result: ClosingIterator[CypherRow] = for {
-      rhsRow <- rhsIterator
-      joinKey = rhsExpression(rhsRow, state) if !(joinKey eq Values.NO_VALUE)
-      lhsRow <- table.get(joinKey).asScala
-    } yield {
-      val outputRow = lhsRow.createClone()
-      outputRow.mergeWith(rhsRow, state.query)
-      outputRow
-    }
-
-    result.closing(table)
+    new ValueHashJoin(state).join(input, rhsIterator)
   }
 
-  private def buildProbeTable(input: Iterator[CypherRow], state: QueryState): collection.ProbeTable[AnyValue, CypherRow] = {
-    val table = collection.ProbeTable.createProbeTable[AnyValue, CypherRow](state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x))
-
-    for (context <- input;
-         joinKey = lhsExpression(context, state) if joinKey != null) {
-      table.put(joinKey, context)
+  private class ValueHashJoin(state: QueryState) extends GraceHashJoin(state, id, spilling) {
+    override protected def buildKey(row: CypherRow): AnyValue = {
+      val key = lhsExpression(row, state)
+      if (key == null) Values.NO_VALUE else key
     }
 
-    table
+    override protected def probeKey(row: CypherRow): AnyValue = rhsExpression(row, state)
+
+    override protected def newTable(memoryTracker: MemoryTracker): HashJoinTable = new ValueHashJoinTable(memoryTracker)
   }
 }
@@ -40,3 +40,14 @@ abstract class AggregationFunction {
   def result(state: QueryState): AnyValue
 }
 
+/**
+ * An aggregation function whose aggregated totals over disjoint parts of the
+ * input can be combined into the aggregated total over all of the input.
+ */
+trait MergeableAggregationFunction extends AggregationFunction {
+  /**
+   * Adds the aggregated total of another function of the same kind to the aggregated total of this one.
+   */
+  def merge(other: AggregationFunction, state: QueryState): Unit
+}
+
@@ -40,6 +40,7 @@ import org.neo4j.values.utils.ValueMath.overflowSafeAdd
  */
 class AvgFunction(val value: Expression)
   extends AggregationFunction
+  with MergeableAggregationFunction
   with NumericOrDurationAggregationExpression {
 
   def name = "AVG"
@@ -85,6 +86,30 @@ class AvgFunction(val value: Expression)
 
   }
 
+  /**
+   * Combines the two averages, weighted by the number of values each of them is over.
+   */
+  override def merge(other: AggregationFunction, state: QueryState): Unit = {
+    val partial = other.asInstanceOf[AvgFunction]
+    if (partial.count > 0) {
+      val total = count + partial.count
+      val weight = partial.count.toDouble / total
+      actOnNumberOrDuration(partial.result(state),
+        number => {
+          val diff = number.minus(sumNumber)
+          sumNumber = overflowSafeAdd(sumNumber, diff.times(weight))
+        },
+        _ => {
+          monthsRunningAvg += (partial.monthsRunningAvg - monthsRunningAvg) * weight
+          daysRunningAvg += (partial.daysRunningAvg - daysRunningAvg) * weight
+          secondsRunningAvg += (partial.secondsRunningAvg - secondsRunningAvg) * weight
+          nanosRunningAvg += (partial.nanosRunningAvg - nanosRunningAvg) * weight
+        }
+      )
+      count = total
+    }
+  }
+
   def aggregatedRowCount: Long = count
 }
 
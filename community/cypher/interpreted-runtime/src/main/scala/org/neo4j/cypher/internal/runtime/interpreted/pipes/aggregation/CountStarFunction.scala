@@ -25,7 +25,7 @@ import org.neo4j.memory.HeapEstimator.shallowSizeOfInstance
 import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.Values
 
-class CountStarFunction extends AggregationFunction {
+class CountStarFunction extends AggregationFunction with MergeableAggregationFunction {
   var count:Long = 0
 
   override def apply(data: ReadableRow, state: QueryState) {
@@ -33,6 +33,10 @@ class CountStarFunction extends AggregationFunction {
   }
 
   override def result(state: QueryState): AnyValue = Values.longValue(count)
+
+  override def merge(other: AggregationFunction, state: QueryState): Unit = {
+    count += other.asInstanceOf[CountStarFunction].count
+  }
 }
 
 object CountStarFunction {
@@ -30,6 +30,11 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.compu
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe.GroupingCol
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.CypherRowFactory
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.GroupingAggTable.MAX_SPILL_LEVEL
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.GroupingAggTable.PARTITION_BITS
+import org.neo4j.cypher.internal.runtime.spill.SpillFile
+import org.neo4j.cypher.internal.runtime.spill.SpilledRows
+import org.neo4j.cypher.internal.runtime.spill.Spilling
 import org.neo4j.cypher.internal.util.attribution.Id
 import org.neo4j.kernel.impl.util.collection.HeapTrackingOrderedAppendMap
 import org.neo4j.memory.MemoryTracker
@@ -38,27 +43,40 @@ import org.neo4j.values.AnyValue
 /**
  * This table must be used when we have grouping columns, and there is no provided order for at least one grouping column.
  *
+ * When the memory held by the operator grows past the spill threshold, the groups that are already in the table keep being aggregated
+ * in memory, while the rows of new groups are spilled to disk, partitioned by the hash of their grouping key. Once the in-memory groups
+ * have been returned, each partition is aggregated by a table of its own, which may spill again, using different bits of the hash.
+ *
  * @param groupingColumns  all grouping columns
  * @param groupingFunction a precomputed function to calculate the grouping key of a row
  * @param aggregations     all aggregation columns
+ * @param spilling         when and where to spill rows
+ * @param level            how many times the rows of this table have already been spilled
  */
 class GroupingAggTable(groupingColumns: Array[GroupingCol],
                        groupingFunction: (CypherRow, QueryState) => AnyValue,
                        aggregations: Array[AggregatingCol],
                        state: QueryState,
                        rowFactory: CypherRowFactory,
-                       operatorId: Id) extends AggregationTable {
+                       operatorId: Id,
+                       spilling: Spilling = Spilling.DISABLED,
+                       level: Int = 0) extends AggregationTable {
 
   private[this] var resultMap: HeapTrackingOrderedAppendMap[AnyValue, Array[AggregationFunction]] = _
   private[this] val addKeys: (CypherRow, AnyValue) => Unit = AggregationPipe.computeAddKeysToResultRowFunction(groupingColumns)
   private[this] val memoryTracker = state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(operatorId.x)
   private[this] val newAggregators: Function2[AnyValue, MemoryTracker, Array[AggregationFunction]] =
     computeNewAggregatorsFunction(aggregations.map(_.expression))
+  private[this] val canSpill = spilling.enabled && level < MAX_SPILL_LEVEL
+  private[this] var partitions: Array[SpillFile] = _
+  private[this] var partitionSizes: Array[Long] = _
+  private[this] var newSpilledRow: () => CypherRow = _
 
   protected def close(): Unit = {
     if (resultMap != null) {
       resultMap.close()
     }
+    closePartitions()
   }
 
   override def clear(): Unit = {
@@ -69,7 +87,24 @@ class GroupingAggTable(groupingColumns: Array[GroupingCol],
 
   override def processRow(row: CypherRow): Unit = {
     val groupingValue: AnyValue = groupingFunction(row, state)
-    val aggregationFunctions = resultMap.getIfAbsentPutWithMemoryTracker2(groupingValue, newAggregators)
+    if (partitions == null) {
+      aggregate(row, resultMap.getIfAbsentPutWithMemoryTracker2(groupingValue, newAggregators))
+      if (canSpill && spilling.exceeded(memoryTracker.estimatedHeapMemory()) && SpilledRows.canSpill(row)) {
+        partitions = new Array[SpillFile](1 << PARTITION_BITS)
+        partitionSizes = new Array[Long](1 << PARTITION_BITS)
+        newSpilledRow = SpilledRows.rowFactory(row)
+      }
+    } else {
+      val aggregationFunctions = resultMap.get(groupingValue)
+      if (aggregationFunctions != null) {
+        aggregate(row, aggregationFunctions)
+      } else {
+        spill(row, groupingValue)
+      }
+    }
+  }
+
+  private def aggregate(row: CypherRow, aggregationFunctions: Array[AggregationFunction]): Unit = {
     var i = 0
     while (i < aggregationFunctions.length) {
       aggregationFunctions(i)(row, state)
@@ -77,7 +112,52 @@ class GroupingAggTable(groupingColumns: Array[GroupingCol],
     }
   }
 
+  private def spill(row: CypherRow, groupingValue: AnyValue): Unit = {
+    // Fibonacci hashing, with the bits used for partitioning rotated by the level, so that a spilled partition is split up when it spills again
+    val hash = Integer.rotateLeft(groupingValue.hashCode() * 0x9E3779B9, level * PARTITION_BITS)
+    val partition = hash >>> (Integer.SIZE - PARTITION_BITS)
+    if (partitions(partition) == null) {
+      val file = spilling.newFile(memoryTracker)
+      state.query.resources.trace(file)
+      partitions(partition) = file
+    }
+    SpilledRows.write(row, partitions(partition).writer())
+    partitionSizes(partition) += 1
+  }
+
   override def result(): ClosingIterator[CypherRow] = {
+    if (partitions == null) {
+      inMemoryResult()
+    } else {
+      state.decorator.spilled(operatorId, partitions.filter(_ != null).map(_.bytesWritten()).sum)
+      val spilledPartitions = partitions.indices.filter(partitions(_) != null)
+      inMemoryResult() ++ ClosingIterator(spilledPartitions.iterator).flatMap(aggregatePartition).closing(() => closePartitions())
+    }
+  }
+
+  private def aggregatePartition(partition: Int): ClosingIterator[CypherRow] = {
+    val table = new GroupingAggTable(groupingColumns, groupingFunction, aggregations, state, rowFactory, operatorId, spilling, level + 1)
+    table.clear()
+    val file = partitions(partition)
+    val reader = file.reader()
+    var remaining = partitionSizes(partition)
+    while (remaining > 0) {
+      table.processRow(SpilledRows.read(reader, newSpilledRow()))
+      remaining -= 1
+    }
+    file.close()
+    partitions(partition) = null
+    table.result()
+  }
+
+  private def closePartitions(): Unit = {
+    if (partitions != null) {
+      partitions.foreach(file => if (file != null) file.close())
+      partitions = null
+    }
+  }
+
+  private def inMemoryResult(): ClosingIterator[CypherRow] = {
     val innerIterator = resultMap.autoClosingEntryIterator()
     new ClosingIterator[CypherRow] {
 
@@ -106,11 +186,22 @@ class GroupingAggTable(groupingColumns: Array[GroupingCol],
 
 object GroupingAggTable {
 
+  /**
+   * Spilled rows are partitioned into 2^PARTITION_BITS partitions.
+   */
+  private val PARTITION_BITS = 4
+
+  /**
+   * Partitions that have been spilled this many times are aggregated in memory, no matter how large they are.
+   */
+  private val MAX_SPILL_LEVEL = 4
+
   case class Factory(groupingColumns: Array[GroupingCol],
                      groupingFunction: (CypherRow, QueryState) => AnyValue,
-                     aggregations: Array[AggregatingCol]) extends AggregationTableFactory {
+                     aggregations: Array[AggregatingCol],
+                     spilling: Spilling = Spilling.DISABLED) extends AggregationTableFactory {
     override def table(state: QueryState, rowFactory: CypherRowFactory, operatorId: Id): AggregationTable =
-      new GroupingAggTable(groupingColumns, groupingFunction, aggregations, state, rowFactory, operatorId)
+      new GroupingAggTable(groupingColumns, groupingFunction, aggregations, state, rowFactory, operatorId, spilling)
   }
 
 }
@@ -28,7 +28,7 @@ import org.neo4j.values.AnyValue
 import org.neo4j.values.AnyValues
 import org.neo4j.values.storable.Values
 
-trait MinMax extends AggregationFunction {
+trait MinMax extends AggregationFunction with MergeableAggregationFunction {
   def value: Expression
   def keep(comparisonResult: Int): Boolean
   def name: String
@@ -44,6 +44,13 @@ trait MinMax extends AggregationFunction {
     }
   }
 
+  override def merge(other: AggregationFunction, state: QueryState): Unit = {
+    val partial = other.asInstanceOf[MinMax]
+    if (!(partial.biggestSeen eq Values.NO_VALUE)) {
+      checkIfLargest(partial.biggestSeen)
+    }
+  }
+
   private def checkIfLargest(value: AnyValue) {
     if (biggestSeen eq Values.NO_VALUE) {
       biggestSeen = value
@@ -29,6 +29,7 @@ import org.neo4j.values.utils.ValueMath.overflowSafeAdd
 
 class SumFunction(val value: Expression)
   extends AggregationFunction
+  with MergeableAggregationFunction
   with NumericOrDurationAggregationExpression {
 
   def name = "SUM"
@@ -55,6 +56,20 @@ class SumFunction(val value: Expression)
       }
     )
   }
+
+  override def merge(other: AggregationFunction, state: QueryState): Unit = {
+    val partial = other.asInstanceOf[SumFunction]
+    if (partial.aggregatingType.isDefined) {
+      actOnNumberOrDuration(partial.result(state),
+        number => {
+          sumNumber = overflowSafeAdd(sumNumber, number)
+        },
+        duration => {
+          sumDuration = sumDuration.add(duration)
+        }
+      )
+    }
+  }
 }
 
 object SumFunction {
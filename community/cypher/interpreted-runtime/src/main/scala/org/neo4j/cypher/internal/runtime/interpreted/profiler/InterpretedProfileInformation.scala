@@ -35,12 +35,17 @@ class InterpretedProfileInformation extends QueryProfile {
                           rows: Long,
                           pageCacheHits: Long,
                           pageCacheMisses: Long,
-                          maxAllocatedMemory: Long) extends OperatorProfile {
+                          maxAllocatedMemory: Long,
+                          override val spilledBytes: Long = OperatorProfile.NO_DATA,
+                          override val propertyWalksSaved: Long = OperatorProfile.NO_DATA,
+                          override val csvParseTime: Long = OperatorProfile.NO_DATA,
+                          override val csvWaitTime: Long = OperatorProfile.NO_DATA) extends OperatorProfile {
 
     override def time: Long = OperatorProfile.NO_DATA
 
     override def hashCode: Int = util.Arrays.hashCode(
-      Array(this.time(), this.dbHits, this.rows, this.pageCacheHits, this.pageCacheMisses, this.maxAllocatedMemory))
+      Array(this.time(), this.dbHits, this.rows, this.pageCacheHits, this.pageCacheMisses, this.maxAllocatedMemory, this.spilledBytes,
+        this.propertyWalksSaved, this.csvParseTime, this.csvWaitTime))
 
     override def equals(o: Any): Boolean = o match {
       case that: OperatorProfile =>
@@ -49,7 +54,11 @@ class InterpretedProfileInformation extends QueryProfile {
           this.rows == that.rows &&
           this.pageCacheHits == that.pageCacheHits &&
           this.pageCacheMisses == that.pageCacheMisses &&
-          this.maxAllocatedMemory == that.maxAllocatedMemory()
+          this.maxAllocatedMemory == that.maxAllocatedMemory() &&
+          this.spilledBytes == that.spilledBytes() &&
+          this.propertyWalksSaved == that.propertyWalksSaved() &&
+          this.csvParseTime == that.csvParseTime() &&
+          this.csvWaitTime == that.csvWaitTime()
       case _ => false
     }
 
@@ -59,6 +68,10 @@ class InterpretedProfileInformation extends QueryProfile {
   val pageCacheMap: mutable.Map[Id, PageCacheStats] = mutable.Map.empty.withDefault(_ => PageCacheStats(0,0))
   val dbHitsMap: mutable.Map[Id, Counter] = mutable.Map.empty
   val rowMap: mutable.Map[Id, ProfilingIterator] = mutable.Map.empty
+  val spilledBytesMap: mutable.Map[Id, Long] = mutable.Map.empty.withDefaultValue(0L)
+  val propertyWalksSavedMap: mutable.Map[Id, Long] = mutable.Map.empty.withDefaultValue(0L)
+  val csvParseTimeMap: mutable.Map[Id, Long] = mutable.Map.empty.withDefaultValue(0L)
+  val csvWaitTimeMap: mutable.Map[Id, Long] = mutable.Map.empty.withDefaultValue(0L)
 
   // Intended to be overridden by `setQueryMemoryTracker`
   private var memoryTracker: QueryMemoryTracker = NoOpQueryMemoryTracker
@@ -71,8 +84,13 @@ class InterpretedProfileInformation extends QueryProfile {
     val dbHits = dbHitsMap.get(id).map(_.count).getOrElse(0L)
     val pageCacheStats = pageCacheMap(id)
     val maxMemoryAllocated = MemoryTrackerForOperatorProvider.memoryAsProfileData(memoryTracker.heapHighWaterMarkOfOperator(operatorId))
+    val spilledBytes = spilledBytesMap.get(id).getOrElse(OperatorProfile.NO_DATA)
+    val propertyWalksSaved = propertyWalksSavedMap.get(id).getOrElse(OperatorProfile.NO_DATA)
+    val csvParseTime = csvParseTimeMap.get(id).getOrElse(OperatorProfile.NO_DATA)
+    val csvWaitTime = csvWaitTimeMap.get(id).getOrElse(OperatorProfile.NO_DATA)
 
-    OperatorData(dbHits, rows, pageCacheStats.hits, pageCacheStats.misses, maxMemoryAllocated)
+    OperatorData(dbHits, rows, pageCacheStats.hits, pageCacheStats.misses, maxMemoryAllocated, spilledBytes, propertyWalksSaved, csvParseTime,
+      csvWaitTime)
   }
 
   def snapshot: InterpretedProfileInformationSnapshot = {
@@ -135,6 +135,19 @@ class Profiler(dbmsInfo: DbmsInfo,
     }
   }
 
+  override def spilled(planId: Id, bytes: Long): Unit = {
+    stats.spilledBytesMap(planId) += bytes
+  }
+
+  override def propertyWalksSaved(planId: Id, walks: Long): Unit = {
+    stats.propertyWalksSavedMap(planId) += walks
+  }
+
+  override def csvRead(planId: Id, parseNanos: Long, waitNanos: Long): Unit = {
+    stats.csvParseTimeMap(planId) += parseNanos
+    stats.csvWaitTimeMap(planId) += waitNanos
+  }
+
   private def trackPageCacheStats = {
     dbmsInfo.edition != Edition.COMMUNITY
   }
@@ -150,6 +163,12 @@ class Profiler(dbmsInfo: DbmsInfo,
     override def decorate(planId: Id, state: QueryState, iter: ClosingIterator[CypherRow]): ClosingIterator[CypherRow] = iter
 
     override def afterCreateResults(planId: Id, state: QueryState): Unit = outerProfiler.afterCreateResults(outerPlanId, state)
+
+    override def spilled(planId: Id, bytes: Long): Unit = outerProfiler.spilled(outerPlanId, bytes)
+
+    override def propertyWalksSaved(planId: Id, walks: Long): Unit = outerProfiler.propertyWalksSaved(outerPlanId, walks)
+
+    override def csvRead(planId: Id, parseNanos: Long, waitNanos: Long): Unit = outerProfiler.csvRead(outerPlanId, parseNanos, waitNanos)
   }
 }
 
@@ -360,12 +379,14 @@ final class ProfilingPipeQueryContext(inner: QueryContext, counter: Counter)
     override protected def singleDbHit[A](value: A): A = self.singleDbHit(value)
     override protected def manyDbHits[A](value: ClosingIterator[A]): ClosingIterator[A] = self.manyDbHits(value)
     override protected def manyDbHits[A](value: ClosingLongIterator): ClosingLongIterator = self.manyDbHits(value)
+    override protected def manyDbHits(count: Int): Int = self.manyDbHits(count)
   }
 
   class ProfilerOperations[T, CURSOR](inner: Operations[T, CURSOR]) extends DelegatingOperations[T, CURSOR](inner) {
     override protected def singleDbHit[A](value: A): A = self.singleDbHit(value)
     override protected def manyDbHits[A](value: ClosingIterator[A]): ClosingIterator[A] = self.manyDbHits(value)
     override protected def manyDbHits[A](value: ClosingLongIterator): ClosingLongIterator = self.manyDbHits(value)
+    override protected def manyDbHits(count: Int): Int = self.manyDbHits(count)
   }
 
   override val nodeReadOps: NodeReadOperations = new ProfilerReadOperations(inner.nodeReadOps) with NodeReadOperations
@@ -31,16 +31,28 @@ import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
 import org.neo4j.exceptions.LoadExternalResourceException
 import org.neo4j.internal.kernel.api.AutoCloseablePlus
 import org.neo4j.io.fs.FileUtils
+import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory
+import org.neo4j.memory.LocalMemoryTracker
+import org.neo4j.scheduler.JobScheduler
 import org.neo4j.values.storable.TextValue
 
+import scala.collection.JavaConverters.collectionAsScalaIterableConverter
+
 class CSVResourcesTest extends CypherFunSuite with CreateTempFileTestSupport {
 
   var resources: CSVResources = _
   var cleaner: ResourceManager = _
+  var jobScheduler: JobScheduler = _
 
   override def beforeEach() {
     cleaner = mock[ResourceManager]
     resources = new CSVResources(cleaner)
+    jobScheduler = JobSchedulerFactory.createInitialisedScheduler()
+  }
+
+  override def afterEach() {
+    jobScheduler.close()
+    super.afterEach()
   }
 
   test("should handle strings") {
@@ -246,4 +258,87 @@ class CSVResourcesTest extends CypherFunSuite with CreateTempFileTestSupport {
         r should equal(expected)
     }
   }
+
+  test("should parse rows ahead of the query in batches") {
+    // given
+    val url = createCSVTempFileURL {
+      writer =>
+        writer.println("a\tb")
+        (1 to 10).foreach(i => writer.println(i + "\t\"Bar\n" + i + "\""))
+    }
+    val prefetchingResources = new CSVResources(cleaner, Some(CSVPrefetching(3, jobScheduler)))
+
+    //when
+    val iterator = prefetchingResources.getCsvIterator(new URL(url), List.empty, Some("\t"), legacyCsvQuoteEscaping = false,
+      DEFAULT_BUFFER_SIZE)
+    val result: List[List[String]] = iterator.map(_.map(_.asInstanceOf[TextValue].stringValue).toList).toList
+
+    //then
+    result should equal(List("a", "b") :: (1 to 10).map(i => List(i.toString, s"Bar\n$i")).toList)
+    iterator.lastProcessed should equal(11)
+    iterator.readAll shouldBe true
+    iterator.parseTime should be > 0L
+  }
+
+  test("should propagate failures to parse rows ahead of the query") {
+    // given
+    val url = createCSVTempFileURL {
+      writer =>
+        writer.println("1")
+        writer.println("\"quoted\" and then some")
+    }
+    val prefetchingResources = new CSVResources(cleaner, Some(CSVPrefetching(1, jobScheduler)))
+
+    //when
+    val iterator = prefetchingResources.getCsvIterator(new URL(url), List.empty, None, legacyCsvQuoteEscaping = false,
+      DEFAULT_BUFFER_SIZE)
+
+    //then
+    intercept[IllegalStateException](iterator.toList).getMessage should include(url.replace("file:", ""))
+  }
+
+  test("should stop parsing rows ahead of the query when closed") {
+    // given
+    val url = createCSVTempFileURL {
+      writer =>
+        (1 to 1000).foreach(i => writer.println(i))
+    }
+    val prefetchingResources = new CSVResources(cleaner, Some(CSVPrefetching(2, jobScheduler)))
+
+    //when
+    val iterator = prefetchingResources.getCsvIterator(new URL(url), List.empty, None, legacyCsvQuoteEscaping = false,
+      DEFAULT_BUFFER_SIZE)
+    iterator.next()
+    iterator.close()
+
+    //then
+    val parsers = Thread.getAllStackTraces.values().asScala.filter(_.exists(frame =>
+      frame.getClassName == classOf[PrefetchingLoadCsvIterator].getName && frame.getMethodName == "parse"))
+    parsers shouldBe empty
+  }
+
+  test("should track the memory of rows parsed ahead of the query") {
+    // given
+    val url = createCSVTempFileURL {
+      writer =>
+        (1 to 1000).foreach(i => writer.println(i))
+    }
+    val prefetchingResources = new CSVResources(cleaner, Some(CSVPrefetching(100, jobScheduler)))
+    val memoryTracker = new LocalMemoryTracker()
+
+    //when
+    val iterator = prefetchingResources.getCsvIterator(new URL(url), List.empty, None, legacyCsvQuoteEscaping = false,
+      DEFAULT_BUFFER_SIZE, memoryTracker = memoryTracker)
+    iterator.next()
+
+    //then
+    memoryTracker.estimatedHeapMemory() should be > 0L
+
+    //when
+    iterator.size should equal(999)
+    iterator.close()
+
+    //then
+    memoryTracker.estimatedHeapMemory() should equal(0L)
+  }
 }
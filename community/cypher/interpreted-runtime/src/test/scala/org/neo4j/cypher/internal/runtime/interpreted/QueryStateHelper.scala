@@ -19,11 +19,14 @@
  */
 package org.neo4j.cypher.internal.runtime.interpreted
 
+import java.nio.file.Path
+
 import org.mockito.ArgumentMatchers
 import org.mockito.ArgumentMatchers.any
 import org.mockito.Mockito
 import org.mockito.Mockito.when
 import org.mockito.invocation.InvocationOnMock
+import org.neo4j.cypher.internal.runtime.ClosingIterator
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.ExpressionCursors
 import org.neo4j.cypher.internal.runtime.InputDataStream
@@ -36,8 +39,13 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.ExternalCSVResource
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.NullPipeDecorator
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.PipeDecorator
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.runtime.memory.MemoryTrackerForOperatorProvider
 import org.neo4j.cypher.internal.runtime.memory.NoOpMemoryTrackerForOperatorProvider
 import org.neo4j.cypher.internal.runtime.memory.NoOpQueryMemoryTracker
+import org.neo4j.cypher.internal.runtime.memory.TrackingQueryMemoryTracker
+import org.neo4j.cypher.internal.runtime.spill.SpillDirectory
+import org.neo4j.cypher.internal.runtime.spill.Spilling
+import org.neo4j.cypher.internal.util.attribution.Id
 import org.neo4j.graphdb.Node
 import org.neo4j.graphdb.Relationship
 import org.neo4j.graphdb.spatial.Point
@@ -48,6 +56,7 @@ import org.neo4j.internal.kernel.api.NodeCursor
 import org.neo4j.internal.kernel.api.PropertyCursor
 import org.neo4j.internal.kernel.api.RelationshipScanCursor
 import org.neo4j.internal.kernel.api.TokenReadSession
+import org.neo4j.io.fs.EphemeralFileSystemAbstraction
 import org.neo4j.io.pagecache.context.CursorContext
 import org.neo4j.kernel.GraphDatabaseQueryService
 import org.neo4j.kernel.impl.coreapi.InternalTransaction
@@ -78,7 +87,8 @@ object QueryStateHelper extends MockitoSugar {
                 subscriber: QuerySubscriber = QuerySubscriber.DO_NOTHING_SUBSCRIBER,
                 decorator: PipeDecorator = NullPipeDecorator,
                 initialContext: Option[CypherRow] = None,
-                input: InputDataStream = NoInput
+                input: InputDataStream = NoInput,
+                memoryTrackerForOperatorProvider: MemoryTrackerForOperatorProvider = NoOpMemoryTrackerForOperatorProvider
                ):QueryState =
     new QueryState(query,
       resources,
@@ -90,7 +100,7 @@ object QueryStateHelper extends MockitoSugar {
       expressionVariables,
       subscriber,
       NoOpQueryMemoryTracker,
-      NoOpMemoryTrackerForOperatorProvider,
+      memoryTrackerForOperatorProvider,
       decorator = decorator,
       initialContext = initialContext,
       input = input)
@@ -137,6 +147,34 @@ object QueryStateHelper extends MockitoSugar {
     emptyWith(query = context)
   }
 
+  /**
+   * A query state that tracks the memory of each operator, which is needed for operators to spill to disk.
+   */
+  def emptyWithMemoryTracking(resourceManager: ResourceManager = new ResourceManager, decorator: PipeDecorator = NullPipeDecorator): QueryState = {
+    val context = mock[QueryContext](Mockito.RETURNS_DEEP_STUBS)
+    Mockito.when(context.resources).thenReturn(resourceManager)
+    emptyWith(query = context, decorator = decorator,
+      memoryTrackerForOperatorProvider = new TrackingQueryMemoryTracker().newMemoryTrackerForOperatorProvider(EmptyMemoryTracker.INSTANCE))
+  }
+
+  /**
+   * @return spilling past the given heap usage, to a directory on an in-memory file system
+   */
+  def spilling(threshold: Long): Spilling = {
+    val directory = new SpillDirectory(new EphemeralFileSystemAbstraction, Path.of("spill"))
+    directory.init()
+    Spilling(threshold, directory)
+  }
+
+  class SpillRecordingPipeDecorator extends PipeDecorator {
+    var spilledBytes = 0L
+    override def decorate(planId: Id, state: QueryState): QueryState = state
+    override def afterCreateResults(planId: Id, state: QueryState): Unit = ()
+    override def decorate(planId: Id, state: QueryState, iter: ClosingIterator[CypherRow]): ClosingIterator[CypherRow] = iter
+    override def innerDecorator(planId: Id): PipeDecorator = this
+    override def spilled(planId: Id, bytes: Long): Unit = spilledBytes += bytes
+  }
+
   class TrackClosedMonitor extends ResourceMonitor {
     private val _closedResources = new ArrayBuffer[AutoCloseablePlus]()
     override def trace(resource: AutoCloseablePlus): Unit = ()
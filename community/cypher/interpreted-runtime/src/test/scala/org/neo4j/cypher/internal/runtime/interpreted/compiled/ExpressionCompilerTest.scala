@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.compiled
+
+import org.mockito.ArgumentMatchers.any
+import org.mockito.Mockito.when
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Add
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.CoalesceFunction
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Literal
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Multiply
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.ParameterFromSlot
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Subtract
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Variable
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Ands
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.CoercedPredicate
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Equals
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.GreaterThan
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.IsNull
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.LessThan
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.LessThanOrEqual
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Not
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Ors
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.True
+import org.neo4j.cypher.internal.util.NonEmptyList
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.exceptions.CypherTypeException
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values.FALSE
+import org.neo4j.values.storable.Values.NO_VALUE
+import org.neo4j.values.storable.Values.TRUE
+import org.neo4j.values.storable.Values.intValue
+import org.neo4j.values.storable.Values.stringValue
+import org.neo4j.values.virtual.VirtualValues
+
+class ExpressionCompilerTest extends CypherFunSuite {
+  private val state = QueryStateHelper.emptyWith(params = Array(intValue(42)))
+  private val row = CypherRow.from("x" -> intValue(1), "y" -> intValue(2), "n" -> NO_VALUE, "s" -> stringValue("a"))
+
+  private val nullPredicate = mock[Predicate]
+  when(nullPredicate.apply(any(), any())).thenReturn(NO_VALUE)
+  when(nullPredicate.isMatch(any(), any())).thenReturn(None)
+
+  private val explodingPredicate = mock[Predicate]
+  when(explodingPredicate.apply(any(), any())).thenThrow(new IllegalStateException("there is something wrong"))
+  when(explodingPredicate.isMatch(any(), any())).thenThrow(new IllegalStateException("there is something wrong"))
+
+  test("should compile variables, literals and parameters") {
+    evaluate(Variable("x")) should equal(intValue(1))
+    evaluate(Add(Variable("x"), Literal(intValue(10)))) should equal(intValue(11))
+    evaluate(ParameterFromSlot(0, "p")) should equal(intValue(42))
+  }
+
+  test("should compile arithmetic") {
+    evaluate(Subtract(Multiply(Variable("y"), Literal(intValue(3))), Variable("x"))) should equal(intValue(5))
+    evaluate(Add(Variable("x"), Variable("n"))) should equal(NO_VALUE)
+    evaluate(Add(Variable("s"), Variable("x"))) should equal(stringValue("a1"))
+  }
+
+  test("should compile comparisons") {
+    evaluate(Equals(Variable("x"), Literal(intValue(1)))) should equal(TRUE)
+    evaluate(Equals(Variable("x"), Variable("n"))) should equal(NO_VALUE)
+    evaluate(LessThan(Variable("x"), Variable("y"))) should equal(TRUE)
+    evaluate(LessThanOrEqual(Variable("y"), Variable("x"))) should equal(FALSE)
+    evaluate(GreaterThan(Variable("x"), Variable("n"))) should equal(NO_VALUE)
+    evaluate(GreaterThan(Variable("s"), Variable("x"))) should equal(NO_VALUE)
+  }
+
+  test("should compile null checks, negation and coercion") {
+    evaluate(IsNull(Variable("n"))) should equal(TRUE)
+    evaluate(Not(IsNull(Variable("x")))) should equal(TRUE)
+    evaluate(Not(nullPredicate)) should equal(NO_VALUE)
+    evaluate(CoercedPredicate(Literal(VirtualValues.list(intValue(1))))) should equal(TRUE)
+    evaluate(CoercedPredicate(Variable("n"))) should equal(NO_VALUE)
+    a[CypherTypeException] should be thrownBy evaluate(CoercedPredicate(Variable("x")))
+  }
+
+  test("should compile ands like the interpreted ands") {
+    evaluate(ands(T, nullPredicate)) should equal(NO_VALUE)
+    evaluate(ands(F, explodingPredicate)) should equal(FALSE)
+    evaluate(ands(explodingPredicate, F)) should equal(FALSE)
+    evaluate(ands(T, T)) should equal(TRUE)
+    evaluate(ands(nullPredicate, F)) should equal(FALSE)
+    an[IllegalStateException] should be thrownBy evaluate(ands(nullPredicate, explodingPredicate, T))
+  }
+
+  test("should compile ors like the interpreted ors") {
+    evaluate(ors(F, nullPredicate)) should equal(NO_VALUE)
+    evaluate(ors(T, explodingPredicate)) should equal(TRUE)
+    evaluate(ors(explodingPredicate, T)) should equal(TRUE)
+    evaluate(ors(F, F)) should equal(FALSE)
+    evaluate(ors(nullPredicate, T)) should equal(TRUE)
+    an[IllegalStateException] should be thrownBy evaluate(ors(explodingPredicate, nullPredicate))
+  }
+
+  test("should fall back to the interpreted expression for unsupported sub-expressions") {
+    evaluate(Add(CoalesceFunction(Variable("n"), Variable("y")), Variable("x"))) should equal(intValue(3))
+  }
+
+  test("should not compile expressions with an unsupported root") {
+    ExpressionCompiler.compile(CoalesceFunction(Variable("n"), Variable("y"))) should be(None)
+  }
+
+  /**
+   * Evaluates the expression both compiled and interpreted, and makes sure the results are the same.
+   */
+  private def evaluate(expression: Expression): AnyValue = {
+    val compiled = ExpressionCompiler.compile(expression).getOrElse(fail(s"Expected $expression to compile"))
+    compiled shouldBe a[CompiledExpression]
+    val interpreted = expression(row, state)
+    val result = compiled(row, state)
+    result should equal(interpreted)
+    result
+  }
+
+  private def ands(predicate: Predicate, predicates: Predicate*) = Ands(NonEmptyList(predicate, predicates: _*))
+  private def ors(predicate: Predicate, predicates: Predicate*) = Ors(NonEmptyList(predicate, predicates: _*))
+  private def T = True()
+  private def F = Not(True())
+}
@@ -35,6 +35,7 @@ import org.neo4j.cypher.internal.runtime.ResourceManager
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.ExternalCSVResource
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.LoadCsvIterator
 import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.memory.EmptyMemoryTracker
 import org.neo4j.values.storable.Value
 import org.neo4j.values.storable.Values
 
@@ -48,7 +49,7 @@ class LoadCsvPeriodicCommitObserverTest extends CypherFunSuite {
 
   test("should not trigger tx restart until after first batch has been processed") {
     // Given
-    when(resource.getCsvIterator(ArgumentMatchers.eq(url), ArgumentMatchers.eq(List.empty), any(), anyBoolean(), anyInt(), anyBoolean())).thenReturn(getIterator(Iterator(
+    when(resource.getCsvIterator(ArgumentMatchers.eq(url), ArgumentMatchers.eq(List.empty), any(), anyBoolean(), anyInt(), anyBoolean(), any())).thenReturn(getIterator(Iterator(
       Array("Row1"),
       Array("Row2"))))
 
@@ -64,7 +65,7 @@ class LoadCsvPeriodicCommitObserverTest extends CypherFunSuite {
 
   test("headers should not count") {
     // given
-    when(resource.getCsvIterator(ArgumentMatchers.eq(url), ArgumentMatchers.eq(List.empty), any(), anyBoolean(), anyInt(), ArgumentMatchers.eq(true))).thenReturn(getIterator(Iterator(
+    when(resource.getCsvIterator(ArgumentMatchers.eq(url), ArgumentMatchers.eq(List.empty), any(), anyBoolean(), anyInt(), ArgumentMatchers.eq(true), any())).thenReturn(getIterator(Iterator(
       Array("header"),
       Array("Row1"),
       Array("Row2"),
@@ -90,7 +91,7 @@ class LoadCsvPeriodicCommitObserverTest extends CypherFunSuite {
 
   test("multiple iterators are still handled correctly only commit when the first iterator advances") {
     // Given
-    when(resource.getCsvIterator(ArgumentMatchers.eq(url), ArgumentMatchers.eq(List.empty), any(), anyBoolean(), anyInt(), anyBoolean())).
+    when(resource.getCsvIterator(ArgumentMatchers.eq(url), ArgumentMatchers.eq(List.empty), any(), anyBoolean(), anyInt(), anyBoolean(), any())).
       thenReturn(getIterator(Iterator(Array("outer1"),Array("outer2")))).
       thenReturn(getIterator(Iterator(Array("inner1"),Array("inner2"),Array("inner3"),Array("inner4"))))
     val iterator1 = resourceUnderTest.getCsvIterator(url, List.empty, fieldTerminator = None, legacyCsvQuoteEscaping = false,
@@ -116,7 +117,7 @@ class LoadCsvPeriodicCommitObserverTest extends CypherFunSuite {
 
     // When
     verify(resource).getCsvIterator(url, List.empty, Some(";"), legacyCsvQuoteEscaping = false,
-      DEFAULT_BUFFER_SIZE, false)
+      DEFAULT_BUFFER_SIZE, false, EmptyMemoryTracker.INSTANCE)
   }
 
   override protected def beforeEach() {
@@ -28,11 +28,16 @@ import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.ImplicitValueConversion.toNodeValue
 import org.neo4j.cypher.internal.runtime.ResourceManager
 import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper.SpillRecordingPipeDecorator
 import org.neo4j.cypher.internal.runtime.interpreted.TestableIterator
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.GraceHashJoin.HashJoinTable
+import org.neo4j.cypher.internal.runtime.spill.SpillFile
+import org.neo4j.cypher.internal.util.attribution.Id
 import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
 import org.neo4j.graphdb.Node
-import org.neo4j.kernel.impl.util.collection
 import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values.intValue
+import org.neo4j.values.virtual.VirtualValues.node
 
 class NodeHashJoinPipeTest extends CypherFunSuite {
 
@@ -109,7 +114,7 @@ class NodeHashJoinPipeTest extends CypherFunSuite {
     NodeHashJoinPipe(Set("n"), left, right)().createResults(queryState).toList
 
     // then
-    monitor.closedResources.collect { case t: collection.ProbeTable[_, _] => t } should have size(1)
+    monitor.closedResources.collect { case t: HashJoinTable => t } should have size(1)
   }
 
   test("close should close table") {
@@ -128,7 +133,33 @@ class NodeHashJoinPipeTest extends CypherFunSuite {
     result.close()
 
     // then
-    monitor.closedResources.collect { case t: collection.ProbeTable[_, _] => t } should have size(1)
+    monitor.closedResources.collect { case t: HashJoinTable => t } should have size(1)
+  }
+
+  test("should spill partitions to disk and keep the order of the RHS when the probe table uses too much memory") {
+    // given
+    val monitor = QueryStateHelper.trackClosedMonitor
+    val decorator = new SpillRecordingPipeDecorator
+    val queryState = QueryStateHelper.emptyWithMemoryTracking(new ResourceManager(monitor), decorator)
+
+    val lhs = (0 until 1000).map(i => Map[String, Any]("n" -> node(i % 100), "a" -> i))
+    val rhs = (0 until 300).map(i => Map[String, Any]("n" -> node((i * 7) % 150), "b" -> i))
+
+    // when
+    val result = NodeHashJoinPipe(Set("n"), new FakePipe(lhs), new FakePipe(rhs), spilling = QueryStateHelper.spilling(10000))(Id(1))
+      .createResults(queryState).map(row => (row.getByName("b"), row.getByName("a"))).toList
+
+    // then
+    val expected = for {
+      r <- rhs
+      l <- lhs if l("n") == r("n")
+    } yield (intValue(r("b").asInstanceOf[Int]), intValue(l("a").asInstanceOf[Int]))
+    result.map(_._1) should equal(expected.map(_._1))
+    result.toSet should equal(expected.toSet)
+    decorator.spilledBytes should be > 0L
+    val spillFiles = monitor.closedResources.collect { case f: SpillFile => f }
+    spillFiles should not be empty
+    spillFiles.forall(_.isClosed) shouldBe true
   }
 
   private def row(values: (String, AnyValue)*) = CypherRow.from(values: _*)
@@ -23,8 +23,12 @@ import org.junit.jupiter.api.Assertions.assertEquals
 import org.neo4j.cypher.internal.runtime.interpreted.Ascending
 import org.neo4j.cypher.internal.runtime.interpreted.Descending
 import org.neo4j.cypher.internal.runtime.interpreted.InterpretedExecutionContextOrdering
+import org.neo4j.cypher.internal.runtime.ResourceManager
 import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper.SpillRecordingPipeDecorator
 import org.neo4j.cypher.internal.runtime.interpreted.ValueComparisonHelper.beEquivalentTo
+import org.neo4j.cypher.internal.runtime.spill.SpillFile
+import org.neo4j.cypher.internal.util.attribution.Id
 import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
 import org.neo4j.values.storable.Values
 import org.neo4j.values.storable.Values.intValue
@@ -91,4 +95,21 @@ class SortPipeTest extends CypherFunSuite with MockitoSugar {
       Map("y" -> intValue(2)),
       Map("y" -> Values.NO_VALUE)))
   }
+
+  test("should spill sorted runs to disk and merge them when the rows use too much memory") {
+    val input = (0 until 1000).map(i => Map[String, Any]("x" -> (i * 31) % 97, "y" -> i))
+    val monitor = QueryStateHelper.trackClosedMonitor
+    val decorator = new SpillRecordingPipeDecorator
+    val sortPipe = SortPipe(new FakePipe(input), InterpretedExecutionContextOrdering.asComparator(List(Ascending("x"))), spilling = QueryStateHelper.spilling(10000))(Id(1))
+
+    val state = QueryStateHelper.emptyWithMemoryTracking(new ResourceManager(monitor), decorator)
+    val result = sortPipe.createResults(state).map(row => (row.getByName("x"), row.getByName("y"))).toList
+
+    // sortBy is stable, and so is the merge of the spilled runs
+    result should equal(input.sortBy(_("x").asInstanceOf[Int]).map(m => (intValue(m("x").asInstanceOf[Int]), intValue(m("y").asInstanceOf[Int]))))
+    decorator.spilledBytes should be > 0L
+    val spillFiles = monitor.closedResources.collect { case f: SpillFile => f }
+    spillFiles should not be empty
+    spillFiles.forall(_.isClosed) shouldBe true
+  }
 }
@@ -25,7 +25,9 @@ import org.neo4j.cypher.internal.runtime.interpreted.Ascending
 import org.neo4j.cypher.internal.runtime.interpreted.Descending
 import org.neo4j.cypher.internal.runtime.interpreted.InterpretedExecutionContextOrdering
 import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper.SpillRecordingPipeDecorator
 import org.neo4j.cypher.internal.runtime.interpreted.commands.LiteralHelper.literal
+import org.neo4j.cypher.internal.util.attribution.Id
 import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
 import org.neo4j.kernel.impl.util.ValueUtils
 
@@ -146,6 +148,16 @@ class TopNPipeTest extends CypherFunSuite {
     monitor.closedResources.collect { case t: DefaultComparatorTopTable[_] => t } should have size(1)
   }
 
+  test("should spill top rows to disk and merge them when they use too much memory") {
+    val in = new Random(1337).shuffle((0 until 1000).toList).map(i => Map("a" -> i))
+    val decorator = new SpillRecordingPipeDecorator
+    val pipe = TopNPipe(new FakePipe(in), literal(200), InterpretedExecutionContextOrdering.asComparator(List(Ascending("a"))), spilling = QueryStateHelper.spilling(10000))(Id(1))
+    val result = pipe.createResults(QueryStateHelper.emptyWithMemoryTracking(decorator = decorator)).map(ctx => ctx.getByName("a")).toList
+
+    result should equal(list(0 until 200: _*))
+    decorator.spilledBytes should be > 0L
+  }
+
   private def list(a: Any*) = a.map(ValueUtils.of).toList
 
   private def createFakePipeWith(count: Int): FakePipe = {
@@ -29,11 +29,14 @@ import org.neo4j.cypher.internal.runtime.ImplicitValueConversion.toIntValue
 import org.neo4j.cypher.internal.runtime.ResourceManager
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContextHelper.RichExecutionContext
 import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper.SpillRecordingPipeDecorator
 import org.neo4j.cypher.internal.runtime.interpreted.TestableIterator
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.GraceHashJoin.HashJoinTable
 import org.neo4j.cypher.internal.runtime.interpreted.ValueComparisonHelper.beEquivalentTo
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Variable
+import org.neo4j.cypher.internal.runtime.spill.SpillFile
+import org.neo4j.cypher.internal.util.attribution.Id
 import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
-import org.neo4j.kernel.impl.util.collection
 import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.Values.doubleArray
 import org.neo4j.values.storable.Values.intArray
@@ -200,7 +203,7 @@ class ValueHashJoinPipeTest extends CypherFunSuite {
     ValueHashJoinPipe(Variable("a"), Variable("b"), left, right)().createResults(queryState).toList
 
     // then
-    monitor.closedResources.collect { case t: collection.ProbeTable[_, _] => t } should have size(1)
+    monitor.closedResources.collect { case t: HashJoinTable => t } should have size(1)
   }
 
   test("close should close table") {
@@ -216,7 +219,33 @@ class ValueHashJoinPipeTest extends CypherFunSuite {
     result.close()
 
     // then
-    monitor.closedResources.collect { case t: collection.ProbeTable[_, _] => t } should have size(1)
+    monitor.closedResources.collect { case t: HashJoinTable => t } should have size(1)
+  }
+
+  test("should spill partitions to disk and keep the order of the RHS when the probe table uses too much memory") {
+    // given
+    val monitor = QueryStateHelper.trackClosedMonitor
+    val decorator = new SpillRecordingPipeDecorator
+    val queryState = QueryStateHelper.emptyWithMemoryTracking(new ResourceManager(monitor), decorator)
+
+    val lhs = (0 until 1000).map(i => Map[String, Any]("a" -> i % 100, "a2" -> i))
+    val rhs = (0 until 300).map(i => Map[String, Any]("b" -> (i * 7) % 150, "b2" -> i))
+
+    // when
+    val result = ValueHashJoinPipe(Variable("a"), Variable("b"), new FakePipe(lhs), new FakePipe(rhs), spilling = QueryStateHelper.spilling(10000))(Id(1))
+      .createResults(queryState).map(row => (row.getByName("b2"), row.getByName("a2"))).toList
+
+    // then
+    val expected = for {
+      r <- rhs
+      l <- lhs if l("a") == r("b")
+    } yield (intValue(r("b2").asInstanceOf[Int]), intValue(l("a2").asInstanceOf[Int]))
+    result.map(_._1) should equal(expected.map(_._1))
+    result.toSet should equal(expected.toSet)
+    decorator.spilledBytes should be > 0L
+    val spillFiles = monitor.closedResources.collect { case f: SpillFile => f }
+    spillFiles should not be empty
+    spillFiles.forall(_.isClosed) shouldBe true
   }
 
   private def row(values: (String, AnyValue)*) = CypherRow.from(values: _*)
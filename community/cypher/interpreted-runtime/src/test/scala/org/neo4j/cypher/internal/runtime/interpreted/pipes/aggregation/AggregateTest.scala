@@ -35,4 +35,19 @@ trait AggregateTest {
     values.foreach(value => func(CypherRow.from("x" -> value), state))
     func.result(state)
   }
+
+  /**
+   * Aggregates each part of the values with a function of its own, and merges the functions.
+   */
+  def aggregateAndMergeOn(parts: Seq[AnyValue]*): Any = {
+    val state = QueryStateHelper.empty
+
+    val func = createAggregator(Variable("x")).asInstanceOf[MergeableAggregationFunction]
+    parts.foreach { values =>
+      val partial = createAggregator(Variable("x"))
+      values.foreach(value => partial(CypherRow.from("x" -> value), state))
+      func.merge(partial, state)
+    }
+    func.result(state)
+  }
 }
@@ -107,4 +107,22 @@ class AvgFunctionTest extends CypherFunSuite with AggregateTest {
 
     result should equal(NO_VALUE)
   }
+
+  test("mergedPartsAverageAllValues") {
+    val result = aggregateAndMergeOn(Seq(intValue(1), intValue(2), intValue(3)), Seq.empty, Seq(NO_VALUE, intValue(10)))
+
+    result should equal(doubleValue(4.0))
+  }
+
+  test("mergedDurationsAverageAllDurations") {
+    val result = aggregateAndMergeOn(Seq(DurationValue.duration(0, 3, 0, 1)), Seq(DurationValue.duration(0, 2, 2, 1)))
+
+    result should equal(DurationValue.duration(0, 2, 12 * 3600 + 1, 1))
+  }
+
+  test("mergingOnlyNullsIsNull") {
+    val result = aggregateAndMergeOn(Seq(NO_VALUE), Seq.empty)
+
+    result should equal(NO_VALUE)
+  }
 }
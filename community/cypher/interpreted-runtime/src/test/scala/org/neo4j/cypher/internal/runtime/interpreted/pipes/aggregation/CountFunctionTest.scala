@@ -35,4 +35,11 @@ class CountFunctionTest extends CypherFunSuite with AggregateTest {
     result should equal(intValue(2))
     result shouldBe a [LongValue]
   }
+
+  test("mergedPartsCountAllValues") {
+    val result = aggregateAndMergeOn(Seq(intValue(1), NO_VALUE), Seq.empty, Seq(stringValue("foo"), intValue(2)))
+
+    result should equal(intValue(3))
+    result shouldBe a [LongValue]
+  }
 }
@@ -22,12 +22,14 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.ResourceManager
 import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper.SpillRecordingPipeDecorator
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.CountStar
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Variable
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.CommunityCypherRowFactory
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe
 import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.cypher.internal.runtime.spill.SpillFile
 import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
 import org.neo4j.kernel.impl.util.collection.HeapTrackingOrderedAppendMap
 import org.neo4j.values.storable.Values
@@ -59,4 +61,29 @@ class GroupingAggTableTest extends CypherFunSuite {
     // then
     monitor.closedResources.collect { case t: HeapTrackingOrderedAppendMap[_, _] => t } should have size 1
   }
+
+  test("should spill rows of new groups to disk and aggregate them later when the table uses too much memory") {
+    val monitor = QueryStateHelper.trackClosedMonitor
+    val decorator = new SpillRecordingPipeDecorator
+    val table = new GroupingAggTable(
+      Array(DistinctPipe.GroupingCol("a", Variable("a"))),
+      { case (row, _) => row.getByName("a")},
+      Array(AggregationPipe.AggregatingCol("c", CountStar())),
+      QueryStateHelper.emptyWithMemoryTracking(new ResourceManager(monitor), decorator),
+      CommunityCypherRowFactory(),
+      Id(0),
+      spilling = QueryStateHelper.spilling(10000))
+    table.clear()
+
+    for (i <- 0 until 5000) {
+      table.processRow(CypherRow.from("a" -> Values.intValue(i % 1000)))
+    }
+
+    val result = table.result().map(row => (row.getByName("a"), row.getByName("c"))).toList
+    result should contain theSameElementsAs (0 until 1000).map(i => (Values.intValue(i), Values.longValue(5)))
+    decorator.spilledBytes should be > 0L
+    val spillFiles = monitor.closedResources.collect { case f: SpillFile => f }
+    spillFiles should not be empty
+    spillFiles.forall(_.isClosed) shouldBe true
+  }
 }
@@ -76,4 +76,10 @@ class MaxFunctionTest extends CypherFunSuite with AggregateTest {
 
     result should equal(stringValue("abc1"))
   }
+
+  test("mergedPartsReturnTheLargestOfAllValues") {
+    val result = aggregateAndMergeOn(Seq(intValue(3), intValue(1)), Seq(Values.NO_VALUE), Seq(intValue(7), intValue(2)), Seq.empty)
+
+    result should equal(intValue(7))
+  }
 }
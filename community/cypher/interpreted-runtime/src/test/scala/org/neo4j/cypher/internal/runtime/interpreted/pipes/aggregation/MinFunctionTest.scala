@@ -77,5 +77,11 @@ class MinFunctionTest extends CypherFunSuite with AggregateTest {
     result should equal(stringValue("a"))
   }
 
+  test("mergedPartsReturnTheSmallestOfAllValues") {
+    val result = aggregateAndMergeOn(Seq(intValue(3), intValue(1)), Seq(Values.NO_VALUE), Seq(intValue(7), intValue(-2)), Seq.empty)
+
+    result should equal(intValue(-2))
+  }
+
   def createAggregator(inner: Expression) = new MinFunction(inner)
 }
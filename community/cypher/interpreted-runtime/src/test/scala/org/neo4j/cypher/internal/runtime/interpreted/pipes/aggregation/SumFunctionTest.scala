@@ -126,4 +126,23 @@ class SumFunctionTest extends CypherFunSuite with AggregateTest {
     result should equal(longValue(expected))
     result shouldBe a [LongValue]
   }
+
+  test("mergedPartsSumToTheSumOfAllValues") {
+    val result = aggregateAndMergeOn(Seq(intValue(1), intValue(2)), Seq.empty, Seq(NO_VALUE, longValue(3)))
+
+    result should equal(longValue(6))
+    result shouldBe a [LongValue]
+  }
+
+  test("mergedDurationsSumToTheSumOfAllDurations") {
+    val result = aggregateAndMergeOn(Seq(DurationValue.duration(0, 1, 0, 0)), Seq(DurationValue.duration(0, 2, 3, 0)))
+
+    result should equal(DurationValue.duration(0, 3, 3, 0))
+  }
+
+  test("mergingNumbersAndDurationsFails") {
+    a[CypherTypeException] shouldBe thrownBy {
+      aggregateAndMergeOn(Seq(intValue(1)), Seq(DurationValue.duration(0, 1, 0, 0)))
+    }
+  }
 }
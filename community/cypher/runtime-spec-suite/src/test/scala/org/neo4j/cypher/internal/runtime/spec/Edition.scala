@@ -24,14 +24,18 @@ import org.neo4j.configuration.Config
 import org.neo4j.configuration.GraphDatabaseSettings
 import org.neo4j.cypher.internal.CommunityRuntimeContextManager
 import org.neo4j.cypher.internal.CypherRuntimeConfiguration
+import org.neo4j.cypher.internal.ParallelAggregationResources
 import org.neo4j.cypher.internal.RuntimeContext
 import org.neo4j.cypher.internal.RuntimeContextManager
 import org.neo4j.cypher.internal.config.CypherConfiguration
 import org.neo4j.cypher.internal.options.CypherOperatorEngineOption
 import org.neo4j.dbms.api.DatabaseManagementService
 import org.neo4j.graphdb.config.Setting
+import org.neo4j.kernel.api.Kernel
 import org.neo4j.kernel.lifecycle.LifeSupport
 import org.neo4j.logging.LogProvider
+import org.neo4j.scheduler.Group
+import org.neo4j.scheduler.JobScheduler
 import org.neo4j.test.TestDatabaseManagementServiceBuilder
 
 import java.lang.Boolean.TRUE
@@ -96,6 +100,11 @@ class Edition[CONTEXT <: RuntimeContext](graphBuilderFactory: () => TestDatabase
 object COMMUNITY {
   val EDITION = new Edition(
     () => new TestDatabaseManagementServiceBuilder,
-    (runtimeConfig, _, _, logProvider) => CommunityRuntimeContextManager(logProvider.getLog("test"), runtimeConfig),
+    (runtimeConfig, resolver, _, logProvider) => {
+      val parallelAggregationResources = ParallelAggregationResources(
+        resolver.resolveDependency(classOf[JobScheduler]).executor(Group.CYPHER_WORKER),
+        resolver.resolveDependency(classOf[Kernel]).cursors())
+      CommunityRuntimeContextManager(logProvider.getLog("test"), runtimeConfig, Some(parallelAggregationResources))
+    },
     GraphDatabaseSettings.cypher_hints_error -> TRUE)
 }
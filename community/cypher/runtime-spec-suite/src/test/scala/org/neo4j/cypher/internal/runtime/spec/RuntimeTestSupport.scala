@@ -32,6 +32,7 @@ import org.neo4j.cypher.internal.config.CypherConfiguration
 import org.neo4j.cypher.internal.javacompat.GraphDatabaseCypherService
 import org.neo4j.cypher.internal.logical.plans.Prober
 import org.neo4j.cypher.internal.options.CypherDebugOptions
+import org.neo4j.cypher.internal.options.CypherParallelAggregationOption
 import org.neo4j.cypher.internal.options.CypherVersion
 import org.neo4j.cypher.internal.plandescription.InternalPlanDescription
 import org.neo4j.cypher.internal.plandescription.PlanDescriptionBuilder
@@ -348,7 +349,8 @@ class RuntimeTestSupport[CONTEXT <: RuntimeContext](val graphDb: GraphDatabaseSe
                                  materializedEntitiesMode = queryOptions.materializedEntitiesMode,
                                  operatorEngine = queryOptions.queryOptions.operatorEngine,
                                  interpretedPipesFallback = queryOptions.queryOptions.interpretedPipesFallback,
-                                 anonymousVariableNameGenerator = new AnonymousVariableNameGenerator())
+                                 anonymousVariableNameGenerator = new AnonymousVariableNameGenerator(),
+                                 parallelAggregation = queryOptions.queryOptions.parallelAggregation == CypherParallelAggregationOption.enabled)
   }
 
   private def newQueryContext(txContext: TransactionalContext, readOnly: Boolean, maybeExecutionResources: Option[(CursorFactory, ResourceManagerFactory)] = None): QueryContext = {
@@ -19,8 +19,10 @@
  */
 package org.neo4j.cypher.internal.runtime.spec.interpreted
 
+import org.neo4j.configuration.GraphDatabaseInternalSettings
 import org.neo4j.cypher.internal.CommunityRuntimeContext
 import org.neo4j.cypher.internal.InterpretedRuntime
+import org.neo4j.cypher.internal.ir.NoHeaders
 import org.neo4j.cypher.internal.runtime.spec.COMMUNITY
 import org.neo4j.cypher.internal.runtime.spec.LogicalQueryBuilder
 import org.neo4j.cypher.internal.runtime.spec.interpreted.InterpretedSpecSuite.SIZE_HINT
@@ -168,12 +170,20 @@ import org.neo4j.cypher.internal.runtime.spec.tests.stress.RelationshipIndexScan
 import org.neo4j.cypher.internal.runtime.spec.tests.stress.RelationshipIndexSeekConcurrencyStressTestBase
 import org.neo4j.cypher.internal.runtime.spec.tests.stress.RelationshipTypeReadConcurrencyStressTestBase
 import org.neo4j.cypher.internal.runtime.spec.tests.stress.RelationshipTypeScanConcurrencyStressTestBase
+import org.neo4j.cypher.result.OperatorProfile
+
+import java.lang.Boolean.TRUE
 
 object InterpretedSpecSuite {
   val SIZE_HINT = 200
 }
 
 class InterpretedAggregationTest extends AggregationTestBase(COMMUNITY.EDITION, InterpretedRuntime, SIZE_HINT) with UserDefinedAggregationSupport[CommunityRuntimeContext]
+class InterpretedParallelAggregationTest extends AggregationTestBase(
+  COMMUNITY.EDITION.copyWith(
+    GraphDatabaseInternalSettings.cypher_parallel_aggregation -> TRUE,
+    GraphDatabaseInternalSettings.cypher_parallel_aggregation_workers -> Integer.valueOf(4)),
+  InterpretedRuntime, SIZE_HINT)
 class InterpretedOrderedAggregationTest extends OrderedAggregationTestBase(COMMUNITY.EDITION, InterpretedRuntime, SIZE_HINT)
 class InterpretedAllNodeScanTest extends AllNodeScanTestBase(COMMUNITY.EDITION, InterpretedRuntime, SIZE_HINT)
                                  with AllNodeScanWithOtherOperatorsTestBase[CommunityRuntimeContext]
@@ -212,6 +222,31 @@ class InterpretedMultiNodeIndexSeekTest extends MultiNodeIndexSeekTestBase(COMMU
 class InterpretedInputTest extends InputTestBase(COMMUNITY.EDITION, InterpretedRuntime, SIZE_HINT)
 class InterpretedLoadCsvTest extends LoadCsvTestBase(COMMUNITY.EDITION, InterpretedRuntime, SIZE_HINT)
                                 with LoadCsvWithMergeTestBase[CommunityRuntimeContext]
+class InterpretedPrefetchingLoadCsvTest extends LoadCsvTestBase(
+  COMMUNITY.EDITION.copyWith(GraphDatabaseInternalSettings.load_csv_prefetch_rows -> Integer.valueOf(16)), InterpretedRuntime, SIZE_HINT)
+                                with LoadCsvWithMergeTestBase[CommunityRuntimeContext] {
+  test("should profile the time spent parsing csv ahead of the query") {
+    // given
+    val url = multipleColumnCsvFile()
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("x")
+      .projection("line[0] as x")
+      .loadCSV(url, variableName = "line", NoHeaders)
+      .argument()
+      .build()
+
+    val runtimeResult = profile(logicalQuery, runtime)
+    consume(runtimeResult)
+
+    // then
+    val queryProfile = runtimeResult.runtimeResult.queryProfile()
+    queryProfile.operatorProfile(2).csvParseTime() should be > 0L // loadCSV
+    queryProfile.operatorProfile(2).csvWaitTime() should be >= 0L // loadCSV
+    queryProfile.operatorProfile(1).csvParseTime() shouldBe OperatorProfile.NO_DATA // projection
+  }
+}
 class InterpretedPartialSortTest extends PartialSortTestBase(COMMUNITY.EDITION, InterpretedRuntime, SIZE_HINT)
 class InterpretedTopTest extends TopTestBase(COMMUNITY.EDITION, InterpretedRuntime, SIZE_HINT)
 class InterpretedTop1WithTiesTest extends Top1WithTiesTestBase(COMMUNITY.EDITION, InterpretedRuntime, SIZE_HINT)
@@ -221,7 +256,29 @@ class InterpretedPartialTop1Test extends PartialTop1TestBase(COMMUNITY.EDITION,
 class InterpretedFilterTest extends FilterTestBase(COMMUNITY.EDITION, InterpretedRuntime, SIZE_HINT)
 class InterpretedArgumentTest extends ArgumentTestBase(COMMUNITY.EDITION, InterpretedRuntime, SIZE_HINT)
 class InterpretedProjectionTest extends ProjectionTestBase(COMMUNITY.EDITION, InterpretedRuntime, SIZE_HINT)
-class InterpretedCachePropertiesTest extends CachePropertiesTestBase(COMMUNITY.EDITION, InterpretedRuntime, SIZE_HINT)
+class InterpretedCachePropertiesTest extends CachePropertiesTestBase(COMMUNITY.EDITION, InterpretedRuntime, SIZE_HINT) {
+  test("should profile property walks saved by reading the properties of the same node together") {
+    given { nodePropertyGraph(SIZE_HINT, { case i => Map("p" -> i, "q" -> i, "r" -> i) }) }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("p", "q", "r")
+      .projection("n.p AS p", "n.q AS q", "cache[n.r] AS r")
+      .cacheProperties("cache[n.r]", "cache[n.s]", "cache[n.p]")
+      .allNodeScan("n")
+      .build()
+
+    val runtimeResult = profile(logicalQuery, runtime)
+    consume(runtimeResult)
+
+    // then
+    val queryProfile = runtimeResult.runtimeResult.queryProfile()
+    queryProfile.operatorProfile(1).propertyWalksSaved() shouldBe SIZE_HINT // projection
+    queryProfile.operatorProfile(1).dbHits() shouldBe 2 * SIZE_HINT // projection
+    queryProfile.operatorProfile(2).propertyWalksSaved() shouldBe SIZE_HINT // cacheProperties, n.s does not exist
+    queryProfile.operatorProfile(2).dbHits() shouldBe 3 * SIZE_HINT // cacheProperties, including looking up the token of n.s
+  }
+}
 class InterpretedUnwindTest extends UnwindTestBase(COMMUNITY.EDITION, InterpretedRuntime, SIZE_HINT)
 class InterpretedDistinctTest extends DistinctTestBase(COMMUNITY.EDITION, InterpretedRuntime, SIZE_HINT)
 class InterpretedOrderedDistinctTest extends OrderedDistinctTestBase(COMMUNITY.EDITION, InterpretedRuntime, SIZE_HINT)
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.spec.interpreted
+
+import org.neo4j.cypher.internal.CommunityRuntimeContext
+import org.neo4j.cypher.internal.SlottedRowsInterpretedRuntime
+import org.neo4j.cypher.internal.runtime.spec.COMMUNITY
+import org.neo4j.cypher.internal.runtime.spec.interpreted.InterpretedSpecSuite.SIZE_HINT
+import org.neo4j.cypher.internal.runtime.spec.tests.AggregationTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.AllNodeScanTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ApplyTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.CachePropertiesTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.CreateTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ExpandAllTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ExpandAllWithOtherOperatorsTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.NodeHashJoinTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.OptionalExpandAllTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.OptionalTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.ProjectionTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.SortTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.UnwindTestBase
+import org.neo4j.cypher.internal.runtime.spec.tests.VarLengthExpandTestBase
+
+class SlottedRowsAggregationTest extends AggregationTestBase(COMMUNITY.EDITION, SlottedRowsInterpretedRuntime, SIZE_HINT)
+class SlottedRowsAllNodeScanTest extends AllNodeScanTestBase(COMMUNITY.EDITION, SlottedRowsInterpretedRuntime, SIZE_HINT)
+class SlottedRowsApplyTest extends ApplyTestBase(COMMUNITY.EDITION, SlottedRowsInterpretedRuntime, SIZE_HINT)
+class SlottedRowsCachePropertiesTest extends CachePropertiesTestBase(COMMUNITY.EDITION, SlottedRowsInterpretedRuntime, SIZE_HINT)
+class SlottedRowsCreateTest extends CreateTestBase(COMMUNITY.EDITION, SlottedRowsInterpretedRuntime, SIZE_HINT)
+class SlottedRowsExpandAllTest extends ExpandAllTestBase(COMMUNITY.EDITION, SlottedRowsInterpretedRuntime, SIZE_HINT)
+                               with ExpandAllWithOtherOperatorsTestBase[CommunityRuntimeContext]
+class SlottedRowsNodeHashJoinTest extends NodeHashJoinTestBase(COMMUNITY.EDITION, SlottedRowsInterpretedRuntime, SIZE_HINT)
+class SlottedRowsOptionalExpandAllTest extends OptionalExpandAllTestBase(COMMUNITY.EDITION, SlottedRowsInterpretedRuntime, SIZE_HINT)
+class SlottedRowsOptionalTest extends OptionalTestBase(COMMUNITY.EDITION, SlottedRowsInterpretedRuntime, SIZE_HINT)
+class SlottedRowsProjectionTest extends ProjectionTestBase(COMMUNITY.EDITION, SlottedRowsInterpretedRuntime, SIZE_HINT)
+class SlottedRowsSortTest extends SortTestBase(COMMUNITY.EDITION, SlottedRowsInterpretedRuntime, SIZE_HINT)
+class SlottedRowsUnwindTest extends UnwindTestBase(COMMUNITY.EDITION, SlottedRowsInterpretedRuntime, SIZE_HINT)
+class SlottedRowsVarExpandAllTest extends VarLengthExpandTestBase(COMMUNITY.EDITION, SlottedRowsInterpretedRuntime, SIZE_HINT)
@@ -51,6 +51,56 @@ abstract class CachePropertiesTestBase[CONTEXT <: RuntimeContext](
     runtimeResult should beColumns("n").withRows(expected)
   }
 
+  test("should cache several properties of the same node") {
+    // given
+    given {
+      nodePropertyGraph(sizeHint, {
+        case i if i % 2 == 0 => Map("p" -> i, "q" -> -i, "other" -> "x")
+        case i => Map("p" -> i)
+      })
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("p", "q", "r")
+      .projection("cache[n.p] AS p", "cache[n.q] AS q", "cache[n.r] AS r")
+      .cacheProperties("cache[n.p]", "cache[n.q]", "cache[n.r]")
+      .allNodeScan("n")
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    val expected = (0 until sizeHint).map(i => Array[Any](i, if (i % 2 == 0) -i else null, null))
+    runtimeResult should beColumns("p", "q", "r").withRows(expected)
+  }
+
+  test("should cache several properties of the same relationship") {
+    // given
+    given {
+      val (_, rels) = circleGraph(sizeHint)
+      rels.zipWithIndex.foreach {
+        case (r, i) =>
+          r.setProperty("p", i)
+          if (i % 2 == 0) r.setProperty("q", -i)
+      }
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("p", "q")
+      .projection("cacheR[r.p] AS p", "cacheR[r.q] AS q")
+      .cacheProperties("cacheR[r.p]", "cacheR[r.q]")
+      .relationshipTypeScan("(a)-[r:R]->(b)")
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    val expected = (0 until sizeHint).map(i => Array[Any](i, if (i % 2 == 0) -i else null))
+    runtimeResult should beColumns("p", "q").withRows(expected)
+  }
+
   test("node index exact seek should cache properties") {
     given {
       nodeIndex("A", "prop")
@@ -245,7 +245,8 @@ abstract class InputWithMaterializedEntitiesTest[CONTEXT <: RuntimeContext](edit
           materializedEntitiesMode = true,
           operatorEngine = CypherOperatorEngineOption.default,
           interpretedPipesFallback = CypherInterpretedPipesFallbackOption.default,
-          anonymousVariableNameGenerator = new AnonymousVariableNameGenerator()
+          anonymousVariableNameGenerator = new AnonymousVariableNameGenerator(),
+          parallelAggregation = false
         )
       }
     }
@@ -48,4 +48,73 @@ abstract class ProjectionTestBase[CONTEXT <: RuntimeContext](
     val expected = (0 until sizeHint).map(i => Array[Any](i, i * 2))
     runtimeResult should beColumns("i", "j").withRows(expected)
   }
+
+  test("should project several properties of the same node") {
+    // given
+    given {
+      nodePropertyGraph(sizeHint, {
+        case i if i % 2 == 0 => Map("p" -> i, "q" -> -i, "other" -> "x")
+        case i => Map("p" -> i)
+      })
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("p", "q", "r")
+      .projection("n.p AS p", "n.q AS q", "n.r AS r")
+      .allNodeScan("n")
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    val expected = (0 until sizeHint).map(i => Array[Any](i, if (i % 2 == 0) -i else null, null))
+    runtimeResult should beColumns("p", "q", "r").withRows(expected)
+  }
+
+  test("should project several properties of the same relationship") {
+    // given
+    given {
+      val (_, rels) = circleGraph(sizeHint)
+      rels.zipWithIndex.foreach {
+        case (r, i) =>
+          r.setProperty("p", i)
+          if (i % 2 == 0) r.setProperty("q", -i)
+      }
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("p", "q")
+      .projection("r.p AS p", "r.q AS q")
+      .relationshipTypeScan("(a)-[r:R]->(b)")
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    val expected = (0 until sizeHint).map(i => Array[Any](i, if (i % 2 == 0) -i else null))
+    runtimeResult should beColumns("p", "q").withRows(expected)
+  }
+
+  test("should project several properties of maps and nulls") {
+    // given
+    val input = inputValues(
+      Array(java.util.Map.of("p", 1, "q", 2)),
+      Array(null),
+      Array(java.util.Map.of("q", 3))
+    )
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("p", "q")
+      .projection("x.p AS p", "x.q AS q")
+      .input(variables = Seq("x"))
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime, input)
+
+    // then
+    runtimeResult should beColumns("p", "q").withRows(Seq(Array[Any](1, 2), Array[Any](null, null), Array[Any](null, 3)))
+  }
 }
@@ -119,6 +119,92 @@ abstract class ShortestPathTestBase[CONTEXT <: RuntimeContext](
     runtimeResult should beColumns("x", "r", "y", "path").withRows(expected)
   }
 
+  test("shortest path should not be longer than the max length") {
+    // given
+    val (start, end) = given {
+      linkedChainGraphNoCrossLinking(chainCount = 3, chainDepth = 4)
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("path")
+      .shortestPath("(x)-[r*1..4]->(y)", pathName = Some("path"), all = true)
+      .cartesianProduct()
+      .|.nodeByIdSeek("y", Set.empty, end.getId)
+      .nodeByIdSeek("x", Set.empty, start.getId)
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    runtimeResult should beColumns("path").withNoRows()
+  }
+
+  test("all shortest paths of exactly the max length") {
+    // given
+    val (start, end) = given {
+      linkedChainGraphNoCrossLinking(chainCount = 3, chainDepth = 4)
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("path")
+      .shortestPath("(x)-[r*1..5]->(y)", pathName = Some("path"), all = true)
+      .cartesianProduct()
+      .|.nodeByIdSeek("y", Set.empty, end.getId)
+      .nodeByIdSeek("x", Set.empty, start.getId)
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    runtimeResult should beColumns("path").withRows(rowCount(3))
+  }
+
+  test("all shortest paths against the direction of the relationships") {
+    // given
+    val (start, end) = given {
+      linkedChainGraph(chainCount = 3, chainDepth = 3)
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("path")
+      .shortestPath("(y)<-[r*]-(x)", pathName = Some("path"), all = true)
+      .cartesianProduct()
+      .|.nodeByIdSeek("y", Set.empty, end.getId)
+      .nodeByIdSeek("x", Set.empty, start.getId)
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    runtimeResult should beColumns("path").withRows(rowCount(27))
+  }
+
+  test("shortest path should only be found between nodes that are connected") {
+    // given
+    val (start, end) = given {
+      val (start, _) = linkedChainGraph(chainCount = 2, chainDepth = 2)
+      val (_, end) = linkedChainGraph(chainCount = 2, chainDepth = 2)
+      (start, end)
+    }
+
+    // when
+    val logicalQuery = new LogicalQueryBuilder(this)
+      .produceResults("path")
+      .shortestPath("(x)-[r*]-(y)", pathName = Some("path"))
+      .cartesianProduct()
+      .|.nodeByIdSeek("y", Set.empty, end.getId)
+      .nodeByIdSeek("x", Set.empty, start.getId)
+      .build()
+
+    val runtimeResult = execute(logicalQuery, runtime)
+
+    // then
+    runtimeResult should beColumns("path").withNoRows()
+  }
+
   // EXPANSION FILTERING, RELATIONSHIP TYPE
 
   test("should filter on relationship type A") {
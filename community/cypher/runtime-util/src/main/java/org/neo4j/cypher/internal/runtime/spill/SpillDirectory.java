@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.spill;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.memory.MemoryTracker;
+
+/**
+ * The directory that the operators of the queries of one database spill to.
+ * <p>
+ * Spill files never outlive the query that created them, so whatever is left in the directory when it is initialized, e.g. after a crash,
+ * is garbage and is removed.
+ */
+public class SpillDirectory extends LifecycleAdapter
+{
+    private final FileSystemAbstraction fs;
+    private final Path directory;
+    private final AtomicLong nextFileId = new AtomicLong();
+
+    public SpillDirectory( FileSystemAbstraction fs, Path directory )
+    {
+        this.fs = fs;
+        this.directory = directory;
+    }
+
+    @Override
+    public void init() throws IOException
+    {
+        fs.deleteRecursively( directory );
+        fs.mkdirs( directory );
+    }
+
+    /**
+     * @param memoryTracker tracks the off-heap buffers of the file.
+     * @return a new, empty file to spill to.
+     */
+    public SpillFile newFile( MemoryTracker memoryTracker )
+    {
+        return new SpillFile( fs, directory.resolve( "spill-" + nextFileId.incrementAndGet() ), memoryTracker );
+    }
+
+    public Path directory()
+    {
+        return directory;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.spill;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Set;
+
+import org.neo4j.internal.kernel.api.DefaultCloseListenable;
+import org.neo4j.io.IOUtils;
+import org.neo4j.io.fs.DelegatingStoreChannel;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.PhysicalFlushableChannel;
+import org.neo4j.io.fs.ReadAheadChannel;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.memory.NativeScopedBuffer;
+import org.neo4j.memory.MemoryTracker;
+
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A temporary file in a {@link SpillDirectory} that an operator writes spilled values to, and later reads them back from, exactly once and in the same order.
+ * <p>
+ * Both writing and reading go through off-heap buffers, so spilling does not itself put pressure on the heap it is trying to relieve.
+ * Nothing is ever forced to storage, since the file does not outlive the query. The file is deleted when it is closed.
+ */
+public class SpillFile extends DefaultCloseListenable
+{
+    private static final int BUFFER_SIZE = PhysicalFlushableChannel.DEFAULT_BUFFER_SIZE * 16;
+
+    private final FileSystemAbstraction fs;
+    private final Path path;
+    private final MemoryTracker memoryTracker;
+    private final UnforcedStoreChannel channel;
+    private PhysicalFlushableChannel writeChannel;
+    private SpillValueWriter writer;
+    private ReadAheadChannel<StoreChannel> readChannel;
+    private SpillValueReader reader;
+    private long bytesWritten;
+    private boolean closed;
+
+    SpillFile( FileSystemAbstraction fs, Path path, MemoryTracker memoryTracker )
+    {
+        this.fs = fs;
+        this.path = path;
+        this.memoryTracker = memoryTracker;
+        try
+        {
+            this.channel = new UnforcedStoreChannel( fs.open( path, Set.of( CREATE_NEW, READ, WRITE ) ) );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( "Failed to create spill file " + path, e );
+        }
+        this.writeChannel = new PhysicalFlushableChannel( channel, new NativeScopedBuffer( BUFFER_SIZE, memoryTracker ) );
+        this.writer = new SpillValueWriter( writeChannel );
+    }
+
+    /**
+     * @return the writer to spill values with. Must not be used after {@link #reader()} has been called.
+     */
+    public SpillValueWriter writer()
+    {
+        if ( writer == null )
+        {
+            throw new IllegalStateException( "Spill file " + path + " is no longer being written to" );
+        }
+        return writer;
+    }
+
+    /**
+     * Finish writing, and start reading the values back from the beginning of the file.
+     */
+    public SpillValueReader reader() throws IOException
+    {
+        if ( reader == null )
+        {
+            bytesWritten = writeChannel.position();
+            writeChannel.close();
+            writeChannel = null;
+            writer = null;
+            channel.position( 0 );
+            readChannel = new ReadAheadChannel<>( channel, new NativeScopedBuffer( BUFFER_SIZE, memoryTracker ) );
+            reader = new SpillValueReader( readChannel );
+        }
+        return reader;
+    }
+
+    /**
+     * @return the number of bytes written to this file so far.
+     */
+    public long bytesWritten()
+    {
+        if ( writeChannel != null )
+        {
+            try
+            {
+                return writeChannel.position();
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+        }
+        return bytesWritten;
+    }
+
+    @Override
+    public void closeInternal()
+    {
+        if ( !closed )
+        {
+            closed = true;
+            try
+            {
+                IOUtils.closeAll( writeChannel, readChannel, channel.delegate() );
+                fs.deleteFileOrThrow( path );
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( "Failed to delete spill file " + path, e );
+            }
+        }
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+        return closed;
+    }
+
+    /**
+     * Keeps the file open when the buffered channels on top of it are closed, and skips forcing, since the data only needs to be readable
+     * by this process.
+     */
+    private static class UnforcedStoreChannel extends DelegatingStoreChannel<StoreChannel>
+    {
+        UnforcedStoreChannel( StoreChannel delegate )
+        {
+            super( delegate );
+        }
+
+        StoreChannel delegate()
+        {
+            return delegate;
+        }
+
+        @Override
+        public void force( boolean metaData )
+        {
+        }
+
+        @Override
+        public void flush()
+        {
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+}
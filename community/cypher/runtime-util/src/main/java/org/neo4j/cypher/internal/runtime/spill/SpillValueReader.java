@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.spill;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import org.neo4j.io.fs.ReadableChannel;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.storable.BooleanValue;
+import org.neo4j.values.storable.CharValue;
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.DateTimeValue;
+import org.neo4j.values.storable.DateValue;
+import org.neo4j.values.storable.DurationValue;
+import org.neo4j.values.storable.FloatValue;
+import org.neo4j.values.storable.IntegralValue;
+import org.neo4j.values.storable.LocalDateTimeValue;
+import org.neo4j.values.storable.LocalTimeValue;
+import org.neo4j.values.storable.NumberValue;
+import org.neo4j.values.storable.TextValue;
+import org.neo4j.values.storable.TimeValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueWriter.ArrayType;
+import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.MapValueBuilder;
+import org.neo4j.values.virtual.VirtualValues;
+
+import static org.neo4j.cypher.internal.runtime.spill.SpillValueWriter.ARRAY;
+import static org.neo4j.cypher.internal.runtime.spill.SpillValueWriter.BYTE;
+import static org.neo4j.cypher.internal.runtime.spill.SpillValueWriter.BYTE_ARRAY;
+import static org.neo4j.cypher.internal.runtime.spill.SpillValueWriter.CHAR;
+import static org.neo4j.cypher.internal.runtime.spill.SpillValueWriter.DATE;
+import static org.neo4j.cypher.internal.runtime.spill.SpillValueWriter.DATE_TIME;
+import static org.neo4j.cypher.internal.runtime.spill.SpillValueWriter.DOUBLE;
+import static org.neo4j.cypher.internal.runtime.spill.SpillValueWriter.DURATION;
+import static org.neo4j.cypher.internal.runtime.spill.SpillValueWriter.FALSE;
+import static org.neo4j.cypher.internal.runtime.spill.SpillValueWriter.FLOAT;
+import static org.neo4j.cypher.internal.runtime.spill.SpillValueWriter.INT;
+import static org.neo4j.cypher.internal.runtime.spill.SpillValueWriter.LIST;
+import static org.neo4j.cypher.internal.runtime.spill.SpillValueWriter.LOCAL_DATE_TIME;
+import static org.neo4j.cypher.internal.runtime.spill.SpillValueWriter.LOCAL_TIME;
+import static org.neo4j.cypher.internal.runtime.spill.SpillValueWriter.LONG;
+import static org.neo4j.cypher.internal.runtime.spill.SpillValueWriter.MAP;
+import static org.neo4j.cypher.internal.runtime.spill.SpillValueWriter.NODE;
+import static org.neo4j.cypher.internal.runtime.spill.SpillValueWriter.NULL;
+import static org.neo4j.cypher.internal.runtime.spill.SpillValueWriter.PATH;
+import static org.neo4j.cypher.internal.runtime.spill.SpillValueWriter.POINT;
+import static org.neo4j.cypher.internal.runtime.spill.SpillValueWriter.RELATIONSHIP;
+import static org.neo4j.cypher.internal.runtime.spill.SpillValueWriter.SHORT;
+import static org.neo4j.cypher.internal.runtime.spill.SpillValueWriter.STRING;
+import static org.neo4j.cypher.internal.runtime.spill.SpillValueWriter.TIME;
+import static org.neo4j.cypher.internal.runtime.spill.SpillValueWriter.TRUE;
+
+/**
+ * Reads values written by a {@link SpillValueWriter}.
+ */
+public class SpillValueReader
+{
+    private static final ArrayType[] ARRAY_TYPES = ArrayType.values();
+
+    private final ReadableChannel channel;
+
+    public SpillValueReader( ReadableChannel channel )
+    {
+        this.channel = channel;
+    }
+
+    /**
+     * @return the channel that values are read from, for reading data that surrounds the values.
+     */
+    public ReadableChannel channel()
+    {
+        return channel;
+    }
+
+    /**
+     * Read a name that was written with {@link SpillValueWriter#writeName(String)}.
+     */
+    public String readName() throws IOException
+    {
+        return new String( readBytes(), StandardCharsets.UTF_8 );
+    }
+
+    public AnyValue read() throws IOException
+    {
+        byte tag = channel.get();
+        switch ( tag )
+        {
+        case NODE:
+            return VirtualValues.node( channel.getLong() );
+        case RELATIONSHIP:
+            return VirtualValues.relationship( channel.getLong() );
+        case PATH:
+            int length = channel.getInt();
+            long[] nodes = new long[length];
+            long[] relationships = new long[length - 1];
+            for ( int i = 0; i < nodes.length; i++ )
+            {
+                nodes[i] = channel.getLong();
+            }
+            for ( int i = 0; i < relationships.length; i++ )
+            {
+                relationships[i] = channel.getLong();
+            }
+            return VirtualValues.pathReference( nodes, relationships );
+        case LIST:
+            AnyValue[] elements = new AnyValue[channel.getInt()];
+            for ( int i = 0; i < elements.length; i++ )
+            {
+                elements[i] = read();
+            }
+            return VirtualValues.list( elements );
+        case MAP:
+            int size = channel.getInt();
+            if ( size == 0 )
+            {
+                return VirtualValues.EMPTY_MAP;
+            }
+            MapValueBuilder builder = new MapValueBuilder( size );
+            for ( int i = 0; i < size; i++ )
+            {
+                builder.add( readName(), read() );
+            }
+            return builder.build();
+        default:
+            return readStorable( tag );
+        }
+    }
+
+    private Value readStorable( byte tag ) throws IOException
+    {
+        switch ( tag )
+        {
+        case NULL:
+            return Values.NO_VALUE;
+        case TRUE:
+            return Values.TRUE;
+        case FALSE:
+            return Values.FALSE;
+        case BYTE:
+            return Values.byteValue( channel.get() );
+        case SHORT:
+            return Values.shortValue( channel.getShort() );
+        case INT:
+            return Values.intValue( channel.getInt() );
+        case LONG:
+            return Values.longValue( channel.getLong() );
+        case FLOAT:
+            return Values.floatValue( channel.getFloat() );
+        case DOUBLE:
+            return Values.doubleValue( channel.getDouble() );
+        case STRING:
+            return Values.utf8Value( readBytes() );
+        case CHAR:
+            return Values.charValue( (char) channel.getShort() );
+        case BYTE_ARRAY:
+            return Values.byteArray( readBytes() );
+        case ARRAY:
+            return readArray( ARRAY_TYPES[channel.get()], channel.getInt() );
+        case POINT:
+            CoordinateReferenceSystem crs = CoordinateReferenceSystem.get( channel.getInt() );
+            double[] coordinate = new double[channel.get()];
+            for ( int i = 0; i < coordinate.length; i++ )
+            {
+                coordinate[i] = channel.getDouble();
+            }
+            return Values.pointValue( crs, coordinate );
+        case DURATION:
+            return DurationValue.duration( channel.getLong(), channel.getLong(), channel.getLong(), channel.getInt() );
+        case DATE:
+            return DateValue.epochDate( channel.getLong() );
+        case LOCAL_TIME:
+            return LocalTimeValue.localTime( channel.getLong() );
+        case TIME:
+            LocalTime time = LocalTime.ofNanoOfDay( channel.getLong() );
+            return TimeValue.time( OffsetTime.of( time, ZoneOffset.ofTotalSeconds( channel.getInt() ) ) );
+        case LOCAL_DATE_TIME:
+            return LocalDateTimeValue.localDateTime( channel.getLong(), channel.getInt() );
+        case DATE_TIME:
+            long epochSecond = channel.getLong();
+            int nano = channel.getInt();
+            byte[] zone = new byte[channel.get()];
+            channel.get( zone, zone.length );
+            return DateTimeValue.datetime( epochSecond, nano, ZoneId.of( new String( zone, StandardCharsets.UTF_8 ) ) );
+        default:
+            throw new IllegalStateException( "Unknown type tag " + tag + " in spilled data" );
+        }
+    }
+
+    private Value readArray( ArrayType type, int length ) throws IOException
+    {
+        Value[] elements = new Value[length];
+        for ( int i = 0; i < length; i++ )
+        {
+            elements[i] = readStorable( channel.get() );
+        }
+        switch ( type )
+        {
+        case SHORT:
+            short[] shorts = new short[length];
+            for ( int i = 0; i < length; i++ )
+            {
+                shorts[i] = (short) ((IntegralValue) elements[i]).longValue();
+            }
+            return Values.shortArray( shorts );
+        case INT:
+            int[] ints = new int[length];
+            for ( int i = 0; i < length; i++ )
+            {
+                ints[i] = (int) ((IntegralValue) elements[i]).longValue();
+            }
+            return Values.intArray( ints );
+        case LONG:
+            long[] longs = new long[length];
+            for ( int i = 0; i < length; i++ )
+            {
+                longs[i] = ((IntegralValue) elements[i]).longValue();
+            }
+            return Values.longArray( longs );
+        case FLOAT:
+            float[] floats = new float[length];
+            for ( int i = 0; i < length; i++ )
+            {
+                floats[i] = ((FloatValue) elements[i]).value();
+            }
+            return Values.floatArray( floats );
+        case DOUBLE:
+            double[] doubles = new double[length];
+            for ( int i = 0; i < length; i++ )
+            {
+                doubles[i] = ((NumberValue) elements[i]).doubleValue();
+            }
+            return Values.doubleArray( doubles );
+        case BOOLEAN:
+            boolean[] booleans = new boolean[length];
+            for ( int i = 0; i < length; i++ )
+            {
+                booleans[i] = ((BooleanValue) elements[i]).booleanValue();
+            }
+            return Values.booleanArray( booleans );
+        case STRING:
+            String[] strings = new String[length];
+            for ( int i = 0; i < length; i++ )
+            {
+                strings[i] = ((TextValue) elements[i]).stringValue();
+            }
+            return Values.stringArray( strings );
+        case CHAR:
+            char[] chars = new char[length];
+            for ( int i = 0; i < length; i++ )
+            {
+                chars[i] = ((CharValue) elements[i]).value();
+            }
+            return Values.charArray( chars );
+        case POINT:
+            return Values.pointArray( elements );
+        case ZONED_DATE_TIME:
+            ZonedDateTime[] dateTimes = new ZonedDateTime[length];
+            for ( int i = 0; i < length; i++ )
+            {
+                dateTimes[i] = ((DateTimeValue) elements[i]).asObjectCopy();
+            }
+            return Values.dateTimeArray( dateTimes );
+        case LOCAL_DATE_TIME:
+            LocalDateTime[] localDateTimes = new LocalDateTime[length];
+            for ( int i = 0; i < length; i++ )
+            {
+                localDateTimes[i] = ((LocalDateTimeValue) elements[i]).asObjectCopy();
+            }
+            return Values.localDateTimeArray( localDateTimes );
+        case DATE:
+            LocalDate[] dates = new LocalDate[length];
+            for ( int i = 0; i < length; i++ )
+            {
+                dates[i] = ((DateValue) elements[i]).asObjectCopy();
+            }
+            return Values.dateArray( dates );
+        case ZONED_TIME:
+            OffsetTime[] times = new OffsetTime[length];
+            for ( int i = 0; i < length; i++ )
+            {
+                times[i] = ((TimeValue) elements[i]).asObjectCopy();
+            }
+            return Values.timeArray( times );
+        case LOCAL_TIME:
+            LocalTime[] localTimes = new LocalTime[length];
+            for ( int i = 0; i < length; i++ )
+            {
+                localTimes[i] = ((LocalTimeValue) elements[i]).asObjectCopy();
+            }
+            return Values.localTimeArray( localTimes );
+        case DURATION:
+            DurationValue[] durations = new DurationValue[length];
+            for ( int i = 0; i < length; i++ )
+            {
+                durations[i] = (DurationValue) elements[i];
+            }
+            return Values.durationArray( durations );
+        default:
+            throw new IllegalStateException( "Unknown array type " + type + " in spilled data" );
+        }
+    }
+
+    private byte[] readBytes() throws IOException
+    {
+        byte[] bytes = new byte[channel.getInt()];
+        channel.get( bytes, bytes.length );
+        return bytes;
+    }
+}
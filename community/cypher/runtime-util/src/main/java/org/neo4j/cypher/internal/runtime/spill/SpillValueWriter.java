@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.spill;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import org.neo4j.io.fs.WritableChannel;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.ReferenceEntityValueWriter;
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.virtual.ListValue;
+import org.neo4j.values.virtual.MapValue;
+import org.neo4j.values.virtual.NodeValue;
+import org.neo4j.values.virtual.RelationshipValue;
+
+/**
+ * Writes values to a {@link WritableChannel} in the compact binary format that is read back by {@link SpillValueReader}.
+ * <p>
+ * Every value starts with a one byte type tag, followed by the payload of that type. Entities are written as references, since the spilled
+ * values are only ever read back within the transaction that wrote them.
+ */
+public class SpillValueWriter extends ReferenceEntityValueWriter<IOException>
+{
+    static final byte NULL = 0;
+    static final byte TRUE = 1;
+    static final byte FALSE = 2;
+    static final byte BYTE = 3;
+    static final byte SHORT = 4;
+    static final byte INT = 5;
+    static final byte LONG = 6;
+    static final byte FLOAT = 7;
+    static final byte DOUBLE = 8;
+    static final byte STRING = 9;
+    static final byte CHAR = 10;
+    static final byte ARRAY = 11;
+    static final byte BYTE_ARRAY = 12;
+    static final byte POINT = 13;
+    static final byte DURATION = 14;
+    static final byte DATE = 15;
+    static final byte LOCAL_TIME = 16;
+    static final byte TIME = 17;
+    static final byte LOCAL_DATE_TIME = 18;
+    static final byte DATE_TIME = 19;
+    static final byte NODE = 20;
+    static final byte RELATIONSHIP = 21;
+    static final byte PATH = 22;
+    static final byte LIST = 23;
+    static final byte MAP = 24;
+
+    private final WritableChannel channel;
+
+    public SpillValueWriter( WritableChannel channel )
+    {
+        this.channel = channel;
+    }
+
+    /**
+     * @return the channel that values are written to, for writing data that surrounds the values.
+     */
+    public WritableChannel channel()
+    {
+        return channel;
+    }
+
+    /**
+     * Write a name, such as a variable name, without a type tag. It is read back with {@link SpillValueReader#readName()}.
+     */
+    public void writeName( String name ) throws IOException
+    {
+        writeUTF8Bytes( name.getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    /**
+     * Write the given value. Maps and lists are traversed here, rather than with {@link AnyValue#writeTo(org.neo4j.values.AnyValueWriter)},
+     * so that their keys and elements can be written without having to keep track of the nesting.
+     */
+    public void write( AnyValue value ) throws IOException
+    {
+        if ( value instanceof MapValue )
+        {
+            MapValue map = (MapValue) value;
+            channel.put( MAP ).putInt( map.size() );
+            map.foreach( ( key, entry ) ->
+            {
+                writeName( key );
+                write( entry );
+            } );
+        }
+        else if ( value instanceof ListValue )
+        {
+            ListValue list = (ListValue) value;
+            channel.put( LIST ).putInt( list.size() );
+            for ( AnyValue element : list )
+            {
+                write( element );
+            }
+        }
+        else
+        {
+            value.writeTo( this );
+        }
+    }
+
+    @Override
+    public void writeNodeReference( long nodeId ) throws IOException
+    {
+        channel.put( NODE ).putLong( nodeId );
+    }
+
+    @Override
+    public void writeRelationshipReference( long relId ) throws IOException
+    {
+        channel.put( RELATIONSHIP ).putLong( relId );
+    }
+
+    @Override
+    public void beginMap( int size )
+    {
+        throw new IllegalStateException( "Maps must be written with SpillValueWriter#write" );
+    }
+
+    @Override
+    public void endMap()
+    {
+        throw new IllegalStateException( "Maps must be written with SpillValueWriter#write" );
+    }
+
+    @Override
+    public void beginList( int size )
+    {
+        throw new IllegalStateException( "Lists must be written with SpillValueWriter#write" );
+    }
+
+    @Override
+    public void endList()
+    {
+        throw new IllegalStateException( "Lists must be written with SpillValueWriter#write" );
+    }
+
+    @Override
+    public void writePathReference( long[] nodes, long[] relationships ) throws IOException
+    {
+        tag( PATH ).putInt( nodes.length );
+        for ( long node : nodes )
+        {
+            channel.putLong( node );
+        }
+        for ( long relationship : relationships )
+        {
+            channel.putLong( relationship );
+        }
+    }
+
+    @Override
+    public void writePath( NodeValue[] nodes, RelationshipValue[] relationships ) throws IOException
+    {
+        tag( PATH ).putInt( nodes.length );
+        for ( NodeValue node : nodes )
+        {
+            channel.putLong( node.id() );
+        }
+        for ( RelationshipValue relationship : relationships )
+        {
+            channel.putLong( relationship.id() );
+        }
+    }
+
+    @Override
+    public void writeNull() throws IOException
+    {
+        tag( NULL );
+    }
+
+    @Override
+    public void writeBoolean( boolean value ) throws IOException
+    {
+        tag( value ? TRUE : FALSE );
+    }
+
+    @Override
+    public void writeInteger( byte value ) throws IOException
+    {
+        tag( BYTE ).put( value );
+    }
+
+    @Override
+    public void writeInteger( short value ) throws IOException
+    {
+        tag( SHORT ).putShort( value );
+    }
+
+    @Override
+    public void writeInteger( int value ) throws IOException
+    {
+        tag( INT ).putInt( value );
+    }
+
+    @Override
+    public void writeInteger( long value ) throws IOException
+    {
+        tag( LONG ).putLong( value );
+    }
+
+    @Override
+    public void writeFloatingPoint( float value ) throws IOException
+    {
+        tag( FLOAT ).putFloat( value );
+    }
+
+    @Override
+    public void writeFloatingPoint( double value ) throws IOException
+    {
+        tag( DOUBLE ).putDouble( value );
+    }
+
+    @Override
+    public void writeString( String value ) throws IOException
+    {
+        byte[] bytes = value.getBytes( StandardCharsets.UTF_8 );
+        writeUTF8( bytes, 0, bytes.length );
+    }
+
+    @Override
+    public void writeUTF8( byte[] bytes, int offset, int length ) throws IOException
+    {
+        tag( STRING ).putInt( length ).put( bytes, offset, length );
+    }
+
+    @Override
+    public void writeString( char value ) throws IOException
+    {
+        tag( CHAR ).putShort( (short) value );
+    }
+
+    @Override
+    public void beginArray( int size, ArrayType arrayType ) throws IOException
+    {
+        tag( ARRAY ).put( (byte) arrayType.ordinal() ).putInt( size );
+    }
+
+    @Override
+    public void endArray()
+    {
+    }
+
+    @Override
+    public void writeByteArray( byte[] value ) throws IOException
+    {
+        tag( BYTE_ARRAY ).putInt( value.length ).put( value, value.length );
+    }
+
+    @Override
+    public void writePoint( CoordinateReferenceSystem crs, double[] coordinate ) throws IOException
+    {
+        tag( POINT ).putInt( crs.getCode() ).put( (byte) coordinate.length );
+        for ( double c : coordinate )
+        {
+            channel.putDouble( c );
+        }
+    }
+
+    @Override
+    public void writeDuration( long months, long days, long seconds, int nanos ) throws IOException
+    {
+        tag( DURATION ).putLong( months ).putLong( days ).putLong( seconds ).putInt( nanos );
+    }
+
+    @Override
+    public void writeDate( LocalDate localDate ) throws IOException
+    {
+        tag( DATE ).putLong( localDate.toEpochDay() );
+    }
+
+    @Override
+    public void writeLocalTime( LocalTime localTime ) throws IOException
+    {
+        tag( LOCAL_TIME ).putLong( localTime.toNanoOfDay() );
+    }
+
+    @Override
+    public void writeTime( OffsetTime offsetTime ) throws IOException
+    {
+        tag( TIME ).putLong( offsetTime.toLocalTime().toNanoOfDay() ).putInt( offsetTime.getOffset().getTotalSeconds() );
+    }
+
+    @Override
+    public void writeLocalDateTime( LocalDateTime localDateTime ) throws IOException
+    {
+        tag( LOCAL_DATE_TIME ).putLong( localDateTime.toEpochSecond( ZoneOffset.UTC ) ).putInt( localDateTime.getNano() );
+    }
+
+    @Override
+    public void writeDateTime( ZonedDateTime zonedDateTime ) throws IOException
+    {
+        tag( DATE_TIME ).putLong( zonedDateTime.toEpochSecond() ).putInt( zonedDateTime.getNano() );
+        byte[] zone = zonedDateTime.getZone().getId().getBytes( StandardCharsets.UTF_8 );
+        channel.put( (byte) zone.length ).put( zone, zone.length );
+    }
+
+    private WritableChannel tag( byte tag ) throws IOException
+    {
+        return channel.put( tag );
+    }
+
+    private void writeUTF8Bytes( byte[] bytes ) throws IOException
+    {
+        channel.putInt( bytes.length ).put( bytes, bytes.length );
+    }
+}
@@ -19,11 +19,14 @@
  */
 package org.neo4j.cypher.operations;
 
+import java.util.Arrays;
+
 import org.neo4j.cypher.internal.runtime.DbAccess;
 import org.neo4j.exceptions.CypherTypeException;
 import org.neo4j.exceptions.EntityNotFoundException;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.internal.kernel.api.CursorFactory;
+import org.neo4j.internal.kernel.api.EntityCursor;
 import org.neo4j.internal.kernel.api.NodeCursor;
 import org.neo4j.internal.kernel.api.PropertyCursor;
 import org.neo4j.internal.kernel.api.Read;
@@ -150,6 +153,51 @@ public final class CursorUtils
         return propertyCursor.next() ? propertyCursor.propertyValue() : NO_VALUE;
     }
 
+    /**
+     * Fetches several properties from a node in a single pass over its properties, instead of repositioning
+     * the property cursor once for every property.
+     *
+     * @param read The current Read instance
+     * @param nodeCursor The node cursor to use
+     * @param node The id of the node
+     * @param propertyCursor The property cursor to use
+     * @param props The ids of the properties to find, may contain {@link org.neo4j.kernel.api.StatementConstants#NO_SUCH_PROPERTY_KEY}
+     * @param throwOnDeleted if <code>true</code> and exception will be thrown if node has been deleted
+     * @return The values of the given properties, in the order of {@code props}, with {@link Values#NO_VALUE} for the ones not found.
+     * @throws EntityNotFoundException If the node was deleted in transaction.
+     */
+    public static Value[] nodeGetProperties(
+            Read read,
+            NodeCursor nodeCursor,
+            long node,
+            PropertyCursor propertyCursor,
+            int[] props,
+            boolean throwOnDeleted
+    ) throws EntityNotFoundException
+    {
+        assert node >= NO_SUCH_NODE;
+
+        Value[] values = noValues( props.length );
+        if ( node == NO_SUCH_NODE )
+        {
+            return values;
+        }
+        read.singleNode( node, nodeCursor );
+        if ( !nodeCursor.next() )
+        {
+            if ( throwOnDeleted && read.nodeDeletedInTransaction( node ) )
+            {
+                throw new EntityNotFoundException( String.format("Node with id %d has been deleted in this transaction", node ) );
+            }
+            else
+            {
+                return values;
+            }
+        }
+        entityGetProperties( nodeCursor, propertyCursor, props, values );
+        return values;
+    }
+
     /**
      * Checks if a given node has the given property
      *
@@ -373,6 +421,110 @@ public final class CursorUtils
         return propertyCursor.next() ? propertyCursor.propertyValue() : NO_VALUE;
     }
 
+    /**
+     * Fetches several properties from a relationship in a single pass over its properties, instead of repositioning
+     * the property cursor once for every property.
+     *
+     * @param read The current Read instance
+     * @param relationshipCursor The relationship cursor to use
+     * @param relationship The id of the relationship
+     * @param propertyCursor The property cursor to use
+     * @param props The ids of the properties to find, may contain {@link org.neo4j.kernel.api.StatementConstants#NO_SUCH_PROPERTY_KEY}
+     * @param throwOnDeleted if <code>true</code> and exception will be thrown if relationship has been deleted
+     * @return The values of the given properties, in the order of {@code props}, with {@link Values#NO_VALUE} for the ones not found.
+     * @throws EntityNotFoundException If the relationship was deleted in transaction.
+     */
+    public static Value[] relationshipGetProperties(
+            Read read,
+            RelationshipScanCursor relationshipCursor,
+            long relationship,
+            PropertyCursor propertyCursor,
+            int[] props,
+            boolean throwOnDeleted
+    ) throws EntityNotFoundException
+    {
+        assert relationship >= NO_SUCH_RELATIONSHIP;
+
+        Value[] values = noValues( props.length );
+        if ( relationship == NO_SUCH_RELATIONSHIP )
+        {
+            return values;
+        }
+        read.singleRelationship( relationship, relationshipCursor );
+        if ( !relationshipCursor.next() )
+        {
+            if ( throwOnDeleted && read.relationshipDeletedInTransaction( relationship ) )
+            {
+                throw new EntityNotFoundException(
+                        String.format( "Relationship with id %d has been deleted in this transaction", relationship ) );
+            }
+            else
+            {
+                return values;
+            }
+        }
+        entityGetProperties( relationshipCursor, propertyCursor, props, values );
+        return values;
+    }
+
+    private static Value[] noValues( int length )
+    {
+        Value[] values = new Value[length];
+        Arrays.fill( values, NO_VALUE );
+        return values;
+    }
+
+    /**
+     * Selects all the wanted properties at once, and stops reading as soon as all of them have been found.
+     */
+    private static void entityGetProperties( EntityCursor entityCursor, PropertyCursor propertyCursor, int[] props, Value[] values )
+    {
+        int wanted = 0;
+        for ( int prop : props )
+        {
+            if ( prop != NO_SUCH_PROPERTY_KEY )
+            {
+                wanted++;
+            }
+        }
+        if ( wanted == 0 )
+        {
+            return;
+        }
+        int[] keys = props;
+        if ( wanted < props.length )
+        {
+            keys = new int[wanted];
+            int k = 0;
+            for ( int prop : props )
+            {
+                if ( prop != NO_SUCH_PROPERTY_KEY )
+                {
+                    keys[k++] = prop;
+                }
+            }
+        }
+        entityCursor.properties( propertyCursor, PropertySelection.selection( keys ) );
+        int found = 0;
+        while ( found < wanted && propertyCursor.next() )
+        {
+            int key = propertyCursor.propertyKey();
+            Value value = null;
+            for ( int i = 0; i < props.length; i++ )
+            {
+                if ( props[i] == key )
+                {
+                    if ( value == null )
+                    {
+                        value = propertyCursor.propertyValue();
+                    }
+                    values[i] = value;
+                    found++;
+                }
+            }
+        }
+    }
+
     /**
      * Checks if a given relationship has the given property
      *
@@ -57,6 +57,38 @@ public interface OperatorProfile
      */
     long maxAllocatedMemory();
 
+    /**
+     * The number of bytes that this operator spilled to disk, because it held onto more memory than it was allowed to.
+     */
+    default long spilledBytes()
+    {
+        return NO_DATA;
+    }
+
+    /**
+     * The number of walks over property chains that this operator saved by reading several properties of the same entity at once.
+     */
+    default long propertyWalksSaved()
+    {
+        return NO_DATA;
+    }
+
+    /**
+     * Time, in nanoseconds, that this operator spent parsing CSV, either on the thread of the query or ahead of it on a thread of its own.
+     */
+    default long csvParseTime()
+    {
+        return NO_DATA;
+    }
+
+    /**
+     * Time, in nanoseconds, that this operator spent waiting for CSV rows that were being parsed ahead of it.
+     */
+    default long csvWaitTime()
+    {
+        return NO_DATA;
+    }
+
     long NO_DATA = -1L;
 
     OperatorProfile NONE = new ConstOperatorProfile( NO_DATA );
@@ -56,6 +56,14 @@ object Arguments {
 
   case class GlobalMemory(value: Long) extends Argument
 
+  case class SpilledBytes(value: Long) extends Argument
+
+  case class PropertyWalksSaved(value: Long) extends Argument
+
+  case class CsvParseTime(value: Long) extends Argument
+
+  case class CsvWaitTime(value: Long) extends Argument
+
   case class Order(order: PrettyString) extends Argument
 
   case class PageCacheHits(value: Long) extends Argument
@@ -0,0 +1,406 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime
+
+import org.neo4j.cypher.internal.expressions.ASTCachedProperty
+import org.neo4j.cypher.internal.runtime.ArrayCypherRow.NOT_AN_ENTITY
+import org.neo4j.cypher.internal.runtime.ArrayCypherRow.NULL_ENTITY
+import org.neo4j.cypher.internal.runtime.ArrayCypherRow.UNSET
+import org.neo4j.cypher.internal.runtime.CypherRowLayout.NO_SLOT
+import org.neo4j.exceptions.InternalException
+import org.neo4j.graphdb.NotFoundException
+import org.neo4j.memory.HeapEstimator.shallowSizeOfInstance
+import org.neo4j.memory.HeapEstimator.shallowSizeOfObjectArray
+import org.neo4j.memory.HeapEstimator.sizeOfLongArray
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.VirtualNodeValue
+import org.neo4j.values.virtual.VirtualRelationshipValue
+import org.neo4j.values.virtual.VirtualValues
+
+import java.util
+
+import scala.collection.mutable
+
+object ArrayCypherRow {
+  private final val SHALLOW_SIZE = shallowSizeOfInstance(classOf[ArrayCypherRow])
+
+  /** Long slot value of an entity variable that is bound to null */
+  final val NULL_ENTITY = -1L
+  /** Long slot value of a variable that has not been set */
+  final val UNSET = -2L
+  /** Long slot value of an entity variable that has been set to something that is not an entity, which is then kept in the overflow map */
+  final val NOT_AN_ENTITY = -3L
+
+  def empty(layout: CypherRowLayout): ArrayCypherRow = {
+    val longs = new Array[Long](layout.nLongs)
+    util.Arrays.fill(longs, UNSET)
+    new ArrayCypherRow(layout, longs, new Array[AnyValue](layout.nLongs), new Array[AnyValue](layout.nRefs), null, null)
+  }
+}
+
+/**
+ * A [[CypherRow]] that keeps its variables in arrays, at the offsets given by a [[CypherRowLayout]] that is shared by all rows of a query.
+ *
+ * Compared to [[MapCypherRow]], copying a row is an array copy instead of a hash map copy, and reading or writing a variable
+ * is a lookup in the shared layout and an array access. Nodes and relationships are kept as primitive ids. The entity values they were
+ * set with are kept next to the ids, so that reading them by name doesn't allocate, and entities that were only given as ids are
+ * turned into values once, when first read. Variables that are not part of the layout are kept in an overflow map.
+ */
+class ArrayCypherRow private(val layout: CypherRowLayout,
+                             private val longs: Array[Long],
+                             private val entities: Array[AnyValue],
+                             private val refs: Array[AnyValue],
+                             private var overflow: mutable.Map[String, AnyValue],
+                             private var cachedProperties: mutable.Map[ASTCachedProperty.RuntimeKey, Value])
+  extends CypherRow {
+
+  private var linenumber: Option[ResourceLinenumber] = None
+
+  override def setLinenumber(line: Option[ResourceLinenumber]): Unit = {
+    linenumber = line
+  }
+
+  private def setLinenumberIfEmpty(line: Option[ResourceLinenumber]): Unit = linenumber match {
+    case None => linenumber = line
+    case _ =>
+  }
+
+  override def getLinenumber: Option[ResourceLinenumber] = linenumber
+
+  override def getLongAt(offset: Int): Long = longs(offset)
+
+  override def setLongAt(offset: Int, value: Long): Unit = {
+    longs(offset) = value
+    entities(offset) = null
+  }
+
+  override def getRefAt(offset: Int): AnyValue = refs(offset)
+
+  override def setRefAt(offset: Int, value: AnyValue): Unit = refs(offset) = value
+
+  override def getByName(name: String): AnyValue = getBySlot(layout.slotOf(name), name)
+
+  /**
+   * Read a variable by its slot, as given by [[CypherRowLayout.slotOf]] of the layout of this row, e.g. resolved once when the query is built.
+   */
+  def getBySlot(slot: Int, name: String): AnyValue = {
+    if (slot >= 0) {
+      val value = refs(slot)
+      if (value == null) notFound(name) else value
+    } else if (slot == NO_SLOT) {
+      getOverflow(name)
+    } else {
+      getEntity(~slot, name)
+    }
+  }
+
+  private def getEntity(offset: Int, name: String): AnyValue = {
+    val id = longs(offset)
+    if (id >= 0) {
+      var entity = entities(offset)
+      if (entity == null) {
+        entity = if (layout.isRelationshipLong(offset)) VirtualValues.relationship(id) else VirtualValues.node(id)
+        entities(offset) = entity
+      }
+      entity
+    } else if (id == NULL_ENTITY) {
+      Values.NO_VALUE
+    } else if (id == NOT_AN_ENTITY) {
+      getOverflow(name)
+    } else {
+      notFound(name)
+    }
+  }
+
+  private def getOverflow(name: String): AnyValue =
+    if (overflow == null) notFound(name) else overflow.getOrElse(name, notFound(name))
+
+  private def notFound(name: String): Nothing = throw new NotFoundException(s"Unknown variable `$name`.")
+
+  override def set(key: String, value: AnyValue): Unit = {
+    val slot = layout.slotOf(key)
+    if (slot >= 0) {
+      refs(slot) = value
+    } else if (slot == NO_SLOT) {
+      setOverflow(key, value)
+    } else {
+      setEntity(~slot, key, value)
+    }
+  }
+
+  private def setEntity(offset: Int, key: String, value: AnyValue): Unit = value match {
+    case node: VirtualNodeValue if !layout.isRelationshipLong(offset) => setLong(offset, key, node.id(), node)
+    case relationship: VirtualRelationshipValue if layout.isRelationshipLong(offset) => setLong(offset, key, relationship.id(), relationship)
+    case _ if value eq Values.NO_VALUE => setLong(offset, key, NULL_ENTITY, null)
+    case _ =>
+      longs(offset) = NOT_AN_ENTITY
+      entities(offset) = null
+      setOverflow(key, value)
+  }
+
+  private def setLong(offset: Int, key: String, value: Long, entity: AnyValue): Unit = {
+    if (longs(offset) == NOT_AN_ENTITY) {
+      overflow.remove(key)
+    }
+    longs(offset) = value
+    entities(offset) = entity
+  }
+
+  private def setOverflow(key: String, value: AnyValue): Unit = {
+    if (overflow == null) {
+      overflow = mutable.Map.empty
+    }
+    overflow.put(key, value)
+  }
+
+  override def set(newEntries: Seq[(String, AnyValue)]): Unit =
+    newEntries.foreach { case (key, value) => set(key, value) }
+
+  override def set(key1: String, value1: AnyValue, key2: String, value2: AnyValue): Unit = {
+    set(key1, value1)
+    set(key2, value2)
+  }
+
+  override def set(key1: String, value1: AnyValue, key2: String, value2: AnyValue, key3: String, value3: AnyValue): Unit = {
+    set(key1, value1)
+    set(key2, value2)
+    set(key3, value3)
+  }
+
+  override def containsName(name: String): Boolean = {
+    val slot = layout.slotOf(name)
+    if (slot >= 0) refs(slot) != null
+    else if (slot == NO_SLOT || longs(~slot) == NOT_AN_ENTITY) overflow != null && overflow.contains(name)
+    else longs(~slot) != UNSET
+  }
+
+  override def numberOfColumns: Int = {
+    var count = 0
+    foreachVariable((_, _) => count += 1)
+    count
+  }
+
+  override def isNull(key: String): Boolean = containsName(key) && (getByName(key) eq Values.NO_VALUE)
+
+  /**
+   * Apply the function to each variable that is set in this row, in layout order, followed by the variables in the overflow map.
+   */
+  def foreachVariable(f: (String, AnyValue) => Unit): Unit = {
+    var i = 0
+    while (i < longs.length) {
+      if (longs(i) != UNSET && longs(i) != NOT_AN_ENTITY) {
+        val name = layout.longNames(i)
+        f(name, getEntity(i, name))
+      }
+      i += 1
+    }
+    i = 0
+    while (i < refs.length) {
+      if (refs(i) != null) {
+        f(layout.refNames(i), refs(i))
+      }
+      i += 1
+    }
+    if (overflow != null) {
+      overflow.foreach { case (key, value) => f(key, value) }
+    }
+  }
+
+  override def mergeWith(other: ReadableRow, entityById: EntityById, checkNullability: Boolean = true): Unit = other match {
+    case that: ArrayCypherRow if that.layout eq layout =>
+      var i = 0
+      while (i < longs.length) {
+        if (that.longs(i) != UNSET) {
+          if (that.longs(i) != NOT_AN_ENTITY) setLong(i, layout.longNames(i), that.longs(i), that.entities(i)) else longs(i) = NOT_AN_ENTITY
+        }
+        i += 1
+      }
+      i = 0
+      while (i < refs.length) {
+        if (that.refs(i) != null) {
+          refs(i) = that.refs(i)
+        }
+        i += 1
+      }
+      if (that.overflow != null) {
+        if (overflow == null) overflow = that.overflow.clone() else overflow ++= that.overflow
+      }
+      mergeCachedPropertiesAndLinenumber(that)
+    case that: ArrayCypherRow =>
+      that.foreachVariable(set)
+      mergeCachedPropertiesAndLinenumber(that)
+    case that: MapCypherRow =>
+      set(that.toMap.toSeq)
+      setLinenumberIfEmpty(that.getLinenumber)
+    case _ => fail()
+  }
+
+  private def mergeCachedPropertiesAndLinenumber(that: ArrayCypherRow): Unit = {
+    if (that.cachedProperties != null) {
+      if (cachedProperties == null) cachedProperties = that.cachedProperties.clone() else cachedProperties ++= that.cachedProperties
+    }
+    setLinenumberIfEmpty(that.getLinenumber)
+  }
+
+  override def copyAllFrom(input: ReadableRow): Unit = input match {
+    case that: ArrayCypherRow if that.layout eq layout =>
+      copyFrom(that, longs.length, refs.length)
+      overflow = if (that.overflow == null) null else that.overflow.clone()
+      cachedProperties = if (that.cachedProperties == null) null else that.cachedProperties.clone()
+      linenumber = that.linenumber
+    case _ => fail()
+  }
+
+  override def copyFrom(input: ReadableRow, nLongs: Int, nRefs: Int): Unit = copyFromOffset(input, 0, 0, 0, 0, nLongs, nRefs)
+
+  override def copyFromOffset(input: ReadableRow, sourceLongOffset: Int, sourceRefOffset: Int, targetLongOffset: Int, targetRefOffset: Int): Unit =
+    input match {
+      case that: ArrayCypherRow =>
+        copyFromOffset(that, sourceLongOffset, sourceRefOffset, targetLongOffset, targetRefOffset,
+          that.longs.length - sourceLongOffset, that.refs.length - sourceRefOffset)
+      case _ => fail()
+    }
+
+  private def copyFromOffset(input: ReadableRow, sourceLongOffset: Int, sourceRefOffset: Int, targetLongOffset: Int, targetRefOffset: Int,
+                             nLongs: Int, nRefs: Int): Unit = input match {
+    case that: ArrayCypherRow =>
+      System.arraycopy(that.longs, sourceLongOffset, longs, targetLongOffset, nLongs)
+      System.arraycopy(that.entities, sourceLongOffset, entities, targetLongOffset, nLongs)
+      System.arraycopy(that.refs, sourceRefOffset, refs, targetRefOffset, nRefs)
+    case _ => fail()
+  }
+
+  private def fail(): Nothing = throw new InternalException("Tried to combine rows of different kinds")
+
+  override def createClone(): ArrayCypherRow = {
+    val row = new ArrayCypherRow(layout, longs.clone(), entities.clone(), refs.clone(),
+      if (overflow == null) null else overflow.clone(),
+      if (cachedProperties == null) null else cachedProperties.clone())
+    row.linenumber = linenumber
+    row
+  }
+
+  override def copyWith(key: String, value: AnyValue): CypherRow = {
+    val row = createClone()
+    row.set(key, value)
+    row
+  }
+
+  override def copyWith(key1: String, value1: AnyValue, key2: String, value2: AnyValue): CypherRow = {
+    val row = createClone()
+    row.set(key1, value1, key2, value2)
+    row
+  }
+
+  override def copyWith(key1: String, value1: AnyValue, key2: String, value2: AnyValue, key3: String, value3: AnyValue): CypherRow = {
+    val row = createClone()
+    row.set(key1, value1, key2, value2, key3, value3)
+    row
+  }
+
+  override def copyWith(newEntries: Seq[(String, AnyValue)]): CypherRow = {
+    val row = createClone()
+    row.set(newEntries)
+    row
+  }
+
+  override def copyMapped(func: AnyValue => AnyValue): CypherRow = {
+    val row = ArrayCypherRow.empty(layout)
+    foreachVariable((key, value) => row.set(key, func(value)))
+    if (cachedProperties != null) {
+      row.cachedProperties = cachedProperties.map({ case (k, v) => k -> func(v).asInstanceOf[Value] })
+    }
+    row.linenumber = linenumber
+    row
+  }
+
+  override def setCachedProperty(key: ASTCachedProperty.RuntimeKey, value: Value): Unit = {
+    if (cachedProperties == null) {
+      cachedProperties = mutable.Map.empty
+    }
+    cachedProperties.put(key, value)
+  }
+
+  override def getCachedProperty(key: ASTCachedProperty.RuntimeKey): Value =
+    if (cachedProperties == null) null else cachedProperties.getOrElse(key, null)
+
+  override def setCachedPropertyAt(offset: Int, value: Value): Unit = throw new InternalException("Cached properties are not kept in slots")
+
+  override def getCachedPropertyAt(offset: Int): Value = throw new InternalException("Cached properties are not kept in slots")
+
+  override def invalidateCachedProperties(): Unit = {
+    cachedProperties = null
+  }
+
+  override def invalidateCachedNodeProperties(node: Long): Unit = {
+    if (cachedProperties != null) {
+      cachedProperties.keys.filter(cnp => getByName(cnp.entityName) match {
+        case n: VirtualNodeValue => n.id() == node
+        case _ => false
+      }).foreach(cnp => setCachedProperty(cnp, null))
+    }
+  }
+
+  override def invalidateCachedRelationshipProperties(rel: Long): Unit = {
+    if (cachedProperties != null) {
+      cachedProperties.keys.filter(cnp => getByName(cnp.entityName) match {
+        case r: VirtualRelationshipValue => r.id() == rel
+        case _ => false
+      }).foreach(cnp => setCachedProperty(cnp, null))
+    }
+  }
+
+  override def estimatedHeapUsage: Long = {
+    var total = ArrayCypherRow.SHALLOW_SIZE + sizeOfLongArray(longs.length) + shallowSizeOfObjectArray(entities.length) +
+      shallowSizeOfObjectArray(refs.length)
+    var i = 0
+    while (i < refs.length) {
+      val value = refs(i)
+      if (value != null) {
+        total += value.estimatedHeapUsage()
+      }
+      i += 1
+    }
+    if (overflow != null) {
+      overflow.valuesIterator.foreach(value => if (value != null) total += value.estimatedHeapUsage())
+    }
+    if (cachedProperties != null) {
+      cachedProperties.valuesIterator.foreach(value => if (value != null) total += value.estimatedHeapUsage())
+    }
+    total
+  }
+
+  override def equals(other: Any): Boolean = other match {
+    case that: ArrayCypherRow =>
+      (that.layout eq layout) && util.Arrays.equals(longs, that.longs) && util.Arrays.equals(refs.asInstanceOf[Array[AnyRef]], that.refs.asInstanceOf[Array[AnyRef]]) &&
+        overflow == that.overflow
+    case _ => false
+  }
+
+  override def hashCode(): Int = 31 * util.Arrays.hashCode(longs) + util.Arrays.hashCode(refs.asInstanceOf[Array[AnyRef]])
+
+  override def toString: String = {
+    val variables = mutable.ArrayBuffer.empty[String]
+    foreachVariable((key, value) => variables += s"$key -> $value")
+    s"ArrayCypherRow(${variables.mkString(", ")}, cached=$cachedProperties)"
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime
+
+import org.eclipse.collections.api.map.primitive.ObjectIntMap
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+
+import scala.collection.mutable
+
+/**
+ * Fixed assignment of the variables of a query to the slots of [[ArrayCypherRow]]s.
+ *
+ * Node and relationship variables are assigned long slots, where they are stored as primitive ids,
+ * and all other variables are assigned ref slots.
+ */
+final class CypherRowLayout private(slots: ObjectIntMap[String],
+                                    private[runtime] val longNames: Array[String],
+                                    private[runtime] val refNames: Array[String],
+                                    relationshipLongs: Array[Boolean]) {
+
+  def nLongs: Int = longNames.length
+
+  def nRefs: Int = refNames.length
+
+  /**
+   * @return the ref offset of the variable, the bitwise complement of its long offset, or [[CypherRowLayout.NO_SLOT]]
+   */
+  def slotOf(name: String): Int = slots.getIfAbsent(name, CypherRowLayout.NO_SLOT)
+
+  def isRelationshipLong(offset: Int): Boolean = relationshipLongs(offset)
+
+  override def toString: String =
+    s"CypherRowLayout(longs=${longNames.mkString("[", ", ", "]")}, refs=${refNames.mkString("[", ", ", "]")})"
+}
+
+object CypherRowLayout {
+  final val NO_SLOT: Int = Int.MinValue
+
+  def apply(variables: Iterable[String], isNode: String => Boolean, isRelationship: String => Boolean): CypherRowLayout = {
+    val slots = new ObjectIntHashMap[String]()
+    val longNames = mutable.ArrayBuffer.empty[String]
+    val refNames = mutable.ArrayBuffer.empty[String]
+    val relationshipLongs = mutable.ArrayBuffer.empty[Boolean]
+    for (variable <- variables.toSeq.distinct.sorted) {
+      if (isNode(variable) || isRelationship(variable)) {
+        slots.put(variable, ~longNames.length)
+        longNames += variable
+        relationshipLongs += !isNode(variable)
+      } else {
+        slots.put(variable, refNames.length)
+        refNames += variable
+      }
+    }
+    new CypherRowLayout(slots, longNames.toArray, refNames.toArray, relationshipLongs.toArray)
+  }
+
+  /**
+   * Lay out all variables that are available in any plan of the given plan tree, including nested plans.
+   */
+  def allocate(plan: LogicalPlan, isNode: String => Boolean, isRelationship: String => Boolean): CypherRowLayout =
+    apply(plan.folder.findAllByClass[LogicalPlan].flatMap(_.availableSymbols), isNode, isRelationship)
+}
@@ -70,6 +70,7 @@ import org.neo4j.kernel.impl.query.FunctionInformation
 import org.neo4j.logging.LogProvider
 import org.neo4j.memory.EmptyMemoryTracker
 import org.neo4j.memory.MemoryTracker
+import org.neo4j.scheduler.JobScheduler
 import org.neo4j.util.VisibleForTesting
 import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.TextValue
@@ -431,6 +432,8 @@ trait WriteQueryContext {
 
   def getConfig: Config
 
+  def jobScheduler: JobScheduler
+
   def nodeApplyChanges(node: Long, addedLabels: IntSet, removedLabels: IntSet, properties: IntObjectMap[Value]): Unit
 
   def relationshipApplyChanges(relationship: Long, properties: IntObjectMap[Value]): Unit
@@ -444,6 +447,15 @@ trait ReadOperations[T, CURSOR] {
    */
   def getProperty(obj: Long, propertyKeyId: Int, cursor: CURSOR, propertyCursor: PropertyCursor, throwOnDeleted: Boolean): Value
 
+  /**
+   * Reads several properties of the same entity with a single walk over its properties.
+   *
+   * @param propertyKeyIds the properties to read, may contain `StatementConstants.NO_SUCH_PROPERTY_KEY`
+   * @return the values in the order of `propertyKeyIds`, `Values.NO_VALUE` for the properties that the entity does not have.
+   * @see [[getProperty]] for `throwOnDeleted`
+   */
+  def getProperties(obj: Long, propertyKeyIds: Array[Int], cursor: CURSOR, propertyCursor: PropertyCursor, throwOnDeleted: Boolean): Array[Value]
+
   def hasProperty(obj: Long, propertyKeyId: Int, cursor: CURSOR, propertyCursor: PropertyCursor): Boolean
 
   /**
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.spill
+
+import java.util.Comparator
+
+import org.neo4j.cypher.internal.collection.DefaultComparatorSortTable
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.ResourceManager
+import org.neo4j.memory.MemoryTracker
+
+import scala.collection.mutable.ArrayBuffer
+
+/**
+ * Sorted runs of rows that have been spilled to disk, for sorting more rows than fit in memory.
+ *
+ * An operator sorts the rows it holds in memory, and spills them as a run whenever they use too much memory. When all input has been
+ * consumed, the runs are merged with the sorted rows that are still in memory. Runs are merged in the order they were spilled, and rows
+ * that compare as equal are returned in run order, so the merge is stable if the sorts of the runs were stable.
+ *
+ * @param comparator    the order the runs are sorted in
+ * @param spilling      where to create the files of the runs
+ * @param memoryTracker tracks the off-heap buffers of the spill files
+ * @param resources     traces the spill files, so that they are deleted even if the query fails
+ */
+class SortedRuns(comparator: Comparator[ReadableRow], spilling: Spilling, memoryTracker: MemoryTracker, resources: ResourceManager) extends AutoCloseable {
+  private val runs = new ArrayBuffer[SpillFile]()
+  private val runLengths = new ArrayBuffer[Long]()
+  private var newRow: () => CypherRow = _
+
+  def isEmpty: Boolean = runs.isEmpty
+
+  /**
+   * Spill the given rows, which must already be sorted, as a new run.
+   *
+   * @param maxRows the maximum number of rows to spill, the remaining rows are ignored
+   */
+  def spill(sortedRows: java.util.Iterator[CypherRow], maxRows: Long = Long.MaxValue): Unit = {
+    val file = spilling.newFile(memoryTracker)
+    resources.trace(file)
+    runs += file
+    val writer = file.writer()
+    var count = 0L
+    while (count < maxRows && sortedRows.hasNext) {
+      val row = sortedRows.next()
+      if (newRow == null) {
+        newRow = SpilledRows.rowFactory(row)
+      }
+      SpilledRows.write(row, writer)
+      count += 1
+    }
+    runLengths += count
+  }
+
+  /**
+   * @return the number of bytes spilled so far
+   */
+  def spilledBytes: Long = runs.map(_.bytesWritten()).sum
+
+  /**
+   * Merge the spilled runs with the given rows that were never spilled.
+   *
+   * @param inMemory sorted rows, that are ordered after the spilled rows when they compare as equal
+   * @param limit    the maximum number of rows to return
+   */
+  def merge(inMemory: java.util.Iterator[CypherRow], limit: Long = Long.MaxValue): ClosingIterator[CypherRow] = {
+    val cursors = new DefaultComparatorSortTable[RunCursor](cursorComparator, runs.size + 1)
+    var i = 0
+    while (i < runs.size) {
+      addIfNonEmpty(cursors, new SpilledRunCursor(i, runs(i).reader(), runLengths(i)))
+      i += 1
+    }
+    addIfNonEmpty(cursors, new InMemoryRunCursor(i, inMemory))
+
+    new ClosingIterator[CypherRow] {
+      private var returned = 0L
+
+      override protected[this] def innerHasNext: Boolean = returned < limit && !cursors.isEmpty
+
+      override def next(): CypherRow = {
+        returned += 1
+        val cursor = cursors.peek()
+        val row = cursor.row
+        if (cursor.advance()) {
+          cursors.siftDown(cursor)
+        } else {
+          cursors.poll()
+        }
+        row
+      }
+
+      override protected[this] def closeMore(): Unit = SortedRuns.this.close()
+    }
+  }
+
+  override def close(): Unit = {
+    runs.foreach(_.close())
+    runs.clear()
+    runLengths.clear()
+  }
+
+  private def addIfNonEmpty(cursors: DefaultComparatorSortTable[RunCursor], cursor: RunCursor): Unit = {
+    if (cursor.advance()) {
+      cursors.add(cursor)
+    }
+  }
+
+  private val cursorComparator: Comparator[RunCursor] = (a: RunCursor, b: RunCursor) => {
+    val c = comparator.compare(a.row, b.row)
+    if (c != 0) c else Integer.compare(a.run, b.run)
+  }
+
+  private abstract class RunCursor(val run: Int) {
+    var row: CypherRow = _
+
+    def advance(): Boolean
+  }
+
+  private class SpilledRunCursor(run: Int, reader: SpillValueReader, length: Long) extends RunCursor(run) {
+    private var remaining = length
+
+    override def advance(): Boolean = {
+      if (remaining > 0) {
+        remaining -= 1
+        row = SpilledRows.read(reader, newRow())
+        true
+      } else {
+        row = null
+        false
+      }
+    }
+  }
+
+  private class InMemoryRunCursor(run: Int, rows: java.util.Iterator[CypherRow]) extends RunCursor(run) {
+    override def advance(): Boolean = {
+      if (rows.hasNext) {
+        row = rows.next()
+        true
+      } else {
+        row = null
+        false
+      }
+    }
+  }
+}
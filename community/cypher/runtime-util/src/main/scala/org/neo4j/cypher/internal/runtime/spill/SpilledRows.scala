@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.spill
+
+import org.neo4j.cypher.internal.runtime.ArrayCypherRow
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.MapCypherRow
+import org.neo4j.cypher.internal.runtime.ResourceLinenumber
+import org.neo4j.values.AnyValue
+
+/**
+ * Writes [[CypherRow]]s with a [[SpillValueWriter]], and reads them back with a [[SpillValueReader]].
+ *
+ * Only the variables and the line number of a row are spilled. Cached properties are dropped, since they are read from the store again
+ * when they are missing.
+ */
+object SpilledRows {
+  private final val END: Byte = 0
+  private final val VARIABLE: Byte = 1
+
+  /**
+   * @return true if the given kind of row can be spilled
+   */
+  def canSpill(row: CypherRow): Boolean = row match {
+    case _: ArrayCypherRow | _: MapCypherRow => true
+    case _ => false
+  }
+
+  /**
+   * @return a function that creates empty rows of the same kind as the given row, to read spilled rows into
+   */
+  def rowFactory(prototype: CypherRow): () => CypherRow = prototype match {
+    case row: ArrayCypherRow =>
+      val layout = row.layout
+      () => ArrayCypherRow.empty(layout)
+    case _ => () => CypherRow.empty
+  }
+
+  def write(row: CypherRow, writer: SpillValueWriter): Unit = {
+    val channel = writer.channel()
+    val writeVariable = (name: String, value: AnyValue) => {
+      channel.put(VARIABLE)
+      writer.writeName(name)
+      writer.write(value)
+    }
+    row match {
+      case r: ArrayCypherRow => r.foreachVariable(writeVariable)
+      case r: MapCypherRow => r.toMap.foreach { case (name, value) => writeVariable(name, value) }
+      case r => throw new IllegalArgumentException(s"Cannot spill rows of type ${r.getClass.getSimpleName}")
+    }
+    channel.put(END)
+    row.getLinenumber match {
+      case Some(ResourceLinenumber(filename, linenumber, last)) =>
+        channel.put(VARIABLE)
+        writer.writeName(filename)
+        channel.putLong(linenumber)
+        channel.put(if (last) VARIABLE else END)
+      case None =>
+        channel.put(END)
+    }
+  }
+
+  /**
+   * Read the next spilled row into the given empty row.
+   */
+  def read(reader: SpillValueReader, row: CypherRow): CypherRow = {
+    val channel = reader.channel()
+    while (channel.get() == VARIABLE) {
+      val name = reader.readName()
+      row.set(name, reader.read())
+    }
+    if (channel.get() == VARIABLE) {
+      val filename = reader.readName()
+      val linenumber = channel.getLong
+      row.setLinenumber(Some(ResourceLinenumber(filename, linenumber, channel.get() == VARIABLE)))
+    }
+    row
+  }
+}
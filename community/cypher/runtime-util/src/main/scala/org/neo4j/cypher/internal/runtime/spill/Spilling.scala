@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.spill
+
+import org.neo4j.memory.MemoryTracker
+
+/**
+ * When and where the operators of a query spill rows to disk.
+ *
+ * @param threshold the heap usage, in bytes, of an operator above which it spills rows, or 0 to never spill
+ * @param directory the directory to create spill files in, only used if `threshold` is positive
+ */
+case class Spilling(threshold: Long, directory: SpillDirectory) {
+
+  def enabled: Boolean = threshold > 0
+
+  /**
+   * @return true if an operator using the given amount of heap should spill
+   */
+  def exceeded(heapUsage: Long): Boolean = enabled && heapUsage > threshold
+
+  def newFile(memoryTracker: MemoryTracker): SpillFile = directory.newFile(memoryTracker)
+}
+
+object Spilling {
+  val DISABLED: Spilling = Spilling(0L, null)
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.spill;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.test.RandomSupport;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.utils.TestDirectory;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.MapValueBuilder;
+import org.neo4j.values.virtual.VirtualValues;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@EphemeralTestDirectoryExtension
+@ExtendWith( RandomExtension.class )
+class SpillFileTest
+{
+    @Inject
+    private RandomSupport random;
+    @Inject
+    private FileSystemAbstraction fs;
+    @Inject
+    private TestDirectory testDirectory;
+
+    private Path directory;
+    private SpillDirectory spillDirectory;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        directory = testDirectory.directory( "spill" );
+        spillDirectory = new SpillDirectory( fs, directory );
+        spillDirectory.init();
+    }
+
+    @Test
+    void shouldReadBackRandomValuesInTheOrderTheyWereWritten() throws IOException
+    {
+        List<AnyValue> values = new ArrayList<>();
+        for ( int i = 0; i < 10_000; i++ )
+        {
+            values.add( random.nextValue() );
+        }
+        assertRoundTrip( values );
+    }
+
+    @Test
+    void shouldReadBackNestedAndEntityValues() throws IOException
+    {
+        MapValueBuilder map = new MapValueBuilder();
+        map.add( "a", VirtualValues.list( Values.intValue( 1 ), Values.NO_VALUE, VirtualValues.list( Values.stringValue( "nested" ) ) ) );
+        map.add( "b", VirtualValues.node( 42 ) );
+        map.add( "ünïcödé", Values.longArray( new long[]{1, 2, 3} ) );
+
+        assertRoundTrip( List.of(
+                map.build(),
+                VirtualValues.EMPTY_MAP,
+                VirtualValues.EMPTY_LIST,
+                VirtualValues.node( 7 ),
+                VirtualValues.relationship( 8 ),
+                VirtualValues.pathReference( new long[]{1, 2, 3}, new long[]{10, 11} ),
+                VirtualValues.pathReference( new long[]{1}, new long[0] ) ) );
+    }
+
+    @Test
+    void shouldReleaseBuffersAndDeleteFileOnClose() throws IOException
+    {
+        LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+        SpillFile file = spillDirectory.newFile( memoryTracker );
+        file.writer().write( Values.stringValue( "spilled" ) );
+        assertThat( file.bytesWritten() ).isGreaterThan( 0 );
+        assertEquals( Values.stringValue( "spilled" ), file.reader().read() );
+        assertThat( memoryTracker.usedNativeMemory() ).isGreaterThan( 0 );
+
+        file.close();
+
+        assertTrue( file.isClosed() );
+        assertEquals( 0, memoryTracker.usedNativeMemory() );
+        assertThat( fs.listFiles( directory ) ).isEmpty();
+    }
+
+    @Test
+    void shouldRemoveFilesLeftBehindWhenInitialized() throws IOException
+    {
+        // given
+        spillDirectory.newFile( new LocalMemoryTracker() ).writer().write( Values.stringValue( "left behind" ) );
+        assertThat( fs.listFiles( directory ) ).hasSize( 1 );
+
+        // when
+        new SpillDirectory( fs, directory ).init();
+
+        // then
+        assertTrue( fs.isDirectory( directory ) );
+        assertThat( fs.listFiles( directory ) ).isEmpty();
+    }
+
+    @Test
+    void shouldCreateDirectoryWhenInitialized() throws IOException
+    {
+        // given
+        Path missing = directory.resolve( "missing" );
+        assertFalse( fs.fileExists( missing ) );
+
+        // when
+        new SpillDirectory( fs, missing ).init();
+
+        // then
+        assertTrue( fs.isDirectory( missing ) );
+    }
+
+    private void assertRoundTrip( List<AnyValue> values ) throws IOException
+    {
+        try ( SpillFile file = spillDirectory.newFile( new LocalMemoryTracker() ) )
+        {
+            SpillValueWriter writer = file.writer();
+            for ( AnyValue value : values )
+            {
+                writer.write( value );
+            }
+            SpillValueReader reader = file.reader();
+            for ( AnyValue value : values )
+            {
+                assertEquals( value, reader.read() );
+            }
+        }
+    }
+}
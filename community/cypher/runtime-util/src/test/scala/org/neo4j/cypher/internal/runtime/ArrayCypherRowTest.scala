@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime
+
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.graphdb.NotFoundException
+import org.neo4j.values.storable.Values.NO_VALUE
+import org.neo4j.values.storable.Values.intValue
+import org.neo4j.values.storable.Values.stringValue
+import org.neo4j.values.virtual.VirtualValues
+
+class ArrayCypherRowTest extends CypherFunSuite {
+
+  private val layout = CypherRowLayout(Seq("n", "r", "x", "y"), Set("n"), Set("r"))
+
+  test("should lay out entities in long slots and other variables in ref slots") {
+    layout.nLongs should equal(2)
+    layout.nRefs should equal(2)
+    layout.slotOf("n") should be < 0
+    layout.slotOf("r") should be < 0
+    layout.slotOf("x") should be >= 0
+    layout.slotOf("unknown") should equal(CypherRowLayout.NO_SLOT)
+  }
+
+  test("should store node and relationship ids in long slots") {
+    val row = ArrayCypherRow.empty(layout)
+    row.set("n", VirtualValues.node(42), "r", VirtualValues.relationship(43))
+
+    row.getLongAt(~layout.slotOf("n")) should equal(42)
+    row.getLongAt(~layout.slotOf("r")) should equal(43)
+    row.getByName("n") should equal(VirtualValues.node(42))
+    row.getByName("r") should equal(VirtualValues.relationship(43))
+  }
+
+  test("should not create new entity values when reading entities") {
+    val row = ArrayCypherRow.empty(layout)
+    val node = VirtualValues.node(42)
+    row.set("n", node)
+    row.setLongAt(~layout.slotOf("r"), 43)
+
+    row.getByName("n") should be theSameInstanceAs node
+    row.getByName("r") should be theSameInstanceAs row.getByName("r")
+    row.createClone().getByName("n") should be theSameInstanceAs node
+  }
+
+  test("should read variables by resolved slots") {
+    val row = ArrayCypherRow.empty(layout)
+    row.set("n", VirtualValues.node(42), "x", intValue(1))
+
+    row.getBySlot(layout.slotOf("n"), "n") should equal(VirtualValues.node(42))
+    row.getBySlot(layout.slotOf("x"), "x") should equal(intValue(1))
+    a[NotFoundException] should be thrownBy row.getBySlot(layout.slotOf("y"), "y")
+  }
+
+  test("should store null entities in long slots") {
+    val row = ArrayCypherRow.empty(layout)
+    row.set("n", NO_VALUE)
+
+    row.getLongAt(~layout.slotOf("n")) should equal(ArrayCypherRow.NULL_ENTITY)
+    row.isNull("n") shouldBe true
+  }
+
+  test("should fall back to overflow for values that do not fit the slot") {
+    val row = ArrayCypherRow.empty(layout)
+    row.set("n", stringValue("not a node"))
+    row.getByName("n") should equal(stringValue("not a node"))
+
+    row.set("n", VirtualValues.node(1))
+    row.getByName("n") should equal(VirtualValues.node(1))
+    row.numberOfColumns should equal(1)
+  }
+
+  test("should fall back to overflow for variables that are not in the layout") {
+    val row = ArrayCypherRow.empty(layout)
+    row.set("unknown", intValue(1))
+
+    row.containsName("unknown") shouldBe true
+    row.getByName("unknown") should equal(intValue(1))
+  }
+
+  test("should fail on unset variables") {
+    val row = ArrayCypherRow.empty(layout)
+
+    row.containsName("n") shouldBe false
+    row.containsName("x") shouldBe false
+    a[NotFoundException] should be thrownBy row.getByName("n")
+    a[NotFoundException] should be thrownBy row.getByName("x")
+    a[NotFoundException] should be thrownBy row.getByName("unknown")
+  }
+
+  test("copies should not share state with the original row") {
+    val row = ArrayCypherRow.empty(layout)
+    row.set("n", VirtualValues.node(1), "x", intValue(1))
+
+    val copy = row.copyWith("y", intValue(2))
+    copy.set("n", VirtualValues.node(2))
+
+    row.getByName("n") should equal(VirtualValues.node(1))
+    row.containsName("y") shouldBe false
+    copy.getByName("n") should equal(VirtualValues.node(2))
+    copy.getByName("x") should equal(intValue(1))
+    copy.getByName("y") should equal(intValue(2))
+  }
+
+  test("should merge with rows of the same layout") {
+    val left = ArrayCypherRow.empty(layout)
+    left.set("n", VirtualValues.node(1))
+    val right = ArrayCypherRow.empty(layout)
+    right.set("r", VirtualValues.relationship(2), "x", intValue(3))
+
+    left.mergeWith(right, null)
+
+    left.getByName("n") should equal(VirtualValues.node(1))
+    left.getByName("r") should equal(VirtualValues.relationship(2))
+    left.getByName("x") should equal(intValue(3))
+  }
+
+  test("should merge with map rows") {
+    val row = ArrayCypherRow.empty(layout)
+    row.mergeWith(CypherRow.from("n" -> VirtualValues.node(1), "unknown" -> intValue(2)), null)
+
+    row.getByName("n") should equal(VirtualValues.node(1))
+    row.getByName("unknown") should equal(intValue(2))
+  }
+}
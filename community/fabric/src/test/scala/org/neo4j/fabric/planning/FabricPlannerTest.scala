@@ -44,6 +44,7 @@ import org.neo4j.cypher.internal.options.CypherExecutionMode
 import org.neo4j.cypher.internal.options.CypherExpressionEngineOption
 import org.neo4j.cypher.internal.options.CypherInterpretedPipesFallbackOption
 import org.neo4j.cypher.internal.options.CypherOperatorEngineOption
+import org.neo4j.cypher.internal.options.CypherParallelAggregationOption
 import org.neo4j.cypher.internal.options.CypherPlannerOption
 import org.neo4j.cypher.internal.options.CypherQueryOptions
 import org.neo4j.cypher.internal.options.CypherReplanOption
@@ -1043,6 +1044,7 @@ class FabricPlannerTest
           interpretedPipesFallback = CypherInterpretedPipesFallbackOption.disabled,
           replan = CypherReplanOption.force,
           connectComponentsPlanner = CypherConnectComponentsPlannerOption.greedy,
+          parallelAggregation = CypherParallelAggregationOption.default,
           debugOptions = CypherDebugOptions(Set(CypherDebugOption.tostring))
         )
       )
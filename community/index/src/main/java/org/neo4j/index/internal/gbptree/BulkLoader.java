@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.Closeable;
+import java.io.UncheckedIOException;
+
+/**
+ * Builds the contents of an empty {@link GBPTree} from key/value pairs {@link #add(Object, Object) added} in strictly ascending key order.
+ * Leaves are filled one after the other, left to right, up to a fill factor and the internal levels are built on top of them
+ * as leaves complete. No key is inserted by descending from the root and no node is ever split, which makes this a lot cheaper
+ * than inserting the same sorted entries through a {@link Writer}.
+ * <p>
+ * The built tree becomes visible, i.e. replaces the empty root, when the loader is {@link #close() closed}.
+ * Like the {@link Writer} there can only be one bulk loader or writer at any given time, acquired from
+ * {@link GBPTree#bulkLoader(double, org.neo4j.io.pagecache.context.CursorContext)}.
+ *
+ * @param <KEY> type of keys
+ * @param <VALUE> type of values
+ */
+public interface BulkLoader<KEY,VALUE> extends Closeable
+{
+    /**
+     * Appends {@code key} and its {@code value} to the tree being built.
+     *
+     * @param key key to add, must be greater than the previously added key.
+     * @param value value to associate with key.
+     * @throws IllegalArgumentException if {@code key} is not greater than the previously added key.
+     * @throws UncheckedIOException on index access error.
+     */
+    void add( KEY key, VALUE value );
+
+    /**
+     * Completes the internal levels of the tree and makes the tree built by this loader the current tree.
+     *
+     * @throws UncheckedIOException on index access error.
+     */
+    @Override
+    void close();
+}
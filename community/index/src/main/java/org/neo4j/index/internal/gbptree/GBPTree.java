@@ -31,10 +31,18 @@ import java.nio.file.NoSuchFileException;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
 import java.util.function.LongSupplier;
 import java.util.function.Supplier;
@@ -66,6 +74,8 @@ import static org.neo4j.index.internal.gbptree.PageCursorUtil.checkOutOfBounds;
 import static org.neo4j.index.internal.gbptree.PointerChecking.assertNoSuccessor;
 import static org.neo4j.index.internal.gbptree.SeekCursor.DEFAULT_MAX_READ_AHEAD;
 import static org.neo4j.index.internal.gbptree.SeekCursor.LEAF_LEVEL;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.INTERNAL;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.LEAF;
 import static org.neo4j.internal.helpers.Exceptions.withMessage;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 
@@ -93,6 +103,8 @@ import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
  * <p>
  * A single writer w/ multiple concurrent readers is supported. Assuming usage adheres to this
  * constraint neither writer nor readers are blocking. Readers are virtually garbage-free.
+ * Alternatively multiple {@link #concurrentWriter(CursorContext) concurrent writers} can modify the tree in parallel,
+ * as long as their changes stay within single leaves, see {@link ConcurrentWriter}.
  * <p>
  * An reader of GB+Tree is a {@link SeekCursor} that returns result as it finds them.
  * As the cursor move over keys/values, returned results are considered "behind" it
@@ -141,6 +153,11 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
 {
     private static final String INDEX_INTERNAL_TAG = "indexInternal";
 
+    /**
+     * Number of {@link #leafLatches}, must be a power of two.
+     */
+    private static final int LEAF_LATCH_STRIPES = 256;
+
     /**
      * For monitoring {@link GBPTree}.
      */
@@ -384,6 +401,33 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
      */
     private final SingleWriter writer;
 
+    /**
+     * Format of the tree nodes in this tree. Used for creating a {@link TreeNode} per {@link ConcurrentWriter},
+     * since writing to a tree node may use state kept in the {@link TreeNode} instance.
+     */
+    private final TreeNodeSelector.Factory treeNodeFormat;
+
+    /**
+     * Store of keys and values too large to be inlined in tree nodes.
+     */
+    private final OffloadStoreImpl<KEY,VALUE> offloadStore;
+
+    /**
+     * Closed {@link ConcurrentWriter concurrent writers}, kept for reuse by {@link #concurrentWriter(CursorContext)}.
+     */
+    private final Queue<ConcurrentWriter> concurrentWriters = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Held shared by {@link ConcurrentWriter concurrent writers} while changing a single leaf in place and exclusively
+     * while changing the structure of the tree, i.e. splitting, merging or rebalancing nodes, or creating successors.
+     */
+    private final ReadWriteLock structureLock = new ReentrantReadWriteLock();
+
+    /**
+     * Latches held by {@link ConcurrentWriter concurrent writers} while changing a leaf in place, striped on leaf id.
+     */
+    private final Lock[] leafLatches = newLeafLatches();
+
     /**
      * Tells whether or not there have been made changes (using {@link #writer(CursorContext)}) to this tree
      * since last call to {@link #checkpoint(CursorContext)}. This variable is set when calling {@link #writer(CursorContext)}
@@ -392,7 +436,7 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
     private volatile boolean changesSinceLastCheckpoint;
 
     /**
-     * Lock with two individual parts. Writer lock and cleaner lock.
+     * Lock with three individual parts. Writer lock, shared writer lock and cleaner lock.
      * <p>
      * There are a few different scenarios that involve writing or flushing that can not be happen concurrently:
      * <ul>
@@ -400,7 +444,8 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
      *     <li>Checkpoint and close</li>
      *     <li>Write and checkpoint</li>
      * </ul>
-     * For those scenarios, writer lock is taken.
+     * For those scenarios, writer lock is taken. {@link ConcurrentWriter Concurrent writers} take the shared writer lock,
+     * which can be held by many concurrent writers at the same time, but not together with the writer lock.
      * <p>
      * If cleaning of crash pointers is needed the tree can not be allowed to perform a checkpoint until that job
      * has finished. For this scenario, cleaner lock is taken.
@@ -609,7 +654,8 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
                 format = TreeNodeSelector.selectByFormat( meta.getFormatIdentifier(), meta.getFormatVersion() );
             }
             this.freeList = new FreeListIdProvider( pagedFile, rootId );
-            OffloadStoreImpl<KEY,VALUE> offloadStore = buildOffload( layout, freeList, pagedFile, pageSize );
+            this.treeNodeFormat = format;
+            this.offloadStore = buildOffload( layout, freeList, pagedFile, pageSize );
             this.bTreeNode = format.create( pageSize, layout, offloadStore );
             this.writer = new SingleWriter( new InternalTreeLogic<>( freeList, bTreeNode, layout, monitor ) );
 
@@ -787,9 +833,32 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
      */
     public static void readHeader( PageCache pageCache, Path indexFile, Header.Reader headerReader, String databaseName, CursorContext cursorContext )
             throws IOException, MetadataMismatchException
+    {
+        readHeader( pageCache, indexFile, null, headerReader, databaseName, cursorContext );
+    }
+
+    /**
+     * Like {@link #readHeader(PageCache, Path, Header.Reader, String, CursorContext)}, but also verifies that the index file was created
+     * with a layout compatible with the given one, so that the header isn't read from an index that cannot be opened with that layout anyway.
+     *
+     * @param pageCache {@link PageCache} to use to map index file
+     * @param indexFile {@link Path} containing the actual index
+     * @param layout {@link Layout} that the index is expected to have been created with, or {@code null} to not verify the layout.
+     * @param headerReader reads header data, previously written using {@link #checkpoint( Consumer, CursorContext)}
+     * or {@link #close()}
+     * @param databaseName name of the database index file belongs to.
+     * @throws IOException On page cache error
+     * @throws MetadataMismatchException if some meta page is missing (tree not fully initialized), or the layout doesn't match
+     */
+    public static void readHeader( PageCache pageCache, Path indexFile, Layout<?,?> layout, Header.Reader headerReader, String databaseName,
+            CursorContext cursorContext ) throws IOException, MetadataMismatchException
     {
         try ( PagedFile pagedFile = openExistingIndexFile( pageCache, indexFile, cursorContext, databaseName, immutable.empty() ) )
         {
+            if ( layout != null )
+            {
+                readMeta( pagedFile, cursorContext ).verify( layout );
+            }
             Pair<TreeState,TreeState> states = loadStatePages( pagedFile, cursorContext );
             TreeState state = TreeStatePair.selectNewestValidState( states );
             try ( PageCursor cursor = pagedFile.io( state.pageId(), PF_SHARED_READ_LOCK, cursorContext ) )
@@ -1412,11 +1481,111 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         return writer;
     }
 
+    /**
+     * Returns a {@link Writer} able to modify the index at the same time as other writers returned from this method.
+     * Changes that fit in a single leaf are made in place while holding only a latch on that leaf, so that writers changing
+     * different leaves don't wait for each other. Changes that need to split, merge or rebalance nodes, or to create successors
+     * of nodes written before the last checkpoint, wait for all in-place changes to complete and are then made one at a time.
+     * For that reason the {@link ValueMerger} given to a merge may be consulted more than once for the same call.
+     * <p>
+     * Concurrent writers can not be open at the same time as the {@link #writer(CursorContext) single writer},
+     * a {@link #bulkLoader(double, CursorContext) bulk loader} or a {@link #checkpoint(CursorContext) checkpoint}, which all wait
+     * for open concurrent writers to be closed. Each returned writer must be used by one thread at a time and be
+     * {@link Writer#close() closed} after usage, typically by using try-with-resource clause.
+     *
+     * @param cursorContext underlying page cursor context
+     * @return a {@link Writer} which can be used in parallel with other concurrent writers.
+     * @throws IOException on error accessing the index.
+     */
+    public Writer<KEY,VALUE> concurrentWriter( CursorContext cursorContext ) throws IOException
+    {
+        assertNotReadOnly( "Open concurrent tree writer." );
+        ConcurrentWriter concurrentWriter = concurrentWriters.poll();
+        if ( concurrentWriter == null )
+        {
+            concurrentWriter = new ConcurrentWriter();
+        }
+        concurrentWriter.initialize( cursorContext );
+        changesSinceLastCheckpoint = true;
+        return concurrentWriter;
+    }
+
+    /**
+     * Returns a {@link BulkLoader} able to build the contents of this index from entries given in sorted order.
+     * The index must be empty. After usage the returned loader must be closed, which is also when the loaded entries
+     * become visible, typically by using try-with-resource clause.
+     *
+     * @param fillFactor ratio of each tree node to fill before moving on to the next, 0 < fillFactor <= 1.
+     * Lower values leave room for future inserts without splits.
+     * @param cursorContext underlying page cursor context
+     * @return a {@link BulkLoader} for this index. The returned loader must be {@link BulkLoader#close() closed}
+     * before a {@link Writer} or another loader can be acquired.
+     * @throws IOException on error accessing the index.
+     * @throws IllegalStateException if this index isn't empty.
+     */
+    public BulkLoader<KEY,VALUE> bulkLoader( double fillFactor, CursorContext cursorContext ) throws IOException
+    {
+        assertNotReadOnly( "Open tree bulk loader." );
+        Preconditions.checkArgument( fillFactor > 0 && fillFactor <= 1, "Fill factor must be in range (0,1], but was %f", fillFactor );
+        SingleBulkLoader bulkLoader = new SingleBulkLoader( fillFactor, cursorContext );
+        changesSinceLastCheckpoint = true;
+        return bulkLoader;
+    }
+
     private void setRoot( long rootId, long rootGeneration )
     {
         this.root = new Root( rootId, rootGeneration );
     }
 
+    /**
+     * Grows the tree with a new root if the root was split, or sets the successor of the root as new root,
+     * as told by {@code structurePropagation} after a change made by {@link InternalTreeLogic}.
+     * {@code structurePropagation} is cleared afterwards.
+     *
+     * @return {@code true} if the root changed, otherwise {@code false}.
+     * @throws IOException on cursor failure
+     */
+    private boolean handleRootChanges( PageCursor cursor, TreeNode<KEY,VALUE> treeNode, StructurePropagation<KEY> structurePropagation,
+            long stableGeneration, long unstableGeneration, CursorContext cursorContext ) throws IOException
+    {
+        boolean rootChanged = true;
+        if ( structurePropagation.hasRightKeyInsert )
+        {
+            // New root
+            long newRootId = freeList.acquireNewId( stableGeneration, unstableGeneration, cursorContext );
+            PageCursorUtil.goTo( cursor, "new root", newRootId );
+
+            treeNode.initializeInternal( cursor, stableGeneration, unstableGeneration );
+            treeNode.setChildAt( cursor, structurePropagation.midChild, 0,
+                    stableGeneration, unstableGeneration );
+            treeNode.insertKeyAndRightChildAt( cursor, structurePropagation.rightKey, structurePropagation.rightChild, 0, 0,
+                    stableGeneration, unstableGeneration, cursorContext );
+            TreeNode.setKeyCount( cursor, 1 );
+            setRoot( newRootId, unstableGeneration );
+            monitor.treeGrowth();
+        }
+        else if ( structurePropagation.hasMidChildUpdate )
+        {
+            setRoot( GenerationSafePointerPair.pointer( structurePropagation.midChild ), unstableGeneration );
+        }
+        else
+        {
+            rootChanged = false;
+        }
+        structurePropagation.clear();
+        return rootChanged;
+    }
+
+    private static Lock[] newLeafLatches()
+    {
+        Lock[] latches = new Lock[LEAF_LATCH_STRIPES];
+        for ( int i = 0; i < latches.length; i++ )
+        {
+            latches[i] = new ReentrantLock();
+        }
+        return latches;
+    }
+
     /**
      * Bump unstable generation, increasing the gap between stable and unstable generation. All pointers and tree nodes
      * with generation in this gap are considered to be 'crashed' and will be cleaned up by {@link CleanupJob}
@@ -1732,13 +1901,6 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
             checkOutOfBounds( cursor );
         }
 
-        private void setRoot( long rootPointer )
-        {
-            long rootId = GenerationSafePointerPair.pointer( rootPointer );
-            GBPTree.this.setRoot( rootId, unstableGeneration );
-            treeLogic.initialize( cursor, ratioToKeepInLeftOnSplit );
-        }
-
         @Override
         public VALUE remove( KEY key )
         {
@@ -1767,26 +1929,10 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
 
         private void handleStructureChanges( CursorContext cursorContext ) throws IOException
         {
-            if ( structurePropagation.hasRightKeyInsert )
-            {
-                // New root
-                long newRootId = freeList.acquireNewId( stableGeneration, unstableGeneration, cursorContext );
-                PageCursorUtil.goTo( cursor, "new root", newRootId );
-
-                bTreeNode.initializeInternal( cursor, stableGeneration, unstableGeneration );
-                bTreeNode.setChildAt( cursor, structurePropagation.midChild, 0,
-                        stableGeneration, unstableGeneration );
-                bTreeNode.insertKeyAndRightChildAt( cursor, structurePropagation.rightKey, structurePropagation.rightChild, 0, 0,
-                        stableGeneration, unstableGeneration, cursorContext );
-                TreeNode.setKeyCount( cursor, 1 );
-                setRoot( newRootId );
-                monitor.treeGrowth();
-            }
-            else if ( structurePropagation.hasMidChildUpdate )
+            if ( handleRootChanges( cursor, bTreeNode, structurePropagation, stableGeneration, unstableGeneration, cursorContext ) )
             {
-                setRoot( structurePropagation.midChild );
+                treeLogic.initialize( cursor, ratioToKeepInLeftOnSplit );
             }
-            structurePropagation.clear();
         }
 
         @Override
@@ -1811,6 +1957,595 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         }
     }
 
+    /**
+     * {@link Writer} that can be used in parallel with other concurrent writers, see {@link #concurrentWriter(CursorContext)}.
+     * <p>
+     * Each change is first attempted in place in the leaf where the key belongs, holding {@link #structureLock} shared and the latch
+     * of that leaf. Internal nodes are only changed while holding {@link #structureLock} exclusively, so the path from the root
+     * to the leaf can be followed without latches. A change can only be made in place if the leaf is of the unstable generation,
+     * i.e. needs no successor, if the change neither overflows nor underflows the leaf and if it involves no offloaded entries,
+     * since all of those would involve other nodes or the free-list. Other changes are made by {@link InternalTreeLogic},
+     * like the {@link SingleWriter} does, holding {@link #structureLock} exclusively.
+     */
+    private class ConcurrentWriter implements Writer<KEY,VALUE>
+    {
+        private final TreeNode<KEY,VALUE> treeNode;
+        private final InternalTreeLogic<KEY,VALUE> treeLogic;
+        private final StructurePropagation<KEY> structurePropagation;
+        private final KEY readKey;
+        private final VALUE readValue;
+        private PageCursor cursor;
+        private CursorContext cursorContext;
+        private boolean removedInLeaf;
+
+        // Writer can't live past a checkpoint because of the mutex with checkpoint,
+        // therefore safe to locally cache these generation fields from the volatile generation in the tree
+        private long stableGeneration;
+        private long unstableGeneration;
+
+        ConcurrentWriter()
+        {
+            this.treeNode = treeNodeFormat.create( pageSize, layout, offloadStore );
+            this.treeLogic = new InternalTreeLogic<>( freeList, treeNode, layout, monitor );
+            this.structurePropagation = new StructurePropagation<>( layout.newKey(), layout.newKey(), layout.newKey() );
+            this.readKey = layout.newKey();
+            this.readValue = layout.newValue();
+        }
+
+        void initialize( CursorContext cursorContext ) throws IOException
+        {
+            boolean success = false;
+            // Block here until cleaning has completed, if cleaning was required
+            lock.sharedWriterLock();
+            try
+            {
+                assertRecoveryCleanSuccessful();
+                cursor = openRootCursor( PagedFile.PF_SHARED_WRITE_LOCK, cursorContext );
+                this.cursorContext = cursorContext;
+                stableGeneration = stableGeneration( generation );
+                unstableGeneration = unstableGeneration( generation );
+                success = true;
+            }
+            catch ( Throwable e )
+            {
+                appendTreeInformation( e );
+                throw e;
+            }
+            finally
+            {
+                if ( !success )
+                {
+                    closeCursor();
+                    lock.sharedWriterUnlock();
+                }
+            }
+        }
+
+        @Override
+        public void put( KEY key, VALUE value )
+        {
+            merge( key, value, ValueMergers.overwrite() );
+        }
+
+        @Override
+        public void merge( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger )
+        {
+            internalMerge( key, value, valueMerger, true );
+        }
+
+        @Override
+        public void mergeIfExists( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger )
+        {
+            internalMerge( key, value, valueMerger, false );
+        }
+
+        private void internalMerge( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger, boolean createIfNotExists )
+        {
+            try
+            {
+                boolean mergedInLeaf;
+                structureLock.readLock().lock();
+                try
+                {
+                    mergedInLeaf = tryMergeInLeaf( key, value, valueMerger, createIfNotExists );
+                }
+                finally
+                {
+                    structureLock.readLock().unlock();
+                }
+
+                if ( !mergedInLeaf )
+                {
+                    structureLock.writeLock().lock();
+                    try
+                    {
+                        initializeTreeLogic();
+                        treeLogic.insert( cursor, structurePropagation, key, value, valueMerger, createIfNotExists,
+                                stableGeneration, unstableGeneration, cursorContext );
+                        handleRootChanges( cursor, treeNode, structurePropagation, stableGeneration, unstableGeneration, cursorContext );
+                    }
+                    finally
+                    {
+                        structureLock.writeLock().unlock();
+                    }
+                }
+            }
+            catch ( IOException e )
+            {
+                appendTreeInformation( e );
+                throw new UncheckedIOException( e );
+            }
+            catch ( Throwable t )
+            {
+                appendTreeInformation( t );
+                throw t;
+            }
+
+            checkOutOfBounds( cursor );
+        }
+
+        @Override
+        public VALUE remove( KEY key )
+        {
+            VALUE result;
+            try
+            {
+                VALUE into = layout.newValue();
+                boolean handledInLeaf;
+                structureLock.readLock().lock();
+                try
+                {
+                    handledInLeaf = tryRemoveInLeaf( key, into );
+                }
+                finally
+                {
+                    structureLock.readLock().unlock();
+                }
+
+                if ( handledInLeaf )
+                {
+                    result = removedInLeaf ? into : null;
+                }
+                else
+                {
+                    structureLock.writeLock().lock();
+                    try
+                    {
+                        initializeTreeLogic();
+                        result = treeLogic.remove( cursor, structurePropagation, key, into, stableGeneration, unstableGeneration, cursorContext );
+                        handleRootChanges( cursor, treeNode, structurePropagation, stableGeneration, unstableGeneration, cursorContext );
+                    }
+                    finally
+                    {
+                        structureLock.writeLock().unlock();
+                    }
+                }
+            }
+            catch ( IOException e )
+            {
+                appendTreeInformation( e );
+                throw new UncheckedIOException( e );
+            }
+            catch ( Throwable e )
+            {
+                appendTreeInformation( e );
+                throw e;
+            }
+
+            checkOutOfBounds( cursor );
+            return result;
+        }
+
+        /**
+         * Merges {@code key} and {@code value} into the leaf where {@code key} belongs, if that can be done without changing any other node.
+         *
+         * @return {@code true} if the merge was completed, otherwise {@code false} and it needs to be done by {@link #treeLogic}.
+         */
+        private boolean tryMergeInLeaf( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger, boolean createIfNotExists ) throws IOException
+        {
+            if ( !goToLeaf( key ) )
+            {
+                return false;
+            }
+            Lock leafLatch = leafLatch( cursor.getCurrentPageId() );
+            leafLatch.lock();
+            try
+            {
+                if ( TreeNode.generation( cursor ) != unstableGeneration )
+                {
+                    return false;
+                }
+                int keyCount = TreeNode.keyCount( cursor );
+                int searchResult = KeySearch.search( cursor, treeNode, LEAF, key, readKey, keyCount, cursorContext );
+                if ( !KeySearch.isSuccess( searchResult ) )
+                {
+                    return false;
+                }
+                int pos = KeySearch.positionOf( searchResult );
+                if ( KeySearch.isHit( searchResult ) )
+                {
+                    treeNode.keyAt( cursor, readKey, pos, LEAF, cursorContext );
+                    treeNode.valueAt( cursor, readValue, pos, cursorContext );
+                    if ( !isInlined( readKey, readValue ) )
+                    {
+                        return false;
+                    }
+                    ValueMerger.MergeResult mergeResult = valueMerger.merge( readKey, key, readValue, value );
+                    switch ( mergeResult )
+                    {
+                    case UNCHANGED:
+                        return true;
+                    case REPLACED:
+                        return isInlined( readKey, value ) && treeNode.setValueAt( cursor, value, pos );
+                    case MERGED:
+                        return isInlined( readKey, readValue ) && treeNode.setValueAt( cursor, readValue, pos );
+                    case REMOVED:
+                        return removeInLeaf( pos, keyCount );
+                    default:
+                        throw new UnsupportedOperationException( "Unexpected merge result " + mergeResult );
+                    }
+                }
+
+                if ( !createIfNotExists )
+                {
+                    return true;
+                }
+                if ( !isInlined( key, value ) )
+                {
+                    return false;
+                }
+                TreeNode.Overflow overflow = treeNode.leafOverflow( cursor, keyCount, key, value );
+                if ( overflow == TreeNode.Overflow.YES )
+                {
+                    return false;
+                }
+                if ( overflow == TreeNode.Overflow.NO_NEED_DEFRAG )
+                {
+                    treeNode.defragmentLeaf( cursor );
+                }
+                treeNode.insertKeyValueAt( cursor, key, value, pos, keyCount, stableGeneration, unstableGeneration, cursorContext );
+                TreeNode.setKeyCount( cursor, keyCount + 1 );
+                return true;
+            }
+            finally
+            {
+                leafLatch.unlock();
+            }
+        }
+
+        /**
+         * Removes {@code key} from the leaf where it belongs, if that can be done without changing any other node.
+         * If completed, {@link #removedInLeaf} tells whether or not {@code key} was found, and if so its value is read into {@code into}.
+         *
+         * @return {@code true} if the remove was completed, otherwise {@code false} and it needs to be done by {@link #treeLogic}.
+         */
+        private boolean tryRemoveInLeaf( KEY key, VALUE into ) throws IOException
+        {
+            removedInLeaf = false;
+            if ( !goToLeaf( key ) )
+            {
+                return false;
+            }
+            Lock leafLatch = leafLatch( cursor.getCurrentPageId() );
+            leafLatch.lock();
+            try
+            {
+                if ( TreeNode.generation( cursor ) != unstableGeneration )
+                {
+                    return false;
+                }
+                int keyCount = TreeNode.keyCount( cursor );
+                int searchResult = KeySearch.search( cursor, treeNode, LEAF, key, readKey, keyCount, cursorContext );
+                if ( !KeySearch.isSuccess( searchResult ) )
+                {
+                    return false;
+                }
+                if ( !KeySearch.isHit( searchResult ) )
+                {
+                    return true;
+                }
+                int pos = KeySearch.positionOf( searchResult );
+                treeNode.keyAt( cursor, readKey, pos, LEAF, cursorContext );
+                treeNode.valueAt( cursor, into, pos, cursorContext );
+                if ( !isInlined( readKey, into ) || !removeInLeaf( pos, keyCount ) )
+                {
+                    return false;
+                }
+                removedInLeaf = true;
+                return true;
+            }
+            finally
+            {
+                leafLatch.unlock();
+            }
+        }
+
+        private boolean removeInLeaf( int pos, int keyCount ) throws IOException
+        {
+            if ( treeNode.leafUnderflowOnRemove( cursor, keyCount, pos ) )
+            {
+                return false;
+            }
+            treeNode.removeKeyValueAt( cursor, pos, keyCount, stableGeneration, unstableGeneration, cursorContext );
+            TreeNode.setKeyCount( cursor, keyCount - 1 );
+            return true;
+        }
+
+        /**
+         * Moves {@link #cursor} from the root down to the leaf where {@code key} belongs.
+         *
+         * @return {@code true} if the cursor is at the leaf, or {@code false} if a node on the way has a successor,
+         * in which case changes can not be made in place.
+         */
+        private boolean goToLeaf( KEY key ) throws IOException
+        {
+            root.goTo( cursor );
+            while ( true )
+            {
+                if ( TreeNode.nodeType( cursor ) != TreeNode.NODE_TYPE_TREE_NODE ||
+                        TreeNode.isNode( TreeNode.successor( cursor, stableGeneration, unstableGeneration ) ) )
+                {
+                    return false;
+                }
+                if ( TreeNode.isLeaf( cursor ) )
+                {
+                    return true;
+                }
+                int keyCount = TreeNode.keyCount( cursor );
+                int searchResult = KeySearch.search( cursor, treeNode, INTERNAL, key, readKey, keyCount, cursorContext );
+                if ( !KeySearch.isSuccess( searchResult ) )
+                {
+                    return false;
+                }
+                long childId = treeNode.childAt( cursor, KeySearch.childPositionOf( searchResult ), stableGeneration, unstableGeneration );
+                if ( !GenerationSafePointerPair.isSuccess( childId ) )
+                {
+                    return false;
+                }
+                PageCursorUtil.goTo( cursor, "child", childId );
+            }
+        }
+
+        private boolean isInlined( KEY key, VALUE value )
+        {
+            int inlineKeyValueSizeCap = treeNode.inlineKeyValueSizeCap();
+            return inlineKeyValueSizeCap == TreeNode.NO_KEY_VALUE_SIZE_CAP ||
+                    layout.keySize( key ) + layout.valueSize( value ) <= inlineKeyValueSizeCap;
+        }
+
+        private void initializeTreeLogic() throws IOException
+        {
+            root.goTo( cursor );
+            assert assertNoSuccessor( cursor, stableGeneration, unstableGeneration );
+            treeLogic.initialize( cursor );
+        }
+
+        @Override
+        public void close()
+        {
+            closeCursor();
+            lock.sharedWriterUnlock();
+            concurrentWriters.offer( this );
+        }
+
+        private void closeCursor()
+        {
+            if ( cursor != null )
+            {
+                cursor.close();
+                cursor = null;
+            }
+        }
+    }
+
+    private Lock leafLatch( long leafId )
+    {
+        return leafLatches[(int) (leafId & (LEAF_LATCH_STRIPES - 1))];
+    }
+
+    private class SingleBulkLoader implements BulkLoader<KEY,VALUE>
+    {
+        private final double fillFactor;
+        private final CursorContext cursorContext;
+        // Bulk loader holds the writer lock, so it can't live past a checkpoint and may cache the generation, just like the writer
+        private final long stableGeneration;
+        private final long unstableGeneration;
+        private final KEY previousKey;
+        private final KEY splitter;
+        /**
+         * The right-most node on each internal level, bottom-up. The top-most level holds the root when loading completes.
+         */
+        private final List<InternalLevel> internalLevels = new ArrayList<>();
+        private PageCursor cursor;
+        private long leafId = TreeNode.NO_NODE_FLAG;
+        private int leafKeyCount;
+
+        SingleBulkLoader( double fillFactor, CursorContext cursorContext ) throws IOException
+        {
+            this.fillFactor = fillFactor;
+            this.cursorContext = cursorContext;
+            this.previousKey = layout.newKey();
+            this.splitter = layout.newKey();
+
+            boolean success = false;
+            lock.writerAndCleanerLock();
+            try
+            {
+                assertRecoveryCleanSuccessful();
+                cursor = openRootCursor( PagedFile.PF_SHARED_WRITE_LOCK, cursorContext );
+                stableGeneration = stableGeneration( generation );
+                unstableGeneration = unstableGeneration( generation );
+                if ( !TreeNode.isLeaf( cursor ) || TreeNode.keyCount( cursor ) != 0 )
+                {
+                    throw new IllegalStateException( "Can only bulk load into an empty tree, but " + GBPTree.this + " has entries" );
+                }
+                success = true;
+            }
+            finally
+            {
+                if ( !success )
+                {
+                    closeCursor();
+                    lock.writerAndCleanerUnlock();
+                }
+            }
+        }
+
+        @Override
+        public void add( KEY key, VALUE value )
+        {
+            try
+            {
+                bTreeNode.validateKeyValueSize( key, value );
+                if ( leafId == TreeNode.NO_NODE_FLAG )
+                {
+                    leafId = newNode( true, TreeNode.NO_NODE_FLAG );
+                }
+                else
+                {
+                    if ( layout.compare( previousKey, key ) >= 0 )
+                    {
+                        throw new IllegalArgumentException( format( "Bulk loaded keys must be added in strictly ascending order, but got %s after %s",
+                                key, previousKey ) );
+                    }
+                    TreeNode.goTo( cursor, "leaf", leafId );
+                    if ( bTreeNode.reachedFillFactor( cursor, leafKeyCount, LEAF, fillFactor ) ||
+                         bTreeNode.leafOverflow( cursor, leafKeyCount, key, value ) != TreeNode.Overflow.NO )
+                    {
+                        long previousLeafId = leafId;
+                        leafId = newNode( true, previousLeafId );
+                        leafKeyCount = 0;
+                        layout.minimalSplitter( previousKey, key, splitter );
+                        addToInternalLevel( 0, previousLeafId, splitter, leafId );
+                        TreeNode.goTo( cursor, "leaf", leafId );
+                    }
+                }
+
+                bTreeNode.insertKeyValueAt( cursor, key, value, leafKeyCount, leafKeyCount, stableGeneration, unstableGeneration, cursorContext );
+                leafKeyCount++;
+                TreeNode.setKeyCount( cursor, leafKeyCount );
+                checkOutOfBounds( cursor );
+                layout.copyKey( key, previousKey );
+            }
+            catch ( IOException e )
+            {
+                appendTreeInformation( e );
+                throw new UncheckedIOException( e );
+            }
+        }
+
+        /**
+         * Adds {@code rightChild} to the right-most node on the given internal level, with {@code key} separating it from {@code leftChild}.
+         * If that node is full a new node is started, which is then in turn added to the level above.
+         */
+        private void addToInternalLevel( int levelIndex, long leftChild, KEY key, long rightChild ) throws IOException
+        {
+            if ( levelIndex == internalLevels.size() )
+            {
+                // The left child was the top-most node so far, grow the tree with one level
+                long nodeId = newNode( false, TreeNode.NO_NODE_FLAG );
+                bTreeNode.setChildAt( cursor, leftChild, 0, stableGeneration, unstableGeneration );
+                internalLevels.add( new InternalLevel( nodeId ) );
+                monitor.treeGrowth();
+            }
+
+            InternalLevel level = internalLevels.get( levelIndex );
+            TreeNode.goTo( cursor, "internal", level.nodeId );
+            if ( level.keyCount > 0 &&
+                 (bTreeNode.reachedFillFactor( cursor, level.keyCount, INTERNAL, fillFactor ) ||
+                  bTreeNode.internalOverflow( cursor, level.keyCount, key ) != TreeNode.Overflow.NO) )
+            {
+                // The key moves up to separate the full node from the new one
+                long previousNodeId = level.nodeId;
+                level.nodeId = newNode( false, previousNodeId );
+                level.keyCount = 0;
+                bTreeNode.setChildAt( cursor, rightChild, 0, stableGeneration, unstableGeneration );
+                checkOutOfBounds( cursor );
+                addToInternalLevel( levelIndex + 1, previousNodeId, key, level.nodeId );
+                return;
+            }
+
+            bTreeNode.insertKeyAndRightChildAt( cursor, key, rightChild, level.keyCount, level.keyCount, stableGeneration, unstableGeneration,
+                    cursorContext );
+            level.keyCount++;
+            TreeNode.setKeyCount( cursor, level.keyCount );
+            checkOutOfBounds( cursor );
+        }
+
+        /**
+         * Acquires and initializes a new node and links it as right sibling of {@code leftSiblingId}, if there is one.
+         * Leaves the cursor at the new node.
+         */
+        private long newNode( boolean leaf, long leftSiblingId ) throws IOException
+        {
+            long nodeId = freeList.acquireNewId( stableGeneration, unstableGeneration, cursorContext );
+            if ( leftSiblingId != TreeNode.NO_NODE_FLAG )
+            {
+                TreeNode.goTo( cursor, "left sibling", leftSiblingId );
+                TreeNode.setRightSibling( cursor, nodeId, stableGeneration, unstableGeneration );
+            }
+            TreeNode.goTo( cursor, "new node", nodeId );
+            if ( leaf )
+            {
+                bTreeNode.initializeLeaf( cursor, stableGeneration, unstableGeneration );
+            }
+            else
+            {
+                bTreeNode.initializeInternal( cursor, stableGeneration, unstableGeneration );
+            }
+            if ( leftSiblingId != TreeNode.NO_NODE_FLAG )
+            {
+                TreeNode.setLeftSibling( cursor, leftSiblingId, stableGeneration, unstableGeneration );
+            }
+            return nodeId;
+        }
+
+        @Override
+        public void close()
+        {
+            try
+            {
+                if ( leafId != TreeNode.NO_NODE_FLAG )
+                {
+                    long newRootId = internalLevels.isEmpty() ? leafId : internalLevels.get( internalLevels.size() - 1 ).nodeId;
+                    long emptyRootId = root.id();
+                    setRoot( newRootId, unstableGeneration );
+                    freeList.releaseId( stableGeneration, unstableGeneration, emptyRootId, cursorContext );
+                }
+            }
+            catch ( IOException e )
+            {
+                appendTreeInformation( e );
+                throw new UncheckedIOException( e );
+            }
+            finally
+            {
+                closeCursor();
+                lock.writerAndCleanerUnlock();
+            }
+        }
+
+        private void closeCursor()
+        {
+            if ( cursor != null )
+            {
+                cursor.close();
+                cursor = null;
+            }
+        }
+
+        private class InternalLevel
+        {
+            private long nodeId;
+            private int keyCount;
+
+            InternalLevel( long nodeId )
+            {
+                this.nodeId = nodeId;
+            }
+        }
+    }
+
     /**
      * Total size limit for key and value.
      * This limit includes storage overhead that is specific to key implementation for example entity id or meta data about type.
@@ -26,10 +26,18 @@ import java.util.concurrent.locks.LockSupport;
 
 import org.neo4j.util.VisibleForTesting;
 
+/**
+ * Lock with a writer part and a cleaner part, where the writer part can either be locked exclusively, or shared by any number of
+ * concurrent writers. Exclusive writer lock and cleaner lock both wait for all shared writers to unlock and shared writers wait for
+ * both of them. An exclusive writer that is waiting keeps new shared writers from locking, so that it isn't starved by them.
+ */
 class GBPTreeLock
 {
     private static final long writerLockBit = 0x00000000_00000001L;
     private static final long cleanerLockBit = 0x00000000_00000002L;
+    private static final long writerWaitingBit = 0x00000000_00000004L;
+    private static final long sharedWriterUnit = 0x00000000_00000008L;
+    private static final long sharedWriterMask = ~(sharedWriterUnit - 1);
     @SuppressWarnings( "unused" ) // accessed via VarHandle
     private long state;
     private static final VarHandle STATE;
@@ -85,6 +93,25 @@ class GBPTreeLock
         doUnlock( writerLockBit | cleanerLockBit );
     }
 
+    void sharedWriterLock()
+    {
+        doLockShared();
+    }
+
+    void sharedWriterUnlock()
+    {
+        long currentState;
+        do
+        {
+            currentState = (long) STATE.getVolatile( this );
+            if ( (currentState & sharedWriterMask) == 0 )
+            {
+                throw new IllegalStateException( "Can not unlock shared writer lock that isn't locked" );
+            }
+        }
+        while ( !STATE.weakCompareAndSet( this, currentState, currentState - sharedWriterUnit ) );
+    }
+
     private void doLock( long targetLockBit )
     {
         long currentState;
@@ -94,14 +121,38 @@ class GBPTreeLock
             currentState = (long) STATE.getVolatile( this );
             while ( !canLock( currentState, targetLockBit ) )
             {
+                if ( (targetLockBit & writerLockBit) != 0 && (currentState & writerWaitingBit) == 0 )
+                {
+                    // Best effort, keep new shared writers out while waiting. Cleared by whoever gets the writer lock
+                    STATE.weakCompareAndSet( this, currentState, currentState | writerWaitingBit );
+                }
                 // sleep
                 sleep();
                 currentState = (long) STATE.getVolatile( this );
             }
             newState = currentState | targetLockBit;
+            if ( (targetLockBit & writerLockBit) != 0 )
+            {
+                newState &= ~writerWaitingBit;
+            }
         } while ( !STATE.weakCompareAndSet( this, currentState, newState ) );
     }
 
+    private void doLockShared()
+    {
+        long currentState;
+        do
+        {
+            currentState = (long) STATE.getVolatile( this );
+            while ( !canLockShared( currentState ) )
+            {
+                // sleep
+                sleep();
+                currentState = (long) STATE.getVolatile( this );
+            }
+        } while ( !STATE.weakCompareAndSet( this, currentState, currentState + sharedWriterUnit ) );
+    }
+
     private void doUnlock( long targetLockBit )
     {
         long currentState;
@@ -120,7 +171,12 @@ class GBPTreeLock
 
     private static boolean canLock( long state, long targetLockBit )
     {
-        return (state & targetLockBit) == 0;
+        return (state & targetLockBit) == 0 && (state & sharedWriterMask) == 0;
+    }
+
+    private static boolean canLockShared( long state )
+    {
+        return (state & (writerLockBit | cleanerLockBit | writerWaitingBit)) == 0;
     }
 
     private static boolean canUnlock( long state, long targetLockBit )
@@ -110,6 +110,17 @@ public interface Layout<KEY, VALUE> extends Comparator<KEY>
      */
     boolean fixedSize();
 
+    /**
+     * Indicate if keys are likely to share long prefixes in their serialized form, e.g. because they start with URLs or namespaced ids,
+     * in which case leaves store only the part of each key that differs from a prefix kept per leaf. Only applies to dynamic size layouts.
+     * This decides the format of tree nodes, so it must not change for an existing tree.
+     * @return true if keys should be stored prefix compressed in leaves, otherwise false.
+     */
+    default boolean compressKeyPrefixes()
+    {
+        return false;
+    }
+
     /**
      * Find shortest key (best effort) that separate left from right in sort order
      * and initialize into with result.
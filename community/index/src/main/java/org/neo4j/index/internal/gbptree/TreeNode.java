@@ -361,6 +361,20 @@ abstract class TreeNode<KEY,VALUE>
 
     abstract boolean leafUnderflow( PageCursor cursor, int keyCount );
 
+    /**
+     * Will leaf underflow if removing the key and value at {@code pos}?
+     * @return true if leaf would underflow after the key and value at {@code pos} is removed, else false.
+     */
+    abstract boolean leafUnderflowOnRemove( PageCursor cursor, int keyCount, int pos );
+
+    /**
+     * Has node reached the given fill factor, i.e. is at least {@code fillFactor} of its space in use?
+     * Used when bulk loading, where nodes are filled one after the other and never split.
+     * @param fillFactor ratio of node space, 0 < fillFactor <= 1, to fill before moving on to next node.
+     * @return true if node has reached the fill factor, otherwise false.
+     */
+    abstract boolean reachedFillFactor( PageCursor cursor, int keyCount, Type type, double fillFactor );
+
     /**
      * How do we best rebalance left and right leaf?
      * Can we move keys from underflowing left to right so that none of them underflow?
@@ -102,27 +102,40 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     private static final int LEAST_NUMBER_OF_ENTRIES_PER_PAGE = 2;
     private static final int MINIMUM_ENTRY_SIZE_CAP = Long.SIZE;
 
-    private final DynamicSizeOffsetFormat offsetFormat;
+    final DynamicSizeOffsetFormat offsetFormat;
+    private final int headerLength;
     private final int inlineKeyValueSizeCap;
     private final int keyValueSizeCap;
-    private final boolean msbIsOffload;
+    final boolean msbIsOffload;
     private final MutableIntStack deadKeysOffset = new IntArrayStack();
     private final MutableIntStack aliveKeysOffset = new IntArrayStack();
     private final int[] oldOffset;
     private final int[] newOffset;
-    private final int totalSpace;
-    private final int halfSpace;
+    final int totalSpace;
+    final int halfSpace;
     private final KEY tmpKeyLeft;
     private final KEY tmpKeyRight;
-    private final OffloadStore<KEY,VALUE> offloadStore;
+    final OffloadStore<KEY,VALUE> offloadStore;
     private final int maxKeyCount;
 
     TreeNodeDynamicSize( int pageSize, Layout<KEY,VALUE> layout, OffloadStore<KEY,VALUE> offloadStore )
+    {
+        this( pageSize, layout, offloadStore, 0, 0 );
+    }
+
+    /**
+     * @param additionalHeaderLength number of bytes to reserve after the header of this format, for subclasses that keep additional data per node.
+     * The reserved area starts at {@link DynamicSizeOffsetFormat#getHeaderLength()}.
+     * @param additionalInlineOverhead number of bytes that subclasses may add to the size of an inlined key, compared to its size in the layout.
+     */
+    TreeNodeDynamicSize( int pageSize, Layout<KEY,VALUE> layout, OffloadStore<KEY,VALUE> offloadStore, int additionalHeaderLength,
+            int additionalInlineOverhead )
     {
         super( pageSize, layout );
 
         this.offsetFormat = selectOffsetFormat( pageSize );
-        this.totalSpace = pageSize - offsetFormat.getHeaderLength();
+        this.headerLength = offsetFormat.getHeaderLength() + additionalHeaderLength;
+        this.totalSpace = pageSize - headerLength;
         this.maxKeyCount = totalSpace / getTotalEntryOverheadMin( offsetFormat );
         this.oldOffset = new int[maxKeyCount];
         this.newOffset = new int[maxKeyCount];
@@ -188,8 +201,10 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         inlineKeyValueSizeCap - How large entries can be inlined?
          */
         msbIsOffload = useOffloadStore( pageSize );
-        inlineKeyValueSizeCap = inlineKeyValueSizeCap( pageSize );
-        keyValueSizeCap = keyValueSizeCapFromPageSize( pageSize );
+        inlineKeyValueSizeCap = inlineKeyValueSizeCap( pageSize, headerLength, additionalInlineOverhead );
+        keyValueSizeCap = msbIsOffload ?
+                          Math.min( FIXED_MAX_KEY_VALUE_SIZE_CAP, OffloadStoreImpl.keyValueSizeCapFromPageSize( pageSize ) ) :
+                          Math.min( FIXED_MAX_KEY_VALUE_SIZE_CAP, inlineKeyValueSizeCap );
 
         if ( inlineKeyValueSizeCap < MINIMUM_ENTRY_SIZE_CAP )
         {
@@ -216,17 +231,28 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     @VisibleForTesting
     public static int keyValueSizeCapFromPageSize( int pageSize )
     {
+        return keyValueSizeCapFromPageSize( pageSize, 0, 0 );
+    }
+
+    static int keyValueSizeCapFromPageSize( int pageSize, int additionalHeaderLength, int additionalInlineOverhead )
+    {
+        int headerLength = selectOffsetFormat( pageSize ).getHeaderLength() + additionalHeaderLength;
         return useOffloadStore( pageSize ) ?
                Math.min( FIXED_MAX_KEY_VALUE_SIZE_CAP, OffloadStoreImpl.keyValueSizeCapFromPageSize( pageSize ) ) :
-               Math.min( FIXED_MAX_KEY_VALUE_SIZE_CAP, inlineKeyValueSizeCap( pageSize ) );
+               Math.min( FIXED_MAX_KEY_VALUE_SIZE_CAP, inlineKeyValueSizeCap( pageSize, headerLength, additionalInlineOverhead ) );
     }
 
     @VisibleForTesting
     public static int inlineKeyValueSizeCap( int pageSize )
+    {
+        return inlineKeyValueSizeCap( pageSize, selectOffsetFormat( pageSize ).getHeaderLength(), 0 );
+    }
+
+    private static int inlineKeyValueSizeCap( int pageSize, int headerLength, int additionalInlineOverhead )
     {
         DynamicSizeOffsetFormat offsetFormat = selectOffsetFormat( pageSize );
-        int totalOverhead = getTotalEntryOverheadMax( offsetFormat );
-        int capToFitNumberOfEntriesPerPage = (pageSize - offsetFormat.getHeaderLength()) / LEAST_NUMBER_OF_ENTRIES_PER_PAGE - totalOverhead;
+        int totalOverhead = getTotalEntryOverheadMax( offsetFormat ) + additionalInlineOverhead;
+        int capToFitNumberOfEntriesPerPage = (pageSize - headerLength) / LEAST_NUMBER_OF_ENTRIES_PER_PAGE - totalOverhead;
         return Math.min( FIXED_MAX_KEY_VALUE_SIZE_CAP, capToFitNumberOfEntriesPerPage );
     }
 
@@ -292,7 +318,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
                 readUnreliableKeyValueSize( cursor, keySize, valueSize, keyValueSize, pos );
                 return into;
             }
-            layout.readKey( cursor, into, keySize );
+            readInlineKey( cursor, into, keySize, type );
         }
         return into;
     }
@@ -325,11 +351,20 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
                 readUnreliableKeyValueSize( cursor, keySize, valueSize, keyValueSize, pos );
                 return;
             }
-            layout.readKey( cursor, intoKey, keySize );
+            readInlineKey( cursor, intoKey, keySize, LEAF );
             layout.readValue( cursor, intoValue, valueSize );
         }
     }
 
+    /**
+     * Reads an inlined key, at the current offset of the cursor, whose size as stored in the node is {@code keySize}.
+     * Leaves the cursor right after the key.
+     */
+    void readInlineKey( PageCursor cursor, KEY into, int keySize, Type type )
+    {
+        layout.readKey( cursor, into, keySize );
+    }
+
     @Override
     void insertKeyAndRightChildAt( PageCursor cursor, KEY key, long child, int pos, int keyCount, long stableGeneration,
             long unstableGeneration, CursorContext cursorContext ) throws IOException
@@ -660,7 +695,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int allocSpace = getAllocSpace( cursor, currentKeyCount, LEAF );
 
         // How much space do we need?
-        int neededSpace = totalSpaceOfKeyValue( newKey, newValue );
+        int neededSpace = totalSpaceOfKeyValue( cursor, newKey, newValue );
 
         // There is your answer!
         return neededSpace <= allocSpace ? Overflow.NO :
@@ -838,6 +873,28 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return availableSpace > halfSpace;
     }
 
+    @Override
+    boolean leafUnderflowOnRemove( PageCursor cursor, int keyCount, int pos )
+    {
+        // Removing the entry turns it into dead space and frees its slot in the offset array
+        int halfSpace = this.halfSpace;
+        int allocSpace = getAllocSpace( cursor, keyCount, LEAF );
+        int deadSpace = getDeadSpace( cursor );
+        int availableSpace = allocSpace + deadSpace + totalSpaceOfKeyValue( cursor, pos );
+
+        return availableSpace > halfSpace;
+    }
+
+    @Override
+    boolean reachedFillFactor( PageCursor cursor, int keyCount, Type type, double fillFactor )
+    {
+        int allocSpace = getAllocSpace( cursor, keyCount, type );
+        int deadSpace = getDeadSpace( cursor );
+        int usedSpace = totalSpace - allocSpace - deadSpace;
+
+        return usedSpace >= totalSpace * fillFactor;
+    }
+
     @Override
     int canRebalanceLeaves( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
     {
@@ -1051,10 +1108,11 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     // NOTE: Does update keyCount
     private void moveKeysAndValues( PageCursor fromCursor, int fromPos, PageCursor toCursor, int toPos, int count )
     {
-        int firstAllocOffset = getAllocOffset( toCursor );
-        int toAllocOffset = firstAllocOffset;
+        int toAllocOffset = getAllocOffset( toCursor );
+        int totalMovedBytes = 0;
         for ( int i = 0; i < count; i++, toPos++ )
         {
+            totalMovedBytes += totalSpaceOfKeyValue( fromCursor, fromPos + i ) - bytesKeyOffset();
             toAllocOffset = moveRawKeyValue( fromCursor, fromPos + i, toCursor, toAllocOffset );
             toCursor.setOffset( keyPosOffsetLeaf( toPos ) );
             offsetFormat.putOffset( toCursor, toAllocOffset );
@@ -1063,7 +1121,6 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
 
         // Update deadSpace
         int deadSpace = getDeadSpace( fromCursor );
-        int totalMovedBytes = firstAllocOffset - toAllocOffset;
         setDeadSpace( fromCursor, deadSpace + totalMovedBytes );
 
         // Key count
@@ -1087,8 +1144,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
 
         // Copy
         int toCopy = getOverhead( keySize, valueSize, offload ) + keySize + valueSize;
-        int newRightAllocSpace = toAllocOffset - toCopy;
-        fromCursor.copyTo( fromKeyOffset, toCursor, newRightAllocSpace, toCopy );
+        int newRightAllocSpace = transferKeyValue( fromCursor, fromKeyOffset, toCopy, toCursor, toAllocOffset );
 
         // Put tombstone
         fromCursor.setOffset( fromKeyOffset );
@@ -1140,12 +1196,21 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
 
         // Copy
         int toCopy = getOverhead( keySize, valueSize, offload ) + keySize + valueSize;
-        int newRightAllocSpace = toAllocOffset - toCopy;
-        fromCursor.copyTo( fromKeyOffset, toCursor, newRightAllocSpace, toCopy );
-        return newRightAllocSpace;
+        return transferKeyValue( fromCursor, fromKeyOffset, toCopy, toCursor, toAllocOffset );
+    }
+
+    /**
+     * Writes the key-value entry of {@code entrySize} bytes at {@code fromKeyOffset} in 'from' to the physical position next to current alloc offset in 'to'.
+     * @return new alloc offset in 'to'
+     */
+    int transferKeyValue( PageCursor fromCursor, int fromKeyOffset, int entrySize, PageCursor toCursor, int toAllocOffset )
+    {
+        int newAllocOffset = toAllocOffset - entrySize;
+        fromCursor.copyTo( fromKeyOffset, toCursor, newAllocOffset, entrySize );
+        return newAllocOffset;
     }
 
-    private int getAllocSpace( PageCursor cursor, int keyCount, Type type )
+    int getAllocSpace( PageCursor cursor, int keyCount, Type type )
     {
         int allocOffset = getAllocOffset( cursor );
         int endOfOffsetArray = type == LEAF ? keyPosOffsetLeaf( keyCount ) : keyPosOffsetInternal( keyCount );
@@ -1238,7 +1303,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         zeroPad( fromCursor, childFromOffset, lengthInBytes );
     }
 
-    private static void zeroPad( PageCursor fromCursor, int fromOffset, int lengthInBytes )
+    static void zeroPad( PageCursor fromCursor, int fromOffset, int lengthInBytes )
     {
         fromCursor.setOffset( fromOffset );
         fromCursor.putBytes( lengthInBytes, (byte) 0 );
@@ -1348,7 +1413,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int accumulatedLeftSpace = 0;
         int currentDelta = targetLeftSpace;
         int prevDelta;
-        int spaceOfNewKey = totalSpaceOfKeyValue( newKey, newValue );
+        int spaceOfNewKey = totalSpaceOfKeyValue( cursor, newKey, newValue );
         int totalSpaceIncludingNewKey = totalActiveSpace( cursor, keyCountAfterInsert - 1, LEAF ) + spaceOfNewKey;
         boolean includedNew = false;
         boolean prevPosPossible;
@@ -1393,14 +1458,18 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return splitPos;
     }
 
-    private int totalActiveSpace( PageCursor cursor, int keyCount, Type type )
+    int totalActiveSpace( PageCursor cursor, int keyCount, Type type )
     {
         int deadSpace = getDeadSpace( cursor );
         int allocSpace = getAllocSpace( cursor, keyCount, type );
         return totalSpace - deadSpace - allocSpace;
     }
 
-    private int totalSpaceOfKeyValue( KEY key, VALUE value )
+    /**
+     * @param cursor {@link PageCursor} pinned to the leaf that the key and value are about to be inserted into.
+     * @return the space that the given key and value would occupy in that leaf, including its slot in the offset array.
+     */
+    int totalSpaceOfKeyValue( PageCursor cursor, KEY key, VALUE value )
     {
         int keySize = layout.keySize( key );
         int valueSize = layout.valueSize( value );
@@ -1429,7 +1498,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         }
     }
 
-    private int totalSpaceOfKeyValue( PageCursor cursor, int pos )
+    int totalSpaceOfKeyValue( PageCursor cursor, int pos )
     {
         placeCursorAtActualKey( cursor, pos, LEAF );
         long keyValueSize = readKeyValueSize( cursor, msbIsOffload );
@@ -1471,7 +1540,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return offsetFormat.getOffset( cursor, offsetFormat.getBytePosDeadSpace() );
     }
 
-    private void placeCursorAtActualKey( PageCursor cursor, int pos, Type type )
+    void placeCursorAtActualKey( PageCursor cursor, int pos, Type type )
     {
         // Set cursor to correct place in offset array
         int keyPosOffset = keyPosOffset( pos, type );
@@ -1481,10 +1550,10 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         int keyOffset = offsetFormat.getOffset( cursor );
 
         // Verify offset is reasonable
-        if ( keyOffset >= pageSize || keyOffset < offsetFormat.getHeaderLength() )
+        if ( keyOffset >= pageSize || keyOffset < headerLength )
         {
             cursor.setCursorException( format( "Tried to read key on offset=%d, headerLength=%d, pageSize=%d, pos=%d",
-                    keyOffset, offsetFormat.getHeaderLength(), pageSize, pos ) );
+                    keyOffset, headerLength, pageSize, pos ) );
             return;
         }
 
@@ -1492,13 +1561,13 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         cursor.setOffset( keyOffset );
     }
 
-    private void readUnreliableKeyValueSize( PageCursor cursor, int keySize, int valueSize, long keyValueSize, int pos )
+    void readUnreliableKeyValueSize( PageCursor cursor, int keySize, int valueSize, long keyValueSize, int pos )
     {
         cursor.setCursorException( format( "Read unreliable key, id=%d, keySize=%d, valueSize=%d, keyValueSizeCap=%d, keyHasTombstone=%b, pos=%d",
                 cursor.getCurrentPageId(), keySize, valueSize, keyValueSizeCap(), extractTombstone( keyValueSize ), pos ) );
     }
 
-    private boolean keyValueSizeTooLarge( int keySize, int valueSize )
+    boolean keyValueSizeTooLarge( int keySize, int valueSize )
     {
         return keySize + valueSize > keyValueSizeCap();
     }
@@ -1515,15 +1584,15 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         }
     }
 
-    private int keyPosOffsetLeaf( int pos )
+    int keyPosOffsetLeaf( int pos )
     {
-        return offsetFormat.getHeaderLength() + pos * bytesKeyOffset();
+        return headerLength + pos * bytesKeyOffset();
     }
 
     private int keyPosOffsetInternal( int pos )
     {
         // header + childPointer + pos * (keyPosOffsetSize + childPointer)
-        return offsetFormat.getHeaderLength() + childSize() + pos * keyChildSize();
+        return headerLength + childSize() + pos * keyChildSize();
     }
 
     private int keyChildSize()
@@ -1536,7 +1605,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return SIZE_PAGE_REFERENCE;
     }
 
-    private int bytesKeyOffset()
+    int bytesKeyOffset()
     {
         return offsetFormat.offsetSize();
     }
@@ -1612,7 +1681,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
             }
             else
             {
-                layout.readKey( cursor, readKey, keySize );
+                readInlineKey( cursor, readKey, keySize, type );
                 if ( type == LEAF )
                 {
                     layout.readValue( cursor, readValue, valueSize );
@@ -1731,7 +1800,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     private int totalActiveSpaceRaw( PageCursor cursor, int keyCount, Type type )
     {
         // Offset array
-        int offsetArrayStart = offsetFormat.getHeaderLength();
+        int offsetArrayStart = headerLength;
         int offsetArrayEnd = keyPosOffset( keyCount, type );
         int offsetArraySize = offsetArrayEnd - offsetArrayStart;
 
@@ -1795,7 +1864,7 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return offsetArray.toString();
     }
 
-    private boolean canInline( int entrySize )
+    boolean canInline( int entrySize )
     {
         return entrySize <= inlineKeyValueSizeCap;
     }
@@ -1803,6 +1872,6 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
     @VisibleForTesting
     public int getHeaderLength()
     {
-        return offsetFormat.getHeaderLength();
+        return headerLength;
     }
 }
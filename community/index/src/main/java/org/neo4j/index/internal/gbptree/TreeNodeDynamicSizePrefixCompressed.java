@@ -0,0 +1,571 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.util.Arrays;
+
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.CursorException;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.util.VisibleForTesting;
+
+import static java.lang.String.format;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.extractKeySize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.extractOffload;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.extractValueSize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.getOverhead;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.putKeyValueSize;
+import static org.neo4j.index.internal.gbptree.DynamicSizeUtil.readKeyValueSize;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.INTERNAL;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.LEAF;
+
+/**
+ * A {@link TreeNodeDynamicSize} where leaves store their inlined keys prefix compressed. Each node has a prefix of at most
+ * {@link #MAX_PREFIX_LENGTH} bytes, less for small page sizes, in its header and every inlined key in a leaf only stores the number
+ * of leading bytes it shares with that prefix, followed by the rest of its bytes. Internal nodes and offloaded keys are stored exactly like in {@link TreeNodeDynamicSize}.
+ *
+ * LEAF
+ * [                             HEADER                             ]|[KEY_OFFSETS]##########[KEYS_VALUES]
+ * [   HEADER OF TreeNodeDynamicSize   ][PREFIXLENGTH][PREFIX]|[K0*,K1*,K2*]->      <-[KV0,KV2,KV1]
+ *
+ * Inlined key value entry
+ * [keyValueSize][sharedLength][key bytes after the first sharedLength bytes][value]
+ * where the key size in keyValueSize includes the sharedLength byte.
+ *
+ * Every key is decoded using only the node prefix and its own bytes, so keys can be read at any position and binary search works as in
+ * {@link TreeNodeDynamicSize}. Keys don't need to share the whole prefix, so inserting a key never requires rewriting other keys.
+ * The prefix of a leaf is chosen when the first key is inserted into an empty leaf and when a leaf is split, in which case it's set to the first key
+ * of the leaf if that makes the leaf more compact. Keys moved between leaves with different prefixes are re-encoded against the prefix of the target.
+ * <p>
+ * The serialized form of the keys decides how much this format saves, so it's only used for layouts that
+ * {@link Layout#compressKeyPrefixes() ask for it}, typically because their keys start with long shared values like URLs or namespaced ids.
+ */
+public class TreeNodeDynamicSizePrefixCompressed<KEY, VALUE> extends TreeNodeDynamicSize<KEY,VALUE>
+{
+    static final byte FORMAT_IDENTIFIER = 4;
+    static final byte FORMAT_VERSION = 0;
+
+    static final int MAX_PREFIX_LENGTH = 64;
+    private static final int SIZE_PREFIX_LENGTH = Byte.BYTES;
+    private static final int SIZE_SHARED_LENGTH = Byte.BYTES;
+    // A leaf is only rewritten with a new prefix if that saves at least 1/8 of the space its keys and values take
+    private static final int MIN_COMPACTION_GAIN_DIVISOR = 8;
+
+    private final int maxPrefixLength;
+    private final int bytePosPrefixLength;
+    private final int bytePosPrefix;
+    // Used by concurrent readers of this tree node
+    private final ThreadLocal<KeyBuffer> readBuffers = ThreadLocal.withInitial( KeyBuffer::new );
+    // Only used by the writer
+    private final KeyBuffer writeBuffer = new KeyBuffer();
+    private final KeyBuffer rewriteBuffer = new KeyBuffer();
+    private final byte[] prefix = new byte[MAX_PREFIX_LENGTH];
+    private final byte[] otherPrefix = new byte[MAX_PREFIX_LENGTH];
+
+    TreeNodeDynamicSizePrefixCompressed( int pageSize, Layout<KEY,VALUE> layout, OffloadStore<KEY,VALUE> offloadStore )
+    {
+        super( pageSize, layout, offloadStore, SIZE_PREFIX_LENGTH + maxPrefixLength( pageSize ), SIZE_SHARED_LENGTH );
+        this.maxPrefixLength = maxPrefixLength( pageSize );
+        this.bytePosPrefixLength = offsetFormat.getHeaderLength();
+        this.bytePosPrefix = bytePosPrefixLength + SIZE_PREFIX_LENGTH;
+    }
+
+    /**
+     * Like {@link TreeNodeDynamicSize#keyValueSizeCapFromPageSize(int)}, but for this format, where the prefix takes space from every leaf.
+     */
+    @VisibleForTesting
+    public static int keyValueSizeCapFromPageSize( int pageSize )
+    {
+        return keyValueSizeCapFromPageSize( pageSize, SIZE_PREFIX_LENGTH + maxPrefixLength( pageSize ), SIZE_SHARED_LENGTH );
+    }
+
+    /**
+     * The prefix takes space from every leaf, so small pages get a shorter one.
+     */
+    private static int maxPrefixLength( int pageSize )
+    {
+        return Math.min( MAX_PREFIX_LENGTH, pageSize / 32 );
+    }
+
+    @Override
+    void writeAdditionalHeader( PageCursor cursor )
+    {
+        super.writeAdditionalHeader( cursor );
+        cursor.putByte( bytePosPrefixLength, (byte) 0 );
+    }
+
+    @Override
+    void readInlineKey( PageCursor cursor, KEY into, int keySize, Type type )
+    {
+        if ( type == INTERNAL )
+        {
+            super.readInlineKey( cursor, into, keySize, type );
+            return;
+        }
+
+        int sharedLength = cursor.getByte() & 0xFF;
+        int suffixLength = keySize - SIZE_SHARED_LENGTH;
+        if ( sharedLength > maxPrefixLength || suffixLength < 0 )
+        {
+            cursor.setCursorException( format( "Read unreliable prefix compressed key, id=%d, keySize=%d, sharedLength=%d",
+                    cursor.getCurrentPageId(), keySize, sharedLength ) );
+            return;
+        }
+
+        // Put the shared part of the prefix and the rest of the key together, then read the key from that
+        int fullKeySize = sharedLength + suffixLength;
+        KeyBuffer buffer = readBuffers.get();
+        byte[] bytes = buffer.ensureCapacity( fullKeySize );
+        int suffixOffset = cursor.getOffset();
+        cursor.getBytes( bytes, sharedLength, suffixLength );
+        cursor.setOffset( bytePosPrefix );
+        cursor.getBytes( bytes, 0, sharedLength );
+        cursor.setOffset( suffixOffset + suffixLength );
+
+        PageCursor keyCursor = buffer.cursor;
+        keyCursor.setOffset( 0 );
+        try
+        {
+            layout.readKey( keyCursor, into, fullKeySize );
+            keyCursor.checkAndClearCursorException();
+        }
+        catch ( CursorException e )
+        {
+            cursor.setCursorException( e.getMessage() );
+        }
+        catch ( BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e )
+        {
+            // Inconsistent read, the reader will see that the page was changed and retry
+            cursor.setCursorException( format( "Failed to read prefix compressed key, id=%d, keySize=%d, sharedLength=%d, cause: %s",
+                    cursor.getCurrentPageId(), keySize, sharedLength, e ) );
+        }
+    }
+
+    @Override
+    void insertKeyValueAt( PageCursor cursor, KEY key, VALUE value, int pos, int keyCount, long stableGeneration, long unstableGeneration,
+            CursorContext cursorContext ) throws IOException
+    {
+        int keySize = layout.keySize( key );
+        int valueSize = layout.valueSize( value );
+        if ( !canInline( keySize + valueSize ) )
+        {
+            super.insertKeyValueAt( cursor, key, value, pos, keyCount, stableGeneration, unstableGeneration, cursorContext );
+            return;
+        }
+
+        byte[] keyBytes = serialize( key, keySize );
+        if ( keyCount == 0 )
+        {
+            // No key refers to the prefix of an empty leaf, so it's free to pick a new one
+            writePrefix( cursor, keyBytes, Math.min( keySize, maxPrefixLength ) );
+        }
+        int prefixLength = readPrefix( cursor, prefix );
+        int sharedLength = sharedLength( prefix, prefixLength, keyBytes, 0, keySize );
+        int storedKeySize = SIZE_SHARED_LENGTH + keySize - sharedLength;
+
+        // Write key and value
+        int newKeyValueOffset = getAllocOffset( cursor ) - storedKeySize - valueSize - getOverhead( storedKeySize, valueSize, false );
+        cursor.setOffset( newKeyValueOffset );
+        putKeyValueSize( cursor, storedKeySize, valueSize, false );
+        cursor.putByte( (byte) sharedLength );
+        cursor.putBytes( keyBytes, sharedLength, keySize - sharedLength );
+        layout.writeValue( cursor, value );
+
+        // Update alloc space
+        setAllocOffset( cursor, newKeyValueOffset );
+
+        // Write to offset array
+        insertSlotsAt( cursor, pos, 1, keyCount, keyPosOffsetLeaf( 0 ), bytesKeyOffset() );
+        cursor.setOffset( keyPosOffsetLeaf( pos ) );
+        offsetFormat.putOffset( cursor, newKeyValueOffset );
+    }
+
+    @Override
+    int totalSpaceOfKeyValue( PageCursor cursor, KEY key, VALUE value )
+    {
+        int keySize = layout.keySize( key );
+        int valueSize = layout.valueSize( value );
+        if ( !canInline( keySize + valueSize ) )
+        {
+            return super.totalSpaceOfKeyValue( cursor, key, value );
+        }
+
+        int sharedLength;
+        if ( keyCount( cursor ) == 0 )
+        {
+            sharedLength = Math.min( keySize, maxPrefixLength );
+        }
+        else
+        {
+            int prefixLength = readPrefix( cursor, prefix );
+            sharedLength = sharedLength( prefix, prefixLength, serialize( key, keySize ), 0, keySize );
+        }
+        return bytesKeyOffset() + inlineEntrySize( keySize - sharedLength, valueSize );
+    }
+
+    @Override
+    void doSplitLeaf( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int insertPos, KEY newKey, VALUE newValue, KEY newSplitter,
+            double ratioToKeepInLeftOnSplit, long stableGeneration, long unstableGeneration, CursorContext cursorContext ) throws IOException
+    {
+        // Give right the same prefix as left so that keys can be moved over as they are
+        int prefixLength = readPrefix( leftCursor, prefix );
+        writePrefix( rightCursor, prefix, prefixLength );
+
+        super.doSplitLeaf( leftCursor, leftKeyCount, rightCursor, insertPos, newKey, newValue, newSplitter, ratioToKeepInLeftOnSplit,
+                stableGeneration, unstableGeneration, cursorContext );
+
+        // Each of the two leaves now holds a narrower range of keys, which may share more with another prefix
+        compactWithNewPrefix( leftCursor, keyCount( leftCursor ) );
+        compactWithNewPrefix( rightCursor, keyCount( rightCursor ) );
+    }
+
+    @Override
+    int canRebalanceLeaves( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
+    {
+        if ( samePrefix( leftCursor, rightCursor ) )
+        {
+            return super.canRebalanceLeaves( leftCursor, leftKeyCount, rightCursor, rightKeyCount );
+        }
+
+        // Same as in TreeNodeDynamicSize, except that keys moved to right take the space they will have after being re-encoded with the prefix of right
+        int fromPrefixLength = readPrefix( leftCursor, prefix );
+        int toPrefixLength = readPrefix( rightCursor, otherPrefix );
+        int leftActiveSpace = totalActiveSpace( leftCursor, leftKeyCount, LEAF );
+        int rightActiveSpace = totalActiveSpace( rightCursor, rightKeyCount, LEAF );
+
+        if ( spaceInOtherLeaf( leftCursor, 0, leftKeyCount, fromPrefixLength, toPrefixLength ) + rightActiveSpace < totalSpace )
+        {
+            // We can merge
+            return -1;
+        }
+        if ( leftActiveSpace < rightActiveSpace )
+        {
+            // Moving keys to the right will only create more imbalance
+            return 0;
+        }
+
+        int prevDelta;
+        int currentDelta = Math.abs( leftActiveSpace - rightActiveSpace );
+        int keysToMove = 0;
+        int lastChunkSizeInLeft;
+        int lastChunkSizeInRight;
+        do
+        {
+            keysToMove++;
+            int pos = leftKeyCount - keysToMove;
+            lastChunkSizeInLeft = totalSpaceOfKeyValue( leftCursor, pos );
+            lastChunkSizeInRight = spaceInOtherLeaf( leftCursor, pos, pos + 1, fromPrefixLength, toPrefixLength );
+            leftActiveSpace -= lastChunkSizeInLeft;
+            rightActiveSpace += lastChunkSizeInRight;
+
+            prevDelta = currentDelta;
+            currentDelta = Math.abs( leftActiveSpace - rightActiveSpace );
+        }
+        while ( currentDelta < prevDelta && keysToMove < leftKeyCount );
+        if ( currentDelta >= prevDelta )
+        {
+            keysToMove--; // Move back to optimal split
+            leftActiveSpace += lastChunkSizeInLeft;
+            rightActiveSpace -= lastChunkSizeInRight;
+        }
+
+        int halfSpace = this.halfSpace;
+        boolean canRebalance = leftActiveSpace > halfSpace && rightActiveSpace > halfSpace && rightActiveSpace <= totalSpace;
+        return canRebalance ? keysToMove : 0;
+    }
+
+    @Override
+    boolean canMergeLeaves( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
+    {
+        if ( samePrefix( leftCursor, rightCursor ) )
+        {
+            return super.canMergeLeaves( leftCursor, leftKeyCount, rightCursor, rightKeyCount );
+        }
+
+        // Keys in left are merged into right
+        int fromPrefixLength = readPrefix( leftCursor, prefix );
+        int toPrefixLength = readPrefix( rightCursor, otherPrefix );
+        int leftSpaceInRight = spaceInOtherLeaf( leftCursor, 0, leftKeyCount, fromPrefixLength, toPrefixLength );
+        int rightActiveSpace = totalActiveSpace( rightCursor, rightKeyCount, LEAF );
+        return totalSpace >= leftSpaceInRight + rightActiveSpace;
+    }
+
+    @Override
+    int transferKeyValue( PageCursor fromCursor, int fromKeyOffset, int entrySize, PageCursor toCursor, int toAllocOffset )
+    {
+        int fromPrefixLength = readPrefix( fromCursor, prefix );
+        int toPrefixLength = readPrefix( toCursor, otherPrefix );
+        fromCursor.setOffset( fromKeyOffset );
+        long keyValueSize = readKeyValueSize( fromCursor, msbIsOffload );
+        if ( extractOffload( keyValueSize ) || Arrays.equals( prefix, 0, fromPrefixLength, otherPrefix, 0, toPrefixLength ) )
+        {
+            return super.transferKeyValue( fromCursor, fromKeyOffset, entrySize, toCursor, toAllocOffset );
+        }
+
+        // Re-encode the key with the prefix of 'to'
+        int valueSize = extractValueSize( keyValueSize );
+        int keySize = readFullKey( fromCursor, extractKeySize( keyValueSize ), fromPrefixLength, writeBuffer );
+        int valueOffset = fromCursor.getOffset();
+        byte[] keyBytes = writeBuffer.bytes;
+        int sharedLength = sharedLength( otherPrefix, toPrefixLength, keyBytes, 0, keySize );
+        int storedKeySize = SIZE_SHARED_LENGTH + keySize - sharedLength;
+
+        int newAllocOffset = toAllocOffset - inlineEntrySize( keySize - sharedLength, valueSize );
+        toCursor.setOffset( newAllocOffset );
+        putKeyValueSize( toCursor, storedKeySize, valueSize, false );
+        toCursor.putByte( (byte) sharedLength );
+        toCursor.putBytes( keyBytes, sharedLength, keySize - sharedLength );
+        if ( valueSize > 0 )
+        {
+            fromCursor.copyTo( valueOffset, toCursor, toCursor.getOffset(), valueSize );
+        }
+        return newAllocOffset;
+    }
+
+    /**
+     * Rewrites the leaf with its first inlined key as prefix, if that makes its keys occupy noticeably less space than with its current prefix.
+     */
+    private void compactWithNewPrefix( PageCursor cursor, int keyCount )
+    {
+        int prefixLength = readPrefix( cursor, prefix );
+
+        // Read all entries, with their keys in full
+        KeyBuffer buffer = rewriteBuffer;
+        int[] entryOffsets = new int[keyCount];
+        int[] keySizes = new int[keyCount];
+        int[] valueSizes = new int[keyCount];
+        int dataLength = 0;
+        int currentSpace = 0;
+        int newPrefixLength = -1;
+        for ( int pos = 0; pos < keyCount; pos++ )
+        {
+            placeCursorAtActualKey( cursor, pos, LEAF );
+            int entryOffset = cursor.getOffset();
+            long keyValueSize = readKeyValueSize( cursor, msbIsOffload );
+            int keySize = extractKeySize( keyValueSize );
+            int valueSize = extractValueSize( keyValueSize );
+            boolean offload = extractOffload( keyValueSize );
+            entryOffsets[pos] = dataLength;
+            if ( offload )
+            {
+                // Offloaded entries are kept exactly as they are, the size here is the size of the whole entry,
+                // since the key and value themselves live in the offload store
+                int entrySize = getOverhead( keySize, valueSize, true );
+                currentSpace += entrySize;
+                byte[] bytes = buffer.ensureCapacity( dataLength + entrySize );
+                cursor.setOffset( entryOffset );
+                cursor.getBytes( bytes, dataLength, entrySize );
+                keySizes[pos] = -1;
+                valueSizes[pos] = entrySize;
+                dataLength += entrySize;
+            }
+            else
+            {
+                currentSpace += getOverhead( keySize, valueSize, false ) + keySize + valueSize;
+                int sharedLength = cursor.getByte() & 0xFF;
+                int suffixLength = keySize - SIZE_SHARED_LENGTH;
+                int fullKeySize = sharedLength + suffixLength;
+                byte[] bytes = buffer.ensureCapacity( dataLength + fullKeySize + valueSize );
+                System.arraycopy( prefix, 0, bytes, dataLength, sharedLength );
+                cursor.getBytes( bytes, dataLength + sharedLength, suffixLength + valueSize );
+                keySizes[pos] = fullKeySize;
+                valueSizes[pos] = valueSize;
+                dataLength += fullKeySize + valueSize;
+                if ( newPrefixLength == -1 )
+                {
+                    newPrefixLength = Math.min( fullKeySize, maxPrefixLength );
+                    System.arraycopy( bytes, entryOffsets[pos], otherPrefix, 0, newPrefixLength );
+                }
+            }
+        }
+        if ( newPrefixLength == -1 ||
+             (newPrefixLength == prefixLength && Arrays.equals( prefix, 0, prefixLength, otherPrefix, 0, newPrefixLength )) )
+        {
+            return;
+        }
+
+        byte[] bytes = buffer.bytes;
+        int newSpace = 0;
+        for ( int pos = 0; pos < keyCount; pos++ )
+        {
+            if ( keySizes[pos] == -1 )
+            {
+                newSpace += valueSizes[pos];
+            }
+            else
+            {
+                int sharedLength = sharedLength( otherPrefix, newPrefixLength, bytes, entryOffsets[pos], keySizes[pos] );
+                newSpace += inlineEntrySize( keySizes[pos] - sharedLength, valueSizes[pos] );
+            }
+        }
+        if ( currentSpace - newSpace < currentSpace / MIN_COMPACTION_GAIN_DIVISOR )
+        {
+            // Not worth rewriting the leaf for
+            return;
+        }
+
+        // Write all entries again, encoded with the new prefix
+        int allocOffset = pageSize;
+        for ( int pos = 0; pos < keyCount; pos++ )
+        {
+            int offset = entryOffsets[pos];
+            int keySize = keySizes[pos];
+            int valueSize = valueSizes[pos];
+            if ( keySize == -1 )
+            {
+                allocOffset -= valueSize;
+                cursor.setOffset( allocOffset );
+                cursor.putBytes( bytes, offset, valueSize );
+            }
+            else
+            {
+                int sharedLength = sharedLength( otherPrefix, newPrefixLength, bytes, offset, keySize );
+                int storedKeySize = SIZE_SHARED_LENGTH + keySize - sharedLength;
+                allocOffset -= inlineEntrySize( keySize - sharedLength, valueSize );
+                cursor.setOffset( allocOffset );
+                putKeyValueSize( cursor, storedKeySize, valueSize, false );
+                cursor.putByte( (byte) sharedLength );
+                cursor.putBytes( bytes, offset + sharedLength, keySize - sharedLength + valueSize );
+            }
+            cursor.setOffset( keyPosOffsetLeaf( pos ) );
+            offsetFormat.putOffset( cursor, allocOffset );
+        }
+        int endOfOffsetArray = keyPosOffsetLeaf( keyCount );
+        zeroPad( cursor, endOfOffsetArray, allocOffset - endOfOffsetArray );
+        setAllocOffset( cursor, allocOffset );
+        setDeadSpace( cursor, 0 );
+        writePrefix( cursor, otherPrefix, newPrefixLength );
+    }
+
+    /**
+     * @return total space, including offset array slots, that entries in range [fromPos, toPos) of 'from' would take
+     * if encoded with {@link #otherPrefix}. Expects {@link #prefix} to hold the prefix of 'from'.
+     */
+    private int spaceInOtherLeaf( PageCursor fromCursor, int fromPos, int toPos, int fromPrefixLength, int toPrefixLength )
+    {
+        int space = 0;
+        for ( int pos = fromPos; pos < toPos; pos++ )
+        {
+            placeCursorAtActualKey( fromCursor, pos, LEAF );
+            long keyValueSize = readKeyValueSize( fromCursor, msbIsOffload );
+            int keySize = extractKeySize( keyValueSize );
+            int valueSize = extractValueSize( keyValueSize );
+            if ( extractOffload( keyValueSize ) )
+            {
+                space += bytesKeyOffset() + getOverhead( keySize, valueSize, true );
+            }
+            else
+            {
+                int fullKeySize = readFullKey( fromCursor, keySize, fromPrefixLength, writeBuffer );
+                int sharedLength = sharedLength( otherPrefix, toPrefixLength, writeBuffer.bytes, 0, fullKeySize );
+                space += bytesKeyOffset() + inlineEntrySize( fullKeySize - sharedLength, valueSize );
+            }
+        }
+        return space;
+    }
+
+    /**
+     * Reads the inlined key at the current offset, right after its keyValueSize, into the buffer, using {@link #prefix} as prefix.
+     * Leaves the cursor right after the key.
+     * @return the size of the key.
+     */
+    private int readFullKey( PageCursor cursor, int storedKeySize, int prefixLength, KeyBuffer buffer )
+    {
+        int sharedLength = Math.min( cursor.getByte() & 0xFF, prefixLength );
+        int suffixLength = storedKeySize - SIZE_SHARED_LENGTH;
+        byte[] bytes = buffer.ensureCapacity( sharedLength + suffixLength );
+        System.arraycopy( prefix, 0, bytes, 0, sharedLength );
+        cursor.getBytes( bytes, sharedLength, suffixLength );
+        return sharedLength + suffixLength;
+    }
+
+    private static int inlineEntrySize( int suffixLength, int valueSize )
+    {
+        int storedKeySize = SIZE_SHARED_LENGTH + suffixLength;
+        return getOverhead( storedKeySize, valueSize, false ) + storedKeySize + valueSize;
+    }
+
+    private static int sharedLength( byte[] prefix, int prefixLength, byte[] key, int keyOffset, int keySize )
+    {
+        int length = Math.min( prefixLength, keySize );
+        int mismatch = Arrays.mismatch( prefix, 0, length, key, keyOffset, keyOffset + length );
+        return mismatch == -1 ? length : mismatch;
+    }
+
+    private byte[] serialize( KEY key, int keySize )
+    {
+        writeBuffer.ensureCapacity( keySize );
+        PageCursor keyCursor = writeBuffer.cursor;
+        keyCursor.setOffset( 0 );
+        layout.writeKey( keyCursor, key );
+        return writeBuffer.bytes;
+    }
+
+    private boolean samePrefix( PageCursor cursor, PageCursor otherCursor )
+    {
+        int prefixLength = readPrefix( cursor, prefix );
+        int otherPrefixLength = readPrefix( otherCursor, otherPrefix );
+        return Arrays.equals( prefix, 0, prefixLength, otherPrefix, 0, otherPrefixLength );
+    }
+
+    private int readPrefix( PageCursor cursor, byte[] into )
+    {
+        int prefixLength = Math.min( cursor.getByte( bytePosPrefixLength ) & 0xFF, maxPrefixLength );
+        cursor.setOffset( bytePosPrefix );
+        cursor.getBytes( into, 0, prefixLength );
+        return prefixLength;
+    }
+
+    private void writePrefix( PageCursor cursor, byte[] prefix, int prefixLength )
+    {
+        cursor.putByte( bytePosPrefixLength, (byte) prefixLength );
+        cursor.setOffset( bytePosPrefix );
+        cursor.putBytes( prefix, 0, prefixLength );
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TreeNodeDynamicSizePrefixCompressed[pageSize:" + pageSize + ", keyValueSizeCap:" + keyValueSizeCap() + ", inlineKeyValueSizeCap:" +
+                inlineKeyValueSizeCap() + ", maxPrefixLength:" + maxPrefixLength + "]";
+    }
+
+    /**
+     * Growable byte array, with a {@link PageCursor} over it for the layout to read keys from and write keys to.
+     */
+    private static class KeyBuffer
+    {
+        private byte[] bytes = new byte[256];
+        private PageCursor cursor = ByteArrayPageCursor.wrap( bytes );
+
+        byte[] ensureCapacity( int capacity )
+        {
+            if ( bytes.length < capacity )
+            {
+                bytes = Arrays.copyOf( bytes, Math.max( capacity, bytes.length * 2 ) );
+                cursor = ByteArrayPageCursor.wrap( bytes );
+            }
+            return bytes;
+        }
+    }
+}
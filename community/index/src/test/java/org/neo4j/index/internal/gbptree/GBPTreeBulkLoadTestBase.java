@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.neo4j.io.ByteUnit;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.impl.muninn.StandalonePageCacheFactory;
+import org.neo4j.test.RandomSupport;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.test.extension.testdirectory.TestDirectoryExtension;
+import org.neo4j.test.scheduler.ThreadPoolJobScheduler;
+import org.neo4j.test.utils.TestDirectory;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+
+@TestDirectoryExtension
+@ExtendWith( RandomExtension.class )
+abstract class GBPTreeBulkLoadTestBase<KEY,VALUE>
+{
+    private static final int PAGE_SIZE_8K = (int) ByteUnit.kibiBytes( 8 );
+    private static final int PAGE_SIZE_16K = (int) ByteUnit.kibiBytes( 16 );
+    private static final int PAGE_SIZE_64K = (int) ByteUnit.kibiBytes( 64 );
+
+    @Inject
+    private TestDirectory testDirectory;
+    @Inject
+    private DefaultFileSystemAbstraction fs;
+    @Inject
+    private RandomSupport random;
+
+    private PageCache pageCache;
+    private TestLayout<KEY,VALUE> layout;
+    private Path indexFile;
+
+    @AfterEach
+    private void tearDown()
+    {
+        if ( pageCache != null )
+        {
+            pageCache.close();
+            pageCache = null;
+        }
+    }
+
+    abstract TestLayout<KEY,VALUE> getLayout( RandomSupport random, int pageSize );
+
+    @ParameterizedTest
+    @MethodSource( "pageSizes" )
+    void shouldSeeBulkLoadedEntries( int pageSize ) throws Exception
+    {
+        setupTest( pageSize );
+        int count = random.nextInt( 1, 20_000 );
+        double fillFactor = random.among( new Double[]{0.5, 0.8, 1.0} );
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            // WHEN
+            try ( BulkLoader<KEY,VALUE> loader = index.bulkLoader( fillFactor, NULL ) )
+            {
+                for ( int i = 0; i < count; i++ )
+                {
+                    loader.add( key( i * 2 ), value( i * 2 ) );
+                }
+            }
+
+            // THEN
+            assertEntries( index, count, 2 );
+            for ( int i = 0; i < count; i += random.nextInt( 1, 100 ) )
+            {
+                try ( Seeker<KEY,VALUE> cursor = index.seek( key( i * 2 ), key( i * 2 ), NULL ) )
+                {
+                    assertTrue( cursor.next() );
+                    assertEqualsKey( key( i * 2 ), cursor.key() );
+                    assertFalse( cursor.next() );
+                }
+            }
+            index.checkpoint( NULL );
+            assertTrue( index.consistencyCheck( NULL ) );
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource( "pageSizes" )
+    void shouldWriteToBulkLoadedTreeAndSurviveRestart( int pageSize ) throws Exception
+    {
+        setupTest( pageSize );
+        int count = random.nextInt( 1, 10_000 );
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            try ( BulkLoader<KEY,VALUE> loader = index.bulkLoader( random.among( new Double[]{0.7, 1.0} ), NULL ) )
+            {
+                for ( int i = 0; i < count; i++ )
+                {
+                    loader.add( key( i * 2 ), value( i * 2 ) );
+                }
+            }
+
+            // WHEN inserting the gaps between the loaded keys
+            try ( Writer<KEY,VALUE> writer = index.writer( NULL ) )
+            {
+                for ( int i = 0; i < count; i++ )
+                {
+                    writer.put( key( i * 2 + 1 ), value( i * 2 + 1 ) );
+                }
+            }
+            index.checkpoint( NULL );
+        }
+
+        // THEN
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            assertEntries( index, count * 2, 1 );
+            assertTrue( index.consistencyCheck( NULL ) );
+        }
+    }
+
+    @Test
+    void shouldLeaveTreeEmptyWhenNothingIsLoaded() throws Exception
+    {
+        setupTest( PAGE_SIZE_8K );
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            index.bulkLoader( 1.0, NULL ).close();
+
+            assertEntries( index, 0, 1 );
+            try ( Writer<KEY,VALUE> writer = index.writer( NULL ) )
+            {
+                writer.put( key( 0 ), value( 0 ) );
+            }
+            assertEntries( index, 1, 1 );
+        }
+    }
+
+    @Test
+    void shouldNotBulkLoadIntoNonEmptyTree() throws Exception
+    {
+        setupTest( PAGE_SIZE_8K );
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            try ( Writer<KEY,VALUE> writer = index.writer( NULL ) )
+            {
+                writer.put( key( 0 ), value( 0 ) );
+            }
+
+            assertThrows( IllegalStateException.class, () -> index.bulkLoader( 1.0, NULL ) );
+
+            // and the failed attempt should not hold on to the writer lock
+            try ( Writer<KEY,VALUE> writer = index.writer( NULL ) )
+            {
+                writer.put( key( 1 ), value( 1 ) );
+            }
+            assertEntries( index, 2, 1 );
+        }
+    }
+
+    @Test
+    void shouldNotAcceptKeysOutOfOrder() throws Exception
+    {
+        setupTest( PAGE_SIZE_8K );
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            try ( BulkLoader<KEY,VALUE> loader = index.bulkLoader( 1.0, NULL ) )
+            {
+                loader.add( key( 10 ), value( 10 ) );
+                assertThrows( IllegalArgumentException.class, () -> loader.add( key( 5 ), value( 5 ) ) );
+                assertThrows( IllegalArgumentException.class, () -> loader.add( key( 10 ), value( 10 ) ) );
+            }
+        }
+    }
+
+    @Test
+    void shouldNotAcceptInvalidFillFactor() throws Exception
+    {
+        setupTest( PAGE_SIZE_8K );
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            assertThrows( IllegalArgumentException.class, () -> index.bulkLoader( 0, NULL ) );
+            assertThrows( IllegalArgumentException.class, () -> index.bulkLoader( 1.1, NULL ) );
+        }
+    }
+
+    private static Stream<Integer> pageSizes()
+    {
+        return Stream.of( PAGE_SIZE_8K, PAGE_SIZE_16K, PAGE_SIZE_64K );
+    }
+
+    private void setupTest( int pageSize )
+    {
+        indexFile = testDirectory.file( "index" );
+        pageCache = StandalonePageCacheFactory.createPageCache( fs, new ThreadPoolJobScheduler(), pageSize );
+        layout = getLayout( random, pageCache.pageSize() );
+    }
+
+    private GBPTree<KEY,VALUE> index()
+    {
+        return new GBPTreeBuilder<>( pageCache, indexFile, layout ).build();
+    }
+
+    private void assertEntries( GBPTree<KEY,VALUE> index, int expectedCount, int stride ) throws Exception
+    {
+        try ( Seeker<KEY,VALUE> cursor = index.seek( key( 0 ), key( Long.MAX_VALUE ), NULL ) )
+        {
+            for ( int i = 0; i < expectedCount; i++ )
+            {
+                assertTrue( cursor.next() );
+                assertEqualsKey( key( (long) i * stride ), cursor.key() );
+                assertEquals( layout.valueSeed( value( (long) i * stride ) ), layout.valueSeed( cursor.value() ) );
+            }
+            assertFalse( cursor.next() );
+        }
+    }
+
+    private VALUE value( long seed )
+    {
+        return layout.value( seed );
+    }
+
+    private KEY key( long seed )
+    {
+        return layout.key( seed );
+    }
+
+    private void assertEqualsKey( KEY expected, KEY actual )
+    {
+        assertEquals( 0, layout.compare( expected, actual ),
+                format( "expected equal, expected=%s, actual=%s", expected, actual ) );
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.test.Race;
+import org.neo4j.test.RandomSupport;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.test.extension.pagecache.PageCacheSupportExtension;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.utils.TestDirectory;
+
+import static java.lang.Math.max;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+import static org.neo4j.test.utils.PageCacheConfig.config;
+
+/**
+ * Stresses {@link GBPTree#concurrentWriter(org.neo4j.io.pagecache.context.CursorContext) concurrent writers}.
+ * Each writer thread owns a disjoint set of keys, which it inserts, updates and removes in batches, one concurrent writer per batch.
+ * Readers and checkpoints run at the same time. In the end the tree must contain exactly what the writers expect it to contain.
+ */
+@EphemeralTestDirectoryExtension
+@ExtendWith( RandomExtension.class )
+public abstract class GBPTreeConcurrentWritersITBase<KEY,VALUE>
+{
+    private static final int KEYS_PER_WRITER = 2_000;
+    private static final int BATCHES_PER_WRITER = 200;
+    private static final int BATCH_SIZE = 50;
+
+    @Inject
+    private FileSystemAbstraction fileSystem;
+    @Inject
+    private TestDirectory testDirectory;
+    @Inject
+    private RandomSupport random;
+    @RegisterExtension
+    static PageCacheSupportExtension pageCacheExtension = new PageCacheSupportExtension();
+
+    private TestLayout<KEY,VALUE> layout;
+    private GBPTree<KEY,VALUE> index;
+    private PageCache pageCache;
+
+    private GBPTree<KEY,VALUE> createIndex()
+    {
+        int pageSize = 512;
+        layout = getLayout( random, pageSize );
+        pageCache = PageCacheSupportExtension.getPageCache( fileSystem, config().withPageSize( pageSize ).withAccessChecks( true ) );
+        return this.index = new GBPTreeBuilder<>( pageCache, testDirectory.file( "index" ), layout ).build();
+    }
+
+    protected abstract TestLayout<KEY,VALUE> getLayout( RandomSupport random, int pageSize );
+
+    @AfterEach
+    void consistencyCheckAndClose() throws IOException
+    {
+        index.consistencyCheck( NULL );
+        index.close();
+        pageCache.close();
+    }
+
+    @Test
+    void shouldApplyChangesFromConcurrentWriters() throws Throwable
+    {
+        // given
+        index = createIndex();
+        int writers = max( 2, Runtime.getRuntime().availableProcessors() / 2 );
+        WriterState[] writerStates = new WriterState[writers];
+        for ( int i = 0; i < writers; i++ )
+        {
+            writerStates[i] = new WriterState( i, writers, random.nextLong() );
+        }
+        AtomicInteger writersDone = new AtomicInteger();
+
+        // when
+        Race race = new Race().withEndCondition( () -> writersDone.get() == writers );
+        for ( WriterState writerState : writerStates )
+        {
+            race.addContestant( () ->
+            {
+                writerState.applyBatch();
+                if ( ++writerState.batches == BATCHES_PER_WRITER )
+                {
+                    writersDone.incrementAndGet();
+                }
+            }, BATCHES_PER_WRITER );
+        }
+        race.addContestant( Race.throwing( this::assertSortedAndUnique ) );
+        race.addContestant( Race.throwing( () ->
+        {
+            index.checkpoint( NULL );
+            Thread.sleep( 10 );
+        } ) );
+        race.go();
+
+        // then
+        TreeMap<Long,Long> expected = new TreeMap<>();
+        for ( WriterState writerState : writerStates )
+        {
+            expected.putAll( writerState.expected );
+        }
+        assertContent( expected );
+    }
+
+    @Test
+    void shouldNotAllowSingleWriterWhileConcurrentWriterIsOpen() throws Throwable
+    {
+        // given
+        index = createIndex();
+        Writer<KEY,VALUE> concurrentWriter = index.concurrentWriter( NULL );
+        concurrentWriter.put( layout.key( 1 ), layout.value( 1 ) );
+
+        // when
+        Race race = new Race();
+        AtomicInteger singleWriterDone = new AtomicInteger();
+        race.addContestant( Race.throwing( () ->
+        {
+            try ( Writer<KEY,VALUE> writer = index.writer( NULL ) )
+            {
+                writer.put( layout.key( 2 ), layout.value( 2 ) );
+            }
+            singleWriterDone.incrementAndGet();
+        } ) );
+        Race.Async async = race.goAsync();
+        Thread.sleep( 100 );
+
+        // then
+        assertEquals( 0, singleWriterDone.get() );
+        concurrentWriter.close();
+        async.await( 1, MINUTES );
+        assertEquals( 1, singleWriterDone.get() );
+
+        TreeMap<Long,Long> expected = new TreeMap<>();
+        expected.put( 1L, 1L );
+        expected.put( 2L, 2L );
+        assertContent( expected );
+    }
+
+    private void assertSortedAndUnique() throws IOException
+    {
+        try ( Seeker<KEY,VALUE> seek = index.seek( layout.key( 0 ), layout.key( Long.MAX_VALUE ), NULL ) )
+        {
+            long previous = -1;
+            while ( seek.next() )
+            {
+                long seed = layout.keySeed( seek.key() );
+                assertThat( seed ).isGreaterThan( previous );
+                previous = seed;
+            }
+        }
+    }
+
+    private void assertContent( TreeMap<Long,Long> expected ) throws IOException
+    {
+        try ( Seeker<KEY,VALUE> seek = index.seek( layout.key( 0 ), layout.key( Long.MAX_VALUE ), NULL ) )
+        {
+            for ( Map.Entry<Long,Long> entry : expected.entrySet() )
+            {
+                assertTrue( seek.next(), "Expected key " + entry.getKey() );
+                assertEquals( entry.getKey().longValue(), layout.keySeed( seek.key() ) );
+                assertEquals( entry.getValue().longValue(), layout.valueSeed( seek.value() ) );
+            }
+            assertFalse( seek.next() );
+        }
+    }
+
+    private class WriterState
+    {
+        private final int writer;
+        private final int writers;
+        private final Random random;
+        private final TreeMap<Long,Long> expected = new TreeMap<>();
+        private int batches;
+
+        WriterState( int writer, int writers, long seed )
+        {
+            this.writer = writer;
+            this.writers = writers;
+            this.random = new Random( seed );
+        }
+
+        void applyBatch()
+        {
+            try ( Writer<KEY,VALUE> concurrentWriter = index.concurrentWriter( NULL ) )
+            {
+                for ( int i = 0; i < BATCH_SIZE; i++ )
+                {
+                    // Keys of the writers are interleaved, so that writers share leaves
+                    long keySeed = (long) random.nextInt( KEYS_PER_WRITER ) * writers + writer;
+                    if ( expected.containsKey( keySeed ) && random.nextInt( 3 ) == 0 )
+                    {
+                        VALUE removed = concurrentWriter.remove( layout.key( keySeed ) );
+                        assertEquals( expected.remove( keySeed ).longValue(), layout.valueSeed( removed ) );
+                    }
+                    else
+                    {
+                        long valueSeed = random.nextInt( 1_000 );
+                        concurrentWriter.put( layout.key( keySeed ), layout.value( valueSeed ) );
+                        expected.put( keySeed, valueSeed );
+                    }
+                }
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+        }
+    }
+}
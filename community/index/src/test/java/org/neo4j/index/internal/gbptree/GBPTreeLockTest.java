@@ -32,6 +32,7 @@ import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.actors.Actor;
 import org.neo4j.test.extension.actors.ActorsExtension;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -163,6 +164,84 @@ class GBPTreeLockTest
         assertOnlyOneSucceeds( lock::writerAndCleanerLock, lock::writerAndCleanerLock );
     }
 
+    @Test
+    void sharedWriterLockShouldBeSharedBetweenSharedWriters() throws Throwable
+    {
+        assertBothSucceeds( lock::sharedWriterLock, lock::sharedWriterLock );
+
+        lock.sharedWriterUnlock();
+        lock.sharedWriterUnlock();
+        assertUU();
+        assertThrows( IllegalStateException.class, lock::sharedWriterUnlock );
+    }
+
+    @Test
+    void sharedWriterLockShouldBlockWriterAndCleaner() throws Exception
+    {
+        lock.sharedWriterLock();
+
+        copy = lock.copy();
+        assertBlock( copy::writerLock, copy::sharedWriterUnlock );
+        copy = lock.copy();
+        assertBlock( copy::cleanerLock, copy::sharedWriterUnlock );
+        copy = lock.copy();
+        assertBlock( copy::writerAndCleanerLock, copy::sharedWriterUnlock );
+    }
+
+    @Test
+    void writerAndCleanerShouldBlockSharedWriterLock() throws Exception
+    {
+        lock.writerLock();
+        copy = lock.copy();
+        assertBlockShared( copy::sharedWriterLock, copy::writerUnlock );
+        lock.writerUnlock();
+
+        lock.cleanerLock();
+        copy = lock.copy();
+        assertBlockShared( copy::sharedWriterLock, copy::cleanerUnlock );
+        lock.cleanerUnlock();
+        assertUU();
+    }
+
+    @Test
+    void waitingWriterShouldBlockNewSharedWriters() throws Exception
+    {
+        lock.sharedWriterLock();
+        Future<Object> writer = executor.submit( () ->
+        {
+            lock.writerLock();
+            return null;
+        } );
+        executor.untilWaitingIn( GBPTreeLock.class.getDeclaredMethod( "doLock", long.class ) );
+
+        Race race = new Race();
+        LockContestant sharedWriter = new LockContestant( lock::sharedWriterLock );
+        race.addContestant( sharedWriter );
+        race.goAsync();
+        while ( !sharedWriter.started() )
+        {
+            LockSupport.parkNanos( TimeUnit.MILLISECONDS.toNanos( 1 ) );
+        }
+        LockSupport.parkNanos( TimeUnit.MILLISECONDS.toNanos( 100 ) );
+        assertFalse( sharedWriter.lockAcquired(), "Expected shared writer to wait for waiting writer" );
+
+        lock.sharedWriterUnlock();
+        writer.get();
+        lock.forceUnlock();
+    }
+
+    @Test
+    void test_race_SharedvsLU()
+    {
+        assertOnlyOneSucceeds( lock::sharedWriterLock, lock::writerLock );
+    }
+
+    @Test
+    void test_race_SharedvsLL()
+    {
+        assertOnlyOneSucceeds( lock::sharedWriterLock, lock::writerAndCleanerLock );
+    }
+
     private void assertOnlyOneSucceeds( Runnable lockAction1, Runnable lockAction2 )
     {
         assertUU();
@@ -261,11 +340,24 @@ class GBPTreeLockTest
         future.get();
     }
 
+    private void assertBlockShared( Runnable runLock, Runnable runUnlock ) throws Exception
+    {
+        Future<Object> future = executor.submit( () ->
+        {
+            runLock.run();
+            return null;
+        } );
+        executor.untilWaitingIn( GBPTreeLock.class.getDeclaredMethod( "doLockShared" ) );
+        runUnlock.run();
+        future.get();
+    }
+
     private void assertUU()
     {
         assertThrows( IllegalStateException.class, lock::writerUnlock );
         assertThrows( IllegalStateException.class, lock::cleanerUnlock );
         assertThrows( IllegalStateException.class, lock::writerAndCleanerUnlock );
+        assertThrows( IllegalStateException.class, lock::sharedWriterUnlock );
     }
 
     private void assertUL() throws Exception
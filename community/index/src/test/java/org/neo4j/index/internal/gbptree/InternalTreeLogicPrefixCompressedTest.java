@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class InternalTreeLogicPrefixCompressedTest extends InternalTreeLogicTestBase<RawBytes,RawBytes>
+{
+    @Override
+    protected ValueMerger<RawBytes,RawBytes> getAdder()
+    {
+        return ( existingKey, newKey, base, add ) ->
+        {
+            long baseSeed = layout.keySeed( base );
+            long addSeed = layout.keySeed( add );
+            RawBytes merged = layout.value( baseSeed + addSeed );
+            base.copyFrom( merged );
+            return ValueMerger.MergeResult.MERGED;
+        };
+    }
+
+    @Override
+    protected TreeNode<RawBytes,RawBytes> getTreeNode( int pageSize, Layout<RawBytes,RawBytes> layout, OffloadStore<RawBytes,RawBytes> offloadStore )
+    {
+        return new TreeNodeDynamicSizePrefixCompressed<>( pageSize, layout, offloadStore );
+    }
+
+    @Override
+    protected TestLayout<RawBytes,RawBytes> getLayout()
+    {
+        return new PrefixCompressedByteArrayLayout();
+    }
+
+    /*
+     * The two tests below insert one extra key after the first split to make sure that removing a key from the right leaf
+     * doesn't make it merge with the left one. That doesn't hold when keys are prefix compressed since the test keys grow in size,
+     * so the merged leaf fits more of them than the leaf that was split.
+     */
+
+    @Override
+    @ParameterizedTest
+    @MethodSource( "generators" )
+    void modifierMustRemoveFromRightChildButNotFromInternalWithHitOnInternalSearch( String name, GenerationManager generationManager,
+            boolean isCheckpointing )
+    {
+        assumeTrue( false, "Leaves may merge after a single removal when keys are prefix compressed" );
+    }
+
+    @Override
+    @ParameterizedTest
+    @MethodSource( "generators" )
+    void modifierMustNotRemoveWhenKeyOnlyExistInInternal( String name, GenerationManager generationManager, boolean isCheckpointing )
+    {
+        assumeTrue( false, "Leaves may merge after a single removal when keys are prefix compressed" );
+    }
+}
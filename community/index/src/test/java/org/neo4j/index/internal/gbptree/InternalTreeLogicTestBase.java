@@ -2095,7 +2095,7 @@ abstract class InternalTreeLogicTestBase<KEY, VALUE>
         return result;
     }
 
-    private interface GenerationManager
+    interface GenerationManager
     {
         void checkpoint();
 
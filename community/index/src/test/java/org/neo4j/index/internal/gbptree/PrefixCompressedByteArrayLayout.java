@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+/**
+ * {@link SimpleByteArrayLayout} which asks for its keys to be {@link #compressKeyPrefixes() prefix compressed}.
+ * Keys start with their seed as a big-endian long, so keys with small seeds share prefix.
+ */
+class PrefixCompressedByteArrayLayout extends SimpleByteArrayLayout
+{
+    PrefixCompressedByteArrayLayout()
+    {
+        super();
+    }
+
+    PrefixCompressedByteArrayLayout( int largeEntriesSize, long largeEntryModulo )
+    {
+        super( largeEntriesSize, largeEntryModulo );
+    }
+
+    @Override
+    public boolean compressKeyPrefixes()
+    {
+        return true;
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.io.pagecache.PageCursor;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.LEAF;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+
+public class TreeNodeDynamicSizePrefixCompressedTest extends TreeNodeTestBase<RawBytes,RawBytes>
+{
+    private final SimpleByteArrayLayout layout = new PrefixCompressedByteArrayLayout();
+
+    @Override
+    protected TestLayout<RawBytes,RawBytes> getLayout()
+    {
+        return layout;
+    }
+
+    @Override
+    protected TreeNodeDynamicSizePrefixCompressed<RawBytes,RawBytes> getNode( int pageSize, Layout<RawBytes,RawBytes> layout,
+            OffloadStore<RawBytes,RawBytes> offloadStore )
+    {
+        return new TreeNodeDynamicSizePrefixCompressed<>( pageSize, layout, offloadStore );
+    }
+
+    @Override
+    void assertAdditionalHeader( PageCursor cursor, TreeNode<RawBytes,RawBytes> node, int pageSize )
+    {
+        // When
+        int currentAllocSpace = ((TreeNodeDynamicSize<RawBytes,RawBytes>) node).getAllocOffset( cursor );
+
+        // Then
+        assertEquals( pageSize, currentAllocSpace, "allocSpace point to end of page" );
+    }
+
+    @Test
+    void shouldStoreKeysSharingPrefixInLessSpace() throws IOException
+    {
+        // given
+        TreeNodeDynamicSize<RawBytes,RawBytes> plainNode = new TreeNodeDynamicSize<>( PAGE_SIZE, layout, createOffloadStore() );
+        TreeNodeDynamicSizePrefixCompressed<RawBytes,RawBytes> compressedNode = getNode( PAGE_SIZE, layout, createOffloadStore() );
+        PageAwareByteArrayCursor plainCursor = cursor.duplicate( 10 );
+        plainCursor.next();
+        plainNode.initializeLeaf( plainCursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        compressedNode.initializeLeaf( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+
+        // when
+        List<RawBytes> keys = keys( "urn:ex:item:", 0, 8 );
+        insert( plainNode, plainCursor, keys );
+        insert( compressedNode, cursor, keys );
+
+        // then
+        int plainUsedSpace = PAGE_SIZE - plainNode.getAllocOffset( plainCursor );
+        int compressedUsedSpace = PAGE_SIZE - compressedNode.getAllocOffset( cursor );
+        assertThat( compressedUsedSpace ).isLessThan( plainUsedSpace / 3 );
+        assertKeys( compressedNode, cursor, keys );
+    }
+
+    @Test
+    void shouldReencodeKeysMovedBetweenLeavesWithDifferentPrefixes() throws IOException
+    {
+        // given
+        TreeNodeDynamicSizePrefixCompressed<RawBytes,RawBytes> node = getNode( PAGE_SIZE, layout, createOffloadStore() );
+        PageAwareByteArrayCursor rightCursor = cursor.duplicate( 10 );
+        rightCursor.next();
+        node.initializeLeaf( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        node.initializeLeaf( rightCursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        List<RawBytes> leftKeys = keys( "urn:example:first:", 0, 6 );
+        List<RawBytes> rightKeys = keys( "urn:example:second:", 0, 4 );
+        insert( node, cursor, leftKeys );
+        insert( node, rightCursor, rightKeys );
+
+        // when
+        node.moveKeyValuesFromLeftToRight( cursor, leftKeys.size(), rightCursor, rightKeys.size(), 4 );
+
+        // then
+        List<RawBytes> expectedRight = new ArrayList<>( leftKeys.subList( 4, 6 ) );
+        expectedRight.addAll( rightKeys );
+        assertKeys( node, cursor, leftKeys.subList( 0, 4 ) );
+        assertKeys( node, rightCursor, expectedRight );
+        assertEquals( "", node.checkMetaConsistency( cursor, 4, LEAF, null ) );
+        assertEquals( "", node.checkMetaConsistency( rightCursor, expectedRight.size(), LEAF, null ) );
+
+        // and when
+        assertThat( node.canMergeLeaves( cursor, 4, rightCursor, expectedRight.size() ) ).isTrue();
+        node.copyKeyValuesFromLeftToRight( cursor, 4, rightCursor, expectedRight.size() );
+
+        // then
+        List<RawBytes> expectedMerged = new ArrayList<>( leftKeys );
+        expectedMerged.addAll( rightKeys );
+        assertKeys( node, rightCursor, expectedMerged );
+        assertEquals( "", node.checkMetaConsistency( rightCursor, expectedMerged.size(), LEAF, null ) );
+    }
+
+    @Test
+    void shouldPickNewPrefixesWhenSplittingLeaf() throws IOException
+    {
+        // given a full leaf where the keys in the upper half share a prefix different from the one of the leaf
+        TreeNodeDynamicSizePrefixCompressed<RawBytes,RawBytes> node = getNode( PAGE_SIZE, layout, createOffloadStore() );
+        PageAwareByteArrayCursor rightCursor = cursor.duplicate( 10 );
+        rightCursor.next();
+        node.initializeLeaf( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        node.initializeLeaf( rightCursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        List<RawBytes> keys = keys( "https://example.org/", 0, 4 );
+        RawBytes value = layout.newValue();
+        value.bytes = new byte[0];
+        int keyCount = keys.size();
+        insert( node, cursor, keys );
+        for ( int i = 0; ; i++ )
+        {
+            RawBytes key = key( "https://an.other.example.org/", i );
+            if ( node.leafOverflow( cursor, keyCount, key, value ) == TreeNode.Overflow.YES )
+            {
+                break;
+            }
+            node.insertKeyValueAt( cursor, key, value, keyCount, keyCount, STABLE_GENERATION, UNSTABLE_GENERATION, NULL );
+            keyCount++;
+            TreeNode.setKeyCount( cursor, keyCount );
+            keys.add( key );
+        }
+        int usedSpaceBeforeSplit = PAGE_SIZE - node.getAllocOffset( cursor );
+
+        // when
+        RawBytes newKey = key( "https://an.other.example.org/", keyCount );
+        node.doSplitLeaf( cursor, keyCount, rightCursor, keyCount, newKey, value, layout.newKey(), 0.5, STABLE_GENERATION, UNSTABLE_GENERATION, NULL );
+        keys.add( newKey );
+
+        // then
+        int leftKeyCount = TreeNode.keyCount( cursor );
+        int rightKeyCount = TreeNode.keyCount( rightCursor );
+        assertKeys( node, cursor, keys.subList( 0, leftKeyCount ) );
+        assertKeys( node, rightCursor, keys.subList( leftKeyCount, keys.size() ) );
+        assertEquals( "", node.checkMetaConsistency( cursor, leftKeyCount, LEAF, null ) );
+        assertEquals( "", node.checkMetaConsistency( rightCursor, rightKeyCount, LEAF, null ) );
+        int usedSpaceAfterSplit = (PAGE_SIZE - node.getAllocOffset( cursor )) + (PAGE_SIZE - node.getAllocOffset( rightCursor ));
+        assertThat( usedSpaceAfterSplit ).isLessThan( usedSpaceBeforeSplit );
+    }
+
+    private void insert( TreeNode<RawBytes,RawBytes> node, PageCursor cursor, List<RawBytes> keys ) throws IOException
+    {
+        RawBytes value = layout.newValue();
+        value.bytes = new byte[0];
+        for ( int i = 0; i < keys.size(); i++ )
+        {
+            node.insertKeyValueAt( cursor, keys.get( i ), value, i, i, STABLE_GENERATION, UNSTABLE_GENERATION, NULL );
+            TreeNode.setKeyCount( cursor, i + 1 );
+        }
+    }
+
+    private void assertKeys( TreeNode<RawBytes,RawBytes> node, PageCursor cursor, List<RawBytes> expectedKeys )
+    {
+        assertEquals( expectedKeys.size(), TreeNode.keyCount( cursor ) );
+        RawBytes readKey = layout.newKey();
+        for ( int i = 0; i < expectedKeys.size(); i++ )
+        {
+            node.keyAt( cursor, readKey, i, LEAF, NULL );
+            assertEquals( 0, layout.compare( expectedKeys.get( i ), readKey ), "expected " + expectedKeys.get( i ) + " but was " + readKey );
+        }
+    }
+
+    private List<RawBytes> keys( String prefix, int from, int to )
+    {
+        List<RawBytes> keys = new ArrayList<>();
+        for ( int i = from; i < to; i++ )
+        {
+            keys.add( key( prefix, i ) );
+        }
+        return keys;
+    }
+
+    private RawBytes key( String prefix, int i )
+    {
+        byte[] prefixBytes = prefix.getBytes( UTF_8 );
+        RawBytes key = layout.newKey();
+        key.bytes = ByteBuffer.allocate( prefixBytes.length + Integer.BYTES ).put( prefixBytes ).putInt( i ).array();
+        return key;
+    }
+}
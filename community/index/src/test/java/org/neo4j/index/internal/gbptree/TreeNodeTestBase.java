@@ -581,6 +581,33 @@ public abstract class TreeNodeTestBase<KEY,VALUE>
         assertContent( expectedKeys, expectedValues, expectedKeyCount );
     }
 
+    @Test
+    void shouldPredictLeafUnderflowOnRemove() throws IOException
+    {
+        // GIVEN
+        node.initializeLeaf( cursor, STABLE_GENERATION, UNSTABLE_GENERATION );
+        int keyCount = 0;
+        KEY newKey = key( keyCount );
+        VALUE newValue = value( keyCount );
+        while ( node.leafOverflow( cursor, keyCount, newKey, newValue ) == Overflow.NO )
+        {
+            node.insertKeyValueAt( cursor, newKey, newValue, keyCount, keyCount, STABLE_GENERATION, UNSTABLE_GENERATION, NULL );
+            TreeNode.setKeyCount( cursor, ++keyCount );
+            newKey = key( keyCount );
+            newValue = value( keyCount );
+        }
+
+        // WHEN/THEN
+        while ( keyCount > 0 )
+        {
+            int position = random.nextInt( keyCount );
+            boolean predictedUnderflow = node.leafUnderflowOnRemove( cursor, keyCount, position );
+            node.removeKeyValueAt( cursor, position, keyCount, STABLE_GENERATION, UNSTABLE_GENERATION, NULL );
+            TreeNode.setKeyCount( cursor, --keyCount );
+            assertEquals( node.leafUnderflow( cursor, keyCount ), predictedUnderflow, "keyCount=" + keyCount );
+        }
+    }
+
     private void assertContent( List<KEY> expectedKeys, List<VALUE> expectedValues, int expectedKeyCount )
     {
         KEY actualKey = layout.newKey();
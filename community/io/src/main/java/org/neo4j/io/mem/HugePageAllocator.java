@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.mem;
+
+import java.lang.ref.Cleaner;
+
+import org.neo4j.internal.nativeimpl.HugePageMemory;
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.memory.MemoryTracker;
+
+import static org.neo4j.io.ByteUnit.gibiBytes;
+import static org.neo4j.util.FeatureToggles.getLong;
+
+/**
+ * This memory allocator maps the memory it hands out with huge pages, to reduce the TLB misses when accessing large amounts of memory,
+ * such as the memory of a big page cache.
+ * <p>
+ * Like the {@link GrabAllocator}, it maps memory in large regions, and hands out aligned allocations from them. Every region is aligned to,
+ * and is a multiple of, the huge page size, so allocations that are aligned to the page cache page size never straddle more huge pages than
+ * they have to.
+ * <p>
+ * With {@link HugePageMode#HUGETLB}, regions are mapped from the reserved pool of huge pages, until the pool runs out, after which the
+ * remaining regions are mapped with {@link HugePageMode#TRANSPARENT transparent huge pages}. Whether transparent huge pages are actually used
+ * is up to the kernel, which can be checked with {@link #hugePageMemory()}.
+ */
+public final class HugePageAllocator implements MemoryAllocator
+{
+    /**
+     * The maximum amount of memory, in bytes, to map in each region.
+     */
+    private static final long REGION_SIZE = getLong( HugePageAllocator.class, "REGION_SIZE", gibiBytes( 1 ) );
+    private static final Cleaner globalCleaner = Cleaner.create();
+
+    private final Regions regions;
+    private final Cleaner.Cleanable cleanable;
+
+    /**
+     * Create a new HugePageAllocator.
+     *
+     * @param expectedMaxMemory The maximum amount of memory that this memory manager is expected to allocate. The actual amount of memory used
+     * can end up greater than this value, if some of it gets wasted on alignment padding, or on rounding up to whole huge pages.
+     * @param memoryTracker memory usage tracker
+     * @param mode how to map the huge pages. Must not be {@link HugePageMode#DISABLED}.
+     */
+    HugePageAllocator( long expectedMaxMemory, MemoryTracker memoryTracker, HugePageMode mode )
+    {
+        if ( mode == HugePageMode.DISABLED )
+        {
+            throw new IllegalArgumentException( "Huge pages must be enabled for a " + HugePageAllocator.class.getSimpleName() );
+        }
+        this.regions = new Regions( expectedMaxMemory, memoryTracker, mode == HugePageMode.HUGETLB );
+        this.cleanable = globalCleaner.register( this, new RegionsDeallocator( regions ) );
+    }
+
+    /**
+     * @return {@code true} if huge pages can be mapped on this platform.
+     */
+    public static boolean isAvailable()
+    {
+        return HugePageMemory.isAvailable();
+    }
+
+    @Override
+    public synchronized long usedMemory()
+    {
+        return regions.usedMemory();
+    }
+
+    @Override
+    public synchronized long availableMemory()
+    {
+        return regions.availableMemory();
+    }
+
+    @Override
+    public synchronized long allocateAligned( long bytes, long alignment )
+    {
+        return regions.allocateAligned( bytes, alignment );
+    }
+
+    /**
+     * @return the amount of memory, in bytes, that has been mapped for allocations.
+     */
+    public synchronized long mappedMemory()
+    {
+        return regions.mappedMemory;
+    }
+
+    /**
+     * @return the amount of mapped memory, in bytes, that was mapped from the reserved pool of huge pages.
+     */
+    public synchronized long hugeTlbMemory()
+    {
+        return regions.hugeTlbMemory;
+    }
+
+    /**
+     * Inspect the mapped memory, and find out how much of it is currently backed by huge pages. Memory that is mapped with transparent huge
+     * pages is only backed by huge pages after it has been touched, and only if the kernel could find free huge pages at that time.
+     *
+     * @return the amount of mapped memory, in bytes, that is backed by huge pages, or {@code -1} if this cannot be determined.
+     */
+    public synchronized long hugePageMemory()
+    {
+        return regions.hugePageMemory();
+    }
+
+    /**
+     * @return a description of how the memory of this allocator is mapped, and how much of it is backed by huge pages.
+     */
+    public synchronized String describe()
+    {
+        long hugePageMemory = regions.hugePageMemory();
+        return "Huge page size: " + HugePageMemory.hugePageSize() + " bytes. Mapped memory: " + regions.mappedMemory + " bytes, of which " +
+                regions.hugeTlbMemory + " bytes came from the reserved pool of huge pages, and " +
+                (hugePageMemory == -1 ? "an unknown number of" : hugePageMemory) + " bytes are currently backed by huge pages.";
+    }
+
+    @Override
+    public void close()
+    {
+        cleanable.clean();
+    }
+
+    private static final class Region
+    {
+        private final Region next;
+        private final long address;
+        private final long size;
+        private long nextPointer;
+
+        Region( Region next, long address, long size )
+        {
+            this.next = next;
+            this.address = address;
+            this.size = size;
+            this.nextPointer = address;
+        }
+
+        long allocate( long bytes, long alignment )
+        {
+            long allocation = nextAligned( nextPointer, alignment );
+            nextPointer = allocation + bytes;
+            return allocation;
+        }
+
+        boolean canAllocate( long bytes, long alignment )
+        {
+            return nextAligned( nextPointer, alignment ) + bytes <= address + size;
+        }
+
+        private static long nextAligned( long pointer, long alignment )
+        {
+            long off = pointer % alignment;
+            return off == 0 ? pointer : pointer + (alignment - off);
+        }
+    }
+
+    private static final class Regions
+    {
+        private final MemoryTracker memoryTracker;
+        private final long hugePageSize;
+        private boolean useHugeTlb;
+        private long expectedMaxMemory;
+        private long mappedMemory;
+        private long hugeTlbMemory;
+        private Region head;
+
+        Regions( long expectedMaxMemory, MemoryTracker memoryTracker, boolean useHugeTlb )
+        {
+            this.expectedMaxMemory = expectedMaxMemory;
+            this.memoryTracker = memoryTracker;
+            this.useHugeTlb = useHugeTlb;
+            this.hugePageSize = HugePageMemory.hugePageSize();
+        }
+
+        long usedMemory()
+        {
+            long sum = 0;
+            for ( Region region = head; region != null; region = region.next )
+            {
+                sum += region.nextPointer - region.address;
+            }
+            return sum;
+        }
+
+        long availableMemory()
+        {
+            long availableInCurrentRegion = head == null ? 0 : head.address + head.size - head.nextPointer;
+            return Math.max( expectedMaxMemory, 0L ) + availableInCurrentRegion;
+        }
+
+        long hugePageMemory()
+        {
+            int count = 0;
+            for ( Region region = head; region != null; region = region.next )
+            {
+                count++;
+            }
+            long[] addresses = new long[count];
+            long[] sizes = new long[count];
+            int i = 0;
+            for ( Region region = head; region != null; region = region.next, i++ )
+            {
+                addresses[i] = region.address;
+                sizes[i] = region.size;
+            }
+            return HugePageMemory.hugePageBytes( addresses, sizes, count );
+        }
+
+        long allocateAligned( long bytes, long alignment )
+        {
+            if ( alignment <= 0 )
+            {
+                throw new IllegalArgumentException( "Invalid alignment: " + alignment + ". Alignment must be positive." );
+            }
+            if ( head == null || !head.canAllocate( bytes, alignment ) )
+            {
+                // Regions are huge page aligned, so alignments up to the huge page size need no padding at the start of a region.
+                long maxAllocationSize = alignment <= hugePageSize ? bytes : bytes + alignment - 1;
+                long regionSize = roundUpToHugePages( Math.max( maxAllocationSize, Math.min( REGION_SIZE, expectedMaxMemory ) ) );
+                head = new Region( head, map( regionSize ), regionSize );
+                expectedMaxMemory -= regionSize;
+            }
+            return head.allocate( bytes, alignment );
+        }
+
+        private long map( long size )
+        {
+            memoryTracker.allocateNative( size );
+            long address = 0;
+            if ( useHugeTlb )
+            {
+                address = HugePageMemory.mapHugeTlb( size );
+                if ( address == 0 )
+                {
+                    // The reserved pool has run out of huge pages. Don't bother trying again.
+                    useHugeTlb = false;
+                }
+                else
+                {
+                    hugeTlbMemory += size;
+                }
+            }
+            if ( address == 0 )
+            {
+                address = HugePageMemory.mapTransparent( size );
+            }
+            if ( address == 0 )
+            {
+                memoryTracker.releaseNative( size );
+                throw new OutOfMemoryError( "Failed to map " + size + " bytes of huge page aligned memory. So far " + mappedMemory +
+                        " bytes have already been successfully mapped." );
+            }
+            UnsafeUtil.registerMappedMemory( address, size );
+            mappedMemory += size;
+            return address;
+        }
+
+        private long roundUpToHugePages( long bytes )
+        {
+            long pages = (Math.max( bytes, 1 ) + hugePageSize - 1) / hugePageSize;
+            return pages * hugePageSize;
+        }
+
+        void close()
+        {
+            for ( Region region = head; region != null; region = region.next )
+            {
+                UnsafeUtil.unregisterMappedMemory( region.address );
+                HugePageMemory.unmap( region.address, region.size );
+                memoryTracker.releaseNative( region.size );
+            }
+            head = null;
+        }
+    }
+
+    private static final class RegionsDeallocator implements Runnable
+    {
+        private final Regions regions;
+
+        RegionsDeallocator( Regions regions )
+        {
+            this.regions = regions;
+        }
+
+        @Override
+        public void run()
+        {
+            regions.close();
+        }
+    }
+}
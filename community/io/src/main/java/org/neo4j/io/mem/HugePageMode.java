@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.mem;
+
+/**
+ * How a {@link MemoryAllocator} should use huge pages for the memory it allocates.
+ */
+public enum HugePageMode
+{
+    /**
+     * Allocate memory with the normal native allocator.
+     */
+    DISABLED,
+    /**
+     * Map memory that is aligned to the huge page size, and advise the kernel to back it with transparent huge pages.
+     */
+    TRANSPARENT,
+    /**
+     * Map memory from the pool of huge pages that has been reserved with hugetlbfs, and fall back to {@link #TRANSPARENT} when the pool
+     * runs out of huge pages.
+     */
+    HUGETLB
+}
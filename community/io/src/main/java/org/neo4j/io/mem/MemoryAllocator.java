@@ -31,6 +31,19 @@ public interface MemoryAllocator
         return new GrabAllocator( expectedMemory, memoryTracker );
     }
 
+    /**
+     * Create an allocator that maps its memory with huge pages, as configured by the given mode. If huge pages are {@link HugePageMode#DISABLED},
+     * or not available on this platform, this is the same as {@link #createAllocator(long, MemoryTracker)}.
+     */
+    static MemoryAllocator createAllocator( long expectedMemory, MemoryTracker memoryTracker, HugePageMode hugePageMode )
+    {
+        if ( hugePageMode == HugePageMode.DISABLED || !HugePageAllocator.isAvailable() )
+        {
+            return createAllocator( expectedMemory, memoryTracker );
+        }
+        return new HugePageAllocator( expectedMemory, memoryTracker, hugePageMode );
+    }
+
     /**
      * @return The sum, in bytes, of all the memory currently allocating through this allocator.
      */
@@ -59,6 +59,22 @@ public interface IOController
      */
     void maybeLimitIO( int recentlyCompletedIOs, Flushable flushable, MajorFlushEvent flushEvent );
 
+    /**
+     * Invoked at regular intervals during flushing of the {@link PageCache} or {@link PagedFile}s, like
+     * {@link #maybeLimitIO(int, Flushable, MajorFlushEvent)}, but also tells the controller how many bytes the recently completed IOs wrote.
+     * This allows controllers to limit the flushing by throughput, rather than by the number of IOs, which can vary a lot in size.
+     *
+     * @param recentlyCompletedIOs The number of IOs completed by caller since the last call to this method.
+     * @param recentlyWrittenBytes The number of bytes written by those IOs.
+     * @param flushable A {@link Flushable} instance that can flush any relevant dirty system buffers, to help smooth
+     * out the IO load on the storage device.
+     * @param flushEvent A {@link MajorFlushEvent} event that describes ongoing io represented by flushable instance.
+     */
+    default void maybeLimitIO( int recentlyCompletedIOs, long recentlyWrittenBytes, Flushable flushable, MajorFlushEvent flushEvent )
+    {
+        maybeLimitIO( recentlyCompletedIOs, flushable, flushEvent );
+    }
+
     /**
      * Temporarily disable the IOController, to allow IO to proceed at full speed.
      * This call <strong>MUST</strong> be paired with a subsequent {@link #enable()} call.
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.nio.file.Path;
 
 import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.monitoring.FlushStatistics;
 import org.neo4j.io.pagecache.monitoring.PageFileCounters;
 
 /**
@@ -83,6 +84,12 @@ public interface PagedFile extends AutoCloseable
      * Flush pages more aggressively, after they have been dirtied by a write cursor.
      */
     int PF_EAGER_FLUSH = 1 << 6;
+    /**
+     * Sequential scan hint. Pages accessed through the cursor are admitted into the page cache at low priority, so that a large scan does not
+     * push the frequently used pages out of the cache: the accesses do not update page access statistics, and page replacement policies
+     * that are scan resistant will evict the pages that were faulted in by the scan before any other pages.
+     */
+    int PF_SCAN = 1 << 7;
 
     /**
      * Initiate an IO interaction with the contents of the paged file.
@@ -140,6 +147,23 @@ public interface PagedFile extends AutoCloseable
      */
     PageCursor io( long pageId, int pf_flags, CursorContext context ) throws IOException;
 
+    /**
+     * Touch up to {@code count} pages, starting with {@code pageId}, and load them into the page cache if they are not already there.
+     * <p>
+     * Pages that are already in memory, or that are concurrently being faulted in by another thread, are skipped. The remaining pages are
+     * loaded in runs of consecutive pages, each with a single vectored read. Pages beyond the end of the file are ignored.
+     * <p>
+     * This is intended for warming up the page cache, and for pre-fetching, where it is more efficient than pinning the pages one by one
+     * with a cursor.
+     *
+     * @param pageId The file-page-id of the first page to touch.
+     * @param count The number of consecutive pages to touch.
+     * @param context underlying page cursor context
+     * @return The number of pages that were loaded into memory by this call.
+     * @throws IOException if there was an error accessing the underlying file.
+     */
+    int touch( long pageId, int count, CursorContext context ) throws IOException;
+
     /**
      * Get the size of the file-pages, in bytes.
      */
@@ -205,4 +229,9 @@ public interface PagedFile extends AutoCloseable
      * Underlying page cache counters for mapped file
      */
     PageFileCounters pageFileCounters();
+
+    /**
+     * Statistics about how the dirty pages of this file have been written by {@link #flushAndForce()}, accumulated since the file was mapped.
+     */
+    FlushStatistics flushStatistics();
 }
@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.neo4j.internal.nativeimpl.IoUring;
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.impl.muninn.SwapperSet;
+import org.neo4j.io.pagecache.tracing.PageFileSwapperTracer;
+
+import static org.neo4j.io.fs.FileSystemAbstraction.INVALID_FILE_DESCRIPTOR;
+import static org.neo4j.util.FeatureToggles.getInteger;
+
+/**
+ * A {@link SingleFilePageSwapper} that performs its vectored reads and writes through io_uring.
+ * <p>
+ * The vectored operations are what the page cache uses to fault in runs of pages for the pre-fetcher and {@link
+ * org.neo4j.io.pagecache.PagedFile#touch(long, int, org.neo4j.io.pagecache.context.CursorContext) touch}, and to flush runs of dirty pages.
+ * The {@link SingleFilePageSwapper} does these as one blocking {@code readv}/{@code writev} call under the position lock of the channel, so
+ * they are serialised per file. Here, every buffer becomes its own positional operation, and all of them are submitted to the kernel with
+ * a single system call, so they neither take the position lock, nor wait for each other.
+ * <p>
+ * Each swapper has a small number of rings, that are set up the first time they are needed. A thread that finds all the rings busy waits
+ * for one of them. If the rings cannot be set up, or the file system does not give us a file descriptor to submit operations for, then the
+ * swapper falls back to the behaviour of the {@link SingleFilePageSwapper}. It does the same for operations that complete short, or fail,
+ * so that they are retried, or reported, the same way as for the {@link SingleFilePageSwapper}.
+ */
+public class IoUringPageSwapper extends SingleFilePageSwapper
+{
+    private static final int RINGS = getInteger( IoUringPageSwapper.class, "rings", 2 );
+    private static final int RING_ENTRIES = getInteger( IoUringPageSwapper.class, "ringEntries", 64 );
+
+    private final IoUring[] rings;
+    private final ReentrantLock[] ringLocks;
+    private volatile boolean ringsUnavailable;
+
+    IoUringPageSwapper( Path path, FileSystemAbstraction fs, int filePageSize, PageEvictionCallback onEviction, boolean useDirectIO,
+            boolean preallocateStoreFiles, IOController ioController, SwapperSet swapperSet, PageFileSwapperTracer fileSwapperTracer ) throws IOException
+    {
+        super( path, fs, filePageSize, onEviction, useDirectIO, preallocateStoreFiles, ioController, swapperSet, fileSwapperTracer );
+        rings = new IoUring[RINGS];
+        ringLocks = new ReentrantLock[RINGS];
+        for ( int i = 0; i < RINGS; i++ )
+        {
+            ringLocks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public long read( long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length ) throws IOException
+    {
+        int fd = fileDescriptor();
+        int slot;
+        if ( length == 0 || fd == INVALID_FILE_DESCRIPTOR || (slot = acquireRing()) == -1 )
+        {
+            return super.read( startFilePageId, bufferAddresses, bufferLengths, length );
+        }
+        try
+        {
+            IoUring ring = rings[slot];
+            long fileSize = getCurrentFileSize();
+            long[] filePageIds = new long[length];
+            long[] bytesRead = new long[1];
+            IoUring.CompletionHandler onCompletion = ( index, result ) ->
+            {
+                int i = (int) index;
+                if ( result == bufferLengths[i] )
+                {
+                    bytesRead[0] += result;
+                }
+                else
+                {
+                    // A short read, or a failure. Let the single page path zero-fill the end of the buffer, or retry and report the failure.
+                    bytesRead[0] += super.read( filePageIds[i], bufferAddresses[i], bufferLengths[i] );
+                }
+            };
+
+            long filePageId = startFilePageId;
+            for ( int i = 0; i < length; i++ )
+            {
+                filePageIds[i] = filePageId;
+                long fileOffset = pageIdToPosition( filePageId );
+                if ( fileOffset < fileSize )
+                {
+                    if ( ring.prepared() == ring.entries() )
+                    {
+                        ring.submitAndWait( onCompletion );
+                    }
+                    ring.prepareRead( fd, fileOffset, bufferAddresses[i], bufferLengths[i], i );
+                }
+                else
+                {
+                    UnsafeUtil.setMemory( bufferAddresses[i], bufferLengths[i], MuninnPageCache.ZERO_BYTE );
+                }
+                filePageId += bufferLengths[i] / filePageSize;
+            }
+            ring.submitAndWait( onCompletion );
+            ioController.reportIO( 1 );
+            return bytesRead[0];
+        }
+        finally
+        {
+            ringLocks[slot].unlock();
+        }
+    }
+
+    @Override
+    public long write( long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length, int totalAffectedPages ) throws IOException
+    {
+        int fd = fileDescriptor();
+        int slot;
+        if ( totalAffectedPages == 0 || fd == INVALID_FILE_DESCRIPTOR || (slot = acquireRing()) == -1 )
+        {
+            return super.write( startFilePageId, bufferAddresses, bufferLengths, length, totalAffectedPages );
+        }
+        try
+        {
+            IoUring ring = rings[slot];
+            long[] filePageIds = new long[length];
+            long[] bytesWritten = new long[1];
+            IoUring.CompletionHandler onCompletion = ( index, result ) ->
+            {
+                int i = (int) index;
+                if ( result == bufferLengths[i] )
+                {
+                    bytesWritten[0] += result;
+                }
+                else
+                {
+                    // A short write, or a failure. The single page path writes the whole buffer again, or retries and reports the failure.
+                    bytesWritten[0] += write( filePageIds[i], bufferAddresses[i], bufferLengths[i], false );
+                }
+            };
+
+            // Like for the vectored writes of the SingleFilePageSwapper, we do not report the io to the io controller here, since it is only
+            // the checkpoint that is calling this method, and that io is counted as related to the checkpoint.
+            long filePageId = startFilePageId;
+            for ( int i = 0; i < length; i++ )
+            {
+                filePageIds[i] = filePageId;
+                long fileOffset = pageIdToPosition( filePageId );
+                increaseFileSizeTo( fileOffset + bufferLengths[i] );
+                if ( ring.prepared() == ring.entries() )
+                {
+                    ring.submitAndWait( onCompletion );
+                }
+                ring.prepareWrite( fd, fileOffset, bufferAddresses[i], bufferLengths[i], i );
+                filePageId += bufferLengths[i] / filePageSize;
+            }
+            ring.submitAndWait( onCompletion );
+            return bytesWritten[0];
+        }
+        finally
+        {
+            ringLocks[slot].unlock();
+        }
+    }
+
+    /**
+     * Lock a ring for the current thread, and set it up if this is the first time it is used.
+     *
+     * @return the slot of the locked ring, or {@code -1} if rings cannot be set up, in which case no lock is held.
+     */
+    private int acquireRing()
+    {
+        if ( ringsUnavailable )
+        {
+            return -1;
+        }
+        int home = (int) (Thread.currentThread().getId() % RINGS);
+        int slot = home;
+        boolean locked = false;
+        for ( int i = 0; i < RINGS && !locked; i++ )
+        {
+            slot = (home + i) % RINGS;
+            locked = ringLocks[slot].tryLock();
+        }
+        if ( !locked )
+        {
+            slot = home;
+            ringLocks[slot].lock();
+        }
+        if ( rings[slot] == null )
+        {
+            try
+            {
+                rings[slot] = IoUring.open( RING_ENTRIES );
+            }
+            catch ( IOException | RuntimeException | LinkageError e )
+            {
+                ringsUnavailable = true;
+                ringLocks[slot].unlock();
+                return -1;
+            }
+        }
+        return slot;
+    }
+
+    @Override
+    public synchronized void close() throws IOException
+    {
+        try
+        {
+            for ( int i = 0; i < RINGS; i++ )
+            {
+                ringLocks[i].lock();
+                try
+                {
+                    if ( rings[i] != null )
+                    {
+                        rings[i].close();
+                        rings[i] = null;
+                    }
+                }
+                finally
+                {
+                    ringLocks[i].unlock();
+                }
+            }
+        }
+        finally
+        {
+            super.close();
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "IoUringPageSwapper{" +
+                "filePageSize=" + filePageSize +
+                ", file=" + path() +
+                '}';
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import org.neo4j.internal.nativeimpl.IoUring;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.SwapperSet;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+
+/**
+ * A factory for IoUringPageSwapper instances, that falls back to creating SingleFilePageSwapper instances when io_uring is not available
+ * on this platform.
+ *
+ * @see org.neo4j.io.pagecache.impl.IoUringPageSwapper
+ */
+public class IoUringPageSwapperFactory implements PageSwapperFactory
+{
+    private final FileSystemAbstraction fs;
+    private final PageCacheTracer pageCacheTracer;
+
+    public IoUringPageSwapperFactory( FileSystemAbstraction fs, PageCacheTracer pageCacheTracer )
+    {
+        this.fs = fs;
+        this.pageCacheTracer = pageCacheTracer;
+    }
+
+    /**
+     * @return {@code true} if the swappers created by this factory will use io_uring, {@code false} if they fall back to plain file channel io.
+     */
+    public static boolean isAvailable()
+    {
+        return IoUring.isAvailable();
+    }
+
+    @Override
+    public PageSwapper createPageSwapper( Path file, int filePageSize, PageEvictionCallback onEviction, boolean createIfNotExist, boolean useDirectIO,
+            boolean preallocateStoreFiles, IOController ioController, SwapperSet swappers ) throws IOException
+    {
+        if ( !createIfNotExist && !fs.fileExists( file ) )
+        {
+            throw new NoSuchFileException( file.toString(), null, "Cannot map non-existing file" );
+        }
+        if ( isAvailable() )
+        {
+            return new IoUringPageSwapper( file, fs, filePageSize, onEviction, useDirectIO, preallocateStoreFiles, ioController, swappers,
+                    pageCacheTracer.createFileSwapperTracer() );
+        }
+        return new SingleFilePageSwapper( file, fs, filePageSize, onEviction, useDirectIO, preallocateStoreFiles, ioController, swappers,
+                pageCacheTracer.createFileSwapperTracer() );
+    }
+}
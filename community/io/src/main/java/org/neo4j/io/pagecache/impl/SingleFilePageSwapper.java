@@ -91,9 +91,9 @@ public class SingleFilePageSwapper implements PageSwapper
 
     private final FileSystemAbstraction fs;
     private final Path path;
-    private final IOController ioController;
+    final IOController ioController;
     private final boolean preallocateStoreFiles;
-    private final int filePageSize;
+    final int filePageSize;
     private final Set<OpenOption> openOptions;
     private volatile PageEvictionCallback onEviction;
     private StoreChannel channel;
@@ -186,7 +186,7 @@ public class SingleFilePageSwapper implements PageSwapper
         }
     }
 
-    private void increaseFileSizeTo( long newFileSize )
+    void increaseFileSizeTo( long newFileSize )
     {
         long currentFileSize;
         do
@@ -196,7 +196,7 @@ public class SingleFilePageSwapper implements PageSwapper
         while ( currentFileSize < newFileSize && !FILE_SIZE.weakCompareAndSet( this, currentFileSize, newFileSize ) );
     }
 
-    private long getCurrentFileSize()
+    long getCurrentFileSize()
     {
         return (long) FILE_SIZE.getVolatile( this );
     }
@@ -444,7 +444,7 @@ public class SingleFilePageSwapper implements PageSwapper
         return write( filePageId, bufferAddress, bufferLength, true );
     }
 
-    private int write( long filePageId, long bufferAddress, int bufferLength, boolean countIo ) throws IOException
+    int write( long filePageId, long bufferAddress, int bufferLength, boolean countIo ) throws IOException
     {
         long fileOffset = pageIdToPosition( filePageId );
         increaseFileSizeTo( fileOffset + bufferLength );
@@ -579,6 +579,15 @@ public class SingleFilePageSwapper implements PageSwapper
         return bytes;
     }
 
+    /**
+     * @return the file descriptor of the underlying channel, or {@link FileSystemAbstraction#INVALID_FILE_DESCRIPTOR} if the channel does not
+     * have one, e.g. because the file system is not backed by real files.
+     */
+    int fileDescriptor()
+    {
+        return channel.getFileDescriptor();
+    }
+
     @Override
     public void evicted( long filePageId )
     {
@@ -595,7 +604,7 @@ public class SingleFilePageSwapper implements PageSwapper
         return path;
     }
 
-    private long pageIdToPosition( long pageId )
+    long pageIdToPosition( long pageId )
     {
         return filePageSize * pageId;
     }
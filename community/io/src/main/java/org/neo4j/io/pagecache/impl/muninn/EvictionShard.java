@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A contiguous range of the pages in the {@link MuninnPageCache}, with its own freelist and its own clock arm.
+ * <p>
+ * Page faulting threads prefer to take free pages from their own shard, and each shard can have its own background eviction thread, so that
+ * neither the freelist nor the eviction thread become points of contention when many threads are page faulting at the same time.
+ * <p>
+ * The freelist of a shard works exactly like the freelist that the page cache had before it was sharded: it is initially an {@link AtomicInteger}
+ * that counts from zero to the number of pages in the shard, after which it becomes a concurrent stack of single-use {@link FreePage} objects.
+ */
+final class EvictionShard
+{
+    private static final VarHandle FREE_LIST;
+
+    static
+    {
+        try
+        {
+            MethodHandles.Lookup l = MethodHandles.lookup();
+            FREE_LIST = l.findVarHandle( EvictionShard.class, "freelist", Object.class );
+        }
+        catch ( ReflectiveOperationException e )
+        {
+            throw new ExceptionInInitializerError( e );
+        }
+    }
+
+    final int index;
+    // The id of the first page in this shard.
+    final int firstPageId;
+    // The id one past the last page in this shard.
+    final int endPageId;
+    final int keepFree;
+    // The pages of this shard that are on probation, or null if the page replacement policy does not use probation.
+    final ProbationQueue probation;
+
+    @SuppressWarnings( "unused" ) // accessed via VarHandle.
+    private volatile Object freelist;
+
+    // The thread that runs the eviction algorithm for this shard, if any.
+    volatile Thread evictionThread;
+    // True if the eviction thread is currently parked, without someone having signalled it to wake up.
+    volatile boolean evictorParked;
+
+    EvictionShard( int index, int firstPageId, int endPageId, int keepFree, PageReplacementPolicy replacementPolicy )
+    {
+        this.index = index;
+        this.firstPageId = firstPageId;
+        this.endPageId = endPageId;
+        this.keepFree = keepFree;
+        this.probation = replacementPolicy == PageReplacementPolicy.TWO_QUEUE ? new ProbationQueue( endPageId - firstPageId ) : null;
+        setFreelistHead( new AtomicInteger() );
+    }
+
+    int pageCount()
+    {
+        return endPageId - firstPageId;
+    }
+
+    boolean contains( int pageId )
+    {
+        return firstPageId <= pageId && pageId < endPageId;
+    }
+
+    Object getFreelistHead()
+    {
+        return FREE_LIST.getVolatile( this );
+    }
+
+    boolean compareAndSetFreelistHead( Object expected, Object update )
+    {
+        return FREE_LIST.compareAndSet( this, expected, update );
+    }
+
+    void setFreelistHead( Object newFreelistHead )
+    {
+        FREE_LIST.setVolatile( this, newFreelistHead );
+    }
+
+    @Override
+    public String toString()
+    {
+        return "EvictionShard[index:" + index + ", pages:" + firstPageId + "-" + endPageId + "]";
+    }
+}
@@ -109,6 +109,31 @@ final class LatchMap
         return null;
     }
 
+    /**
+     * Like {@link #takeOrAwaitLatch(long)}, except that if a latch is already installed for the given (or any colliding) identifier, then
+     * {@code null} is returned immediately, without waiting for the existing latch to be released.
+     *
+     * This is useful for opportunistic page faults, such as pre-fetching and warmup, that should rather skip a page than wait for it.
+     */
+    Latch tryTakeLatch( long identifier )
+    {
+        int index = index( identifier );
+        if ( getLatch( index ) != null )
+        {
+            return null;
+        }
+        Latch latch = new Latch( this, index );
+        return tryInsertLatch( index, latch ) ? latch : null;
+    }
+
+    /**
+     * @return the number of latches in this map. At most this many latches can be held at the same time.
+     */
+    int size()
+    {
+        return latches.length;
+    }
+
     private int index( long identifier )
     {
         return (int) (identifier & faultLockMask);
@@ -23,8 +23,6 @@ import org.eclipse.collections.api.set.ImmutableSet;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.lang.invoke.MethodHandles;
-import java.lang.invoke.VarHandle;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
@@ -46,6 +44,7 @@ import org.neo4j.io.pagecache.PageCacheOpenOptions;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.buffer.IOBufferFactory;
+import org.neo4j.io.pagecache.tracing.EvictionEventOpportunity;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
@@ -136,6 +135,10 @@ public class MuninnPageCache implements PageCache
     private static final int cooperativeEvictionLiveLockThreshold = getInteger(
             MuninnPageCache.class, "cooperativeEvictionLiveLockThreshold", 100 );
 
+    // The smallest number of pages we will put in an eviction shard. Caches that are too small to give every configured shard this many pages,
+    // will get fewer shards.
+    private static final int minPagesPerEvictionShard = getInteger( MuninnPageCache.class, "minPagesPerEvictionShard", 1024 );
+
     // This is a pre-allocated constant, so we can throw it without allocating any objects:
     @SuppressWarnings( "ThrowableInstanceNeverThrown" )
     private static final IOException oomException = new IOException(
@@ -170,34 +173,27 @@ public class MuninnPageCache implements PageCache
     private final int faultLockStriping;
     private final boolean preallocateStoreFiles;
     private final boolean enableEvictionThread;
+    private final PageReplacementPolicy replacementPolicy;
+    final int flushGapPages;
     final PageList pages;
     // All PageCursors are initialised with their pointers pointing to the victim page. This way, we don't have to throw
     // exceptions on bounds checking failures; we can instead return the victim page pointer, and permit the page
     // accesses to take place without fear of segfaulting newly allocated cursors.
     final long victimPage;
 
-    // The freelist is a thread-safe linked-list of FreePage objects, or an AtomicInteger, or null.
-    // Initially, the field is an AtomicInteger that counts from zero to the max page count, at which point all of the
-    // pages have been put in use. Once this happens, the field is set to null to allow the background eviction thread
-    // to start its work. From that point on, the field will operate as a concurrent stack of FreePage objects. The
+    // The pages are partitioned into one or more eviction shards, each with their own freelist, and their own eviction thread.
+    // The freelist of a shard is a thread-safe linked-list of FreePage objects, or an AtomicInteger, or null.
+    // Initially, the freelist is an AtomicInteger that counts from zero to the page count of the shard, at which point all of the
+    // pages have been put in use. Once this happens, the freelist is set to null to allow the background eviction thread
+    // to start its work. From that point on, the freelist will operate as a concurrent stack of FreePage objects. The
     // eviction thread pushes newly freed FreePage objects onto the stack, and page faulting threads pops FreePage
     // objects from the stack. The FreePage objects are single-use, to avoid running into the ABA-problem.
-    @SuppressWarnings( "unused" ) // accessed via VarHandle.
-    private volatile Object freelist;
-    private static final VarHandle FREE_LIST;
+    // Page faulting threads prefer the freelist of their own shard, and only take pages from other shards when their own is empty.
+    final EvictionShard[] shards;
 
     // Linked list of mappings - guarded by synchronized(this)
     private volatile FileMapping mappedFiles;
 
-    // The thread that runs the eviction algorithm. We unpark this when we've run out of
-    // free pages to grab.
-    private volatile Thread evictionThread;
-    // True if the eviction thread is currently parked, without someone having
-    // signalled it to wake up. This is used as a weak guard for unparking the
-    // eviction thread, because calling unpark too much (from many page
-    // faulting threads) can cause contention on the locks protecting that
-    // threads scheduling meta-data in the OS kernel.
-    private volatile boolean evictorParked;
     private volatile IOException evictorException;
 
     // Flag for when page cache is closed - writes guarded by synchronized(this), reads can be unsynchronized
@@ -209,19 +205,6 @@ public class MuninnPageCache implements PageCache
     // 'true' (the default) if we should print any exceptions we get when unmapping a file.
     private boolean printExceptionsOnClose;
 
-    static
-    {
-        try
-        {
-            MethodHandles.Lookup l = MethodHandles.lookup();
-            FREE_LIST = l.findVarHandle( MuninnPageCache.class, "freelist", Object.class );
-        }
-        catch ( ReflectiveOperationException e )
-        {
-            throw new ExceptionInInitializerError( e );
-        }
-    }
-
     /**
      * Compute the amount of memory needed for a page cache with the given number of 8 KiB pages.
      * @param pageCount The number of pages
@@ -244,10 +227,14 @@ public class MuninnPageCache implements PageCache
         private final boolean enableEvictionThread;
         private final boolean preallocateStoreFiles;
         private final int reservedPageSize;
+        private final int evictionShards;
+        private final PageReplacementPolicy replacementPolicy;
+        private final int flushGapPages;
 
         private Configuration( MemoryAllocator memoryAllocator, SystemNanoClock clock, MemoryTracker memoryTracker, PageCacheTracer pageCacheTracer,
                 int pageSize, IOBufferFactory bufferFactory, int faultLockStriping,
-                boolean enableEvictionThread, boolean preallocateStoreFiles, int reservedPageSize )
+                boolean enableEvictionThread, boolean preallocateStoreFiles, int reservedPageSize, int evictionShards,
+                PageReplacementPolicy replacementPolicy, int flushGapPages )
         {
             this.memoryAllocator = memoryAllocator;
             this.clock = clock;
@@ -259,6 +246,9 @@ public class MuninnPageCache implements PageCache
             this.faultLockStriping = faultLockStriping;
             this.enableEvictionThread = enableEvictionThread;
             this.preallocateStoreFiles = preallocateStoreFiles;
+            this.evictionShards = evictionShards;
+            this.replacementPolicy = replacementPolicy;
+            this.flushGapPages = flushGapPages;
         }
 
         /**
@@ -267,7 +257,8 @@ public class MuninnPageCache implements PageCache
         public Configuration memoryAllocator( MemoryAllocator memoryAllocator )
         {
             return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
-                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, reservedPageSize );
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, reservedPageSize, evictionShards, replacementPolicy,
+                    flushGapPages );
         }
 
         /**
@@ -276,7 +267,8 @@ public class MuninnPageCache implements PageCache
         public Configuration clock( SystemNanoClock clock )
         {
             return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
-                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, reservedPageSize );
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, reservedPageSize, evictionShards, replacementPolicy,
+                    flushGapPages );
         }
 
         /**
@@ -285,7 +277,8 @@ public class MuninnPageCache implements PageCache
         public Configuration memoryTracker( MemoryTracker memoryTracker )
         {
             return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
-                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, reservedPageSize );
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, reservedPageSize, evictionShards, replacementPolicy,
+                    flushGapPages );
         }
 
         /**
@@ -294,7 +287,8 @@ public class MuninnPageCache implements PageCache
         public Configuration pageCacheTracer( PageCacheTracer pageCacheTracer )
         {
             return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
-                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, reservedPageSize );
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, reservedPageSize, evictionShards, replacementPolicy,
+                    flushGapPages );
         }
 
         /**
@@ -303,7 +297,8 @@ public class MuninnPageCache implements PageCache
         public Configuration pageSize( int pageSize )
         {
             return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
-                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, reservedPageSize );
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, reservedPageSize, evictionShards, replacementPolicy,
+                    flushGapPages );
         }
 
         /**
@@ -312,7 +307,8 @@ public class MuninnPageCache implements PageCache
         public Configuration bufferFactory( IOBufferFactory bufferFactory )
         {
             return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
-                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, reservedPageSize );
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, reservedPageSize, evictionShards, replacementPolicy,
+                    flushGapPages );
         }
 
         /**
@@ -321,7 +317,8 @@ public class MuninnPageCache implements PageCache
         public Configuration reservedPageBytes( int reservedPageBytes )
         {
             return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
-                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, reservedPageBytes );
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, reservedPageBytes, evictionShards, replacementPolicy,
+                    flushGapPages );
         }
 
         /**
@@ -330,7 +327,8 @@ public class MuninnPageCache implements PageCache
         public Configuration faultLockStriping( int faultLockStriping )
         {
             return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
-                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, reservedPageSize );
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, reservedPageSize, evictionShards, replacementPolicy,
+                    flushGapPages );
         }
 
         /**
@@ -339,7 +337,8 @@ public class MuninnPageCache implements PageCache
         public Configuration disableEvictionThread()
         {
             return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
-                    faultLockStriping, false, preallocateStoreFiles, reservedPageSize );
+                    faultLockStriping, false, preallocateStoreFiles, reservedPageSize, evictionShards, replacementPolicy,
+                    flushGapPages );
         }
 
         /**
@@ -348,7 +347,41 @@ public class MuninnPageCache implements PageCache
         public Configuration preallocateStoreFiles( boolean preallocateStoreFiles )
         {
             return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
-                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, reservedPageSize );
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, reservedPageSize, evictionShards, replacementPolicy,
+                    flushGapPages );
+        }
+
+        /**
+         * @param evictionShards number of shards to partition the pages into, each with their own freelist and eviction thread.
+         * Small page caches may get fewer shards than this.
+         */
+        public Configuration evictionShards( int evictionShards )
+        {
+            return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, reservedPageSize, evictionShards, replacementPolicy,
+                    flushGapPages );
+        }
+
+        /**
+         * @param replacementPolicy the policy used to pick which pages to evict.
+         */
+        public Configuration replacementPolicy( PageReplacementPolicy replacementPolicy )
+        {
+            return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, reservedPageSize, evictionShards, replacementPolicy,
+                    flushGapPages );
+        }
+
+        /**
+         * @param flushGapPages the maximum number of consecutive clean pages that {@link PagedFile#flushAndForce()} may write along with the dirty
+         * pages around them, in order to write both runs of dirty pages with a single vectored write. {@code 0}, the default, only writes dirty pages.
+         * Databases get theirs from {@code unsupported.dbms.memory.pagecache.flush.max_gap_pages}, which does bridge gaps by default.
+         */
+        public Configuration flushGapPages( int flushGapPages )
+        {
+            return new Configuration( memoryAllocator, clock, memoryTracker, pageCacheTracer, pageSize, bufferFactory,
+                    faultLockStriping, enableEvictionThread, preallocateStoreFiles, reservedPageSize, evictionShards, replacementPolicy,
+                    flushGapPages );
         }
     }
 
@@ -368,7 +401,7 @@ public class MuninnPageCache implements PageCache
     public static Configuration config( MemoryAllocator memoryAllocator )
     {
         return new Configuration( memoryAllocator, Clocks.nanoClock(), EmptyMemoryTracker.INSTANCE, PageCacheTracer.NULL,
-                PAGE_SIZE, DISABLED_BUFFER_FACTORY, LatchMap.faultLockStriping, true, true, 0 );
+                PAGE_SIZE, DISABLED_BUFFER_FACTORY, LatchMap.faultLockStriping, true, true, 0, 1, PageReplacementPolicy.CLOCK, 0 );
     }
 
     /**
@@ -399,10 +432,27 @@ public class MuninnPageCache implements PageCache
         this.faultLockStriping = configuration.faultLockStriping;
         this.enableEvictionThread = configuration.enableEvictionThread;
         this.preallocateStoreFiles = configuration.preallocateStoreFiles;
-        setFreelistHead( new AtomicInteger() );
+        this.replacementPolicy = configuration.replacementPolicy;
+        this.flushGapPages = configuration.flushGapPages;
+        this.shards = createEvictionShards( maxPages, configuration.evictionShards, keepFree, replacementPolicy );
 
         // Expose the total number of pages
         pageCacheTracer.maxPages( maxPages, cachePageSize);
+        pageCacheTracer.evictionShards( shards.length );
+    }
+
+    private static EvictionShard[] createEvictionShards( int maxPages, int requestedShards, int keepFree, PageReplacementPolicy replacementPolicy )
+    {
+        int shardCount = Math.max( 1, Math.min( requestedShards, maxPages / minPagesPerEvictionShard ) );
+        int shardKeepFree = (keepFree + shardCount - 1) / shardCount;
+        EvictionShard[] shards = new EvictionShard[shardCount];
+        for ( int i = 0; i < shardCount; i++ )
+        {
+            int firstPageId = (int) ((long) maxPages * i / shardCount);
+            int endPageId = (int) ((long) maxPages * (i + 1) / shardCount);
+            shards[i] = new EvictionShard( i, firstPageId, endPageId, shardKeepFree, replacementPolicy );
+        }
+        return shards;
     }
 
     private static int getBufferAlignment( int cachePageSize )
@@ -623,8 +673,11 @@ public class MuninnPageCache implements PageCache
         {
             if ( enableEvictionThread )
             {
-                var monitoringParams = systemJob( "Eviction of pages from the page cache" );
-                scheduler.schedule( Group.PAGE_CACHE_EVICTION, monitoringParams, new EvictionTask( this ) );
+                for ( EvictionShard shard : shards )
+                {
+                    var monitoringParams = systemJob( "Eviction of pages from the page cache" );
+                    scheduler.schedule( Group.PAGE_CACHE_EVICTION, monitoringParams, new EvictionTask( this, shard ) );
+                }
             }
         }
         catch ( Exception e )
@@ -793,8 +846,11 @@ public class MuninnPageCache implements PageCache
 
         closed = true;
 
-        interrupt( evictionThread );
-        evictionThread = null;
+        for ( EvictionShard shard : shards )
+        {
+            interrupt( shard.evictionThread );
+            shard.evictionThread = null;
+        }
     }
 
     private static void interrupt( Thread thread )
@@ -854,74 +910,151 @@ public class MuninnPageCache implements PageCache
 
     long grabFreeAndExclusivelyLockedPage( PageFaultEvent faultEvent ) throws IOException
     {
-        // Review the comment on the freelist field before making changes to
+        // Review the comment on the shards field before making changes to
         // this part of the code.
-        // Whatever the case, we're going to the head-pointer of the freelist,
-        // and in doing so, we can discover a number of things.
-        // We can discover a MuninnPage object, in which case we can try to
-        // CAS the freelist pointer to the value of the MuninnPage.nextFree
-        // pointer, and if this succeeds then we've grabbed that page.
-        // We can discover a FreePage object, in which case we'll do a similar
-        // dance by attempting to CAS the freelist to the FreePage objects next
-        // pointer, and again, if we succeed then we've grabbed the MuninnPage
+        // Whatever the case, we're going to the head-pointer of the freelist
+        // of our local shard, and in doing so, we can discover a number of things.
+        // We can discover an AtomicInteger, in which case we can try to
+        // increment it to grab the next page that has never been used.
+        // We can discover a FreePage object, in which case we'll
+        // attempt to CAS the freelist to the FreePage objects next
+        // pointer, and if we succeed then we've grabbed the page
         // given by the FreePage object.
         // We can discover a null-pointer, in which case the freelist has just
         // been emptied for whatever it contained before. New FreePage objects
         // are eventually going to be added to the freelist, but we are not
         // going to wait around for that to happen. If the freelist is empty,
-        // then we do our own eviction to get a free page.
+        // then we try to take a free page from the other shards, and if they
+        // are empty as well, then we do our own eviction to get a free page.
         // If we find a FreePage object on the freelist, then it is important
         // to check and see if it is the shutdownSignal instance. If that's the
         // case, then the page cache has been shut down, and we should throw an
         // exception from our page fault routine.
-        Object current;
+        EvictionShard shard = localShard();
         for (;;)
         {
             assertHealthy();
-            current = getFreelistHead();
-            if ( current == null )
+            long pageRef = tryGrabFreePage( shard, faultEvent );
+            if ( pageRef != 0 )
             {
-                unparkEvictor();
-                long pageRef = cooperativelyEvict( faultEvent );
-                if ( pageRef != 0 )
-                {
-                    return pageRef;
-                }
+                return pageRef;
             }
-            else if ( current instanceof AtomicInteger )
+            if ( shard.getFreelistHead() == null )
             {
-                int pageCount = pages.getPageCount();
-                AtomicInteger counter = (AtomicInteger) current;
-                int pageId = counter.get();
-                if ( pageId < pageCount && counter.compareAndSet( pageId, pageId + 1 ) )
+                pageRef = stealFreePage( shard, faultEvent );
+                if ( pageRef != 0 )
                 {
-                    faultEvent.freeListSize( pageCount - counter.get() );
-                    return pages.deref( pageId );
+                    return pageRef;
                 }
-                if ( pageId >= pageCount )
+                unparkEvictor( shard );
+                pageRef = cooperativelyEvict( shard, faultEvent );
+                if ( pageRef != 0 )
                 {
-                    compareAndSetFreelistHead( current, null );
+                    pageCacheTracer.shardFaults( shard.index, 1 );
+                    return pageRef;
                 }
             }
-            else if ( current instanceof FreePage )
+        }
+    }
+
+    /**
+     * Make a single attempt at taking a page from the freelist of the given shard.
+     *
+     * @return the page reference of the grabbed page, or zero if no page could be grabbed.
+     */
+    private long tryGrabFreePage( EvictionShard shard, PageFaultEvent faultEvent )
+    {
+        Object current = shard.getFreelistHead();
+        if ( current instanceof AtomicInteger )
+        {
+            int pageCount = shard.pageCount();
+            AtomicInteger counter = (AtomicInteger) current;
+            int pageId = counter.get();
+            if ( pageId < pageCount && counter.compareAndSet( pageId, pageId + 1 ) )
             {
-                FreePage freePage = (FreePage) current;
-                if ( freePage == shutdownSignal )
-                {
-                    throw new IllegalStateException( "The PageCache has been shut down." );
-                }
+                faultEvent.freeListSize( pageCount - counter.get() );
+                pageCacheTracer.shardFaults( shard.index, 1 );
+                return pages.deref( shard.firstPageId + pageId );
+            }
+            if ( pageId >= pageCount )
+            {
+                shard.compareAndSetFreelistHead( current, null );
+            }
+        }
+        else if ( current instanceof FreePage )
+        {
+            FreePage freePage = (FreePage) current;
+            if ( freePage == shutdownSignal )
+            {
+                throw new IllegalStateException( "The PageCache has been shut down." );
+            }
+
+            Object nextPage = freePage.next;
+            if ( shard.compareAndSetFreelistHead( freePage, nextPage ) )
+            {
+                faultEvent.freeListSize( getFreeListSize( shard, nextPage ) );
+                pageCacheTracer.shardFaults( shard.index, 1 );
+                return freePage.pageRef;
+            }
+        }
+        return 0;
+    }
 
-                Object nextPage = freePage.next;
-                if ( compareAndSetFreelistHead( freePage, nextPage ) )
+    /**
+     * Try to take a free page from any of the shards other than our own, which has run out of free pages.
+     *
+     * @return the page reference of the grabbed page, or zero if no other shard had a free page to spare.
+     */
+    private long stealFreePage( EvictionShard localShard, PageFaultEvent faultEvent )
+    {
+        EvictionShard[] shards = this.shards;
+        for ( int i = 1; i < shards.length; i++ )
+        {
+            EvictionShard shard = shards[(localShard.index + i) % shards.length];
+            if ( shard.getFreelistHead() != null )
+            {
+                long pageRef = tryGrabFreePage( shard, faultEvent );
+                if ( pageRef != 0 )
                 {
-                    faultEvent.freeListSize( getFreeListSize( pages, nextPage ) );
-                    return freePage.pageRef;
+                    return pageRef;
                 }
             }
         }
+        return 0;
+    }
+
+    private EvictionShard localShard()
+    {
+        EvictionShard[] shards = this.shards;
+        return shards.length == 1 ? shards[0] : shards[(int) (Thread.currentThread().getId() % shards.length)];
+    }
+
+    private EvictionShard shardOf( long pageRef )
+    {
+        return shards.length == 1 ? shards[0] : shardOfPageId( pages.toId( pageRef ) );
+    }
+
+    private EvictionShard shardOfPageId( int pageId )
+    {
+        EvictionShard[] shards = this.shards;
+        if ( shards.length == 1 )
+        {
+            return shards[0];
+        }
+        int index = (int) ((long) pageId * shards.length / pages.getPageCount());
+        // The estimate can be off by one, because the shard boundaries are rounded down.
+        while ( pageId < shards[index].firstPageId )
+        {
+            index--;
+        }
+        while ( pageId >= shards[index].endPageId )
+        {
+            index++;
+        }
+        return shards[index];
     }
 
-    private static int getFreeListSize( PageList pageList, Object next )
+    private static int getFreeListSize( EvictionShard shard, Object next )
     {
         if ( next instanceof FreePage )
         {
@@ -929,7 +1062,7 @@ public class MuninnPageCache implements PageCache
         }
         else if ( next instanceof AtomicInteger )
         {
-            return pageList.getPageCount() - ((AtomicInteger) next).get();
+            return shard.pageCount() - ((AtomicInteger) next).get();
         }
         else
         {
@@ -937,17 +1070,61 @@ public class MuninnPageCache implements PageCache
         }
     }
 
-    private long cooperativelyEvict( PageFaultEvent faultEvent ) throws IOException
+    /**
+     * Called when a page has been faulted in by a page cursor, to put the page on probation if the page replacement policy uses probation.
+     */
+    void admitFaultedPage( int pageId )
+    {
+        if ( replacementPolicy == PageReplacementPolicy.TWO_QUEUE )
+        {
+            shardOfPageId( pageId ).probation.offer( pageId );
+        }
+    }
+
+    /**
+     * Try to evict the oldest page that is still on probation in the given shard. Pages that have been accessed again since they were faulted
+     * in, have been promoted out of probation, and are left for the clock sweep to deal with.
+     *
+     * @return the page reference of the evicted, and still exclusively locked, page, or zero if no page on probation could be evicted.
+     */
+    private long tryEvictProbationaryPage( EvictionShard shard, EvictionEventOpportunity evictionOpportunity ) throws IOException
     {
+        ProbationQueue probation = shard.probation;
+        if ( probation != null )
+        {
+            int pageId;
+            while ( (pageId = probation.poll()) != ProbationQueue.EMPTY )
+            {
+                long pageRef = pages.deref( pageId );
+                // The page was faulted in with a usage count of one, or zero if it was faulted in by a scan.
+                if ( PageList.isLoaded( pageRef ) && PageList.getUsage( pageRef ) <= 1 && pages.tryEvict( pageRef, evictionOpportunity ) )
+                {
+                    return pageRef;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private long cooperativelyEvict( EvictionShard shard, PageFaultEvent faultEvent ) throws IOException
+    {
+        long probationaryPageRef = tryEvictProbationaryPage( shard, faultEvent );
+        if ( probationaryPageRef != 0 )
+        {
+            pageCacheTracer.shardEvictions( shard.index, 1 );
+            return probationaryPageRef;
+        }
+
+        // We start looking for a page to evict in our own shard, but we will sweep through all the pages in the cache if we have to.
         int iterations = 0;
         int pageCount = pages.getPageCount();
-        int clockArm = ThreadLocalRandom.current().nextInt( pageCount );
+        int clockArm = shard.firstPageId + ThreadLocalRandom.current().nextInt( shard.pageCount() );
         boolean evicted = false;
         long pageRef;
         do
         {
             assertHealthy();
-            if ( getFreelistHead() != null )
+            if ( shard.getFreelistHead() != null )
             {
                 return 0;
             }
@@ -970,6 +1147,7 @@ public class MuninnPageCache implements PageCache
             clockArm++;
         }
         while ( !evicted );
+        pageCacheTracer.shardEvictions( shardOf( pageRef ).index, 1 );
         return pageRef;
     }
 
@@ -988,36 +1166,25 @@ public class MuninnPageCache implements PageCache
                 "your database." );
     }
 
-    private void unparkEvictor()
+    private static void unparkEvictor( EvictionShard shard )
     {
-        if ( evictorParked )
+        // The evictorParked flag is used as a weak guard for unparking the
+        // eviction thread, because calling unpark too much (from many page
+        // faulting threads) can cause contention on the locks protecting that
+        // threads scheduling meta-data in the OS kernel.
+        if ( shard.evictorParked )
         {
-            evictorParked = false;
-            LockSupport.unpark( evictionThread );
+            shard.evictorParked = false;
+            LockSupport.unpark( shard.evictionThread );
         }
     }
 
-    private void parkEvictor( long parkNanos )
+    private void parkEvictor( EvictionShard shard, long parkNanos )
     {
-        // Only called from the background eviction thread!
-        evictorParked = true;
+        // Only called from the background eviction thread of the shard!
+        shard.evictorParked = true;
         LockSupport.parkNanos( this, parkNanos );
-        evictorParked = false;
-    }
-
-    private Object getFreelistHead()
-    {
-        return FREE_LIST.getVolatile( this );
-    }
-
-    private boolean compareAndSetFreelistHead( Object expected, Object update )
-    {
-        return FREE_LIST.compareAndSet( this, expected, update );
-    }
-
-    private void setFreelistHead( Object newFreelistHead )
-    {
-        FREE_LIST.setVolatile( this, newFreelistHead );
+        shard.evictorParked = false;
     }
 
     /**
@@ -1027,39 +1194,40 @@ public class MuninnPageCache implements PageCache
      * Once we have enough free pages, we park our thread. Page-faulting will
      * unpark our thread as needed.
      */
-    void continuouslySweepPages()
+    void continuouslySweepPages( EvictionShard shard )
     {
-        evictionThread = Thread.currentThread();
-        int clockArm = 0;
+        shard.evictionThread = Thread.currentThread();
+        int clockArm = shard.firstPageId;
 
         while ( !closed )
         {
-            int pageCountToEvict = parkUntilEvictionRequired( keepFree );
+            int pageCountToEvict = parkUntilEvictionRequired( shard );
             try ( EvictionRunEvent evictionRunEvent = pageCacheTracer.beginPageEvictions( pageCountToEvict ) )
             {
-                clockArm = evictPages( pageCountToEvict, clockArm, evictionRunEvent );
+                pageCountToEvict -= evictProbationaryPages( shard, pageCountToEvict, evictionRunEvent );
+                clockArm = evictPages( pageCountToEvict, clockArm, shard.firstPageId, shard.endPageId, evictionRunEvent );
             }
         }
 
         // The last thing we do, is signalling the shutdown of the cache via
         // the freelist. This signal is looked out for in grabFreePage.
-        setFreelistHead( shutdownSignal );
+        shard.setFreelistHead( shutdownSignal );
     }
 
-    private int parkUntilEvictionRequired( int keepFree )
+    private int parkUntilEvictionRequired( EvictionShard shard )
     {
         // Park until we're either interrupted, or the number of free pages drops
         // bellow keepFree.
         long parkNanos = TimeUnit.MILLISECONDS.toNanos( 10 );
         for (;;)
         {
-            parkEvictor( parkNanos );
+            parkEvictor( shard, parkNanos );
             if ( Thread.interrupted() || closed )
             {
                 return 0;
             }
 
-            int namberOfPagesToEvict = tryGetNumberOfPagesToEvict( keepFree );
+            int namberOfPagesToEvict = tryGetNumberOfPagesToEvict( shard, shard.keepFree );
             if ( namberOfPagesToEvict != UNKNOWN_PAGES_TO_EVICT )
             {
                 return namberOfPagesToEvict;
@@ -1070,7 +1238,23 @@ public class MuninnPageCache implements PageCache
     @VisibleForTesting
     int tryGetNumberOfPagesToEvict( int keepFree )
     {
-        Object freelistHead = getFreelistHead();
+        // The pages to keep free are spread evenly over the shards.
+        int shardKeepFree = (keepFree + shards.length - 1) / shards.length;
+        int pagesToEvict = UNKNOWN_PAGES_TO_EVICT;
+        for ( EvictionShard shard : shards )
+        {
+            int shardPagesToEvict = tryGetNumberOfPagesToEvict( shard, shardKeepFree );
+            if ( shardPagesToEvict != UNKNOWN_PAGES_TO_EVICT )
+            {
+                pagesToEvict = pagesToEvict == UNKNOWN_PAGES_TO_EVICT ? shardPagesToEvict : pagesToEvict + shardPagesToEvict;
+            }
+        }
+        return pagesToEvict;
+    }
+
+    private int tryGetNumberOfPagesToEvict( EvictionShard shard, int keepFree )
+    {
+        Object freelistHead = shard.getFreelistHead();
 
         if ( freelistHead == null )
         {
@@ -1087,7 +1271,7 @@ public class MuninnPageCache implements PageCache
         else if ( freelistHead.getClass() == AtomicInteger.class )
         {
             AtomicInteger counter = (AtomicInteger) freelistHead;
-            long count = pages.getPageCount() - counter.get();
+            long count = shard.pageCount() - counter.get();
             if ( count < keepFree )
             {
                 return count < 0 ? keepFree : (int) (keepFree - count);
@@ -1096,13 +1280,59 @@ public class MuninnPageCache implements PageCache
         return UNKNOWN_PAGES_TO_EVICT;
     }
 
+    /**
+     * Evict up to the given number of pages that are on probation in the given shard, and put them on the freelist of the shard.
+     *
+     * @return the number of pages evicted.
+     */
+    private int evictProbationaryPages( EvictionShard shard, int pageCountToEvict, EvictionRunEvent evictionRunEvent )
+    {
+        int evicted = 0;
+        try
+        {
+            long pageRef;
+            while ( evicted < pageCountToEvict && !closed && (pageRef = tryEvictProbationaryPage( shard, evictionRunEvent )) != 0 )
+            {
+                evicted++;
+                clearEvictorException();
+                pageCacheTracer.shardEvictions( shard.index, 1 );
+                addFreePageToFreelist( shard, pageRef, evictionRunEvent );
+            }
+        }
+        catch ( IOException e )
+        {
+            evictorException = e;
+        }
+        catch ( OutOfMemoryError oom )
+        {
+            evictorException = oomException;
+        }
+        catch ( Throwable th )
+        {
+            evictorException = new IOException(
+                    "Eviction thread encountered a problem", th );
+        }
+        return evicted;
+    }
+
     int evictPages( int pageCountToEvict, int clockArm, EvictionRunEvent evictionRunEvent )
+    {
+        return evictPages( pageCountToEvict, clockArm, 0, pages.getPageCount(), evictionRunEvent );
+    }
+
+    /**
+     * Sweep the clock arm over the pages from {@code firstPageId} (inclusive) to {@code endPageId} (exclusive), until the given number of
+     * pages have been considered for eviction.
+     *
+     * @return the new position of the clock arm.
+     */
+    private int evictPages( int pageCountToEvict, int clockArm, int firstPageId, int endPageId, EvictionRunEvent evictionRunEvent )
     {
         while ( pageCountToEvict > 0 && !closed )
         {
-            if ( clockArm == pages.getPageCount() )
+            if ( clockArm == endPageId )
             {
-                clockArm = 0;
+                clockArm = firstPageId;
             }
 
             if ( closed )
@@ -1120,7 +1350,9 @@ public class MuninnPageCache implements PageCache
                     if ( pages.tryEvict( pageRef, evictionRunEvent ) )
                     {
                         clearEvictorException();
-                        addFreePageToFreelist( pageRef, evictionRunEvent );
+                        EvictionShard shard = shardOf( pageRef );
+                        pageCacheTracer.shardEvictions( shard.index, 1 );
+                        addFreePageToFreelist( shard, pageRef, evictionRunEvent );
                     }
                 }
                 catch ( IOException e )
@@ -1145,20 +1377,25 @@ public class MuninnPageCache implements PageCache
     }
 
     void addFreePageToFreelist( long pageRef, EvictionRunEvent evictions )
+    {
+        addFreePageToFreelist( shardOf( pageRef ), pageRef, evictions );
+    }
+
+    private static void addFreePageToFreelist( EvictionShard shard, long pageRef, EvictionRunEvent evictions )
     {
         Object current;
         FreePage freePage = new FreePage( pageRef );
-        int pageCount = pages.getPageCount();
+        int pageCount = shard.pageCount();
         do
         {
-            current = getFreelistHead();
+            current = shard.getFreelistHead();
             if ( current instanceof AtomicInteger && ((AtomicInteger) current).get() > pageCount )
             {
                 current = null;
             }
             freePage.setNext( pageCount, current );
         }
-        while ( !compareAndSetFreelistHead( current, freePage ) );
+        while ( !shard.compareAndSetFreelistHead( current, freePage ) );
         evictions.freeListSize( freePage.count );
     }
 
@@ -1174,8 +1411,9 @@ public class MuninnPageCache implements PageCache
     public String toString()
     {
         int pagesToEvict = tryGetNumberOfPagesToEvict( keepFree );
-        return format( "%s[pageCacheId:%d, pageSize:%d, pages:%d, pagesToEvict:%s]", getClass().getSimpleName(),
-                pageCacheId, cachePageSize, pages.getPageCount(), pagesToEvict != UNKNOWN_PAGES_TO_EVICT ? String.valueOf( pagesToEvict ) : "N/A" );
+        return format( "%s[pageCacheId:%d, pageSize:%d, pages:%d, evictionShards:%d, replacementPolicy:%s, pagesToEvict:%s]",
+                getClass().getSimpleName(), pageCacheId, cachePageSize, pages.getPageCount(), shards.length, replacementPolicy,
+                pagesToEvict != UNKNOWN_PAGES_TO_EVICT ? String.valueOf( pagesToEvict ) : "N/A" );
     }
 
     void sweep( SwapperSet swappers )
@@ -1205,9 +1443,9 @@ public class MuninnPageCache implements PageCache
         } );
     }
 
-    void startPreFetching( MuninnPageCursor cursor, CursorFactory cursorFactory )
+    void startPreFetching( MuninnPageCursor cursor )
     {
-        PreFetcher preFetcher = new PreFetcher( cursor, cursorFactory, pageCacheTracer, clock );
+        PreFetcher preFetcher = new PreFetcher( cursor, pageCacheTracer, clock );
         var pagedFile = cursor.pagedFile;
         var fileName = pagedFile.swapper.path().getFileName();
         var monitoringParams = systemJob( pagedFile.databaseName, "Pre-fetching of file '" + fileName + "'" );
@@ -43,6 +43,7 @@ import org.neo4j.util.VisibleForTesting;
 
 import static org.neo4j.io.pagecache.PagedFile.PF_EAGER_FLUSH;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_SCAN;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
 import static org.neo4j.io.pagecache.impl.muninn.MuninnPagedFile.UNMAPPED_TTE;
@@ -128,7 +129,7 @@ public abstract class MuninnPageCursor extends PageCursor
         this.pageId = pageId;
         this.pf_flags = pf_flags;
         this.eagerFlush = isFlagRaised( pf_flags, PF_EAGER_FLUSH );
-        this.updateUsage = !isFlagRaised( pf_flags, PF_TRANSIENT );
+        this.updateUsage = !isFlagRaised( pf_flags, PF_TRANSIENT ) && !isFlagRaised( pf_flags, PF_SCAN );
         this.noFault = isFlagRaised( pf_flags, PF_NO_FAULT );
         this.noGrow = noFault || isFlagRaised( pf_flags, PagedFile.PF_NO_GROW );
     }
@@ -458,6 +459,7 @@ public abstract class MuninnPageCursor extends PageCursor
             pageId = pagedFile.toId( pageRef );
             faultEvent.setCachePageId( pageId );
             MuninnPagedFile.TRANSLATION_TABLE_ARRAY.setVolatile( chunk, chunkIndex, pageId );
+            pagedFile.admitFaultedPage( pageId );
             // Once we page has been published to the translation table, we can convert our exclusive lock to whatever we
             // need for the page cursor.
             convertPageFaultLock( pageRef );
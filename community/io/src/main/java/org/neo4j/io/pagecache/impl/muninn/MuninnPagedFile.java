@@ -30,6 +30,7 @@ import java.lang.invoke.MethodHandles;
 import java.lang.invoke.VarHandle;
 import java.nio.channels.ClosedChannelException;
 import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.pagecache.IOController;
 import org.neo4j.io.pagecache.PageCursor;
@@ -41,12 +42,15 @@ import org.neo4j.io.pagecache.buffer.IOBufferFactory;
 import org.neo4j.io.pagecache.buffer.NativeIOBuffer;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.impl.FileIsNotMappedException;
+import org.neo4j.io.pagecache.monitoring.FlushStatistics;
 import org.neo4j.io.pagecache.monitoring.PageFileCounters;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.FlushEvent;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.PageFaultEvent;
+import org.neo4j.io.pagecache.tracing.PinEvent;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 
 final class MuninnPagedFile extends PageList implements PagedFile, Flushable
 {
@@ -56,6 +60,8 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
     private static final int translationTableChunkSizePower = getInteger( MuninnPagedFile.class, "translationTableChunkSizePower", 12 );
     private static final int translationTableChunkSize = 1 << translationTableChunkSizePower;
     private static final long translationTableChunkSizeMask = translationTableChunkSize - 1;
+    // The maximum number of pages that touch will fault in with a single vectored read.
+    private static final int maxTouchBatchSize = getInteger( MuninnPagedFile.class, "maxTouchBatchSize", 128 );
 
     private static final int headerStateRefCountShift = 48;
     private static final int headerStateRefCountMax = 0x7FFF;
@@ -79,6 +85,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
     private final CursorFactory cursorFactory;
     final String databaseName;
     private final IOController ioController;
+    private final AtomicReference<FlushStatistics> flushStatistics = new AtomicReference<>( FlushStatistics.EMPTY );
 
     private volatile boolean deleteOnClose;
 
@@ -218,11 +225,197 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         cursor.rewind();
         if ( ( pf_flags & PF_READ_AHEAD ) == PF_READ_AHEAD && ( pf_flags & PF_NO_FAULT ) != PF_NO_FAULT )
         {
-            pageCache.startPreFetching( cursor, cursorFactory );
+            pageCache.startPreFetching( cursor );
         }
         return cursor;
     }
 
+    @Override
+    public int touch( long pageId, int count, CursorContext cursorContext ) throws IOException
+    {
+        return touch( pageId, count, false, cursorContext );
+    }
+
+    /**
+     * Load pages for the {@link PreFetcher}, in the same way as {@link #touch(long, int, CursorContext)}, except the pages are treated as if they
+     * were faulted in by a scan: their usage counters are not incremented, and they are put on probation if the page replacement policy uses
+     * probation.
+     *
+     * @return the number of pages that were loaded.
+     */
+    int prefetch( long pageId, int count, CursorContext cursorContext ) throws IOException
+    {
+        return touch( pageId, count, true, cursorContext );
+    }
+
+    private int touch( long pageId, int count, boolean prefetch, CursorContext cursorContext ) throws IOException
+    {
+        long endPageId = Math.min( pageId + count, getLastPageId() + 1 );
+        if ( pageId < 0 || pageId >= endPageId )
+        {
+            return 0;
+        }
+        // We hold a fault latch and an exclusive lock on every page in a run until the run has been read in, so the run length
+        // is bounded both by the latch map, and by the size of the page cache itself.
+        int capacity = (int) Math.min( endPageId - pageId, Math.min( maxTouchBatchSize, pageFaultLatches.size() ) );
+        capacity = Math.max( 1, Math.min( capacity, pageCache.pages.getPageCount() / 4 ) );
+        long[] pageRefs = new long[capacity];
+        long[] bufferAddresses = new long[capacity];
+        int[] bufferLengths = new int[capacity];
+        LatchMap.Latch[] latches = new LatchMap.Latch[capacity];
+        PinEvent[] pinEvents = new PinEvent[capacity];
+        PageFaultEvent[] faultEvents = new PageFaultEvent[capacity];
+        PageCursorTracer cursorTracer = cursorContext.getCursorTracer();
+
+        int touched = 0;
+        int runLength = 0;
+        long runStartPageId = pageId;
+        for ( long filePageId = pageId; filePageId < endPageId; filePageId++ )
+        {
+            int chunkId = computeChunkId( filePageId );
+            int[][] tt = translationTable;
+            if ( tt.length <= chunkId )
+            {
+                tt = expandCapacity( chunkId );
+            }
+            int[] chunk = tt[chunkId];
+            int chunkIndex = computeChunkIndex( filePageId );
+
+            LatchMap.Latch latch = null;
+            if ( (int) TRANSLATION_TABLE_ARRAY.getVolatile( chunk, chunkIndex ) == UNMAPPED_TTE )
+            {
+                latch = pageFaultLatches.tryTakeLatch( filePageId );
+                if ( latch != null && (int) TRANSLATION_TABLE_ARRAY.getVolatile( chunk, chunkIndex ) != UNMAPPED_TTE )
+                {
+                    // We raced with another page fault on this page.
+                    latch.release();
+                    latch = null;
+                }
+            }
+            if ( latch == null )
+            {
+                // The page is either already in memory, or someone else is faulting it in right now. Either way, our run ends here.
+                touched += faultRun( pageRefs, bufferAddresses, bufferLengths, latches, pinEvents, faultEvents, runLength, runStartPageId, prefetch );
+                runLength = 0;
+                runStartPageId = filePageId + 1;
+                continue;
+            }
+
+            PinEvent pinEvent = cursorTracer.beginPin( false, filePageId, swapper );
+            PageFaultEvent faultEvent = pinEvent.beginPageFault( filePageId, swapper );
+            latches[runLength] = latch;
+            pinEvents[runLength] = pinEvent;
+            faultEvents[runLength] = faultEvent;
+            long pageRef = 0;
+            try
+            {
+                pageRef = grabFreeAndExclusivelyLockedPage( faultEvent );
+                initBuffer( pageRef );
+            }
+            catch ( Throwable throwable )
+            {
+                if ( pageRef != 0 )
+                {
+                    pageCache.addFreePageToFreelist( pageRef, EvictionRunEvent.NULL );
+                }
+                abandonRun( pageRefs, latches, pinEvents, faultEvents, runLength, throwable );
+                faultEvent.fail( throwable );
+                faultEvent.close();
+                pinEvent.done();
+                latch.release();
+                throw throwable;
+            }
+            pageRefs[runLength] = pageRef;
+            runLength++;
+            if ( runLength == capacity )
+            {
+                touched += faultRun( pageRefs, bufferAddresses, bufferLengths, latches, pinEvents, faultEvents, runLength, runStartPageId, prefetch );
+                runLength = 0;
+                runStartPageId = filePageId + 1;
+            }
+        }
+        touched += faultRun( pageRefs, bufferAddresses, bufferLengths, latches, pinEvents, faultEvents, runLength, runStartPageId, prefetch );
+        return touched;
+    }
+
+    /**
+     * Read in a run of consecutive file pages with a single vectored read, and publish them in the translation table.
+     * The pages must have been grabbed, and their fault latches taken, by {@link #touch(long, int, CursorContext)}.
+     */
+    private int faultRun( long[] pageRefs, long[] bufferAddresses, int[] bufferLengths, LatchMap.Latch[] latches, PinEvent[] pinEvents,
+            PageFaultEvent[] faultEvents, int runLength, long startFilePageId, boolean prefetch ) throws IOException
+    {
+        if ( runLength == 0 )
+        {
+            return 0;
+        }
+        long bytesRead;
+        try
+        {
+            // Check if we're racing with unmapping, before we risk reopening the file channel.
+            getLastPageId();
+            bytesRead = PageList.faultVectored( pageRefs, bufferAddresses, bufferLengths, runLength, swapper, swapperId, startFilePageId, filePageSize );
+        }
+        catch ( Throwable throwable )
+        {
+            abandonRun( pageRefs, latches, pinEvents, faultEvents, runLength, throwable );
+            throw throwable;
+        }
+        int[][] tt = translationTable;
+        for ( int i = 0; i < runLength; i++ )
+        {
+            long pageRef = pageRefs[i];
+            long filePageId = startFilePageId + i;
+            int cachePageId = toId( pageRef );
+            long pageBytesRead = Math.max( 0, Math.min( bytesRead, filePageSize ) );
+            bytesRead -= pageBytesRead;
+
+            PageFaultEvent faultEvent = faultEvents[i];
+            faultEvent.addBytesRead( pageBytesRead );
+            faultEvent.setCachePageId( cachePageId );
+            // Publish the page in the translation table before we release the exclusive lock, just like a regular page fault.
+            TRANSLATION_TABLE_ARRAY.setVolatile( tt[computeChunkId( filePageId )], computeChunkIndex( filePageId ), cachePageId );
+            if ( prefetch )
+            {
+                admitFaultedPage( cachePageId );
+            }
+            else
+            {
+                PageList.incrementUsage( pageRef );
+            }
+            PageList.unlockExclusive( pageRef );
+            faultEvent.close();
+            pinEvents[i].done();
+            latches[i].release();
+        }
+        return runLength;
+    }
+
+    /**
+     * Give up on a run of grabbed pages. Pages that never got bound to a file page go straight back on the freelist, while pages that were
+     * partially faulted in are considered loaded, so we unlock them and leave them for eviction to pick up.
+     */
+    private void abandonRun( long[] pageRefs, LatchMap.Latch[] latches, PinEvent[] pinEvents, PageFaultEvent[] faultEvents, int runLength,
+            Throwable cause )
+    {
+        for ( int i = 0; i < runLength; i++ )
+        {
+            long pageRef = pageRefs[i];
+            if ( PageList.isLoaded( pageRef ) )
+            {
+                PageList.unlockExclusive( pageRef );
+            }
+            else
+            {
+                pageCache.addFreePageToFreelist( pageRef, EvictionRunEvent.NULL );
+            }
+            faultEvents[i].fail( cause );
+            faultEvents[i].close();
+            pinEvents[i].done();
+            latches[i].release();
+        }
+    }
+
     private static IllegalArgumentException wrongLocksArgument( int lockFlags )
     {
         if ( lockFlags == 0 )
@@ -433,6 +626,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
             throws IOException
     {
         // TODO it'd be awesome if, on Linux, we'd call sync_file_range(2) instead of fsync
+        long startNanos = System.nanoTime();
         long[] pages = new long[translationTableChunkSize];
         long[] flushStamps = forClosing ? null : new long[translationTableChunkSize];
         long[] bufferAddresses = new long[translationTableChunkSize];
@@ -440,6 +634,13 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         long filePageId = -1; // Start at -1 because we increment at the *start* of the chunk-loop iteration.
         int[][] tt = this.translationTable;
         boolean useTemporaryBuffer = ioBuffer.isEnabled();
+        // Runs of dirty pages that are only separated by a few clean pages are written with a single vectored write, by writing the clean pages
+        // along with them. The clean pages are bound to this file, so their contents are the same as what is already in the file.
+        int maxGapPages = useTemporaryBuffer ? 0 : pageCache.flushGapPages;
+        long totalPagesFlushed = 0;
+        long totalPagesBridged = 0;
+        long totalIOs = 0;
+        long totalBytesWritten = 0;
 
         flushes.startFlush( tt );
 
@@ -450,14 +651,19 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
             long flushPerChunk = 0;
             long buffersPerChunk = 0;
             long mergesPerChunk = 0;
-            // TODO Look into if we can tolerate flushing a few clean pages if it means we can use larger vectors.
-            // TODO The clean pages in question must still be loaded, though. Otherwise we'll end up writing
-            // TODO garbage to the file.
             int pagesGrabbed = 0;
             long nextSequentialAddress = -1;
             int numberOfBuffers = 0;
             int lastBufferIndex = -1;
             int mergedPages = 0;
+            // The number of clean pages at the end of the grabbed pages, and the state of the IO vector as of the last dirty page,
+            // so we can leave out the clean pages if no dirty page follows them.
+            int gapPages = 0;
+            int bridgedPages = 0;
+            int dirtyPagesGrabbed = 0;
+            int dirtyNumberOfBuffers = 0;
+            int dirtyLastBufferLength = 0;
+            int dirtyMergedPages = 0;
 
             boolean fillingDirtyBuffer = false;
             if ( useTemporaryBuffer )
@@ -483,10 +689,16 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
                     {
                         long pageRef = deref( pageId );
                         long stamp = tryOptimisticReadLock( pageRef );
+                        boolean bridging = false;
                         if ( (!isModified( pageRef ) && !fillingDirtyBuffer) && validateReadLock( pageRef, stamp ) )
                         {
-                            notModifiedPages++;
-                            break; // not modified, continue with the chunk
+                            if ( pagesGrabbed == 0 || gapPages >= maxGapPages )
+                            {
+                                notModifiedPages++;
+                                break; // not modified, continue with the chunk
+                            }
+                            // The page is not modified, but it might bridge the gap between the pages we have grabbed and the next dirty page.
+                            bridging = true;
                         }
 
                         long flushStamp = 0;
@@ -494,12 +706,13 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
                         {
                             continue; // retry lock
                         }
-                        if ( isBoundTo( pageRef, swapperId, filePageId ) && (isModified( pageRef ) || fillingDirtyBuffer) )
+                        boolean modified = isModified( pageRef );
+                        if ( isBoundTo( pageRef, swapperId, filePageId ) && (modified || fillingDirtyBuffer || bridging) )
                         {
                             // we should try to merge pages into buffer even if they are not modified only when we using intermediate temporary buffer
                             fillingDirtyBuffer = useTemporaryBuffer;
                             // The page is still bound to the expected file and file page id after we locked it,
-                            // so we didn't race with eviction and faulting, and the page is dirty.
+                            // so we didn't race with eviction and faulting, and the page is dirty, or is bridging a gap between dirty pages.
                             // So we add it to our IO vector.
                             pages[pagesGrabbed] = pageRef;
                             if ( !forClosing )
@@ -544,6 +757,20 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
                                     buffersPerChunk++;
                                 }
                                 nextSequentialAddress = address + filePageSize;
+                                if ( modified )
+                                {
+                                    bridgedPages += gapPages;
+                                    gapPages = 0;
+                                    dirtyPagesGrabbed = pagesGrabbed;
+                                    dirtyNumberOfBuffers = numberOfBuffers;
+                                    dirtyLastBufferLength = bufferLengths[lastBufferIndex];
+                                    dirtyMergedPages = mergedPages;
+                                }
+                                else
+                                {
+                                    notModifiedPages++;
+                                    gapPages++;
+                                }
                                 continue chunkLoop; // go to next page
                             }
                         }
@@ -568,13 +795,32 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
                 }
                 if ( pagesGrabbed > 0 )
                 {
-                    vectoredFlush( pages, bufferAddresses, flushStamps, bufferLengths, numberOfBuffers, pagesGrabbed, mergedPages, flushes, forClosing );
-                    limiter.maybeLimitIO( numberOfBuffers, this, flushes );
+                    if ( gapPages > 0 )
+                    {
+                        // No dirty page followed the clean pages at the end of the vector, so we leave them out.
+                        unlockPages( pages, flushStamps, dirtyPagesGrabbed, pagesGrabbed, forClosing );
+                        buffersPerChunk -= numberOfBuffers - dirtyNumberOfBuffers;
+                        mergesPerChunk -= mergedPages - dirtyMergedPages;
+                        pagesGrabbed = dirtyPagesGrabbed;
+                        numberOfBuffers = dirtyNumberOfBuffers;
+                        lastBufferIndex = numberOfBuffers - 1;
+                        bufferLengths[lastBufferIndex] = dirtyLastBufferLength;
+                        mergedPages = dirtyMergedPages;
+                    }
+                    long bytesWritten = vectoredFlush( pages, bufferAddresses, flushStamps, bufferLengths, numberOfBuffers, pagesGrabbed, mergedPages,
+                            flushes, forClosing );
+                    limiter.maybeLimitIO( numberOfBuffers, bytesWritten, this, flushes );
+                    totalPagesFlushed += pagesGrabbed;
+                    totalPagesBridged += bridgedPages;
+                    totalIOs++;
+                    totalBytesWritten += bytesWritten;
                     pagesGrabbed = 0;
                     nextSequentialAddress = -1;
                     numberOfBuffers = 0;
                     lastBufferIndex = -1;
                     mergedPages = 0;
+                    gapPages = 0;
+                    bridgedPages = 0;
                     fillingDirtyBuffer = false;
                     flushPerChunk++;
                     bufferLengths[0] = 0;
@@ -582,17 +828,50 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
             }
             if ( pagesGrabbed > 0 )
             {
-                vectoredFlush( pages, bufferAddresses, flushStamps, bufferLengths, numberOfBuffers, pagesGrabbed, mergedPages, flushes, forClosing );
-                limiter.maybeLimitIO( numberOfBuffers, this, flushes );
+                if ( gapPages > 0 )
+                {
+                    unlockPages( pages, flushStamps, dirtyPagesGrabbed, pagesGrabbed, forClosing );
+                    buffersPerChunk -= numberOfBuffers - dirtyNumberOfBuffers;
+                    mergesPerChunk -= mergedPages - dirtyMergedPages;
+                    pagesGrabbed = dirtyPagesGrabbed;
+                    numberOfBuffers = dirtyNumberOfBuffers;
+                    bufferLengths[numberOfBuffers - 1] = dirtyLastBufferLength;
+                    mergedPages = dirtyMergedPages;
+                }
+                long bytesWritten = vectoredFlush( pages, bufferAddresses, flushStamps, bufferLengths, numberOfBuffers, pagesGrabbed, mergedPages,
+                        flushes, forClosing );
+                limiter.maybeLimitIO( numberOfBuffers, bytesWritten, this, flushes );
+                totalPagesFlushed += pagesGrabbed;
+                totalPagesBridged += bridgedPages;
+                totalIOs++;
+                totalBytesWritten += bytesWritten;
                 flushPerChunk++;
             }
             chunkEvent.chunkFlushed( notModifiedPages, flushPerChunk, buffersPerChunk, mergesPerChunk );
         }
 
         swapper.force();
+        FlushStatistics statistics =
+                new FlushStatistics( totalPagesFlushed, totalPagesBridged, totalIOs, totalBytesWritten, System.nanoTime() - startNanos );
+        flushStatistics.accumulateAndGet( statistics, FlushStatistics::plus );
     }
 
-    private void vectoredFlush(
+    private void unlockPages( long[] pages, long[] flushStamps, int fromIndex, int toIndex, boolean forClosing )
+    {
+        for ( int i = fromIndex; i < toIndex; i++ )
+        {
+            if ( forClosing )
+            {
+                unlockExclusive( pages[i] );
+            }
+            else
+            {
+                unlockFlush( pages[i], flushStamps[i], false );
+            }
+        }
+    }
+
+    private long vectoredFlush(
             long[] pages, long[] bufferAddresses, long[] flushStamps, int[] bufferLengths, int numberOfBuffers, int pagesToFlush, int pagesMerged,
             MajorFlushEvent flushEvent, boolean forClosing ) throws IOException
     {
@@ -614,6 +893,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
             successful = true;
 
             // There are now 0 'grabbed' pages
+            return bytesWritten;
         }
         catch ( IOException ioe )
         {
@@ -818,6 +1098,12 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         return swapper.fileSwapperTracer();
     }
 
+    @Override
+    public FlushStatistics flushStatistics()
+    {
+        return flushStatistics.get();
+    }
+
     /**
      * Grab a free page for the purpose of page faulting. Possibly blocking if
      * none are immediately available.
@@ -828,6 +1114,15 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         return pageCache.grabFreeAndExclusivelyLockedPage( faultEvent );
     }
 
+    /**
+     * Tell the page replacement policy that the given page has just been faulted in by a page cursor.
+     * @param pageId The id of the cache page that was faulted in.
+     */
+    void admitFaultedPage( int pageId )
+    {
+        pageCache.admitFaultedPage( pageId );
+    }
+
     /**
      * Remove the mapping of the given filePageId from the translation table, and return the evicted page object.
      * @param filePageId The id of the file page to evict.
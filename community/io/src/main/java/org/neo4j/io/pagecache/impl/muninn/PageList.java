@@ -439,6 +439,55 @@ class PageList implements PageReferenceTranslator
         setSwapperId( pageRef, swapperId ); // Page now considered isBoundTo( swapper, filePageId )
     }
 
+    /**
+     * Fault in a run of consecutive file pages, starting at {@code startFilePageId}, with a single vectored read.
+     * The same rules as for {@link #fault(long, PageSwapper, int, long, PageFaultEvent)} apply to every page in the run: the pages must be
+     * exclusively locked and unbound.
+     *
+     * @param pageRefs the pages to fault into, one for each file page in the run.
+     * @param bufferAddresses scratch array for the buffer addresses of the vectored read, at least {@code count} long.
+     * @param bufferLengths scratch array for the buffer lengths of the vectored read, at least {@code count} long.
+     * @param count the number of pages in the run.
+     * @param swapper the swapper of the file being read.
+     * @param swapperId the id of the given swapper.
+     * @param startFilePageId the file page id of the first page in the run.
+     * @param filePageSize the page size of the file being read.
+     * @return the number of bytes read from the file.
+     */
+    static long faultVectored( long[] pageRefs, long[] bufferAddresses, int[] bufferLengths, int count, PageSwapper swapper, int swapperId,
+            long startFilePageId, int filePageSize ) throws IOException
+    {
+        if ( swapper == null )
+        {
+            throw swapperCannotBeNull();
+        }
+        for ( int i = 0; i < count; i++ )
+        {
+            long pageRef = pageRefs[i];
+            int currentSwapper = getSwapperId( pageRef );
+            long currentFilePageId = getFilePageId( pageRef );
+            if ( !isExclusivelyLocked( pageRef ) || currentSwapper != 0 || currentFilePageId != PageCursor.UNBOUND_PAGE_ID )
+            {
+                throw cannotFaultException( pageRef, swapper, swapperId, startFilePageId + i, currentSwapper, currentFilePageId );
+            }
+        }
+        // Assign all file page ids before we swap anything in, so every page in the run is considered loaded, and thus
+        // evictable, should the read fail. See the note in the fault method above.
+        for ( int i = 0; i < count; i++ )
+        {
+            long pageRef = pageRefs[i];
+            setFilePageId( pageRef, startFilePageId + i );
+            bufferAddresses[i] = getAddress( pageRef );
+            bufferLengths[i] = filePageSize;
+        }
+        long bytesRead = swapper.read( startFilePageId, bufferAddresses, bufferLengths, count );
+        for ( int i = 0; i < count; i++ )
+        {
+            setSwapperId( pageRefs[i], swapperId );
+        }
+        return bytesRead;
+    }
+
     private static IllegalArgumentException swapperCannotBeNull()
     {
         return new IllegalArgumentException( "swapper cannot be null" );
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.neo4j.io.pagecache.PagedFile;
+
+/**
+ * The policy used by the {@link MuninnPageCache} to pick which pages to evict, when it needs to make room for new pages.
+ */
+public enum PageReplacementPolicy
+{
+    /**
+     * Sweep a clock arm over all the pages, decrementing their usage counters, and evict the pages whose counters reach zero.
+     * <p>
+     * This approximates least-recently-used eviction, but it is easily flushed by a single large scan, since every page that is faulted in
+     * starts out looking as recently used as the pages that are accessed all the time.
+     */
+    CLOCK,
+    /**
+     * A 2Q style policy, where pages that are faulted in are first admitted into a probationary FIFO queue. Pages that are accessed again while
+     * they are on probation are promoted to the main cache, which is managed by the {@link #CLOCK} policy. When pages need to be evicted, the
+     * pages that are still on probation are evicted first, oldest first, and the clock arm only sweeps over the main cache when there are no
+     * probationary pages left to evict.
+     * <p>
+     * This makes the cache resistant to scans, and in particular to scans that use the {@link PagedFile#PF_SCAN} flag, since a page that is
+     * only ever accessed once will never leave probation.
+     */
+    TWO_QUEUE
+}
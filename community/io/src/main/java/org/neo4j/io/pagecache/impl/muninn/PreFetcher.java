@@ -25,49 +25,87 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.LockSupport;
 
 import org.neo4j.internal.unsafe.UnsafeUtil;
-import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.scheduler.CancelListener;
 import org.neo4j.time.SystemNanoClock;
+import org.neo4j.util.FeatureToggles;
 
 import static org.neo4j.io.pagecache.PageCursor.UNBOUND_PAGE_ID;
-import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 
 /**
- * An adaptive page pre-fetcher for sequential scans, for either forwards (increasing page id order) or backwards (decreasing page id order) scans.
+ * An adaptive page pre-fetcher for scans, for either forwards (increasing page id order) or backwards (decreasing page id order) scans, that
+ * either visit every page, or skip over pages with a fixed stride.
  *
  * The given page cursor is being "weakly" observed from a background pre-fetcher thread, as it is progressing through its scan, and the pre-fetcher tries
- * to touch pages ahead of the scanning cursor in order to move page fault overhead from the scanning thread to the pre-fetching thread.
+ * to load pages ahead of the scanning cursor in order to move page fault overhead from the scanning thread to the pre-fetching thread.
  *
  * The pre-fetcher relies on {@code ordered stores} of the "current page id" from the scanner thread,
  * and on {@link UnsafeUtil#getLongVolatile(long) volatile loads} in the pre-fetcher thread, in order to observe the progress of the scanner without placing
  * too much synchronisation overhead on the scanner. Because this does not form a "synchronises-with" edge in Java Memory Model palace, we say that the
  * scanning cursor is being "weakly" observed. Ordered stores have compiler barriers, but no CPU or cache coherence barriers beyond plain stores.
  *
+ * The pre-fetcher figures out the direction and the stride of the scan from the moves it observes the cursor make. Since it only samples the position of
+ * the cursor, the observed moves can span many strides, so the stride is the greatest common divisor of the observed moves. If the cursor changes
+ * direction, the pre-fetcher starts over with the new direction.
+ *
  * The pre-fetcher is adaptive because the number of pages the pre-fetcher will move ahead of the scanning cursor, and the length of time the pre-fetcher
- * will wait in between checking on the progress of the scanner, are dynamically computed and updated based on how fast the scanner appears to be.
- * The pre-fetcher also automatically figures out if the scanner is scanning the file in a forward or backwards direction.
+ * will wait in between checking on the progress of the scanner, are dynamically computed and updated based on how fast the scanner appears to be, and on
+ * how long it takes to read pages in. Runs of consecutive pages are read in with vectored reads, through {@link MuninnPagedFile#prefetch}.
+ *
+ * The pre-fetched pages that the scanner goes on to move past are reported as {@link PageCacheTracer#prefetchHits(long) hits}, and the pre-fetched pages
+ * that the scanner never gets to are reported as {@link PageCacheTracer#prefetchWaste(long) waste}.
  */
 class PreFetcher implements Runnable, CancelListener
 {
     private static final String TRACER_PRE_FETCHER_TAG = "Pre-fetcher";
+    // The greatest number of pages that the pre-fetcher will load ahead of the cursor it is observing.
+    private static final int maxPrefetchDistance = FeatureToggles.getInteger( PreFetcher.class, "maxPrefetchDistance", 1024 );
+    // The number of pre-fetch rounds that are tracked for the hit and waste accounting. Further rounds are merged into the latest round.
+    private static final int TRACKED_ROUNDS = 64;
+
     private final MuninnPageCursor observedCursor;
-    private final CursorFactory cursorFactory;
+    private final MuninnPagedFile pagedFile;
     private final PageCacheTracer tracer;
     private final SystemNanoClock clock;
+    private final long maxDistance;
     private volatile boolean cancelled;
     private long startTime;
     private long deadline;
     private long tripCount;
     private long pauseNanos = TimeUnit.MILLISECONDS.toNanos( 10 );
 
-    PreFetcher( MuninnPageCursor observedCursor, CursorFactory cursorFactory, PageCacheTracer tracer, SystemNanoClock clock )
+    // The distance, in pages, between the pages the observed cursor accesses, with a sign component to indicate the direction of the scan.
+    // This is zero until the cursor has made its first move.
+    private long stride;
+    // The number of strides the observed cursor moved in its last observed move.
+    private long lastMoveStrides;
+    // The time of the last observed move.
+    private long lastMoveNanos;
+    // Moving averages of how long a pre-fetch read takes, and of how long the observed cursor takes to move one stride.
+    private long readNanos;
+    private long strideNanos;
+    // The page furthest ahead of the observed cursor, in the direction of the scan, that has been pre-fetched.
+    private long prefetchedUpTo;
+    // True when the pre-fetcher has reached the end of the file, in the direction of the scan.
+    private boolean exhausted;
+
+    // The pre-fetch rounds that the observed cursor has not moved past yet, as a ring buffer of the lowest and highest page id of each round, and the
+    // number of pages that were actually loaded in each round.
+    private final long[] roundLow = new long[TRACKED_ROUNDS];
+    private final long[] roundHigh = new long[TRACKED_ROUNDS];
+    private final long[] roundLoaded = new long[TRACKED_ROUNDS];
+    private int firstRound;
+    private int rounds;
+
+    PreFetcher( MuninnPageCursor observedCursor, PageCacheTracer tracer, SystemNanoClock clock )
     {
         this.observedCursor = observedCursor;
-        this.cursorFactory = cursorFactory;
+        this.pagedFile = observedCursor.pagedFile;
         this.tracer = tracer;
         this.clock = clock;
+        // Never pre-fetch so far ahead that we risk evicting the pages we pre-fetched, before the cursor gets to them.
+        this.maxDistance = Math.max( 1, Math.min( maxPrefetchDistance, pagedFile.pageCache.pages.getPageCount() / 8 ) );
     }
 
     @Override
@@ -75,8 +113,8 @@ class PreFetcher implements Runnable, CancelListener
     {
         // Phase 1: Wait for observed cursor to start moving.
         setDeadline( 150, TimeUnit.MILLISECONDS ); // Give up if nothing happens for 150 milliseconds.
-        long initialPageId;
-        while ( ( initialPageId = getCurrentObservedPageId() ) == UNBOUND_PAGE_ID )
+        long currentPageId;
+        while ( ( currentPageId = getCurrentObservedPageId() ) == UNBOUND_PAGE_ID )
         {
             pause();
             if ( pastDeadline() )
@@ -84,99 +122,208 @@ class PreFetcher implements Runnable, CancelListener
                 return; // Give up. Looks like this cursor is either already finished, or never started.
             }
         }
+        lastMoveNanos = clock.nanos();
 
-        // Phase 2: Wait for the cursor to move either forwards or backwards, to determine the prefetching direction.
-        setDeadline( 200, TimeUnit.MILLISECONDS ); // We will wait up to 200 milliseconds for this phase to complete.
-        long secondPageId;
-        while ( ( secondPageId = getCurrentObservedPageId() ) == initialPageId )
+        // Phase 2: Follow the cursor, and keep loading pages ahead of it, in the direction and with the stride that it is moving, until it is closed.
+        // We will wait up to 200 milliseconds for the cursor to make its first move, and up to 10 seconds for every move after that.
+        try ( var cursorTracer = tracer.createPageCursorTracer( TRACER_PRE_FETCHER_TAG ) )
         {
-            pause();
-            if ( pastDeadline() )
+            CursorContext cursorContext = new CursorContext( cursorTracer );
+            long nextPageId;
+            long timeoutMillis = 200;
+            while ( ( nextPageId = awaitObservedCursorMove( currentPageId, timeoutMillis ) ) != UNBOUND_PAGE_ID )
             {
-                return; // Okay, this is going too slow. Give up.
-            }
-        }
-        if ( secondPageId == UNBOUND_PAGE_ID )
-        {
-            return; // We're done. The observed cursor was closed.
-        }
-
-        // Phase 3: We now know what direction to prefetch in.
-        // Just keep loading pages on the right side of the cursor until its closed.
-        boolean forward = initialPageId < secondPageId;
-        long currentPageId;
-        long cp;
-        long nextPageId;
-        long fromPage;
-        long toPage;
-
-        // Offset is a fixed adjustment of the observed cursor position.
-        // This moves the start of the pre-fetch range forward for forward pre-fetching,
-        // or the end position backward for backward pre-fetching.
-        long offset = forward ? 1 : -1;
-
-        // Jump is the dynamically adjusted size of the prefetch range,
-        // with a sign component to indicate forwards or backwards pre-fetching.
-        // That is, jump is negative if we are pre-fetching backwards.
-        // This way, observed position + jump is the end or start of the pre-fetch range,
-        // for forwards or backwards pre-fetch respectively.
-        // The initial value don't matter so much. Just same as offset, so we initially fetch one page.
-        long jump = offset;
-
-        try ( var tracer = this.tracer.createPageCursorTracer( TRACER_PRE_FETCHER_TAG );
-                PageCursor prefetchCursor = cursorFactory.takeReadCursor( 0, PF_SHARED_READ_LOCK, new CursorContext( tracer ) ) )
-        {
-            currentPageId = getCurrentObservedPageId();
-            while ( currentPageId != UNBOUND_PAGE_ID )
-            {
-                cp = currentPageId + offset;
-                if ( forward )
+                observeMove( currentPageId, nextPageId );
+                currentPageId = nextPageId;
+                if ( !exhausted )
                 {
-                    fromPage = cp;
-                    toPage = cp + jump;
+                    prefetchAhead( currentPageId, cursorContext );
                 }
-                else
+                else if ( rounds == 0 )
                 {
-                    fromPage = Math.max( 0, cp + jump );
-                    toPage = cp;
+                    return; // We have reached the end of the file, and the cursor has moved past everything we pre-fetched.
                 }
-                while ( fromPage < toPage )
+                if ( cancelled )
                 {
-                    if ( !prefetchCursor.next( fromPage ) || cancelled )
-                    {
-                        return; // Reached the end of the file. Or got cancelled.
-                    }
-                    fromPage++;
+                    return;
                 }
+                timeoutMillis = TimeUnit.SECONDS.toMillis( 10 );
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+        finally
+        {
+            wasteOutstandingRounds();
+        }
+    }
 
-                // Phase 3.5: After each prefetch round, we wait for the cursor to move again.
-                // If it just stops somewhere for more than a second, then we quit.
-                nextPageId = getCurrentObservedPageId();
-                if ( nextPageId == currentPageId )
-                {
-                    setDeadline( 10, TimeUnit.SECONDS );
-                    while ( nextPageId == currentPageId )
-                    {
-                        pause();
-                        if ( pastDeadline() )
-                        {
-                            return; // The cursor hasn't made any progress for a whole second. Leave it alone.
-                        }
-                        nextPageId = getCurrentObservedPageId();
-                    }
-                    madeProgress();
-                }
-                if ( nextPageId != UNBOUND_PAGE_ID )
+    /**
+     * Wait for the observed cursor to move away from the given page.
+     *
+     * @return the page the cursor moved to, or {@link org.neo4j.io.pagecache.PageCursor#UNBOUND_PAGE_ID} if the cursor was closed, or did not move
+     * within the given timeout.
+     */
+    private long awaitObservedCursorMove( long currentPageId, long timeoutMillis )
+    {
+        long nextPageId = getCurrentObservedPageId();
+        if ( nextPageId == currentPageId )
+        {
+            setDeadline( timeoutMillis, TimeUnit.MILLISECONDS );
+            while ( nextPageId == currentPageId )
+            {
+                pause();
+                if ( pastDeadline() )
                 {
-                    jump = (nextPageId - currentPageId) * 2;
+                    return UNBOUND_PAGE_ID; // The cursor hasn't made any progress. Leave it alone.
                 }
-                currentPageId = nextPageId;
+                nextPageId = getCurrentObservedPageId();
             }
+            madeProgress();
         }
-        catch ( IOException e )
+        return nextPageId;
+    }
+
+    private void observeMove( long currentPageId, long nextPageId )
+    {
+        long delta = nextPageId - currentPageId;
+        if ( stride == 0 || Long.signum( delta ) != Long.signum( stride ) )
         {
-            throw new UncheckedIOException( e );
+            // The cursor made its first move, or changed direction. Whatever we pre-fetched so far, is now behind it.
+            wasteOutstandingRounds();
+            stride = delta;
+            strideNanos = 0;
+            prefetchedUpTo = nextPageId;
+            exhausted = false;
+        }
+        else
+        {
+            stride = Long.signum( stride ) * gcd( Math.abs( stride ), Math.abs( delta ) );
+        }
+
+        long now = clock.nanos();
+        lastMoveStrides = delta / stride;
+        long nanosPerStride = (now - lastMoveNanos) / lastMoveStrides;
+        strideNanos = strideNanos == 0 ? nanosPerStride : (strideNanos * 3 + nanosPerStride) / 4;
+        lastMoveNanos = now;
+        retireRoundsPassedBy( nextPageId );
+    }
+
+    private void prefetchAhead( long currentPageId, CursorContext cursorContext ) throws IOException
+    {
+        long lastPageId = pagedFile.getLastPageId();
+        long distance = prefetchDistance();
+        // Start at the first page, in the stride of the cursor, that is beyond what we have already pre-fetched.
+        long first = Math.max( 1, (prefetchedUpTo - currentPageId) / stride + 1 );
+        long loaded = 0;
+        long low = Long.MAX_VALUE;
+        long high = Long.MIN_VALUE;
+        for ( long i = first; i <= distance && !cancelled; i++ )
+        {
+            long pageId = currentPageId + i * stride;
+            if ( pageId < 0 || pageId > lastPageId )
+            {
+                exhausted = true;
+                break;
+            }
+            int count = 1;
+            if ( Math.abs( stride ) == 1 )
+            {
+                // A dense scan; read in the rest of the range with vectored reads.
+                long endPageId = Math.max( 0, Math.min( lastPageId, currentPageId + distance * stride ) );
+                count = (int) Math.abs( endPageId - pageId ) + 1;
+                pageId = Math.min( pageId, endPageId );
+                i = distance;
+            }
+            long start = clock.nanos();
+            int pagesLoaded = pagedFile.prefetch( pageId, count, cursorContext );
+            if ( pagesLoaded > 0 )
+            {
+                long nanos = clock.nanos() - start;
+                readNanos = readNanos == 0 ? nanos : (readNanos * 3 + nanos) / 4;
+                loaded += pagesLoaded;
+            }
+            low = Math.min( low, pageId );
+            high = Math.max( high, pageId + count - 1 );
+            prefetchedUpTo = stride > 0 ? high : low;
+        }
+        if ( loaded > 0 )
+        {
+            tracer.prefetchedPages( loaded );
+            addRound( low, high, loaded );
+        }
+    }
+
+    /**
+     * @return how many strides ahead of the observed cursor we should pre-fetch.
+     */
+    private long prefetchDistance()
+    {
+        // Far enough ahead that a read we start now completes before the cursor gets there, and at least twice as far as the cursor moved last time,
+        // so we can keep ahead of the cursor in between our observations of it.
+        long latencyStrides = strideNanos == 0 ? 1 : readNanos / strideNanos + 1;
+        long distance = Math.max( latencyStrides, 2 * lastMoveStrides );
+        return Math.max( 1, Math.min( distance, maxDistance ) );
+    }
+
+    private void addRound( long low, long high, long loaded )
+    {
+        if ( rounds == TRACKED_ROUNDS )
+        {
+            int last = (firstRound + rounds - 1) % TRACKED_ROUNDS;
+            roundLow[last] = Math.min( roundLow[last], low );
+            roundHigh[last] = Math.max( roundHigh[last], high );
+            roundLoaded[last] += loaded;
+            return;
+        }
+        int round = (firstRound + rounds) % TRACKED_ROUNDS;
+        roundLow[round] = low;
+        roundHigh[round] = high;
+        roundLoaded[round] = loaded;
+        rounds++;
+    }
+
+    private void retireRoundsPassedBy( long pageId )
+    {
+        long hits = 0;
+        while ( rounds > 0 && (stride > 0 ? roundHigh[firstRound] <= pageId : roundLow[firstRound] >= pageId) )
+        {
+            hits += roundLoaded[firstRound];
+            firstRound = (firstRound + 1) % TRACKED_ROUNDS;
+            rounds--;
+        }
+        if ( hits > 0 )
+        {
+            tracer.prefetchHits( hits );
+        }
+    }
+
+    private void wasteOutstandingRounds()
+    {
+        long waste = 0;
+        for ( int i = 0; i < rounds; i++ )
+        {
+            waste += roundLoaded[(firstRound + i) % TRACKED_ROUNDS];
+        }
+        firstRound = 0;
+        rounds = 0;
+        if ( waste > 0 )
+        {
+            tracer.prefetchWaste( waste );
+        }
+    }
+
+    private static long gcd( long a, long b )
+    {
+        while ( b != 0 )
+        {
+            long t = a % b;
+            a = b;
+            b = t;
         }
+        return a;
     }
 
     private void setDeadline( long timeout, TimeUnit unit )
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A bounded FIFO queue of the ids of the cache pages that are on probation, under the {@link PageReplacementPolicy#TWO_QUEUE} policy.
+ * <p>
+ * The queue is intentionally lossy, because it is only a hint to the eviction: when the queue is full, new entries overwrite the oldest
+ * ones, and an entry that is polled concurrently with being offered may be skipped. A page that falls out of the queue this way is simply
+ * left to be evicted by the clock sweep. Likewise, entries can go stale, because the page they refer to has been evicted and faulted in again
+ * since it was offered, so the consumers must always check the state of the page itself before they evict it.
+ */
+final class ProbationQueue
+{
+    static final int EMPTY = -1;
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle( int[].class );
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+
+    static
+    {
+        try
+        {
+            MethodHandles.Lookup l = MethodHandles.lookup();
+            HEAD = l.findVarHandle( ProbationQueue.class, "head", long.class );
+            TAIL = l.findVarHandle( ProbationQueue.class, "tail", long.class );
+        }
+        catch ( ReflectiveOperationException e )
+        {
+            throw new ExceptionInInitializerError( e );
+        }
+    }
+
+    // The slots hold page ids plus one, so that zero can mean that the slot is empty.
+    private final int[] slots;
+    private final int mask;
+    @SuppressWarnings( "unused" ) // accessed via VarHandle.
+    private volatile long head;
+    @SuppressWarnings( "unused" ) // accessed via VarHandle.
+    private volatile long tail;
+
+    ProbationQueue( int capacity )
+    {
+        int size = Integer.highestOneBit( Math.max( 1, capacity ) );
+        if ( size < capacity )
+        {
+            size <<= 1;
+        }
+        slots = new int[size];
+        mask = size - 1;
+    }
+
+    void offer( int pageId )
+    {
+        long index = (long) TAIL.getAndAdd( this, 1L );
+        SLOTS.setRelease( slots, (int) (index & mask), pageId + 1 );
+    }
+
+    /**
+     * @return the id of the page that has been on probation the longest, or {@link #EMPTY} if the queue is empty.
+     */
+    int poll()
+    {
+        for (;;)
+        {
+            long currentHead = (long) HEAD.getVolatile( this );
+            long currentTail = (long) TAIL.getVolatile( this );
+            if ( currentHead >= currentTail )
+            {
+                return EMPTY;
+            }
+            if ( currentTail - currentHead > slots.length )
+            {
+                // The producers have lapped us, and overwritten the oldest entries. Skip ahead to the oldest entry still in the queue.
+                HEAD.compareAndSet( this, currentHead, currentTail - slots.length );
+                continue;
+            }
+            if ( HEAD.compareAndSet( this, currentHead, currentHead + 1 ) )
+            {
+                int entry = (int) SLOTS.getAndSet( slots, (int) (currentHead & mask), 0 );
+                if ( entry != 0 )
+                {
+                    return entry - 1;
+                }
+                // The producer of this entry has not published it yet. We skip it, rather than wait for it.
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.monitoring;
+
+import java.util.Objects;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Accumulated statistics of the {@link org.neo4j.io.pagecache.PagedFile#flushAndForce() flushes} of a mapped file.
+ * <p>
+ * The statistics only ever grow, so the work done by a particular flush, or a series of flushes, is found by taking the {@link #minus(FlushStatistics)
+ * difference} between the statistics from before and after the flush.
+ */
+public final class FlushStatistics
+{
+    public static final FlushStatistics EMPTY = new FlushStatistics( 0, 0, 0, 0, 0 );
+
+    private final long pagesFlushed;
+    private final long pagesBridged;
+    private final long ioOperations;
+    private final long bytesWritten;
+    private final long durationNanos;
+
+    public FlushStatistics( long pagesFlushed, long pagesBridged, long ioOperations, long bytesWritten, long durationNanos )
+    {
+        this.pagesFlushed = pagesFlushed;
+        this.pagesBridged = pagesBridged;
+        this.ioOperations = ioOperations;
+        this.bytesWritten = bytesWritten;
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * @return the number of pages written, including the {@link #pagesBridged() bridging pages}.
+     */
+    public long pagesFlushed()
+    {
+        return pagesFlushed;
+    }
+
+    /**
+     * @return the number of clean pages that were written in order to join the dirty pages around them into a single write.
+     */
+    public long pagesBridged()
+    {
+        return pagesBridged;
+    }
+
+    /**
+     * @return the number of vectored writes the pages were written with.
+     */
+    public long ioOperations()
+    {
+        return ioOperations;
+    }
+
+    public long bytesWritten()
+    {
+        return bytesWritten;
+    }
+
+    /**
+     * @return the time spent flushing, including the time spent being limited by the {@link org.neo4j.io.pagecache.IOController}, and the time spent
+     * forcing the file to storage.
+     */
+    public long durationNanos()
+    {
+        return durationNanos;
+    }
+
+    /**
+     * @return the average number of pages written per IO operation, or {@code 0} if nothing was written.
+     */
+    public double coalescingRatio()
+    {
+        return ioOperations == 0 ? 0 : (double) pagesFlushed / ioOperations;
+    }
+
+    /**
+     * @return the achieved write throughput in bytes per second, or {@code 0} if nothing was written.
+     */
+    public long bytesPerSecond()
+    {
+        return durationNanos == 0 ? 0 : (long) (bytesWritten * (double) SECONDS.toNanos( 1 ) / durationNanos);
+    }
+
+    public FlushStatistics plus( FlushStatistics other )
+    {
+        return new FlushStatistics( pagesFlushed + other.pagesFlushed, pagesBridged + other.pagesBridged, ioOperations + other.ioOperations,
+                bytesWritten + other.bytesWritten, durationNanos + other.durationNanos );
+    }
+
+    public FlushStatistics minus( FlushStatistics other )
+    {
+        return new FlushStatistics( pagesFlushed - other.pagesFlushed, pagesBridged - other.pagesBridged, ioOperations - other.ioOperations,
+                bytesWritten - other.bytesWritten, durationNanos - other.durationNanos );
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+        FlushStatistics that = (FlushStatistics) o;
+        return pagesFlushed == that.pagesFlushed && pagesBridged == that.pagesBridged && ioOperations == that.ioOperations &&
+                bytesWritten == that.bytesWritten && durationNanos == that.durationNanos;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash( pagesFlushed, pagesBridged, ioOperations, bytesWritten, durationNanos );
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format( "%d pages (%d bridging) in %d IOs, %.2f pages per IO, %d bytes at %d bytes/s", pagesFlushed, pagesBridged, ioOperations,
+                coalescingRatio(), bytesWritten, bytesPerSecond() );
+    }
+}
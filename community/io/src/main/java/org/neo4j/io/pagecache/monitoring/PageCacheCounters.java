@@ -126,4 +126,36 @@ public interface PageCacheCounters
      * @return Total number of closed page cache cursors.
      */
     long closedCursors();
+
+    /**
+     * @return The number of eviction shards the pages of the page cache are partitioned into.
+     */
+    int evictionShards();
+
+    /**
+     * @param shard The index of the eviction shard.
+     * @return The number of page evictions observed in the given eviction shard thus far.
+     */
+    long shardEvictions( int shard );
+
+    /**
+     * @param shard The index of the eviction shard.
+     * @return The number of page faults that got their page from the given eviction shard thus far.
+     */
+    long shardFaults( int shard );
+
+    /**
+     * @return The number of pages loaded into the page cache by the pre-fetcher thus far.
+     */
+    long prefetchedPages();
+
+    /**
+     * @return The number of pre-fetched pages that the scan they were pre-fetched for went on to access thus far.
+     */
+    long prefetchHits();
+
+    /**
+     * @return The number of pre-fetched pages that the scan they were pre-fetched for never accessed thus far.
+     */
+    long prefetchWaste();
 }
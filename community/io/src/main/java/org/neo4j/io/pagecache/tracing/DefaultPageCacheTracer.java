@@ -20,6 +20,7 @@
 package org.neo4j.io.pagecache.tracing;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
 
@@ -54,7 +55,13 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     protected final LongAdder ioLimitedMillis = new LongAdder();
     protected final LongAdder openedCursors = new LongAdder();
     protected final LongAdder closedCursors = new LongAdder();
+    protected final LongAdder prefetchedPages = new LongAdder();
+    protected final LongAdder prefetchHits = new LongAdder();
+    protected final LongAdder prefetchWaste = new LongAdder();
     protected final AtomicLong maxPages = new AtomicLong();
+    // Per eviction shard counters. Only ever grows, so that counters from a page cache with more shards are never lost.
+    protected volatile LongAdder[] shardEvictions = new LongAdder[0];
+    protected volatile LongAdder[] shardFaults = new LongAdder[0];
 
     private final boolean tracePageFileIndividually;
 
@@ -449,6 +456,102 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         this.maxPages.set( maxPages );
     }
 
+    @Override
+    public synchronized void evictionShards( int shards )
+    {
+        if ( shards > shardEvictions.length )
+        {
+            shardFaults = growCounters( shardFaults, shards );
+            shardEvictions = growCounters( shardEvictions, shards );
+        }
+    }
+
+    @Override
+    public void shardEvictions( int shard, long evictions )
+    {
+        LongAdder[] counters = shardEvictions;
+        if ( shard < counters.length )
+        {
+            counters[shard].add( evictions );
+        }
+    }
+
+    @Override
+    public void shardFaults( int shard, long faults )
+    {
+        LongAdder[] counters = shardFaults;
+        if ( shard < counters.length )
+        {
+            counters[shard].add( faults );
+        }
+    }
+
+    @Override
+    public int evictionShards()
+    {
+        return shardEvictions.length;
+    }
+
+    @Override
+    public long shardEvictions( int shard )
+    {
+        LongAdder[] counters = shardEvictions;
+        return shard < counters.length ? counters[shard].sum() : 0;
+    }
+
+    @Override
+    public long shardFaults( int shard )
+    {
+        LongAdder[] counters = shardFaults;
+        return shard < counters.length ? counters[shard].sum() : 0;
+    }
+
+    @Override
+    public void prefetchedPages( long pages )
+    {
+        this.prefetchedPages.add( pages );
+    }
+
+    @Override
+    public void prefetchHits( long hits )
+    {
+        this.prefetchHits.add( hits );
+    }
+
+    @Override
+    public void prefetchWaste( long pages )
+    {
+        this.prefetchWaste.add( pages );
+    }
+
+    @Override
+    public long prefetchedPages()
+    {
+        return prefetchedPages.sum();
+    }
+
+    @Override
+    public long prefetchHits()
+    {
+        return prefetchHits.sum();
+    }
+
+    @Override
+    public long prefetchWaste()
+    {
+        return prefetchWaste.sum();
+    }
+
+    private static LongAdder[] growCounters( LongAdder[] counters, int size )
+    {
+        LongAdder[] grown = Arrays.copyOf( counters, size );
+        for ( int i = counters.length; i < size; i++ )
+        {
+            grown[i] = new LongAdder();
+        }
+        return grown;
+    }
+
     private class PageCacheFlushEvent implements FlushEvent
     {
         private PageFileSwapperTracer swapperTracer;
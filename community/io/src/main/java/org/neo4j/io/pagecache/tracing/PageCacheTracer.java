@@ -282,6 +282,72 @@ public interface PageCacheTracer extends PageCacheCounters
         {
         }
 
+        @Override
+        public int evictionShards()
+        {
+            return 0;
+        }
+
+        @Override
+        public long shardEvictions( int shard )
+        {
+            return 0;
+        }
+
+        @Override
+        public long shardFaults( int shard )
+        {
+            return 0;
+        }
+
+        @Override
+        public void evictionShards( int shards )
+        {
+        }
+
+        @Override
+        public void shardEvictions( int shard, long evictions )
+        {
+        }
+
+        @Override
+        public void shardFaults( int shard, long faults )
+        {
+        }
+
+        @Override
+        public long prefetchedPages()
+        {
+            return 0;
+        }
+
+        @Override
+        public long prefetchHits()
+        {
+            return 0;
+        }
+
+        @Override
+        public long prefetchWaste()
+        {
+            return 0;
+        }
+
+        @Override
+        public void prefetchedPages( long pages )
+        {
+        }
+
+        @Override
+        public void prefetchHits( long hits )
+        {
+        }
+
+        @Override
+        public void prefetchWaste( long pages )
+        {
+        }
+
         @Override
         public String toString()
         {
@@ -433,4 +499,42 @@ public interface PageCacheTracer extends PageCacheCounters
      * Page cache cursor opened
      */
     void openCursor();
+
+    /**
+     * Sets the number of eviction shards the pages are partitioned into.
+     * @param shards the number of eviction shards.
+     */
+    void evictionShards( int shards );
+
+    /**
+     * Report number of evictions in an eviction shard
+     * @param shard the index of the eviction shard
+     * @param evictions number of evictions
+     */
+    void shardEvictions( int shard, long evictions );
+
+    /**
+     * Report number of page faults that got their page from an eviction shard
+     * @param shard the index of the eviction shard
+     * @param faults number of faults
+     */
+    void shardFaults( int shard, long faults );
+
+    /**
+     * Report number of pages loaded by the pre-fetcher
+     * @param pages number of pre-fetched pages
+     */
+    void prefetchedPages( long pages );
+
+    /**
+     * Report number of pre-fetched pages that were accessed by the scan they were pre-fetched for
+     * @param hits number of pre-fetched pages accessed
+     */
+    void prefetchHits( long hits );
+
+    /**
+     * Report number of pre-fetched pages that were never accessed by the scan they were pre-fetched for
+     * @param pages number of pre-fetched pages not accessed
+     */
+    void prefetchWaste( long pages );
 }
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.mem;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import org.neo4j.internal.nativeimpl.HugePageMemory;
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.memory.LocalMemoryTracker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.neo4j.io.ByteUnit.mebiBytes;
+
+class HugePageAllocatorTest
+{
+    private HugePageAllocator allocator;
+
+    @BeforeEach
+    void setUp()
+    {
+        assumeTrue( HugePageAllocator.isAvailable(), HugePageMemory::describe );
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        if ( allocator != null )
+        {
+            allocator.close();
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource( value = HugePageMode.class, names = {"TRANSPARENT", "HUGETLB"} )
+    void createAllocatorMustCreateHugePageAllocatorWhenHugePagesAreEnabled( HugePageMode mode )
+    {
+        MemoryAllocator memoryAllocator = MemoryAllocator.createAllocator( mebiBytes( 4 ), EmptyMemoryTracker.INSTANCE, mode );
+        try
+        {
+            assertThat( memoryAllocator ).isInstanceOf( HugePageAllocator.class );
+        }
+        finally
+        {
+            memoryAllocator.close();
+        }
+    }
+
+    @Test
+    void createAllocatorMustCreateGrabAllocatorWhenHugePagesAreDisabled()
+    {
+        MemoryAllocator memoryAllocator = MemoryAllocator.createAllocator( mebiBytes( 4 ), EmptyMemoryTracker.INSTANCE, HugePageMode.DISABLED );
+        try
+        {
+            assertThat( memoryAllocator ).isInstanceOf( GrabAllocator.class );
+        }
+        finally
+        {
+            memoryAllocator.close();
+        }
+    }
+
+    @Test
+    void regionsMustBeAlignedToHugePageSize()
+    {
+        allocator = new HugePageAllocator( mebiBytes( 4 ), EmptyMemoryTracker.INSTANCE, HugePageMode.TRANSPARENT );
+        long address = allocator.allocateAligned( PageCache.PAGE_SIZE, PageCache.PAGE_SIZE );
+        assertThat( address % HugePageMemory.hugePageSize() ).isZero();
+        assertThat( allocator.mappedMemory() % HugePageMemory.hugePageSize() ).isZero();
+    }
+
+    @Test
+    void pageSizedAllocationsMustBeAlignedAndAccessible()
+    {
+        allocator = new HugePageAllocator( mebiBytes( 4 ), EmptyMemoryTracker.INSTANCE, HugePageMode.TRANSPARENT );
+        // Throw off any accidental alignment.
+        allocator.allocateAligned( 7, 1 );
+        int pages = (int) (mebiBytes( 8 ) / PageCache.PAGE_SIZE);
+        for ( int i = 0; i < pages; i++ )
+        {
+            long address = allocator.allocateAligned( PageCache.PAGE_SIZE, PageCache.PAGE_SIZE );
+            assertThat( address % PageCache.PAGE_SIZE ).isZero();
+            // This relies on the native access checks that are enabled in UnsafeUtil during tests.
+            UnsafeUtil.putLong( address, i );
+            UnsafeUtil.putLong( address + PageCache.PAGE_SIZE - Long.BYTES, i );
+        }
+        assertThat( allocator.usedMemory() ).isGreaterThanOrEqualTo( pages * (long) PageCache.PAGE_SIZE );
+        assertThat( allocator.mappedMemory() ).isGreaterThanOrEqualTo( mebiBytes( 8 ) );
+    }
+
+    @Test
+    void mustBeAbleToAllocateMoreThanRegionSize()
+    {
+        allocator = new HugePageAllocator( mebiBytes( 2 ), EmptyMemoryTracker.INSTANCE, HugePageMode.TRANSPARENT );
+        long large = allocator.allocateAligned( mebiBytes( 5 ), PageCache.PAGE_SIZE );
+        UnsafeUtil.putLong( large + mebiBytes( 5 ) - Long.BYTES, 42 );
+        assertThat( allocator.mappedMemory() ).isGreaterThanOrEqualTo( mebiBytes( 5 ) );
+    }
+
+    @Test
+    void alignmentCannotBeZero()
+    {
+        allocator = new HugePageAllocator( mebiBytes( 2 ), EmptyMemoryTracker.INSTANCE, HugePageMode.TRANSPARENT );
+        assertThrows( IllegalArgumentException.class, () -> allocator.allocateAligned( 8, 0 ) );
+    }
+
+    @Test
+    void trackMemoryAllocations()
+    {
+        LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+        allocator = new HugePageAllocator( mebiBytes( 2 ), memoryTracker, HugePageMode.TRANSPARENT );
+        assertThat( memoryTracker.usedNativeMemory() ).isZero();
+
+        allocator.allocateAligned( mebiBytes( 1 ), 1 );
+        assertThat( memoryTracker.usedNativeMemory() ).isEqualTo( allocator.mappedMemory() ).isGreaterThanOrEqualTo( mebiBytes( 1 ) );
+
+        allocator.close();
+        assertThat( memoryTracker.usedNativeMemory() ).isZero();
+    }
+
+    @Test
+    void hugeTlbMustFallBackToTransparentHugePagesWhenThePoolIsEmpty()
+    {
+        // The reserved pool of huge pages is normally empty, unless explicitly configured. Either way, the allocation must succeed.
+        allocator = new HugePageAllocator( mebiBytes( 4 ), EmptyMemoryTracker.INSTANCE, HugePageMode.HUGETLB );
+        long address = allocator.allocateAligned( mebiBytes( 4 ), PageCache.PAGE_SIZE );
+        UnsafeUtil.putLong( address, 42 );
+        assertThat( allocator.hugeTlbMemory() ).isBetween( 0L, allocator.mappedMemory() );
+    }
+
+    @Test
+    void mustReportHowMuchMemoryIsBackedByHugePages()
+    {
+        allocator = new HugePageAllocator( mebiBytes( 8 ), EmptyMemoryTracker.INSTANCE, HugePageMode.TRANSPARENT );
+        long address = allocator.allocateAligned( mebiBytes( 8 ), PageCache.PAGE_SIZE );
+        UnsafeUtil.setMemory( address, mebiBytes( 8 ), (byte) 1 );
+        assertThat( allocator.hugePageMemory() ).isBetween( 0L, allocator.mappedMemory() );
+        assertThat( allocator.describe() ).contains( "bytes are currently backed by huge pages" );
+    }
+}
@@ -36,6 +36,7 @@ import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.buffer.IOBufferFactory;
 import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.monitoring.FlushStatistics;
 import org.neo4j.io.pagecache.monitoring.PageFileCounters;
 import org.neo4j.io.pagecache.tracing.FileMappedListener;
 
@@ -180,6 +181,12 @@ public class DatabasePageCache implements PageCache
             return delegate.io( pageId, pf_flags, context );
         }
 
+        @Override
+        public int touch( long pageId, int count, CursorContext context ) throws IOException
+        {
+            return delegate.touch( pageId, count, context );
+        }
+
         @Override
         public int pageSize()
         {
@@ -242,6 +249,12 @@ public class DatabasePageCache implements PageCache
             return delegate.pageFileCounters();
         }
 
+        @Override
+        public FlushStatistics flushStatistics()
+        {
+            return delegate.flushStatistics();
+        }
+
         @Override
         public boolean equals( Object o )
         {
@@ -107,6 +107,7 @@ import org.neo4j.kernel.impl.factory.KernelTransactionFactory;
 import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.kernel.impl.pagecache.IOControllerService;
 import org.neo4j.kernel.impl.pagecache.PageCacheLifecycle;
+import org.neo4j.kernel.impl.pagecache.PageCacheWarmer;
 import org.neo4j.kernel.impl.query.QueryEngineProvider;
 import org.neo4j.kernel.impl.query.QueryExecutionEngine;
 import org.neo4j.kernel.impl.query.TransactionExecutionMonitor;
@@ -465,7 +466,7 @@ public class Database extends LifecycleAdapter
             versionContextSupplier.init( metadataProvider::getLastClosedTransactionId, namedDatabaseId.name() );
 
             CheckPointerImpl.ForceOperation forceOperation =
-                    new DefaultForceOperation( indexingService, storageEngine );
+                    new DefaultForceOperation( indexingService, storageEngine, databasePageCache, internalLogProvider );
             DatabaseTransactionLogModule transactionLogModule =
                     buildTransactionLogs( logFiles, databaseConfig, internalLogProvider, scheduler, forceOperation,
                             logEntryReader, metadataProvider, databaseMonitors, databaseDependencies );
@@ -505,6 +506,8 @@ public class Database extends LifecycleAdapter
             this.checkpointerLifecycle = new CheckpointerLifecycle( transactionLogModule.checkPointer(), databaseHealth, ioController );
 
             life.add( onStart( this::registerUpgradeListener ) );
+            life.add( new PageCacheWarmer( fs, databasePageCache, scheduler, databaseLayout.databaseDirectory(), namedDatabaseId.name(), databaseConfig,
+                    readOnlyDatabaseChecker, pageCacheTracer, internalLogProvider.getLog( PageCacheWarmer.class ) ) );
             life.add( databaseHealth );
             life.add( databaseAvailabilityGuard );
             life.add( databaseAvailability );
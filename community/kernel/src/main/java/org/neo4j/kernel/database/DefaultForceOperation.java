@@ -20,27 +20,70 @@
 package org.neo4j.kernel.database;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
 
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.monitoring.FlushStatistics;
 import org.neo4j.kernel.impl.api.index.IndexingService;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointerImpl;
+import org.neo4j.logging.Log;
+import org.neo4j.logging.LogProvider;
 import org.neo4j.storageengine.api.StorageEngine;
 
 public class DefaultForceOperation implements CheckPointerImpl.ForceOperation
 {
     private final IndexingService indexingService;
     private final StorageEngine storageEngine;
+    private final PageCache databasePageCache;
+    private final Log log;
 
-    public DefaultForceOperation( IndexingService indexingService, StorageEngine storageEngine )
+    public DefaultForceOperation( IndexingService indexingService, StorageEngine storageEngine, PageCache databasePageCache, LogProvider logProvider )
     {
         this.indexingService = indexingService;
         this.storageEngine = storageEngine;
+        this.databasePageCache = databasePageCache;
+        this.log = logProvider.getLog( getClass() );
     }
 
     @Override
     public void flushAndForce( CursorContext cursorContext ) throws IOException
     {
+        Map<Path,FlushStatistics> statisticsBefore = flushStatistics();
         indexingService.forceAll( cursorContext );
         storageEngine.flushAndForce( cursorContext );
+        reportFlushStatistics( statisticsBefore );
+    }
+
+    private Map<Path,FlushStatistics> flushStatistics() throws IOException
+    {
+        Map<Path,FlushStatistics> statistics = new HashMap<>();
+        for ( PagedFile pagedFile : databasePageCache.listExistingMappings() )
+        {
+            statistics.put( pagedFile.path(), pagedFile.flushStatistics() );
+        }
+        return statistics;
+    }
+
+    private void reportFlushStatistics( Map<Path,FlushStatistics> statisticsBefore ) throws IOException
+    {
+        FlushStatistics total = FlushStatistics.EMPTY;
+        for ( Map.Entry<Path,FlushStatistics> entry : flushStatistics().entrySet() )
+        {
+            FlushStatistics flushed = entry.getValue().minus( statisticsBefore.getOrDefault( entry.getKey(), FlushStatistics.EMPTY ) );
+            if ( flushed.pagesFlushed() > 0 )
+            {
+                log.info( "Flushed %s: %s", entry.getKey().getFileName(), flushed );
+                total = total.plus( flushed );
+            }
+        }
+        if ( total.ioOperations() > 0 )
+        {
+            log.info( "Flushed %d pages (%d bridging) in %d IOs, %.2f pages per IO, %d bytes", total.pagesFlushed(), total.pagesBridged(),
+                    total.ioOperations(), total.coalescingRatio(), total.bytesWritten() );
+        }
     }
 }
@@ -19,10 +19,11 @@
  */
 package org.neo4j.kernel.impl.api.index;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import org.neo4j.common.EntityType;
 import org.neo4j.common.Subject;
@@ -49,7 +50,8 @@ import static org.neo4j.configuration.GraphDatabaseInternalSettings.index_popula
  * A background job for initially populating one or more index over existing data in the database.
  * Use provided store view to scan store. Participating {@link IndexPopulator} are added with
  * {@link #addPopulator(IndexPopulator, IndexProxyStrategy, FlippableIndexProxy, FailedIndexProxyFactory)}
- * before {@link #run() running} this job.
+ * before {@link #run() running} this job. Indexes created after this job was scheduled can still join it,
+ * using {@link #addPopulatorsIfNotStarted(Supplier)}, as long as it hasn't started running.
  */
 public class IndexPopulationJob implements Runnable
 {
@@ -69,7 +71,18 @@ public class IndexPopulationJob implements Runnable
     /**
      * A list of all indexes populated by this job.
      */
-    private final List<IndexProxyStrategy> populatedIndexes = new ArrayList<>();
+    private final List<IndexProxyStrategy> populatedIndexes = new CopyOnWriteArrayList<>();
+    /**
+     * The populations of {@link #populatedIndexes}, in the same order.
+     */
+    private final List<MultipleIndexPopulator.IndexPopulation> indexPopulations = new CopyOnWriteArrayList<>();
+
+    /**
+     * Guards {@link #started} and the setting of {@link #stopped}, so that populators are either added before this job starts or is stopped,
+     * or not at all.
+     */
+    private final Object startLock = new Object();
+    private boolean started;
 
     private volatile StoreScan storeScan;
     private volatile boolean stopped;
@@ -107,8 +120,49 @@ public class IndexPopulationJob implements Runnable
             FlippableIndexProxy flipper, FailedIndexProxyFactory failedIndexProxyFactory )
     {
         assert storeScan == null : "Population have already started, too late to add populators at this point";
+        MultipleIndexPopulator.IndexPopulation indexPopulation = this.multiPopulator.addPopulator( populator, indexProxyStrategy, flipper,
+                failedIndexProxyFactory );
+        indexPopulations.add( indexPopulation );
         populatedIndexes.add( indexProxyStrategy );
-        return this.multiPopulator.addPopulator( populator, indexProxyStrategy, flipper, failedIndexProxyFactory );
+        return indexPopulation;
+    }
+
+    /**
+     * Whether or not indexes of the given entity type, to be populated in the given way, could join this job. They can if this job populates
+     * the same entity type in the same way and hasn't started running, or been stopped, yet. The answer is only a hint, since this job may start at any time,
+     * the actual joining is done with {@link #addPopulatorsIfNotStarted(Supplier)}.
+     *
+     * @param entityType {@link EntityType} of the indexes to join.
+     * @param verifyBeforeFlipping whether or not the indexes to join need deferred constraints verified before flipping.
+     * @return {@code true} if indexes of the given kind could join this job, otherwise {@code false}.
+     */
+    boolean canJoin( EntityType entityType, boolean verifyBeforeFlipping )
+    {
+        synchronized ( startLock )
+        {
+            return !started && !stopped && populatedEntityType == entityType && this.verifyBeforeFlipping == verifyBeforeFlipping;
+        }
+    }
+
+    /**
+     * Lets indexes join this job if it hasn't started running yet, so that a single store scan populates them together with the indexes
+     * already in this job. {@code addPopulators} is expected to {@link #addPopulator(IndexPopulator, IndexProxyStrategy, FlippableIndexProxy,
+     * FailedIndexProxyFactory) add populators} to this job and is called while keeping this job from starting.
+     *
+     * @param addPopulators adds populators to this job.
+     * @return the result of {@code addPopulators}, or {@code null} if this job has already started, or been stopped,
+     * and {@code addPopulators} wasn't called.
+     */
+    <T> T addPopulatorsIfNotStarted( Supplier<T> addPopulators )
+    {
+        synchronized ( startLock )
+        {
+            if ( started || stopped )
+            {
+                return null;
+            }
+            return addPopulators.get();
+        }
     }
 
     /**
@@ -121,6 +175,11 @@ public class IndexPopulationJob implements Runnable
     {
         try ( var cursorContext = new CursorContext( pageCacheTracer.createPageCursorTracer( INDEX_POPULATION_TAG ) ) )
         {
+            synchronized ( startLock )
+            {
+                // No more indexes can join after this point
+                started = true;
+            }
             if ( !multiPopulator.hasPopulators() )
             {
                 return;
@@ -135,9 +194,12 @@ public class IndexPopulationJob implements Runnable
                 multiPopulator.create( cursorContext );
                 multiPopulator.resetIndexCounts( cursorContext );
 
-                monitor.indexPopulationScanStarting( multiPopulator.indexDescriptors() );
-                indexAllEntities( pageCacheTracer );
-                monitor.indexPopulationScanComplete();
+                if ( !stopped )
+                {
+                    monitor.indexPopulationScanStarting( multiPopulator.indexDescriptors() );
+                    indexAllEntities( pageCacheTracer );
+                    monitor.indexPopulationScanComplete();
+                }
                 if ( stopped )
                 {
                     multiPopulator.stop( cursorContext );
@@ -186,10 +248,14 @@ public class IndexPopulationJob implements Runnable
      */
     public void stop()
     {
+        synchronized ( startLock )
+        {
+            // No more indexes can join after this point
+            stopped = true;
+        }
         // Stop the population
         if ( storeScan != null )
         {
-            stopped = true;
             storeScan.stop();
             jobHandle.cancel();
             monitor.populationCancelled();
@@ -272,17 +338,26 @@ public class IndexPopulationJob implements Runnable
 
     public JobMonitoringParams getMonitoringParams()
     {
-        return new JobMonitoringParams( subject, databaseName, getMonitoringDescription(), () ->
+        // The description is built each time it's asked for, since indexes can join this job after it has been scheduled
+        return new JobMonitoringParams( subject, databaseName, this::getMonitoringDescription, () ->
         {
             var stateDescriptionBuilder = new StringBuilder();
+            PopulationProgress populationProgress = PopulationProgress.NONE;
+            if ( storeScan != null )
+            {
+                populationProgress = storeScan.getProgress();
+            }
+
             // Print index names only if there is more than 1,
-            // because if there is only one, its name will already be in the job description
+            // because if there is only one, its name will already be in the job description.
+            // Each name comes with the progress of that index, which can lag behind the total progress while its populator
+            // completes after the store scan
             if ( populatedIndexes.size() > 1 )
             {
                 stateDescriptionBuilder.append( "Population of indexes " );
                 boolean first = true;
 
-                for ( var index : populatedIndexes )
+                for ( int i = 0; i < populatedIndexes.size(); i++ )
                 {
                     if ( first )
                     {
@@ -293,20 +368,17 @@ public class IndexPopulationJob implements Runnable
                         stateDescriptionBuilder.append( "," );
                     }
 
+                    PopulationProgress indexProgress = storeScan == null ? PopulationProgress.NONE : indexPopulations.get( i ).progress( populationProgress );
                     stateDescriptionBuilder.append( "'" )
-                                           .append( index.getIndexDescriptor().getName() )
-                                           .append( "'" );
+                                           .append( populatedIndexes.get( i ).getIndexDescriptor().getName() )
+                                           .append( "' (" )
+                                           .append( indexProgress.toIndexPopulationProgress().getCompletedPercentage() )
+                                           .append( "%)" );
                 }
 
                 stateDescriptionBuilder.append( "; " );
             }
 
-            PopulationProgress populationProgress = PopulationProgress.NONE;
-            if ( storeScan != null )
-            {
-                populationProgress = storeScan.getProgress();
-            }
-
             stateDescriptionBuilder.append( "Total progress: " )
                                    .append( populationProgress.toIndexPopulationProgress().getCompletedPercentage() )
                                    .append( "%" );
@@ -19,10 +19,12 @@
  */
 package org.neo4j.kernel.impl.api.index;
 
+import java.time.Duration;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
+import org.neo4j.common.EntityType;
 import org.neo4j.internal.helpers.Exceptions;
 import org.neo4j.scheduler.JobScheduler;
 
@@ -32,10 +34,22 @@ class IndexPopulationJobController
 {
     private final Set<IndexPopulationJob> populationJobs = ConcurrentHashMap.newKeySet();
     private final JobScheduler scheduler;
+    private final long scheduleDelayMillis;
 
     IndexPopulationJobController( JobScheduler scheduler )
+    {
+        this( scheduler, Duration.ZERO );
+    }
+
+    /**
+     * @param scheduler {@link JobScheduler} to run population jobs on.
+     * @param scheduleDelay how long population jobs wait before they are handed to the scheduler. Indexes created in the meantime can
+     * join them, see {@link #queuedPopulationJob(EntityType, boolean)}.
+     */
+    IndexPopulationJobController( JobScheduler scheduler, Duration scheduleDelay )
     {
         this.scheduler = scheduler;
+        this.scheduleDelayMillis = scheduleDelay.toMillis();
     }
 
     void stop() throws InterruptedException
@@ -66,7 +80,15 @@ class IndexPopulationJobController
     void startIndexPopulation( IndexPopulationJob job )
     {
         populationJobs.add( job );
-        job.setHandle( scheduler.schedule( INDEX_POPULATION, job.getMonitoringParams(), new IndexPopulationJobWrapper( job, this ) ) );
+        IndexPopulationJobWrapper jobWrapper = new IndexPopulationJobWrapper( job, this );
+        if ( scheduleDelayMillis > 0 )
+        {
+            job.setHandle( scheduler.schedule( INDEX_POPULATION, job.getMonitoringParams(), jobWrapper, scheduleDelayMillis, TimeUnit.MILLISECONDS ) );
+        }
+        else
+        {
+            job.setHandle( scheduler.schedule( INDEX_POPULATION, job.getMonitoringParams(), jobWrapper ) );
+        }
     }
 
     private void indexPopulationCompleted( IndexPopulationJob populationJob )
@@ -74,6 +96,24 @@ class IndexPopulationJobController
         populationJobs.remove( populationJob );
     }
 
+    /**
+     * @param entityType {@link EntityType} of indexes to populate.
+     * @param verifyBeforeFlipping whether or not the indexes need deferred constraints verified before flipping.
+     * @return a scheduled job that hasn't started running yet and that indexes of the given kind could join, see
+     * {@link IndexPopulationJob#canJoin(EntityType, boolean)}, or {@code null} if there's no such job.
+     */
+    IndexPopulationJob queuedPopulationJob( EntityType entityType, boolean verifyBeforeFlipping )
+    {
+        for ( IndexPopulationJob job : populationJobs )
+        {
+            if ( job.canJoin( entityType, verifyBeforeFlipping ) )
+            {
+                return job;
+            }
+        }
+        return null;
+    }
+
     Set<IndexPopulationJob> getPopulationJobs()
     {
         return populationJobs;
@@ -30,6 +30,7 @@ import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EnumMap;
@@ -43,6 +44,7 @@ import org.neo4j.common.EntityType;
 import org.neo4j.common.Subject;
 import org.neo4j.common.TokenNameLookup;
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker;
 import org.neo4j.exceptions.KernelException;
 import org.neo4j.exceptions.UnderlyingStorageException;
@@ -170,7 +172,9 @@ public class IndexingService extends LifecycleAdapter implements IndexUpdateList
         this.schemaState = schemaState;
         this.internalLogProvider = internalLogProvider;
         this.monitor = monitor;
-        this.populationJobController = new IndexPopulationJobController( scheduler );
+        this.populationJobController = new IndexPopulationJobController( scheduler,
+                config.get( GraphDatabaseInternalSettings.index_population_join_queued_jobs )
+                ? config.get( GraphDatabaseInternalSettings.index_population_join_delay ) : Duration.ZERO );
         this.internalLog = internalLogProvider.getLog( getClass() );
         this.userLog = userLogProvider.getLog( getClass() );
         this.indexStatisticsStore = indexStatisticsStore;
@@ -835,7 +839,7 @@ public class IndexingService extends LifecycleAdapter implements IndexUpdateList
     {
         MultipleIndexPopulator multiPopulator = new MultipleIndexPopulator( storeView, internalLogProvider, type, schemaState,
                 jobScheduler, tokenNameLookup, pageCacheTracer, memoryTracker, databaseName, subject, config );
-        return new IndexPopulationJob( multiPopulator, monitor, verifyBeforeFlipping, pageCacheTracer, memoryTracker, databaseName, subject, NODE, config );
+        return new IndexPopulationJob( multiPopulator, monitor, verifyBeforeFlipping, pageCacheTracer, memoryTracker, databaseName, subject, type, config );
     }
 
     private void startIndexPopulation( IndexPopulationJob job )
@@ -892,6 +896,7 @@ public class IndexingService extends LifecycleAdapter implements IndexUpdateList
         private final boolean verifyBeforeFlipping;
         private final Subject subject;
         private final IndexDescriptor[] descriptors;
+        private final boolean joinQueuedPopulationJobs;
         private IndexPopulationJob nodePopulationJob;
         private IndexPopulationJob relationshipPopulationJob;
 
@@ -900,6 +905,7 @@ public class IndexingService extends LifecycleAdapter implements IndexUpdateList
             this.verifyBeforeFlipping = verifyBeforeFlipping;
             this.subject = subject;
             this.descriptors = descriptors;
+            this.joinQueuedPopulationJobs = config.get( GraphDatabaseInternalSettings.index_population_join_queued_jobs );
         }
 
         @Override
@@ -915,20 +921,23 @@ public class IndexingService extends LifecycleAdapter implements IndexUpdateList
                 }
                 if ( state == State.RUNNING )
                 {
-                    if ( descriptor.schema().entityType() == NODE )
+                    index = joinQueuedPopulationJobs ? createPopulatingIndexProxyInQueuedJob( descriptor ) : null;
+                    if ( index == null )
                     {
-                        nodePopulationJob =
-                                nodePopulationJob == null ? newIndexPopulationJob( NODE, verifyBeforeFlipping, subject ) : nodePopulationJob;
-                        index = indexProxyCreator.createPopulatingIndexProxy( descriptor, monitor, nodePopulationJob );
-                        index.start();
-                    }
-                    else
-                    {
-                        relationshipPopulationJob = relationshipPopulationJob == null ? newIndexPopulationJob( RELATIONSHIP, verifyBeforeFlipping, subject )
-                                                                                      : relationshipPopulationJob;
-                        index = indexProxyCreator.createPopulatingIndexProxy( descriptor, monitor, relationshipPopulationJob );
-                        index.start();
+                        if ( descriptor.schema().entityType() == NODE )
+                        {
+                            nodePopulationJob =
+                                    nodePopulationJob == null ? newIndexPopulationJob( NODE, verifyBeforeFlipping, subject ) : nodePopulationJob;
+                            index = indexProxyCreator.createPopulatingIndexProxy( descriptor, monitor, nodePopulationJob );
+                        }
+                        else
+                        {
+                            relationshipPopulationJob = relationshipPopulationJob == null ? newIndexPopulationJob( RELATIONSHIP, verifyBeforeFlipping, subject )
+                                                                                          : relationshipPopulationJob;
+                            index = indexProxyCreator.createPopulatingIndexProxy( descriptor, monitor, relationshipPopulationJob );
+                        }
                     }
+                    index.start();
                 }
                 else
                 {
@@ -940,6 +949,23 @@ public class IndexingService extends LifecycleAdapter implements IndexUpdateList
             return indexMap;
         }
 
+        /**
+         * Lets the index join a population job of an earlier index creation, that is waiting for its turn to run,
+         * so that a single store scan populates both. Indexes that are created one by one, e.g. after a bulk load,
+         * then share store scans instead of each doing one of their own.
+         *
+         * @return proxy of the populating index, or {@code null} if there was no queued job to join.
+         */
+        private IndexProxy createPopulatingIndexProxyInQueuedJob( IndexDescriptor descriptor )
+        {
+            IndexPopulationJob queuedJob = populationJobController.queuedPopulationJob( descriptor.schema().entityType(), verifyBeforeFlipping );
+            if ( queuedJob == null )
+            {
+                return null;
+            }
+            return queuedJob.addPopulatorsIfNotStarted( () -> indexProxyCreator.createPopulatingIndexProxy( descriptor, monitor, queuedJob ) );
+        }
+
         void startPopulation()
         {
             if ( nodePopulationJob != null )
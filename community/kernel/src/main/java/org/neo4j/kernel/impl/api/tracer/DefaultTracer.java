@@ -20,6 +20,7 @@
 package org.neo4j.kernel.impl.api.tracer;
 
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
@@ -36,6 +37,9 @@ import org.neo4j.kernel.impl.transaction.tracing.LogRotateEvent;
 import org.neo4j.kernel.impl.transaction.tracing.StoreApplyEvent;
 import org.neo4j.kernel.impl.transaction.tracing.TransactionEvent;
 
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogVersions.CURRENT_FORMAT_LOG_HEADER_SIZE;
 
 /**
@@ -46,6 +50,10 @@ public class DefaultTracer implements DatabaseTracer
     private final AtomicLong appendedBytes = new AtomicLong();
     private final AtomicLong numberOfFlushes = new AtomicLong();
     private final AtomicLong appliedBatchSize = new AtomicLong();
+    private final AtomicLongArray forcedBatchSizes = new AtomicLongArray( BATCH_SIZE_BUCKETS );
+    private final AtomicLong logForceTimeNanos = new AtomicLong();
+    private final AtomicLong lastLogForceTimeNanos = new AtomicLong();
+    private final AtomicLong groupCommitWaitTimeNanos = new AtomicLong();
 
     private final CountingLogRotateEvent countingLogRotateEvent = new CountingLogRotateEvent();
     private final LogFileCreateEvent logFileCreateEvent = () -> appendedBytes.addAndGet( CURRENT_FORMAT_LOG_HEADER_SIZE );
@@ -108,6 +116,35 @@ public class DefaultTracer implements DatabaseTracer
         return appliedBatchSize.get();
     }
 
+    @Override
+    public long[] transactionLogAppendBatchSizes()
+    {
+        long[] batchSizes = new long[BATCH_SIZE_BUCKETS];
+        for ( int i = 0; i < BATCH_SIZE_BUCKETS; i++ )
+        {
+            batchSizes[i] = forcedBatchSizes.get( i );
+        }
+        return batchSizes;
+    }
+
+    @Override
+    public long logForceAccumulatedTotalTimeMicros()
+    {
+        return NANOSECONDS.toMicros( logForceTimeNanos.get() );
+    }
+
+    @Override
+    public long lastLogForceTimeMicros()
+    {
+        return NANOSECONDS.toMicros( lastLogForceTimeNanos.get() );
+    }
+
+    @Override
+    public long groupCommitWaitAccumulatedTotalTimeMicros()
+    {
+        return NANOSECONDS.toMicros( groupCommitWaitTimeNanos.get() );
+    }
+
     @Override
     public long numberOfCheckPoints()
     {
@@ -141,6 +178,15 @@ public class DefaultTracer implements DatabaseTracer
         appendedBytes.addAndGet( logPositionAfterAppend.getByteOffset() - logPositionBeforeAppend.getByteOffset() );
     }
 
+    private void batchForced( int batchSize, long waitTimeNanos, long forceTimeNanos )
+    {
+        int bucket = min( BATCH_SIZE_BUCKETS - 1, 31 - Integer.numberOfLeadingZeros( max( batchSize, 1 ) ) );
+        forcedBatchSizes.incrementAndGet( bucket );
+        logForceTimeNanos.addAndGet( forceTimeNanos );
+        lastLogForceTimeNanos.set( forceTimeNanos );
+        groupCommitWaitTimeNanos.addAndGet( waitTimeNanos );
+    }
+
     @Override
     public LogFileCreateEvent createLogFile()
     {
@@ -246,6 +292,12 @@ public class DefaultTracer implements DatabaseTracer
             return AppendTransactionEvent.NULL;
         }
 
+        @Override
+        public void batchForced( int batchSize, long waitTimeNanos, long forceTimeNanos )
+        {
+            DefaultTracer.this.batchForced( batchSize, waitTimeNanos, forceTimeNanos );
+        }
+
         @Override
         public LogForceWaitEvent beginLogForceWait()
         {
@@ -20,6 +20,7 @@
 package org.neo4j.kernel.impl.index.schema;
 
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
 import org.neo4j.internal.schema.IndexProviderDescriptor;
@@ -34,6 +35,8 @@ import org.neo4j.kernel.impl.factory.OperationalMode;
 import org.neo4j.logging.Log;
 import org.neo4j.logging.internal.LogService;
 import org.neo4j.monitoring.Monitors;
+import org.neo4j.scheduler.CallableExecutor;
+import org.neo4j.scheduler.Group;
 import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.token.TokenHolders;
 
@@ -66,4 +69,12 @@ public abstract class AbstractIndexProviderFactory<T extends IndexProvider>
                                          RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, DatabaseLayout databaseLayout,
                                          PageCacheTracer pageCacheTracer, Log log, TokenHolders tokenHolders, JobScheduler scheduler );
 
+    /**
+     * @return executor that index updaters spread batches of updates over, or {@code null} if
+     * {@link GraphDatabaseInternalSettings#index_concurrent_writers concurrent writers} are disabled.
+     */
+    protected static CallableExecutor updateApplierExecutor( Config config, JobScheduler scheduler )
+    {
+        return config.get( GraphDatabaseInternalSettings.index_concurrent_writers ) ? scheduler.executor( Group.INDEX_UPDATE_WORK ) : null;
+    }
 }
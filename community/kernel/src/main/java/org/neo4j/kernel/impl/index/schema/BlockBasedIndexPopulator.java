@@ -101,6 +101,10 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>>
      * i.e. the number of blocks shrinks by a factor {@link #mergeFactor} every pass, until one block is left.
      */
     private final int mergeFactor;
+    /**
+     * Ratio of each tree node to fill when bulk loading the merged scan updates into the empty tree.
+     */
+    private final double bulkLoadFillFactor;
     private final BlockStorage.Monitor blockStorageMonitor;
     // written to in a synchronized method when creating new thread-local instances, read from when population completes
     private final List<ThreadLocalBlockStorage> allScanUpdates = new CopyOnWriteArrayList<>();
@@ -134,6 +138,7 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>>
         this.archiveFailedIndex = archiveFailedIndex;
         this.memoryTracker = memoryTracker;
         this.mergeFactor = config.get( GraphDatabaseInternalSettings.index_populator_merge_factor );
+        this.bulkLoadFillFactor = config.get( GraphDatabaseInternalSettings.index_populator_bulk_load_fill_factor );
         this.blockStorageMonitor = blockStorageMonitor;
         this.scanUpdates = ThreadLocal.withInitial( this::newThreadLocalBlockStorage );
         this.bufferFactory = bufferFactory;
@@ -428,14 +433,29 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>>
                 }
             }
 
+            // The tree is empty and the merged entries come in sorted order, so they can be bulk loaded into leaves filled up to the fill factor,
+            // without descending the tree for every entry
             Comparator<KEY> samplingComparator = descriptor.isUnique() ? null : layout::compareValue;
             try ( var merger = new PartMerger<>( populationWorkScheduler, parts, layout, samplingComparator, cancellation, PartMerger.DEFAULT_BATCH_SIZE );
                   var allEntries = merger.startMerge();
-                  var writer = tree.writer( 1, cursorContext ) )
+                  var loader = tree.bulkLoader( bulkLoadFillFactor, cursorContext ) )
             {
+                KEY previousKey = layout.newKey();
+                boolean hasPreviousKey = false;
                 while ( allEntries.next() && !cancellation.cancelled() )
                 {
-                    writeToTree( writer, recordingConflictDetector, allEntries.key() );
+                    KEY key = allEntries.key();
+                    if ( !hasPreviousKey || layout.compare( previousKey, key ) != 0 )
+                    {
+                        if ( hasPreviousKey && descriptor.isUnique() && layout.compareValue( previousKey, key ) == 0 )
+                        {
+                            // Same value for different entities, record it so that uniqueness is verified after external updates has been applied
+                            recordingConflictDetector.doReportConflict( previousKey.getEntityId(), key.getEntityId(), key );
+                        }
+                        loader.add( key, NullValue.INSTANCE );
+                        layout.copyKey( key, previousKey );
+                        hasPreviousKey = true;
+                    }
                     numberOfAppliedScanUpdates.incrementAndGet();
                 }
                 return descriptor.isUnique() ? null : allEntries.buildIndexSample();
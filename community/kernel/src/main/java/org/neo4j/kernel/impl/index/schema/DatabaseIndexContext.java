@@ -24,6 +24,7 @@ import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.monitoring.Monitors;
+import org.neo4j.scheduler.CallableExecutor;
 
 public class DatabaseIndexContext
 {
@@ -34,9 +35,12 @@ public class DatabaseIndexContext
     final DatabaseReadOnlyChecker readOnlyChecker;
     final PageCacheTracer pageCacheTracer;
     final String databaseName;
+    final boolean concurrentWriters;
+    final CallableExecutor updateApplierExecutor;
 
     private DatabaseIndexContext( PageCache pageCache, FileSystemAbstraction fileSystem, Monitors monitors, String monitorTag,
-            DatabaseReadOnlyChecker readOnlyChecker, PageCacheTracer pageCacheTracer, String databaseName )
+            DatabaseReadOnlyChecker readOnlyChecker, PageCacheTracer pageCacheTracer, String databaseName, boolean concurrentWriters,
+            CallableExecutor updateApplierExecutor )
     {
         this.pageCache = pageCache;
         this.fileSystem = fileSystem;
@@ -45,6 +49,8 @@ public class DatabaseIndexContext
         this.readOnlyChecker = readOnlyChecker;
         this.pageCacheTracer = pageCacheTracer;
         this.databaseName = databaseName;
+        this.concurrentWriters = concurrentWriters;
+        this.updateApplierExecutor = updateApplierExecutor;
     }
 
     /**
@@ -70,7 +76,9 @@ public class DatabaseIndexContext
                 .withReadOnlyChecker( copy.readOnlyChecker )
                 .withMonitors( copy.monitors )
                 .withTag( copy.monitorTag )
-                .withPageCacheTracer( copy.pageCacheTracer );
+                .withPageCacheTracer( copy.pageCacheTracer )
+                .withConcurrentWriters( copy.concurrentWriters )
+                .withUpdateApplierExecutor( copy.updateApplierExecutor );
     }
 
     public static class Builder
@@ -82,6 +90,8 @@ public class DatabaseIndexContext
         private String monitorTag;
         private DatabaseReadOnlyChecker readOnlyChecker;
         private PageCacheTracer pageCacheTracer;
+        private boolean concurrentWriters;
+        private CallableExecutor updateApplierExecutor;
 
         private Builder( PageCache pageCache, FileSystemAbstraction fileSystem, String databaseName )
         {
@@ -142,9 +152,36 @@ public class DatabaseIndexContext
             return this;
         }
 
+        /**
+         * Default is false
+         *
+         * @param concurrentWriters whether or not index updaters should write to the index using concurrent writers,
+         * so that updaters for the same index can be used in parallel.
+         * @return {@link Builder this builder}
+         */
+        public Builder withConcurrentWriters( boolean concurrentWriters )
+        {
+            this.concurrentWriters = concurrentWriters;
+            return this;
+        }
+
+        /**
+         * Default is {@code null}, batches of updates are applied by the thread closing the updater.
+         *
+         * @param updateApplierExecutor executor to spread batches of updates that are not applied online over, e.g. during recovery.
+         * Only used together with {@link #withConcurrentWriters(boolean) concurrent writers}.
+         * @return {@link Builder this builder}
+         */
+        public Builder withUpdateApplierExecutor( CallableExecutor updateApplierExecutor )
+        {
+            this.updateApplierExecutor = updateApplierExecutor;
+            return this;
+        }
+
         public DatabaseIndexContext build()
         {
-            return new DatabaseIndexContext( pageCache, fileSystem, monitors, monitorTag, readOnlyChecker, pageCacheTracer, databaseName );
+            return new DatabaseIndexContext( pageCache, fileSystem, monitors, monitorTag, readOnlyChecker, pageCacheTracer, databaseName,
+                    concurrentWriters, updateApplierExecutor );
         }
     }
 }
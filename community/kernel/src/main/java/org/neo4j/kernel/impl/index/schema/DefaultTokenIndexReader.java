@@ -45,10 +45,17 @@ public class DefaultTokenIndexReader implements TokenIndexReader
 {
 
     private final GBPTree<TokenScanKey,TokenScanValue> index;
+    private final int rangeSize;
 
     public DefaultTokenIndexReader( GBPTree<TokenScanKey,TokenScanValue> index )
+    {
+        this( index, RANGE_SIZE );
+    }
+
+    DefaultTokenIndexReader( GBPTree<TokenScanKey,TokenScanValue> index, int rangeSize )
     {
         this.index = index;
+        this.rangeSize = rangeSize;
     }
 
     @Override
@@ -107,7 +114,7 @@ public class DefaultTokenIndexReader implements TokenIndexReader
         try ( Seeker<TokenScanKey,TokenScanValue> seeker = index.seek( new TokenScanKey( tokenId, Long.MAX_VALUE ),
                 new TokenScanKey( tokenId, Long.MIN_VALUE ), cursorContext ) )
         {
-            return seeker.next() ? (seeker.key().idRange + 1) * RANGE_SIZE : 0;
+            return seeker.next() ? (seeker.key().idRange + 1) * rangeSize : 0;
         }
     }
 
@@ -124,8 +131,8 @@ public class DefaultTokenIndexReader implements TokenIndexReader
             rangeTo = tmp;
         }
 
-        TokenScanKey fromKey = new TokenScanKey( tokenId, rangeOf( rangeFrom ) );
-        TokenScanKey toKey = new TokenScanKey( tokenId, rangeOf( rangeTo ) );
+        TokenScanKey fromKey = new TokenScanKey( tokenId, rangeOf( rangeFrom, rangeSize ) );
+        TokenScanKey toKey = new TokenScanKey( tokenId, rangeOf( rangeTo, rangeSize ) );
         return index.seek( fromKey, toKey, cursorContext );
     }
 
@@ -136,9 +143,9 @@ public class DefaultTokenIndexReader implements TokenIndexReader
     }
 
     @VisibleForTesting
-    static long roundUp( long sizeHint )
+    static long roundUp( long sizeHint, int rangeSize )
     {
-        return ((sizeHint + RANGE_SIZE - 1) / RANGE_SIZE) * RANGE_SIZE;
+        return ((sizeHint + rangeSize - 1) / rangeSize) * rangeSize;
     }
 
     private class NativeTokenScan implements TokenScan
@@ -167,7 +174,7 @@ public class DefaultTokenIndexReader implements TokenIndexReader
             {
                 return IndexProgressor.EMPTY;
             }
-            long size = roundUp( sizeHint );
+            long size = roundUp( sizeHint, rangeSize );
             long start = nextStart.getAndAdd( size );
             long stop = Math.min( start + size, max );
             if ( start >= max )
@@ -204,8 +211,8 @@ public class DefaultTokenIndexReader implements TokenIndexReader
         {
             Preconditions.requirePositive( desiredNumberOfPartitions );
             int tokenId = query.tokenId();
-            final var fromInclusive = new TokenScanKey( tokenId, rangeOf( range.fromInclusive ) );
-            final var toExclusive = new TokenScanKey( tokenId, rangeOf( range.toExclusive ) );
+            final var fromInclusive = new TokenScanKey( tokenId, rangeOf( range.fromInclusive, rangeSize ) );
+            final var toExclusive = new TokenScanKey( tokenId, rangeOf( range.toExclusive, rangeSize ) );
             final var partitions = index.partitionedSeek( fromInclusive, toExclusive, desiredNumberOfPartitions, cursorContext );
             this.numberOfPartitions = partitions.size();
             this.partitions = partitions.iterator();
@@ -27,7 +27,6 @@ import org.neo4j.common.EntityType;
 
 import static java.lang.Math.toIntExact;
 import static org.neo4j.collection.PrimitiveLongCollections.EMPTY_LONG_ARRAY;
-import static org.neo4j.kernel.impl.index.schema.TokenScanValue.RANGE_SIZE;
 
 /**
  * Represents a range of entities and token ids attached to those entities. All entities in the range are present in
@@ -36,7 +35,6 @@ import static org.neo4j.kernel.impl.index.schema.TokenScanValue.RANGE_SIZE;
  */
 public class EntityTokenRangeImpl implements EntityTokenRange
 {
-    public static final long[][] NO_TOKENS = new long[RANGE_SIZE][];
     private final long idRange;
     private final long[] entities;
     private final long[][] tokens;
@@ -66,6 +64,17 @@ public class EntityTokenRangeImpl implements EntityTokenRange
         }
     }
 
+    /**
+     * @param entityId entity to cover.
+     * @param rangeSize number of entity ids covered by each range of the token index, see {@link TokenIndexAccessor#rangeSize()}.
+     * @param entityType type of entity.
+     * @return the range of the given size that covers the entity, without any tokens.
+     */
+    public static EntityTokenRangeImpl withoutTokens( long entityId, int rangeSize, EntityType entityType )
+    {
+        return new EntityTokenRangeImpl( entityId / rangeSize, new long[rangeSize][], entityType );
+    }
+
     @Override
     public long id()
     {
@@ -136,11 +145,22 @@ public class EntityTokenRangeImpl implements EntityTokenRange
         return toString( prefix, entities, tokens );
     }
 
-    static void readBitmap( long bitmap, long tokenId, MutableLongList[] tokensPerEntity )
+    static void readBitmap( TokenScanValue value, long tokenId, MutableLongList[] tokensPerEntity )
+    {
+        long nonEmptyWords = value.nonEmptyWords;
+        while ( nonEmptyWords != 0 )
+        {
+            int word = Long.numberOfTrailingZeros( nonEmptyWords );
+            readBitmap( value.word( word ), word * Long.SIZE, tokenId, tokensPerEntity );
+            nonEmptyWords &= nonEmptyWords - 1;
+        }
+    }
+
+    private static void readBitmap( long bitmap, int baseRelativeEntityId, long tokenId, MutableLongList[] tokensPerEntity )
     {
         while ( bitmap != 0 )
         {
-            int relativeEntityId = Long.numberOfTrailingZeros( bitmap );
+            int relativeEntityId = baseRelativeEntityId + Long.numberOfTrailingZeros( bitmap );
             if ( tokensPerEntity[relativeEntityId] == null )
             {
                 tokensPerEntity[relativeEntityId] = new LongArrayList();
@@ -333,6 +333,78 @@ public abstract class GenericKey<KEY extends GenericKey<KEY>> extends NativeInde
         return true;
     }
 
+    /**
+     * Writes this key with the entity id after the values and, if the value in the last slot is a text, its length after its bytes.
+     * That way keys that start with the same values also start with the same bytes, which is what layouts that
+     * {@link org.neo4j.index.internal.gbptree.Layout#compressKeyPrefixes() compress key prefixes} need.
+     * Takes the same number of bytes as {@link #put(PageCursor)}.
+     */
+    void putPrefixFriendly( PageCursor cursor )
+    {
+        int lastSlot = numberOfStateSlots() - 1;
+        for ( int i = 0; i < lastSlot; i++ )
+        {
+            stateSlot( i ).putInternal( cursor );
+        }
+        KEY last = stateSlot( lastSlot );
+        if ( last.type == Types.TEXT )
+        {
+            cursor.putByte( Types.TEXT.typeId );
+            TextType.putLengthLast( cursor, last.byteArray, last.long0, last.long2 );
+        }
+        else
+        {
+            last.putInternal( cursor );
+        }
+        cursor.putLong( getEntityId() );
+    }
+
+    /**
+     * Reads a key written by {@link #putPrefixFriendly(PageCursor)}.
+     */
+    boolean getPrefixFriendly( PageCursor cursor, int size )
+    {
+        if ( size < ENTITY_ID_SIZE )
+        {
+            initializeToDummyValue();
+            cursor.setCursorException( format( "Failed to read " + getClass().getSimpleName() +
+                    " due to keySize < ENTITY_ID_SIZE, more precisely %d", size ) );
+            return false;
+        }
+
+        int valuesEnd = cursor.getOffset() + size - ENTITY_ID_SIZE;
+        initialize( cursor.getLong( valuesEnd ) );
+        int lastSlot = numberOfStateSlots() - 1;
+        for ( int i = 0; i < lastSlot; i++ )
+        {
+            if ( !stateSlot( i ).getInternal( cursor, valuesEnd - cursor.getOffset() ) )
+            {
+                initializeToDummyValue();
+                return false;
+            }
+        }
+        if ( !stateSlot( lastSlot ).getLastInternal( cursor, valuesEnd - cursor.getOffset() ) )
+        {
+            initializeToDummyValue();
+            return false;
+        }
+        cursor.setOffset( valuesEnd + ENTITY_ID_SIZE );
+        return true;
+    }
+
+    boolean getLastInternal( PageCursor cursor, int size )
+    {
+        if ( size <= TYPE_ID_SIZE || cursor.getByte( cursor.getOffset() ) != Types.TEXT.typeId )
+        {
+            return getInternal( cursor, size );
+        }
+
+        cursor.getByte();
+        inclusion = NEUTRAL;
+        setType( Types.TEXT );
+        return TextType.readLengthLast( cursor, size - TYPE_ID_SIZE, this );
+    }
+
     boolean getInternal( PageCursor cursor, int size )
     {
         if ( size <= TYPE_ID_SIZE )
@@ -51,13 +51,21 @@ class NativeAllEntriesTokenScanReader implements AllEntriesTokenScanReader
     private final List<Seeker<TokenScanKey,TokenScanValue>> cursors = new ArrayList<>();
     private final int highestTokenId;
     private final EntityType entityType;
+    private final int rangeSize;
 
     NativeAllEntriesTokenScanReader( IntFunction<Seeker<TokenScanKey,TokenScanValue>> seekProvider,
             int highestTokenId, EntityType entityType )
+    {
+        this( seekProvider, highestTokenId, entityType, RANGE_SIZE );
+    }
+
+    NativeAllEntriesTokenScanReader( IntFunction<Seeker<TokenScanKey,TokenScanValue>> seekProvider,
+            int highestTokenId, EntityType entityType, int rangeSize )
     {
         this.seekProvider = seekProvider;
         this.highestTokenId = highestTokenId;
         this.entityType = entityType;
+        this.rangeSize = rangeSize;
     }
 
     @Override
@@ -116,7 +124,7 @@ class NativeAllEntriesTokenScanReader implements AllEntriesTokenScanReader
         private final EntityType entityType;
 
         // entityId (relative to lowestRange) --> tokenId[]
-        private final MutableLongList[] tokensForEachEntity = new MutableLongList[RANGE_SIZE];
+        private final MutableLongList[] tokensForEachEntity = new MutableLongList[rangeSize];
 
         EntityTokenRangeIterator( long lowestRange, EntityType entityType )
         {
@@ -149,9 +157,8 @@ class NativeAllEntriesTokenScanReader implements AllEntriesTokenScanReader
                     }
                     else if ( idRange == currentRange )
                     {
-                        long bits = cursor.value().bits;
                         long tokenId = cursor.key().tokenId;
-                        EntityTokenRangeImpl.readBitmap( bits, tokenId, tokensForEachEntity );
+                        EntityTokenRangeImpl.readBitmap( cursor.value(), tokenId, tokensForEachEntity );
 
                         // Advance cursor and look ahead to the next range
                         if ( cursor.next() )
@@ -31,10 +31,13 @@ import org.neo4j.index.internal.gbptree.TreeInconsistencyException;
 import org.neo4j.internal.helpers.collection.BoundedIterable;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.api.index.IndexAccessor;
 import org.neo4j.kernel.api.index.IndexEntriesReader;
+import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.kernel.api.index.ValueIndexReader;
 import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
+import org.neo4j.scheduler.CallableExecutor;
 import org.neo4j.storageengine.api.NodePropertyAccessor;
 import org.neo4j.values.storable.Value;
 
@@ -46,6 +49,9 @@ public abstract class NativeIndexAccessor<KEY extends NativeIndexKey<KEY>> exten
         implements IndexAccessor
 {
     private final NativeIndexUpdater<KEY> singleUpdater;
+    private final boolean concurrentWriters;
+    private final CallableExecutor updateApplierExecutor;
+    private final PageCacheTracer pageCacheTracer;
     final NativeIndexHeaderWriter headerWriter;
 
     NativeIndexAccessor( DatabaseIndexContext databaseIndexContext, IndexFiles indexFiles, IndexLayout<KEY> layout,
@@ -53,6 +59,9 @@ public abstract class NativeIndexAccessor<KEY extends NativeIndexKey<KEY>> exten
     {
         super( databaseIndexContext, layout, indexFiles, descriptor );
         singleUpdater = new NativeIndexUpdater<>( layout.newKey(), indexUpdateIgnoreStrategy() );
+        concurrentWriters = databaseIndexContext.concurrentWriters;
+        updateApplierExecutor = databaseIndexContext.updateApplierExecutor;
+        pageCacheTracer = databaseIndexContext.pageCacheTracer;
         headerWriter = new NativeIndexHeaderWriter( BYTE_ONLINE );
     }
 
@@ -65,11 +74,23 @@ public abstract class NativeIndexAccessor<KEY extends NativeIndexKey<KEY>> exten
     }
 
     @Override
-    public NativeIndexUpdater<KEY> newUpdater( IndexUpdateMode mode, CursorContext cursorContext )
+    public IndexUpdater newUpdater( IndexUpdateMode mode, CursorContext cursorContext )
     {
         assertOpen();
         try
         {
+            if ( concurrentWriters )
+            {
+                if ( mode == IndexUpdateMode.ONLINE )
+                {
+                    // Each updater gets its own writer and writes in place, so that updaters can be used in parallel
+                    return new NativeIndexUpdater<>( layout.newKey(), indexUpdateIgnoreStrategy() ).initialize( tree.concurrentWriter( cursorContext ) );
+                }
+                // Batches applied with care for idempotency, e.g. during recovery, are split by key range over several appliers
+                int maxAppliers = updateApplierExecutor != null ? Runtime.getRuntime().availableProcessors() : 1;
+                return new PartitionedNativeIndexUpdater<>( tree, layout, indexUpdateIgnoreStrategy(), descriptor.isUnique(), updateApplierExecutor,
+                        maxAppliers, pageCacheTracer, cursorContext );
+            }
             return singleUpdater.initialize( tree.writer( cursorContext ) );
         }
         catch ( IOException e )
@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.internal.helpers.Exceptions;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
+import org.neo4j.scheduler.CallableExecutor;
+import org.neo4j.storageengine.api.IndexEntryUpdate;
+import org.neo4j.storageengine.api.ValueIndexEntryUpdate;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueTuple;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * {@link IndexUpdater} for native indexes with {@link GBPTree#concurrentWriter(CursorContext) concurrent writers}, used for batches of updates
+ * that are not applied {@link IndexUpdateMode#ONLINE online}, e.g. during recovery. Updates are collected and written when the updater is closed.
+ * <p>
+ * The collected key changes are sorted by value and split into key ranges, each range applied by its own thread using a concurrent writer of its own.
+ * Changes of equal values are never split over two ranges and are applied in the order they were processed, so a value moving from one entity
+ * to another within the batch is applied in order. For unique indexes each range also checks that the batch doesn't leave two entities
+ * holding the same value.
+ */
+class PartitionedNativeIndexUpdater<KEY extends NativeIndexKey<KEY>> implements IndexUpdater
+{
+    static final int MIN_UPDATES_PER_APPLIER = 1_000;
+    private static final String APPLIER_TAG = "partitionedIndexUpdateApplier";
+
+    private final GBPTree<KEY,NullValue> tree;
+    private final IndexLayout<KEY> layout;
+    private final IndexUpdateIgnoreStrategy ignoreStrategy;
+    private final boolean unique;
+    private final CallableExecutor executor;
+    private final int maxAppliers;
+    private final PageCacheTracer pageCacheTracer;
+    private final CursorContext cursorContext;
+    private final List<KeyChange<KEY>> changes = new ArrayList<>();
+    private boolean closed;
+
+    PartitionedNativeIndexUpdater( GBPTree<KEY,NullValue> tree, IndexLayout<KEY> layout, IndexUpdateIgnoreStrategy ignoreStrategy, boolean unique,
+            CallableExecutor executor, int maxAppliers, PageCacheTracer pageCacheTracer, CursorContext cursorContext )
+    {
+        this.tree = tree;
+        this.layout = layout;
+        this.ignoreStrategy = ignoreStrategy;
+        this.unique = unique;
+        this.executor = executor;
+        this.maxAppliers = maxAppliers;
+        this.pageCacheTracer = pageCacheTracer;
+        this.cursorContext = cursorContext;
+    }
+
+    @Override
+    public void process( IndexEntryUpdate<?> update )
+    {
+        assertOpen();
+        ValueIndexEntryUpdate<?> valueUpdate = asValueUpdate( update );
+        switch ( valueUpdate.updateMode() )
+        {
+        case REMOVED:
+            collect( valueUpdate.getEntityId(), valueUpdate.values(), false );
+            break;
+        case CHANGED:
+            collect( valueUpdate.getEntityId(), valueUpdate.beforeValues(), false );
+            // fallthrough
+        case ADDED:
+            collect( valueUpdate.getEntityId(), valueUpdate.values(), true );
+            break;
+        default:
+            throw new IllegalArgumentException();
+        }
+    }
+
+    private void collect( long entityId, Value[] values, boolean add )
+    {
+        if ( ignoreStrategy.ignore( values ) )
+        {
+            return;
+        }
+        KEY key = layout.newKey();
+        NativeIndexUpdater.initializeKeyFromUpdate( key, entityId, values );
+        changes.add( new KeyChange<>( key, values, add ) );
+    }
+
+    @Override
+    public void close() throws IndexEntryConflictException
+    {
+        if ( closed )
+        {
+            return;
+        }
+        closed = true;
+        try
+        {
+            if ( changes.isEmpty() )
+            {
+                return;
+            }
+            // The sort is stable, so changes of equal values stay in the order they were processed
+            changes.sort( ( a, b ) -> a.key.compareValueTo( b.key ) );
+            List<List<KeyChange<KEY>>> ranges = splitIntoKeyRanges( min( maxAppliers, max( 1, changes.size() / MIN_UPDATES_PER_APPLIER ) ) );
+            if ( ranges.size() > 1 )
+            {
+                applyInParallel( ranges );
+            }
+            else
+            {
+                apply( changes, cursorContext );
+            }
+        }
+        finally
+        {
+            changes.clear();
+        }
+    }
+
+    private List<List<KeyChange<KEY>>> splitIntoKeyRanges( int parts )
+    {
+        List<List<KeyChange<KEY>>> ranges = new ArrayList<>( parts );
+        int size = changes.size();
+        int from = 0;
+        for ( int part = 1; part <= parts && from < size; part++ )
+        {
+            int to = max( from + 1, (int) ((long) size * part / parts) );
+            // Changes of equal values must end up in the same range
+            while ( to < size && changes.get( to - 1 ).key.compareValueTo( changes.get( to ).key ) == 0 )
+            {
+                to++;
+            }
+            ranges.add( changes.subList( from, to ) );
+            from = to;
+        }
+        return ranges;
+    }
+
+    private void applyInParallel( List<List<KeyChange<KEY>>> ranges ) throws IndexEntryConflictException
+    {
+        List<Future<Void>> helpers = new ArrayList<>( ranges.size() - 1 );
+        for ( int i = 1; i < ranges.size(); i++ )
+        {
+            List<KeyChange<KEY>> range = ranges.get( i );
+            helpers.add( executor.submit( () ->
+            {
+                try ( CursorContext applierContext = new CursorContext( pageCacheTracer.createPageCursorTracer( APPLIER_TAG ) ) )
+                {
+                    apply( range, applierContext );
+                }
+                return null;
+            } ) );
+        }
+
+        // The closing thread applies the first range itself. Its writer is closed before waiting for the helpers,
+        // otherwise a checkpoint waiting for this writer would keep the helpers from getting theirs.
+        Throwable failure = null;
+        try
+        {
+            apply( ranges.get( 0 ), cursorContext );
+        }
+        catch ( IndexEntryConflictException | RuntimeException e )
+        {
+            failure = e;
+        }
+        for ( Future<Void> helper : helpers )
+        {
+            try
+            {
+                helper.get();
+            }
+            catch ( ExecutionException e )
+            {
+                failure = Exceptions.chain( failure, e.getCause() );
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                failure = Exceptions.chain( failure, e );
+            }
+        }
+        if ( failure != null )
+        {
+            Exceptions.throwIfInstanceOf( failure, IndexEntryConflictException.class );
+            Exceptions.throwIfUnchecked( failure );
+            throw new IllegalStateException( "Failed to apply index updates", failure );
+        }
+    }
+
+    private void apply( List<KeyChange<KEY>> range, CursorContext cursorContext ) throws IndexEntryConflictException
+    {
+        ConflictDetectingValueMerger<KEY,Value[]> conflictDetectingValueMerger = new ThrowingConflictDetector<>( true );
+        try ( Writer<KEY,NullValue> writer = tree.concurrentWriter( cursorContext ) )
+        {
+            int equalValuesFrom = 0;
+            for ( int i = 0; i < range.size(); i++ )
+            {
+                KeyChange<KEY> change = range.get( i );
+                if ( change.add )
+                {
+                    conflictDetectingValueMerger.controlConflictDetection( change.key );
+                    writer.merge( change.key, NullValue.INSTANCE, conflictDetectingValueMerger );
+                    conflictDetectingValueMerger.checkConflict( change.values );
+                }
+                else
+                {
+                    writer.remove( change.key );
+                }
+                if ( unique && (i + 1 == range.size() || change.key.compareValueTo( range.get( i + 1 ).key ) != 0) )
+                {
+                    checkUniqueWithinBatch( range.subList( equalValuesFrom, i + 1 ) );
+                    equalValuesFrom = i + 1;
+                }
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    /**
+     * @param equalValues changes of one and the same value, in the order they were processed.
+     * @throws IndexEntryConflictException if the changes leave more than one entity holding the value.
+     */
+    private static <KEY extends NativeIndexKey<KEY>> void checkUniqueWithinBatch( List<KeyChange<KEY>> equalValues ) throws IndexEntryConflictException
+    {
+        if ( equalValues.size() < 2 )
+        {
+            return;
+        }
+        MutableLongSet holders = new LongHashSet();
+        for ( KeyChange<KEY> change : equalValues )
+        {
+            if ( change.add )
+            {
+                holders.add( change.key.getEntityId() );
+            }
+            else
+            {
+                holders.remove( change.key.getEntityId() );
+            }
+        }
+        if ( holders.size() > 1 )
+        {
+            long[] entityIds = holders.toSortedArray();
+            throw new IndexEntryConflictException( entityIds[0], entityIds[1], ValueTuple.of( equalValues.get( 0 ).values ) );
+        }
+    }
+
+    private void assertOpen()
+    {
+        if ( closed )
+        {
+            throw new IllegalStateException( "Updater has been closed" );
+        }
+    }
+
+    private static class KeyChange<KEY>
+    {
+        private final KEY key;
+        private final Value[] values;
+        private final boolean add;
+
+        KeyChange( KEY key, Value[] values, boolean add )
+        {
+            this.key = key;
+            this.values = values;
+            this.add = add;
+        }
+    }
+}
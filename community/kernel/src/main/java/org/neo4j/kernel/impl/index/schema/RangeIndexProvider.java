@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.EnumSet;
@@ -27,6 +28,7 @@ import org.neo4j.common.TokenNameLookup;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.MetadataMismatchException;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
 import org.neo4j.internal.kernel.api.PropertyIndexQuery;
 import org.neo4j.internal.schema.IndexCapability;
@@ -39,6 +41,7 @@ import org.neo4j.internal.schema.IndexQuery.IndexQueryType;
 import org.neo4j.internal.schema.IndexType;
 import org.neo4j.internal.schema.IndexValueCapability;
 import org.neo4j.io.memory.ByteBufferFactory;
+import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.kernel.api.index.IndexAccessor;
 import org.neo4j.kernel.api.index.IndexDirectoryStructure;
 import org.neo4j.kernel.api.index.IndexPopulator;
@@ -135,7 +138,27 @@ public class RangeIndexProvider extends NativeIndexProvider<RangeKey,RangeLayout
     RangeLayout layout( IndexDescriptor descriptor, Path storeFile )
     {
         int numberOfSlots = descriptor.schema().getPropertyIds().length;
-        return new RangeLayout( numberOfSlots );
+        boolean compressKeyPrefixes = storeFile == null ? config.get( GraphDatabaseInternalSettings.range_index_key_prefix_compression )
+                                                        : hasPrefixCompressedLayout( storeFile, numberOfSlots );
+        return new RangeLayout( numberOfSlots, compressKeyPrefixes );
+    }
+
+    /**
+     * An existing index is opened with the layout it was created with, regardless of what the setting says now.
+     */
+    private boolean hasPrefixCompressedLayout( Path storeFile, int numberOfSlots )
+    {
+        try
+        {
+            GBPTree.readHeader( databaseIndexContext.pageCache, storeFile, new RangeLayout( numberOfSlots, true ), headerData -> {},
+                    databaseIndexContext.databaseName, CursorContext.NULL );
+            return true;
+        }
+        catch ( MetadataMismatchException | IOException e )
+        {
+            // Either created with the plain layout or not possible to read, in which case opening the index will tell
+            return false;
+        }
     }
 
     @Override
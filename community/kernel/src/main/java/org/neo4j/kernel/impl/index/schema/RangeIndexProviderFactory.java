@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.index.schema;
 import java.nio.file.Path;
 
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
 import org.neo4j.internal.schema.IndexProviderDescriptor;
@@ -32,6 +33,7 @@ import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.api.index.IndexDirectoryStructure;
 import org.neo4j.logging.Log;
 import org.neo4j.monitoring.Monitors;
+import org.neo4j.scheduler.CallableExecutor;
 import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.token.TokenHolders;
 import org.neo4j.util.VisibleForTesting;
@@ -60,7 +62,7 @@ public class RangeIndexProviderFactory extends AbstractIndexProviderFactory<Rang
             TokenHolders tokenHolders, JobScheduler scheduler )
     {
         return create( pageCache, databaseLayout.databaseDirectory(), fs, monitors, monitorTag, config, readOnlyChecker, recoveryCleanupWorkCollector,
-                       pageCacheTracer, databaseLayout.getDatabaseName() );
+                       pageCacheTracer, databaseLayout.getDatabaseName(), updateApplierExecutor( config, scheduler ) );
     }
 
     @VisibleForTesting
@@ -68,10 +70,21 @@ public class RangeIndexProviderFactory extends AbstractIndexProviderFactory<Rang
             String monitorTag, Config config, DatabaseReadOnlyChecker readOnlyChecker,
             RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, PageCacheTracer pageCacheTracer,
             String databaseName )
+    {
+        return create( pageCache, storeDir, fs, monitors, monitorTag, config, readOnlyChecker, recoveryCleanupWorkCollector,
+                pageCacheTracer, databaseName, null );
+    }
+
+    private static RangeIndexProvider create( PageCache pageCache, Path storeDir, FileSystemAbstraction fs, Monitors monitors,
+            String monitorTag, Config config, DatabaseReadOnlyChecker readOnlyChecker,
+            RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, PageCacheTracer pageCacheTracer,
+            String databaseName, CallableExecutor updateApplierExecutor )
     {
         IndexDirectoryStructure.Factory directoryStructure = directoriesByProvider( storeDir );
         DatabaseIndexContext databaseIndexContext = DatabaseIndexContext.builder( pageCache, fs, databaseName ).withMonitors( monitors ).withTag( monitorTag )
                                                                         .withReadOnlyChecker( readOnlyChecker ).withPageCacheTracer( pageCacheTracer )
+                                                                        .withConcurrentWriters( config.get( GraphDatabaseInternalSettings.index_concurrent_writers ) )
+                                                                        .withUpdateApplierExecutor( updateApplierExecutor )
                                                                         .build();
         return new RangeIndexProvider( databaseIndexContext, directoryStructure, recoveryCleanupWorkCollector, config );
     }
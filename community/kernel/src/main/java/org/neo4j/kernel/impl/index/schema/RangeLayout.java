@@ -25,11 +25,23 @@ import org.neo4j.io.pagecache.PageCursor;
 class RangeLayout extends IndexLayout<RangeKey>
 {
     private final int numberOfSlots;
+    private final boolean compressKeyPrefixes;
 
     RangeLayout( int numberOfSlots )
     {
-        super( false, Layout.namedIdentifier( "RL", numberOfSlots ), 0, 1 );
+        this( numberOfSlots, false );
+    }
+
+    /**
+     * @param compressKeyPrefixes whether or not to store keys in a tree that compresses their shared prefixes. Keys are then written
+     * with their values first, see {@link GenericKey#putPrefixFriendly(PageCursor)}, and the layout gets its own identifier so that
+     * a tree created with one of the variants can't be opened with the other.
+     */
+    RangeLayout( int numberOfSlots, boolean compressKeyPrefixes )
+    {
+        super( false, Layout.namedIdentifier( compressKeyPrefixes ? "RLP" : "RL", numberOfSlots ), 0, 1 );
         this.numberOfSlots = numberOfSlots;
+        this.compressKeyPrefixes = compressKeyPrefixes;
     }
 
     @Override
@@ -58,13 +70,33 @@ class RangeLayout extends IndexLayout<RangeKey>
     @Override
     public void writeKey( PageCursor cursor, RangeKey key )
     {
-        key.put( cursor );
+        if ( compressKeyPrefixes )
+        {
+            key.putPrefixFriendly( cursor );
+        }
+        else
+        {
+            key.put( cursor );
+        }
     }
 
     @Override
     public void readKey( PageCursor cursor, RangeKey into, int keySize )
     {
-        into.get( cursor, keySize );
+        if ( compressKeyPrefixes )
+        {
+            into.getPrefixFriendly( cursor, keySize );
+        }
+        else
+        {
+            into.get( cursor, keySize );
+        }
+    }
+
+    @Override
+    public boolean compressKeyPrefixes()
+    {
+        return compressKeyPrefixes;
     }
 
     @Override
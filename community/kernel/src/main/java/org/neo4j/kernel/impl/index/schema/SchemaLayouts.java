@@ -46,6 +46,7 @@ public class SchemaLayouts implements LayoutBootstrapper
                 genericLayout(),
                 idRangeLayout(),
                 ( indexFile, pageCache, meta ) -> new TokenScanLayout(),
+                ( indexFile, pageCache, meta ) -> new TokenScanLayout( TokenScanValue.WIDE_RANGE_WORDS ),
                 ( indexFile, pageCache, meta ) -> new IndexStatisticsLayout() ) );
     }
 
@@ -55,6 +56,7 @@ public class SchemaLayouts implements LayoutBootstrapper
                 "Generic layout",
                 "Id range layout",
                 "Label scan layout",
+                "Wide-range label scan layout",
                 "Index statistics layout"
         };
     }
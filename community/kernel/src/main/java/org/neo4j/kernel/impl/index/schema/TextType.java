@@ -191,6 +191,42 @@ class TextType extends Type
         return true;
     }
 
+    /**
+     * Like {@link #put(PageCursor, byte[], long, long)}, but with the length after the bytes, so that texts starting with the same characters
+     * also start with the same bytes.
+     */
+    static void putLengthLast( PageCursor cursor, byte[] byteArray, long long0, long long2 )
+    {
+        short length = toNonNegativeShortExact( long0 );
+        cursor.putBytes( byteArray, 0, length );
+        cursor.putShort( isCharValueType( long2 ) ? (short) (length | CHAR_TYPE_LENGTH_MARKER) : length );
+    }
+
+    /**
+     * Reads a text written by {@link #putLengthLast(PageCursor, byte[], long, long)} which is exactly {@code size} bytes.
+     */
+    static boolean readLengthLast( PageCursor cursor, int size, GenericKey<?> into )
+    {
+        int bytesLength = size - SIZE_STRING_LENGTH;
+        if ( bytesLength < 0 )
+        {
+            setCursorException( cursor, "non-valid size for text, " + size );
+            return false;
+        }
+        short rawLength = cursor.getShort( cursor.getOffset() + bytesLength );
+        if ( (short) (rawLength & ~CHAR_TYPE_LENGTH_MARKER) != bytesLength )
+        {
+            setCursorException( cursor, "non-valid bytes length for text, " + (rawLength & ~CHAR_TYPE_LENGTH_MARKER) + ", expected " + bytesLength );
+            return false;
+        }
+
+        setCharType( into, (rawLength & CHAR_TYPE_LENGTH_MARKER) != 0 );
+        setBytesLength( into, bytesLength );
+        cursor.getBytes( into.byteArray, 0, bytesLength );
+        cursor.getShort();
+        return true;
+    }
+
     static void setCharType( GenericKey<?> into, boolean isCharType )
     {
         if ( isCharType )
@@ -118,6 +118,11 @@ public class TokenIndex implements ConsistencyCheckable
     private final PageCacheTracer cacheTracer;
 
     private final String databaseName;
+    /**
+     * Layout of the {@link #index}, deciding the format and range size of its entries.
+     */
+    final TokenScanLayout layout;
+
     /**
      * The actual index which backs this token index.
      */
@@ -148,7 +153,7 @@ public class TokenIndex implements ConsistencyCheckable
      */
     private final IndexDescriptor monitoringDescriptor;
 
-    public TokenIndex( DatabaseIndexContext databaseIndexContext, IndexFiles indexFiles, IndexDescriptor descriptor )
+    public TokenIndex( DatabaseIndexContext databaseIndexContext, IndexFiles indexFiles, IndexDescriptor descriptor, Config config )
     {
         this.readOnlyChecker = databaseIndexContext.readOnlyChecker;
         this.monitors = databaseIndexContext.monitors;
@@ -160,12 +165,13 @@ public class TokenIndex implements ConsistencyCheckable
         this.indexFiles = indexFiles;
         this.tokenStoreName = descriptor.getName();
         this.monitoringDescriptor = descriptor;
+        this.layout = TokenScanLayout.fromConfig( config );
     }
 
     void instantiateTree( RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, Consumer<PageCursor> headerWriter )
     {
         GBPTree.Monitor monitor = treeMonitor();
-        index = new GBPTree<>( pageCache, indexFiles.getStoreFile(), new TokenScanLayout(), monitor, NO_HEADER_READER,
+        index = new GBPTree<>( pageCache, indexFiles.getStoreFile(), layout, monitor, NO_HEADER_READER,
                 headerWriter, recoveryCleanupWorkCollector, readOnlyChecker, cacheTracer, immutable.empty(), databaseName, tokenStoreName );
     }
 
@@ -174,7 +180,7 @@ public class TokenIndex implements ConsistencyCheckable
         writeMonitor = config.get( GraphDatabaseInternalSettings.token_scan_write_log_enabled )
                        ? new TokenScanWriteMonitor( fs, directoryStructure, entityType, config )
                        : EMPTY;
-        singleUpdater = new TokenIndexUpdater( 1_000, writeMonitor );
+        singleUpdater = new TokenIndexUpdater( 1_000, writeMonitor, layout );
     }
 
     private GBPTree.Monitor treeMonitor()
@@ -42,7 +42,6 @@ import org.neo4j.storageengine.api.NodePropertyAccessor;
 
 import static org.neo4j.internal.helpers.collection.Iterators.asResourceIterator;
 import static org.neo4j.internal.helpers.collection.Iterators.iterator;
-import static org.neo4j.kernel.impl.index.schema.TokenScanValue.RANGE_SIZE;
 
 public class TokenIndexAccessor extends TokenIndex implements IndexAccessor
 {
@@ -51,7 +50,7 @@ public class TokenIndexAccessor extends TokenIndex implements IndexAccessor
     public TokenIndexAccessor( DatabaseIndexContext databaseIndexContext, DatabaseLayout directoryStructure, IndexFiles indexFiles, Config config,
             IndexDescriptor descriptor, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector )
     {
-        super( databaseIndexContext, indexFiles, descriptor );
+        super( databaseIndexContext, indexFiles, descriptor, config );
 
         entityType = descriptor.schema().entityType();
         instantiateTree( recoveryCleanupWorkCollector, new NativeIndexHeaderWriter( ONLINE ) );
@@ -97,23 +96,32 @@ public class TokenIndexAccessor extends TokenIndex implements IndexAccessor
         throw new UnsupportedOperationException( "Not applicable for token indexes " );
     }
 
+    /**
+     * @return the number of entity ids covered by each range of this index, which depends on the format it is written in.
+     */
+    public int rangeSize()
+    {
+        return layout.rangeSize();
+    }
+
     @Override
     public TokenIndexReader newTokenReader()
     {
         assertTreeOpen();
-        return new DefaultTokenIndexReader( index );
+        return new DefaultTokenIndexReader( index, layout.rangeSize() );
     }
 
     @Override
     public BoundedIterable<EntityTokenRange> newAllEntriesTokenReader( long fromEntityId, long toEntityId, CursorContext cursorContext )
     {
+        int rangeSize = layout.rangeSize();
         IntFunction<Seeker<TokenScanKey,TokenScanValue>> seekProvider = tokenId ->
         {
             try
             {
                 return index.seek(
-                        new TokenScanKey().set( tokenId, fromEntityId / RANGE_SIZE ),
-                        new TokenScanKey().set( tokenId, (toEntityId - 1) / RANGE_SIZE + 1 ), cursorContext );
+                        new TokenScanKey().set( tokenId, fromEntityId / rangeSize ),
+                        new TokenScanKey().set( tokenId, (toEntityId - 1) / rangeSize + 1 ), cursorContext );
             }
             catch ( IOException e )
             {
@@ -135,7 +143,7 @@ public class TokenIndexAccessor extends TokenIndex implements IndexAccessor
         {
             throw new RuntimeException( e );
         }
-        return new NativeAllEntriesTokenScanReader( seekProvider, highestTokenId, entityType );
+        return new NativeAllEntriesTokenScanReader( seekProvider, highestTokenId, entityType, rangeSize );
     }
 
     @Override
@@ -26,7 +26,10 @@ import java.util.Collection;
 
 import org.neo4j.common.EntityType;
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
+import org.neo4j.index.internal.gbptree.BulkLoader;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.index.internal.gbptree.Writer;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.pagecache.context.CursorContext;
@@ -34,6 +37,8 @@ import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.index.IndexPopulator;
 import org.neo4j.kernel.api.index.IndexSample;
 import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.impl.api.index.PhaseTracker;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.storageengine.api.IndexEntryUpdate;
 import org.neo4j.storageengine.api.NodePropertyAccessor;
 import org.neo4j.util.Preconditions;
@@ -42,6 +47,11 @@ import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_WRITER;
 
 public class TokenIndexPopulator extends TokenIndex implements IndexPopulator
 {
+    /**
+     * Number of 64-bit words, i.e. ~1 MiB of bitmaps, that the {@link #scanBuffer} may hold before it's written to the tree.
+     */
+    private static final int SCAN_BUFFER_WORDS = 1 << 17;
+
     /**
      * The type of entity this token index is backing.
      */
@@ -52,18 +62,35 @@ public class TokenIndexPopulator extends TokenIndex implements IndexPopulator
      */
     private final DatabaseLayout directoryStructure;
     private final Config config;
+    private final MemoryTracker memoryTracker;
+
+    /**
+     * Ratio of each tree node to fill when bulk loading the scan buffer into the empty tree.
+     */
+    private final double bulkLoadFillFactor;
+
+    /**
+     * Scan updates come in entity id order, which means that for each token they only ever touch the last range.
+     * They are collected here and written to the tree in key order, bulk loaded if the tree is still empty.
+     */
+    private TokenScanBuffer scanBuffer;
+    private final int scanBufferMaxEntries;
+    private boolean treeEmpty;
 
     private byte[] failureBytes;
     private boolean dropped;
     private boolean closed;
 
     TokenIndexPopulator( DatabaseIndexContext databaseIndexContext, DatabaseLayout directoryStructure, IndexFiles indexFiles, Config config,
-            IndexDescriptor descriptor )
+            IndexDescriptor descriptor, MemoryTracker memoryTracker )
     {
-        super( databaseIndexContext, indexFiles, descriptor );
+        super( databaseIndexContext, indexFiles, descriptor, config );
         this.directoryStructure = directoryStructure;
         this.config = config;
+        this.memoryTracker = memoryTracker;
+        this.bulkLoadFillFactor = config.get( GraphDatabaseInternalSettings.index_populator_bulk_load_fill_factor );
         this.entityType = descriptor.schema().entityType();
+        this.scanBufferMaxEntries = SCAN_BUFFER_WORDS / (layout.rangeSize() / Long.SIZE);
     }
 
     @Override
@@ -75,6 +102,8 @@ public class TokenIndexPopulator extends TokenIndex implements IndexPopulator
         indexFiles.clear();
         instantiateTree( RecoveryCleanupWorkCollector.immediate(), new NativeIndexHeaderWriter( POPULATING ) );
         instantiateUpdater( config, directoryStructure, entityType );
+        scanBuffer = new TokenScanBuffer( layout, memoryTracker );
+        treeEmpty = true;
     }
 
     @Override
@@ -97,21 +126,28 @@ public class TokenIndexPopulator extends TokenIndex implements IndexPopulator
     }
 
     @Override
-    public void add( Collection<? extends IndexEntryUpdate<?>> updates, CursorContext cursorContext ) throws IndexEntryConflictException
+    public synchronized void add( Collection<? extends IndexEntryUpdate<?>> updates, CursorContext cursorContext ) throws IndexEntryConflictException
     {
-        try ( TokenIndexUpdater updater = singleUpdater.initialize( index.writer( cursorContext ) ) )
+        // Scan threads may call add concurrently, but they all share the one scan buffer and updater
+        try ( TokenIndexUpdater updater = singleUpdater.initialize( scanBuffer ) )
         {
             for ( IndexEntryUpdate<?> update : updates )
             {
                 updater.process( update );
             }
         }
-        catch ( IOException e )
+        if ( scanBuffer.size() >= scanBufferMaxEntries )
         {
-            throw new UncheckedIOException( e );
+            writeScanBufferToTree( cursorContext );
         }
     }
 
+    @Override
+    public synchronized void scanCompleted( PhaseTracker phaseTracker, PopulationWorkScheduler populationWorkScheduler, CursorContext cursorContext )
+    {
+        writeScanBufferToTree( cursorContext );
+    }
+
     @Override
     public void verifyDeferredConstraints( NodePropertyAccessor nodePropertyAccessor )
     {
@@ -119,8 +155,11 @@ public class TokenIndexPopulator extends TokenIndex implements IndexPopulator
     }
 
     @Override
-    public IndexUpdater newPopulatingUpdater( NodePropertyAccessor accessor, CursorContext cursorContext )
+    public synchronized IndexUpdater newPopulatingUpdater( NodePropertyAccessor accessor, CursorContext cursorContext )
     {
+        // External updates may remove entries that are still in the scan buffer, so write those to the tree first
+        writeScanBufferToTree( cursorContext );
+        treeEmpty = false;
         try
         {
             return singleUpdater.initialize( index.writer( cursorContext ) );
@@ -144,6 +183,7 @@ public class TokenIndexPopulator extends TokenIndex implements IndexPopulator
             {
                 // Successful and completed population
                 assertTreeOpen();
+                writeScanBufferToTree( cursorContext );
                 flushTreeAndMarkAs( ONLINE, cursorContext );
             }
             else if ( failureBytes != null )
@@ -161,6 +201,54 @@ public class TokenIndexPopulator extends TokenIndex implements IndexPopulator
         }
     }
 
+    /**
+     * Writes the buffered scan updates to the tree in key order. The first time, unless external updates got there before,
+     * the tree is empty and the entries are bulk loaded into leaves filled up to the fill factor. Later they are merged with what's already in the tree.
+     */
+    private void writeScanBufferToTree( CursorContext cursorContext )
+    {
+        if ( scanBuffer == null || scanBuffer.isEmpty() )
+        {
+            return;
+        }
+
+        try
+        {
+            if ( treeEmpty )
+            {
+                try ( BulkLoader<TokenScanKey,TokenScanValue> loader = index.bulkLoader( bulkLoadFillFactor, cursorContext ) )
+                {
+                    scanBuffer.forEach( loader::add );
+                }
+            }
+            else
+            {
+                AddMerger addMerger = new AddMerger( TokenIndex.EMPTY );
+                try ( Writer<TokenScanKey,TokenScanValue> writer = index.writer( cursorContext ) )
+                {
+                    scanBuffer.forEach( ( key, value ) -> writer.merge( key, value, addMerger ) );
+                }
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+        scanBuffer.clear();
+        treeEmpty = false;
+    }
+
+    @Override
+    void closeResources()
+    {
+        if ( scanBuffer != null )
+        {
+            // Cancelled or dropped populations leave entries behind, release the memory they hold
+            scanBuffer.clear();
+        }
+        super.closeResources();
+    }
+
     private void flushTreeAndMarkAs( byte state, CursorContext cursorContext )
     {
         index.checkpoint( pageCursor -> pageCursor.putByte( state ), cursorContext );
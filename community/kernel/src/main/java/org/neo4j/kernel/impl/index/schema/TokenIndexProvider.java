@@ -97,7 +97,8 @@ public class TokenIndexProvider extends IndexProvider
             throw new UnsupportedOperationException( "Can't create populator for read only index" );
         }
 
-        return new WorkSyncedIndexPopulator( new TokenIndexPopulator( databaseIndexContext, databaseLayout, indexFiles( descriptor ), config, descriptor ) );
+        return new WorkSyncedIndexPopulator( new TokenIndexPopulator( databaseIndexContext, databaseLayout, indexFiles( descriptor ), config, descriptor,
+                memoryTracker ) );
     }
 
     @Override
@@ -126,7 +127,9 @@ public class TokenIndexProvider extends IndexProvider
     {
         try
         {
-            return TokenIndexes.readState( databaseIndexContext.pageCache, storeFile( descriptor ), databaseIndexContext.databaseName, cursorContext );
+            // Verifying the layout means that a token index written in another format than the configured one is rebuilt in the configured format
+            return TokenIndexes.readState( databaseIndexContext.pageCache, storeFile( descriptor ), TokenScanLayout.fromConfig( config ),
+                    databaseIndexContext.databaseName, cursorContext );
         }
         catch ( MetadataMismatchException | IOException e )
         {
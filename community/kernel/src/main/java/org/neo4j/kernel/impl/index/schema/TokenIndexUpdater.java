@@ -35,7 +35,6 @@ import org.neo4j.storageengine.api.TokenIndexEntryUpdate;
 
 import static java.lang.Long.min;
 import static java.lang.Math.toIntExact;
-import static org.neo4j.kernel.impl.index.schema.TokenScanValue.RANGE_SIZE;
 
 /**
  * {@link IndexUpdater} for token index, or rather a {@link Writer} for its
@@ -83,7 +82,12 @@ class TokenIndexUpdater implements IndexUpdater
      * Instance of {@link TokenScanValue} acting as place to read values into and to update
      * for each applied update.
      */
-    private final TokenScanValue value = new TokenScanValue();
+    private final TokenScanValue value;
+
+    /**
+     * Number of entity ids covered by each {@link TokenScanKey}, decided by the layout of the tree.
+     */
+    private final int rangeSize;
 
     /**
      * Batch currently building up as {@link #process(IndexEntryUpdate) updates} come in. Cursor for where
@@ -119,6 +123,13 @@ class TokenIndexUpdater implements IndexUpdater
 
     TokenIndexUpdater( int batchSize, TokenIndex.WriteMonitor monitor )
     {
+        this( batchSize, monitor, new TokenScanLayout() );
+    }
+
+    TokenIndexUpdater( int batchSize, TokenIndex.WriteMonitor monitor, TokenScanLayout layout )
+    {
+        this.value = layout.newValue();
+        this.rangeSize = layout.rangeSize();
         this.pendingUpdates = new LogicalTokenUpdates[batchSize];
         this.addMerger = new AddMerger( monitor );
         this.removeMerger = ( existingKey, newKey, existingValue, newValue ) ->
@@ -245,7 +256,7 @@ class TokenIndexUpdater implements IndexUpdater
     private void change( long currentTokenId, long entityId, boolean add, long txId )
     {
         int tokenId = toIntExact( currentTokenId );
-        long idRange = rangeOf( entityId );
+        long idRange = rangeOf( entityId, rangeSize );
         if ( tokenId != key.tokenId || idRange != key.idRange || addition != add )
         {
             flushPendingRange();
@@ -257,7 +268,7 @@ class TokenIndexUpdater implements IndexUpdater
             monitor.range( idRange, tokenId );
         }
 
-        int offset = toIntExact( entityId % RANGE_SIZE );
+        int offset = toIntExact( entityId % rangeSize );
         value.set( offset );
         if ( addition )
         {
@@ -271,7 +282,7 @@ class TokenIndexUpdater implements IndexUpdater
 
     private void flushPendingRange()
     {
-        if ( value.bits != 0 )
+        if ( !value.isEmpty() )
         {
             // There are changes in the current range, flush them
             if ( addition )
@@ -286,9 +297,9 @@ class TokenIndexUpdater implements IndexUpdater
         }
     }
 
-    static long rangeOf( long entityId )
+    static long rangeOf( long entityId, int rangeSize )
     {
-        return entityId / RANGE_SIZE;
+        return entityId / rangeSize;
     }
 
     /**
@@ -37,9 +37,21 @@ public final class TokenIndexes
     {}
 
     public static InternalIndexState readState( PageCache pageCache, Path indexFile, String databaseName, CursorContext cursorContext ) throws IOException
+    {
+        return readState( pageCache, indexFile, null, databaseName, cursorContext );
+    }
+
+    /**
+     * Reads the state of the token index in {@code indexFile}, verifying that it was written with the given {@code layout}.
+     *
+     * @throws org.neo4j.index.internal.gbptree.MetadataMismatchException if the index was written with another layout, e.g. another range size,
+     * in which case it needs to be rebuilt.
+     */
+    static InternalIndexState readState( PageCache pageCache, Path indexFile, TokenScanLayout layout, String databaseName, CursorContext cursorContext )
+            throws IOException
     {
         NativeIndexHeaderReader headerReader = new NativeIndexHeaderReader( FAILED );
-        GBPTree.readHeader( pageCache, indexFile, headerReader, databaseName, cursorContext );
+        GBPTree.readHeader( pageCache, indexFile, layout, headerReader, databaseName, cursorContext );
         switch ( headerReader.state )
         {
         case FAILED:
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+import org.neo4j.index.internal.gbptree.BulkLoader;
+import org.neo4j.index.internal.gbptree.ValueMerger;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.memory.MemoryTracker;
+
+import static org.neo4j.memory.HeapEstimator.OBJECT_HEADER_BYTES;
+import static org.neo4j.memory.HeapEstimator.OBJECT_REFERENCE_BYTES;
+import static org.neo4j.memory.HeapEstimator.alignObjectSize;
+import static org.neo4j.memory.HeapEstimator.shallowSizeOfInstance;
+import static org.neo4j.memory.HeapEstimator.sizeOfLongArray;
+
+/**
+ * In-memory {@link Writer} keeping token index entries sorted by key. Used by {@link TokenIndexPopulator} to collect
+ * the entries from a store scan, which arrive in entity id order, so that they can be written to the tree in key order,
+ * preferably using a {@link BulkLoader}. Merges are applied to the buffered entries just like the tree would apply them.
+ * The heap used by the buffered entries is reported to the given {@link MemoryTracker}.
+ */
+class TokenScanBuffer implements Writer<TokenScanKey,TokenScanValue>
+{
+    /**
+     * {@link TreeMap} entries hold key, value, left, right and parent references plus a color flag.
+     */
+    private static final long TREE_MAP_ENTRY_SIZE = alignObjectSize( OBJECT_HEADER_BYTES + 5L * OBJECT_REFERENCE_BYTES + 1 );
+
+    private final TokenScanLayout layout;
+    private final MemoryTracker memoryTracker;
+    private final TreeMap<TokenScanKey,TokenScanValue> entries;
+    private final long entrySize;
+
+    TokenScanBuffer( TokenScanLayout layout, MemoryTracker memoryTracker )
+    {
+        this.layout = layout;
+        this.memoryTracker = memoryTracker;
+        this.entries = new TreeMap<>( layout );
+        this.entrySize = TREE_MAP_ENTRY_SIZE + shallowSizeOfInstance( TokenScanKey.class ) + shallowSizeOfInstance( TokenScanValue.class ) +
+                sizeOfLongArray( layout.rangeSize() / Long.SIZE );
+    }
+
+    @Override
+    public void put( TokenScanKey key, TokenScanValue value )
+    {
+        if ( entries.put( layout.copyKey( key, layout.newKey() ), copyOf( value ) ) == null )
+        {
+            memoryTracker.allocateHeap( entrySize );
+        }
+    }
+
+    @Override
+    public void merge( TokenScanKey key, TokenScanValue value, ValueMerger<TokenScanKey,TokenScanValue> valueMerger )
+    {
+        internalMerge( key, value, valueMerger, true );
+    }
+
+    @Override
+    public void mergeIfExists( TokenScanKey key, TokenScanValue value, ValueMerger<TokenScanKey,TokenScanValue> valueMerger )
+    {
+        internalMerge( key, value, valueMerger, false );
+    }
+
+    private void internalMerge( TokenScanKey key, TokenScanValue value, ValueMerger<TokenScanKey,TokenScanValue> valueMerger,
+            boolean createIfNotExists )
+    {
+        TokenScanValue existingValue = entries.get( key );
+        if ( existingValue == null )
+        {
+            if ( createIfNotExists )
+            {
+                put( key, value );
+            }
+            return;
+        }
+
+        switch ( valueMerger.merge( key, key, existingValue, value ) )
+        {
+        case REPLACED:
+            put( key, value );
+            break;
+        case REMOVED:
+            remove( key );
+            break;
+        default:
+            // The existing value has been updated in place, or not at all
+            break;
+        }
+    }
+
+    @Override
+    public TokenScanValue remove( TokenScanKey key )
+    {
+        TokenScanValue removed = entries.remove( key );
+        if ( removed != null )
+        {
+            memoryTracker.releaseHeap( entrySize );
+        }
+        return removed;
+    }
+
+    int size()
+    {
+        return entries.size();
+    }
+
+    boolean isEmpty()
+    {
+        return entries.isEmpty();
+    }
+
+    /**
+     * Visits all buffered entries in key order.
+     */
+    void forEach( BiConsumer<TokenScanKey,TokenScanValue> visitor )
+    {
+        entries.forEach( visitor );
+    }
+
+    void clear()
+    {
+        memoryTracker.releaseHeap( entries.size() * entrySize );
+        entries.clear();
+    }
+
+    @Override
+    public void close()
+    {
+        // Entries are kept until cleared, closing only ends the current write session
+    }
+
+    private TokenScanValue copyOf( TokenScanValue value )
+    {
+        TokenScanValue copy = layout.newValue();
+        copy.add( value );
+        return copy;
+    }
+}
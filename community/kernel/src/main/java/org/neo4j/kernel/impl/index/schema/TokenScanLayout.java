@@ -19,28 +19,76 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.Layout;
 import org.neo4j.io.pagecache.PageCursor;
 
+import static org.neo4j.kernel.impl.index.schema.TokenScanValue.RANGE_SIZE;
+import static org.neo4j.kernel.impl.index.schema.TokenScanValue.WIDE_RANGE_WORDS;
+
 /**
  * {@link Layout} for {@link GBPTree} used by token index.
  *
  * <ul>
  * <li>
- * Each keys is a combination of {@code tokenId} and {@code entityIdRange} ({@code entityId/64}).
+ * Each keys is a combination of {@code tokenId} and {@code entityIdRange} ({@code entityId/rangeSize}).
+ * </li>
+ * <li>
+ * Each value is a bit set of one or more 64-bit words where each set bit in it represents
+ * a entity with that token, such that {@code entityId = entityIdRange*rangeSize+bitOffset}.
+ * </li>
+ * </ul>
+ * There are two formats:
+ * <ul>
+ * <li>
+ * The original format, where the value is a single word, i.e. range size is 64, written as a primitive {@code long}.
  * </li>
  * <li>
- * Each value is a 64-bit bit set (a primitive {@code long}) where each set bit in it represents
- * a entity with that token, such that {@code entityId = entityIdRange+bitOffset}. Range size is 64 bits.
+ * The wide-range format, where the value is {@link TokenScanValue#WIDE_RANGE_WORDS} words, i.e. range size is 4096.
+ * The value is compressed, in that it is written as a {@code long} with one bit per non-empty word, followed by a {@code long} with
+ * one bit per word that has all its bits set, followed by only the words that are neither empty nor full.
+ * A sparse token therefore costs a couple of words per 4096 entities instead of a key and a word per 64 entities,
+ * and a token that is on every entity costs two words per 4096 entities.
  * </li>
  * </ul>
+ * The two formats have different {@link #identifier() identifiers}, so a tree written in one format cannot be opened with the other.
  */
 public class TokenScanLayout extends Layout.Adapter<TokenScanKey,TokenScanValue>
 {
+    private final int wordsPerRange;
+
     public TokenScanLayout()
     {
-        super( true, Layout.namedIdentifier( IDENTIFIER_NAME, TokenScanValue.RANGE_SIZE ), 0, 1 );
+        this( 1 );
+    }
+
+    TokenScanLayout( int wordsPerRange )
+    {
+        super( wordsPerRange == 1, Layout.namedIdentifier( IDENTIFIER_NAME, wordsPerRange * RANGE_SIZE ), 0, 1 );
+        if ( wordsPerRange < 1 || wordsPerRange > Long.SIZE )
+        {
+            throw new IllegalArgumentException( "Words per range must be between 1 and " + Long.SIZE + ", but was " + wordsPerRange );
+        }
+        this.wordsPerRange = wordsPerRange;
+    }
+
+    /**
+     * @param config configuration deciding which format to use.
+     * @return the layout of the format that token indexes should be written in, given the configuration.
+     */
+    static TokenScanLayout fromConfig( Config config )
+    {
+        return config.get( GraphDatabaseInternalSettings.token_index_wide_ranges ) ? new TokenScanLayout( WIDE_RANGE_WORDS ) : new TokenScanLayout();
+    }
+
+    /**
+     * @return the number of entity ids covered by each key in this layout.
+     */
+    int rangeSize()
+    {
+        return wordsPerRange * RANGE_SIZE;
     }
 
     /**
@@ -80,7 +128,7 @@ public class TokenScanLayout extends Layout.Adapter<TokenScanKey,TokenScanValue>
     @Override
     public TokenScanValue newValue()
     {
-        return new TokenScanValue();
+        return new TokenScanValue( wordsPerRange );
     }
 
     @Override
@@ -92,7 +140,27 @@ public class TokenScanLayout extends Layout.Adapter<TokenScanKey,TokenScanValue>
     @Override
     public int valueSize( TokenScanValue value )
     {
-        return TokenScanValue.RANGE_SIZE_BYTES;
+        if ( wordsPerRange == 1 )
+        {
+            return TokenScanValue.RANGE_SIZE_BYTES;
+        }
+        return Long.BYTES/*nonEmptyWords*/ + Long.BYTES/*fullWords*/ + Long.bitCount( value.nonEmptyWords & ~fullWords( value ) ) * Long.BYTES;
+    }
+
+    private static long fullWords( TokenScanValue value )
+    {
+        long fullWords = 0;
+        long remaining = value.nonEmptyWords;
+        while ( remaining != 0 )
+        {
+            int word = Long.numberOfTrailingZeros( remaining );
+            if ( value.words[word] == -1L )
+            {
+                fullWords |= 1L << word;
+            }
+            remaining &= remaining - 1;
+        }
+        return fullWords;
     }
 
     @Override
@@ -111,7 +179,20 @@ public class TokenScanLayout extends Layout.Adapter<TokenScanKey,TokenScanValue>
     @Override
     public void writeValue( PageCursor cursor, TokenScanValue value )
     {
-        cursor.putLong( value.bits );
+        if ( wordsPerRange == 1 )
+        {
+            cursor.putLong( value.words[0] );
+            return;
+        }
+        long fullWords = fullWords( value );
+        cursor.putLong( value.nonEmptyWords );
+        cursor.putLong( fullWords );
+        long remaining = value.nonEmptyWords & ~fullWords;
+        while ( remaining != 0 )
+        {
+            cursor.putLong( value.words[Long.numberOfTrailingZeros( remaining )] );
+            remaining &= remaining - 1;
+        }
     }
 
     @Override
@@ -131,7 +212,30 @@ public class TokenScanLayout extends Layout.Adapter<TokenScanKey,TokenScanValue>
     @Override
     public void readValue( PageCursor cursor, TokenScanValue into, int valueSize )
     {
-        into.bits = cursor.getLong();
+        if ( wordsPerRange == 1 )
+        {
+            into.setWord( 0, cursor.getLong() );
+            return;
+        }
+        into.clear();
+        long nonEmptyWords = cursor.getLong();
+        long fullWords = cursor.getLong();
+        if ( (fullWords & ~nonEmptyWords) != 0 || valueSize != Long.BYTES * (2 + Long.bitCount( nonEmptyWords & ~fullWords )) ||
+             (wordsPerRange < Long.SIZE && nonEmptyWords >>> wordsPerRange != 0) )
+        {
+            // Inconsistent read, the reader will retry, leave the value empty
+            cursor.setCursorException( "Unexpected token index value, nonEmptyWords:" + nonEmptyWords + ", fullWords:" + fullWords +
+                                       ", valueSize:" + valueSize );
+            return;
+        }
+        long remaining = nonEmptyWords;
+        while ( remaining != 0 )
+        {
+            int word = Long.numberOfTrailingZeros( remaining );
+            into.words[word] = (fullWords & (1L << word)) != 0 ? -1L : cursor.getLong();
+            remaining &= remaining - 1;
+        }
+        into.nonEmptyWords = nonEmptyWords;
     }
 
     @Override
@@ -20,30 +20,96 @@
 package org.neo4j.kernel.impl.index.schema;
 
 /**
- * A small bit set of maximum 64 bits. Used in {@link TokenScanLayout}.
+ * A bit set of one or more 64 bit words, i.e. a multiple of 64 bits. Used in {@link TokenScanLayout}.
+ * <p>
+ * Which of the words that have any bit set is tracked in {@link #nonEmptyWords}, one bit per word, so that
+ * operations on, and iteration over, a wide and sparse bit set only needs to visit the words that are in use.
  */
 class TokenScanValue
 {
+    /**
+     * Number of bits in each word, which is also the range size of the original, single-word, format.
+     */
     static final int RANGE_SIZE = Long.SIZE;
     static final int RANGE_SIZE_BYTES = Long.BYTES;
 
     /**
-     * Small bit set.
+     * Number of words in each value of the wide-range format, giving a range size of {@code 64 * 64 = 4096} entities.
+     * Cannot be more than 64 since {@link #nonEmptyWords} has one bit per word.
+     */
+    static final int WIDE_RANGE_WORDS = Long.SIZE;
+
+    /**
+     * The words of this bit set, where bit {@code index} lives in word {@code index / 64}.
+     */
+    final long[] words;
+
+    /**
+     * Bit {@code i} is set if, and only if, {@code words[i]} is non-zero.
      */
-    long bits;
+    long nonEmptyWords;
+
+    TokenScanValue()
+    {
+        this( 1 );
+    }
+
+    TokenScanValue( int wordsPerRange )
+    {
+        this.words = new long[wordsPerRange];
+    }
 
     /**
-     * Sets bit at given {@code index}, where {@code index=0} is the lowest index, {@code index=63} the highest.
+     * @return the number of entity ids covered by this bit set.
+     */
+    int rangeSize()
+    {
+        return words.length * RANGE_SIZE;
+    }
+
+    /**
+     * Sets bit at given {@code index}, where {@code index=0} is the lowest index, {@code index=rangeSize-1} the highest.
      *
      * @param index index into the bit set of the bit to set.
      */
     TokenScanValue set( int index )
     {
-        long mask = 1L << index;
-        bits |= mask;
+        int word = index >>> 6;
+        words[word] |= 1L << index;
+        nonEmptyWords |= 1L << word;
         return this;
     }
 
+    /**
+     * Sets the whole word at {@code wordIndex}.
+     *
+     * @param wordIndex index of the word to set.
+     * @param bits the bits of the word.
+     * @return this instance, for convenience.
+     */
+    TokenScanValue setWord( int wordIndex, long bits )
+    {
+        words[wordIndex] = bits;
+        if ( bits != 0 )
+        {
+            nonEmptyWords |= 1L << wordIndex;
+        }
+        else
+        {
+            nonEmptyWords &= ~(1L << wordIndex);
+        }
+        return this;
+    }
+
+    /**
+     * @param wordIndex index of the word to get.
+     * @return the word at {@code wordIndex}.
+     */
+    long word( int wordIndex )
+    {
+        return words[wordIndex];
+    }
+
     /**
      * Adds all bits from {@code other} to this bit set.
      * Result is a union of the two bit sets. {@code other} is kept intact.
@@ -53,7 +119,14 @@ class TokenScanValue
      */
     TokenScanValue add( TokenScanValue other )
     {
-        bits |= other.bits;
+        long otherWords = other.nonEmptyWords;
+        while ( otherWords != 0 )
+        {
+            int word = Long.numberOfTrailingZeros( otherWords );
+            words[word] |= other.words[word];
+            otherWords &= otherWords - 1;
+        }
+        nonEmptyWords |= other.nonEmptyWords;
         return this;
     }
 
@@ -67,7 +140,17 @@ class TokenScanValue
      */
     TokenScanValue remove( TokenScanValue other )
     {
-        bits &= ~other.bits;
+        long sharedWords = nonEmptyWords & other.nonEmptyWords;
+        while ( sharedWords != 0 )
+        {
+            int word = Long.numberOfTrailingZeros( sharedWords );
+            words[word] &= ~other.words[word];
+            if ( words[word] == 0 )
+            {
+                nonEmptyWords &= ~(1L << word);
+            }
+            sharedWords &= sharedWords - 1;
+        }
         return this;
     }
 
@@ -76,7 +159,11 @@ class TokenScanValue
      */
     void clear()
     {
-        bits = 0;
+        while ( nonEmptyWords != 0 )
+        {
+            words[Long.numberOfTrailingZeros( nonEmptyWords )] = 0;
+            nonEmptyWords &= nonEmptyWords - 1;
+        }
     }
 
     /**
@@ -84,12 +171,25 @@ class TokenScanValue
      */
     boolean isEmpty()
     {
-        return bits == 0;
+        return nonEmptyWords == 0;
     }
 
     @Override
     public String toString()
     {
-        return Long.toBinaryString( bits );
+        if ( words.length == 1 )
+        {
+            return Long.toBinaryString( words[0] );
+        }
+        StringBuilder builder = new StringBuilder( "{" );
+        long remaining = nonEmptyWords;
+        while ( remaining != 0 )
+        {
+            int word = Long.numberOfTrailingZeros( remaining );
+            builder.append( word ).append( ':' ).append( Long.toBinaryString( words[word] ) );
+            remaining &= remaining - 1;
+            builder.append( remaining != 0 ? ", " : "" );
+        }
+        return builder.append( '}' ).toString();
     }
 }
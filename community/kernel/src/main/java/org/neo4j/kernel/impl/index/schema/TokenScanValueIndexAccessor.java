@@ -36,13 +36,25 @@ abstract class TokenScanValueIndexAccessor
     protected final Seeker<TokenScanKey,TokenScanValue> cursor;
 
     /**
-     * Current base entityId, i.e. the {@link TokenScanKey#idRange} of the current {@link TokenScanKey}.
+     * Current base entityId, i.e. the first entity id of the current word of the current {@link TokenScanValue}.
      */
     long baseEntityId;
     /**
-     * Bit set of the current {@link TokenScanValue}.
+     * Bits of the current word of the current {@link TokenScanValue}.
      */
     protected long bits;
+    /**
+     * The current {@link TokenScanValue}, the words of which are handed out one by one by {@link #nextWord(boolean)}.
+     */
+    private TokenScanValue value;
+    /**
+     * The first entity id of the current {@link TokenScanValue}.
+     */
+    private long rangeBaseEntityId;
+    /**
+     * One bit per word of the current {@link TokenScanValue} that has not yet been handed out, and is not empty.
+     */
+    private long remainingWords;
     /**
      * TokenId of previously retrieved {@link TokenScanKey}, for debugging and asserting purposes.
      */
@@ -61,6 +73,60 @@ abstract class TokenScanValueIndexAccessor
         this.cursor = cursor;
     }
 
+    /**
+     * Starts on a new {@link TokenScanValue}, the words of which are then handed out by {@link #nextWord(boolean)}.
+     * The value must stay intact until all of its words have been handed out.
+     *
+     * @param key the key of the value.
+     * @param value the value to hand out the words of.
+     */
+    void startRange( TokenScanKey key, TokenScanValue value )
+    {
+        this.value = value;
+        this.rangeBaseEntityId = key.idRange * value.rangeSize();
+        this.remainingWords = value.nonEmptyWords;
+        this.bits = 0;
+    }
+
+    /**
+     * Skips past the words of the current {@link TokenScanValue} that are before the word that {@code entityId} is in.
+     *
+     * @param entityId entity id within the current {@link TokenScanValue}, the word of which is the lowest one to keep.
+     */
+    void skipWordsBefore( long entityId )
+    {
+        int word = (int) ((entityId - rangeBaseEntityId) / Long.SIZE);
+        remainingWords &= -(1L << word);
+    }
+
+    /**
+     * Moves on to the next non-empty word of the current {@link TokenScanValue}, skipping past all empty words in one step.
+     *
+     * @param descending whether to move from the highest word to the lowest, instead of from the lowest to the highest.
+     * @return {@code true} if there was a next word, which is then in {@link #bits} and {@link #baseEntityId}, otherwise {@code false}.
+     */
+    boolean nextWord( boolean descending )
+    {
+        if ( remainingWords == 0 )
+        {
+            return false;
+        }
+        int word;
+        if ( descending )
+        {
+            word = Long.SIZE - 1 - Long.numberOfLeadingZeros( remainingWords );
+            remainingWords &= ~(1L << word);
+        }
+        else
+        {
+            word = Long.numberOfTrailingZeros( remainingWords );
+            remainingWords &= remainingWords - 1;
+        }
+        bits = value.words[word];
+        baseEntityId = rangeBaseEntityId + (long) word * Long.SIZE;
+        return true;
+    }
+
     boolean keysInOrder( TokenScanKey key, IndexOrder order )
     {
         if ( order == IndexOrder.NONE )
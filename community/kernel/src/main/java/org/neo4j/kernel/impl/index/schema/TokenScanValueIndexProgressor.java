@@ -30,7 +30,7 @@ import org.neo4j.kernel.api.index.IndexProgressor;
 
 /**
  * {@link IndexProgressor} which steps over multiple {@link TokenScanValue} and for each
- * iterate over each set bit, returning actual entity ids, i.e. {@code entityIdRange+bitOffset}.
+ * iterate over each set bit of each non-empty word, returning actual entity ids, i.e. {@code entityIdRange*rangeSize+bitOffset}.
  *
  */
 public class TokenScanValueIndexProgressor extends TokenScanValueIndexAccessor implements IndexProgressor, Resource
@@ -91,6 +91,10 @@ public class TokenScanValueIndexProgressor extends TokenScanValueIndexAccessor i
                     return true;
                 }
             }
+            if ( nextWord( indexOrder == IndexOrder.DESCENDING ) )
+            {
+                continue;
+            }
             try
             {
                 if ( !cursor.next() )
@@ -105,8 +109,7 @@ public class TokenScanValueIndexProgressor extends TokenScanValueIndexAccessor i
             }
 
             TokenScanKey key = cursor.key();
-            baseEntityId = key.idRange * TokenScanValue.RANGE_SIZE;
-            bits = cursor.value().bits;
+            startRange( key, cursor.value() );
 
             //noinspection AssertWithSideEffects
             assert keysInOrder( key, indexOrder );
@@ -114,10 +117,11 @@ public class TokenScanValueIndexProgressor extends TokenScanValueIndexAccessor i
     }
 
     /**
-     * The entity information in token indexes is stored in a collection of 64 bit bitmaps,
+     * The entity information in token indexes is stored in a collection of bitmaps, each covering a range of entity ids.
      * The index seek with specified range has a bitmap granularity.
      * In other words, the range of entity IDs coming from the index seeker corresponds to the search range with
-     * start of the range rounded down to the nearest multiple of 64 and the end of the range rounded up to the nearest multiple of 64.
+     * start of the range rounded down to the nearest multiple of the range size and the end of the range rounded up to the nearest multiple
+     * of the range size.
      * The purpose of this method is to filter out the extra entity IDs that are present in the seek result because of the rounding.
      */
     private boolean isInRange( long entityId )
@@ -29,11 +29,9 @@ import org.neo4j.collection.PrimitiveLongResourceIterator;
 import org.neo4j.index.internal.gbptree.Seeker;
 import org.neo4j.internal.schema.IndexOrder;
 
-import static org.neo4j.kernel.impl.index.schema.TokenScanValue.RANGE_SIZE;
-
 /**
  * {@link LongIterator} which iterate over multiple {@link TokenScanValue} and for each
- * iterate over each set bit, returning actual entity ids, i.e. {@code entityIdRange+bitOffset}.
+ * iterate over each set bit of each non-empty word, returning actual entity ids, i.e. {@code entityIdRange*rangeSize+bitOffset}.
  *
  * The provided {@link Seeker} is managed externally,
  * this because implemented interface lacks close-method.
@@ -95,6 +93,10 @@ class TokenScanValueIterator extends TokenScanValueIndexAccessor implements Prim
                 hasNext = true;
                 return true;
             }
+            if ( nextWord( false ) )
+            {
+                continue;
+            }
 
             try
             {
@@ -110,19 +112,24 @@ class TokenScanValueIterator extends TokenScanValueIndexAccessor implements Prim
             }
 
             TokenScanKey key = cursor.key();
-            baseEntityId = key.idRange * RANGE_SIZE;
-            bits = cursor.value().bits;
+            TokenScanValue value = cursor.value();
+            startRange( key, value );
 
             if ( fromId != NO_ID )
             {
                 // If we've been told to start at a specific id then trim off ids in this range less than or equal to that id
-                long range = TokenIndexUpdater.rangeOf( fromId );
+                long range = TokenIndexUpdater.rangeOf( fromId, value.rangeSize() );
                 if ( range == key.idRange )
                 {
-                    // Only do this if we're in the idRange that fromId is in, otherwise there were no ids this time in this range
-                    long relativeStartId = offsetOf( fromId );
-                    long mask = relativeStartId == RANGE_SIZE - 1 ? -1 : (1L << (relativeStartId + 1)) - 1;
-                    bits &= ~mask;
+                    // Only do this if we're in the idRange that fromId is in, otherwise there were no ids this time in this range.
+                    // Words before the one fromId is in are skipped altogether, and in that word the bits up to and including fromId are cleared
+                    skipWordsBefore( fromId );
+                    if ( nextWord( false ) && baseEntityId <= fromId )
+                    {
+                        long relativeStartId = fromId - baseEntityId;
+                        long mask = relativeStartId == Long.SIZE - 1 ? -1 : (1L << (relativeStartId + 1)) - 1;
+                        bits &= ~mask;
+                    }
                 }
                 // ... and let's not do that again, only for the first idRange
                 fromId = NO_ID;
@@ -132,9 +139,4 @@ class TokenScanValueIterator extends TokenScanValueIndexAccessor implements Prim
             assert keysInOrder( key, IndexOrder.ASCENDING );
         }
     }
-
-    private static int offsetOf( long entityId )
-    {
-        return (int) (entityId % RANGE_SIZE);
-    }
 }
@@ -52,6 +52,9 @@ import static java.util.Comparator.comparing;
 /**
  * A {@link TokenIndex.WriteMonitor} which writes all interactions to a .writelog file, which has configurable rotation and pruning.
  * This class also has a {@link #main(String[])} method for dumping the contents of such write log to console or file, as text.
+ * <p>
+ * The log is written in terms of 64 bit words, regardless of the {@link TokenScanLayout#rangeSize() range size} of the token index,
+ * i.e. a change to a range of a wide-range token index is logged as changes to each of the words in that range that it touches.
  */
 public class TokenScanWriteMonitor implements TokenIndex.WriteMonitor
 {
@@ -76,18 +79,37 @@ public class TokenScanWriteMonitor implements TokenIndex.WriteMonitor
     private final LongAdder position = new LongAdder();
     private final long rotationThreshold;
     private final long pruneThreshold;
+    private final int wordsPerRange;
+
+    /**
+     * Range and token id of the key currently being changed, as told by {@link #range(long, int)}.
+     */
+    private long range = -1;
+    private int tokenId = -1;
+    /**
+     * The 64 bit word range last written to the log, so that it is only written when it changes.
+     */
+    private long loggedWordRange = -1;
 
     TokenScanWriteMonitor( FileSystemAbstraction fs, DatabaseLayout databaseLayout, EntityType entityType, Config config )
     {
         this( fs, databaseLayout, config.get( GraphDatabaseInternalSettings.token_scan_write_log_rotation_threshold ), ByteUnit.Byte,
                 config.get( GraphDatabaseInternalSettings.token_scan_write_log_prune_threshold ).toMillis(), TimeUnit.MILLISECONDS, entityType, NO_MONITOR,
-                Clocks.nanoClock() );
+                Clocks.nanoClock(), TokenScanLayout.fromConfig( config ).rangeSize() / Long.SIZE );
     }
 
     TokenScanWriteMonitor( FileSystemAbstraction fs, DatabaseLayout databaseLayout,
             long rotationThreshold, ByteUnit rotationThresholdUnit,
             long pruneThreshold, TimeUnit pruneThresholdUnit, EntityType entityType, Monitor monitor, SystemNanoClock clock )
     {
+        this( fs, databaseLayout, rotationThreshold, rotationThresholdUnit, pruneThreshold, pruneThresholdUnit, entityType, monitor, clock, 1 );
+    }
+
+    private TokenScanWriteMonitor( FileSystemAbstraction fs, DatabaseLayout databaseLayout,
+            long rotationThreshold, ByteUnit rotationThresholdUnit,
+            long pruneThreshold, TimeUnit pruneThresholdUnit, EntityType entityType, Monitor monitor, SystemNanoClock clock, int wordsPerRange )
+    {
+        this.wordsPerRange = wordsPerRange;
         this.fs = fs;
         this.monitor = monitor;
         this.clock = clock;
@@ -123,16 +145,20 @@ public class TokenScanWriteMonitor implements TokenIndex.WriteMonitor
     @Override
     public void range( long range, int tokenId )
     {
-        try
+        this.range = range;
+        this.tokenId = tokenId;
+        this.loggedWordRange = -1;
+    }
+
+    private void logWordRange( long wordRange ) throws IOException
+    {
+        if ( wordRange != loggedWordRange )
         {
             channel.put( TYPE_RANGE );
-            channel.putLong( range );
+            channel.putLong( wordRange );
             channel.putInt( tokenId );
             position.add( 1 + 8 + 4 );
-        }
-        catch ( IOException e )
-        {
-            throw new UncheckedIOException( e );
+            loggedWordRange = wordRange;
         }
     }
 
@@ -152,9 +178,10 @@ public class TokenScanWriteMonitor implements TokenIndex.WriteMonitor
     {
         try
         {
+            logWordRange( range * wordsPerRange + offset / Long.SIZE );
             channel.put( type );
             channel.putLong( txId );
-            channel.put( (byte) offset );
+            channel.put( (byte) (offset % Long.SIZE) );
             position.add( 1 + 8 + 1 );
         }
         catch ( IOException e )
@@ -179,10 +206,18 @@ public class TokenScanWriteMonitor implements TokenIndex.WriteMonitor
     {
         try
         {
-            channel.put( type );
-            channel.putLong( existingValue.bits );
-            channel.putLong( newValue.bits );
-            position.add( 1 + 8 + 8 );
+            // Log the words that the change applies to, or the single word if the value is only one word, whether changed or not
+            long words = wordsPerRange == 1 ? 1 : newValue.nonEmptyWords;
+            while ( words != 0 )
+            {
+                int word = Long.numberOfTrailingZeros( words );
+                logWordRange( range * wordsPerRange + word );
+                channel.put( type );
+                channel.putLong( existingValue.word( word ) );
+                channel.putLong( newValue.word( word ) );
+                position.add( 1 + 8 + 8 );
+                words &= words - 1;
+            }
         }
         catch ( IOException e )
         {
@@ -228,6 +263,7 @@ public class TokenScanWriteMonitor implements TokenIndex.WriteMonitor
                 moveAwayFile( fileSize );
                 position.reset();
                 channel = instantiateChannel();
+                loggedWordRange = -1;
             }
             catch ( IOException e )
             {
@@ -38,6 +38,7 @@ import org.neo4j.kernel.impl.index.schema.DatabaseIndexContext;
 import org.neo4j.kernel.impl.index.schema.GenericNativeIndexProvider;
 import org.neo4j.logging.Log;
 import org.neo4j.monitoring.Monitors;
+import org.neo4j.scheduler.CallableExecutor;
 import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.token.TokenHolders;
 import org.neo4j.util.VisibleForTesting;
@@ -71,19 +72,30 @@ public class NativeLuceneFusionIndexProviderFactory30 extends AbstractIndexProvi
                                                   TokenHolders tokenHolders, JobScheduler scheduler )
     {
         return create( pageCache, databaseLayout.databaseDirectory(), fs, monitors, monitorTag, config, readOnlyChecker, recoveryCleanupWorkCollector,
-                       pageCacheTracer, databaseLayout.getDatabaseName() );
+                       pageCacheTracer, databaseLayout.getDatabaseName(), updateApplierExecutor( config, scheduler ) );
     }
 
     @VisibleForTesting
     public static FusionIndexProvider create( PageCache pageCache, Path databaseDirectory, FileSystemAbstraction fs,
                                               Monitors monitors, String monitorTag, Config config, DatabaseReadOnlyChecker readOnlyChecker,
                                               RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, PageCacheTracer pageCacheTracer, String databaseName )
+    {
+        return create( pageCache, databaseDirectory, fs, monitors, monitorTag, config, readOnlyChecker, recoveryCleanupWorkCollector,
+                pageCacheTracer, databaseName, null );
+    }
+
+    private static FusionIndexProvider create( PageCache pageCache, Path databaseDirectory, FileSystemAbstraction fs,
+                                               Monitors monitors, String monitorTag, Config config, DatabaseReadOnlyChecker readOnlyChecker,
+                                               RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, PageCacheTracer pageCacheTracer, String databaseName,
+                                               CallableExecutor updateApplierExecutor )
     {
         IndexDirectoryStructure.Factory childDirectoryStructure = subProviderDirectoryStructure( databaseDirectory );
         boolean archiveFailedIndex = config.get( GraphDatabaseInternalSettings.archive_failed_index );
 
         DatabaseIndexContext databaseIndexContext = DatabaseIndexContext.builder( pageCache, fs, databaseName ).withMonitors( monitors ).withTag( monitorTag )
                                                                         .withReadOnlyChecker( readOnlyChecker ).withPageCacheTracer( pageCacheTracer )
+                                                                        .withConcurrentWriters( config.get( GraphDatabaseInternalSettings.index_concurrent_writers ) )
+                                                                        .withUpdateApplierExecutor( updateApplierExecutor )
                                                                         .build();
         GenericNativeIndexProvider generic =
                 new GenericNativeIndexProvider( databaseIndexContext, childDirectoryStructure,
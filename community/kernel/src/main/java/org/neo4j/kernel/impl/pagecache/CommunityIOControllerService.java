@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.pagecache;
 
 import org.neo4j.annotations.service.ServiceProvider;
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.io.pagecache.IOController;
 import org.neo4j.time.SystemNanoClock;
 
@@ -30,7 +31,8 @@ public class CommunityIOControllerService implements IOControllerService
     @Override
     public IOController createIOController( Config config, SystemNanoClock clock )
     {
-        return IOController.DISABLED;
+        long throughputLimit = config.get( GraphDatabaseInternalSettings.check_point_flush_throughput_limit );
+        return throughputLimit > 0 ? new ThroughputLimitingIOController( throughputLimit, clock ) : IOController.DISABLED;
     }
 
     @Override
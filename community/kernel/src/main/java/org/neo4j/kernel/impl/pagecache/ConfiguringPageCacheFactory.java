@@ -22,15 +22,20 @@ package org.neo4j.kernel.impl.pagecache;
 import java.util.function.Function;
 
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.configuration.pagecache.ConfigurableIOBufferFactory;
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.mem.HugePageAllocator;
+import org.neo4j.io.mem.HugePageMode;
 import org.neo4j.io.mem.MemoryAllocator;
 import org.neo4j.io.os.OsBeanUtil;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.impl.IoUringPageSwapperFactory;
 import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
 import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.impl.muninn.PageReplacementPolicy;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.logging.Log;
 import org.neo4j.memory.MachineMemory;
@@ -39,6 +44,11 @@ import org.neo4j.memory.MemoryTracker;
 import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.time.SystemNanoClock;
 
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_eviction_shards;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_flush_gap_pages;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_huge_pages;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_replacement_policy;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_swapper;
 import static org.neo4j.configuration.GraphDatabaseInternalSettings.reserved_page_header_bytes;
 import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_memory;
 import static org.neo4j.configuration.GraphDatabaseSettings.preallocate_store_files;
@@ -54,6 +64,7 @@ public class ConfiguringPageCacheFactory
     private final PageCacheTracer pageCacheTracer;
     private final Log log;
     private PageCache pageCache;
+    private MemoryAllocator memoryAllocator;
     private final JobScheduler scheduler;
     private final SystemNanoClock clock;
     private final MemoryPools memoryPools;
@@ -93,7 +104,7 @@ public class ConfiguringPageCacheFactory
     {
         if ( pageCache == null )
         {
-            this.swapperFactory = createAndConfigureSwapperFactory( fs, pageCacheTracer );
+            this.swapperFactory = createAndConfigureSwapperFactory( fs, config, pageCacheTracer, log );
             this.pageCache = createPageCache();
         }
         return pageCache;
@@ -105,21 +116,40 @@ public class ConfiguringPageCacheFactory
         var memoryPool = memoryPools.pool( PAGE_CACHE, pageCacheMaxMemory, false, null );
         var memoryTracker = memoryPool.getPoolMemoryTracker();
         MemoryAllocator memoryAllocator = buildMemoryAllocator( pageCacheMaxMemory, memoryTracker );
+        this.memoryAllocator = memoryAllocator;
         var bufferFactory = new ConfigurableIOBufferFactory( config, memoryTracker );
         MuninnPageCache.Configuration configuration = MuninnPageCache.config( memoryAllocator )
                 .memoryTracker( memoryTracker )
                 .bufferFactory( bufferFactory )
                 .reservedPageBytes( config.get( reserved_page_header_bytes ) )
                 .preallocateStoreFiles( config.get( preallocate_store_files ) )
+                .evictionShards( config.get( pagecache_eviction_shards ) )
+                .replacementPolicy( PageReplacementPolicy.valueOf( config.get( pagecache_replacement_policy ).name() ) )
+                .flushGapPages( config.get( pagecache_flush_gap_pages ) )
                 .clock( clock )
                 .pageCacheTracer( pageCacheTracer );
         configuration = pageCacheConfigurator.apply( configuration );
-        return new MuninnPageCache( swapperFactory, scheduler, configuration );
+        MuninnPageCache pageCache = new MuninnPageCache( swapperFactory, scheduler, configuration );
+        dumpHugePageUsage();
+        return pageCache;
+    }
+
+    private MemoryAllocator buildMemoryAllocator( long pageCacheMaxMemory, MemoryTracker memoryTracker )
+    {
+        HugePageMode hugePageMode = HugePageMode.valueOf( config.get( pagecache_huge_pages ).name() );
+        return createAllocator( pageCacheMaxMemory, memoryTracker, hugePageMode );
     }
 
-    private static MemoryAllocator buildMemoryAllocator( long pageCacheMaxMemory, MemoryTracker memoryTracker )
+    private void dumpHugePageUsage()
     {
-        return createAllocator( pageCacheMaxMemory, memoryTracker );
+        if ( memoryAllocator instanceof HugePageAllocator )
+        {
+            log.info( "Page cache memory is mapped with huge pages. " + ((HugePageAllocator) memoryAllocator).describe() );
+        }
+        else if ( config.get( pagecache_huge_pages ) != GraphDatabaseInternalSettings.PageCacheHugePages.DISABLED )
+        {
+            log.warn( "Page cache is configured to use huge pages, but they are not available on this platform. Falling back to normal pages." );
+        }
     }
 
     private long getPageCacheMaxMemory( Config config )
@@ -195,10 +225,20 @@ public class ConfiguringPageCacheFactory
                      " Page cache: " + pageCacheMemory + ".";
 
         log.info( msg );
+        dumpHugePageUsage();
     }
 
-    private static PageSwapperFactory createAndConfigureSwapperFactory( FileSystemAbstraction fs, PageCacheTracer pageCacheTracer )
+    private static PageSwapperFactory createAndConfigureSwapperFactory( FileSystemAbstraction fs, Config config, PageCacheTracer pageCacheTracer,
+            Log log )
     {
+        if ( config.get( pagecache_swapper ) == GraphDatabaseInternalSettings.PageSwapperImplementation.IO_URING )
+        {
+            if ( IoUringPageSwapperFactory.isAvailable() )
+            {
+                return new IoUringPageSwapperFactory( fs, pageCacheTracer );
+            }
+            log.warn( "Page cache is configured to use io_uring, but it is not available on this platform. Falling back to file channel io." );
+        }
         return new SingleFilePageSwapperFactory( fs, pageCacheTracer );
     }
 }
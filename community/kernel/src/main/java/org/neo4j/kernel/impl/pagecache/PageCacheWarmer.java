@@ -0,0 +1,428 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
+import static org.neo4j.scheduler.JobMonitoringParams.systemJob;
+
+/**
+ * The page cache warmer keeps a profile of the pages that are in memory for every file a database has mapped, and uses those profiles to
+ * load the same pages back into the page cache when the database starts again, so that the database does not have to fault its working set
+ * in one page at a time after a restart.
+ * <p>
+ * A profile is a bitmap with one bit per page in the file, stored gzip compressed in the {@value #PROFILES_DIRECTORY} directory of the
+ * database. Profiles are written every {@link GraphDatabaseSettings#pagecache_warmup_profiling_interval}, and once more when the database
+ * stops. When the warmer starts, the profiled pages are loaded in file order with {@link PagedFile#touch(long, int, CursorContext)}, and in
+ * parallel across files. Whenever there are profiles to load, the warmup runs as part of starting the warmer, and since the warmer is started
+ * before the database is made available, the database will not report itself as available until the warmup has completed. Otherwise, e.g. when
+ * pre-fetching, the warmup only blocks if {@link GraphDatabaseInternalSettings#pagecache_warmup_blocking} is set, and runs in the background if not.
+ * <p>
+ * If {@link GraphDatabaseSettings#pagecache_warmup_prefetch} is enabled, then the profiles are ignored, and all files that match the
+ * {@link GraphDatabaseSettings#pagecache_warmup_prefetch_allowlist} are loaded in their entirety instead.
+ */
+public class PageCacheWarmer extends LifecycleAdapter
+{
+    public static final String PROFILES_DIRECTORY = "profiles";
+    public static final String PROFILE_SUFFIX = ".cacheprof";
+    private static final String TEMPORARY_PROFILE_SUFFIX = ".tmp";
+    private static final String PAGE_CACHE_WARMER_TAG = "pageCacheWarmer";
+    // Upper bound of pages to touch in one go. The paged file will split these further into vectored reads that the page cache can accommodate.
+    private static final int MAX_TOUCH_RUN = 4096;
+
+    private final FileSystemAbstraction fs;
+    private final PageCache pageCache;
+    private final JobScheduler scheduler;
+    private final Path databaseDirectory;
+    private final Path profilesDirectory;
+    private final String databaseName;
+    private final Config config;
+    private final DatabaseReadOnlyChecker readOnlyChecker;
+    private final PageCacheTracer pageCacheTracer;
+    private final Log log;
+    private volatile boolean stopped;
+    private JobHandle<?> warmupJob;
+    private JobHandle<?> profileJob;
+
+    public PageCacheWarmer( FileSystemAbstraction fs, PageCache pageCache, JobScheduler scheduler, Path databaseDirectory, String databaseName,
+            Config config, DatabaseReadOnlyChecker readOnlyChecker, PageCacheTracer pageCacheTracer, Log log )
+    {
+        this.fs = fs;
+        this.pageCache = pageCache;
+        this.scheduler = scheduler;
+        this.databaseDirectory = databaseDirectory;
+        this.profilesDirectory = databaseDirectory.resolve( PROFILES_DIRECTORY );
+        this.databaseName = databaseName;
+        this.config = config;
+        this.readOnlyChecker = readOnlyChecker;
+        this.pageCacheTracer = pageCacheTracer;
+        this.log = log;
+    }
+
+    @Override
+    public void start() throws Exception
+    {
+        if ( !config.get( GraphDatabaseSettings.pagecache_warmup_enabled ) )
+        {
+            return;
+        }
+        stopped = false;
+        boolean prefetch = config.get( GraphDatabaseSettings.pagecache_warmup_prefetch );
+        if ( config.get( GraphDatabaseInternalSettings.pagecache_warmup_blocking ) || (!prefetch && hasProfiles()) )
+        {
+            warmUp();
+        }
+        else
+        {
+            warmupJob = scheduler.schedule( Group.STORAGE_MAINTENANCE, systemJob( databaseName, "Page cache warmup" ), this::warmUpSafely );
+        }
+    }
+
+    @Override
+    public void stop()
+    {
+        stopped = true;
+        if ( warmupJob != null )
+        {
+            awaitTermination( warmupJob );
+            warmupJob = null;
+        }
+        JobHandle<?> job;
+        synchronized ( this )
+        {
+            job = profileJob;
+            profileJob = null;
+        }
+        if ( job != null )
+        {
+            job.cancel();
+            awaitTermination( job );
+            // Only profiles of a fully warmed up page cache are written, so this won't overwrite a good profile with a partial one.
+            profileSafely();
+        }
+    }
+
+    private void warmUp() throws IOException
+    {
+        long startTime = System.nanoTime();
+        long pagesLoaded = reheat();
+        if ( pagesLoaded > 0 )
+        {
+            log.info( "Page cache warmup completed. %d pages loaded. Duration: %d ms.", pagesLoaded,
+                    TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - startTime ) );
+        }
+
+        if ( !config.get( GraphDatabaseSettings.pagecache_warmup_prefetch ) )
+        {
+            long interval = config.get( GraphDatabaseSettings.pagecache_warmup_profiling_interval ).toMillis();
+            synchronized ( this )
+            {
+                if ( !stopped )
+                {
+                    profileJob = scheduler.scheduleRecurring( Group.STORAGE_MAINTENANCE, systemJob( databaseName, "Profiling of page cache contents" ),
+                            this::profileSafely, interval, interval, TimeUnit.MILLISECONDS );
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true if a profile exists for any of the currently mapped files.
+     */
+    private boolean hasProfiles() throws IOException
+    {
+        for ( PagedFile file : pageCache.listExistingMappings() )
+        {
+            Path profile = profileFile( file );
+            if ( profile != null && fs.fileExists( profile ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void warmUpSafely()
+    {
+        try
+        {
+            warmUp();
+        }
+        catch ( Exception e )
+        {
+            log.warn( "Page cache warmup failed.", e );
+        }
+    }
+
+    private static void awaitTermination( JobHandle<?> job )
+    {
+        try
+        {
+            job.waitTermination();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch ( Exception ignore )
+        {
+            // The job was cancelled, or failed on its own, in which case it has already been logged.
+        }
+    }
+
+    /**
+     * Load the profiled pages, or all pages if pre-fetching is enabled, of all the currently mapped files into the page cache.
+     *
+     * @return the number of pages that were loaded.
+     */
+    long reheat() throws IOException
+    {
+        boolean prefetch = config.get( GraphDatabaseSettings.pagecache_warmup_prefetch );
+        Pattern allowlist = Pattern.compile( config.get( GraphDatabaseSettings.pagecache_warmup_prefetch_allowlist ) );
+        AtomicLong pagesLoaded = new AtomicLong();
+        List<JobHandle<?>> handles = new ArrayList<>();
+        for ( PagedFile file : pageCache.listExistingMappings() )
+        {
+            if ( prefetch && !allowlist.matcher( file.path().toString() ).find() )
+            {
+                continue;
+            }
+            handles.add( scheduler.schedule( Group.FILE_IO_HELPER, systemJob( databaseName, "Warmup of file '" + file.path().getFileName() + "'" ), () ->
+            {
+                try ( var cursorContext = new CursorContext( pageCacheTracer.createPageCursorTracer( PAGE_CACHE_WARMER_TAG ) ) )
+                {
+                    pagesLoaded.addAndGet( prefetch ? reheatAll( file, cursorContext ) : reheatProfiled( file, cursorContext ) );
+                }
+                catch ( IOException e )
+                {
+                    throw new UncheckedIOException( e );
+                }
+            } ) );
+        }
+        for ( JobHandle<?> handle : handles )
+        {
+            try
+            {
+                handle.waitTermination();
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                throw new IOException( "Interrupted while waiting for page cache warmup", e );
+            }
+            catch ( ExecutionException e )
+            {
+                // A failed warmup of one file is not a reason to fail the database start. The cache will warm up as usual.
+                log.warn( "Page cache warmup of a file failed.", e.getCause() );
+            }
+        }
+        return pagesLoaded.get();
+    }
+
+    private long reheatAll( PagedFile file, CursorContext cursorContext ) throws IOException
+    {
+        long pagesLoaded = 0;
+        long lastPageId = file.getLastPageId();
+        for ( long pageId = 0; pageId <= lastPageId && !stopped; pageId += MAX_TOUCH_RUN )
+        {
+            pagesLoaded += file.touch( pageId, MAX_TOUCH_RUN, cursorContext );
+        }
+        return pagesLoaded;
+    }
+
+    private long reheatProfiled( PagedFile file, CursorContext cursorContext ) throws IOException
+    {
+        Path profile = profileFile( file );
+        if ( profile == null || !fs.fileExists( profile ) )
+        {
+            return 0;
+        }
+        long pagesLoaded = 0;
+        long runStart = 0;
+        int runLength = 0;
+        long pageId = 0;
+        try ( InputStream input = new GZIPInputStream( new BufferedInputStream( fs.openAsInputStream( profile ) ) ) )
+        {
+            int bits;
+            while ( (bits = input.read()) != -1 && !stopped )
+            {
+                for ( int i = 0; i < Byte.SIZE; i++, pageId++ )
+                {
+                    if ( (bits & (1 << i)) != 0 )
+                    {
+                        if ( runLength == 0 )
+                        {
+                            runStart = pageId;
+                        }
+                        runLength++;
+                        if ( runLength == MAX_TOUCH_RUN )
+                        {
+                            pagesLoaded += file.touch( runStart, runLength, cursorContext );
+                            runLength = 0;
+                        }
+                    }
+                    else if ( runLength > 0 )
+                    {
+                        pagesLoaded += file.touch( runStart, runLength, cursorContext );
+                        runLength = 0;
+                    }
+                }
+            }
+        }
+        if ( runLength > 0 )
+        {
+            pagesLoaded += file.touch( runStart, runLength, cursorContext );
+        }
+        return pagesLoaded;
+    }
+
+    private void profileSafely()
+    {
+        try
+        {
+            profile();
+        }
+        catch ( Exception e )
+        {
+            log.warn( "Failed to profile the contents of the page cache.", e );
+        }
+    }
+
+    /**
+     * Write a profile of the pages currently in memory for each of the currently mapped files.
+     *
+     * @return the number of pages that were found to be in memory.
+     */
+    synchronized long profile() throws IOException
+    {
+        if ( readOnlyChecker.isReadOnly() )
+        {
+            return 0;
+        }
+        long pagesInMemory = 0;
+        try ( var cursorContext = new CursorContext( pageCacheTracer.createPageCursorTracer( PAGE_CACHE_WARMER_TAG ) ) )
+        {
+            for ( PagedFile file : pageCache.listExistingMappings() )
+            {
+                Path profile = profileFile( file );
+                if ( profile != null )
+                {
+                    pagesInMemory += profile( file, profile, cursorContext );
+                }
+            }
+        }
+        return pagesInMemory;
+    }
+
+    private long profile( PagedFile file, Path profile, CursorContext cursorContext ) throws IOException
+    {
+        Path temporaryProfile = profile.resolveSibling( profile.getFileName() + TEMPORARY_PROFILE_SUFFIX );
+        fs.mkdirs( profile.getParent() );
+        long pagesInMemory = 0;
+        try ( OutputStream output = new GZIPOutputStream( new BufferedOutputStream( fs.openAsOutputStream( temporaryProfile, false ) ) );
+              PageCursor cursor = file.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT | PF_TRANSIENT, cursorContext ) )
+        {
+            int bits = 0;
+            int bit = 0;
+            while ( cursor.next() )
+            {
+                if ( cursor.getCurrentPageId() != PageCursor.UNBOUND_PAGE_ID )
+                {
+                    bits |= 1 << bit;
+                    pagesInMemory++;
+                }
+                bit++;
+                if ( bit == Byte.SIZE )
+                {
+                    output.write( bits );
+                    bits = 0;
+                    bit = 0;
+                }
+            }
+            if ( bit > 0 )
+            {
+                output.write( bits );
+            }
+        }
+        catch ( IllegalStateException e )
+        {
+            // The file was unmapped while we profiled it, so there is nothing more to profile. Keep the old profile, if any.
+            fs.deleteFile( temporaryProfile );
+            return 0;
+        }
+        fs.renameFile( temporaryProfile, profile, ATOMIC_MOVE, REPLACE_EXISTING );
+        return pagesInMemory;
+    }
+
+    private Path profileFile( PagedFile file )
+    {
+        Path path = file.path().toAbsolutePath().normalize();
+        Path directory = databaseDirectory.toAbsolutePath().normalize();
+        if ( !path.startsWith( directory ) || path.startsWith( directory.resolve( PROFILES_DIRECTORY ) ) )
+        {
+            // We only keep profiles of the files that belong to this database.
+            return null;
+        }
+        Path relativePath = directory.relativize( path );
+        return profilesDirectory.resolve( relativePath ).resolveSibling( relativePath.getFileName() + PROFILE_SUFFIX );
+    }
+
+    @Override
+    public String toString()
+    {
+        return format( "%s[%s]", getClass().getSimpleName(), databaseName );
+    }
+}
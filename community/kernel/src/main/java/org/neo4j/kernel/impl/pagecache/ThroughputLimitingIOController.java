@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import java.io.Flushable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
+import org.neo4j.time.SystemNanoClock;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * An {@link IOController} that limits the flushing of the page cache to a number of bytes per second, regardless of how many pages are written
+ * with each IO. The limit is shared by all the files that are flushed at the same time.
+ */
+public class ThroughputLimitingIOController implements IOController
+{
+    /**
+     * How far ahead of the limit the flushing is allowed to get after having been idle, so that the large writes of coalesced pages don't cause
+     * a pause for every write.
+     */
+    private static final long MAX_BURST_NANOS = MILLISECONDS.toNanos( 100 );
+
+    private final double nanosPerByte;
+    private final SystemNanoClock clock;
+    private final AtomicInteger disableCounter = new AtomicInteger();
+    private long nextWriteNanos; // guarded by this
+
+    public ThroughputLimitingIOController( long bytesPerSecond, SystemNanoClock clock )
+    {
+        if ( bytesPerSecond <= 0 )
+        {
+            throw new IllegalArgumentException( "Throughput limit must be positive, but was " + bytesPerSecond );
+        }
+        this.nanosPerByte = (double) SECONDS.toNanos( 1 ) / bytesPerSecond;
+        this.clock = clock;
+        this.nextWriteNanos = clock.nanos() - MAX_BURST_NANOS;
+    }
+
+    @Override
+    public void maybeLimitIO( int recentlyCompletedIOs, Flushable flushable, MajorFlushEvent flushEvent )
+    {
+        // The caller does not know how much it wrote, so we assume that every IO wrote a single page.
+        maybeLimitIO( recentlyCompletedIOs, (long) recentlyCompletedIOs * PageCache.PAGE_SIZE, flushable, flushEvent );
+    }
+
+    @Override
+    public void maybeLimitIO( int recentlyCompletedIOs, long recentlyWrittenBytes, Flushable flushable, MajorFlushEvent flushEvent )
+    {
+        flushEvent.reportIO( recentlyCompletedIOs );
+        if ( !isEnabled() || recentlyWrittenBytes <= 0 )
+        {
+            return;
+        }
+        long pauseNanos = reserve( recentlyWrittenBytes );
+        if ( pauseNanos > 0 )
+        {
+            flushEvent.throttle( NANOSECONDS.toMillis( pauseNanos ) );
+            LockSupport.parkNanos( pauseNanos );
+        }
+    }
+
+    /**
+     * Reserve the time it takes to write the given number of bytes at the configured throughput.
+     *
+     * @return how long the caller has to pause to stay within the limit.
+     */
+    private synchronized long reserve( long bytes )
+    {
+        long now = clock.nanos();
+        nextWriteNanos = Math.max( nextWriteNanos, now - MAX_BURST_NANOS ) + (long) (bytes * nanosPerByte);
+        return nextWriteNanos - now;
+    }
+
+    @Override
+    public void reportIO( int completedIOs )
+    {
+        // IO done by other parts of the system is not limited by this controller.
+    }
+
+    @Override
+    public void disable()
+    {
+        disableCounter.incrementAndGet();
+    }
+
+    @Override
+    public void enable()
+    {
+        disableCounter.decrementAndGet();
+    }
+
+    @Override
+    public boolean isEnabled()
+    {
+        return disableCounter.get() == 0;
+    }
+}
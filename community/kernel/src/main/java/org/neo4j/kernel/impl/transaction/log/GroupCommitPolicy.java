@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import static java.lang.Math.min;
+
+/**
+ * Decides how long the {@link TransactionLogQueue} should wait for more transactions to join a batch, before forcing the transaction log.
+ * <p>
+ * Waiting lets more transactions share a single force, but it adds latency to the transactions that are already in the batch. It only pays off
+ * when other transactions are likely to arrive while waiting, and there is no point in waiting for longer than a force takes. So the policy:
+ * <ul>
+ *     <li>never waits for longer than the configured maximum wait, or once the batch has reached the configured maximum size,</li>
+ *     <li>only waits when the recently forced batches held clearly more than one transaction on average, i.e. when there are concurrent committers,</li>
+ *     <li>waits at most half of the observed force latency, which is tracked as an exponentially weighted moving average.</li>
+ * </ul>
+ * Not thread safe, it is only used by the log writer thread.
+ */
+class GroupCommitPolicy
+{
+    /**
+     * Weight of the latest observation in the moving averages, as a right shift. 3 means that each new observation contributes 1/8.
+     */
+    private static final int AVERAGE_SHIFT = 3;
+    /**
+     * The batch sizes are averaged in this fixed point precision, to not lose the fraction in the shifts.
+     */
+    private static final int BATCH_SIZE_SCALE = 1 << 8;
+    /**
+     * The average batch size, scaled, above which there are considered to be enough concurrent committers for waiting to pay off.
+     * A little above one, so that the odd batch of two does not make every following batch wait.
+     */
+    private static final long WAIT_THRESHOLD_SCALED_BATCH_SIZE = BATCH_SIZE_SCALE + BATCH_SIZE_SCALE / 4;
+
+    private final long maxWaitNanos;
+    private final int maxBatchSize;
+    private long averageForceNanos;
+    private long averageScaledBatchSize = BATCH_SIZE_SCALE;
+
+    GroupCommitPolicy( long maxWaitNanos, int maxBatchSize )
+    {
+        if ( maxWaitNanos < 0 )
+        {
+            throw new IllegalArgumentException( "Maximum wait cannot be negative, but was " + maxWaitNanos );
+        }
+        if ( maxBatchSize < 1 )
+        {
+            throw new IllegalArgumentException( "Maximum batch size must be positive, but was " + maxBatchSize );
+        }
+        this.maxWaitNanos = maxWaitNanos;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * @param batchSize the number of transactions in the batch so far.
+     * @return for how long, in nanoseconds, to wait in total for more transactions to join the batch, counting from when the first transaction
+     * of the batch was picked up. {@code 0} means that the batch should be forced right away.
+     */
+    long waitNanos( int batchSize )
+    {
+        if ( maxWaitNanos == 0 || batchSize >= maxBatchSize || averageScaledBatchSize < WAIT_THRESHOLD_SCALED_BATCH_SIZE )
+        {
+            return 0;
+        }
+        return min( maxWaitNanos, averageForceNanos >>> 1 );
+    }
+
+    /**
+     * @return {@code true} if the batch is full, and must be forced without waiting for more transactions.
+     */
+    boolean isFull( int batchSize )
+    {
+        return batchSize >= maxBatchSize;
+    }
+
+    /**
+     * Record that a batch was forced, to adapt the wait to the current load and storage latency.
+     *
+     * @param batchSize the number of transactions that were forced together.
+     * @param forceNanos the time it took to force them.
+     */
+    void batchForced( int batchSize, long forceNanos )
+    {
+        averageForceNanos += (forceNanos - averageForceNanos) >> AVERAGE_SHIFT;
+        averageScaledBatchSize += ((long) batchSize * BATCH_SIZE_SCALE - averageScaledBatchSize) >> AVERAGE_SHIFT;
+    }
+
+    long averageForceNanos()
+    {
+        return averageForceNanos;
+    }
+
+    double averageBatchSize()
+    {
+        return (double) averageScaledBatchSize / BATCH_SIZE_SCALE;
+    }
+}
@@ -147,6 +147,13 @@ public class LoggingLogFileMonitor implements RecoveryMonitor, RecoveryStartInfo
         log.info( sb.append( '.' ).toString() );
     }
 
+    @Override
+    public void nextLogFilePrepared( Path logFile, boolean recycled, long preparationMillis )
+    {
+        log.info( "Prepared %s transaction log file [%s] for the next rotation, preparation took %d millis.", recycled ? "recycled" : "new", logFile,
+                preparationMillis );
+    }
+
     private static String describeTransaction( LogEntryCommit lastTransaction )
     {
         if ( lastTransaction == null )
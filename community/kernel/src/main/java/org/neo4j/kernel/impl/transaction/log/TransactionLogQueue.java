@@ -46,8 +46,11 @@ import org.neo4j.scheduler.JobHandle;
 import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.TransactionIdStore;
 
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.locks.LockSupport.parkNanos;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.dedicated_transaction_appender_max_group_commit_batch;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.dedicated_transaction_appender_max_group_commit_wait_micros;
 import static org.neo4j.configuration.GraphDatabaseSettings.max_concurrent_transactions;
 import static org.neo4j.internal.helpers.Exceptions.throwIfUnchecked;
 import static org.neo4j.kernel.impl.api.TransactionToApply.TRANSACTION_ID_NOT_SPECIFIED;
@@ -56,6 +59,7 @@ public class TransactionLogQueue extends LifecycleAdapter
 {
     private static final int CONSUMER_MAX_BATCH = 1024;
     private static final int INITIAL_CAPACITY = 128;
+    private static final long GROUP_COMMIT_PARK_NANOS = MICROSECONDS.toNanos( 50 );
     private final LogFiles logFiles;
     private final LogRotation logRotation;
     private final TransactionIdStore transactionIdStore;
@@ -64,6 +68,8 @@ public class TransactionLogQueue extends LifecycleAdapter
     private final MpscChunkedArrayQueue<TxQueueElement> txAppendQueue;
     private final JobScheduler jobScheduler;
     private final Log log;
+    private final long maxGroupCommitWaitNanos;
+    private final int maxGroupCommitBatch;
     private JobHandle<?> jobHandle;
     private TransactionWriter transactionWriter;
     private volatile boolean stopped;
@@ -80,6 +86,8 @@ public class TransactionLogQueue extends LifecycleAdapter
         this.jobScheduler = jobScheduler;
         this.stopped = true;
         this.log = logProvider.getLog( getClass() );
+        this.maxGroupCommitWaitNanos = MICROSECONDS.toNanos( config.get( dedicated_transaction_appender_max_group_commit_wait_micros ) );
+        this.maxGroupCommitBatch = config.get( dedicated_transaction_appender_max_group_commit_batch );
     }
 
     public Future<Long> submit( TransactionToApply batch, LogAppendEvent logAppendEvent ) throws IOException
@@ -103,8 +111,9 @@ public class TransactionLogQueue extends LifecycleAdapter
     @Override
     public synchronized void start()
     {
-        transactionWriter =
-                new TransactionWriter( txAppendQueue, logFiles.getLogFile(), transactionIdStore, databaseHealth, transactionMetadataCache, logRotation, log );
+        var groupCommitPolicy = new GroupCommitPolicy( maxGroupCommitWaitNanos, maxGroupCommitBatch );
+        transactionWriter = new TransactionWriter( txAppendQueue, logFiles.getLogFile(), transactionIdStore, databaseHealth, transactionMetadataCache,
+                logRotation, groupCommitPolicy, log );
         jobHandle = jobScheduler.schedule( Group.LOG_WRITER, transactionWriter );
         stopped = false;
     }
@@ -156,13 +165,14 @@ public class TransactionLogQueue extends LifecycleAdapter
         private final Health databaseHealth;
         private final TransactionMetadataCache transactionMetadataCache;
         private final LogRotation logRotation;
+        private final GroupCommitPolicy groupCommitPolicy;
         private final Log log;
         private final int checksum;
         private volatile boolean stopped;
         private final MessagePassingQueue.WaitStrategy waitStrategy;
 
         TransactionWriter( MpscChunkedArrayQueue<TxQueueElement> txQueue, LogFile logFile, TransactionIdStore transactionIdStore, Health databaseHealth,
-                TransactionMetadataCache transactionMetadataCache, LogRotation logRotation, Log log )
+                TransactionMetadataCache transactionMetadataCache, LogRotation logRotation, GroupCommitPolicy groupCommitPolicy, Log log )
         {
             this.txQueue = txQueue;
             this.transactionLogWriter = logFile.getTransactionLogWriter();
@@ -172,6 +182,7 @@ public class TransactionLogQueue extends LifecycleAdapter
             this.databaseHealth = databaseHealth;
             this.transactionMetadataCache = transactionMetadataCache;
             this.logRotation = logRotation;
+            this.groupCommitPolicy = groupCommitPolicy;
             this.log = log;
             this.waitStrategy = new SleepingWaitingStrategy();
         }
@@ -191,14 +202,20 @@ public class TransactionLogQueue extends LifecycleAdapter
                     {
                         idleCounter = 0;
                         txConsumer.processBatch();
+                        long waitTimeNanos = awaitGroupCommit( txConsumer );
 
-                        LogAppendEvent logAppendEvent = txConsumer.txElements[drainedElements - 1].logAppendEvent;
+                        int batchSize = txConsumer.index;
+                        LogAppendEvent logAppendEvent = txConsumer.txElements[batchSize - 1].logAppendEvent;
+                        long forceStartNanos = System.nanoTime();
                         boolean logRotated = logRotation.locklessRotateLogIfNeeded( logAppendEvent );
                         logAppendEvent.setLogRotated( logRotated );
                         if ( !logRotated )
                         {
                             logFile.locklessForce( logAppendEvent );
                         }
+                        long forceTimeNanos = System.nanoTime() - forceStartNanos;
+                        groupCommitPolicy.batchForced( batchSize, forceTimeNanos );
+                        logAppendEvent.batchForced( batchSize, waitTimeNanos, forceTimeNanos );
 
                         txConsumer.complete();
                     }
@@ -223,6 +240,38 @@ public class TransactionLogQueue extends LifecycleAdapter
             }
         }
 
+        /**
+         * Keep appending transactions that arrive while the {@link GroupCommitPolicy} deems it worth waiting for them, so that they can share
+         * the force of the transactions already in the batch.
+         *
+         * @return the time spent waiting, in nanoseconds.
+         */
+        private long awaitGroupCommit( TxConsumer txConsumer ) throws IOException
+        {
+            long waitNanos = groupCommitPolicy.waitNanos( txConsumer.index );
+            if ( waitNanos == 0 )
+            {
+                return 0;
+            }
+            long startNanos = System.nanoTime();
+            long deadlineNanos = startNanos + waitNanos;
+            long nowNanos = startNanos;
+            while ( nowNanos < deadlineNanos && !stopped && !groupCommitPolicy.isFull( txConsumer.index ) && txConsumer.index < CONSUMER_MAX_BATCH )
+            {
+                if ( txQueue.drain( txConsumer, CONSUMER_MAX_BATCH - txConsumer.index ) > 0 )
+                {
+                    txConsumer.processBatch();
+                }
+                else
+                {
+                    // Park instead of spinning, so that the waiting doesn't take a core from the committing threads
+                    parkNanos( Math.min( deadlineNanos - nowNanos, GROUP_COMMIT_PARK_NANOS ) );
+                }
+                nowNanos = System.nanoTime();
+            }
+            return nowNanos - startNanos;
+        }
+
         private static class TxConsumer implements MessagePassingQueue.Consumer<TxQueueElement>
         {
             private final Health databaseHealth;
@@ -234,6 +283,7 @@ public class TransactionLogQueue extends LifecycleAdapter
             private final TxQueueElement[] txElements = new TransactionLogQueue.TxQueueElement[CONSUMER_MAX_BATCH];
             private final long[] txIds = new long[CONSUMER_MAX_BATCH];
             private int index;
+            private int processed;
 
             TxConsumer( Health databaseHealth, TransactionIdStore transactionIdStore, TransactionLogWriter transactionLogWriter, int checksum,
                     TransactionMetadataCache transactionMetadataCache )
@@ -254,8 +304,8 @@ public class TransactionLogQueue extends LifecycleAdapter
             private void processBatch() throws IOException
             {
                 databaseHealth.assertHealthy( IOException.class );
-                int drainedElements = index;
-                for ( int i = 0; i < drainedElements; i++ )
+                int drainedElements = index - processed;
+                for ( int i = processed; i < index; i++ )
                 {
                     TxQueueElement txQueueElement = txElements[i];
                     LogAppendEvent logAppendEvent = txQueueElement.logAppendEvent;
@@ -289,6 +339,7 @@ public class TransactionLogQueue extends LifecycleAdapter
                         throw new RuntimeException( e );
                     }
                 }
+                processed = index;
             }
 
             private void matchAgainstExpectedTransactionIdIfAny( long transactionId, TransactionToApply tx )
@@ -327,6 +378,7 @@ public class TransactionLogQueue extends LifecycleAdapter
                 }
                 Arrays.fill( txElements, 0, index, null );
                 index = 0;
+                processed = 0;
             }
 
             public void cancelBatch( Exception e )
@@ -337,6 +389,7 @@ public class TransactionLogQueue extends LifecycleAdapter
                 }
                 Arrays.fill( txElements, 0, index, null );
                 index = 0;
+                processed = 0;
             }
         }
 
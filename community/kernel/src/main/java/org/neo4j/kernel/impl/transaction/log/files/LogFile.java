@@ -160,4 +160,11 @@ public interface LogFile extends RotatableFile
      * @param maxDeletedVersion version up to terminate external readers.
      */
     void terminateExternalReaders( long maxDeletedVersion );
+
+    /**
+     * Offer a pruned log file for reuse as a future log file, instead of deleting it.
+     * @param version version of the pruned log file.
+     * @return {@code true} if the file was taken for reuse, otherwise the caller is responsible for deleting it.
+     */
+    boolean tryRecycle( long version );
 }
@@ -46,6 +46,7 @@ import org.neo4j.memory.MemoryTracker;
 import org.neo4j.monitoring.DatabaseHealth;
 import org.neo4j.monitoring.Monitors;
 import org.neo4j.monitoring.PanicEventGenerator;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.CommandReaderFactory;
 import org.neo4j.storageengine.api.KernelVersionRepository;
 import org.neo4j.storageengine.api.LogVersionRepository;
@@ -326,7 +327,7 @@ public class LogFilesBuilder
         return new TransactionLogFilesContext( rotationThreshold, tryPreallocateTransactionLogs, logEntryReader, lastCommittedIdSupplier,
                 committingTransactionIdSupplier, lastClosedTransactionPositionSupplier, logVersionRepositorySupplier,
                 fileSystem, logProvider, databaseTracers, storeIdSupplier, nativeAccess, memoryTracker, monitors, config.get( fail_on_corrupted_log_files ),
-                health, kernelVersionRepository, clock, databaseLayout.getDatabaseName(), config );
+                health, kernelVersionRepository, clock, databaseLayout.getDatabaseName(), config, getJobScheduler() );
     }
 
     private StorageEngineFactory storageEngineFactory()
@@ -382,6 +383,15 @@ public class LogFilesBuilder
         return NativeAccessProvider.getNativeAccess();
     }
 
+    private JobScheduler getJobScheduler()
+    {
+        if ( readOnly || dependencies == null || !dependencies.containsDependency( JobScheduler.class ) )
+        {
+            return null;
+        }
+        return dependencies.resolveDependency( JobScheduler.class );
+    }
+
     private AtomicLong getRotationThresholdAndRegisterForUpdates()
     {
         if ( rotationThreshold != null )
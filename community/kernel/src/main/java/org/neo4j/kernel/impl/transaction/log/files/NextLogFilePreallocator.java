@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.files;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.memory.HeapScopedBuffer;
+import org.neo4j.kernel.impl.transaction.log.rotation.monitor.LogRotationMonitor;
+import org.neo4j.logging.Log;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static org.neo4j.io.ByteUnit.mebiBytes;
+
+/**
+ * Prepares the file for the next transaction log version in the background, so that log rotation only has to rename it into place, instead of
+ * creating and preallocating it on the committing path.
+ * <p>
+ * The prepared file is kept under a name that does not match the transaction log file name pattern, so it is never mistaken for a log file.
+ * It is all zeros, which is how the log file allocation recognises a preallocated file that still needs its header written.
+ * <p>
+ * Optionally, pruned log files can be {@link #recycle(Path) recycled}. A recycled file is parked under another name that does not match the log
+ * file pattern, and is used for the next prepared file instead of creating a new one. Since it still contains old log entries, it is overwritten
+ * with zeros, and forced, before it is offered to rotation. That way the old entries can never be read as part of a new log file, and the file
+ * system blocks of the file have all been written once before the log gets to write them, so the forces of the log are pure data writes.
+ * <p>
+ * Any prepared or recycled file that is found on start is deleted, since it cannot be known whether it was completely prepared.
+ */
+class NextLogFilePreallocator
+{
+    private static final String NEXT_FILE_PREFIX = "next-";
+    private static final String RECYCLED_FILE_PREFIX = "recycled-";
+    private static final int ZERO_FILL_CHUNK = (int) mebiBytes( 1 );
+
+    private static final int EMPTY = 0;
+    private static final int PREPARING = 1;
+    private static final int READY = 2;
+    private static final int TAKING = 3;
+
+    private final FileSystemAbstraction fileSystem;
+    private final Path nextFile;
+    private final Path recycledFile;
+    private final ChannelNativeAccessor nativeAccessor;
+    private final AtomicBoolean tryPreallocate;
+    private final JobScheduler jobScheduler;
+    private final LogRotationMonitor monitor;
+    private final MemoryTracker memoryTracker;
+    private final Clock clock;
+    private final Log log;
+    private final boolean recycle;
+    private final AtomicInteger state = new AtomicInteger( EMPTY );
+    private final Object recycleLock = new Object();
+    private volatile boolean stopped = true;
+    private volatile JobHandle<?> jobHandle;
+
+    NextLogFilePreallocator( TransactionLogFilesContext context, Path logsDirectory, String baseName, ChannelNativeAccessor nativeAccessor,
+            JobScheduler jobScheduler, boolean recycle )
+    {
+        this.fileSystem = context.getFileSystem();
+        this.nextFile = logsDirectory.resolve( NEXT_FILE_PREFIX + baseName );
+        this.recycledFile = logsDirectory.resolve( RECYCLED_FILE_PREFIX + baseName );
+        this.nativeAccessor = nativeAccessor;
+        this.tryPreallocate = context.getTryPreallocateTransactionLogs();
+        this.jobScheduler = jobScheduler;
+        this.monitor = context.getMonitors().newMonitor( LogRotationMonitor.class );
+        this.memoryTracker = context.getMemoryTracker();
+        this.clock = context.getClock();
+        this.log = context.getLogProvider().getLog( getClass() );
+        this.recycle = recycle;
+    }
+
+    void start() throws IOException
+    {
+        fileSystem.deleteFile( nextFile );
+        fileSystem.deleteFile( recycledFile );
+        state.set( EMPTY );
+        stopped = false;
+        prepareInBackground();
+    }
+
+    void stop()
+    {
+        stopped = true;
+        JobHandle<?> handle = jobHandle;
+        if ( handle != null )
+        {
+            try
+            {
+                handle.waitTermination();
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+            catch ( ExecutionException | CancellationException e )
+            {
+                // The preparation handles its own failures, there is nothing more to clean up here.
+            }
+        }
+    }
+
+    /**
+     * Move the prepared file into place as the given log file, if there is a prepared file.
+     *
+     * @param logFile the file of the new log version, which must not exist.
+     * @return {@code true} if the prepared file was moved into place, otherwise the caller has to create the log file itself.
+     */
+    boolean takeAs( Path logFile )
+    {
+        if ( !state.compareAndSet( READY, TAKING ) )
+        {
+            return false;
+        }
+        boolean taken = false;
+        try
+        {
+            fileSystem.renameFile( nextFile, logFile, ATOMIC_MOVE );
+            taken = true;
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Failed to use prepared transaction log file " + nextFile + " as " + logFile + ". Will create it instead.", e );
+        }
+        finally
+        {
+            state.set( EMPTY );
+        }
+        prepareInBackground();
+        return taken;
+    }
+
+    /**
+     * Keep a pruned log file for reuse, instead of deleting it.
+     *
+     * @param prunedLogFile a log file that is no longer needed.
+     * @return {@code true} if the file was kept for reuse, otherwise the caller should delete it.
+     */
+    boolean recycle( Path prunedLogFile )
+    {
+        if ( !recycle || stopped )
+        {
+            return false;
+        }
+        synchronized ( recycleLock )
+        {
+            if ( fileSystem.fileExists( recycledFile ) )
+            {
+                return false;
+            }
+            try
+            {
+                fileSystem.renameFile( prunedLogFile, recycledFile, ATOMIC_MOVE );
+            }
+            catch ( IOException e )
+            {
+                log.warn( "Failed to recycle pruned transaction log file " + prunedLogFile + ". It will be deleted instead.", e );
+                return false;
+            }
+        }
+        prepareInBackground();
+        return true;
+    }
+
+    boolean isReady()
+    {
+        return state.get() == READY;
+    }
+
+    private void prepareInBackground()
+    {
+        if ( !stopped && state.compareAndSet( EMPTY, PREPARING ) )
+        {
+            try
+            {
+                jobHandle = jobScheduler.schedule( Group.LOG_ROTATION, this::prepare );
+            }
+            catch ( RuntimeException e )
+            {
+                state.set( EMPTY );
+                log.warn( "Failed to schedule preparation of the next transaction log file.", e );
+            }
+        }
+    }
+
+    private void prepare()
+    {
+        boolean prepared = false;
+        try
+        {
+            if ( stopped )
+            {
+                return;
+            }
+            long startMillis = clock.millis();
+            boolean recycled = takeRecycledFile();
+            try ( StoreChannel channel = fileSystem.write( nextFile ) )
+            {
+                if ( recycled )
+                {
+                    zeroFill( channel );
+                }
+                if ( tryPreallocate.get() )
+                {
+                    nativeAccessor.preallocateSpace( channel, -1 );
+                }
+                channel.force( true );
+            }
+            prepared = !stopped;
+            monitor.nextLogFilePrepared( nextFile, recycled, clock.millis() - startMillis );
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Failed to prepare the next transaction log file " + nextFile + ". It will be created on rotation instead.", e );
+            deleteQuietly( nextFile );
+        }
+        finally
+        {
+            state.set( prepared ? READY : EMPTY );
+        }
+    }
+
+    private boolean takeRecycledFile() throws IOException
+    {
+        synchronized ( recycleLock )
+        {
+            if ( !fileSystem.fileExists( recycledFile ) )
+            {
+                return false;
+            }
+            fileSystem.renameFile( recycledFile, nextFile, ATOMIC_MOVE );
+            return true;
+        }
+    }
+
+    private void zeroFill( StoreChannel channel ) throws IOException
+    {
+        long size = channel.size();
+        try ( var scopedBuffer = new HeapScopedBuffer( ZERO_FILL_CHUNK, memoryTracker ) )
+        {
+            ByteBuffer zeros = scopedBuffer.getBuffer();
+            long position = 0;
+            while ( position < size && !stopped )
+            {
+                int chunk = (int) Math.min( ZERO_FILL_CHUNK, size - position );
+                zeros.clear().limit( chunk );
+                channel.writeAll( zeros, position );
+                position += chunk;
+            }
+        }
+        if ( stopped )
+        {
+            throw new IOException( "Preparation of " + nextFile + " was interrupted by shutdown." );
+        }
+    }
+
+    private void deleteQuietly( Path file )
+    {
+        try
+        {
+            fileSystem.deleteFile( file );
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Failed to delete " + file, e );
+        }
+    }
+}
@@ -47,9 +47,16 @@ public class TransactionLogChannelAllocator
     private final LogHeaderCache logHeaderCache;
     private final ChannelNativeAccessor nativeChannelAccessor;
     private final DatabaseTracer databaseTracer;
+    private final NextLogFilePreallocator nextLogFilePreallocator;
 
     public TransactionLogChannelAllocator( TransactionLogFilesContext logFilesContext, TransactionLogFilesHelper fileHelper, LogHeaderCache logHeaderCache,
             ChannelNativeAccessor nativeChannelAccessor )
+    {
+        this( logFilesContext, fileHelper, logHeaderCache, nativeChannelAccessor, null );
+    }
+
+    TransactionLogChannelAllocator( TransactionLogFilesContext logFilesContext, TransactionLogFilesHelper fileHelper, LogHeaderCache logHeaderCache,
+            ChannelNativeAccessor nativeChannelAccessor, NextLogFilePreallocator nextLogFilePreallocator )
     {
         this.logFilesContext = logFilesContext;
         this.fileSystem = logFilesContext.getFileSystem();
@@ -57,6 +64,7 @@ public class TransactionLogChannelAllocator
         this.fileHelper = fileHelper;
         this.logHeaderCache = logHeaderCache;
         this.nativeChannelAccessor = nativeChannelAccessor;
+        this.nextLogFilePreallocator = nextLogFilePreallocator;
     }
 
     public PhysicalLogVersionedStoreChannel createLogChannel( long version, LongSupplier lastCommittedTransactionId ) throws IOException
@@ -148,6 +156,11 @@ public class TransactionLogChannelAllocator
     {
         Path file = fileHelper.getLogFileForVersion( version );
         boolean fileExist = fileSystem.fileExists( file );
+        if ( !fileExist && nextLogFilePreallocator != null && nextLogFilePreallocator.takeAs( file ) )
+        {
+            // The prepared file is already preallocated, and all zeros, so it only needs its header written.
+            return new AllocatedFile( file, fileSystem.write( file ) );
+        }
         StoreChannel storeChannel = fileSystem.write( file );
         if ( fileExist && fileSystem.getFileSize( file ) > 0 )
         {
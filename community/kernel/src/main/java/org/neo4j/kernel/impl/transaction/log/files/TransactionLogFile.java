@@ -42,6 +42,7 @@ import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.LongSupplier;
 
+import org.neo4j.configuration.Config;
 import org.neo4j.io.IOUtils;
 import org.neo4j.io.fs.DelegatingStoreChannel;
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -76,6 +77,8 @@ import org.neo4j.monitoring.DatabaseHealth;
 import org.neo4j.storageengine.api.LogVersionRepository;
 import org.neo4j.util.VisibleForTesting;
 
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.transaction_log_prepare_next_file;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.transaction_log_recycle_pruned_files;
 import static org.neo4j.configuration.GraphDatabaseSettings.transaction_log_buffer_size;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
 import static org.neo4j.kernel.impl.transaction.log.rotation.FileLogRotation.transactionLogRotation;
@@ -100,6 +103,7 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile
     private final DatabaseHealth databaseHealth;
     private final String baseName;
     private final LogRotation logRotation;
+    private final NextLogFilePreallocator nextLogFilePreallocator;
 
     private volatile PhysicalLogVersionedStoreChannel channel;
     private PositionAwarePhysicalFlushableChecksumChannel writer;
@@ -119,8 +123,9 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile
         this.fileHelper = new TransactionLogFilesHelper( fileSystem, logFiles.logFilesDirectory(), baseName );
         this.logHeaderCache = new LogHeaderCache( 1000 );
         this.logFileInformation = new TransactionLogFileInformation( logFiles, logHeaderCache, context );
-        this.channelAllocator = new TransactionLogChannelAllocator( context, fileHelper, logHeaderCache,
-                new LogFileChannelNativeAccessor( fileSystem, context ) );
+        var nativeAccessor = new LogFileChannelNativeAccessor( fileSystem, context );
+        this.nextLogFilePreallocator = createNextLogFilePreallocator( logFiles, context, baseName, nativeAccessor );
+        this.channelAllocator = new TransactionLogChannelAllocator( context, fileHelper, logHeaderCache, nativeAccessor, nextLogFilePreallocator );
         this.readerLogVersionBridge = new ReaderLogVersionBridge( this );
         this.pageCacheTracer = context.getDatabaseTracers().getPageCacheTracer();
         this.logRotation = transactionLogRotation( this, context.getClock(), databaseHealth, context.getMonitors().newMonitor( LogRotationMonitor.class ) );
@@ -146,6 +151,10 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile
         writer = new PositionAwarePhysicalFlushableChecksumChannel( channel,
                 new NativeScopedBuffer( context.getConfig().get( transaction_log_buffer_size ), memoryTracker ) );
         transactionLogWriter = new TransactionLogWriter( writer, new DbmsLogEntryWriterFactory( context.getKernelVersionProvider() ) );
+        if ( nextLogFilePreallocator != null )
+        {
+            nextLogFilePreallocator.start();
+        }
     }
 
     // In order to be able to write into a logfile after life.stop during shutdown sequence
@@ -154,6 +163,10 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile
     @Override
     public void shutdown() throws IOException
     {
+        if ( nextLogFilePreallocator != null )
+        {
+            nextLogFilePreallocator.stop();
+        }
         IOUtils.closeAll( writer );
     }
 
@@ -587,6 +600,12 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile
         } );
     }
 
+    @Override
+    public boolean tryRecycle( long version )
+    {
+        return nextLogFilePreallocator != null && nextLogFilePreallocator.recycle( getLogFileForVersion( version ) );
+    }
+
     @VisibleForTesting
     public ConcurrentMap<Long,List<StoreChannel>> getExternalFileReaders()
     {
@@ -613,7 +632,7 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile
      * <ol>
      * <li>1: Increment log version, {@link LogVersionRepository#incrementAndGetVersion(CursorContext)} (also flushes the store)</li>
      * <li>2: Flush current log</li>
-     * <li>3: Create new log file</li>
+     * <li>3: Create new log file, or rename the {@link NextLogFilePreallocator prepared} one into place</li>
      * <li>4: Write header</li>
      * </ol>
      *
@@ -678,6 +697,18 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile
         return newLog;
     }
 
+    private static NextLogFilePreallocator createNextLogFilePreallocator( LogFiles logFiles, TransactionLogFilesContext context, String baseName,
+            ChannelNativeAccessor nativeAccessor )
+    {
+        Config config = context.getConfig();
+        if ( context.getJobScheduler() == null || !config.get( transaction_log_prepare_next_file ) )
+        {
+            return null;
+        }
+        return new NextLogFilePreallocator( context, logFiles.logFilesDirectory(), baseName, nativeAccessor, context.getJobScheduler(),
+                config.get( transaction_log_recycle_pruned_files ) );
+    }
+
     private static boolean isCoveredByCommittedTransaction( LogPosition targetPosition, long targetVersion, LogPosition lastClosed )
     {
         return lastClosed.getLogVersion() > targetVersion ||
@@ -35,6 +35,7 @@ import org.neo4j.logging.LogProvider;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.monitoring.DatabaseHealth;
 import org.neo4j.monitoring.Monitors;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.KernelVersionRepository;
 import org.neo4j.storageengine.api.LogVersionRepository;
 import org.neo4j.storageengine.api.StoreId;
@@ -61,13 +62,14 @@ public class TransactionLogFilesContext
     private final Clock clock;
     private final String databaseName;
     private final Config config;
+    private final JobScheduler jobScheduler;
 
     public TransactionLogFilesContext( AtomicLong rotationThreshold, AtomicBoolean tryPreallocateTransactionLogs, LogEntryReader logEntryReader,
             LongSupplier lastCommittedTransactionIdSupplier, LongSupplier committingTransactionIdSupplier, Supplier<LogPosition> lastClosedPositionSupplier,
             Supplier<LogVersionRepository> logVersionRepositorySupplier,FileSystemAbstraction fileSystem, LogProvider logProvider,
             DatabaseTracers databaseTracers, Supplier<StoreId> storeId, NativeAccess nativeAccess,
             MemoryTracker memoryTracker, Monitors monitors, boolean failOnCorruptedLogFiles, DatabaseHealth databaseHealth,
-            KernelVersionRepository kernelVersionRepository, Clock clock, String databaseName, Config config )
+            KernelVersionRepository kernelVersionRepository, Clock clock, String databaseName, Config config, JobScheduler jobScheduler )
     {
         this.rotationThreshold = rotationThreshold;
         this.tryPreallocateTransactionLogs = tryPreallocateTransactionLogs;
@@ -89,6 +91,7 @@ public class TransactionLogFilesContext
         this.clock = clock;
         this.databaseName = databaseName;
         this.config = config;
+        this.jobScheduler = jobScheduler;
     }
 
     AtomicLong getRotationThreshold()
@@ -190,4 +193,12 @@ public class TransactionLogFilesContext
     {
         return config;
     }
+
+    /**
+     * @return the scheduler for background work on the log files, or {@code null} if there is none, e.g. when the log files are read only.
+     */
+    JobScheduler getJobScheduler()
+    {
+        return jobScheduler;
+    }
 }
@@ -158,6 +158,10 @@ public class LogPruningImpl implements LogPruning
         {
             fromVersion = fromVersion == NO_VERSION ? version : Math.min( fromVersion, version );
             toVersion = toVersion == NO_VERSION ? version : Math.max( toVersion, version );
+            if ( logFile.tryRecycle( version ) )
+            {
+                return;
+            }
             Path logFilePath = logFile.getLogFileForVersion( version );
             try
             {
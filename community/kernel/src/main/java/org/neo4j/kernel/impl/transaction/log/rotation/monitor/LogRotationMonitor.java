@@ -34,4 +34,13 @@ public interface LogRotationMonitor
     void startRotation( long currentLogVersion );
 
     void finishLogRotation( Path logFile, long logVersion, long lastTransactionId, long rotationMillis, long millisSinceLastRotation );
+
+    /**
+     * Called when the file for the next log version has been prepared in the background. Preparing it used to be part of the rotation,
+     * so comparing the preparation time with the rotation time shows how much of the rotation was moved off the committing path.
+     * @param logFile the prepared file, which will be renamed into place on the next rotation.
+     * @param recycled whether the file was a recycled, pruned log file, rather than a new one.
+     * @param preparationMillis the time it took to prepare the file.
+     */
+    void nextLogFilePrepared( Path logFile, boolean recycled, long preparationMillis );
 }
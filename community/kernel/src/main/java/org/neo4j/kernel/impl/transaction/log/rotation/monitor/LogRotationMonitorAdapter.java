@@ -42,4 +42,10 @@ public class LogRotationMonitorAdapter implements LogRotationMonitor
     {
         //empty
     }
+
+    @Override
+    public void nextLogFilePrepared( Path logFile, boolean recycled, long preparationMillis )
+    {
+        //empty
+    }
 }
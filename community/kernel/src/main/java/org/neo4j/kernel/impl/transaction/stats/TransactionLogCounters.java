@@ -21,6 +21,10 @@ package org.neo4j.kernel.impl.transaction.stats;
 
 public interface TransactionLogCounters
 {
+    /**
+     * Number of buckets in the {@link #transactionLogAppendBatchSizes() batch size histogram}.
+     */
+    int BATCH_SIZE_BUCKETS = 11;
     /**
      * Total number of bytes appended to transaction logs as result of applying transactions
      * @return total number of appended bytes
@@ -56,4 +60,29 @@ public interface TransactionLogCounters
      * @return last append batch size
      */
     long lastTransactionLogAppendBatch();
+
+    /**
+     * Number of batches of transactions that the dedicated transaction appender has forced to the transaction log together, by batch size.
+     * Bucket {@code i} counts the batches of {@code 2^i} up to {@code 2^(i+1) - 1} transactions, and the last bucket also counts all larger batches.
+     * @return a snapshot of the batch size histogram, with {@link #BATCH_SIZE_BUCKETS} buckets
+     */
+    long[] transactionLogAppendBatchSizes();
+
+    /**
+     * Accumulated time spent by the dedicated transaction appender forcing batches of transactions, in microseconds
+     * @return accumulated force time in microseconds
+     */
+    long logForceAccumulatedTotalTimeMicros();
+
+    /**
+     * Time spent by the dedicated transaction appender forcing the last batch of transactions, in microseconds
+     * @return last force time in microseconds
+     */
+    long lastLogForceTimeMicros();
+
+    /**
+     * Accumulated time spent by the dedicated transaction appender waiting for more transactions to join a batch, in microseconds
+     * @return accumulated group commit wait time in microseconds
+     */
+    long groupCommitWaitAccumulatedTotalTimeMicros();
 }
@@ -114,6 +114,30 @@ public interface DatabaseTracer extends TransactionTracer, CheckPointTracer
         {
             return 0;
         }
+
+        @Override
+        public long[] transactionLogAppendBatchSizes()
+        {
+            return new long[BATCH_SIZE_BUCKETS];
+        }
+
+        @Override
+        public long logForceAccumulatedTotalTimeMicros()
+        {
+            return 0;
+        }
+
+        @Override
+        public long lastLogForceTimeMicros()
+        {
+            return 0;
+        }
+
+        @Override
+        public long groupCommitWaitAccumulatedTotalTimeMicros()
+        {
+            return 0;
+        }
     };
 
     LogFileCreateEvent createLogFile();
@@ -54,6 +54,16 @@ public interface LogAppendEvent extends LogForceEvents, LogRotateEvents, AutoClo
      */
     AppendTransactionEvent beginAppendTransaction( int appendItems );
 
+    /**
+     * Notify that a batch of transactions has been forced to the transaction log together, by the dedicated transaction appender.
+     * @param batchSize number of transactions in the batch
+     * @param waitTimeNanos time spent waiting for more transactions to join the batch
+     * @param forceTimeNanos time spent forcing, or rotating, the transaction log
+     */
+    default void batchForced( int batchSize, long waitTimeNanos, long forceTimeNanos )
+    {
+    }
+
     class Empty implements LogAppendEvent
     {
         @Override
@@ -548,7 +548,7 @@ public final class Recovery
                                         transactionStore, metadataProvider, schemaLife, databaseLayout, failOnCorruptedLogFiles, recoveryLog,
                                         startupChecker, tracers.getPageCacheTracer(), memoryTracker, doParallelRecovery, recoveryPredicate );
 
-        CheckPointerImpl.ForceOperation forceOperation = new DefaultForceOperation( indexingService, storageEngine );
+        CheckPointerImpl.ForceOperation forceOperation = new DefaultForceOperation( indexingService, storageEngine, databasePageCache, logProvider );
         var checkpointAppender = logFiles.getCheckpointFile().getCheckpointAppender();
         LogPruning logPruning = pruneLogs
                                 ? new LogPruningImpl( fs, logFiles, logProvider, new LogPruneStrategyFactory(), clock, config, new ReentrantLock() )
@@ -21,11 +21,18 @@ package org.neo4j.kernel.impl.api.index;
 
 import org.junit.jupiter.api.Test;
 
+import org.neo4j.common.Subject;
+import org.neo4j.configuration.Config;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.test.OnDemandJobScheduler;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.neo4j.common.EntityType.NODE;
+import static org.neo4j.common.EntityType.RELATIONSHIP;
+import static org.neo4j.internal.kernel.api.IndexMonitor.NO_MONITOR;
+import static org.neo4j.io.pagecache.tracing.PageCacheTracer.NULL;
 
 class IndexPopulationJobControllerTest
 {
@@ -75,6 +82,53 @@ class IndexPopulationJobControllerTest
         verify( populationJob ).run();
     }
 
+    @Test
+    void findQueuedPopulationJobsThatIndexesCanJoin()
+    {
+        IndexPopulationJob populationJob = newIndexPopulationJob();
+        assertThat( jobController.queuedPopulationJob( NODE, false ) ).isNull();
+
+        jobController.startIndexPopulation( populationJob );
+
+        assertThat( jobController.queuedPopulationJob( NODE, false ) ).isSameAs( populationJob );
+        assertThat( jobController.queuedPopulationJob( RELATIONSHIP, false ) ).isNull();
+        assertThat( jobController.queuedPopulationJob( NODE, true ) ).isNull();
+
+        executer.runJob();
+
+        assertThat( jobController.queuedPopulationJob( NODE, false ) ).isNull();
+    }
+
+    @Test
+    void notJoinPopulationJobThatHasStarted()
+    {
+        IndexPopulationJob populationJob = newIndexPopulationJob();
+        assertThat( populationJob.<String>addPopulatorsIfNotStarted( () -> "joined" ) ).isEqualTo( "joined" );
+
+        populationJob.run();
+
+        assertThat( populationJob.canJoin( NODE, false ) ).isFalse();
+        assertThat( populationJob.<String>addPopulatorsIfNotStarted( () -> "joined" ) ).isNull();
+    }
+
+    @Test
+    void notJoinPopulationJobThatHasBeenStopped()
+    {
+        IndexPopulationJob populationJob = newIndexPopulationJob();
+        jobController.startIndexPopulation( populationJob );
+
+        populationJob.stop();
+
+        assertThat( jobController.queuedPopulationJob( NODE, false ) ).isNull();
+        assertThat( populationJob.<String>addPopulatorsIfNotStarted( () -> "joined" ) ).isNull();
+    }
+
+    private static IndexPopulationJob newIndexPopulationJob()
+    {
+        return new IndexPopulationJob( mock( MultipleIndexPopulator.class ), NO_MONITOR, false, NULL, mock( MemoryTracker.class ), "db",
+                Subject.SYSTEM, NODE, Config.defaults() );
+    }
+
     private static IndexPopulationJob getIndexPopulationJob()
     {
         return mock( IndexPopulationJob.class );
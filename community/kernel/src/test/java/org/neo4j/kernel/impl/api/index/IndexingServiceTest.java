@@ -33,6 +33,7 @@ import org.mockito.stubbing.Answer;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -130,6 +131,7 @@ import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.neo4j.common.Subject.AUTH_DISABLED;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.index_population_join_delay;
 import static org.neo4j.configuration.GraphDatabaseSettings.SchemaIndex.NATIVE30;
 import static org.neo4j.configuration.GraphDatabaseSettings.SchemaIndex.NATIVE_BTREE10;
 import static org.neo4j.configuration.GraphDatabaseSettings.default_schema_provider;
@@ -881,6 +883,32 @@ class IndexingServiceTest
         waitForIndexesToComeOnline( indexing, index1, index2, index3 );
     }
 
+    @Test
+    void shouldPopulateIndexesCreatedShortlyAfterEachOtherWithOneStoreScan() throws Exception
+    {
+        // GIVEN
+        Config config = Config.newBuilder()
+                .set( default_schema_provider, PROVIDER_DESCRIPTOR.name() )
+                .set( index_population_join_delay, Duration.ofSeconds( 1 ) ).build();
+        IndexingService indexing = newIndexingServiceWithMockedDependencies( populator, accessor,
+                withData( addNodeUpdate( 0, "value", 1 ) ), IndexMonitor.NO_MONITOR, config );
+        life.start();
+
+        // WHEN
+        IndexDescriptor index1 = storeIndex( 0, 0, 0, PROVIDER_DESCRIPTOR );
+        IndexDescriptor index2 = storeIndex( 1, 0, 1, PROVIDER_DESCRIPTOR );
+        IndexDescriptor index3 = storeIndex( 2, 1, 0, PROVIDER_DESCRIPTOR );
+        indexing.createIndexes( AUTH_DISABLED, index1 );
+        indexing.createIndexes( AUTH_DISABLED, index2 );
+        indexing.createIndexes( AUTH_DISABLED, index3 );
+        waitForIndexesToComeOnline( indexing, index1, index2, index3 );
+
+        // THEN
+        verify( storeView, times( 1 ) ).visitNodes( any(int[].class), any( IntPredicate.class ),
+                any( PropertyScanConsumer.class ), isNull(), anyBoolean(), anyBoolean(), any( PageCacheTracer.class ), any() );
+        verify( populator, timeout( 10000 ).times( 3 ) ).close( eq( true ), any() );
+    }
+
     @Test
     void shouldStoreIndexFailureWhenFailingToCreateOnlineAccessorAfterPopulating() throws Exception
     {
@@ -1503,6 +1531,15 @@ class IndexingServiceTest
 
     private IndexingService newIndexingServiceWithMockedDependencies(
             IndexPopulator populator, IndexAccessor accessor, DataUpdates data, IndexMonitor monitor, IndexDescriptor... rules ) throws IOException
+    {
+        Config config = Config.newBuilder()
+                .set( default_schema_provider, PROVIDER_DESCRIPTOR.name() ).build();
+        return newIndexingServiceWithMockedDependencies( populator, accessor, data, monitor, config, rules );
+    }
+
+    private IndexingService newIndexingServiceWithMockedDependencies(
+            IndexPopulator populator, IndexAccessor accessor, DataUpdates data, IndexMonitor monitor, Config config, IndexDescriptor... rules )
+            throws IOException
     {
         when( indexProvider.getInitialState( any( IndexDescriptor.class ), any( CursorContext.class ) ) ).thenReturn( ONLINE );
         when( indexProvider.getProviderDescriptor() ).thenReturn( PROVIDER_DESCRIPTOR );
@@ -1514,9 +1551,6 @@ class IndexingServiceTest
         when( indexProvider.storeMigrationParticipant( any( FileSystemAbstraction.class ), any( PageCache.class ), any() ) )
                 .thenReturn( StoreMigrationParticipant.NOT_PARTICIPATING );
 
-        Config config = Config.newBuilder()
-                .set( default_schema_provider, PROVIDER_DESCRIPTOR.name() ).build();
-
         MockIndexProviderMap providerMap = life.add( new MockIndexProviderMap( indexProvider ) );
         return life.add( IndexingServiceFactory.createIndexingService( config,
                         life.add( scheduler ), providerMap,
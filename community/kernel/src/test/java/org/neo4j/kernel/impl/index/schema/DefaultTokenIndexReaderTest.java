@@ -137,7 +137,7 @@ class DefaultTokenIndexReaderTest
     private static TokenScanValue value( long bits )
     {
         TokenScanValue value = new TokenScanValue();
-        value.bits = bits;
+        value.setWord( 0, bits );
         return value;
     }
 
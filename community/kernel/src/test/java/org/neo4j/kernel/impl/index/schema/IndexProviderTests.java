@@ -336,6 +336,11 @@ abstract class IndexProviderTests
     }
 
     private IndexProvider newProvider( DatabaseReadOnlyChecker readOnlyChecker )
+    {
+        return newProvider( factory, readOnlyChecker );
+    }
+
+    IndexProvider newProvider( ProviderFactory factory, DatabaseReadOnlyChecker readOnlyChecker )
     {
         return factory.create( pageCache, fs, directoriesByProvider( testDirectory.absolutePath() ), monitors, immediate(), readOnlyChecker, databaseLayout );
     }
@@ -159,7 +159,7 @@ class NativeAllEntriesTokenScanReaderTest
                 if ( entry.first().idRange == rangeId )
                 {
                     long baseNodeId = entry.first().idRange * RANGE_SIZE;
-                    long bits = entry.other().bits;
+                    long bits = entry.other().word( 0 );
                     while ( bits != 0 )
                     {
                         long nodeId = baseNodeId + Long.numberOfTrailingZeros( bits );
@@ -208,7 +208,7 @@ class NativeAllEntriesTokenScanReaderTest
             long range = nodeId / RANGE_SIZE;
             if ( range != currentRange )
             {
-                if ( value.bits != 0 )
+                if ( !value.isEmpty() )
                 {
                     entries.add( Pair.of( new TokenScanKey().set( labelId, currentRange ), value ) );
                     value = new TokenScanValue();
@@ -218,7 +218,7 @@ class NativeAllEntriesTokenScanReaderTest
             currentRange = range;
         }
 
-        if ( value.bits != 0 )
+        if ( !value.isEmpty() )
         {
             entries.add( Pair.of( new TokenScanKey().set( labelId, currentRange ), value ) );
         }
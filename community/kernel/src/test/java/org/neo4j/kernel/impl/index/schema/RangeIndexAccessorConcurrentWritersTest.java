@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
+import org.neo4j.internal.kernel.api.PropertyIndexQuery;
+import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.scheduler.CallableExecutor;
+import org.neo4j.scheduler.Group;
+import org.neo4j.storageengine.api.ValueIndexEntryUpdate;
+import org.neo4j.test.Race;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
+import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.writable;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+import static org.neo4j.kernel.impl.api.index.IndexUpdateMode.ONLINE;
+import static org.neo4j.kernel.impl.api.index.IndexUpdateMode.RECOVERY;
+import static org.neo4j.kernel.impl.index.schema.PartitionedNativeIndexUpdater.MIN_UPDATES_PER_APPLIER;
+import static org.neo4j.test.Race.throwing;
+import static org.neo4j.values.storable.Values.longValue;
+
+class RangeIndexAccessorConcurrentWritersTest extends RangeIndexAccessorTest
+{
+    private static final int APPLIERS = 4;
+
+    @Override
+    NativeIndexAccessor<RangeKey> createAccessor( PageCache pageCache )
+    {
+        RecoveryCleanupWorkCollector cleanup = RecoveryCleanupWorkCollector.immediate();
+        DatabaseIndexContext context = DatabaseIndexContext.builder( pageCache, fs, DEFAULT_DATABASE_NAME ).withReadOnlyChecker( writable() )
+                                                           .withConcurrentWriters( true )
+                                                           .withUpdateApplierExecutor( jobScheduler.executor( Group.INDEX_UPDATE_WORK ) ).build();
+        return new RangeIndexAccessor( context, indexFiles, layout, cleanup, indexDescriptor, tokenNameLookup );
+    }
+
+    @Disabled( "Updaters using concurrent writers can be used at the same time" )
+    @Override
+    @Test
+    void requestForSecondUpdaterMustThrow()
+    {
+    }
+
+    @Test
+    void shouldApplyOnlineUpdatesFromWritersUsedAtTheSameTime() throws Throwable
+    {
+        // given
+        ValueIndexEntryUpdate<IndexDescriptor>[] updates = someUpdatesSingleType();
+        int updaters = 4;
+        CyclicBarrier allUpdatersWritten = new CyclicBarrier( updaters );
+
+        // when
+        Race race = new Race();
+        for ( int i = 0; i < updaters; i++ )
+        {
+            int updater = i;
+            race.addContestant( throwing( () ->
+            {
+                try ( IndexUpdater indexUpdater = accessor.newUpdater( ONLINE, NULL ) )
+                {
+                    for ( int u = updater; u < updates.length; u += updaters )
+                    {
+                        indexUpdater.process( updates[u] );
+                    }
+                    // Online updates are written in place, so only reached if all updaters have written using their own writers at the same time
+                    allUpdatersWritten.await( 1, MINUTES );
+                }
+            } ) );
+        }
+        race.go();
+
+        // then
+        accessor.force( NULL );
+        closeAccessor();
+        valueUtil.verifyUpdates( updates, this::getTree );
+    }
+
+    @Test
+    void shouldApplyRecoveredUpdates() throws Exception
+    {
+        // given
+        ValueIndexEntryUpdate<IndexDescriptor>[] updates = someUpdatesSingleType();
+
+        // when
+        try ( IndexUpdater updater = accessor.newUpdater( RECOVERY, NULL ) )
+        {
+            for ( ValueIndexEntryUpdate<IndexDescriptor> update : updates )
+            {
+                updater.process( update );
+            }
+        }
+
+        // then
+        accessor.force( NULL );
+        closeAccessor();
+        valueUtil.verifyUpdates( updates, this::getTree );
+    }
+
+    @Test
+    void shouldSpreadLargeBatchOverApplierThreadsByKeyRange() throws Exception
+    {
+        // given
+        int entities = APPLIERS * MIN_UPDATES_PER_APPLIER;
+        Set<Thread> helperThreads = ConcurrentHashMap.newKeySet();
+
+        // when
+        try ( IndexUpdater updater = partitionedUpdater( false, helperThreads ) )
+        {
+            for ( long entity = 0; entity < entities; entity++ )
+            {
+                updater.process( ValueIndexEntryUpdate.add( entity, indexDescriptor, longValue( entity ) ) );
+            }
+            // Changes must be applied after the adds of the same entity
+            for ( long entity = 0; entity < entities; entity++ )
+            {
+                updater.process( ValueIndexEntryUpdate.change( entity, indexDescriptor, longValue( entity ), longValue( entity + entities ) ) );
+            }
+        }
+
+        // then
+        assertThat( helperThreads ).hasSize( APPLIERS - 1 ).doesNotContain( Thread.currentThread() );
+        assertEntitiesInValueRange( 0, entities, new long[0] );
+        assertEntitiesInValueRange( entities, 2L * entities, LongStream.range( 0, entities ).toArray() );
+    }
+
+    @Test
+    void shouldApplyUniqueValuesMovingBetweenEntitiesOverApplierThreads() throws Exception
+    {
+        // given
+        int entities = APPLIERS * MIN_UPDATES_PER_APPLIER;
+        Set<Thread> helperThreads = ConcurrentHashMap.newKeySet();
+
+        // when
+        try ( IndexUpdater updater = partitionedUpdater( true, helperThreads ) )
+        {
+            for ( long entity = 0; entity < entities; entity++ )
+            {
+                updater.process( ValueIndexEntryUpdate.add( entity, indexDescriptor, longValue( entity ) ) );
+            }
+            // Every value moves on to another entity, which is only free of conflicts if the changes of a value are applied in order
+            for ( long entity = 0; entity < entities; entity++ )
+            {
+                updater.process( ValueIndexEntryUpdate.change( entity, indexDescriptor, longValue( entity ), longValue( entity + entities ) ) );
+                updater.process( ValueIndexEntryUpdate.add( entity + entities, indexDescriptor, longValue( entity ) ) );
+            }
+        }
+
+        // then
+        assertThat( helperThreads ).hasSize( APPLIERS - 1 );
+        assertEntitiesInValueRange( 0, entities, LongStream.range( entities, 2L * entities ).toArray() );
+        assertEntitiesInValueRange( entities, 2L * entities, LongStream.range( 0, entities ).toArray() );
+    }
+
+    @Test
+    void shouldDetectConflictWithinUniqueBatch() throws Exception
+    {
+        // given
+        IndexUpdater updater = partitionedUpdater( true, ConcurrentHashMap.newKeySet() );
+        updater.process( ValueIndexEntryUpdate.add( 1, indexDescriptor, longValue( 42 ) ) );
+        updater.process( ValueIndexEntryUpdate.add( 2, indexDescriptor, longValue( 42 ) ) );
+
+        // when
+        IndexEntryConflictException conflict = assertThrows( IndexEntryConflictException.class, updater::close );
+
+        // then
+        assertThat( conflict.getExistingNodeId() ).isEqualTo( 1 );
+        assertThat( conflict.getAddedNodeId() ).isEqualTo( 2 );
+    }
+
+    private IndexUpdater partitionedUpdater( boolean unique, Set<Thread> helperThreads )
+    {
+        CyclicBarrier allHelpersRunning = new CyclicBarrier( APPLIERS - 1 );
+        CallableExecutor executor = jobScheduler.executor( Group.INDEX_UPDATE_WORK );
+        CallableExecutor trackingExecutor = new CallableExecutor()
+        {
+            @Override
+            public <T> Future<T> submit( Callable<T> callable )
+            {
+                return executor.submit( () ->
+                {
+                    helperThreads.add( Thread.currentThread() );
+                    // Only passes if the helpers run at the same time
+                    allHelpersRunning.await( 1, MINUTES );
+                    return callable.call();
+                } );
+            }
+
+            @Override
+            public void execute( Runnable command )
+            {
+                throw new UnsupportedOperationException();
+            }
+        };
+        NativeIndexAccessor<RangeKey> nativeAccessor = (NativeIndexAccessor<RangeKey>) accessor;
+        return new PartitionedNativeIndexUpdater<>( nativeAccessor.tree, layout, IndexUpdateIgnoreStrategy.NO_IGNORE, unique, trackingExecutor, APPLIERS,
+                PageCacheTracer.NULL, NULL );
+    }
+
+    private void assertEntitiesInValueRange( long fromInclusive, long toExclusive, long[] expectedEntities ) throws Exception
+    {
+        try ( var reader = accessor.newValueReader();
+              var result = query( reader, PropertyIndexQuery.range( 0, fromInclusive, true, toExclusive, false ) ) )
+        {
+            assertEntityIdHits( expectedEntities, result );
+        }
+    }
+}
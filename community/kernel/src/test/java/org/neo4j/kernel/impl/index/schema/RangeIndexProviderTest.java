@@ -23,40 +23,61 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.neo4j.common.EntityType;
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
+import org.neo4j.internal.kernel.api.InternalIndexState;
+import org.neo4j.internal.kernel.api.PropertyIndexQuery;
+import org.neo4j.internal.kernel.api.security.AccessMode;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.IndexPrototype;
 import org.neo4j.internal.schema.IndexType;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.index.IndexAccessor;
+import org.neo4j.kernel.api.index.IndexPopulator;
 import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.index.ValueIndexReader;
 import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
 import org.neo4j.storageengine.api.IndexEntryUpdate;
+import org.neo4j.storageengine.api.schema.SimpleEntityValueClient;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
+import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.writable;
+import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unconstrained;
+import static org.neo4j.internal.kernel.api.QueryContext.NULL_CONTEXT;
 import static org.neo4j.internal.schema.IndexPrototype.forSchema;
 import static org.neo4j.internal.schema.IndexPrototype.uniqueForSchema;
 import static org.neo4j.internal.schema.SchemaDescriptors.forAnyEntityTokens;
 import static org.neo4j.internal.schema.SchemaDescriptors.forLabel;
 import static org.neo4j.internal.schema.SchemaDescriptors.fulltext;
+import static org.neo4j.io.memory.ByteBufferFactory.heapBufferFactory;
 import static org.neo4j.io.pagecache.context.CursorContext.NULL;
 import static org.neo4j.kernel.impl.api.index.TestIndexProviderDescriptor.PROVIDER_DESCRIPTOR;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
 
 class RangeIndexProviderTest extends IndexProviderTests
 {
-    private static final ProviderFactory factory =
-            ( pageCache, fs, dir, monitors, collector, readOnlyChecker, databaseLayout ) ->
-            {
-                DatabaseIndexContext context = DatabaseIndexContext.builder( pageCache, fs, DEFAULT_DATABASE_NAME ).withMonitors( monitors )
-                        .withReadOnlyChecker( readOnlyChecker ).build();
-                return new RangeIndexProvider( context, dir, collector, Config.defaults() );
-            };
+    private static final ProviderFactory factory = factory( Config.defaults() );
+    private static final ProviderFactory prefixCompressingFactory =
+            factory( Config.defaults( GraphDatabaseInternalSettings.range_index_key_prefix_compression, true ) );
+
+    private static ProviderFactory factory( Config config )
+    {
+        return ( pageCache, fs, dir, monitors, collector, readOnlyChecker, databaseLayout ) ->
+        {
+            DatabaseIndexContext context = DatabaseIndexContext.builder( pageCache, fs, DEFAULT_DATABASE_NAME ).withMonitors( monitors )
+                    .withReadOnlyChecker( readOnlyChecker ).build();
+            return new RangeIndexProvider( context, dir, collector, config );
+        };
+    }
 
     RangeIndexProviderTest()
     {
@@ -83,6 +104,37 @@ class RangeIndexProviderTest extends IndexProviderTests
         }
     }
 
+    @Test
+    void shouldKeepKeyPrefixCompressionOfExistingIndexRegardlessOfSetting() throws Exception
+    {
+        // given an index created with prefix compressed keys
+        IndexDescriptor descriptor = descriptor();
+        provider = newProvider( prefixCompressingFactory, writable() );
+        IndexPopulator populator = provider.getPopulator( descriptor, samplingConfig(), heapBufferFactory( 1024 ), INSTANCE, tokenNameLookup );
+        populator.create();
+        populator.add( List.of( IndexEntryUpdate.add( 1, descriptor, Values.stringValue( "https://example.org/a" ) ),
+                IndexEntryUpdate.add( 2, descriptor, Values.stringValue( "https://example.org/b" ) ) ), NULL );
+        populator.close( true, NULL );
+
+        // when opened by a provider that doesn't compress key prefixes
+        provider = newProvider();
+        assertEquals( InternalIndexState.ONLINE, provider.getInitialState( descriptor, NULL ) );
+        try ( IndexAccessor accessor = provider.getOnlineAccessor( descriptor, samplingConfig(), tokenNameLookup );
+              ValueIndexReader reader = accessor.newValueReader() )
+        {
+            // then the entries can still be read
+            SimpleEntityValueClient client = new SimpleEntityValueClient();
+            reader.query( client, NULL_CONTEXT, AccessMode.Static.READ, unconstrained(),
+                    PropertyIndexQuery.stringPrefix( propId, Values.stringValue( "https://example.org/" ) ) );
+            List<Long> entityIds = new ArrayList<>();
+            while ( client.next() )
+            {
+                entityIds.add( client.reference );
+            }
+            assertThat( entityIds ).containsExactly( 1L, 2L );
+        }
+    }
+
     private IndexDescriptor descriptorUnique()
     {
         return completeConfiguration( uniqueForSchema( forLabel( labelId, propId ), PROVIDER_DESCRIPTOR ).withIndexType( IndexType.RANGE )
@@ -19,6 +19,21 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.kernel.impl.index.schema.NativeIndexKey.Inclusion.NEUTRAL;
+
 public class RangeKeyStateTest extends IndexKeyStateTest<RangeKey>
 {
     @Override
@@ -61,6 +76,68 @@ public class RangeKeyStateTest extends IndexKeyStateTest<RangeKey>
         }
     }
 
+    @Test
+    void readWhatIsWrittenWithPrefixFriendlyLayout()
+    {
+        for ( int i = 0; i < 1_000; i++ )
+        {
+            // Given
+            int numberOfSlots = random.nextInt( 1, 4 );
+            RangeLayout layout = new RangeLayout( numberOfSlots, true );
+            RangeKey writeKey = layout.newKey();
+            Value[] values = new Value[numberOfSlots];
+            for ( int slot = 0; slot < numberOfSlots; slot++ )
+            {
+                values[slot] = random.nextValue();
+                writeKey.writeValue( slot, values[slot], NEUTRAL );
+            }
+            writeKey.setEntityId( random.nextLong( Long.MAX_VALUE ) );
+            int keySize = layout.keySize( writeKey );
+            PageCursor cursor = ByteArrayPageCursor.wrap( PageCache.PAGE_SIZE );
+
+            // When
+            layout.writeKey( cursor, writeKey );
+            assertEquals( keySize, cursor.getOffset() );
+            cursor.setOffset( 0 );
+            RangeKey readKey = layout.newKey();
+            layout.readKey( cursor, readKey, keySize );
+
+            // Then
+            assertEquals( keySize, cursor.getOffset() );
+            assertThat( readKey.asValues() ).isEqualTo( values );
+            assertEquals( writeKey.getEntityId(), readKey.getEntityId() );
+            assertEquals( 0, layout.compare( writeKey, readKey ) );
+        }
+    }
+
+    @Test
+    void prefixFriendlyLayoutShouldWriteKeysWithSameLeadingTextWithSameLeadingBytes()
+    {
+        // Given
+        RangeLayout layout = new RangeLayout( 1, true );
+        String sharedText = "https://example.org/resource/";
+        byte[] first = write( layout, sharedText + "a", 2 );
+        byte[] second = write( layout, sharedText + "bcd", 1 );
+
+        // Then the values are written before the entity id
+        int sharedBytes = Arrays.mismatch( first, second );
+        assertTrue( sharedBytes > sharedText.length(), "only shared " + sharedBytes + " bytes" );
+        // and not so with the entity id first
+        RangeLayout plainLayout = new RangeLayout( 1 );
+        int sharedBytesWithPlainLayout = Arrays.mismatch( write( plainLayout, sharedText + "a", 2 ), write( plainLayout, sharedText + "bcd", 1 ) );
+        assertThat( sharedBytesWithPlainLayout ).isLessThan( Long.BYTES );
+    }
+
+    private static byte[] write( RangeLayout layout, String text, long entityId )
+    {
+        RangeKey key = layout.newKey();
+        key.initialize( entityId );
+        key.writeValue( 0, Values.stringValue( text ), NEUTRAL );
+        byte[] bytes = new byte[layout.keySize( key )];
+        layout.writeKey( ByteArrayPageCursor.wrap( bytes ), key );
+        return bytes;
+    }
+
     @Override
     Layout<RangeKey> newLayout( int numberOfSlots )
     {
@@ -24,6 +24,7 @@ import org.junit.jupiter.api.Test;
 import java.util.HashMap;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
 class RangeLayoutTest
@@ -42,4 +43,13 @@ class RangeLayoutTest
                                     "firstSlotCount=%s, secondSlotCount=%s.", previous, i ) );
         }
     }
+
+    @Test
+    void shouldHaveDifferentIdentifierWhenCompressingKeyPrefixes()
+    {
+        for ( int i = 1; i < 10; i++ )
+        {
+            assertNotEquals( new RangeLayout( i ).identifier(), new RangeLayout( i, true ).identifier() );
+        }
+    }
 }
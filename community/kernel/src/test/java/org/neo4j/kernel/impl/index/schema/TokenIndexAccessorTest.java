@@ -32,6 +32,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import java.io.Closeable;
 import java.io.IOException;
@@ -43,6 +44,7 @@ import java.util.stream.Stream;
 
 import org.neo4j.common.EntityType;
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.function.ThrowingConsumer;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
 import org.neo4j.internal.helpers.collection.BoundedIterable;
@@ -336,6 +338,35 @@ public class TokenIndexAccessorTest extends IndexAccessorTests<TokenScanKey,Toke
         assertThat( new long[]{labelId1, labelId2} ).isEqualTo( sorted( range.tokens( nodeId2 ) ) );
     }
 
+    @ParameterizedTest
+    @ValueSource( booleans = {false, true} )
+    void rangeWithoutTokensShouldMatchRangesOfIndexFormat( boolean wideRanges ) throws IndexEntryConflictException
+    {
+        // GIVEN
+        long nodeId = 5_000;
+        Config config = Config.defaults( GraphDatabaseInternalSettings.token_index_wide_ranges, wideRanges );
+        IndexFiles files = new IndexFiles.SingleFile( fs, directory.homePath().resolve( "ranges-" + wideRanges ) );
+        DatabaseIndexContext context = DatabaseIndexContext.builder( pageCache, fs, DEFAULT_DATABASE_NAME ).withReadOnlyChecker( writable() ).build();
+        try ( TokenIndexAccessor tokenIndex = new TokenIndexAccessor( context, DatabaseLayout.ofFlat( directory.homePath() ), files, config, indexDescriptor,
+                RecoveryCleanupWorkCollector.immediate() ) )
+        {
+            try ( IndexUpdater indexUpdater = tokenIndex.newUpdater( ONLINE, NULL ) )
+            {
+                indexUpdater.process( IndexEntryUpdate.change( nodeId, indexDescriptor, EMPTY_LONG_ARRAY, new long[]{1} ) );
+            }
+
+            // WHEN
+            EntityTokenRange range = single( tokenIndex.newAllEntriesTokenReader( Long.MIN_VALUE, Long.MAX_VALUE, NULL ).iterator() );
+            EntityTokenRange withoutTokens = EntityTokenRangeImpl.withoutTokens( nodeId, tokenIndex.rangeSize(), EntityType.NODE );
+
+            // THEN
+            assertThat( tokenIndex.rangeSize() ).isEqualTo( wideRanges ? 4096 : Long.SIZE );
+            assertThat( withoutTokens.id() ).isEqualTo( range.id() );
+            assertThat( withoutTokens.entities() ).isEqualTo( range.entities() );
+            assertThat( withoutTokens.tokens( nodeId ) ).isEmpty();
+        }
+    }
+
     @Test
     void shouldScanMultipleRanges() throws IndexEntryConflictException
     {
@@ -39,10 +39,12 @@ import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.memory.LocalMemoryTracker;
 import org.neo4j.monitoring.Monitors;
 import org.neo4j.storageengine.api.IndexEntryUpdate;
 import org.neo4j.storageengine.api.NodePropertyAccessor;
 import org.neo4j.storageengine.api.TokenIndexEntryUpdate;
+import org.neo4j.test.Race;
 import org.neo4j.test.utils.TestDirectory;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -56,9 +58,12 @@ import static org.neo4j.internal.schema.IndexPrototype.forSchema;
 import static org.neo4j.internal.schema.SchemaDescriptors.forAnyEntityTokens;
 import static org.neo4j.io.pagecache.context.CursorContext.NULL;
 import static org.neo4j.kernel.impl.api.index.PhaseTracker.nullInstance;
+import static org.neo4j.test.Race.throwing;
 
 class TokenIndexPopulatorTest extends IndexPopulatorTests<TokenScanKey,TokenScanValue,TokenScanLayout>
 {
+    private final LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+
     @Override
     IndexFiles createIndexFiles( FileSystemAbstraction fs, TestDirectory directory, IndexDescriptor indexDescriptor )
     {
@@ -106,7 +111,8 @@ class TokenIndexPopulatorTest extends IndexPopulatorTests<TokenScanKey,TokenScan
         DatabaseIndexContext context =
                 DatabaseIndexContext.builder( pageCache, fs, DEFAULT_DATABASE_NAME ).withMonitors( monitors ).withTag( monitorTag ).withReadOnlyChecker(
                         writable() ).build();
-        return new TokenIndexPopulator( context, DatabaseLayout.ofFlat( directory.homePath() ), indexFiles, Config.defaults(), indexDescriptor );
+        return new TokenIndexPopulator( context, DatabaseLayout.ofFlat( directory.homePath() ), indexFiles, Config.defaults(), indexDescriptor,
+                memoryTracker );
     }
 
     @Test
@@ -127,6 +133,118 @@ class TokenIndexPopulatorTest extends IndexPopulatorTests<TokenScanKey,TokenScan
         TokenIndexUtility.verifyUpdates( entityTokens, layout, this::getTree );
     }
 
+    @Test
+    void shouldTrackHeapUsedByBufferedScanUpdates() throws Exception
+    {
+        // Given
+        populator.create();
+
+        // When
+        populator.add( someTokenUpdates(), NULL );
+
+        // Then
+        assertThat( memoryTracker.estimatedHeapMemory() ).isPositive();
+        populator.scanCompleted( nullInstance, populationWorkScheduler, NULL );
+        assertThat( memoryTracker.estimatedHeapMemory() ).isZero();
+        populator.close( true, NULL );
+    }
+
+    @Test
+    void shouldReleaseHeapUsedByBufferedScanUpdatesOnCancelledPopulation() throws Exception
+    {
+        // Given
+        populator.create();
+        populator.add( someTokenUpdates(), NULL );
+        assertThat( memoryTracker.estimatedHeapMemory() ).isPositive();
+
+        // When
+        populator.close( false, NULL );
+
+        // Then
+        assertThat( memoryTracker.estimatedHeapMemory() ).isZero();
+    }
+
+    private static List<TokenIndexEntryUpdate<?>> someTokenUpdates()
+    {
+        return List.of(
+                IndexEntryUpdate.change( 1, null, EMPTY_LONG_ARRAY, new long[]{1, 2} ),
+                IndexEntryUpdate.change( 100, null, EMPTY_LONG_ARRAY, new long[]{1} ) );
+    }
+
+    @Test
+    void addShouldApplyUpdatesFromSeveralBatchesSpanningManyRanges() throws Exception
+    {
+        // Give
+        MutableLongObjectMap<long[]> entityTokens = LongObjectMaps.mutable.empty();
+
+        populator.create();
+
+        // Add updates to populator in batches, like a store scan would, with gaps so that most entities end up in ranges of their own
+        long entityId = 0;
+        for ( int batch = 0; batch < 10; batch++ )
+        {
+            List<TokenIndexEntryUpdate<?>> updates = new ArrayList<>();
+            for ( int i = 0; i < 100; i++ )
+            {
+                TokenIndexUtility.generateRandomUpdate( entityId, entityTokens, updates, random );
+                entityId += random.nextInt( 1, 200 );
+            }
+            populator.add( updates, NULL );
+        }
+
+        populator.scanCompleted( nullInstance, populationWorkScheduler, NULL );
+        populator.close( true, NULL );
+
+        TokenIndexUtility.verifyUpdates( entityTokens, layout, this::getTree );
+    }
+
+    @Test
+    void addShouldApplyUpdatesFromConcurrentBatches() throws Throwable
+    {
+        // Give
+        MutableLongObjectMap<long[]> entityTokens = LongObjectMaps.mutable.empty();
+
+        populator.create();
+
+        // Each thread gets its own entities, interleaved with the entities of the other threads so that they share ranges
+        int threads = 4;
+        List<List<List<TokenIndexEntryUpdate<?>>>> batchesPerThread = new ArrayList<>();
+        for ( int thread = 0; thread < threads; thread++ )
+        {
+            List<List<TokenIndexEntryUpdate<?>>> batches = new ArrayList<>();
+            for ( int batch = 0; batch < 20; batch++ )
+            {
+                List<TokenIndexEntryUpdate<?>> updates = new ArrayList<>();
+                for ( int i = 0; i < 50; i++ )
+                {
+                    long entityId = (batch * 50L + i) * threads + thread;
+                    TokenIndexUtility.generateRandomUpdate( entityId, entityTokens, updates, random );
+                }
+                batches.add( updates );
+            }
+            batchesPerThread.add( batches );
+        }
+
+        // Add the batches to the populator from several threads at the same time
+        Race race = new Race();
+        for ( List<List<TokenIndexEntryUpdate<?>>> batches : batchesPerThread )
+        {
+            race.addContestant( throwing( () ->
+            {
+                for ( List<TokenIndexEntryUpdate<?>> updates : batches )
+                {
+                    populator.add( updates, NULL );
+                }
+            } ) );
+        }
+        race.go();
+
+        populator.scanCompleted( nullInstance, populationWorkScheduler, NULL );
+        populator.close( true, NULL );
+
+        TokenIndexUtility.verifyUpdates( entityTokens, layout, this::getTree );
+    }
+
     @Test
     void updaterShouldApplyUpdates() throws Exception
     {
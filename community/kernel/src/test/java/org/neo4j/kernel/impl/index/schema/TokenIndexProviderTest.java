@@ -19,34 +19,75 @@
  */
 package org.neo4j.kernel.impl.index.schema;
 
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
 import java.util.List;
 
 import org.neo4j.common.EntityType;
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
+import org.neo4j.internal.kernel.api.InternalIndexState;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.IndexPrototype;
 import org.neo4j.internal.schema.IndexType;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.kernel.api.index.IndexPopulator;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.writable;
 import static org.neo4j.internal.schema.IndexPrototype.forSchema;
 import static org.neo4j.internal.schema.IndexPrototype.uniqueForSchema;
 import static org.neo4j.internal.schema.SchemaDescriptors.forAnyEntityTokens;
 import static org.neo4j.internal.schema.SchemaDescriptors.forLabel;
+import static org.neo4j.io.memory.ByteBufferFactory.heapBufferFactory;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
 
 public class TokenIndexProviderTest extends IndexProviderTests
 {
-    private static final ProviderFactory factory =
-            ( pageCache, fs, dir, monitors, collector, readOnlyChecker, databaseLayout ) -> {
-                DatabaseIndexContext context = DatabaseIndexContext.builder( pageCache, fs, databaseLayout.getDatabaseName() ).withMonitors( monitors )
-                        .withReadOnlyChecker( readOnlyChecker ).build();
-                return new TokenIndexProvider( context, dir, collector, Config.defaults(), databaseLayout );
-            };
+    private static final ProviderFactory factory = factory( Config.defaults() );
+    private static final ProviderFactory wideRangeFactory = factory( Config.defaults( GraphDatabaseInternalSettings.token_index_wide_ranges, true ) );
+
+    private static ProviderFactory factory( Config config )
+    {
+        return ( pageCache, fs, dir, monitors, collector, readOnlyChecker, databaseLayout ) -> {
+            DatabaseIndexContext context = DatabaseIndexContext.builder( pageCache, fs, databaseLayout.getDatabaseName() ).withMonitors( monitors )
+                    .withReadOnlyChecker( readOnlyChecker ).build();
+            return new TokenIndexProvider( context, dir, collector, config, databaseLayout );
+        };
+    }
 
     TokenIndexProviderTest()
     {
         super( factory );
     }
 
+    @Test
+    void shouldReportInitialStateAsPopulatingIfIndexWasWrittenInAnotherRangeFormat() throws IOException
+    {
+        // given an online index in the original format
+        provider = newProvider();
+        IndexPopulator populator = provider.getPopulator( descriptor(), samplingConfig(), heapBufferFactory( 1024 ), INSTANCE, tokenNameLookup );
+        populator.create();
+        populator.close( true, NULL );
+
+        // when opened by a provider configured for the wide-range format
+        provider = newProvider( wideRangeFactory, writable() );
+        InternalIndexState state = provider.getInitialState( descriptor(), NULL );
+
+        // then it is rebuilt in the wide-range format, after which it is online
+        assertEquals( InternalIndexState.POPULATING, state );
+        populator = provider.getPopulator( descriptor(), samplingConfig(), heapBufferFactory( 1024 ), INSTANCE, tokenNameLookup );
+        populator.create();
+        populator.close( true, NULL );
+        assertEquals( InternalIndexState.ONLINE, provider.getInitialState( descriptor(), NULL ) );
+
+        // and the other way around
+        provider = newProvider();
+        assertEquals( InternalIndexState.POPULATING, provider.getInitialState( descriptor(), NULL ) );
+    }
+
     @Override
     void setupIndexFolders( FileSystemAbstraction fs )
     {
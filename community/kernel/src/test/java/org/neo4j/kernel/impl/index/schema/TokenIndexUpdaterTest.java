@@ -27,15 +27,19 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Random;
+import java.util.stream.LongStream;
 
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.GBPTreeBuilder;
 import org.neo4j.index.internal.gbptree.GBPTreeVisitor;
+import org.neo4j.internal.schema.IndexOrder;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.kernel.api.index.EntityRange;
 import org.neo4j.storageengine.api.TokenIndexEntryUpdate;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.RandomExtension;
@@ -52,6 +56,7 @@ import static org.neo4j.collection.PrimitiveLongCollections.EMPTY_LONG_ARRAY;
 import static org.neo4j.collection.PrimitiveLongCollections.asArray;
 import static org.neo4j.io.pagecache.context.CursorContext.NULL;
 import static org.neo4j.kernel.impl.index.schema.TokenScanValue.RANGE_SIZE;
+import static org.neo4j.kernel.impl.index.schema.TokenScanValue.WIDE_RANGE_WORDS;
 import static org.neo4j.kernel.impl.index.schema.TokenScanValueIterator.NO_ID;
 
 @ExtendWith( RandomExtension.class )
@@ -109,6 +114,55 @@ class TokenIndexUpdaterTest
         }
     }
 
+    @Test
+    void shouldAddAndRemoveLabelsInWideRanges() throws Exception
+    {
+        // GIVEN
+        TokenScanLayout layout = new TokenScanLayout( WIDE_RANGE_WORDS );
+        long[] expected = new long[NODE_COUNT];
+        try ( GBPTree<TokenScanKey,TokenScanValue> wideTree = new GBPTreeBuilder<>( pageCache, directory.file( "wide" ), layout ).build() )
+        {
+            try ( TokenIndexUpdater writer = new TokenIndexUpdater( max( 5, NODE_COUNT / 100 ), TokenIndex.EMPTY, layout ) )
+            {
+                writer.initialize( wideTree.writer( NULL ) );
+
+                // WHEN
+                for ( int i = 0; i < NODE_COUNT * 3; i++ )
+                {
+                    TokenIndexEntryUpdate<?> update = randomUpdate( expected );
+                    writer.process( update );
+                }
+            }
+
+            // THEN
+            for ( int i = 0; i < LABEL_COUNT; i++ )
+            {
+                long[] expectedNodeIds = nodesWithLabel( expected, i );
+                long[] actualNodeIds = asArray( new TokenScanValueIterator(
+                        wideTree.seek( new TokenScanKey( i, 0 ), new TokenScanKey( i, Long.MAX_VALUE ), NULL ), NO_ID ) );
+                assertArrayEquals( expectedNodeIds, actualNodeIds, "For label " + i );
+
+                long fromId = random.nextInt( NODE_COUNT );
+                long fromRange = TokenIndexUpdater.rangeOf( fromId, layout.rangeSize() );
+                long[] actualNodeIdsAfterFromId = asArray( new TokenScanValueIterator(
+                        wideTree.seek( new TokenScanKey( i, fromRange ), new TokenScanKey( i, Long.MAX_VALUE ), NULL ), fromId ) );
+                assertArrayEquals( LongStream.of( expectedNodeIds ).filter( nodeId -> nodeId > fromId ).toArray(), actualNodeIdsAfterFromId,
+                        "For label " + i + " from " + fromId );
+
+                TokenScanValueIndexProgressorTest.MyClient client = new TokenScanValueIndexProgressorTest.MyClient();
+                TokenScanValueIndexProgressor progressor = new TokenScanValueIndexProgressor(
+                        wideTree.seek( new TokenScanKey( i, Long.MAX_VALUE ), new TokenScanKey( i, Long.MIN_VALUE ), NULL ), client,
+                        IndexOrder.DESCENDING, EntityRange.FULL );
+                while ( progressor.next() )
+                {
+                    // just collect the ids in the client
+                }
+                assertThat( client.observedIds ).containsExactly(
+                        LongStream.of( expectedNodeIds ).boxed().sorted( Collections.reverseOrder() ).toArray( Long[]::new ) );
+            }
+        }
+    }
+
     @Test
     void shouldTracePageCacheAccess() throws Exception
     {
@@ -58,12 +58,12 @@ public class TokenIndexUtility
             {
                 TokenScanKey key = scan.key();
                 TokenScanValue value = scan.value();
-                long entityIdBase = key.idRange * TokenScanValue.RANGE_SIZE;
+                long entityIdBase = key.idRange * layout.rangeSize();
 
-                for ( int i = 0; i < TokenScanValue.RANGE_SIZE; i++ )
+                for ( int i = 0; i < layout.rangeSize(); i++ )
                 {
                     long mask = 1L << i;
-                    long posInBits = value.bits & mask;
+                    long posInBits = value.word( i / Long.SIZE ) & mask;
                     if ( posInBits != 0 )
                     {
                         long entity = entityIdBase + i;
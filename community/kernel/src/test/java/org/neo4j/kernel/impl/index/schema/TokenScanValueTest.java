@@ -22,8 +22,14 @@ package org.neo4j.kernel.impl.index.schema;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.parallel.Execution;
 
+import org.neo4j.io.pagecache.ByteArrayPageCursor;
+import org.neo4j.io.pagecache.PageCursor;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+import static org.neo4j.kernel.impl.index.schema.TokenScanValue.WIDE_RANGE_WORDS;
 
 @Execution( CONCURRENT )
 class TokenScanValueTest
@@ -33,15 +39,15 @@ class TokenScanValueTest
     {
         // GIVEN
         TokenScanValue value = new TokenScanValue();
-        value.bits = 0b0000__1000_0100__0010_0001;
+        value.setWord( 0, 0b0000__1000_0100__0010_0001 );
 
         // WHEN
         TokenScanValue other = new TokenScanValue();
-        other.bits = 0b1100__0100_0100__0100_0100;
+        other.setWord( 0, 0b1100__0100_0100__0100_0100 );
         value.add( other );
 
         // THEN
-        assertEquals( 0b1100__1100_0100__0110_0101, value.bits );
+        assertEquals( 0b1100__1100_0100__0110_0101, value.word( 0 ) );
     }
 
     @Test
@@ -49,14 +55,73 @@ class TokenScanValueTest
     {
         // GIVEN
         TokenScanValue value = new TokenScanValue();
-        value.bits = 0b1100__1000_0100__0010_0001;
+        value.setWord( 0, 0b1100__1000_0100__0010_0001 );
 
         // WHEN
         TokenScanValue other = new TokenScanValue();
-        other.bits = 0b1000__0100_0100__0100_0100;
+        other.setWord( 0, 0b1000__0100_0100__0100_0100 );
         value.remove( other );
 
         // THEN
-        assertEquals( 0b0100__1000_0000__0010_0001, value.bits );
+        assertEquals( 0b0100__1000_0000__0010_0001, value.word( 0 ) );
+    }
+
+    @Test
+    void shouldAddAndRemoveBitsAcrossWords()
+    {
+        // GIVEN
+        TokenScanValue value = new TokenScanValue( WIDE_RANGE_WORDS );
+        value.set( 3 ).set( 64 * 10 + 7 ).set( 64 * 63 + 63 );
+        assertEquals( 1L | 1L << 10 | 1L << 63, value.nonEmptyWords );
+
+        // WHEN
+        TokenScanValue other = new TokenScanValue( WIDE_RANGE_WORDS );
+        other.set( 64 * 10 + 7 ).set( 64 * 20 );
+        value.add( other );
+
+        // THEN
+        assertEquals( 1L | 1L << 10 | 1L << 20 | 1L << 63, value.nonEmptyWords );
+        assertEquals( 1L << 7, value.word( 10 ) );
+        assertEquals( 1L, value.word( 20 ) );
+
+        // WHEN
+        value.remove( other );
+
+        // THEN
+        assertEquals( 1L | 1L << 63, value.nonEmptyWords );
+        assertEquals( 0, value.word( 10 ) );
+        assertEquals( 0, value.word( 20 ) );
+        assertEquals( 1L << 3, value.word( 0 ) );
+        assertEquals( 1L << 63, value.word( 63 ) );
+
+        // WHEN
+        value.clear();
+
+        // THEN
+        assertTrue( value.isEmpty() );
+        assertEquals( 0, value.word( 0 ) );
+        assertEquals( 0, value.word( 63 ) );
+    }
+
+    @Test
+    void shouldWriteAndReadWideValuesWithOnlyTheWordsThatAreNeitherEmptyNorFull()
+    {
+        // GIVEN
+        TokenScanLayout layout = new TokenScanLayout( WIDE_RANGE_WORDS );
+        TokenScanValue value = layout.newValue();
+        value.setWord( 2, 0b1010 ).setWord( 5, -1L ).setWord( 40, Long.MIN_VALUE );
+
+        // WHEN
+        int valueSize = layout.valueSize( value );
+        PageCursor cursor = ByteArrayPageCursor.wrap( valueSize );
+        layout.writeValue( cursor, value );
+        cursor.setOffset( 0 );
+        TokenScanValue read = layout.newValue().set( 4000 );
+        layout.readValue( cursor, read, valueSize );
+
+        // THEN
+        assertEquals( 2 * Long.BYTES + 2 * Long.BYTES, valueSize );
+        assertEquals( value.nonEmptyWords, read.nonEmptyWords );
+        assertArrayEquals( value.words, read.words );
     }
 }
@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
+import org.neo4j.logging.NullLog;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.PageCacheSupportExtension;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.utils.TestDirectory;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.collections.api.factory.Sets.immutable;
+import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
+import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.readOnly;
+import static org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker.writable;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+import static org.neo4j.test.utils.PageCacheConfig.config;
+
+@EphemeralTestDirectoryExtension
+class PageCacheWarmerTest
+{
+    private static final int PAGES = 100;
+
+    @Inject
+    private TestDirectory testDirectory;
+    @Inject
+    private FileSystemAbstraction fs;
+
+    private JobScheduler scheduler;
+    private Path databaseDirectory;
+    private Path storeFile;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        scheduler = JobSchedulerFactory.createInitialisedScheduler();
+        databaseDirectory = testDirectory.directory( "database" );
+        storeFile = databaseDirectory.resolve( "store" );
+        try ( PageCache pageCache = newPageCache();
+              PagedFile pagedFile = pageCache.map( storeFile, pageCache.pageSize(), DEFAULT_DATABASE_NAME, immutable.of( CREATE ) );
+              PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK, NULL ) )
+        {
+            for ( int i = 0; i < PAGES; i++ )
+            {
+                assertThat( cursor.next() ).isTrue();
+                cursor.putLong( i );
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception
+    {
+        scheduler.close();
+    }
+
+    @Test
+    void mustReloadProfiledPagesOnStart() throws Exception
+    {
+        Config config = Config.defaults( GraphDatabaseSettings.pagecache_warmup_enabled, true );
+        try ( PageCache pageCache = newPageCache();
+              PagedFile pagedFile = pageCache.map( storeFile, pageCache.pageSize(), DEFAULT_DATABASE_NAME ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK, NULL ) )
+            {
+                for ( int pageId = 0; pageId < PAGES; pageId += 3 )
+                {
+                    assertThat( cursor.next( pageId ) ).isTrue();
+                }
+            }
+            assertThat( warmer( pageCache, config, writable() ).profile() ).isEqualTo( (PAGES + 2) / 3 );
+        }
+
+        try ( PageCache pageCache = newPageCache();
+              PagedFile pagedFile = pageCache.map( storeFile, pageCache.pageSize(), DEFAULT_DATABASE_NAME ) )
+        {
+            assertThat( residentPages( pagedFile ) ).isZero();
+            PageCacheWarmer warmer = warmer( pageCache, config, writable() );
+            assertThat( warmer.reheat() ).isEqualTo( (PAGES + 2) / 3 );
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT, NULL ) )
+            {
+                for ( int pageId = 0; pageId < PAGES; pageId++ )
+                {
+                    assertThat( cursor.next( pageId ) ).isTrue();
+                    boolean resident = cursor.getCurrentPageId() != PageCursor.UNBOUND_PAGE_ID;
+                    assertThat( resident ).isEqualTo( pageId % 3 == 0 );
+                    if ( resident )
+                    {
+                        long value;
+                        do
+                        {
+                            value = cursor.getLong( 0 );
+                        }
+                        while ( cursor.shouldRetry() );
+                        assertThat( value ).isEqualTo( pageId );
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void mustBlockStartWhileReloadingProfiles() throws Exception
+    {
+        Config config = Config.defaults( GraphDatabaseSettings.pagecache_warmup_enabled, true );
+        try ( PageCache pageCache = newPageCache();
+              PagedFile pagedFile = pageCache.map( storeFile, pageCache.pageSize(), DEFAULT_DATABASE_NAME ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK, NULL ) )
+            {
+                assertThat( cursor.next( 7 ) ).isTrue();
+            }
+            assertThat( warmer( pageCache, config, writable() ).profile() ).isOne();
+        }
+
+        try ( PageCache pageCache = newPageCache();
+              PagedFile pagedFile = pageCache.map( storeFile, pageCache.pageSize(), DEFAULT_DATABASE_NAME ) )
+        {
+            PageCacheWarmer warmer = warmer( pageCache, config, writable() );
+            warmer.start();
+            assertThat( residentPages( pagedFile ) ).isOne();
+            warmer.stop();
+        }
+    }
+
+    @Test
+    void mustWriteProfileOnStop() throws Exception
+    {
+        Config config = Config.defaults( Map.of(
+                GraphDatabaseSettings.pagecache_warmup_enabled, true,
+                GraphDatabaseInternalSettings.pagecache_warmup_blocking, true ) );
+        try ( PageCache pageCache = newPageCache();
+              PagedFile pagedFile = pageCache.map( storeFile, pageCache.pageSize(), DEFAULT_DATABASE_NAME ) )
+        {
+            PageCacheWarmer warmer = warmer( pageCache, config, writable() );
+            warmer.start();
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK, NULL ) )
+            {
+                assertThat( cursor.next( 7 ) ).isTrue();
+            }
+            warmer.stop();
+        }
+        assertThat( fs.fileExists( profileFile() ) ).isTrue();
+    }
+
+    @Test
+    void mustNotDoAnythingWhenDisabled() throws Exception
+    {
+        Config config = Config.defaults( GraphDatabaseSettings.pagecache_warmup_enabled, false );
+        try ( PageCache pageCache = newPageCache();
+              PagedFile pagedFile = pageCache.map( storeFile, pageCache.pageSize(), DEFAULT_DATABASE_NAME ) )
+        {
+            PageCacheWarmer warmer = warmer( pageCache, config, writable() );
+            warmer.start();
+            warmer.stop();
+            assertThat( residentPages( pagedFile ) ).isZero();
+        }
+        assertThat( fs.fileExists( profileFile() ) ).isFalse();
+    }
+
+    @Test
+    void mustNotWriteProfilesForReadOnlyDatabase() throws Exception
+    {
+        Config config = Config.defaults( GraphDatabaseSettings.pagecache_warmup_enabled, true );
+        try ( PageCache pageCache = newPageCache();
+              PagedFile pagedFile = pageCache.map( storeFile, pageCache.pageSize(), DEFAULT_DATABASE_NAME );
+              PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK, NULL ) )
+        {
+            assertThat( cursor.next() ).isTrue();
+            assertThat( warmer( pageCache, config, readOnly() ).profile() ).isZero();
+        }
+        assertThat( fs.fileExists( profileFile() ) ).isFalse();
+    }
+
+    @Test
+    void mustPrefetchWholeAllowlistedFiles() throws Exception
+    {
+        Config config = Config.defaults( Map.of(
+                GraphDatabaseSettings.pagecache_warmup_enabled, true,
+                GraphDatabaseSettings.pagecache_warmup_prefetch, true,
+                GraphDatabaseSettings.pagecache_warmup_prefetch_allowlist, "store$",
+                GraphDatabaseInternalSettings.pagecache_warmup_blocking, true ) );
+        try ( PageCache pageCache = newPageCache();
+              PagedFile pagedFile = pageCache.map( storeFile, pageCache.pageSize(), DEFAULT_DATABASE_NAME ) )
+        {
+            PageCacheWarmer warmer = warmer( pageCache, config, writable() );
+            warmer.start();
+            assertThat( residentPages( pagedFile ) ).isEqualTo( PAGES );
+            warmer.stop();
+        }
+    }
+
+    @Test
+    void mustNotPrefetchFilesOutsideAllowlist() throws Exception
+    {
+        Config config = Config.defaults( Map.of(
+                GraphDatabaseSettings.pagecache_warmup_enabled, true,
+                GraphDatabaseSettings.pagecache_warmup_prefetch, true,
+                GraphDatabaseSettings.pagecache_warmup_prefetch_allowlist, "other" ) );
+        try ( PageCache pageCache = newPageCache();
+              PagedFile pagedFile = pageCache.map( storeFile, pageCache.pageSize(), DEFAULT_DATABASE_NAME ) )
+        {
+            PageCacheWarmer warmer = warmer( pageCache, config, writable() );
+            warmer.start();
+            warmer.stop();
+            assertThat( residentPages( pagedFile ) ).isZero();
+        }
+    }
+
+    private PageCache newPageCache()
+    {
+        return PageCacheSupportExtension.getPageCache( fs, config() );
+    }
+
+    private PageCacheWarmer warmer( PageCache pageCache, Config config, DatabaseReadOnlyChecker readOnlyChecker )
+    {
+        return new PageCacheWarmer( fs, pageCache, scheduler, databaseDirectory, DEFAULT_DATABASE_NAME, config, readOnlyChecker, PageCacheTracer.NULL,
+                NullLog.getInstance() );
+    }
+
+    private Path profileFile()
+    {
+        return databaseDirectory.resolve( PageCacheWarmer.PROFILES_DIRECTORY ).resolve( "store" + PageCacheWarmer.PROFILE_SUFFIX );
+    }
+
+    private static int residentPages( PagedFile pagedFile ) throws IOException
+    {
+        int resident = 0;
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT, NULL ) )
+        {
+            while ( cursor.next() )
+            {
+                if ( cursor.getCurrentPageId() != PageCursor.UNBOUND_PAGE_ID )
+                {
+                    resident++;
+                }
+            }
+        }
+        return resident;
+    }
+}
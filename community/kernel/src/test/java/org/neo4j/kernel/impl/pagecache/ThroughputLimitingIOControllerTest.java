@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
+import org.neo4j.time.Clocks;
+import org.neo4j.time.FakeClock;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.neo4j.io.ByteUnit.mebiBytes;
+
+class ThroughputLimitingIOControllerTest
+{
+    private final FakeClock clock = Clocks.fakeClock();
+    private final DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+    private final MajorFlushEvent flushEvent = tracer.beginCacheFlush();
+
+    @Test
+    void mustPauseFlushingThatGetsAheadOfTheLimit()
+    {
+        ThroughputLimitingIOController controller = new ThroughputLimitingIOController( mebiBytes( 100 ), clock );
+
+        // 10 MiB takes 100 milliseconds at 100 MiB/s, which is within what the flushing may get ahead of the limit.
+        controller.maybeLimitIO( 1, mebiBytes( 10 ), () -> {}, flushEvent );
+        assertThat( tracer.ioLimitedTimes() ).isZero();
+
+        // The next 10 MiB has to wait for the first 10 MiB.
+        controller.maybeLimitIO( 1, mebiBytes( 10 ), () -> {}, flushEvent );
+        assertThat( tracer.ioLimitedTimes() ).isEqualTo( 1 );
+        assertThat( tracer.ioLimitedMillis() ).isEqualTo( 100 );
+        assertThat( tracer.iopqPerformed() ).isEqualTo( 2 );
+    }
+
+    @Test
+    void mustNotAccumulateUnusedThroughputBeyondTheBurst()
+    {
+        ThroughputLimitingIOController controller = new ThroughputLimitingIOController( mebiBytes( 100 ), clock );
+        clock.forward( 10, SECONDS );
+
+        controller.maybeLimitIO( 1, mebiBytes( 20 ), () -> {}, flushEvent );
+        assertThat( tracer.ioLimitedTimes() ).isEqualTo( 1 );
+        assertThat( tracer.ioLimitedMillis() ).isEqualTo( 100 );
+    }
+
+    @Test
+    void mustNotLimitWhenDisabled()
+    {
+        ThroughputLimitingIOController controller = new ThroughputLimitingIOController( mebiBytes( 100 ), clock );
+        controller.disable();
+        try
+        {
+            assertThat( controller.isEnabled() ).isFalse();
+            controller.maybeLimitIO( 1, mebiBytes( 20 ), () -> {}, flushEvent );
+            controller.maybeLimitIO( 1, mebiBytes( 20 ), () -> {}, flushEvent );
+            assertThat( tracer.ioLimitedTimes() ).isZero();
+        }
+        finally
+        {
+            controller.enable();
+        }
+        assertThat( controller.isEnabled() ).isTrue();
+    }
+
+    @Test
+    void limitMustBePositive()
+    {
+        assertThrows( IllegalArgumentException.class, () -> new ThroughputLimitingIOController( 0, clock ) );
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import org.junit.jupiter.api.Test;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.data.Offset.offset;
+import static org.assertj.core.data.Percentage.withPercentage;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GroupCommitPolicyTest
+{
+    private static final long MAX_WAIT_NANOS = MICROSECONDS.toNanos( 500 );
+    private static final long FORCE_NANOS = MICROSECONDS.toNanos( 400 );
+
+    @Test
+    void doNotWaitForSingleCommitter()
+    {
+        GroupCommitPolicy policy = new GroupCommitPolicy( MAX_WAIT_NANOS, 16 );
+        for ( int i = 0; i < 100; i++ )
+        {
+            assertThat( policy.waitNanos( 1 ) ).isZero();
+            policy.batchForced( 1, FORCE_NANOS );
+        }
+        assertThat( policy.averageBatchSize() ).isEqualTo( 1.0 );
+    }
+
+    @Test
+    void waitForHalfTheForceLatencyWithConcurrentCommitters()
+    {
+        GroupCommitPolicy policy = new GroupCommitPolicy( MAX_WAIT_NANOS, 16 );
+        observe( policy, 4, FORCE_NANOS );
+
+        assertThat( policy.averageBatchSize() ).isCloseTo( 4.0, offset( 0.1 ) );
+        assertThat( policy.waitNanos( 2 ) ).isCloseTo( FORCE_NANOS / 2, withPercentage( 5 ) );
+    }
+
+    @Test
+    void neverWaitLongerThanMaxWait()
+    {
+        GroupCommitPolicy policy = new GroupCommitPolicy( MAX_WAIT_NANOS, 16 );
+        observe( policy, 4, MAX_WAIT_NANOS * 10 );
+
+        assertThat( policy.waitNanos( 2 ) ).isEqualTo( MAX_WAIT_NANOS );
+    }
+
+    @Test
+    void doNotWaitWhenBatchIsFull()
+    {
+        GroupCommitPolicy policy = new GroupCommitPolicy( MAX_WAIT_NANOS, 8 );
+        observe( policy, 4, FORCE_NANOS );
+
+        assertThat( policy.isFull( 7 ) ).isFalse();
+        assertThat( policy.isFull( 8 ) ).isTrue();
+        assertThat( policy.waitNanos( 8 ) ).isZero();
+        assertThat( policy.waitNanos( 100 ) ).isZero();
+    }
+
+    @Test
+    void doNotWaitWhenDisabled()
+    {
+        GroupCommitPolicy policy = new GroupCommitPolicy( 0, 16 );
+        observe( policy, 4, FORCE_NANOS );
+
+        assertThat( policy.waitNanos( 1 ) ).isZero();
+    }
+
+    @Test
+    void stopWaitingWhenConcurrencyGoesAway()
+    {
+        GroupCommitPolicy policy = new GroupCommitPolicy( MAX_WAIT_NANOS, 16 );
+        observe( policy, 8, FORCE_NANOS );
+        assertThat( policy.waitNanos( 1 ) ).isPositive();
+
+        observe( policy, 1, FORCE_NANOS );
+        assertThat( policy.waitNanos( 1 ) ).isZero();
+    }
+
+    @Test
+    void followChangesInForceLatency()
+    {
+        GroupCommitPolicy policy = new GroupCommitPolicy( MAX_WAIT_NANOS, 16 );
+        observe( policy, 4, FORCE_NANOS );
+        observe( policy, 4, FORCE_NANOS / 4 );
+
+        assertThat( policy.averageForceNanos() ).isCloseTo( FORCE_NANOS / 4, withPercentage( 5 ) );
+        assertThat( policy.waitNanos( 1 ) ).isLessThan( FORCE_NANOS / 4 );
+    }
+
+    @Test
+    void rejectInvalidLimits()
+    {
+        assertThrows( IllegalArgumentException.class, () -> new GroupCommitPolicy( -1, 16 ) );
+        assertThrows( IllegalArgumentException.class, () -> new GroupCommitPolicy( MAX_WAIT_NANOS, 0 ) );
+    }
+
+    private static void observe( GroupCommitPolicy policy, int batchSize, long forceNanos )
+    {
+        for ( int i = 0; i < 100; i++ )
+        {
+            policy.batchForced( batchSize, forceNanos );
+        }
+    }
+}
@@ -41,6 +41,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Stream;
 
+import org.neo4j.collection.Dependencies;
+import org.neo4j.configuration.Config;
 import org.neo4j.internal.nativeimpl.ErrorTranslator;
 import org.neo4j.internal.nativeimpl.NativeAccess;
 import org.neo4j.internal.nativeimpl.NativeCallResult;
@@ -59,11 +61,19 @@ import org.neo4j.kernel.impl.transaction.log.TransactionLogWriter;
 import org.neo4j.kernel.impl.transaction.log.entry.IncompleteLogHeaderException;
 import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
 import org.neo4j.kernel.impl.transaction.log.entry.LogHeaderWriter;
+import org.neo4j.kernel.impl.transaction.log.rotation.monitor.LogRotationMonitor;
+import org.neo4j.kernel.impl.transaction.log.rotation.monitor.LogRotationMonitorAdapter;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
 import org.neo4j.kernel.lifecycle.LifeSupport;
+import org.neo4j.logging.NullLog;
+import org.neo4j.monitoring.DatabaseHealth;
+import org.neo4j.monitoring.Monitors;
+import org.neo4j.monitoring.PanicEventGenerator;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.LogVersionRepository;
 import org.neo4j.storageengine.api.StoreId;
 import org.neo4j.storageengine.api.TransactionIdStore;
+import org.neo4j.test.OnDemandJobScheduler;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.LifeExtension;
 import org.neo4j.test.extension.Neo4jLayoutExtension;
@@ -75,6 +85,7 @@ import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -83,6 +94,8 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.transaction_log_prepare_next_file;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.transaction_log_recycle_pruned_files;
 import static org.neo4j.io.pagecache.context.CursorContext.NULL;
 import static org.neo4j.kernel.impl.transaction.log.TestLogEntryReader.logEntryReader;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
@@ -764,6 +777,81 @@ class TransactionLogFileTest
         assertThat( externalFileReaders ).isEmpty();
     }
 
+    @Test
+    void rotationMustUsePreparedNextLogFile() throws IOException
+    {
+        var jobScheduler = new OnDemandJobScheduler();
+        var rotationMonitor = new PreparedFilesMonitor();
+        LogFiles logFiles = buildLogFilesPreparingNextFile( jobScheduler, rotationMonitor, false );
+        life.add( logFiles );
+        life.start();
+
+        LogFile logFile = logFiles.getLogFile();
+        jobScheduler.runJob();
+        assertThat( rotationMonitor.prepared ).isEqualTo( 1 );
+
+        Path rotatedTo = logFile.rotate();
+
+        assertEquals( logFile.getLogFileForVersion( 2 ), rotatedTo );
+        assertEquals( 2, logFile.extractHeader( 2 ).getLogVersion() );
+        // The next file is prepared again, in the background.
+        jobScheduler.runJob();
+        assertThat( rotationMonitor.prepared ).isEqualTo( 2 );
+        assertThat( logFile.getMatchedFiles() ).hasSize( 2 );
+    }
+
+    @Test
+    void rotationMustUseRecycledPrunedLogFileWithoutItsOldEntries() throws IOException
+    {
+        var jobScheduler = new OnDemandJobScheduler();
+        var rotationMonitor = new PreparedFilesMonitor();
+        LogFiles logFiles = buildLogFilesPreparingNextFile( jobScheduler, rotationMonitor, true );
+        life.add( logFiles );
+        life.start();
+
+        LogFile logFile = logFiles.getLogFile();
+        logFile.getTransactionLogWriter().getChannel().put( someBytes( 1000 ), 1000 );
+        jobScheduler.runJob();
+        logFile.rotate();
+        jobScheduler.runJob();
+
+        assertTrue( logFile.tryRecycle( 1 ) );
+        assertFalse( logFile.versionExists( 1 ) );
+
+        // The already prepared file is used first, and the recycled one is prepared for the rotation after that.
+        logFile.rotate();
+        jobScheduler.runJob();
+        assertThat( rotationMonitor.recycled ).isEqualTo( 1 );
+        logFile.rotate();
+
+        assertEquals( 4, logFile.extractHeader( 4 ).getLogVersion() );
+        try ( StoreChannel channel = fileSystem.read( logFile.getLogFileForVersion( 4 ) ) )
+        {
+            ByteBuffer buffer = ByteBuffer.allocate( (int) channel.size() - CURRENT_FORMAT_LOG_HEADER_SIZE );
+            channel.position( CURRENT_FORMAT_LOG_HEADER_SIZE );
+            channel.readAll( buffer );
+            buffer.flip();
+            while ( buffer.hasRemaining() )
+            {
+                assertEquals( 0, buffer.get() );
+            }
+        }
+    }
+
+    @Test
+    void pruningMustNotRecycleLogFilesWhenNotEnabled() throws IOException
+    {
+        LogFiles logFiles = buildLogFiles();
+        life.add( logFiles );
+        life.start();
+
+        LogFile logFile = logFiles.getLogFile();
+        logFile.rotate();
+
+        assertFalse( logFile.tryRecycle( 1 ) );
+        assertTrue( logFile.versionExists( 1 ) );
+    }
+
     private static byte[] readBytes( ReadableChannel reader, int length ) throws IOException
     {
         byte[] result = new byte[length];
@@ -782,6 +870,29 @@ class TransactionLogFileTest
                 .build();
     }
 
+    private LogFiles buildLogFilesPreparingNextFile( JobScheduler jobScheduler, LogRotationMonitor rotationMonitor, boolean recycle ) throws IOException
+    {
+        var dependencies = new Dependencies();
+        dependencies.satisfyDependencies( jobScheduler );
+        var monitors = new Monitors();
+        monitors.addMonitorListener( rotationMonitor );
+        Config config = Config.newBuilder()
+                .set( transaction_log_prepare_next_file, true )
+                .set( transaction_log_recycle_pruned_files, recycle )
+                .build();
+        return LogFilesBuilder.builder( databaseLayout, fileSystem )
+                .withRotationThreshold( rotationThreshold )
+                .withTransactionIdStore( transactionIdStore )
+                .withLogVersionRepository( logVersionRepository )
+                .withLogEntryReader( logEntryReader() )
+                .withStoreId( StoreId.UNKNOWN )
+                .withDatabaseHealth( new DatabaseHealth( PanicEventGenerator.NO_OP, NullLog.getInstance() ) )
+                .withDependencies( dependencies )
+                .withMonitors( monitors )
+                .withConfig( config )
+                .build();
+    }
+
     private static byte[] someBytes( int length )
     {
         byte[] result = new byte[length];
@@ -977,4 +1088,20 @@ class TransactionLogFileTest
             return flushCounter;
         }
     }
+
+    private static class PreparedFilesMonitor extends LogRotationMonitorAdapter
+    {
+        private volatile int prepared;
+        private volatile int recycled;
+
+        @Override
+        public void nextLogFilePrepared( Path logFile, boolean recycled, long preparationMillis )
+        {
+            prepared++;
+            if ( recycled )
+            {
+                this.recycled++;
+            }
+        }
+    }
 }
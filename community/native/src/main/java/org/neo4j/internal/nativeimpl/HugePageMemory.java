@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.nativeimpl;
+
+import com.sun.jna.LastErrorException;
+import com.sun.jna.Native;
+import com.sun.jna.Platform;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.apache.commons.lang3.exception.ExceptionUtils.getStackTrace;
+
+/**
+ * Maps anonymous memory that is backed by huge pages, on Linux.
+ * <p>
+ * Memory can either be mapped with {@link #mapTransparent(long) transparent huge pages}, where the mapping is aligned to the huge page size
+ * and advised with {@code madvise(MADV_HUGEPAGE)}, and the kernel backs it with huge pages when it can, or it can be mapped from the
+ * {@link #mapHugeTlb(long) hugetlbfs pool} with {@code MAP_HUGETLB}, which only succeeds if the pool has enough huge pages reserved.
+ * In both cases, the memory is always aligned to the {@link #hugePageSize() huge page size}.
+ * <p>
+ * Whether transparent huge pages are actually used is up to the kernel, so {@link #hugePageBytes(long, long)} can be used to find out how
+ * much of a mapping is currently backed by huge pages.
+ */
+public final class HugePageMemory
+{
+    private static final long DEFAULT_HUGE_PAGE_SIZE = 2 * 1024 * 1024;
+    private static final Path MEMINFO = Path.of( "/proc/meminfo" );
+    private static final Path SMAPS = Path.of( "/proc/self/smaps" );
+
+    private static final int PROT_READ_WRITE = 0x1 | 0x2;
+    private static final int MAP_PRIVATE_ANONYMOUS = 0x02 | 0x20;
+    private static final int MAP_NORESERVE = 0x4000;
+    private static final int MAP_HUGETLB = 0x40000;
+    private static final int MADV_HUGEPAGE = 14;
+    private static final long MAP_FAILED = -1;
+
+    private static final boolean NATIVE_ACCESS_AVAILABLE;
+    private static final Throwable INITIALIZATION_FAILURE;
+    private static final long HUGE_PAGE_SIZE;
+
+    static
+    {
+        Throwable initFailure = null;
+        boolean available = false;
+        long hugePageSize = DEFAULT_HUGE_PAGE_SIZE;
+        try
+        {
+            if ( Platform.isLinux() && Platform.is64Bit() )
+            {
+                Native.register( Platform.C_LIBRARY_NAME );
+                hugePageSize = readHugePageSize();
+                available = true;
+            }
+        }
+        catch ( Throwable t )
+        {
+            initFailure = t;
+        }
+        NATIVE_ACCESS_AVAILABLE = available;
+        INITIALIZATION_FAILURE = initFailure;
+        HUGE_PAGE_SIZE = hugePageSize;
+    }
+
+    private static native long mmap( long address, long length, int protection, int flags, int fd, long offset ) throws LastErrorException;
+
+    private static native int munmap( long address, long length ) throws LastErrorException;
+
+    private static native int madvise( long address, long length, int advice ) throws LastErrorException;
+
+    private HugePageMemory()
+    {
+    }
+
+    /**
+     * @return {@code true} if huge page backed memory can be mapped on this platform, {@code false} otherwise.
+     */
+    public static boolean isAvailable()
+    {
+        return NATIVE_ACCESS_AVAILABLE;
+    }
+
+    /**
+     * @return a description of why huge page backed memory is, or is not, available.
+     */
+    public static String describe()
+    {
+        if ( NATIVE_ACCESS_AVAILABLE )
+        {
+            return "Huge page backed memory is available. Huge page size: " + HUGE_PAGE_SIZE + " bytes.";
+        }
+        StringBuilder descriptionBuilder = new StringBuilder( "Huge page backed memory is not available." );
+        if ( INITIALIZATION_FAILURE != null )
+        {
+            descriptionBuilder.append( " Details: " ).append( getStackTrace( INITIALIZATION_FAILURE ) );
+        }
+        return descriptionBuilder.toString();
+    }
+
+    /**
+     * @return the size of the default huge pages of the system, in bytes.
+     */
+    public static long hugePageSize()
+    {
+        return HUGE_PAGE_SIZE;
+    }
+
+    /**
+     * Map memory that is aligned to the huge page size, and advise the kernel to back it with transparent huge pages.
+     * <p>
+     * The mapping succeeds even if transparent huge pages are disabled, in which case the memory is backed by normal pages.
+     *
+     * @param bytes the size of the mapping, which must be a multiple of the {@link #hugePageSize() huge page size}.
+     * @return the address of the mapping, or {@code 0} if the memory could not be mapped.
+     */
+    public static long mapTransparent( long bytes )
+    {
+        checkSize( bytes );
+        if ( !NATIVE_ACCESS_AVAILABLE )
+        {
+            return 0;
+        }
+        try
+        {
+            // Over-allocate so we can trim the mapping down to a huge page aligned range.
+            long length = bytes + HUGE_PAGE_SIZE;
+            long address = mmap( 0, length, PROT_READ_WRITE, MAP_PRIVATE_ANONYMOUS | MAP_NORESERVE, -1, 0 );
+            if ( address == MAP_FAILED )
+            {
+                return 0;
+            }
+            long aligned = alignUp( address );
+            long head = aligned - address;
+            if ( head > 0 )
+            {
+                munmap( address, head );
+            }
+            long tail = length - head - bytes;
+            if ( tail > 0 )
+            {
+                munmap( aligned + bytes, tail );
+            }
+            try
+            {
+                madvise( aligned, bytes, MADV_HUGEPAGE );
+            }
+            catch ( LastErrorException e )
+            {
+                // Transparent huge pages are not supported by this kernel. The memory is still usable, but it will be backed by normal pages.
+            }
+            return aligned;
+        }
+        catch ( LastErrorException e )
+        {
+            return 0;
+        }
+    }
+
+    /**
+     * Map memory from the pool of reserved huge pages.
+     *
+     * @param bytes the size of the mapping, which must be a multiple of the {@link #hugePageSize() huge page size}.
+     * @return the address of the mapping, or {@code 0} if the memory could not be mapped, e.g. because there are not enough free huge pages.
+     */
+    public static long mapHugeTlb( long bytes )
+    {
+        checkSize( bytes );
+        if ( !NATIVE_ACCESS_AVAILABLE )
+        {
+            return 0;
+        }
+        try
+        {
+            long address = mmap( 0, bytes, PROT_READ_WRITE, MAP_PRIVATE_ANONYMOUS | MAP_HUGETLB, -1, 0 );
+            return address == MAP_FAILED ? 0 : address;
+        }
+        catch ( LastErrorException e )
+        {
+            return 0;
+        }
+    }
+
+    /**
+     * Unmap memory that was mapped by {@link #mapTransparent(long)} or {@link #mapHugeTlb(long)}.
+     *
+     * @param address the address of the mapping.
+     * @param bytes the size of the mapping.
+     */
+    public static void unmap( long address, long bytes )
+    {
+        munmap( address, bytes );
+    }
+
+    /**
+     * Find out how much of the given range of memory is currently backed by huge pages, according to {@code /proc/self/smaps}.
+     * <p>
+     * The kernel merges adjacent mappings that have the same attributes, so the memory of mappings that are adjacent to the given range
+     * may be included in the result.
+     *
+     * @param address the start of the range.
+     * @param bytes the size of the range.
+     * @return the number of bytes backed by huge pages, or {@code -1} if this information is not available.
+     */
+    public static long hugePageBytes( long address, long bytes )
+    {
+        return hugePageBytes( new long[]{address}, new long[]{bytes}, 1 );
+    }
+
+    /**
+     * Find out how much of the given ranges of memory are currently backed by huge pages, according to {@code /proc/self/smaps}.
+     *
+     * @param addresses the starts of the ranges.
+     * @param sizes the sizes of the ranges.
+     * @param count the number of ranges.
+     * @return the number of bytes backed by huge pages, or {@code -1} if this information is not available.
+     * @see #hugePageBytes(long, long)
+     */
+    public static long hugePageBytes( long[] addresses, long[] sizes, int count )
+    {
+        if ( !NATIVE_ACCESS_AVAILABLE )
+        {
+            return -1;
+        }
+        long total = 0;
+        try ( BufferedReader reader = Files.newBufferedReader( SMAPS ) )
+        {
+            boolean inRange = false;
+            String line;
+            while ( (line = reader.readLine()) != null )
+            {
+                int dash = line.indexOf( '-' );
+                int space = line.indexOf( ' ' );
+                if ( dash > 0 && space > dash && isHex( line, 0, dash ) )
+                {
+                    // A mapping header line, like "7f0c2a000000-7f0c2c000000 rw-p 00000000 00:00 0".
+                    long start = Long.parseUnsignedLong( line.substring( 0, dash ), 16 );
+                    long limit = Long.parseUnsignedLong( line.substring( dash + 1, space ), 16 );
+                    inRange = overlaps( start, limit, addresses, sizes, count );
+                }
+                else if ( inRange && (line.startsWith( "AnonHugePages:" ) || line.startsWith( "Private_Hugetlb:" ) ||
+                        line.startsWith( "Shared_Hugetlb:" )) )
+                {
+                    total += parseKibiBytes( line );
+                }
+            }
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            return -1;
+        }
+        return total;
+    }
+
+    private static boolean overlaps( long start, long limit, long[] addresses, long[] sizes, int count )
+    {
+        for ( int i = 0; i < count; i++ )
+        {
+            if ( start < addresses[i] + sizes[i] && addresses[i] < limit )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long readHugePageSize() throws IOException
+    {
+        if ( Files.isReadable( MEMINFO ) )
+        {
+            for ( String line : Files.readAllLines( MEMINFO ) )
+            {
+                if ( line.startsWith( "Hugepagesize:" ) )
+                {
+                    return parseKibiBytes( line );
+                }
+            }
+        }
+        return DEFAULT_HUGE_PAGE_SIZE;
+    }
+
+    private static long parseKibiBytes( String line )
+    {
+        // Lines look like "AnonHugePages:      2048 kB".
+        String value = line.substring( line.indexOf( ':' ) + 1 ).trim();
+        int unit = value.indexOf( ' ' );
+        return Long.parseLong( unit == -1 ? value : value.substring( 0, unit ) ) * 1024;
+    }
+
+    private static boolean isHex( String line, int from, int to )
+    {
+        for ( int i = from; i < to; i++ )
+        {
+            if ( Character.digit( line.charAt( i ), 16 ) == -1 )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void checkSize( long bytes )
+    {
+        if ( bytes <= 0 || bytes % HUGE_PAGE_SIZE != 0 )
+        {
+            throw new IllegalArgumentException( "Size must be a positive multiple of the huge page size of " + HUGE_PAGE_SIZE + " bytes: " + bytes );
+        }
+    }
+
+    private static long alignUp( long address )
+    {
+        return (address + HUGE_PAGE_SIZE - 1) & -HUGE_PAGE_SIZE;
+    }
+}
@@ -0,0 +1,507 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.nativeimpl;
+
+import com.sun.jna.LastErrorException;
+import com.sun.jna.Native;
+import com.sun.jna.Platform;
+import com.sun.jna.Pointer;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+
+import static org.apache.commons.lang3.exception.ExceptionUtils.getStackTrace;
+
+/**
+ * A minimal binding to the Linux io_uring interface, that is used to submit batches of positional reads and writes with a single system call,
+ * and have the kernel perform them concurrently.
+ * <p>
+ * The ring is set up and driven directly through the {@code io_uring_setup} and {@code io_uring_enter} system calls, so that it does not
+ * depend on liburing being installed. io_uring requires Linux 5.1 or newer, and it can be disabled by the kernel or by a seccomp profile, so
+ * {@link #isAvailable()} must be checked before a ring is {@link #open(int) opened}.
+ * <p>
+ * A ring is <em>not</em> thread safe. The usage pattern is to {@link #prepareRead(int, long, long, int, long) prepare} up to
+ * {@link #entries()} operations, and then {@link #submitAndWait(CompletionHandler) submit} them and wait for all of them to complete.
+ */
+public final class IoUring implements AutoCloseable
+{
+    // System call numbers. These are the same on x86_64 and aarch64.
+    private static final long SYS_IO_URING_SETUP = 425;
+    private static final long SYS_IO_URING_ENTER = 426;
+
+    private static final int IORING_OP_READV = 1;
+    private static final int IORING_OP_WRITEV = 2;
+    private static final int IORING_ENTER_GETEVENTS = 1;
+    private static final int IORING_FEAT_SINGLE_MMAP = 1;
+    private static final long IORING_OFF_SQ_RING = 0L;
+    private static final long IORING_OFF_CQ_RING = 0x8000000L;
+    private static final long IORING_OFF_SQES = 0x10000000L;
+
+    private static final int PROT_READ_WRITE = 0x1 | 0x2;
+    private static final int MAP_SHARED_POPULATE = 0x01 | 0x8000;
+    private static final long MAP_FAILED = -1;
+    private static final int EINTR = 4;
+
+    // Layout of struct io_uring_params.
+    private static final int PARAMS_SIZE = 120;
+    private static final int PARAMS_SQ_ENTRIES = 0;
+    private static final int PARAMS_CQ_ENTRIES = 4;
+    private static final int PARAMS_FEATURES = 20;
+    private static final int PARAMS_SQ_OFF = 40;
+    private static final int PARAMS_CQ_OFF = 80;
+    // Layout of struct io_sqring_offsets and struct io_cqring_offsets, relative to their offsets in the params.
+    private static final int OFF_HEAD = 0;
+    private static final int OFF_TAIL = 4;
+    private static final int OFF_RING_MASK = 8;
+    private static final int SQ_OFF_ARRAY = 24;
+    private static final int CQ_OFF_CQES = 20;
+    // Layout of struct io_uring_sqe and struct io_uring_cqe.
+    private static final int SQE_SIZE = 64;
+    private static final int SQE_OPCODE = 0;
+    private static final int SQE_FD = 4;
+    private static final int SQE_OFF = 8;
+    private static final int SQE_ADDR = 16;
+    private static final int SQE_LEN = 24;
+    private static final int SQE_USER_DATA = 32;
+    private static final int CQE_SIZE = 16;
+    private static final int CQE_USER_DATA = 0;
+    private static final int CQE_RES = 8;
+    // Layout of struct iovec.
+    private static final int IOVEC_SIZE = 16;
+
+    private static final boolean NATIVE_ACCESS_AVAILABLE;
+    private static final Throwable INITIALIZATION_FAILURE;
+
+    static
+    {
+        Throwable initFailure = null;
+        boolean available = false;
+        try
+        {
+            if ( Platform.isLinux() && Platform.is64Bit() && (Platform.isIntel() || Platform.isARM()) )
+            {
+                Native.register( Platform.C_LIBRARY_NAME );
+                // The kernel may not support io_uring, or it may have been disabled, so we probe for it with a small ring.
+                try ( IoUring probe = new IoUring( 2 ) )
+                {
+                    available = true;
+                }
+            }
+        }
+        catch ( Throwable t )
+        {
+            initFailure = t;
+        }
+        NATIVE_ACCESS_AVAILABLE = available;
+        INITIALIZATION_FAILURE = initFailure;
+    }
+
+    private static native long syscall( long number, long arg1, long arg2, long arg3, long arg4, long arg5, long arg6 ) throws LastErrorException;
+
+    private static native long mmap( long address, long length, int protection, int flags, int fd, long offset ) throws LastErrorException;
+
+    private static native int munmap( long address, long length ) throws LastErrorException;
+
+    private static native int close( int fd ) throws LastErrorException;
+
+    private final int ringFd;
+    private final int entries;
+    private final long sqRingAddress;
+    private final long sqRingSize;
+    private final long cqRingAddress;
+    private final long cqRingSize;
+    private final long sqesAddress;
+    private final long sqesSize;
+    private final long iovecsAddress;
+    private final Pointer sqRing;
+    private final Pointer cqRing;
+    private final Pointer sqes;
+    private final Pointer iovecs;
+    private final int sqTailOffset;
+    private final int sqMask;
+    private final int sqArrayOffset;
+    private final int cqHeadOffset;
+    private final int cqTailOffset;
+    private final int cqMask;
+    private final int cqesOffset;
+    private int sqTail;
+    private int prepared;
+    private boolean closed;
+
+    /**
+     * @return {@code true} if io_uring is supported by the platform and the running kernel, {@code false} otherwise.
+     */
+    public static boolean isAvailable()
+    {
+        return NATIVE_ACCESS_AVAILABLE;
+    }
+
+    /**
+     * @return a description of why io_uring is, or is not, available.
+     */
+    public static String describe()
+    {
+        if ( NATIVE_ACCESS_AVAILABLE )
+        {
+            return "io_uring is available.";
+        }
+        StringBuilder descriptionBuilder = new StringBuilder( "io_uring is not available." );
+        if ( INITIALIZATION_FAILURE != null )
+        {
+            descriptionBuilder.append( " Details: " ).append( getStackTrace( INITIALIZATION_FAILURE ) );
+        }
+        return descriptionBuilder.toString();
+    }
+
+    /**
+     * Set up a new ring.
+     *
+     * @param entries the number of operations that can be submitted together. The kernel rounds this up to a power of two.
+     * @return the new ring.
+     * @throws IOException if the ring could not be set up.
+     */
+    public static IoUring open( int entries ) throws IOException
+    {
+        if ( !NATIVE_ACCESS_AVAILABLE )
+        {
+            throw new IOException( describe() );
+        }
+        try
+        {
+            return new IoUring( entries );
+        }
+        catch ( LastErrorException e )
+        {
+            throw new IOException( "Failed to set up io_uring with " + entries + " entries. Error code: " + e.getErrorCode(), e );
+        }
+    }
+
+    private IoUring( int requestedEntries )
+    {
+        long params = Native.malloc( PARAMS_SIZE );
+        if ( params == 0 )
+        {
+            throw new OutOfMemoryError( "Failed to allocate io_uring parameters." );
+        }
+        int fd = -1;
+        long sqAddress = 0;
+        long sqSize = 0;
+        long cqAddress = 0;
+        long cqSize = 0;
+        long sqesAddr = 0;
+        long sqesBytes = 0;
+        long iovecsAddr = 0;
+        try
+        {
+            Pointer p = new Pointer( params );
+            p.setMemory( 0, PARAMS_SIZE, (byte) 0 );
+            fd = (int) syscall( SYS_IO_URING_SETUP, requestedEntries, params, 0, 0, 0, 0 );
+            int sqEntries = p.getInt( PARAMS_SQ_ENTRIES );
+            int cqEntries = p.getInt( PARAMS_CQ_ENTRIES );
+            boolean singleMmap = (p.getInt( PARAMS_FEATURES ) & IORING_FEAT_SINGLE_MMAP) != 0;
+            int sqOffArray = p.getInt( PARAMS_SQ_OFF + SQ_OFF_ARRAY );
+            int cqOffCqes = p.getInt( PARAMS_CQ_OFF + CQ_OFF_CQES );
+
+            sqSize = sqOffArray + (long) sqEntries * Integer.BYTES;
+            long cqRingBytes = cqOffCqes + (long) cqEntries * CQE_SIZE;
+            if ( singleMmap )
+            {
+                // The completion queue shares the mapping of the submission queue.
+                sqSize = Math.max( sqSize, cqRingBytes );
+                sqAddress = map( fd, sqSize, IORING_OFF_SQ_RING );
+                cqAddress = sqAddress;
+            }
+            else
+            {
+                sqAddress = map( fd, sqSize, IORING_OFF_SQ_RING );
+                cqSize = cqRingBytes;
+                cqAddress = map( fd, cqSize, IORING_OFF_CQ_RING );
+            }
+            sqesBytes = (long) sqEntries * SQE_SIZE;
+            sqesAddr = map( fd, sqesBytes, IORING_OFF_SQES );
+            iovecsAddr = Native.malloc( (long) sqEntries * IOVEC_SIZE );
+            if ( iovecsAddr == 0 )
+            {
+                throw new OutOfMemoryError( "Failed to allocate io_uring iovecs." );
+            }
+
+            ringFd = fd;
+            entries = sqEntries;
+            sqRingAddress = sqAddress;
+            sqRingSize = sqSize;
+            cqRingAddress = cqAddress;
+            cqRingSize = cqSize;
+            sqesAddress = sqesAddr;
+            sqesSize = sqesBytes;
+            iovecsAddress = iovecsAddr;
+            sqRing = new Pointer( sqAddress );
+            cqRing = new Pointer( cqAddress );
+            sqes = new Pointer( sqesAddr );
+            iovecs = new Pointer( iovecsAddr );
+            sqArrayOffset = sqOffArray;
+            cqesOffset = cqOffCqes;
+            sqTailOffset = p.getInt( PARAMS_SQ_OFF + OFF_TAIL );
+            sqMask = sqRing.getInt( p.getInt( PARAMS_SQ_OFF + OFF_RING_MASK ) );
+            cqHeadOffset = p.getInt( PARAMS_CQ_OFF + OFF_HEAD );
+            cqTailOffset = p.getInt( PARAMS_CQ_OFF + OFF_TAIL );
+            cqMask = cqRing.getInt( p.getInt( PARAMS_CQ_OFF + OFF_RING_MASK ) );
+            sqTail = sqRing.getInt( sqTailOffset );
+        }
+        catch ( RuntimeException | Error e )
+        {
+            release( fd, sqAddress, sqSize, cqAddress, cqSize, sqesAddr, sqesBytes, iovecsAddr );
+            throw e;
+        }
+        finally
+        {
+            Native.free( params );
+        }
+    }
+
+    private static long map( int fd, long size, long offset )
+    {
+        long address = mmap( 0, size, PROT_READ_WRITE, MAP_SHARED_POPULATE, fd, offset );
+        if ( address == MAP_FAILED )
+        {
+            throw new LastErrorException( Native.getLastError() );
+        }
+        return address;
+    }
+
+    private static void release( int fd, long sqAddress, long sqSize, long cqAddress, long cqSize, long sqesAddress, long sqesSize, long iovecsAddress )
+    {
+        if ( iovecsAddress != 0 )
+        {
+            Native.free( iovecsAddress );
+        }
+        if ( sqesAddress != 0 )
+        {
+            munmap( sqesAddress, sqesSize );
+        }
+        if ( cqSize != 0 && cqAddress != 0 )
+        {
+            munmap( cqAddress, cqSize );
+        }
+        if ( sqAddress != 0 )
+        {
+            munmap( sqAddress, sqSize );
+        }
+        if ( fd >= 0 )
+        {
+            close( fd );
+        }
+    }
+
+    /**
+     * @return the number of operations that can be prepared before they must be submitted.
+     */
+    public int entries()
+    {
+        return entries;
+    }
+
+    /**
+     * @return the number of operations that have been prepared, but not yet submitted.
+     */
+    public int prepared()
+    {
+        return prepared;
+    }
+
+    /**
+     * Prepare a positional read of {@code length} bytes from the file, into the given buffer.
+     *
+     * @param fd the file descriptor of the file to read from.
+     * @param fileOffset the offset in the file to read from.
+     * @param bufferAddress the address of the buffer to read into.
+     * @param length the number of bytes to read.
+     * @param userData a value that is given back to the {@link CompletionHandler} when the read completes.
+     * @throws IllegalStateException if {@link #entries()} operations have already been prepared.
+     */
+    public void prepareRead( int fd, long fileOffset, long bufferAddress, int length, long userData )
+    {
+        prepare( IORING_OP_READV, fd, fileOffset, bufferAddress, length, userData );
+    }
+
+    /**
+     * Prepare a positional write of {@code length} bytes from the given buffer, into the file.
+     *
+     * @param fd the file descriptor of the file to write to.
+     * @param fileOffset the offset in the file to write to.
+     * @param bufferAddress the address of the buffer to write from.
+     * @param length the number of bytes to write.
+     * @param userData a value that is given back to the {@link CompletionHandler} when the write completes.
+     * @throws IllegalStateException if {@link #entries()} operations have already been prepared.
+     */
+    public void prepareWrite( int fd, long fileOffset, long bufferAddress, int length, long userData )
+    {
+        prepare( IORING_OP_WRITEV, fd, fileOffset, bufferAddress, length, userData );
+    }
+
+    private void prepare( int opcode, int fd, long fileOffset, long bufferAddress, int length, long userData )
+    {
+        if ( closed )
+        {
+            throw new IllegalStateException( "io_uring is closed." );
+        }
+        if ( prepared == entries )
+        {
+            throw new IllegalStateException( "All " + entries + " io_uring entries have already been prepared." );
+        }
+        // We always wait for all submitted operations to complete, so the kernel has always consumed all the entries we submitted before.
+        int index = (sqTail + prepared) & sqMask;
+        long iovec = (long) index * IOVEC_SIZE;
+        iovecs.setLong( iovec, bufferAddress );
+        iovecs.setLong( iovec + Long.BYTES, length );
+
+        long sqe = (long) index * SQE_SIZE;
+        sqes.setMemory( sqe, SQE_SIZE, (byte) 0 );
+        sqes.setByte( sqe + SQE_OPCODE, (byte) opcode );
+        sqes.setInt( sqe + SQE_FD, fd );
+        sqes.setLong( sqe + SQE_OFF, fileOffset );
+        sqes.setLong( sqe + SQE_ADDR, iovecsAddress + iovec );
+        sqes.setInt( sqe + SQE_LEN, 1 );
+        sqes.setLong( sqe + SQE_USER_DATA, userData );
+        sqRing.setInt( sqArrayOffset + (long) index * Integer.BYTES, index );
+        prepared++;
+    }
+
+    /**
+     * Submit all the prepared operations with a single system call, and wait for all of them to complete.
+     * <p>
+     * The completion handler is called once for every operation, in the order the operations complete, with the {@code userData} given
+     * when the operation was prepared, and the result of the operation: the number of bytes read or written, or a negated error code.
+     * Reads and writes can be short, so the handler must check the result against the requested length.
+     *
+     * @param handler the handler of the completed operations.
+     * @return the number of operations that were submitted.
+     * @throws IOException if the operations could not be submitted.
+     */
+    public int submitAndWait( CompletionHandler handler ) throws IOException
+    {
+        int toSubmit = prepared;
+        if ( toSubmit == 0 )
+        {
+            return 0;
+        }
+        prepared = 0;
+        sqTail += toSubmit;
+        // The entries must be visible to the kernel before the tail is.
+        VarHandle.releaseFence();
+        sqRing.setInt( sqTailOffset, sqTail );
+        VarHandle.fullFence();
+
+        int unsubmitted = toSubmit;
+        int outstanding = toSubmit;
+        IOException failure = null;
+        while ( outstanding > 0 )
+        {
+            try
+            {
+                int submitted = (int) syscall( SYS_IO_URING_ENTER, ringFd, unsubmitted, 1, IORING_ENTER_GETEVENTS, 0, 0 );
+                unsubmitted -= submitted;
+            }
+            catch ( LastErrorException e )
+            {
+                if ( e.getErrorCode() != EINTR )
+                {
+                    // Whatever was already submitted must still be reaped, before the ring can be used again.
+                    failure = addFailure( failure, new IOException( "Failed to submit to io_uring. Error code: " + e.getErrorCode(), e ) );
+                    outstanding -= unsubmitted;
+                    discardUnsubmitted( unsubmitted );
+                    unsubmitted = 0;
+                }
+            }
+
+            int head = cqRing.getInt( cqHeadOffset );
+            int tail = cqRing.getInt( cqTailOffset );
+            // The completion entries must not be read before the tail.
+            VarHandle.acquireFence();
+            for ( ; head != tail; head++, outstanding-- )
+            {
+                long cqe = cqesOffset + (long) (head & cqMask) * CQE_SIZE;
+                long userData = cqRing.getLong( cqe + CQE_USER_DATA );
+                int result = cqRing.getInt( cqe + CQE_RES );
+                if ( failure == null )
+                {
+                    try
+                    {
+                        handler.completed( userData, result );
+                    }
+                    catch ( IOException e )
+                    {
+                        failure = e;
+                    }
+                }
+            }
+            // The completion entries must be read before the kernel is allowed to reuse them.
+            VarHandle.releaseFence();
+            cqRing.setInt( cqHeadOffset, head );
+        }
+        if ( failure != null )
+        {
+            throw failure;
+        }
+        return toSubmit;
+    }
+
+    private static IOException addFailure( IOException failure, IOException e )
+    {
+        if ( failure == null )
+        {
+            return e;
+        }
+        failure.addSuppressed( e );
+        return failure;
+    }
+
+    private void discardUnsubmitted( int unsubmitted )
+    {
+        // The kernel stopped consuming entries at the first one it could not submit. Pull the tail back to where it did stop.
+        sqTail -= unsubmitted;
+        sqRing.setInt( sqTailOffset, sqTail );
+        VarHandle.fullFence();
+    }
+
+    @Override
+    public void close()
+    {
+        if ( closed )
+        {
+            return;
+        }
+        closed = true;
+        release( ringFd, sqRingAddress, sqRingSize, cqRingAddress, cqRingSize, sqesAddress, sqesSize, iovecsAddress );
+    }
+
+    /**
+     * Receives the results of the operations submitted with {@link #submitAndWait(CompletionHandler)}.
+     */
+    @FunctionalInterface
+    public interface CompletionHandler
+    {
+        /**
+         * @param userData the value given when the operation was prepared.
+         * @param result the number of bytes read or written, or a negated error code if the operation failed.
+         * @throws IOException to signal that the operation failed. Remaining completions are reaped, but not handed to the handler.
+         */
+        void completed( long userData, int result ) throws IOException;
+    }
+}
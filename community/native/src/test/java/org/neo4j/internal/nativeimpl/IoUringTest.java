@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.nativeimpl;
+
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileDescriptor;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.apache.commons.lang3.reflect.FieldUtils.getDeclaredField;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class IoUringTest
+{
+    private static final int BUFFER_SIZE = 4096;
+    private static final int BUFFERS = 12;
+
+    @TempDir
+    Path directory;
+
+    private long buffers;
+
+    @BeforeEach
+    void allocateBuffers()
+    {
+        buffers = Native.malloc( (long) BUFFER_SIZE * BUFFERS );
+    }
+
+    @AfterEach
+    void freeBuffers()
+    {
+        Native.free( buffers );
+    }
+
+    @Test
+    @DisabledOnOs( OS.LINUX )
+    void notAvailableOnNonLinux()
+    {
+        assertThat( IoUring.isAvailable() ).isFalse();
+        assertThatThrownBy( () -> IoUring.open( 8 ) ).isInstanceOf( IOException.class );
+    }
+
+    @Test
+    void mustWriteAndReadBackBatchesOfBuffers() throws Exception
+    {
+        assumeTrue( IoUring.isAvailable(), IoUring::describe );
+        Path file = directory.resolve( "file" );
+        try ( FileChannel channel = FileChannel.open( file, READ, WRITE, CREATE );
+              IoUring ring = IoUring.open( 4 ) )
+        {
+            int fd = getDescriptor( channel );
+            Pointer memory = new Pointer( buffers );
+            for ( int i = 0; i < BUFFERS; i++ )
+            {
+                memory.setMemory( (long) i * BUFFER_SIZE, BUFFER_SIZE, (byte) (i + 1) );
+            }
+
+            // More buffers than ring entries, so they must be submitted in several batches.
+            Map<Long,Integer> results = new HashMap<>();
+            for ( int i = 0; i < BUFFERS; i++ )
+            {
+                if ( ring.prepared() == ring.entries() )
+                {
+                    ring.submitAndWait( results::put );
+                }
+                ring.prepareWrite( fd, (long) i * BUFFER_SIZE, buffers + (long) i * BUFFER_SIZE, BUFFER_SIZE, i );
+            }
+            ring.submitAndWait( results::put );
+            assertThat( results ).hasSize( BUFFERS ).allSatisfy( ( buffer, result ) -> assertThat( result ).isEqualTo( BUFFER_SIZE ) );
+            assertThat( Files.size( file ) ).isEqualTo( (long) BUFFER_SIZE * BUFFERS );
+
+            memory.setMemory( 0, (long) BUFFER_SIZE * BUFFERS, (byte) 0 );
+            results.clear();
+            for ( int i = BUFFERS - 1; i >= 0; i-- )
+            {
+                if ( ring.prepared() == ring.entries() )
+                {
+                    ring.submitAndWait( results::put );
+                }
+                ring.prepareRead( fd, (long) i * BUFFER_SIZE, buffers + (long) i * BUFFER_SIZE, BUFFER_SIZE, i );
+            }
+            ring.submitAndWait( results::put );
+            assertThat( results ).hasSize( BUFFERS ).allSatisfy( ( buffer, result ) -> assertThat( result ).isEqualTo( BUFFER_SIZE ) );
+            for ( int i = 0; i < BUFFERS; i++ )
+            {
+                assertThat( memory.getByte( (long) i * BUFFER_SIZE ) ).isEqualTo( (byte) (i + 1) );
+                assertThat( memory.getByte( (long) (i + 1) * BUFFER_SIZE - 1 ) ).isEqualTo( (byte) (i + 1) );
+            }
+        }
+    }
+
+    @Test
+    void mustReportShortReadsAndErrorsToCompletionHandler() throws Exception
+    {
+        assumeTrue( IoUring.isAvailable(), IoUring::describe );
+        Path file = directory.resolve( "file" );
+        try ( FileChannel channel = FileChannel.open( file, READ, WRITE, CREATE );
+              IoUring ring = IoUring.open( 4 ) )
+        {
+            channel.write( ByteBuffer.wrap( new byte[100] ) );
+            int fd = getDescriptor( channel );
+            Map<Long,Integer> results = new HashMap<>();
+            ring.prepareRead( fd, 0, buffers, BUFFER_SIZE, 1 );
+            ring.prepareRead( fd, BUFFER_SIZE, buffers, BUFFER_SIZE, 2 );
+            ring.prepareRead( -1, 0, buffers, BUFFER_SIZE, 3 );
+            assertThat( ring.submitAndWait( results::put ) ).isEqualTo( 3 );
+            assertThat( results ).containsEntry( 1L, 100 ).containsEntry( 2L, 0 );
+            assertThat( results.get( 3L ) ).isNegative();
+        }
+    }
+
+    @Test
+    void mustNotPrepareMoreEntriesThanTheRingHolds() throws Exception
+    {
+        assumeTrue( IoUring.isAvailable(), IoUring::describe );
+        try ( IoUring ring = IoUring.open( 2 ) )
+        {
+            for ( int i = 0; i < ring.entries(); i++ )
+            {
+                ring.prepareRead( 0, 0, buffers, BUFFER_SIZE, i );
+            }
+            assertThatThrownBy( () -> ring.prepareRead( 0, 0, buffers, BUFFER_SIZE, 0 ) ).isInstanceOf( IllegalStateException.class );
+        }
+    }
+
+    private static int getDescriptor( FileChannel channel ) throws ClassNotFoundException, IllegalAccessException
+    {
+        Class<?> fileChannelImpl = Class.forName( "sun.nio.ch.FileChannelImpl" );
+        FileDescriptor fd = (FileDescriptor) getDeclaredField( fileChannelImpl, "fd", true ).get( channel );
+        return getDeclaredField( FileDescriptor.class, "fd", true ).getInt( fd );
+    }
+}
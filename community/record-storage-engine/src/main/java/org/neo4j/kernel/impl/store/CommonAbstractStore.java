@@ -67,6 +67,7 @@ import static org.neo4j.internal.recordstorage.InconsistentDataReadException.CYC
 import static org.neo4j.io.pagecache.PageCacheOpenOptions.ANY_PAGE_SIZE;
 import static org.neo4j.io.pagecache.PagedFile.PF_EAGER_FLUSH;
 import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
+import static org.neo4j.io.pagecache.PagedFile.PF_SCAN;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
 import static org.neo4j.kernel.impl.store.record.RecordLoad.FORCE;
@@ -419,12 +420,13 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord,HEAD
      * DANGER: make sure to always close this cursor.
      *
      * Opens a {@link PageCursor} to this store, mainly for use in {@link #getRecordByCursor(long, AbstractBaseRecord, RecordLoad, PageCursor)}.
-     * The opened cursor will make use of the {@link PagedFile#PF_READ_AHEAD} flag for optimal scanning performance.
+     * The opened cursor will make use of the {@link PagedFile#PF_READ_AHEAD} flag for optimal scanning performance, and the
+     * {@link PagedFile#PF_SCAN} flag so that the scan does not push frequently used pages out of the page cache.
      */
     @Override
     public PageCursor openPageCursorForReadingWithPrefetching( long id, CursorContext cursorContext )
     {
-        return openPageCursorForReading( 0, PF_READ_AHEAD, cursorContext );
+        return openPageCursorForReading( 0, PF_READ_AHEAD | PF_SCAN, cursorContext );
     }
 
     /**
@@ -561,7 +563,7 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord,HEAD
     {
         return visitor ->
         {
-            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_READ_AHEAD, cursorContext ) )
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_READ_AHEAD | PF_SCAN, cursorContext ) )
             {
                 int numberOfReservedLowIds = getNumberOfReservedLowIds();
                 int startingId = numberOfReservedLowIds;
@@ -644,7 +646,7 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord,HEAD
      */
     protected long scanForHighId( CursorContext cursorContext )
     {
-        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_READ_AHEAD, cursorContext ) )
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_READ_AHEAD | PF_SCAN, cursorContext ) )
         {
             int recordsPerPage = getRecordsPerPage();
             int recordSize = getRecordSize();
@@ -28,6 +28,7 @@ import org.neo4j.adversaries.Adversary;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.monitoring.FlushStatistics;
 import org.neo4j.io.pagecache.monitoring.PageFileCounters;
 
 /**
@@ -61,6 +62,13 @@ public class AdversarialPagedFile implements PagedFile
         return new AdversarialWritePageCursor( pageCursor, adversary );
     }
 
+    @Override
+    public int touch( long pageId, int count, CursorContext context ) throws IOException
+    {
+        adversary.injectFailure( NoSuchFileException.class, IOException.class, SecurityException.class );
+        return delegate.touch( pageId, count, context );
+    }
+
     @Override
     public int pageSize()
     {
@@ -124,4 +132,10 @@ public class AdversarialPagedFile implements PagedFile
     {
         return delegate.pageFileCounters();
     }
+
+    @Override
+    public FlushStatistics flushStatistics()
+    {
+        return delegate.flushStatistics();
+    }
 }
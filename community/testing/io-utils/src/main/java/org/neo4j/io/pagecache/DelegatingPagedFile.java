@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.nio.file.Path;
 
 import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.monitoring.FlushStatistics;
 import org.neo4j.io.pagecache.monitoring.PageFileCounters;
 
 public class DelegatingPagedFile implements PagedFile
@@ -40,6 +41,12 @@ public class DelegatingPagedFile implements PagedFile
         return delegate.io( pageId, pf_flags, context );
     }
 
+    @Override
+    public int touch( long pageId, int count, CursorContext context ) throws IOException
+    {
+        return delegate.touch( pageId, count, context );
+    }
+
     @Override
     public void flushAndForce() throws IOException
     {
@@ -99,4 +106,10 @@ public class DelegatingPagedFile implements PagedFile
     {
         return delegate.pageFileCounters();
     }
+
+    @Override
+    public FlushStatistics flushStatistics()
+    {
+        return delegate.flushStatistics();
+    }
 }
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.nio.file.Path;
 
 import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.monitoring.FlushStatistics;
 import org.neo4j.io.pagecache.monitoring.PageFileCounters;
 import org.neo4j.io.pagecache.tracing.PageFileSwapperTracer;
 
@@ -50,6 +51,12 @@ public class StubPagedFile implements PagedFile
     {
     }
 
+    @Override
+    public int touch( long pageId, int count, CursorContext context )
+    {
+        return 0;
+    }
+
     @Override
     public int pageSize()
     {
@@ -110,4 +117,10 @@ public class StubPagedFile implements PagedFile
     {
         return PageFileSwapperTracer.NULL;
     }
+
+    @Override
+    public FlushStatistics flushStatistics()
+    {
+        return FlushStatistics.EMPTY;
+    }
 }
@@ -407,6 +407,28 @@ public final class UnsafeUtil
         memoryTracker.releaseNative( bytes );
     }
 
+    /**
+     * Register a block of memory that was not allocated with {@link #allocateMemory}, but mapped by other means, such as {@code mmap}, so
+     * that it is treated like allocated memory by the native access checks. The memory must be unregistered with
+     * {@link #unregisterMappedMemory(long)} before it is unmapped.
+     */
+    public static void registerMappedMemory( long pointer, long bytes )
+    {
+        addAllocatedPointer( pointer, bytes );
+        if ( DIRTY_MEMORY )
+        {
+            setMemory( pointer, bytes, (byte) 0xA5 );
+        }
+    }
+
+    /**
+     * Unregister a block of memory that was registered with {@link #registerMappedMemory(long, long)}.
+     */
+    public static void unregisterMappedMemory( long pointer )
+    {
+        checkFree( pointer );
+    }
+
     private static void addAllocatedPointer( long pointer, long sizeInBytes )
     {
         if ( CHECK_NATIVE_ACCESS )